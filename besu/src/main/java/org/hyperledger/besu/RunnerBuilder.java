@@ -53,6 +53,7 @@ import org.hyperledger.besu.ethereum.api.jsonrpc.internal.methods.JsonRpcMethod;
 import org.hyperledger.besu.ethereum.api.jsonrpc.ipc.JsonRpcIpcConfiguration;
 import org.hyperledger.besu.ethereum.api.jsonrpc.ipc.JsonRpcIpcService;
 import org.hyperledger.besu.ethereum.api.jsonrpc.methods.JsonRpcMethodsFactory;
+import org.hyperledger.besu.ethereum.api.jsonrpc.methods.ReadOnlyJsonRpcMethods;
 import org.hyperledger.besu.ethereum.api.jsonrpc.websocket.WebSocketConfiguration;
 import org.hyperledger.besu.ethereum.api.jsonrpc.websocket.WebSocketMessageHandler;
 import org.hyperledger.besu.ethereum.api.jsonrpc.websocket.WebSocketService;
@@ -191,6 +192,7 @@ public class RunnerBuilder {
   private Optional<String> identityString = Optional.empty();
   private BesuPluginContextImpl besuPluginContext;
   private boolean autoLogBloomCaching = true;
+  private boolean readOnlyJsonRpc = false;
   private StorageProvider storageProvider;
   private RpcEndpointServiceImpl rpcEndpointServiceImpl;
   private JsonRpcIpcConfiguration jsonRpcIpcConfiguration;
@@ -561,6 +563,17 @@ public class RunnerBuilder {
     return this;
   }
 
+  /**
+   * Only expose the JSON-RPC methods that do not change the state of the node.
+   *
+   * @param readOnlyJsonRpc whether only the read methods are exposed
+   * @return the runner builder
+   */
+  public RunnerBuilder readOnlyJsonRpc(final boolean readOnlyJsonRpc) {
+    this.readOnlyJsonRpc = readOnlyJsonRpc;
+    return this;
+  }
+
   /**
    * Add Storage provider.
    *
@@ -783,7 +796,8 @@ public class RunnerBuilder {
             Optional.of(dataDir.resolve(CACHE_PATH)),
             Optional.of(besuController.getProtocolManager().ethContext().getScheduler()),
             apiConfiguration,
-            miningParameters);
+            miningParameters,
+            besuController.getLogIndex());
 
     final PrivacyParameters privacyParameters = besuController.getPrivacyParameters();
 
@@ -878,8 +892,10 @@ public class RunnerBuilder {
                   metricsSystem,
                   natService,
                   nonEngineMethods,
+                  DefaultAuthenticationService.create(vertx, jsonRpcConfiguration),
                   new HealthService(new LivenessCheck()),
-                  new HealthService(new ReadinessCheck(peerNetwork, synchronizer))));
+                  new HealthService(new ReadinessCheck(peerNetwork, synchronizer)),
+                  Optional.of(context.getBlockchain())));
     }
 
     final SubscriptionManager subscriptionManager =
@@ -1326,7 +1342,8 @@ public class RunnerBuilder {
                 besuController.getProtocolManager().ethContext().getEthPeers(),
                 consensusEngineServer,
                 apiConfiguration,
-                enodeDnsConfiguration);
+                enodeDnsConfiguration,
+                storageProvider.getStorageStats());
     methods.putAll(besuController.getAdditionalJsonRpcMethods(jsonRpcApis));
 
     final var pluginMethods =
@@ -1339,7 +1356,7 @@ public class RunnerBuilder {
     }
 
     methods.putAll(pluginMethods);
-    return methods;
+    return readOnlyJsonRpc ? ReadOnlyJsonRpcMethods.filter(methods) : methods;
   }
 
   private SubscriptionManager createSubscriptionManager(
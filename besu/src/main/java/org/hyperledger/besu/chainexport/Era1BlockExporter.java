@@ -0,0 +1,151 @@
+/*
+ * Copyright contributors to Hyperledger Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.chainexport;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import org.hyperledger.besu.ethereum.chain.Blockchain;
+import org.hyperledger.besu.ethereum.core.Block;
+import org.hyperledger.besu.ethereum.core.BlockHeader;
+import org.hyperledger.besu.ethereum.core.Difficulty;
+import org.hyperledger.besu.ethereum.core.TransactionReceipt;
+import org.hyperledger.besu.ethereum.util.era1.Era1Writer;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import org.apache.tuweni.bytes.Bytes32;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Exports blocks, along with their receipts and total difficulty, to era1 archives of one epoch
+ * of {@link Era1Writer#MAX_BLOCKS_PER_FILE} blocks each.
+ */
+public class Era1BlockExporter {
+  private static final Logger LOG = LoggerFactory.getLogger(Era1BlockExporter.class);
+  private final Blockchain blockchain;
+
+  /**
+   * Instantiates a new Era1 block exporter.
+   *
+   * @param blockchain the blockchain
+   */
+  public Era1BlockExporter(final Blockchain blockchain) {
+    this.blockchain = blockchain;
+  }
+
+  /**
+   * Export blocks that are stored in Besu's block storage.
+   *
+   * <p>Blocks are written to one file per epoch, named {@code
+   * <prefix>-<epoch>-<short accumulator root>.era1} after the era1 naming convention, where the
+   * prefix is the given output file name, typically the network name.
+   *
+   * @param outputPrefix the path and name prefix of the era1 files to write
+   * @param maybeStartBlock the starting index of the block list to export (inclusive)
+   * @param maybeEndBlock the ending index of the block list to export (exclusive), if not specified
+   *     all blocks up to the chain head are exported
+   * @return the written era1 files
+   * @throws IOException if an I/O error occurs while writing data to disk
+   */
+  public List<Path> exportBlocks(
+      final File outputPrefix,
+      final Optional<Long> maybeStartBlock,
+      final Optional<Long> maybeEndBlock)
+      throws IOException {
+    final long startBlock = maybeStartBlock.orElse(BlockHeader.GENESIS_BLOCK_NUMBER);
+    final long endBlock = maybeEndBlock.orElse(blockchain.getChainHeadBlockNumber() + 1L);
+    checkArgument(startBlock >= 0 && endBlock >= 0, "Start and end blocks must be greater than 0.");
+    checkArgument(startBlock < endBlock, "Start block must be less than end block");
+
+    LOG.info(
+        "Exporting blocks [{},{}) to era1 files {}-*.era1", startBlock, endBlock, outputPrefix);
+
+    final List<Path> files = new ArrayList<>();
+    long blockNumber = startBlock;
+    while (blockNumber < endBlock) {
+      final long epoch = blockNumber / Era1Writer.MAX_BLOCKS_PER_FILE;
+      final long epochEnd = Math.min(endBlock, (epoch + 1) * Era1Writer.MAX_BLOCKS_PER_FILE);
+      final long exportedEnd = exportEpoch(outputPrefix, epoch, blockNumber, epochEnd, files);
+      if (exportedEnd < epochEnd) {
+        break;
+      }
+      blockNumber = epochEnd;
+    }
+
+    LOG.info("Export complete, {} era1 files written", files.size());
+    return files;
+  }
+
+  private long exportEpoch(
+      final File outputPrefix,
+      final long epoch,
+      final long fromBlock,
+      final long toBlock,
+      final List<Path> files)
+      throws IOException {
+    final Path tempFile =
+        outputPrefix.toPath().resolveSibling(fileName(outputPrefix, epoch, "tmp"));
+    long blockNumber = fromBlock;
+    final Bytes32 accumulatorRoot;
+    try (final Era1Writer writer = new Era1Writer(tempFile)) {
+      for (; blockNumber < toBlock; blockNumber++) {
+        final Optional<Block> maybeBlock = blockchain.getBlockByNumber(blockNumber);
+        if (maybeBlock.isEmpty()) {
+          LOG.warn("Unable to export blocks [{} - {}).  Blocks not found.", blockNumber, toBlock);
+          break;
+        }
+        final Block block = maybeBlock.get();
+        final List<TransactionReceipt> receipts =
+            blockchain.getTxReceipts(block.getHash()).orElseThrow(() -> missing(block, "receipts"));
+        final Difficulty totalDifficulty =
+            blockchain
+                .getTotalDifficultyByHash(block.getHash())
+                .orElseThrow(() -> missing(block, "total difficulty"));
+        writer.add(block, receipts, totalDifficulty);
+      }
+      accumulatorRoot = blockNumber > fromBlock ? writer.finish() : null;
+    }
+
+    if (accumulatorRoot == null) {
+      Files.delete(tempFile);
+      return blockNumber;
+    }
+    final Path file =
+        tempFile.resolveSibling(
+            fileName(
+                outputPrefix, epoch, accumulatorRoot.toUnprefixedHexString().substring(0, 8)));
+    Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING);
+    LOG.info("Exported blocks [{},{}) to {}", fromBlock, blockNumber, file);
+    files.add(file);
+    return blockNumber;
+  }
+
+  private static String fileName(final File outputPrefix, final long epoch, final String suffix) {
+    return String.format("%s-%05d-%s.era1", outputPrefix.getName(), epoch, suffix);
+  }
+
+  private static IllegalStateException missing(final Block block, final String data) {
+    return new IllegalStateException(
+        "Unable to export block " + block.getHeader().getNumber() + ", " + data + " not found.");
+  }
+}
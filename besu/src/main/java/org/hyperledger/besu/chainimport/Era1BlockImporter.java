@@ -0,0 +1,389 @@
+/*
+ * Copyright contributors to Hyperledger Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.chainimport;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+import org.hyperledger.besu.controller.BesuController;
+import org.hyperledger.besu.datatypes.Hash;
+import org.hyperledger.besu.ethereum.ProtocolContext;
+import org.hyperledger.besu.ethereum.chain.MutableBlockchain;
+import org.hyperledger.besu.ethereum.core.Block;
+import org.hyperledger.besu.ethereum.core.BlockBody;
+import org.hyperledger.besu.ethereum.core.BlockHeader;
+import org.hyperledger.besu.ethereum.core.BlockHeaderFunctions;
+import org.hyperledger.besu.ethereum.core.Difficulty;
+import org.hyperledger.besu.ethereum.core.Transaction;
+import org.hyperledger.besu.ethereum.mainnet.BlockImportResult;
+import org.hyperledger.besu.ethereum.mainnet.BodyValidation;
+import org.hyperledger.besu.ethereum.mainnet.HeaderValidationMode;
+import org.hyperledger.besu.ethereum.mainnet.ProtocolSchedule;
+import org.hyperledger.besu.ethereum.mainnet.ProtocolSpec;
+import org.hyperledger.besu.ethereum.mainnet.ScheduleBasedBlockHeaderFunctions;
+import org.hyperledger.besu.ethereum.util.era1.Era1Accumulator;
+import org.hyperledger.besu.ethereum.util.era1.Era1Block;
+import org.hyperledger.besu.ethereum.util.era1.Era1Reader;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import com.google.common.base.Stopwatch;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Tool for importing blocks from era1 archives.
+ *
+ * <p>Blocks are read from the memory mapped archives, decompressed, decoded, checked against their
+ * header and have their header validated on a pool of threads, up to {@link #LOOKAHEAD_BLOCKS}
+ * blocks ahead of the block being imported. When blocks are executed, transaction senders are
+ * also recovered ahead of execution. Trusted history can instead be stored with the receipts of
+ * the archive without being executed, in which case no world state is built for these blocks.
+ */
+public class Era1BlockImporter implements Closeable {
+  private static final Logger LOG = LoggerFactory.getLogger(Era1BlockImporter.class);
+
+  private static final int LOOKAHEAD_BLOCKS = 1024;
+  private static final long SEGMENT_SIZE = 1000;
+
+  private final ExecutorService decodingExecutor;
+
+  /** Default Constructor. */
+  public Era1BlockImporter() {
+    this(Runtime.getRuntime().availableProcessors());
+  }
+
+  /**
+   * Instantiates a new Era1 block importer.
+   *
+   * @param decodingThreads the number of threads decoding and validating blocks ahead of import
+   */
+  public Era1BlockImporter(final int decodingThreads) {
+    this.decodingExecutor = Executors.newFixedThreadPool(decodingThreads);
+  }
+
+  /**
+   * Imports blocks from an era1 file, or from all the era1 files of a directory in name order,
+   * into Besu's block storage.
+   *
+   * @param era1Files the era1 file, or the directory containing the era1 files
+   * @param besuController the BesuController that defines blockchain behavior
+   * @param skipPowValidation Skip proof of work validation (correct mix hash and difficulty)
+   * @param skipExecution Store blocks and their receipts without executing them
+   * @param startBlock the first block to import
+   * @param endBlock the block at which to stop importing (exclusive)
+   * @return the import result
+   * @throws IOException On Failure
+   */
+  public RlpBlockImporter.ImportResult importBlockchain(
+      final Path era1Files,
+      final BesuController besuController,
+      final boolean skipPowValidation,
+      final boolean skipExecution,
+      final long startBlock,
+      final long endBlock)
+      throws IOException {
+    final ProtocolSchedule protocolSchedule = besuController.getProtocolSchedule();
+    final ProtocolContext context = besuController.getProtocolContext();
+    final MutableBlockchain blockchain = context.getBlockchain();
+    final BlockHeaderFunctions blockHeaderFunctions =
+        ScheduleBasedBlockHeaderFunctions.create(protocolSchedule);
+    final Era1Import era1Import =
+        new Era1Import(context, protocolSchedule, skipPowValidation, skipExecution);
+
+    final Deque<PendingBlock> pendingBlocks = new ArrayDeque<>();
+    // the files whose blocks are not all imported yet
+    final Set<Era1Reader> openReaders = new HashSet<>();
+    try {
+      CompletableFuture<BlockHeader> previousHeader = null;
+      for (final Path file : listEra1Files(era1Files)) {
+        final Era1Reader reader = Era1Reader.open(file);
+        final long firstBlock = reader.getStartingBlockNumber();
+        if (firstBlock >= endBlock || firstBlock + reader.getBlockCount() <= startBlock) {
+          reader.close();
+          continue;
+        }
+        openReaders.add(reader);
+        LOG.info("Importing blocks from {}", file);
+
+        for (int i = 0; i < reader.getBlockCount(); i++) {
+          final int index = i;
+          final long blockNumber = firstBlock + i;
+          final boolean imported =
+              blockNumber != BlockHeader.GENESIS_BLOCK_NUMBER
+                  && blockNumber >= startBlock
+                  && blockNumber < endBlock;
+
+          final CompletableFuture<Era1Block> decoded =
+              CompletableFuture.supplyAsync(
+                  () ->
+                      decodeBlock(
+                          reader, index, blockHeaderFunctions, imported && !skipExecution),
+                  decodingExecutor);
+          CompletableFuture<Era1Block> prepared = decoded;
+          if (imported) {
+            final CompletableFuture<BlockHeader> parentHeader =
+                previousHeader != null
+                    ? previousHeader
+                    : decoded.thenApply(
+                        era1Block ->
+                            lookupPreviousHeader(blockchain, era1Block.block().getHeader()));
+            prepared =
+                decoded.thenCombineAsync(
+                    parentHeader,
+                    (era1Block, parent) -> {
+                      validateHeader(
+                          protocolSchedule, context, parent, era1Block, skipPowValidation);
+                      return era1Block;
+                    },
+                    decodingExecutor);
+          }
+          previousHeader = decoded.thenApply(era1Block -> era1Block.block().getHeader());
+
+          pendingBlocks.add(new PendingBlock(reader, index, imported, prepared));
+          if (pendingBlocks.size() >= LOOKAHEAD_BLOCKS) {
+            importNextBlock(pendingBlocks, era1Import, openReaders);
+          }
+        }
+      }
+      while (!pendingBlocks.isEmpty()) {
+        importNextBlock(pendingBlocks, era1Import, openReaders);
+      }
+    } finally {
+      pendingBlocks.forEach(pendingBlock -> pendingBlock.block().cancel(false));
+      for (final Era1Reader reader : openReaders) {
+        reader.close();
+      }
+    }
+
+    era1Import.logProgress(blockchain.getChainHeadBlockNumber());
+    return new RlpBlockImporter.ImportResult(
+        blockchain.getChainHead().getTotalDifficulty(), era1Import.count);
+  }
+
+  private static void importNextBlock(
+      final Deque<PendingBlock> pendingBlocks,
+      final Era1Import era1Import,
+      final Set<Era1Reader> openReaders)
+      throws IOException {
+    final PendingBlock pendingBlock = pendingBlocks.poll();
+    era1Import.importBlock(pendingBlock);
+    // the blocks of a file are imported in order, so the file is not read anymore after its last
+    final Era1Reader reader = pendingBlock.reader();
+    if (pendingBlock.index() == reader.getBlockCount() - 1) {
+      openReaders.remove(reader);
+      reader.close();
+    }
+  }
+
+  private static List<Path> listEra1Files(final Path era1Files) throws IOException {
+    if (!Files.isDirectory(era1Files)) {
+      return List.of(era1Files);
+    }
+    try (final Stream<Path> files = Files.list(era1Files)) {
+      return files
+          .filter(file -> file.getFileName().toString().endsWith(".era1"))
+          .sorted(Comparator.comparing(file -> file.getFileName().toString()))
+          .toList();
+    }
+  }
+
+  private static Era1Block decodeBlock(
+      final Era1Reader reader,
+      final int index,
+      final BlockHeaderFunctions blockHeaderFunctions,
+      final boolean recoverSenders) {
+    final Era1Block era1Block = reader.readBlock(index, blockHeaderFunctions);
+    final BlockHeader header = era1Block.block().getHeader();
+    final BlockBody body = era1Block.block().getBody();
+    final boolean matchesHeader =
+        BodyValidation.transactionsRoot(body.getTransactions())
+                .equals(header.getTransactionsRoot())
+            && BodyValidation.ommersHash(body.getOmmers()).equals(header.getOmmersHash())
+            && BodyValidation.receiptsRoot(era1Block.receipts()).equals(header.getReceiptsRoot());
+    if (!matchesHeader) {
+      throw new IllegalStateException(
+          "Body or receipts of block " + header.getNumber() + " do not match its header.");
+    }
+    if (recoverSenders) {
+      body.getTransactions().forEach(Transaction::getSender);
+    }
+    return era1Block;
+  }
+
+  private static void validateHeader(
+      final ProtocolSchedule protocolSchedule,
+      final ProtocolContext context,
+      final BlockHeader previousHeader,
+      final Era1Block era1Block,
+      final boolean skipPowValidation) {
+    final BlockHeader header = era1Block.block().getHeader();
+    final ProtocolSpec protocolSpec = protocolSchedule.getByBlockHeader(header);
+    final boolean validHeader =
+        header.getParentHash().equals(previousHeader.getHash())
+            && protocolSpec
+                .getBlockHeaderValidator()
+                .validateHeader(
+                    header,
+                    previousHeader,
+                    context,
+                    skipPowValidation
+                        ? HeaderValidationMode.LIGHT_DETACHED_ONLY
+                        : HeaderValidationMode.DETACHED_ONLY);
+    if (!validHeader) {
+      throw new IllegalStateException("Invalid header at block number " + header.getNumber() + ".");
+    }
+  }
+
+  private static BlockHeader lookupPreviousHeader(
+      final MutableBlockchain blockchain, final BlockHeader header) {
+    return blockchain
+        .getBlockHeader(header.getParentHash())
+        .orElseThrow(
+            () ->
+                new IllegalStateException(
+                    String.format(
+                        "Block %s does not connect to the existing chain. Current chain head %s",
+                        header.getNumber(), blockchain.getChainHeadBlockNumber())));
+  }
+
+  @Override
+  public void close() {
+    decodingExecutor.shutdownNow();
+    try {
+      //noinspection ResultOfMethodCallIgnored
+      decodingExecutor.awaitTermination(5, SECONDS);
+    } catch (final Exception e) {
+      LOG.error("Error shutting down decodingExecutor.", e);
+    }
+  }
+
+  private record PendingBlock(
+      Era1Reader reader, int index, boolean imported, CompletableFuture<Era1Block> block) {}
+
+  /** Imports decoded blocks in order, and checks the accumulator of every complete file. */
+  private static final class Era1Import {
+    private final ProtocolContext context;
+    private final MutableBlockchain blockchain;
+    private final ProtocolSchedule protocolSchedule;
+    private final boolean skipPowValidation;
+    private final boolean skipExecution;
+
+    private final List<Hash> fileBlockHashes = new ArrayList<>();
+    private final List<Difficulty> fileTotalDifficulties = new ArrayList<>();
+    private final Stopwatch segmentTimer = Stopwatch.createStarted();
+    private long segmentGas;
+    private int count;
+
+    private Era1Import(
+        final ProtocolContext context,
+        final ProtocolSchedule protocolSchedule,
+        final boolean skipPowValidation,
+        final boolean skipExecution) {
+      this.context = context;
+      this.blockchain = context.getBlockchain();
+      this.protocolSchedule = protocolSchedule;
+      this.skipPowValidation = skipPowValidation;
+      this.skipExecution = skipExecution;
+    }
+
+    private void importBlock(final PendingBlock pendingBlock) {
+      final Era1Block era1Block = pendingBlock.block().join();
+      final Block block = era1Block.block();
+      final BlockHeader header = block.getHeader();
+      accumulate(pendingBlock, era1Block);
+      if (!pendingBlock.imported() || blockchain.contains(block.getHash())) {
+        return;
+      }
+
+      if (skipExecution) {
+        blockchain.appendBlock(block, era1Block.receipts());
+      } else {
+        final BlockImportResult blockImported =
+            protocolSchedule
+                .getByBlockHeader(header)
+                .getBlockImporter()
+                .importBlock(
+                    context,
+                    block,
+                    skipPowValidation
+                        ? HeaderValidationMode.LIGHT_SKIP_DETACHED
+                        : HeaderValidationMode.SKIP_DETACHED,
+                    skipPowValidation ? HeaderValidationMode.LIGHT : HeaderValidationMode.FULL);
+        if (!blockImported.isImported()) {
+          throw new IllegalStateException(
+              "Invalid block at block number " + header.getNumber() + ".");
+        }
+      }
+      if (!blockchain
+          .getTotalDifficultyByHash(block.getHash())
+          .map(era1Block.totalDifficulty()::equals)
+          .orElse(false)) {
+        throw new IllegalStateException(
+            "Total difficulty of block " + header.getNumber() + " does not match the archive.");
+      }
+
+      ++count;
+      segmentGas += header.getGasUsed();
+      if (header.getNumber() % SEGMENT_SIZE == 0) {
+        logProgress(header.getNumber());
+      }
+    }
+
+    private void accumulate(final PendingBlock pendingBlock, final Era1Block era1Block) {
+      if (pendingBlock.index() == 0) {
+        fileBlockHashes.clear();
+        fileTotalDifficulties.clear();
+      }
+      fileBlockHashes.add(era1Block.block().getHash());
+      fileTotalDifficulties.add(era1Block.totalDifficulty());
+      final Era1Reader reader = pendingBlock.reader();
+      if (pendingBlock.index() == reader.getBlockCount() - 1
+          && !Era1Accumulator.root(fileBlockHashes, fileTotalDifficulties)
+              .equals(reader.getAccumulatorRoot())) {
+        throw new IllegalStateException(
+            "Accumulator of the era1 file starting at block "
+                + reader.getStartingBlockNumber()
+                + " does not match its blocks.");
+      }
+    }
+
+    private void logProgress(final long blockNum) {
+      final long elapseMicros = segmentTimer.elapsed(TimeUnit.MICROSECONDS);
+      LOG.info(
+          "Import at block {} / {} gas {} micros / Mgps {}",
+          blockNum,
+          segmentGas,
+          elapseMicros,
+          segmentGas / (double) elapseMicros);
+      segmentGas = 0;
+      segmentTimer.reset().start();
+    }
+  }
+}
@@ -57,6 +57,7 @@ import org.hyperledger.besu.cli.options.stable.P2PDiscoveryOptions;
 import org.hyperledger.besu.cli.options.stable.PermissionsOptions;
 import org.hyperledger.besu.cli.options.stable.PluginsConfigurationOptions;
 import org.hyperledger.besu.cli.options.stable.RpcWebsocketOptions;
+import org.hyperledger.besu.cli.options.unstable.ChainFreezerOptions;
 import org.hyperledger.besu.cli.options.unstable.ChainPruningOptions;
 import org.hyperledger.besu.cli.options.unstable.DnsOptions;
 import org.hyperledger.besu.cli.options.unstable.EthProtocolOptions;
@@ -303,6 +304,7 @@ public class BesuCommand implements DefaultCommandValues, Runnable {
   private final EvmOptions unstableEvmOptions = EvmOptions.create();
   private final IpcOptions unstableIpcOptions = IpcOptions.create();
   private final ChainPruningOptions unstableChainPruningOptions = ChainPruningOptions.create();
+  private final ChainFreezerOptions unstableChainFreezerOptions = ChainFreezerOptions.create();
 
   // stable CLI options
   final DataStorageOptions dataStorageOptions = DataStorageOptions.create();
@@ -682,7 +684,9 @@ public class BesuCommand implements DefaultCommandValues, Runnable {
 
   @CommandLine.Option(
       names = {"--cache-last-blocks"},
-      description = "Specifies the number of last blocks to cache  (default: ${DEFAULT-VALUE})")
+      description =
+          "Specifies the number of last blocks to cache, up to 256 MiB of encoded blocks and"
+              + " receipts (default: ${DEFAULT-VALUE})")
   private final Integer numberOfblocksToCache = 0;
 
   @Mixin private P2PTLSConfigOptions p2pTLSConfigOptions;
@@ -1162,6 +1166,7 @@ public class BesuCommand implements DefaultCommandValues, Runnable {
             .put("EVM Options", unstableEvmOptions)
             .put("IPC Options", unstableIpcOptions)
             .put("Chain Data Pruning Options", unstableChainPruningOptions)
+            .put("Chain Data Freezer Options", unstableChainFreezerOptions)
             .build();
 
     UnstableOptionsSubCommand.createUnstableOptions(commandLine, unstableOptions);
@@ -1218,7 +1223,7 @@ public class BesuCommand implements DefaultCommandValues, Runnable {
   private Runner buildRunner() {
     return synchronize(
         besuController,
-        p2PDiscoveryConfig.p2pEnabled(),
+        p2PDiscoveryConfig.p2pEnabled() && !isSecondaryStorage(),
         p2pTLSConfiguration,
         p2PDiscoveryConfig.peerDiscoveryEnabled(),
         ethNetworkConfig,
@@ -1601,6 +1606,12 @@ public class BesuCommand implements DefaultCommandValues, Runnable {
           "--Xchain-pruning-blocks-retained must be >= "
               + unstableChainPruningOptions.getChainDataPruningBlocksRetainedLimit());
     }
+    if (unstableChainPruningOptions.getChainDataPruningEnabled()
+        && unstableChainFreezerOptions.getChainFreezerEnabled()) {
+      throw new ParameterException(
+          this.commandLine,
+          "--Xchain-pruning-enabled and --Xchain-freezer-enabled are mutually exclusive");
+    }
   }
 
   private GenesisConfigFile readGenesisConfigFile() {
@@ -1818,6 +1829,7 @@ public class BesuCommand implements DefaultCommandValues, Runnable {
         .maxRemotelyInitiatedPeers(maxRemoteInitiatedPeers)
         .randomPeerPriority(p2PDiscoveryOptions.randomPeerPriority)
         .chainPruningConfiguration(unstableChainPruningOptions.toDomainObject())
+        .chainFreezerConfiguration(unstableChainFreezerOptions.toDomainObject())
         .cacheLastBlocks(numberOfblocksToCache)
         .genesisStateHashCacheEnabled(genesisStateHashCacheEnabled)
         .besuComponent(besuComponent);
@@ -2054,6 +2066,8 @@ public class BesuCommand implements DefaultCommandValues, Runnable {
                                   "No KeyValueStorageFactory found for key: " + name)))
               .withCommonConfiguration(pluginCommonConfiguration)
               .withMetricsSystem(getMetricsSystem())
+              .withStorageStatsEnabled(
+                  getDataStorageConfiguration().getUnstable().getStorageStatsEnabled())
               .build();
     }
     return this.keyValueStorageProvider;
@@ -2167,6 +2181,10 @@ public class BesuCommand implements DefaultCommandValues, Runnable {
     return dataStorageConfiguration;
   }
 
+  private boolean isSecondaryStorage() {
+    return getDataStorageConfiguration().getUnstable().getPrimaryDataPath().isPresent();
+  }
+
   private void initMiningParametersMetrics(final MiningParameters miningParameters) {
     new MiningParametersMetrics(getMetricsSystem(), miningParameters);
   }
@@ -2247,6 +2265,7 @@ public class BesuCommand implements DefaultCommandValues, Runnable {
             .identityString(identityString)
             .besuPluginContext(besuPluginContext)
             .autoLogBloomCaching(autoLogBloomCachingEnabled)
+            .readOnlyJsonRpc(isSecondaryStorage())
             .ethstatsOptions(ethstatsOptions)
             .storageProvider(keyValueStorageProvider(keyValueStorageName))
             .rpcEndpointService(rpcEndpointServiceImpl)
@@ -2618,6 +2637,9 @@ public class BesuCommand implements DefaultCommandValues, Runnable {
     if (!unstableChainPruningOptions.getChainDataPruningEnabled()) {
       rocksDBPlugin.addIgnorableSegmentIdentifier(KeyValueSegmentIdentifier.CHAIN_PRUNER_STATE);
     }
+    if (!dataStorageOptions.toDomainObject().getUnstable().getLogIndexEnabled()) {
+      rocksDBPlugin.addIgnorableSegmentIdentifier(KeyValueSegmentIdentifier.LOG_INDEX);
+    }
   }
 
   private void validatePostMergeCheckpointBlockRequirements() {
@@ -21,14 +21,21 @@ import static org.hyperledger.besu.ethereum.worldstate.DataStorageConfiguration.
 import static org.hyperledger.besu.ethereum.worldstate.DataStorageConfiguration.MINIMUM_BONSAI_TRIE_LOG_RETENTION_LIMIT;
 import static org.hyperledger.besu.ethereum.worldstate.DataStorageConfiguration.Unstable.DEFAULT_BONSAI_CODE_USING_CODE_HASH_ENABLED;
 import static org.hyperledger.besu.ethereum.worldstate.DataStorageConfiguration.Unstable.DEFAULT_BONSAI_FULL_FLAT_DB_ENABLED;
+import static org.hyperledger.besu.ethereum.worldstate.DataStorageConfiguration.Unstable.DEFAULT_LOG_INDEX_ENABLED;
+import static org.hyperledger.besu.ethereum.worldstate.DataStorageConfiguration.Unstable.DEFAULT_RECEIPT_BLOCK_COMPACTION_ENABLED;
+import static org.hyperledger.besu.ethereum.worldstate.DataStorageConfiguration.Unstable.DEFAULT_SECONDARY_CATCH_UP_INTERVAL_MILLIS;
+import static org.hyperledger.besu.ethereum.worldstate.DataStorageConfiguration.Unstable.DEFAULT_STORAGE_STATS_ENABLED;
+import static org.hyperledger.besu.ethereum.worldstate.DataStorageConfiguration.Unstable.DEFAULT_TRANSACTION_LOCATION_FILTER_CAPACITY;
 
 import org.hyperledger.besu.cli.util.CommandLineUtils;
 import org.hyperledger.besu.ethereum.worldstate.DataStorageConfiguration;
 import org.hyperledger.besu.ethereum.worldstate.ImmutableDataStorageConfiguration;
 import org.hyperledger.besu.plugin.services.storage.DataStorageFormat;
 
+import java.nio.file.Path;
 import java.util.List;
 import java.util.Locale;
+import java.util.Optional;
 
 import org.apache.commons.lang3.StringUtils;
 import picocli.CommandLine;
@@ -135,6 +142,54 @@ public class DataStorageOptions implements CLIOptions<DataStorageConfiguration>
             "Enables parallelization of transactions to optimize processing speed by concurrently loading and executing necessary data in advance. (default: ${DEFAULT-VALUE})")
     private Boolean isParallelTxProcessingEnabled = false;
 
+    @CommandLine.Option(
+        hidden = true,
+        names = {"--Xreceipt-block-compaction-enabled"},
+        arity = "1",
+        description =
+            "Stores the receipts of a block without bloom filters and with deduplicated log addresses and topics, and migrates existing receipts in the background. The database can't be read by older versions afterwards. (default: ${DEFAULT-VALUE})")
+    private boolean receiptBlockCompactionEnabled = DEFAULT_RECEIPT_BLOCK_COMPACTION_ENABLED;
+
+    @CommandLine.Option(
+        hidden = true,
+        names = {"--Xdata-storage-primary-path"},
+        paramLabel = "<PATH>",
+        description =
+            "Data directory of a node running on the same host whose database is opened as a read only secondary instance. The node then follows the chain of the primary node without syncing, and only serves the read methods of the JSON-RPC APIs. (default: none)")
+    private Path primaryDataPath = null;
+
+    @CommandLine.Option(
+        hidden = true,
+        names = {"--Xdata-storage-secondary-catch-up-interval"},
+        paramLabel = "<LONG>",
+        description =
+            "Interval in milliseconds at which a secondary database catches up with the primary database. (default: ${DEFAULT-VALUE})")
+    private long secondaryCatchUpIntervalMillis = DEFAULT_SECONDARY_CATCH_UP_INTERVAL_MILLIS;
+
+    @CommandLine.Option(
+        hidden = true,
+        names = {"--Xstorage-stats-enabled"},
+        arity = "1",
+        description =
+            "Records the latency of the storage operations and samples the hot keys of each segment, exposed as kvstore_segment metrics and through debug_storageStats. (default: ${DEFAULT-VALUE})")
+    private boolean storageStatsEnabled = DEFAULT_STORAGE_STATS_ENABLED;
+
+    @CommandLine.Option(
+        hidden = true,
+        names = {"--Xtransaction-location-filter-capacity"},
+        paramLabel = "<LONG>",
+        description =
+            "Number of transactions an in-memory filter of the indexed transaction hashes is sized for, using 12 bits per transaction, so that lookups of unknown transaction hashes do not read the database. The filter is built in the background on startup. 0 disables the filter. (default: ${DEFAULT-VALUE})")
+    private long transactionLocationFilterCapacity = DEFAULT_TRANSACTION_LOCATION_FILTER_CAPACITY;
+
+    @CommandLine.Option(
+        hidden = true,
+        names = {"--Xlog-index-enabled"},
+        arity = "1",
+        description =
+            "Indexes the blocks in which the logs of each address and of each topic at each position were emitted, so that eth_getLogs and the log filters only read the receipts of the matching blocks. New blocks are indexed as they are imported and the existing ones in the background. (default: ${DEFAULT-VALUE})")
+    private boolean logIndexEnabled = DEFAULT_LOG_INDEX_ENABLED;
+
     /** Default Constructor. */
     Unstable() {}
   }
@@ -154,6 +209,20 @@ public class DataStorageOptions implements CLIOptions<DataStorageConfiguration>
    * @param commandLine the full commandLine to check all the options specified by the user
    */
   public void validate(final CommandLine commandLine) {
+    if (unstableOptions.transactionLocationFilterCapacity < 0) {
+      throw new CommandLine.ParameterException(
+          commandLine,
+          String.format(
+              "--Xtransaction-location-filter-capacity=%d must not be negative",
+              unstableOptions.transactionLocationFilterCapacity));
+    }
+    if (unstableOptions.secondaryCatchUpIntervalMillis <= 0) {
+      throw new CommandLine.ParameterException(
+          commandLine,
+          String.format(
+              "--Xdata-storage-secondary-catch-up-interval=%d must be greater than 0",
+              unstableOptions.secondaryCatchUpIntervalMillis));
+    }
     if (DataStorageFormat.BONSAI == dataStorageFormat) {
       if (bonsaiLimitTrieLogsEnabled) {
         if (bonsaiMaxLayersToLoad < MINIMUM_BONSAI_TRIE_LOG_RETENTION_LIMIT) {
@@ -211,6 +280,18 @@ public class DataStorageOptions implements CLIOptions<DataStorageConfiguration>
         domainObject.getUnstable().getBonsaiCodeStoredByCodeHashEnabled();
     dataStorageOptions.unstableOptions.isParallelTxProcessingEnabled =
         domainObject.getUnstable().isParallelTxProcessingEnabled();
+    dataStorageOptions.unstableOptions.receiptBlockCompactionEnabled =
+        domainObject.getUnstable().getReceiptBlockCompactionEnabled();
+    dataStorageOptions.unstableOptions.primaryDataPath =
+        domainObject.getUnstable().getPrimaryDataPath().orElse(null);
+    dataStorageOptions.unstableOptions.secondaryCatchUpIntervalMillis =
+        domainObject.getUnstable().getSecondaryCatchUpIntervalMillis();
+    dataStorageOptions.unstableOptions.storageStatsEnabled =
+        domainObject.getUnstable().getStorageStatsEnabled();
+    dataStorageOptions.unstableOptions.transactionLocationFilterCapacity =
+        domainObject.getUnstable().getTransactionLocationFilterCapacity();
+    dataStorageOptions.unstableOptions.logIndexEnabled =
+        domainObject.getUnstable().getLogIndexEnabled();
 
     return dataStorageOptions;
   }
@@ -228,6 +309,13 @@ public class DataStorageOptions implements CLIOptions<DataStorageConfiguration>
                 .bonsaiFullFlatDbEnabled(unstableOptions.bonsaiFullFlatDbEnabled)
                 .bonsaiCodeStoredByCodeHashEnabled(unstableOptions.bonsaiCodeUsingCodeHashEnabled)
                 .isParallelTxProcessingEnabled(unstableOptions.isParallelTxProcessingEnabled)
+                .receiptBlockCompactionEnabled(unstableOptions.receiptBlockCompactionEnabled)
+                .primaryDataPath(Optional.ofNullable(unstableOptions.primaryDataPath))
+                .secondaryCatchUpIntervalMillis(unstableOptions.secondaryCatchUpIntervalMillis)
+                .storageStatsEnabled(unstableOptions.storageStatsEnabled)
+                .transactionLocationFilterCapacity(
+                    unstableOptions.transactionLocationFilterCapacity)
+                .logIndexEnabled(unstableOptions.logIndexEnabled)
                 .build())
         .build();
   }
@@ -77,6 +77,27 @@ public class ApiConfigurationOptions {
           "Specifies the maximum number of blocks to retrieve logs from via RPC. Must be >=0. 0 specifies no limit  (default: ${DEFAULT-VALUE})")
   private final Long rpcMaxLogsRange = 5000L;
 
+  @CommandLine.Option(
+      names = {"--rpc-logs-scan-threads"},
+      hidden = true,
+      description =
+          "Specifies the number of threads scanning the block range of eth_getLogs and log filter queries concurrently. Must be >=1. 1 scans the range on the thread of the request  (default: ${DEFAULT-VALUE})")
+  private final Integer rpcLogsScanThreads = ApiConfiguration.DEFAULT_LOGS_SCAN_THREADS;
+
+  @CommandLine.Option(
+      names = {"--rpc-estimate-gas-tolerance"},
+      hidden = true,
+      description =
+          "Specifies the ratio by which the result of eth_estimateGas may exceed the minimum gas needed, to search it with less executions. Must be >=0 and <1. 0 searches the exact minimum  (default: ${DEFAULT-VALUE})")
+  private final Double rpcEstimateGasTolerance = ApiConfiguration.DEFAULT_ESTIMATE_GAS_TOLERANCE;
+
+  @CommandLine.Option(
+      names = {"--rpc-block-tracing-threads"},
+      hidden = true,
+      description =
+          "Specifies the number of threads tracing the transactions of a block concurrently for debug_traceBlock*, trace_block and trace_replayBlockTransactions, each from a copy of the state before it. Must be >=1. 1 traces them one after the other  (default: ${DEFAULT-VALUE})")
+  private final Integer rpcBlockTracingThreads = ApiConfiguration.DEFAULT_BLOCK_TRACING_THREADS;
+
   @CommandLine.Option(
       names = {"--rpc-gas-cap"},
       description =
@@ -103,6 +124,19 @@ public class ApiConfigurationOptions {
             "--api-gas-and-priority-fee-lower-bound-coefficient cannot be greater than the value of --api-gas-and-priority-fee-upper-bound-coefficient");
       }
     }
+    if (rpcLogsScanThreads < 1) {
+      throw new CommandLine.ParameterException(
+          commandLine, "--rpc-logs-scan-threads must be greater than or equal to 1");
+    }
+    if (rpcEstimateGasTolerance < 0 || rpcEstimateGasTolerance >= 1) {
+      throw new CommandLine.ParameterException(
+          commandLine,
+          "--rpc-estimate-gas-tolerance must be greater than or equal to 0 and less than 1");
+    }
+    if (rpcBlockTracingThreads < 1) {
+      throw new CommandLine.ParameterException(
+          commandLine, "--rpc-block-tracing-threads must be greater than or equal to 1");
+    }
     checkApiOptionsDependencies(commandLine, logger);
   }
 
@@ -129,6 +163,9 @@ public class ApiConfigurationOptions {
             .gasPricePercentile(apiGasPricePercentile)
             .gasPriceMax(Wei.of(apiGasPriceMax))
             .maxLogsRange(rpcMaxLogsRange)
+            .logsScanThreads(rpcLogsScanThreads)
+            .estimateGasTolerance(rpcEstimateGasTolerance)
+            .blockTracingThreads(rpcBlockTracingThreads)
             .gasCap(rpcGasCap)
             .isGasAndPriorityFeeLimitingEnabled(apiGasAndPriorityFeeLimitingEnabled)
             .maxTraceFilterRange(maxTraceFilterRange);
@@ -15,9 +15,12 @@
 package org.hyperledger.besu.cli.options.stable;
 
 import static java.util.Arrays.asList;
+import static org.hyperledger.besu.ethereum.api.jsonrpc.JsonRpcConfiguration.DEFAULT_BATCH_WORKER_THREADS;
 import static org.hyperledger.besu.ethereum.api.jsonrpc.JsonRpcConfiguration.DEFAULT_JSON_RPC_HOST;
 import static org.hyperledger.besu.ethereum.api.jsonrpc.JsonRpcConfiguration.DEFAULT_JSON_RPC_PORT;
+import static org.hyperledger.besu.ethereum.api.jsonrpc.JsonRpcConfiguration.DEFAULT_MAX_BATCH_CONCURRENCY;
 import static org.hyperledger.besu.ethereum.api.jsonrpc.JsonRpcConfiguration.DEFAULT_PRETTY_JSON_ENABLED;
+import static org.hyperledger.besu.ethereum.api.jsonrpc.JsonRpcConfiguration.DEFAULT_RESPONSE_CACHE_SIZE;
 import static org.hyperledger.besu.ethereum.api.jsonrpc.RpcApis.DEFAULT_RPC_APIS;
 import static org.hyperledger.besu.ethereum.api.jsonrpc.RpcApis.VALID_APIS;
 
@@ -198,6 +201,30 @@ public class JsonRpcHttpOptions {
           "Specifies the maximum number of requests in a single RPC batch request via RPC. -1 specifies no limit  (default: ${DEFAULT-VALUE})")
   private final Integer rpcHttpMaxBatchSize = DefaultCommandValues.DEFAULT_HTTP_MAX_BATCH_SIZE;
 
+  @CommandLine.Option(
+      names = {"--rpc-http-batch-worker-threads"},
+      hidden = true,
+      paramLabel = DefaultCommandValues.MANDATORY_INTEGER_FORMAT_HELP,
+      description =
+          "Specifies the number of threads executing the read only requests of RPC batch requests concurrently, shared by all the batches. Must be >=1  (default: ${DEFAULT-VALUE})")
+  private final Integer rpcHttpBatchWorkerThreads = DEFAULT_BATCH_WORKER_THREADS;
+
+  @CommandLine.Option(
+      names = {"--rpc-http-max-batch-concurrency"},
+      hidden = true,
+      paramLabel = DefaultCommandValues.MANDATORY_INTEGER_FORMAT_HELP,
+      description =
+          "Specifies the maximum number of requests of a single RPC batch request executed concurrently. 1 executes the requests of a batch in order  (default: ${DEFAULT-VALUE})")
+  private final Integer rpcHttpMaxBatchConcurrency = DEFAULT_MAX_BATCH_CONCURRENCY;
+
+  @CommandLine.Option(
+      names = {"--rpc-http-response-cache-size"},
+      hidden = true,
+      paramLabel = DefaultCommandValues.MANDATORY_LONG_FORMAT_HELP,
+      description =
+          "Specifies the maximum size in bytes of the cached responses about finalized blocks. 0 disables the cache  (default: ${DEFAULT-VALUE})")
+  private final Long rpcHttpResponseCacheSize = DEFAULT_RESPONSE_CACHE_SIZE;
+
   @CommandLine.Option(
       names = {"--rpc-http-max-request-content-length"},
       paramLabel = DefaultCommandValues.MANDATORY_LONG_FORMAT_HELP,
@@ -257,6 +284,21 @@ public class JsonRpcHttpOptions {
           "Unable to authenticate JSON-RPC HTTP endpoint without a supplied credentials file or authentication public key file");
     }
 
+    if (rpcHttpBatchWorkerThreads < 1) {
+      throw new CommandLine.ParameterException(
+          commandLine, "--rpc-http-batch-worker-threads must be greater than or equal to 1");
+    }
+
+    if (rpcHttpMaxBatchConcurrency < 1) {
+      throw new CommandLine.ParameterException(
+          commandLine, "--rpc-http-max-batch-concurrency must be greater than or equal to 1");
+    }
+
+    if (rpcHttpResponseCacheSize < 0) {
+      throw new CommandLine.ParameterException(
+          commandLine, "--rpc-http-response-cache-size must be greater than or equal to 0");
+    }
+
     checkDependencies(logger, commandLine);
 
     if (isRpcTlsConfigurationRequired()) {
@@ -285,6 +327,9 @@ public class JsonRpcHttpOptions {
     jsonRpcConfiguration.setAuthenticationAlgorithm(rpcHttpAuthenticationAlgorithm);
     jsonRpcConfiguration.setTlsConfiguration(rpcHttpTlsConfiguration());
     jsonRpcConfiguration.setMaxBatchSize(rpcHttpMaxBatchSize);
+    jsonRpcConfiguration.setBatchWorkerThreads(rpcHttpBatchWorkerThreads);
+    jsonRpcConfiguration.setMaxBatchConcurrency(rpcHttpMaxBatchConcurrency);
+    jsonRpcConfiguration.setResponseCacheSize(rpcHttpResponseCacheSize);
     jsonRpcConfiguration.setMaxRequestContentLength(rpcHttpMaxRequestContentLength);
     jsonRpcConfiguration.setPrettyJsonEnabled(prettyJsonEnabled);
     return jsonRpcConfiguration;
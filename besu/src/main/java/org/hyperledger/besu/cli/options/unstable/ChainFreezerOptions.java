@@ -0,0 +1,98 @@
+/*
+ * Copyright contributors to Hyperledger Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.cli.options.unstable;
+
+import org.hyperledger.besu.cli.options.CLIOptions;
+import org.hyperledger.besu.ethereum.storage.freezer.ChainFreezerConfiguration;
+import org.hyperledger.besu.util.number.PositiveNumber;
+
+import java.util.Arrays;
+import java.util.List;
+
+import picocli.CommandLine;
+
+/** The Chain freezer CLI options. */
+public class ChainFreezerOptions implements CLIOptions<ChainFreezerConfiguration> {
+  private static final String CHAIN_FREEZER_ENABLED_FLAG = "--Xchain-freezer-enabled";
+  private static final String CHAIN_FREEZER_BLOCKS_RETAINED_FLAG =
+      "--Xchain-freezer-blocks-retained";
+  private static final String CHAIN_FREEZER_FREQUENCY_FLAG = "--Xchain-freezer-frequency";
+
+  /** The constant DEFAULT_CHAIN_FREEZER_BLOCKS_RETAINED. */
+  public static final long DEFAULT_CHAIN_FREEZER_BLOCKS_RETAINED = 1024;
+
+  /** The constant DEFAULT_CHAIN_FREEZER_FREQUENCY. */
+  public static final int DEFAULT_CHAIN_FREEZER_FREQUENCY = 1024;
+
+  @CommandLine.Option(
+      hidden = true,
+      names = {CHAIN_FREEZER_ENABLED_FLAG},
+      description =
+          "Enable the chain freezer to move the data of finalized blocks from the database to append only files (default: ${DEFAULT-VALUE})")
+  private final Boolean chainFreezerEnabled = Boolean.FALSE;
+
+  @CommandLine.Option(
+      hidden = true,
+      names = {CHAIN_FREEZER_BLOCKS_RETAINED_FLAG},
+      description =
+          "The number of recent blocks for which to keep the chain data in the database (default: ${DEFAULT-VALUE})")
+  private final Long chainFreezerBlocksRetained = DEFAULT_CHAIN_FREEZER_BLOCKS_RETAINED;
+
+  @CommandLine.Option(
+      hidden = true,
+      names = {CHAIN_FREEZER_FREQUENCY_FLAG},
+      description =
+          "The number of blocks added to the chain between two freezing operations. Must be positive (default: ${DEFAULT-VALUE})")
+  private final PositiveNumber chainFreezerBlocksFrequency =
+      PositiveNumber.fromInt(DEFAULT_CHAIN_FREEZER_FREQUENCY);
+
+  /** Default Constructor. */
+  ChainFreezerOptions() {}
+
+  /**
+   * Create chain freezer options.
+   *
+   * @return the chain freezer options
+   */
+  public static ChainFreezerOptions create() {
+    return new ChainFreezerOptions();
+  }
+
+  /**
+   * Gets chain freezer enabled.
+   *
+   * @return the chain freezer enabled
+   */
+  public Boolean getChainFreezerEnabled() {
+    return chainFreezerEnabled;
+  }
+
+  @Override
+  public ChainFreezerConfiguration toDomainObject() {
+    return new ChainFreezerConfiguration(
+        chainFreezerEnabled, chainFreezerBlocksRetained, chainFreezerBlocksFrequency.getValue());
+  }
+
+  @Override
+  public List<String> getCLIOptions() {
+    return Arrays.asList(
+        CHAIN_FREEZER_ENABLED_FLAG,
+        chainFreezerEnabled.toString(),
+        CHAIN_FREEZER_BLOCKS_RETAINED_FLAG,
+        chainFreezerBlocksRetained.toString(),
+        CHAIN_FREEZER_FREQUENCY_FLAG,
+        chainFreezerBlocksFrequency.toString());
+  }
+}
@@ -17,5 +17,7 @@ package org.hyperledger.besu.cli.subcommands.blocks;
 /** The enum Block export format. */
 public enum BlockExportFormat {
   /** Rlp block export format. */
-  RLP
+  RLP,
+  /** Era1 archive block export format. */
+  ERA1
 }
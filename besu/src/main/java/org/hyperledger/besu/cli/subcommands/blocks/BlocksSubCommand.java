@@ -17,7 +17,9 @@ package org.hyperledger.besu.cli.subcommands.blocks;
 import static com.google.common.base.Preconditions.checkNotNull;
 import static org.hyperledger.besu.cli.subcommands.blocks.BlocksSubCommand.COMMAND_NAME;
 
+import org.hyperledger.besu.chainexport.Era1BlockExporter;
 import org.hyperledger.besu.chainexport.RlpBlockExporter;
+import org.hyperledger.besu.chainimport.Era1BlockImporter;
 import org.hyperledger.besu.chainimport.JsonBlockImporter;
 import org.hyperledger.besu.chainimport.RlpBlockImporter;
 import org.hyperledger.besu.cli.BesuCommand;
@@ -92,6 +94,8 @@ public class BlocksSubCommand implements Runnable {
   private final Supplier<RlpBlockImporter> rlpBlockImporter;
   private final Function<BesuController, JsonBlockImporter> jsonBlockImporterFactory;
   private final Function<Blockchain, RlpBlockExporter> rlpBlockExporterFactory;
+  private final Supplier<Era1BlockImporter> era1BlockImporter;
+  private final Function<Blockchain, Era1BlockExporter> era1BlockExporterFactory;
 
   private final PrintWriter out;
 
@@ -108,9 +112,37 @@ public class BlocksSubCommand implements Runnable {
       final Function<BesuController, JsonBlockImporter> jsonBlockImporterFactory,
       final Function<Blockchain, RlpBlockExporter> rlpBlockExporterFactory,
       final PrintWriter out) {
+    this(
+        rlpBlockImporter,
+        jsonBlockImporterFactory,
+        rlpBlockExporterFactory,
+        Era1BlockImporter::new,
+        Era1BlockExporter::new,
+        out);
+  }
+
+  /**
+   * Instantiates a new Blocks sub command.
+   *
+   * @param rlpBlockImporter the RLP block importer
+   * @param jsonBlockImporterFactory the Json block importer factory
+   * @param rlpBlockExporterFactory the RLP block exporter factory
+   * @param era1BlockImporter the era1 block importer
+   * @param era1BlockExporterFactory the era1 block exporter factory
+   * @param out Instance of PrintWriter where command usage will be written.
+   */
+  public BlocksSubCommand(
+      final Supplier<RlpBlockImporter> rlpBlockImporter,
+      final Function<BesuController, JsonBlockImporter> jsonBlockImporterFactory,
+      final Function<Blockchain, RlpBlockExporter> rlpBlockExporterFactory,
+      final Supplier<Era1BlockImporter> era1BlockImporter,
+      final Function<Blockchain, Era1BlockExporter> era1BlockExporterFactory,
+      final PrintWriter out) {
     this.rlpBlockImporter = rlpBlockImporter;
     this.rlpBlockExporterFactory = rlpBlockExporterFactory;
     this.jsonBlockImporterFactory = jsonBlockImporterFactory;
+    this.era1BlockImporter = era1BlockImporter;
+    this.era1BlockExporterFactory = era1BlockExporterFactory;
     this.out = out;
   }
 
@@ -166,6 +198,11 @@ public class BlocksSubCommand implements Runnable {
         description = "Skip proof of work validation when importing.")
     private final Boolean skipPow = false;
 
+    @Option(
+        names = "--skip-execution-enabled",
+        description = "Store ERA1 blocks without executing transactions.")
+    private final Boolean skipExecution = false;
+
     @Option(names = "--run", description = "Start besu after importing.")
     private final Boolean runBesu = false;
 
@@ -204,6 +241,10 @@ public class BlocksSubCommand implements Runnable {
         throw new ParameterException(
             spec.commandLine(), "Can't skip proof of work validation for JSON blocks");
       }
+      if (skipExecution && !format.equals(BlockImportFormat.ERA1)) {
+        throw new ParameterException(
+            spec.commandLine(), "Can't skip execution for " + format + " blocks");
+      }
       LOG.info("Import {} block data from {} files", format, blockImportFiles.size());
       final Optional<MetricsService> metricsService = initMetrics(parentCommand);
 
@@ -218,6 +259,9 @@ public class BlocksSubCommand implements Runnable {
               case JSON:
                 importJsonBlocks(controller, path);
                 break;
+              case ERA1:
+                importEra1Blocks(controller, path);
+                break;
             }
           } catch (final FileNotFoundException e) {
             if (blockImportFiles.size() == 1) {
@@ -295,6 +339,13 @@ public class BlocksSubCommand implements Runnable {
           .get()
           .importBlockchain(path, controller, skipPow, startBlock, endBlock);
     }
+
+    private void importEra1Blocks(final BesuController controller, final Path path)
+        throws IOException {
+      try (final Era1BlockImporter importer = parentCommand.era1BlockImporter.get()) {
+        importer.importBlockchain(path, controller, skipPow, skipExecution, startBlock, endBlock);
+      }
+    }
   }
 
   /**
@@ -359,6 +410,8 @@ public class BlocksSubCommand implements Runnable {
       try {
         if (format == BlockExportFormat.RLP) {
           exportRlpFormat(controller);
+        } else if (format == BlockExportFormat.ERA1) {
+          exportEra1Format(controller);
         } else {
           throw new ParameterException(
               spec.commandLine(), "Unsupported format: " + format.toString());
@@ -386,6 +439,13 @@ public class BlocksSubCommand implements Runnable {
       exporter.exportBlocks(blocksExportFile, getStartBlock(), getEndBlock());
     }
 
+    private void exportEra1Format(final BesuController controller) throws IOException {
+      final ProtocolContext context = controller.getProtocolContext();
+      final Era1BlockExporter exporter =
+          parentCommand.era1BlockExporterFactory.apply(context.getBlockchain());
+      exporter.exportBlocks(blocksExportFile, getStartBlock(), getEndBlock());
+    }
+
     private void checkCommand(
         final ExportSubCommand exportSubCommand, final Long startBlock, final Long endBlock) {
       checkNotNull(exportSubCommand.parentCommand);
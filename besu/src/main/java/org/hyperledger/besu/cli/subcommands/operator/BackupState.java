@@ -20,6 +20,7 @@ import static org.hyperledger.besu.cli.DefaultCommandValues.MANDATORY_LONG_FORMA
 import org.hyperledger.besu.BesuInfo;
 import org.hyperledger.besu.cli.util.VersionProvider;
 import org.hyperledger.besu.controller.BesuController;
+import org.hyperledger.besu.ethereum.api.query.CheckpointBackupService;
 import org.hyperledger.besu.ethereum.api.query.StateBackupService;
 import org.hyperledger.besu.ethereum.api.query.StateBackupService.BackupStatus;
 import org.hyperledger.besu.ethereum.chain.MutableBlockchain;
@@ -27,8 +28,11 @@ import org.hyperledger.besu.ethereum.eth.manager.EthScheduler;
 import org.hyperledger.besu.ethereum.trie.forest.ForestWorldStateArchive;
 import org.hyperledger.besu.ethereum.trie.forest.storage.ForestWorldStateKeyValueStorage;
 import org.hyperledger.besu.metrics.noop.NoOpMetricsSystem;
+import org.hyperledger.besu.plugin.services.storage.CheckpointableKeyValueStorage;
 
 import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.Optional;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.LockSupport;
@@ -69,6 +73,13 @@ public class BackupState implements Runnable {
       arity = "1")
   private final Boolean compress = true;
 
+  @Option(
+      names = {"--checkpoint-enabled"},
+      description =
+          "Back up the whole database from a storage checkpoint, only copying the files that are not in the backup path yet.",
+      arity = "0..1")
+  private final Boolean checkpoint = false;
+
   @ParentCommand private OperatorSubCommand parentCommand;
 
   @Override
@@ -81,6 +92,10 @@ public class BackupState implements Runnable {
         "Backup directory does not exist and cannot be created.");
 
     final BesuController besuController = createBesuController();
+    if (checkpoint) {
+      backupCheckpoint(besuController);
+      return;
+    }
     final MutableBlockchain blockchain = besuController.getProtocolContext().getBlockchain();
     final ForestWorldStateKeyValueStorage forestWorldStateKeyValueStorage =
         ((ForestWorldStateArchive) besuController.getProtocolContext().getWorldStateArchive())
@@ -128,6 +143,29 @@ public class BackupState implements Runnable {
     }
   }
 
+  private void backupCheckpoint(final BesuController besuController) {
+    final CheckpointableKeyValueStorage storage =
+        CheckpointBackupService.checkpointableStorage(
+                besuController.getProtocolContext().getWorldStateArchive())
+            .orElseThrow(
+                () ->
+                    new IllegalArgumentException(
+                        "Checkpoint backups are not supported by the storage"));
+    try {
+      final CheckpointBackupService.BackupStatus status =
+          new CheckpointBackupService(
+                  BesuInfo.version(), storage, CheckpointBackupService.DEFAULT_COPY_THREADS)
+              .backup(backupDir.toPath());
+      System.out.printf(
+          "Backup complete%n Files: %,d%n Copied: %,d bytes%n Reused: %,d bytes%n",
+          status.getFileCount(),
+          status.getCopiedByteCount(),
+          status.getReusedByteCount());
+    } catch (final IOException e) {
+      throw new UncheckedIOException("Error backing up checkpoint", e);
+    }
+  }
+
   private BesuController createBesuController() {
     return parentCommand.parentCommand.buildController();
   }
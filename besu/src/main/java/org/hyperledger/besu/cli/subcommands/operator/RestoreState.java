@@ -21,6 +21,7 @@ import org.hyperledger.besu.cli.util.VersionProvider;
 import org.hyperledger.besu.config.JsonUtil;
 import org.hyperledger.besu.controller.BesuController;
 import org.hyperledger.besu.datatypes.Hash;
+import org.hyperledger.besu.ethereum.api.query.CheckpointBackupService;
 import org.hyperledger.besu.ethereum.api.query.StateBackupService;
 import org.hyperledger.besu.ethereum.chain.MutableBlockchain;
 import org.hyperledger.besu.ethereum.core.Block;
@@ -34,6 +35,8 @@ import org.hyperledger.besu.ethereum.rlp.RLPInput;
 import org.hyperledger.besu.ethereum.trie.Node;
 import org.hyperledger.besu.ethereum.trie.PersistVisitor;
 import org.hyperledger.besu.ethereum.trie.RestoreVisitor;
+import org.hyperledger.besu.ethereum.trie.diffbased.bonsai.BonsaiWorldStateProvider;
+import org.hyperledger.besu.ethereum.trie.diffbased.bonsai.storage.BonsaiWorldStateKeyValueStorage;
 import org.hyperledger.besu.ethereum.trie.forest.ForestWorldStateArchive;
 import org.hyperledger.besu.ethereum.trie.forest.storage.ForestWorldStateKeyValueStorage;
 import org.hyperledger.besu.ethereum.worldstate.StateTrieAccountValue;
@@ -72,6 +75,13 @@ public class RestoreState implements Runnable {
       arity = "1..1")
   private final Path backupDir = null;
 
+  @Option(
+      names = {"--checkpoint-enabled"},
+      description =
+          "Restore a backup taken from a storage checkpoint, and verify its world state root.",
+      arity = "0..1")
+  private final Boolean checkpoint = false;
+
   @ParentCommand private OperatorSubCommand parentCommand;
 
   private static final int TRIE_NODE_COMMIT_BATCH_SIZE = 100;
@@ -105,6 +115,10 @@ public class RestoreState implements Runnable {
   @Override
   public void run() {
     try {
+      if (checkpoint) {
+        restoreCheckpoint();
+        return;
+      }
       final ObjectNode manifest =
           JsonUtil.objectNodeFromString(
               Files.readString(backupDir.resolve("besu-backup-manifest.json")));
@@ -124,6 +138,29 @@ public class RestoreState implements Runnable {
     }
   }
 
+  private void restoreCheckpoint() throws IOException {
+    final long restoredBytes =
+        CheckpointBackupService.restore(
+            backupDir,
+            parentCommand.parentCommand.dataDir(),
+            CheckpointBackupService.DEFAULT_COPY_THREADS);
+    besuController = createBesuController();
+    if (!(besuController.getProtocolContext().getWorldStateArchive()
+            instanceof BonsaiWorldStateProvider worldStateProvider)
+        || !(worldStateProvider.getWorldStateKeyValueStorage()
+            instanceof BonsaiWorldStateKeyValueStorage worldStateStorage)) {
+      throw new IllegalStateException("Checkpoint backups are only supported for Bonsai");
+    }
+    final BlockHeader header =
+        CheckpointBackupService.verifyWorldState(
+            besuController.getProtocolContext().getBlockchain(), worldStateStorage);
+    LOG.info(
+        "Restore complete, {} bytes restored, world state at block {} with state root {}",
+        restoredBytes,
+        header.getNumber(),
+        header.getStateRoot());
+  }
+
   private void restoreBlocks() throws IOException {
     try (final RollingFileReader headerReader =
             new RollingFileReader(this::headerFileName, compressed);
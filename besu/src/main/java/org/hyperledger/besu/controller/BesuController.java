@@ -24,6 +24,7 @@ import org.hyperledger.besu.ethereum.ProtocolContext;
 import org.hyperledger.besu.ethereum.api.jsonrpc.internal.methods.JsonRpcMethod;
 import org.hyperledger.besu.ethereum.api.jsonrpc.methods.JsonRpcMethods;
 import org.hyperledger.besu.ethereum.blockcreation.MiningCoordinator;
+import org.hyperledger.besu.ethereum.chain.LogIndex;
 import org.hyperledger.besu.ethereum.core.MiningParameters;
 import org.hyperledger.besu.ethereum.core.PrivacyParameters;
 import org.hyperledger.besu.ethereum.core.Synchronizer;
@@ -43,6 +44,7 @@ import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 import org.apache.tuweni.units.bigints.UInt256;
 import org.slf4j.Logger;
@@ -58,6 +60,9 @@ public class BesuController implements java.io.Closeable {
   /** The constant CACHE_PATH. */
   public static final String CACHE_PATH = "caches";
 
+  /** The constant FREEZER_PATH. */
+  public static final String FREEZER_PATH = "freezer";
+
   private final ProtocolSchedule protocolSchedule;
   private final ProtocolContext protocolContext;
   private final EthProtocolManager ethProtocolManager;
@@ -77,6 +82,7 @@ public class BesuController implements java.io.Closeable {
   private final EthPeers ethPeers;
   private final StorageProvider storageProvider;
   private final DataStorageConfiguration dataStorageConfiguration;
+  private final Optional<LogIndex> logIndex;
 
   /**
    * Instantiates a new Besu controller.
@@ -99,6 +105,7 @@ public class BesuController implements java.io.Closeable {
    * @param ethPeers the eth peers
    * @param storageProvider the storage provider
    * @param dataStorageConfiguration the data storage configuration
+   * @param logIndex the log index, if enabled
    */
   BesuController(
       final ProtocolSchedule protocolSchedule,
@@ -118,7 +125,8 @@ public class BesuController implements java.io.Closeable {
       final PluginServiceFactory additionalPluginServices,
       final EthPeers ethPeers,
       final StorageProvider storageProvider,
-      final DataStorageConfiguration dataStorageConfiguration) {
+      final DataStorageConfiguration dataStorageConfiguration,
+      final Optional<LogIndex> logIndex) {
     this.protocolSchedule = protocolSchedule;
     this.protocolContext = protocolContext;
     this.ethProtocolManager = ethProtocolManager;
@@ -137,6 +145,7 @@ public class BesuController implements java.io.Closeable {
     this.ethPeers = ethPeers;
     this.storageProvider = storageProvider;
     this.dataStorageConfiguration = dataStorageConfiguration;
+    this.logIndex = logIndex;
   }
 
   /**
@@ -307,6 +316,15 @@ public class BesuController implements java.io.Closeable {
     return dataStorageConfiguration;
   }
 
+  /**
+   * Gets the log index.
+   *
+   * @return the log index, empty if disabled
+   */
+  public Optional<LogIndex> getLogIndex() {
+    return logIndex;
+  }
+
   /** The type Builder. */
   public static class Builder {
     /** Instantiates a new Builder. */
@@ -39,6 +39,8 @@ import org.hyperledger.besu.ethereum.chain.ChainDataPrunerStorage;
 import org.hyperledger.besu.ethereum.chain.ChainPrunerConfiguration;
 import org.hyperledger.besu.ethereum.chain.DefaultBlockchain;
 import org.hyperledger.besu.ethereum.chain.GenesisState;
+import org.hyperledger.besu.ethereum.chain.LogIndex;
+import org.hyperledger.besu.ethereum.chain.LogIndexStorage;
 import org.hyperledger.besu.ethereum.chain.MutableBlockchain;
 import org.hyperledger.besu.ethereum.chain.VariablesStorage;
 import org.hyperledger.besu.ethereum.core.BlockHeader;
@@ -82,7 +84,14 @@ import org.hyperledger.besu.ethereum.mainnet.ProtocolSpec;
 import org.hyperledger.besu.ethereum.p2p.config.NetworkingConfiguration;
 import org.hyperledger.besu.ethereum.p2p.config.SubProtocolConfiguration;
 import org.hyperledger.besu.ethereum.storage.StorageProvider;
+import org.hyperledger.besu.ethereum.storage.freezer.BlockFreezerStorage;
+import org.hyperledger.besu.ethereum.storage.freezer.ChainDataFreezer;
+import org.hyperledger.besu.ethereum.storage.freezer.ChainFreezerConfiguration;
+import org.hyperledger.besu.ethereum.storage.keyvalue.FreezerBlockchainStorage;
 import org.hyperledger.besu.ethereum.storage.keyvalue.KeyValueSegmentIdentifier;
+import org.hyperledger.besu.ethereum.storage.keyvalue.KeyValueStoragePrefixedKeyBlockchainStorage;
+import org.hyperledger.besu.ethereum.storage.keyvalue.ReceiptsCompactionMigration;
+import org.hyperledger.besu.ethereum.storage.keyvalue.SecondaryStorageFollower;
 import org.hyperledger.besu.ethereum.trie.diffbased.bonsai.BonsaiWorldStateProvider;
 import org.hyperledger.besu.ethereum.trie.diffbased.bonsai.cache.BonsaiCachedMerkleTrieLoader;
 import org.hyperledger.besu.ethereum.trie.diffbased.bonsai.storage.BonsaiWorldStateKeyValueStorage;
@@ -99,6 +108,8 @@ import org.hyperledger.besu.metrics.ObservableMetricsSystem;
 import org.hyperledger.besu.plugin.services.MetricsSystem;
 import org.hyperledger.besu.plugin.services.permissioning.NodeMessagePermissioningProvider;
 import org.hyperledger.besu.plugin.services.storage.DataStorageFormat;
+import org.hyperledger.besu.plugin.services.storage.SecondaryKeyValueStorage;
+import org.hyperledger.besu.plugin.services.storage.SegmentedKeyValueStorage;
 
 import java.io.Closeable;
 import java.math.BigInteger;
@@ -196,6 +207,14 @@ public abstract class BesuControllerBuilder implements MiningParameterOverrides
   /** The Chain pruner configuration. */
   protected ChainPrunerConfiguration chainPrunerConfiguration = ChainPrunerConfiguration.DEFAULT;
 
+  /** The Chain freezer configuration. */
+  protected ChainFreezerConfiguration chainFreezerConfiguration = ChainFreezerConfiguration.DEFAULT;
+
+  private Optional<BlockFreezerStorage> blockFreezerStorage = Optional.empty();
+  private Optional<ReceiptsCompactionMigration> receiptsCompactionMigration = Optional.empty();
+  private Optional<SecondaryStorageFollower> secondaryStorageFollower = Optional.empty();
+  private Optional<LogIndex> logIndex = Optional.empty();
+
   private NetworkingConfiguration networkingConfiguration;
   private Boolean randomPeerPriority;
 
@@ -470,6 +489,18 @@ public abstract class BesuControllerBuilder implements MiningParameterOverrides
     return this;
   }
 
+  /**
+   * Chain freezer configuration besu controller builder.
+   *
+   * @param chainFreezerConfiguration the chain freezer configuration
+   * @return the besu controller builder
+   */
+  public BesuControllerBuilder chainFreezerConfiguration(
+      final ChainFreezerConfiguration chainFreezerConfiguration) {
+    this.chainFreezerConfiguration = chainFreezerConfiguration;
+    return this;
+  }
+
   /**
    * Chain pruning configuration besu controller builder.
    *
@@ -564,10 +595,18 @@ public abstract class BesuControllerBuilder implements MiningParameterOverrides
         storageProvider.createWorldStateStorageCoordinator(dataStorageConfiguration);
 
     final BlockchainStorage blockchainStorage =
-        storageProvider.createBlockchainStorage(
-            protocolSchedule, variablesStorage, dataStorageConfiguration);
+        withChainFreezer(
+            storageProvider.createBlockchainStorage(
+                protocolSchedule, variablesStorage, dataStorageConfiguration),
+            variablesStorage);
 
     final var maybeStoredGenesisBlockHash = blockchainStorage.getBlockHash(0L);
+    final boolean isSecondaryStorage =
+        dataStorageConfiguration.getUnstable().getPrimaryDataPath().isPresent();
+    if (isSecondaryStorage && maybeStoredGenesisBlockHash.isEmpty()) {
+      throw new IllegalStateException(
+          "The primary database has no chain data yet, start the primary node first");
+    }
 
     final var genesisState =
         getGenesisState(
@@ -656,7 +695,12 @@ public abstract class BesuControllerBuilder implements MiningParameterOverrides
     final boolean fullSyncDisabled = !SyncMode.isFullSync(syncConfig.getSyncMode());
     final SyncState syncState = new SyncState(blockchain, ethPeers, fullSyncDisabled, checkpoint);
 
-    if (chainPrunerConfiguration.getChainPruningEnabled()) {
+    if (isSecondaryStorage) {
+      secondaryStorageFollower = createSecondaryStorageFollower(blockchain, worldStateArchive);
+      secondaryStorageFollower.ifPresent(SecondaryStorageFollower::start);
+    }
+
+    if (chainPrunerConfiguration.getChainPruningEnabled() && !isSecondaryStorage) {
       final ChainDataPruner chainDataPruner = createChainPruner(blockchainStorage);
       blockchain.observeBlockAdded(chainDataPruner);
       LOG.info(
@@ -666,6 +710,37 @@ public abstract class BesuControllerBuilder implements MiningParameterOverrides
               + chainPrunerConfiguration.getChainPruningBlocksFrequency());
     }
 
+    if (dataStorageConfiguration.getUnstable().getLogIndexEnabled() && !isSecondaryStorage) {
+      final LogIndex index = createLogIndex(blockchain);
+      blockchain.observeBlockAdded(index);
+      index.start();
+      logIndex = Optional.of(index);
+      LOG.info("Log index enabled, indexing the logs of existing blocks in background");
+    }
+
+    if (chainFreezerConfiguration.getChainFreezerEnabled()
+        && blockchainStorage instanceof FreezerBlockchainStorage freezerBlockchainStorage) {
+      blockchain.observeBlockAdded(createChainFreezer(freezerBlockchainStorage));
+      LOG.info(
+          "Chain data freezer enabled with recent blocks retained to be: "
+              + chainFreezerConfiguration.getChainFreezerBlocksRetained()
+              + " and frequency to be: "
+              + chainFreezerConfiguration.getChainFreezerBlocksFrequency());
+    }
+
+    if (dataStorageConfiguration.getUnstable().getReceiptBlockCompactionEnabled()
+        && !isSecondaryStorage
+        && blockchainStorage instanceof KeyValueStoragePrefixedKeyBlockchainStorage kvStorage) {
+      final ReceiptsCompactionMigration migration =
+          new ReceiptsCompactionMigration(
+              kvStorage,
+              MonitoredExecutors.newBoundedThreadPool(
+                  ReceiptsCompactionMigration.class.getSimpleName(), 1, 1, 1, metricsSystem));
+      migration.start();
+      receiptsCompactionMigration = Optional.of(migration);
+      LOG.info("Receipts block compaction enabled, compacting existing receipts in background");
+    }
+
     final TransactionPool transactionPool =
         TransactionPoolFactory.createTransactionPool(
             protocolSchedule,
@@ -743,6 +818,7 @@ public abstract class BesuControllerBuilder implements MiningParameterOverrides
         createAdditionalJsonRpcMethodFactory(protocolContext, protocolSchedule, miningParameters);
 
     if (dataStorageConfiguration.getBonsaiLimitTrieLogsEnabled()
+        && !isSecondaryStorage
         && DataStorageFormat.BONSAI.equals(dataStorageConfiguration.getDataStorageFormat())) {
       final TrieLogManager trieLogManager =
           ((BonsaiWorldStateProvider) worldStateArchive).getTrieLogManager();
@@ -754,8 +830,11 @@ public abstract class BesuControllerBuilder implements MiningParameterOverrides
     }
 
     final List<Closeable> closeables = new ArrayList<>();
+    secondaryStorageFollower.ifPresent(closeables::add);
+    receiptsCompactionMigration.ifPresent(closeables::add);
     closeables.add(protocolContext.getWorldStateArchive());
     closeables.add(storageProvider);
+    blockFreezerStorage.ifPresent(closeables::add);
     if (privacyParameters.getPrivateStorageProvider() != null) {
       closeables.add(privacyParameters.getPrivateStorageProvider());
     }
@@ -778,7 +857,8 @@ public abstract class BesuControllerBuilder implements MiningParameterOverrides
         additionalPluginServices,
         ethPeers,
         storageProvider,
-        dataStorageConfiguration);
+        dataStorageConfiguration,
+        logIndex);
   }
 
   private GenesisState getGenesisState(
@@ -1126,6 +1206,79 @@ public abstract class BesuControllerBuilder implements MiningParameterOverrides
     };
   }
 
+  private BlockchainStorage withChainFreezer(
+      final BlockchainStorage blockchainStorage, final VariablesStorage variablesStorage) {
+    // once blocks may have been frozen, the blockchain can only be read through the freezer
+    final boolean isChainDataFrozen = variablesStorage.isChainDataFrozen();
+    if (!chainFreezerConfiguration.getChainFreezerEnabled() && !isChainDataFrozen) {
+      return blockchainStorage;
+    }
+    if (dataStorageConfiguration.getUnstable().getPrimaryDataPath().isPresent()) {
+      if (isChainDataFrozen) {
+        throw new IllegalStateException(
+            "The primary database has frozen chain data, which a secondary database cannot read");
+      }
+      LOG.warn("Chain data freezer is not supported by a secondary database, ignoring it");
+      return blockchainStorage;
+    }
+    if (!(blockchainStorage instanceof KeyValueStoragePrefixedKeyBlockchainStorage kvStorage)) {
+      if (isChainDataFrozen) {
+        throw new IllegalStateException(
+            "The database has frozen chain data, which the blockchain storage cannot read");
+      }
+      LOG.warn("Chain data freezer is not supported by the blockchain storage, ignoring it");
+      return blockchainStorage;
+    }
+    if (!chainFreezerConfiguration.getChainFreezerEnabled()) {
+      LOG.info(
+          "Chain data freezer is disabled but the database has frozen chain data, "
+              + "reading it from the freezer without freezing new blocks");
+    }
+    final BlockFreezerStorage freezerStorage =
+        BlockFreezerStorage.open(
+            dataDirectory.resolve(BesuController.FREEZER_PATH),
+            BlockFreezerStorage.DEFAULT_MAX_FILE_SIZE);
+    blockFreezerStorage = Optional.of(freezerStorage);
+    return new FreezerBlockchainStorage(kvStorage, freezerStorage);
+  }
+
+  private Optional<SecondaryStorageFollower> createSecondaryStorageFollower(
+      final MutableBlockchain blockchain, final WorldStateArchive worldStateArchive) {
+    final SegmentedKeyValueStorage storage =
+        storageProvider.getStorageBySegmentIdentifiers(
+            List.of(KeyValueSegmentIdentifier.VARIABLES));
+    if (!(storage instanceof SecondaryKeyValueStorage secondaryStorage)
+        || !(blockchain instanceof DefaultBlockchain defaultBlockchain)) {
+      LOG.warn("The storage does not support following a primary database");
+      return Optional.empty();
+    }
+    LOG.info(
+        "Following the primary database at {}",
+        dataStorageConfiguration.getUnstable().getPrimaryDataPath().orElseThrow());
+    return Optional.of(
+        new SecondaryStorageFollower(
+            secondaryStorage,
+            defaultBlockchain,
+            worldStateArchive,
+            MonitoredExecutors.newScheduledThreadPool(
+                SecondaryStorageFollower.class.getSimpleName(), 1, metricsSystem),
+            dataStorageConfiguration.getUnstable().getSecondaryCatchUpIntervalMillis()));
+  }
+
+  private ChainDataFreezer createChainFreezer(
+      final FreezerBlockchainStorage freezerBlockchainStorage) {
+    return new ChainDataFreezer(
+        freezerBlockchainStorage,
+        chainFreezerConfiguration.getChainFreezerBlocksRetained(),
+        chainFreezerConfiguration.getChainFreezerBlocksFrequency(),
+        MonitoredExecutors.newBoundedThreadPool(
+            ChainDataFreezer.class.getSimpleName(),
+            1,
+            1,
+            ChainDataFreezer.MAX_FREEZING_THREAD_QUEUE_SIZE,
+            metricsSystem));
+  }
+
   private ChainDataPruner createChainPruner(final BlockchainStorage blockchainStorage) {
     return new ChainDataPruner(
         blockchainStorage,
@@ -1142,6 +1295,19 @@ public abstract class BesuControllerBuilder implements MiningParameterOverrides
             metricsSystem));
   }
 
+  private LogIndex createLogIndex(final Blockchain blockchain) {
+    return new LogIndex(
+        blockchain,
+        new LogIndexStorage(
+            storageProvider.getStorageBySegmentIdentifier(KeyValueSegmentIdentifier.LOG_INDEX)),
+        MonitoredExecutors.newBoundedThreadPool(
+            LogIndex.class.getSimpleName(),
+            1,
+            1,
+            LogIndex.MAX_INDEXING_THREAD_QUEUE_SIZE,
+            metricsSystem));
+  }
+
   /**
    * Create peer validators list.
    *
@@ -141,5 +141,10 @@ public class BesuConfigurationImpl implements BesuConfiguration {
     public boolean getReceiptCompactionEnabled() {
       return dataStorageConfiguration.getReceiptCompactionEnabled();
     }
+
+    @Override
+    public Optional<Path> getPrimaryDataPath() {
+      return dataStorageConfiguration.getUnstable().getPrimaryDataPath();
+    }
   }
 }
@@ -0,0 +1,137 @@
+/*
+ * Copyright contributors to Hyperledger Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.chainimport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import org.hyperledger.besu.chainexport.Era1BlockExporter;
+import org.hyperledger.besu.cli.config.EthNetworkConfig;
+import org.hyperledger.besu.cli.config.NetworkName;
+import org.hyperledger.besu.components.BesuComponent;
+import org.hyperledger.besu.controller.BesuController;
+import org.hyperledger.besu.cryptoservices.NodeKeyUtils;
+import org.hyperledger.besu.ethereum.GasLimitCalculator;
+import org.hyperledger.besu.ethereum.chain.Blockchain;
+import org.hyperledger.besu.ethereum.core.InMemoryKeyValueStorageProvider;
+import org.hyperledger.besu.ethereum.core.MiningParameters;
+import org.hyperledger.besu.ethereum.core.PrivacyParameters;
+import org.hyperledger.besu.ethereum.eth.EthProtocolConfiguration;
+import org.hyperledger.besu.ethereum.eth.sync.SyncMode;
+import org.hyperledger.besu.ethereum.eth.sync.SynchronizerConfiguration;
+import org.hyperledger.besu.ethereum.eth.transactions.TransactionPoolConfiguration;
+import org.hyperledger.besu.ethereum.p2p.config.NetworkingConfiguration;
+import org.hyperledger.besu.evm.internal.EvmConfiguration;
+import org.hyperledger.besu.metrics.noop.NoOpMetricsSystem;
+import org.hyperledger.besu.testutil.BlockTestUtil;
+import org.hyperledger.besu.testutil.TestClock;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+
+import org.apache.tuweni.units.bigints.UInt256;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/** Tests for {@link Era1BlockImporter}. */
+public final class Era1BlockImporterTest {
+
+  @TempDir public static Path folder;
+  private static Path era1File;
+
+  @BeforeAll
+  public static void exportBlockchain() throws IOException {
+    final BesuController controller =
+        createController(Files.createTempDirectory(folder, "era1BlockImporterTestData"));
+    final Path blocks = Files.createTempFile(folder, "1000", "blocks");
+    BlockTestUtil.write1000Blocks(blocks);
+    new RlpBlockImporter().importBlockchain(blocks, controller, false);
+    final Blockchain blockchain = controller.getProtocolContext().getBlockchain();
+
+    final List<Path> files =
+        new Era1BlockExporter(blockchain)
+            .exportBlocks(folder.resolve("mainnet").toFile(), Optional.empty(), Optional.empty());
+    assertThat(files).hasSize(1);
+    era1File = files.get(0);
+  }
+
+  @Test
+  public void exportedFileIsNamedAfterEpochAndAccumulator() {
+    assertThat(era1File.getFileName().toString()).matches("mainnet-00000-[0-9a-f]{8}\\.era1");
+  }
+
+  @Test
+  public void blockImport(final @TempDir Path dataDir) throws IOException {
+    final BesuController targetController = createController(dataDir);
+    try (final Era1BlockImporter importer = new Era1BlockImporter()) {
+      final RlpBlockImporter.ImportResult result =
+          importer.importBlockchain(folder, targetController, false, false, 0L, Long.MAX_VALUE);
+      // Don't count the Genesis block
+      assertThat(result.count).isEqualTo(999);
+      assertThat(result.td).isEqualTo(UInt256.valueOf(21991996248790L));
+    }
+  }
+
+  @Test
+  public void blockImportCanSkipExecution(final @TempDir Path dataDir) throws IOException {
+    final BesuController targetController = createController(dataDir);
+    try (final Era1BlockImporter importer = new Era1BlockImporter()) {
+      final RlpBlockImporter.ImportResult result =
+          importer.importBlockchain(era1File, targetController, false, true, 0L, Long.MAX_VALUE);
+      assertThat(result.count).isEqualTo(999);
+      assertThat(result.td).isEqualTo(UInt256.valueOf(21991996248790L));
+      final Blockchain blockchain = targetController.getProtocolContext().getBlockchain();
+      assertThat(blockchain.getTxReceipts(blockchain.getChainHeadHash())).isPresent();
+    }
+  }
+
+  @Test
+  public void blockImportHonorsBlockRange(final @TempDir Path dataDir) throws IOException {
+    final BesuController targetController = createController(dataDir);
+    try (final Era1BlockImporter importer = new Era1BlockImporter(2)) {
+      final RlpBlockImporter.ImportResult result =
+          importer.importBlockchain(era1File, targetController, false, false, 0L, 500L);
+      assertThat(result.count).isEqualTo(499);
+      assertThat(targetController.getProtocolContext().getBlockchain().getChainHeadBlockNumber())
+          .isEqualTo(499L);
+    }
+  }
+
+  private static BesuController createController(final Path dataDir) {
+    return new BesuController.Builder()
+        .fromEthNetworkConfig(EthNetworkConfig.getNetworkConfig(NetworkName.MAINNET), SyncMode.FAST)
+        .synchronizerConfiguration(SynchronizerConfiguration.builder().build())
+        .ethProtocolConfiguration(EthProtocolConfiguration.defaultConfig())
+        .storageProvider(new InMemoryKeyValueStorageProvider())
+        .networkId(BigInteger.ONE)
+        .miningParameters(MiningParameters.newDefault())
+        .nodeKey(NodeKeyUtils.generate())
+        .metricsSystem(new NoOpMetricsSystem())
+        .privacyParameters(PrivacyParameters.DEFAULT)
+        .dataDirectory(dataDir)
+        .clock(TestClock.fixed())
+        .transactionPoolConfiguration(TransactionPoolConfiguration.DEFAULT)
+        .gasLimitCalculator(GasLimitCalculator.constant())
+        .evmConfiguration(EvmConfiguration.DEFAULT)
+        .networkConfiguration(NetworkingConfiguration.create())
+        .besuComponent(mock(BesuComponent.class))
+        .build();
+  }
+}
@@ -149,4 +149,76 @@ public class ApiConfigurationOptionsTest extends CommandTestAbstract {
     assertThat(commandOutput.toString(UTF_8)).isEmpty();
     assertThat(commandErrorOutput.toString(UTF_8)).isEmpty();
   }
+
+  @Test
+  public void rpcLogsScanThreadsOptionMustBeUsed() {
+    parseCommand("--rpc-logs-scan-threads", "8");
+
+    verify(mockRunnerBuilder).apiConfiguration(apiConfigurationCaptor.capture());
+    verify(mockRunnerBuilder).build();
+
+    assertThat(apiConfigurationCaptor.getValue())
+        .isEqualTo(ImmutableApiConfiguration.builder().logsScanThreads(8).build());
+
+    assertThat(commandOutput.toString(UTF_8)).isEmpty();
+    assertThat(commandErrorOutput.toString(UTF_8)).isEmpty();
+  }
+
+  @Test
+  public void rpcLogsScanThreadsMustBePositive() {
+    parseCommand("--rpc-logs-scan-threads", "0");
+
+    Mockito.verifyNoInteractions(mockRunnerBuilder);
+    assertThat(commandOutput.toString(UTF_8)).isEmpty();
+    assertThat(commandErrorOutput.toString(UTF_8))
+        .contains("--rpc-logs-scan-threads must be greater than or equal to 1");
+  }
+
+  @Test
+  public void rpcEstimateGasToleranceOptionMustBeUsed() {
+    parseCommand("--rpc-estimate-gas-tolerance", "0.015");
+
+    verify(mockRunnerBuilder).apiConfiguration(apiConfigurationCaptor.capture());
+    verify(mockRunnerBuilder).build();
+
+    assertThat(apiConfigurationCaptor.getValue())
+        .isEqualTo(ImmutableApiConfiguration.builder().estimateGasTolerance(0.015).build());
+
+    assertThat(commandOutput.toString(UTF_8)).isEmpty();
+    assertThat(commandErrorOutput.toString(UTF_8)).isEmpty();
+  }
+
+  @Test
+  public void rpcEstimateGasToleranceMustBeLessThanOne() {
+    parseCommand("--rpc-estimate-gas-tolerance", "1");
+
+    Mockito.verifyNoInteractions(mockRunnerBuilder);
+    assertThat(commandOutput.toString(UTF_8)).isEmpty();
+    assertThat(commandErrorOutput.toString(UTF_8))
+        .contains("--rpc-estimate-gas-tolerance must be greater than or equal to 0 and less than 1");
+  }
+
+  @Test
+  public void rpcBlockTracingThreadsOptionMustBeUsed() {
+    parseCommand("--rpc-block-tracing-threads", "4");
+
+    verify(mockRunnerBuilder).apiConfiguration(apiConfigurationCaptor.capture());
+    verify(mockRunnerBuilder).build();
+
+    assertThat(apiConfigurationCaptor.getValue())
+        .isEqualTo(ImmutableApiConfiguration.builder().blockTracingThreads(4).build());
+
+    assertThat(commandOutput.toString(UTF_8)).isEmpty();
+    assertThat(commandErrorOutput.toString(UTF_8)).isEmpty();
+  }
+
+  @Test
+  public void rpcBlockTracingThreadsMustBePositive() {
+    parseCommand("--rpc-block-tracing-threads", "0");
+
+    Mockito.verifyNoInteractions(mockRunnerBuilder);
+    assertThat(commandOutput.toString(UTF_8)).isEmpty();
+    assertThat(commandErrorOutput.toString(UTF_8))
+        .contains("--rpc-block-tracing-threads must be greater than or equal to 1");
+  }
 }
@@ -854,6 +854,32 @@ public class JsonRpcHttpOptionsTest extends CommandTestAbstract {
     assertThat(commandErrorOutput.toString(UTF_8)).isEmpty();
   }
 
+  @Test
+  public void rpcHttpBatchConcurrencyOptionsMustBeUsed() {
+    parseCommand(
+        "--rpc-http-max-batch-concurrency", "4", "--rpc-http-batch-worker-threads", "2");
+
+    verify(mockRunnerBuilder).jsonRpcConfiguration(jsonRpcConfigArgumentCaptor.capture());
+    verify(mockRunnerBuilder).build();
+
+    assertThat(jsonRpcConfigArgumentCaptor.getValue().getMaxBatchConcurrency()).isEqualTo(4);
+    assertThat(jsonRpcConfigArgumentCaptor.getValue().getBatchWorkerThreads()).isEqualTo(2);
+
+    assertThat(commandOutput.toString(UTF_8)).isEmpty();
+    assertThat(commandErrorOutput.toString(UTF_8)).isEmpty();
+  }
+
+  @Test
+  public void rpcHttpMaxBatchConcurrencyMustBePositive() {
+    parseCommand("--rpc-http-max-batch-concurrency", "0");
+
+    Mockito.verifyNoInteractions(mockRunnerBuilder);
+
+    assertThat(commandOutput.toString(UTF_8)).isEmpty();
+    assertThat(commandErrorOutput.toString(UTF_8))
+        .contains("--rpc-http-max-batch-concurrency must be greater than or equal to 1");
+  }
+
   @Test
   public void portInUseReportsError() throws IOException {
     final ServerSocket serverSocket = new ServerSocket(8545);
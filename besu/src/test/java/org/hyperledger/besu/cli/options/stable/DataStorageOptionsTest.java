@@ -23,6 +23,8 @@ import org.hyperledger.besu.ethereum.worldstate.DataStorageConfiguration;
 import org.hyperledger.besu.ethereum.worldstate.ImmutableDataStorageConfiguration;
 import org.hyperledger.besu.plugin.services.storage.DataStorageFormat;
 
+import java.nio.file.Path;
+
 import org.junit.jupiter.api.Test;
 
 public class DataStorageOptionsTest
@@ -151,6 +153,72 @@ public class DataStorageOptionsTest
         "--receipt-compaction-enabled=false");
   }
 
+  @Test
+  public void receiptBlockCompactionCanBeEnabled() {
+    internalTestSuccess(
+        dataStorageConfiguration ->
+            assertThat(dataStorageConfiguration.getUnstable().getReceiptBlockCompactionEnabled())
+                .isEqualTo(true),
+        "--Xreceipt-block-compaction-enabled",
+        "true");
+  }
+
+  @Test
+  public void primaryDataPathCanBeSet() {
+    internalTestSuccess(
+        dataStorageConfiguration ->
+            assertThat(dataStorageConfiguration.getUnstable().getPrimaryDataPath())
+                .contains(Path.of("/data/primary")),
+        "--Xdata-storage-primary-path",
+        "/data/primary");
+  }
+
+  @Test
+  public void storageStatsCanBeEnabled() {
+    internalTestSuccess(
+        dataStorageConfiguration ->
+            assertThat(dataStorageConfiguration.getUnstable().getStorageStatsEnabled())
+                .isEqualTo(true),
+        "--Xstorage-stats-enabled",
+        "true");
+  }
+
+  @Test
+  public void transactionLocationFilterCapacityCanBeSet() {
+    internalTestSuccess(
+        dataStorageConfiguration ->
+            assertThat(
+                    dataStorageConfiguration.getUnstable().getTransactionLocationFilterCapacity())
+                .isEqualTo(1_000_000L),
+        "--Xtransaction-location-filter-capacity",
+        "1000000");
+  }
+
+  @Test
+  public void transactionLocationFilterCapacityShouldNotBeNegative() {
+    internalTestFailure(
+        "--Xtransaction-location-filter-capacity=-1 must not be negative",
+        "--Xtransaction-location-filter-capacity",
+        "-1");
+  }
+
+  @Test
+  public void logIndexCanBeEnabled() {
+    internalTestSuccess(
+        dataStorageConfiguration ->
+            assertThat(dataStorageConfiguration.getUnstable().getLogIndexEnabled()).isTrue(),
+        "--Xlog-index-enabled",
+        "true");
+  }
+
+  @Test
+  public void secondaryCatchUpIntervalShouldBePositive() {
+    internalTestFailure(
+        "--Xdata-storage-secondary-catch-up-interval=0 must be greater than 0",
+        "--Xdata-storage-secondary-catch-up-interval",
+        "0");
+  }
+
   @Override
   protected DataStorageConfiguration createDefaultDomainObject() {
     return DataStorageConfiguration.DEFAULT_CONFIG;
@@ -62,20 +62,23 @@ public class BlocksSubCommandTest extends CommandTestAbstract {
           + System.lineSeparator();
 
   private static final String EXPECTED_BLOCK_IMPORT_USAGE =
-      "Usage: besu blocks import [-hV] [--run] [--skip-pow-validation-enabled]\n"
-          + "                          [--end-block=<LONG>] [--format=<format>]\n"
-          + "                          [--start-block=<LONG>] [--start-time=<startTime>]\n"
-          + "                          [--from[=<FILE>...]]... [<FILE>...]\n"
+      "Usage: besu blocks import [-hV] [--run] [--skip-execution-enabled]\n"
+          + "                          [--skip-pow-validation-enabled] [--end-block=<LONG>]\n"
+          + "                          [--format=<format>] [--start-block=<LONG>]\n"
+          + "                          [--start-time=<startTime>] [--from[=<FILE>...]]...\n"
+          + "                          [<FILE>...]\n"
           + "This command imports blocks from a file into the database.\n"
           + "      [<FILE>...]            Files containing blocks to import.\n"
           + "      --end-block=<LONG>     The ending index of the block list to import\n"
           + "                               (exclusive).  If not specified all blocks after\n"
           + "                               the start block will be imported.\n"
           + "      --format=<format>      The type of data to be imported, possible values\n"
-          + "                               are: RLP, JSON (default: RLP).\n"
+          + "                               are: RLP, JSON, ERA1 (default: RLP).\n"
           + "      --from[=<FILE>...]     File containing blocks to import.\n"
           + "  -h, --help                 Show this help message and exit.\n"
           + "      --run                  Start besu after importing.\n"
+          + "      --skip-execution-enabled\n"
+          + "                             Store ERA1 blocks without executing transactions.\n"
           + "      --skip-pow-validation-enabled\n"
           + "                             Skip proof of work validation when importing.\n"
           + "      --start-block=<LONG>   The starting index of the block, or block list to\n"
@@ -170,6 +173,20 @@ public class BlocksSubCommandTest extends CommandTestAbstract {
     assertThat(commandErrorOutput.toString(UTF_8)).startsWith(expectedErrorOutputStart);
   }
 
+  @Test
+  public void callingBlockImportSubCommandWithRlpAndSkipExecutionFails() {
+    parseCommand(
+        BLOCK_SUBCOMMAND_NAME,
+        BLOCK_IMPORT_SUBCOMMAND_NAME,
+        "--format",
+        "RLP",
+        "--skip-execution-enabled",
+        "blocks.file");
+    final String expectedErrorOutputStart = "Can't skip execution for RLP blocks";
+    assertThat(commandOutput.toString(UTF_8)).isEmpty();
+    assertThat(commandErrorOutput.toString(UTF_8)).startsWith(expectedErrorOutputStart);
+  }
+
   @Test
   public void callingBlockImportSubCommandHelpMustDisplayUsage() {
     parseCommand(BLOCK_SUBCOMMAND_NAME, BLOCK_IMPORT_SUBCOMMAND_NAME, "--help");
@@ -38,6 +38,18 @@ public abstract class ApiConfiguration {
    */
   public static final long DEFAULT_UPPER_BOUND_GAS_AND_PRIORITY_FEE_COEFFICIENT = Long.MAX_VALUE;
 
+  /**
+   * The default number of threads scanning the chunks of the block range of a logs query
+   * concurrently.
+   */
+  public static final int DEFAULT_LOGS_SCAN_THREADS = 4;
+
+  /** The default ratio by which a gas estimate may exceed the minimum gas needed. */
+  public static final double DEFAULT_ESTIMATE_GAS_TOLERANCE = 0.0;
+
+  /** The default number of threads tracing the transactions of a block concurrently. */
+  public static final int DEFAULT_BLOCK_TRACING_THREADS = 1;
+
   /** Constructs a new ApiConfiguration with default values. */
   protected ApiConfiguration() {}
 
@@ -92,6 +104,41 @@ public abstract class ApiConfiguration {
     return 5000L;
   }
 
+  /**
+   * Returns the number of threads scanning the chunks of the block range of a logs query
+   * concurrently. Default value is 4, 1 scans the range on the thread of the query.
+   *
+   * @return the number of threads scanning the block range of logs queries
+   */
+  @Value.Default
+  public int getLogsScanThreads() {
+    return DEFAULT_LOGS_SCAN_THREADS;
+  }
+
+  /**
+   * Returns the ratio of a gas estimate by which it may exceed the minimum gas needed by the
+   * transaction, the search of the estimate stopping once within it. Default value is 0, searching
+   * the exact minimum.
+   *
+   * @return the tolerance of the gas estimates
+   */
+  @Value.Default
+  public double getEstimateGasTolerance() {
+    return DEFAULT_ESTIMATE_GAS_TOLERANCE;
+  }
+
+  /**
+   * Returns the number of threads tracing the transactions of a block concurrently, each one from
+   * its own copy of the state before it. Default value is 1, tracing the transactions one after
+   * the other.
+   *
+   * @return the number of threads tracing the transactions of a block
+   */
+  @Value.Default
+  public int getBlockTracingThreads() {
+    return DEFAULT_BLOCK_TRACING_THREADS;
+  }
+
   /**
    * Returns the gas cap. Default value is 0.
    *
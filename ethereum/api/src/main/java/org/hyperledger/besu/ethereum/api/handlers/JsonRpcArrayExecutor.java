@@ -26,6 +26,12 @@ import org.hyperledger.besu.ethereum.api.jsonrpc.internal.response.RpcErrorType;
 import org.hyperledger.besu.plugin.services.rpc.RpcResponseType;
 
 import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 
 import com.fasterxml.jackson.core.JsonGenerator;
 import io.opentelemetry.api.trace.Tracer;
@@ -33,14 +39,32 @@ import io.vertx.core.http.HttpServerResponse;
 import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
 import io.vertx.ext.web.RoutingContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 public class JsonRpcArrayExecutor extends AbstractJsonRpcExecutor {
+  private static final Logger LOG = LoggerFactory.getLogger(JsonRpcArrayExecutor.class);
+
+  private final Optional<JsonRpcBatchWorkers> batchWorkers;
+
+  private record PendingResponse(Object id, Future<JsonRpcResponse> response) {}
+
   public JsonRpcArrayExecutor(
       final JsonRpcExecutor jsonRpcExecutor,
       final Tracer tracer,
       final RoutingContext ctx,
       final JsonRpcConfiguration jsonRpcConfiguration) {
+    this(jsonRpcExecutor, tracer, ctx, jsonRpcConfiguration, Optional.empty());
+  }
+
+  public JsonRpcArrayExecutor(
+      final JsonRpcExecutor jsonRpcExecutor,
+      final Tracer tracer,
+      final RoutingContext ctx,
+      final JsonRpcConfiguration jsonRpcConfiguration,
+      final Optional<JsonRpcBatchWorkers> batchWorkers) {
     super(jsonRpcExecutor, tracer, ctx, jsonRpcConfiguration);
+    this.batchWorkers = batchWorkers;
   }
 
   /**
@@ -63,22 +87,68 @@ public class JsonRpcArrayExecutor extends AbstractJsonRpcExecutor {
   }
 
   /**
-   * Executes a batch of RPC requests.
+   * Executes a batch of RPC requests. The read only requests are executed concurrently when batch
+   * workers are available, and the responses are written in the order of the requests.
    *
    * @param rpcRequestBatch the batch of RPC requests.
    * @param streamer the JsonResponseStreamer to use.
    */
   public void executeRpcRequestBatch(
       final JsonArray rpcRequestBatch, final JsonResponseStreamer streamer) throws IOException {
+    final Deque<PendingResponse> inFlight = new ArrayDeque<>();
+    int concurrentEntries = 0;
     try (JsonGenerator generator = getJsonObjectMapper().getFactory().createGenerator(streamer)) {
       generator.writeStartArray();
       for (int i = 0; i < rpcRequestBatch.size(); i++) {
-        JsonRpcResponse response = processMaybeRequest(rpcRequestBatch.getValue(i));
-        if (response.getType() != RpcResponseType.NONE) {
-          generator.writeObject(response);
+        final Object maybeRequest = rpcRequestBatch.getValue(i);
+        if (batchWorkers.isPresent() && batchWorkers.get().isConcurrent(maybeRequest)) {
+          if (inFlight.size() >= batchWorkers.get().getMaxBatchConcurrency()) {
+            writeResponse(generator, awaitResponse(inFlight.poll()));
+          }
+          inFlight.add(
+              new PendingResponse(
+                  ((JsonObject) maybeRequest).getValue("id"),
+                  batchWorkers.get().submit(() -> processMaybeRequest(maybeRequest))));
+          concurrentEntries++;
+        } else {
+          // the other requests may depend on the ones before them
+          while (!inFlight.isEmpty()) {
+            writeResponse(generator, awaitResponse(inFlight.poll()));
+          }
+          writeResponse(generator, processMaybeRequest(maybeRequest));
         }
       }
+      while (!inFlight.isEmpty()) {
+        writeResponse(generator, awaitResponse(inFlight.poll()));
+      }
       generator.writeEndArray();
+    } finally {
+      // the remaining requests are not needed anymore if the response could not be written
+      inFlight.forEach(pending -> pending.response().cancel(true));
+      final int batchConcurrentEntries = concurrentEntries;
+      batchWorkers.ifPresent(
+          workers ->
+              workers.recordBatch(
+                  batchConcurrentEntries, rpcRequestBatch.size() - batchConcurrentEntries));
+    }
+  }
+
+  private void writeResponse(final JsonGenerator generator, final JsonRpcResponse response)
+      throws IOException {
+    if (response.getType() != RpcResponseType.NONE) {
+      generator.writeObject(response);
+    }
+  }
+
+  private JsonRpcResponse awaitResponse(final PendingResponse pending) throws IOException {
+    try {
+      return pending.response().get();
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Interrupted while executing the JSON-RPC batch");
+    } catch (final ExecutionException e) {
+      LOG.error("Error executing a request of a JSON-RPC batch", e.getCause());
+      return new JsonRpcErrorResponse(pending.id(), RpcErrorType.INTERNAL_ERROR);
     }
   }
 
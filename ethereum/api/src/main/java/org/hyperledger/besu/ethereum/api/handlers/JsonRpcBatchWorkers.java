@@ -0,0 +1,154 @@
+/*
+ * Copyright contributors to Hyperledger Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.api.handlers;
+
+import static java.util.stream.Collectors.toUnmodifiableSet;
+
+import org.hyperledger.besu.ethereum.api.jsonrpc.RpcMethod;
+import org.hyperledger.besu.ethereum.api.jsonrpc.internal.response.JsonRpcResponse;
+import org.hyperledger.besu.metrics.BesuMetricCategory;
+import org.hyperledger.besu.plugin.services.MetricsSystem;
+import org.hyperledger.besu.plugin.services.metrics.Counter;
+import org.hyperledger.besu.plugin.services.metrics.LabelledMetric;
+
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.opentelemetry.context.Context;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Bounded pool of workers executing the read only requests of JSON-RPC batches concurrently.
+ *
+ * <p>Only the requests of methods which neither change the state of the node nor depend on the
+ * requests before them in the batch are executed concurrently, the other ones are executed in
+ * order once the requests before them completed.
+ */
+public class JsonRpcBatchWorkers {
+  private static final Set<String> CONCURRENT_METHODS =
+      Stream.of(
+              RpcMethod.ETH_BLOCK_NUMBER,
+              RpcMethod.ETH_CALL,
+              RpcMethod.ETH_CHAIN_ID,
+              RpcMethod.ETH_CREATE_ACCESS_LIST,
+              RpcMethod.ETH_ESTIMATE_GAS,
+              RpcMethod.ETH_FEE_HISTORY,
+              RpcMethod.ETH_GAS_PRICE,
+              RpcMethod.ETH_GET_BALANCE,
+              RpcMethod.ETH_GET_BLOCK_BY_HASH,
+              RpcMethod.ETH_GET_BLOCK_BY_NUMBER,
+              RpcMethod.ETH_GET_BLOCK_RECEIPTS,
+              RpcMethod.ETH_GET_BLOCK_TRANSACTION_COUNT_BY_HASH,
+              RpcMethod.ETH_GET_BLOCK_TRANSACTION_COUNT_BY_NUMBER,
+              RpcMethod.ETH_GET_CODE,
+              RpcMethod.ETH_GET_LOGS,
+              RpcMethod.ETH_GET_PROOF,
+              RpcMethod.ETH_GET_STORAGE_AT,
+              RpcMethod.ETH_GET_TRANSACTION_BY_BLOCK_HASH_AND_INDEX,
+              RpcMethod.ETH_GET_TRANSACTION_BY_BLOCK_NUMBER_AND_INDEX,
+              RpcMethod.ETH_GET_TRANSACTION_BY_HASH,
+              RpcMethod.ETH_GET_TRANSACTION_COUNT,
+              RpcMethod.ETH_GET_TRANSACTION_RECEIPT)
+          .map(RpcMethod::getMethodName)
+          .collect(toUnmodifiableSet());
+
+  private final ThreadPoolExecutor executor;
+  private final int maxBatchConcurrency;
+  private final Counter batchCounter;
+  private final LabelledMetric<Counter> batchEntriesCounter;
+
+  /**
+   * Creates the workers.
+   *
+   * @param threads the number of worker threads shared by all the batches
+   * @param maxBatchConcurrency the maximum number of requests of a batch executed concurrently
+   * @param metricsSystem the metrics system
+   */
+  public JsonRpcBatchWorkers(
+      final int threads, final int maxBatchConcurrency, final MetricsSystem metricsSystem) {
+    this.executor =
+        new ThreadPoolExecutor(
+            threads,
+            threads,
+            60L,
+            TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(threads * 16),
+            new ThreadFactoryBuilder().setNameFormat("rpc-batch-%d").setDaemon(true).build(),
+            // the thread of the batch executes the request itself when the workers are saturated
+            new ThreadPoolExecutor.CallerRunsPolicy());
+    executor.allowCoreThreadTimeOut(true);
+    this.maxBatchConcurrency = maxBatchConcurrency;
+    this.batchCounter =
+        metricsSystem.createCounter(
+            BesuMetricCategory.RPC, "batch_requests_total", "Total number of JSON-RPC batches");
+    this.batchEntriesCounter =
+        metricsSystem.createLabelledCounter(
+            BesuMetricCategory.RPC,
+            "batch_entries_total",
+            "Total number of requests of JSON-RPC batches, by execution",
+            "execution");
+    metricsSystem.createIntegerGauge(
+        BesuMetricCategory.RPC,
+        "batch_workers_active",
+        "Number of workers executing requests of JSON-RPC batches",
+        executor::getActiveCount);
+  }
+
+  /**
+   * Whether a request of a batch can be executed concurrently with the other ones.
+   *
+   * @param maybeRequest the request
+   * @return true if the request is executed concurrently
+   */
+  boolean isConcurrent(final Object maybeRequest) {
+    return maybeRequest instanceof JsonObject request
+        && request.getValue("method") instanceof String method
+        && CONCURRENT_METHODS.contains(method);
+  }
+
+  int getMaxBatchConcurrency() {
+    return maxBatchConcurrency;
+  }
+
+  /**
+   * Submits a request of a batch, executed in the OpenTelemetry context of the batch.
+   *
+   * @param request the request
+   * @return the future response
+   */
+  Future<JsonRpcResponse> submit(final Supplier<JsonRpcResponse> request) {
+    final Callable<JsonRpcResponse> task = request::get;
+    return executor.submit(Context.current().wrap(task));
+  }
+
+  /**
+   * Records how the requests of a batch were executed.
+   *
+   * @param concurrentEntries the number of requests executed concurrently
+   * @param sequentialEntries the number of requests executed in order
+   */
+  void recordBatch(final int concurrentEntries, final int sequentialEntries) {
+    batchCounter.inc();
+    batchEntriesCounter.labels("concurrent").inc(concurrentEntries);
+    batchEntriesCounter.labels("sequential").inc(sequentialEntries);
+  }
+}
@@ -37,6 +37,9 @@ public class JsonRpcConfiguration {
   public static final int DEFAULT_ENGINE_JSON_RPC_PORT = 8551;
   public static final int DEFAULT_MAX_ACTIVE_CONNECTIONS = 80;
   public static final int DEFAULT_MAX_BATCH_SIZE = 1024;
+  public static final int DEFAULT_BATCH_WORKER_THREADS = 16;
+  public static final int DEFAULT_MAX_BATCH_CONCURRENCY = 8;
+  public static final long DEFAULT_RESPONSE_CACHE_SIZE = 64L * 1024 * 1024;
   public static final long DEFAULT_MAX_REQUEST_CONTENT_LENGTH = 5 * 1024 * 1024; // 5MB
   public static final boolean DEFAULT_PRETTY_JSON_ENABLED = false;
 
@@ -55,6 +58,9 @@ public class JsonRpcConfiguration {
   private long httpTimeoutSec = TimeoutOptions.defaultOptions().getTimeoutSeconds();
   private int maxActiveConnections;
   private int maxBatchSize;
+  private int batchWorkerThreads;
+  private int maxBatchConcurrency;
+  private long responseCacheSize;
   private long maxRequestContentLength;
   private boolean prettyJsonEnabled;
 
@@ -67,6 +73,9 @@ public class JsonRpcConfiguration {
     config.httpTimeoutSec = TimeoutOptions.defaultOptions().getTimeoutSeconds();
     config.setMaxActiveConnections(DEFAULT_MAX_ACTIVE_CONNECTIONS);
     config.setMaxBatchSize(DEFAULT_MAX_BATCH_SIZE);
+    config.setBatchWorkerThreads(DEFAULT_BATCH_WORKER_THREADS);
+    config.setMaxBatchConcurrency(DEFAULT_MAX_BATCH_CONCURRENCY);
+    config.setResponseCacheSize(DEFAULT_RESPONSE_CACHE_SIZE);
     config.setMaxRequestContentLength(DEFAULT_MAX_REQUEST_CONTENT_LENGTH);
     config.setPrettyJsonEnabled(DEFAULT_PRETTY_JSON_ENABLED);
     return config;
@@ -223,6 +232,9 @@ public class JsonRpcConfiguration {
         .add("httpTimeoutSec", httpTimeoutSec)
         .add("maxActiveConnections", maxActiveConnections)
         .add("maxBatchSize", maxBatchSize)
+        .add("batchWorkerThreads", batchWorkerThreads)
+        .add("maxBatchConcurrency", maxBatchConcurrency)
+        .add("responseCacheSize", responseCacheSize)
         .toString();
   }
 
@@ -244,7 +256,10 @@ public class JsonRpcConfiguration {
         && Objects.equals(hostsAllowlist, that.hostsAllowlist)
         && Objects.equals(authenticationCredentialsFile, that.authenticationCredentialsFile)
         && Objects.equals(authenticationPublicKeyFile, that.authenticationPublicKeyFile)
-        && maxBatchSize == that.maxBatchSize;
+        && maxBatchSize == that.maxBatchSize
+        && batchWorkerThreads == that.batchWorkerThreads
+        && maxBatchConcurrency == that.maxBatchConcurrency
+        && responseCacheSize == that.responseCacheSize;
   }
 
   @Override
@@ -259,7 +274,10 @@ public class JsonRpcConfiguration {
         authenticationEnabled,
         authenticationCredentialsFile,
         authenticationPublicKeyFile,
-        maxBatchSize);
+        maxBatchSize,
+        batchWorkerThreads,
+        maxBatchConcurrency,
+        responseCacheSize);
   }
 
   public int getMaxActiveConnections() {
@@ -278,6 +296,30 @@ public class JsonRpcConfiguration {
     this.maxBatchSize = maxBatchSize;
   }
 
+  public int getBatchWorkerThreads() {
+    return batchWorkerThreads;
+  }
+
+  public void setBatchWorkerThreads(final int batchWorkerThreads) {
+    this.batchWorkerThreads = batchWorkerThreads;
+  }
+
+  public int getMaxBatchConcurrency() {
+    return maxBatchConcurrency;
+  }
+
+  public void setMaxBatchConcurrency(final int maxBatchConcurrency) {
+    this.maxBatchConcurrency = maxBatchConcurrency;
+  }
+
+  public long getResponseCacheSize() {
+    return responseCacheSize;
+  }
+
+  public void setResponseCacheSize(final long responseCacheSize) {
+    this.responseCacheSize = responseCacheSize;
+  }
+
   public long getMaxRequestContentLength() {
     return maxRequestContentLength;
   }
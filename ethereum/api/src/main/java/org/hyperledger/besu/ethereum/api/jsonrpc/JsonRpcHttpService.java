@@ -18,12 +18,15 @@ import static com.google.common.base.Preconditions.checkArgument;
 import static org.apache.tuweni.net.tls.VertxTrustOptions.allowlistClients;
 
 import org.hyperledger.besu.ethereum.api.handlers.HandlerFactory;
+import org.hyperledger.besu.ethereum.api.handlers.JsonRpcBatchWorkers;
 import org.hyperledger.besu.ethereum.api.handlers.TimeoutOptions;
 import org.hyperledger.besu.ethereum.api.jsonrpc.authentication.AuthenticationService;
 import org.hyperledger.besu.ethereum.api.jsonrpc.authentication.DefaultAuthenticationService;
 import org.hyperledger.besu.ethereum.api.jsonrpc.execution.AuthenticatedJsonRpcProcessor;
 import org.hyperledger.besu.ethereum.api.jsonrpc.execution.BaseJsonRpcProcessor;
+import org.hyperledger.besu.ethereum.api.jsonrpc.execution.CachingJsonRpcProcessor;
 import org.hyperledger.besu.ethereum.api.jsonrpc.execution.JsonRpcExecutor;
+import org.hyperledger.besu.ethereum.api.jsonrpc.execution.JsonRpcProcessor;
 import org.hyperledger.besu.ethereum.api.jsonrpc.execution.TimedJsonRpcProcessor;
 import org.hyperledger.besu.ethereum.api.jsonrpc.execution.TracedJsonRpcProcessor;
 import org.hyperledger.besu.ethereum.api.jsonrpc.health.HealthService;
@@ -31,6 +34,7 @@ import org.hyperledger.besu.ethereum.api.jsonrpc.internal.exception.Logging403Er
 import org.hyperledger.besu.ethereum.api.jsonrpc.internal.methods.JsonRpcMethod;
 import org.hyperledger.besu.ethereum.api.tls.TlsClientAuthConfiguration;
 import org.hyperledger.besu.ethereum.api.tls.TlsConfiguration;
+import org.hyperledger.besu.ethereum.chain.Blockchain;
 import org.hyperledger.besu.metrics.BesuMetricCategory;
 import org.hyperledger.besu.metrics.opentelemetry.OpenTelemetrySystem;
 import org.hyperledger.besu.nat.NatMethod;
@@ -135,6 +139,8 @@ public class JsonRpcHttpService {
   private final HealthService livenessService;
   private final HealthService readinessService;
   private final MetricsSystem metricsSystem;
+  private final Optional<JsonRpcBatchWorkers> batchWorkers;
+  private final Optional<Blockchain> blockchain;
 
   /**
    * Construct a JsonRpcHttpService handler
@@ -179,6 +185,45 @@ public class JsonRpcHttpService {
       final Optional<AuthenticationService> authenticationService,
       final HealthService livenessService,
       final HealthService readinessService) {
+    this(
+        vertx,
+        dataDir,
+        config,
+        metricsSystem,
+        natService,
+        methods,
+        authenticationService,
+        livenessService,
+        readinessService,
+        Optional.empty());
+  }
+
+  /**
+   * Construct a JsonRpcHttpService handler caching the responses about finalized blocks
+   *
+   * @param vertx The vertx process that will be running this service
+   * @param dataDir The data directory where requests can be buffered
+   * @param config Configuration for the rpc methods being loaded
+   * @param metricsSystem The metrics service that activities should be reported to
+   * @param natService The NAT environment manager.
+   * @param methods The json rpc methods that should be enabled
+   * @param authenticationService The authentication service, if enabled
+   * @param livenessService A service responsible for reporting whether this node is live
+   * @param readinessService A service responsible for reporting whether this node has fully started
+   * @param blockchain The blockchain whose finalized block bounds the cached responses, no
+   *     response is cached if empty
+   */
+  public JsonRpcHttpService(
+      final Vertx vertx,
+      final Path dataDir,
+      final JsonRpcConfiguration config,
+      final MetricsSystem metricsSystem,
+      final NatService natService,
+      final Map<String, JsonRpcMethod> methods,
+      final Optional<AuthenticationService> authenticationService,
+      final HealthService livenessService,
+      final HealthService readinessService,
+      final Optional<Blockchain> blockchain) {
     this.dataDir = dataDir;
     requestTimer =
         metricsSystem.createLabelledTimer(
@@ -206,6 +251,13 @@ public class JsonRpcHttpService {
       this.tracerProvider = ((OpenTelemetrySystem) metricsSystem).getTracerProvider();
     }
     this.metricsSystem = metricsSystem;
+    this.batchWorkers =
+        config.getMaxBatchConcurrency() > 1
+            ? Optional.of(
+                new JsonRpcBatchWorkers(
+                    config.getBatchWorkerThreads(), config.getMaxBatchConcurrency(), metricsSystem))
+            : Optional.empty();
+    this.blockchain = blockchain;
   }
 
   private void validateConfig(final JsonRpcConfiguration config) {
@@ -346,25 +398,21 @@ public class JsonRpcHttpService {
           HandlerFactory.jsonRpcExecutor(
               new JsonRpcExecutor(
                   new AuthenticatedJsonRpcProcessor(
-                      new TimedJsonRpcProcessor(
-                          new TracedJsonRpcProcessor(new BaseJsonRpcProcessor(), metricsSystem),
-                          requestTimer),
+                      createJsonRpcProcessor(),
                       authenticationService.get(),
                       config.getNoAuthRpcApis()),
                   rpcMethods),
               tracer,
-              config),
+              config,
+              batchWorkers),
           false);
     } else {
       mainRoute.blockingHandler(
           HandlerFactory.jsonRpcExecutor(
-              new JsonRpcExecutor(
-                  new TimedJsonRpcProcessor(
-                      new TracedJsonRpcProcessor(new BaseJsonRpcProcessor(), metricsSystem),
-                      requestTimer),
-                  rpcMethods),
+              new JsonRpcExecutor(createJsonRpcProcessor(), rpcMethods),
               tracer,
-              config),
+              config,
+              batchWorkers),
           false);
     }
 
@@ -384,6 +432,17 @@ public class JsonRpcHttpService {
     return router;
   }
 
+  private JsonRpcProcessor createJsonRpcProcessor() {
+    JsonRpcProcessor processor =
+        new TracedJsonRpcProcessor(new BaseJsonRpcProcessor(), metricsSystem);
+    if (blockchain.isPresent() && config.getResponseCacheSize() > 0) {
+      processor =
+          new CachingJsonRpcProcessor(
+              processor, blockchain.get(), config.getResponseCacheSize(), metricsSystem);
+    }
+    return new TimedJsonRpcProcessor(processor, requestTimer);
+  }
+
   private void createSpan(final RoutingContext routingContext) {
     final SocketAddress address = routingContext.request().connection().remoteAddress();
 
@@ -26,6 +26,7 @@ public enum RpcMethod {
   ADMIN_GENERATE_LOG_BLOOM_CACHE("admin_generateLogBloomCache"),
   ADMIN_LOGS_REPAIR_CACHE("admin_logsRepairCache"),
   ADMIN_LOGS_REMOVE_CACHE("admin_logsRemoveCache"),
+  ADMIN_BACKUP_CHECKPOINT("admin_backupCheckpoint"),
   CLIQUE_DISCARD("clique_discard"),
   CLIQUE_GET_SIGNERS("clique_getSigners"),
   CLIQUE_GET_SIGNERS_AT_HASH("clique_getSignersAtHash"),
@@ -38,6 +39,7 @@ public enum RpcMethod {
   DEBUG_SET_HEAD("debug_setHead"),
   DEBUG_REPLAY_BLOCK("debug_replayBlock"),
   DEBUG_STORAGE_RANGE_AT("debug_storageRangeAt"),
+  DEBUG_STORAGE_STATS("debug_storageStats"),
   DEBUG_TRACE_BLOCK("debug_traceBlock"),
   DEBUG_TRACE_BLOCK_BY_HASH("debug_traceBlockByHash"),
   DEBUG_TRACE_BLOCK_BY_NUMBER("debug_traceBlockByNumber"),
@@ -0,0 +1,330 @@
+/*
+ * Copyright contributors to Hyperledger Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.api.jsonrpc.execution;
+
+import static java.util.stream.Collectors.toUnmodifiableMap;
+
+import org.hyperledger.besu.datatypes.Hash;
+import org.hyperledger.besu.ethereum.api.jsonrpc.RpcMethod;
+import org.hyperledger.besu.ethereum.api.jsonrpc.internal.JsonRpcRequestContext;
+import org.hyperledger.besu.ethereum.api.jsonrpc.internal.JsonRpcRequestId;
+import org.hyperledger.besu.ethereum.api.jsonrpc.internal.methods.JsonRpcMethod;
+import org.hyperledger.besu.ethereum.api.jsonrpc.internal.parameters.BlockParameter;
+import org.hyperledger.besu.ethereum.api.jsonrpc.internal.parameters.BlockParameterOrBlockHash;
+import org.hyperledger.besu.ethereum.api.jsonrpc.internal.parameters.JsonRpcParameter.JsonRpcParameterException;
+import org.hyperledger.besu.ethereum.api.jsonrpc.internal.response.JsonRpcResponse;
+import org.hyperledger.besu.ethereum.api.jsonrpc.internal.response.JsonRpcSuccessResponse;
+import org.hyperledger.besu.ethereum.chain.Blockchain;
+import org.hyperledger.besu.ethereum.chain.TransactionLocation;
+import org.hyperledger.besu.ethereum.core.BlockHeader;
+import org.hyperledger.besu.metrics.BesuMetricCategory;
+import org.hyperledger.besu.plugin.services.MetricsSystem;
+import org.hyperledger.besu.plugin.services.metrics.Counter;
+import org.hyperledger.besu.plugin.services.metrics.LabelledMetric;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.core.type.WritableTypeId;
+import com.fasterxml.jackson.databind.JsonSerializable;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.util.RawValue;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+import com.fasterxml.jackson.datatype.jdk8.Jdk8Module;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.opentelemetry.api.trace.Span;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Caches the serialized results of the requests about finalized blocks, which never change.
+ *
+ * <p>Only the requests addressing a block by number or by hash, or a transaction by hash, are
+ * cached, never the ones using a block tag. A result is cached once its block is at or below the
+ * finalized block and is canonical, and is then written as is in the responses of the following
+ * identical requests. The cache is bounded by the size of the serialized results.
+ *
+ * <p>The results written while they are serialized, such as the block traces, are captured as they
+ * are streamed to the response, and cached unless they would take more than a tenth of the cache.
+ */
+public class CachingJsonRpcProcessor implements JsonRpcProcessor {
+  private static final Logger LOG = LoggerFactory.getLogger(CachingJsonRpcProcessor.class);
+
+  private static final Map<String, RpcMethod> CACHED_METHODS =
+      Stream.of(
+              RpcMethod.ETH_GET_BLOCK_BY_NUMBER,
+              RpcMethod.ETH_GET_BLOCK_RECEIPTS,
+              RpcMethod.ETH_GET_TRANSACTION_RECEIPT,
+              RpcMethod.DEBUG_TRACE_BLOCK_BY_NUMBER,
+              RpcMethod.DEBUG_TRACE_BLOCK_BY_HASH)
+          .collect(toUnmodifiableMap(RpcMethod::getMethodName, Function.identity()));
+
+  private static final ObjectMapper RESULT_MAPPER =
+      new ObjectMapper().registerModule(new Jdk8Module());
+
+  private final JsonRpcProcessor rpcProcessor;
+  private final Blockchain blockchain;
+  private final Cache<String, SerializedString> results;
+  private final int maxStreamedResultLength;
+  private final LabelledMetric<Counter> lookupCounter;
+
+  public CachingJsonRpcProcessor(
+      final JsonRpcProcessor rpcProcessor,
+      final Blockchain blockchain,
+      final long maxSizeInBytes,
+      final MetricsSystem metricsSystem) {
+    this.rpcProcessor = rpcProcessor;
+    this.blockchain = blockchain;
+    this.results =
+        Caffeine.newBuilder()
+            .maximumWeight(maxSizeInBytes)
+            // the characters of the result and its UTF-8 encoding written to the responses
+            .<String, SerializedString>weigher(
+                (key, result) ->
+                    key.length() + result.charLength() + result.asUnquotedUTF8().length)
+            .build();
+    // a result is weighed about twice its length, see above
+    this.maxStreamedResultLength = (int) Math.min(Integer.MAX_VALUE, maxSizeInBytes / 20);
+    this.lookupCounter =
+        metricsSystem.createLabelledCounter(
+            BesuMetricCategory.RPC,
+            "response_cache_lookups_total",
+            "Number of lookups of the JSON-RPC response cache, by result",
+            "result");
+  }
+
+  @Override
+  public JsonRpcResponse process(
+      final JsonRpcRequestId id,
+      final JsonRpcMethod method,
+      final Span metricSpan,
+      final JsonRpcRequestContext request) {
+    final Optional<Subject> maybeSubject = subject(request);
+    if (maybeSubject.isEmpty()) {
+      return rpcProcessor.process(id, method, metricSpan, request);
+    }
+    final Subject subject = maybeSubject.get();
+    final SerializedString cachedResult = results.getIfPresent(subject.key());
+    if (cachedResult != null) {
+      lookupCounter.labels("hit").inc();
+      return new JsonRpcSuccessResponse(request.getRequest().getId(), new RawValue(cachedResult));
+    }
+    lookupCounter.labels("miss").inc();
+
+    final JsonRpcResponse response = rpcProcessor.process(id, method, metricSpan, request);
+    if (!(response instanceof JsonRpcSuccessResponse successResponse)
+        || successResponse.getResult() == null
+        || !isFinalized(subject.block().get())) {
+      return response;
+    }
+    if (successResponse.getResult() instanceof JsonSerializable streamedResult) {
+      return new JsonRpcSuccessResponse(
+          successResponse.getId(), new CachingStreamedResult(subject.key(), streamedResult));
+    }
+    try {
+      cache(subject.key(), RESULT_MAPPER.writeValueAsString(successResponse.getResult()));
+    } catch (final JsonProcessingException e) {
+      LOG.debug("Unable to cache the result of {}", subject.key(), e);
+    }
+    return response;
+  }
+
+  private void cache(final String key, final String json) {
+    final SerializedString result = new SerializedString(json);
+    // encoded once, the following responses write the bytes directly
+    result.asUnquotedUTF8();
+    results.put(key, result);
+  }
+
+  /**
+   * A result written while it is serialized, whose JSON is captured as it is written to the
+   * response and cached once complete.
+   */
+  private class CachingStreamedResult implements JsonSerializable {
+    private final String key;
+    private final JsonSerializable result;
+
+    CachingStreamedResult(final String key, final JsonSerializable result) {
+      this.key = key;
+      this.result = result;
+    }
+
+    @Override
+    public void serialize(final JsonGenerator gen, final SerializerProvider serializers)
+        throws IOException {
+      final CapturingWriter writer = new CapturingWriter(gen, maxStreamedResultLength);
+      final JsonGenerator capturingGenerator = RESULT_MAPPER.getFactory().createGenerator(writer);
+      result.serialize(capturingGenerator, serializers);
+      // only closed once complete, as closing writes the end of the open objects and arrays
+      capturingGenerator.close();
+      // a null result means the block could not be traced, which may change
+      writer.captured().filter(json -> !json.equals("null")).ifPresent(json -> cache(key, json));
+    }
+
+    @Override
+    public void serializeWithType(
+        final JsonGenerator gen, final SerializerProvider serializers, final TypeSerializer typeSer)
+        throws IOException {
+      final WritableTypeId typeId =
+          typeSer.writeTypePrefix(gen, typeSer.typeId(this, gen.currentToken()));
+      serialize(gen, serializers);
+      typeSer.writeTypeSuffix(gen, typeId);
+    }
+  }
+
+  /** Writes the JSON of a result to the response, and keeps it unless it is too long. */
+  private static class CapturingWriter extends Writer {
+    private final JsonGenerator response;
+    private final int maxCapturedLength;
+    private StringBuilder captured = new StringBuilder();
+    private boolean started;
+
+    CapturingWriter(final JsonGenerator response, final int maxCapturedLength) {
+      this.response = response;
+      this.maxCapturedLength = maxCapturedLength;
+    }
+
+    @Override
+    public void write(final char[] chars, final int offset, final int length) throws IOException {
+      if (started) {
+        response.writeRaw(chars, offset, length);
+      } else {
+        // written as the value of the result field, the following chunks are appended as is
+        response.writeRawValue(chars, offset, length);
+        started = true;
+      }
+      if (captured != null) {
+        if (captured.length() + length > maxCapturedLength) {
+          captured = null;
+        } else {
+          captured.append(chars, offset, length);
+        }
+      }
+    }
+
+    Optional<String> captured() {
+      return Optional.ofNullable(captured).map(StringBuilder::toString);
+    }
+
+    @Override
+    public void flush() {}
+
+    @Override
+    public void close() {}
+  }
+
+  /**
+   * The key of a cacheable request and the lookup of the block it is about.
+   *
+   * @param key the method, the block or transaction, and the other parameters of the request
+   * @param block the lookup of the header of the block the request is about
+   */
+  private record Subject(String key, Supplier<Optional<BlockHeader>> block) {}
+
+  private Optional<Subject> subject(final JsonRpcRequestContext request) {
+    final RpcMethod method = CACHED_METHODS.get(request.getRequest().getMethod());
+    if (method == null) {
+      return Optional.empty();
+    }
+    try {
+      final String subjectKey;
+      final Supplier<Optional<BlockHeader>> block;
+      switch (method) {
+        case ETH_GET_BLOCK_BY_NUMBER, DEBUG_TRACE_BLOCK_BY_NUMBER -> {
+          final Optional<Long> number =
+              request.getRequiredParameter(0, BlockParameter.class).getNumber();
+          if (number.isEmpty()) {
+            return Optional.empty();
+          }
+          subjectKey = "block " + number.get();
+          block = () -> blockchain.getBlockHeader(number.get());
+        }
+        case ETH_GET_BLOCK_RECEIPTS -> {
+          final BlockParameterOrBlockHash blockParameter =
+              request.getRequiredParameter(0, BlockParameterOrBlockHash.class);
+          if (blockParameter.getHash().isPresent()) {
+            final Hash hash = blockParameter.getHash().get();
+            subjectKey = "block " + hash.toHexString();
+            block = () -> blockchain.getBlockHeader(hash);
+          } else if (blockParameter.getNumber().isPresent()) {
+            final long number = blockParameter.getNumber().getAsLong();
+            subjectKey = "block " + number;
+            block = () -> blockchain.getBlockHeader(number);
+          } else {
+            return Optional.empty();
+          }
+        }
+        case DEBUG_TRACE_BLOCK_BY_HASH -> {
+          final Hash hash = request.getRequiredParameter(0, Hash.class);
+          subjectKey = "block " + hash.toHexString();
+          block = () -> blockchain.getBlockHeader(hash);
+        }
+        case ETH_GET_TRANSACTION_RECEIPT -> {
+          final Hash hash = request.getRequiredParameter(0, Hash.class);
+          subjectKey = "transaction " + hash.toHexString();
+          block =
+              () ->
+                  blockchain
+                      .getTransactionLocation(hash)
+                      .map(TransactionLocation::getBlockHash)
+                      .flatMap(blockchain::getBlockHeader);
+        }
+        default -> {
+          return Optional.empty();
+        }
+      }
+      // the other parameters, such as the tracer options, are part of the key as they are
+      final Object[] params = request.getRequest().getParams();
+      final Object[] otherParams = Arrays.copyOfRange(params, 1, params.length);
+      return Optional.of(
+          new Subject(
+              method.getMethodName()
+                  + ' '
+                  + subjectKey
+                  + ' '
+                  + RESULT_MAPPER.writeValueAsString(otherParams),
+              block));
+    } catch (final JsonRpcParameterException | JsonProcessingException | RuntimeException e) {
+      // the invalid parameters are reported by the method
+      return Optional.empty();
+    }
+  }
+
+  /** Whether a block is canonical and at or below the finalized block. */
+  private boolean isFinalized(final Optional<BlockHeader> block) {
+    final Optional<Long> finalizedNumber =
+        blockchain.getFinalized().flatMap(blockchain::getBlockHeader).map(BlockHeader::getNumber);
+    return block
+        .filter(header -> finalizedNumber.map(number -> header.getNumber() <= number).orElse(false))
+        .filter(
+            header ->
+                blockchain
+                    .getBlockHashByNumber(header.getNumber())
+                    .map(header.getHash()::equals)
+                    .orElse(false))
+        .isPresent();
+  }
+}
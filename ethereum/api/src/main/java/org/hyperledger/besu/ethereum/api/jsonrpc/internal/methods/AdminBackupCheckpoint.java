@@ -0,0 +1,76 @@
+/*
+ * Copyright contributors to Hyperledger Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.api.jsonrpc.internal.methods;
+
+import org.hyperledger.besu.ethereum.api.jsonrpc.RpcMethod;
+import org.hyperledger.besu.ethereum.api.jsonrpc.internal.JsonRpcRequestContext;
+import org.hyperledger.besu.ethereum.api.jsonrpc.internal.exception.InvalidJsonRpcParameters;
+import org.hyperledger.besu.ethereum.api.jsonrpc.internal.parameters.JsonRpcParameter.JsonRpcParameterException;
+import org.hyperledger.besu.ethereum.api.jsonrpc.internal.response.JsonRpcErrorResponse;
+import org.hyperledger.besu.ethereum.api.jsonrpc.internal.response.JsonRpcResponse;
+import org.hyperledger.besu.ethereum.api.jsonrpc.internal.response.JsonRpcSuccessResponse;
+import org.hyperledger.besu.ethereum.api.jsonrpc.internal.response.RpcErrorType;
+import org.hyperledger.besu.ethereum.api.query.BlockchainQueries;
+import org.hyperledger.besu.ethereum.api.query.CheckpointBackupService;
+import org.hyperledger.besu.ethereum.eth.manager.EthScheduler;
+
+import java.nio.file.Path;
+import java.util.Optional;
+
+/** Backs up the database of the running node to a directory, from a storage checkpoint. */
+public class AdminBackupCheckpoint implements JsonRpcMethod {
+
+  private final Optional<CheckpointBackupService> backupService;
+  private final Optional<EthScheduler> scheduler;
+
+  public AdminBackupCheckpoint(
+      final String clientVersion, final BlockchainQueries blockchainQueries) {
+    this.backupService =
+        CheckpointBackupService.checkpointableStorage(blockchainQueries.getWorldStateArchive())
+            .map(
+                storage ->
+                    new CheckpointBackupService(
+                        clientVersion, storage, CheckpointBackupService.DEFAULT_COPY_THREADS));
+    this.scheduler = blockchainQueries.getEthScheduler();
+  }
+
+  @Override
+  public String getName() {
+    return RpcMethod.ADMIN_BACKUP_CHECKPOINT.getMethodName();
+  }
+
+  @Override
+  public JsonRpcResponse response(final JsonRpcRequestContext requestContext) {
+    final String backupPath;
+    try {
+      backupPath = requestContext.getRequiredParameter(0, String.class);
+    } catch (JsonRpcParameterException e) {
+      throw new InvalidJsonRpcParameters(
+          "Invalid backup path parameter (index 0)", RpcErrorType.INVALID_PARAMS, e);
+    }
+    if (backupService.isEmpty() || scheduler.isEmpty()) {
+      return new JsonRpcErrorResponse(
+          requestContext.getRequest().getId(), RpcErrorType.CHECKPOINT_BACKUP_UNSUPPORTED);
+    }
+    final CheckpointBackupService.BackupStatus status;
+    try {
+      status = backupService.get().requestBackup(Path.of(backupPath), scheduler.get());
+    } catch (final IllegalArgumentException e) {
+      throw new InvalidJsonRpcParameters(
+          "Invalid backup path parameter (index 0)", RpcErrorType.INVALID_PARAMS, e);
+    }
+    return new JsonRpcSuccessResponse(requestContext.getRequest().getId(), status);
+  }
+}
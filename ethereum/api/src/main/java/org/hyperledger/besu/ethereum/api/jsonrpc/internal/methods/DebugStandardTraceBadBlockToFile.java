@@ -70,6 +70,7 @@ public class DebugStandardTraceBadBlockToFile extends DebugStandardTraceBlockToF
           RpcErrorType.INVALID_TRANSACTION_TRACE_PARAMS,
           e);
     }
+    transactionTraceParams.ifPresent(TransactionTraceParams::checkOpcodeTracer);
 
     final BadBlockManager badBlockManager = protocolContext.getBadBlockManager();
 
@@ -77,6 +77,7 @@ public class DebugStandardTraceBlockToFile implements JsonRpcMethod {
           RpcErrorType.INVALID_TRANSACTION_TRACE_PARAMS,
           e);
     }
+    transactionTraceParams.ifPresent(TransactionTraceParams::checkOpcodeTracer);
 
     return blockchainQueries
         .get()
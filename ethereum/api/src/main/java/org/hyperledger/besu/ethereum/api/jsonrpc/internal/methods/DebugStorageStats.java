@@ -0,0 +1,97 @@
+/*
+ * Copyright contributors to Hyperledger Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.api.jsonrpc.internal.methods;
+
+import org.hyperledger.besu.ethereum.api.jsonrpc.RpcMethod;
+import org.hyperledger.besu.ethereum.api.jsonrpc.internal.JsonRpcRequestContext;
+import org.hyperledger.besu.ethereum.api.jsonrpc.internal.response.JsonRpcErrorResponse;
+import org.hyperledger.besu.ethereum.api.jsonrpc.internal.response.JsonRpcResponse;
+import org.hyperledger.besu.ethereum.api.jsonrpc.internal.response.JsonRpcSuccessResponse;
+import org.hyperledger.besu.ethereum.api.jsonrpc.internal.response.RpcErrorType;
+import org.hyperledger.besu.services.kvstore.LatencyHistogram;
+import org.hyperledger.besu.services.kvstore.SegmentedStorageStats;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Reports the latency histograms and hot keys of the storage segments, when the storage is
+ * instrumented with --Xstorage-stats-enabled.
+ */
+public class DebugStorageStats implements JsonRpcMethod {
+
+  private final Optional<SegmentedStorageStats> storageStats;
+
+  public DebugStorageStats(final Optional<SegmentedStorageStats> storageStats) {
+    this.storageStats = storageStats;
+  }
+
+  @Override
+  public String getName() {
+    return RpcMethod.DEBUG_STORAGE_STATS.getMethodName();
+  }
+
+  @Override
+  public JsonRpcResponse response(final JsonRpcRequestContext requestContext) {
+    if (storageStats.isEmpty()) {
+      return new JsonRpcErrorResponse(
+          requestContext.getRequest().getId(), RpcErrorType.STORAGE_STATS_NOT_ENABLED);
+    }
+    final Map<String, Object> segments = new LinkedHashMap<>();
+    storageStats
+        .get()
+        .summary()
+        .forEach((segment, summary) -> segments.put(segment, segmentResult(summary)));
+    return new JsonRpcSuccessResponse(requestContext.getRequest().getId(), segments);
+  }
+
+  private static Map<String, Object> segmentResult(
+      final SegmentedStorageStats.SegmentSummary summary) {
+    final Map<String, Object> latencies = new LinkedHashMap<>();
+    summary
+        .latencies()
+        .forEach(
+            (operation, latency) ->
+                latencies.put(operation.name().toLowerCase(Locale.ROOT), latencyResult(latency)));
+    final List<Map<String, Object>> hotKeys =
+        summary.hotKeys().stream()
+            .map(
+                hotKey -> {
+                  final Map<String, Object> result = new LinkedHashMap<>();
+                  result.put("key", hotKey.key().toHexString());
+                  result.put("estimatedAccesses", hotKey.estimatedAccesses());
+                  return result;
+                })
+            .toList();
+    final Map<String, Object> result = new LinkedHashMap<>();
+    result.put("latencies", latencies);
+    result.put("hotKeys", hotKeys);
+    return result;
+  }
+
+  private static Map<String, Object> latencyResult(final LatencyHistogram.Summary latency) {
+    final Map<String, Object> result = new LinkedHashMap<>();
+    result.put("count", latency.count());
+    result.put("meanNanos", latency.meanNanos());
+    result.put("p50Nanos", latency.p50Nanos());
+    result.put("p90Nanos", latency.p90Nanos());
+    result.put("p99Nanos", latency.p99Nanos());
+    result.put("maxNanos", latency.maxNanos());
+    return result;
+  }
+}
@@ -20,18 +20,14 @@ import org.hyperledger.besu.ethereum.api.jsonrpc.internal.JsonRpcRequestContext;
 import org.hyperledger.besu.ethereum.api.jsonrpc.internal.exception.InvalidJsonRpcParameters;
 import org.hyperledger.besu.ethereum.api.jsonrpc.internal.parameters.JsonRpcParameter.JsonRpcParameterException;
 import org.hyperledger.besu.ethereum.api.jsonrpc.internal.parameters.TransactionTraceParams;
-import org.hyperledger.besu.ethereum.api.jsonrpc.internal.processor.BlockTrace;
 import org.hyperledger.besu.ethereum.api.jsonrpc.internal.processor.BlockTracer;
-import org.hyperledger.besu.ethereum.api.jsonrpc.internal.processor.Tracer;
 import org.hyperledger.besu.ethereum.api.jsonrpc.internal.response.JsonRpcResponse;
 import org.hyperledger.besu.ethereum.api.jsonrpc.internal.response.JsonRpcSuccessResponse;
 import org.hyperledger.besu.ethereum.api.jsonrpc.internal.response.RpcErrorType;
-import org.hyperledger.besu.ethereum.api.jsonrpc.internal.results.DebugTraceTransactionResult;
+import org.hyperledger.besu.ethereum.api.jsonrpc.internal.results.StreamingDebugTraceBlockResult;
 import org.hyperledger.besu.ethereum.api.query.BlockchainQueries;
 import org.hyperledger.besu.ethereum.debug.TraceOptions;
-import org.hyperledger.besu.ethereum.vm.DebugOperationTracer;
 
-import java.util.Collection;
 import java.util.function.Supplier;
 
 public class DebugTraceBlockByHash implements JsonRpcMethod {
@@ -65,7 +61,7 @@ public class DebugTraceBlockByHash implements JsonRpcMethod {
       traceOptions =
           requestContext
               .getOptionalParameter(1, TransactionTraceParams.class)
-              .map(TransactionTraceParams::traceOptions)
+              .map(TransactionTraceParams::opcodeTraceOptions)
               .orElse(TraceOptions.DEFAULT);
     } catch (JsonRpcParameterException e) {
       throw new InvalidJsonRpcParameters(
@@ -74,19 +70,15 @@ public class DebugTraceBlockByHash implements JsonRpcMethod {
           e);
     }
 
-    final Collection<DebugTraceTransactionResult> results =
-        Tracer.processTracing(
-                blockchainQueries.get(),
-                blockHash,
-                mutableWorldState ->
-                    blockTracerSupplier
-                        .get()
-                        .trace(
-                            mutableWorldState,
-                            blockHash,
-                            new DebugOperationTracer(traceOptions, true))
-                        .map(BlockTrace::getTransactionTraces)
-                        .map(DebugTraceTransactionResult::of))
+    final StreamingDebugTraceBlockResult results =
+        blockchainQueries
+            .get()
+            .getBlockchain()
+            .getBlockByHash(blockHash)
+            .map(
+                block ->
+                    new StreamingDebugTraceBlockResult(
+                        blockchainQueries.get(), blockTracerSupplier, block, traceOptions))
             .orElse(null);
     return new JsonRpcSuccessResponse(requestContext.getRequest().getId(), results);
   }
@@ -21,14 +21,11 @@ import org.hyperledger.besu.ethereum.api.jsonrpc.internal.exception.InvalidJsonR
 import org.hyperledger.besu.ethereum.api.jsonrpc.internal.parameters.BlockParameter;
 import org.hyperledger.besu.ethereum.api.jsonrpc.internal.parameters.JsonRpcParameter.JsonRpcParameterException;
 import org.hyperledger.besu.ethereum.api.jsonrpc.internal.parameters.TransactionTraceParams;
-import org.hyperledger.besu.ethereum.api.jsonrpc.internal.processor.BlockTrace;
 import org.hyperledger.besu.ethereum.api.jsonrpc.internal.processor.BlockTracer;
-import org.hyperledger.besu.ethereum.api.jsonrpc.internal.processor.Tracer;
 import org.hyperledger.besu.ethereum.api.jsonrpc.internal.response.RpcErrorType;
-import org.hyperledger.besu.ethereum.api.jsonrpc.internal.results.DebugTraceTransactionResult;
+import org.hyperledger.besu.ethereum.api.jsonrpc.internal.results.StreamingDebugTraceBlockResult;
 import org.hyperledger.besu.ethereum.api.query.BlockchainQueries;
 import org.hyperledger.besu.ethereum.debug.TraceOptions;
-import org.hyperledger.besu.ethereum.vm.DebugOperationTracer;
 
 import java.util.Optional;
 import java.util.function.Supplier;
@@ -67,7 +64,7 @@ public class DebugTraceBlockByNumber extends AbstractBlockParameterMethod {
       traceOptions =
           request
               .getOptionalParameter(1, TransactionTraceParams.class)
-              .map(TransactionTraceParams::traceOptions)
+              .map(TransactionTraceParams::opcodeTraceOptions)
               .orElse(TraceOptions.DEFAULT);
     } catch (JsonRpcParameterException e) {
       throw new InvalidJsonRpcParameters(
@@ -77,20 +74,11 @@ public class DebugTraceBlockByNumber extends AbstractBlockParameterMethod {
     }
 
     return blockHash
-        .flatMap(
-            hash ->
-                Tracer.processTracing(
-                    blockchainQueriesSupplier.get(),
-                    hash,
-                    mutableWorldState ->
-                        blockTracerSupplier
-                            .get()
-                            .trace(
-                                mutableWorldState,
-                                hash,
-                                new DebugOperationTracer(traceOptions, true))
-                            .map(BlockTrace::getTransactionTraces)
-                            .map(DebugTraceTransactionResult::of)))
+        .flatMap(hash -> getBlockchainQueries().getBlockchain().getBlockByHash(hash))
+        .map(
+            block ->
+                new StreamingDebugTraceBlockResult(
+                    getBlockchainQueries(), blockTracerSupplier, block, traceOptions))
         .orElse(null);
   }
 }
@@ -57,7 +57,7 @@ public class DebugTraceCall extends AbstractTraceCall {
     try {
       return requestContext
           .getOptionalParameter(2, TransactionTraceParams.class)
-          .map(TransactionTraceParams::traceOptions)
+          .map(TransactionTraceParams::opcodeTraceOptions)
           .orElse(TraceOptions.DEFAULT);
     } catch (JsonRpcParameterException e) {
       throw new InvalidJsonRpcParameters(
@@ -26,10 +26,14 @@ import org.hyperledger.besu.ethereum.api.jsonrpc.internal.response.JsonRpcRespon
 import org.hyperledger.besu.ethereum.api.jsonrpc.internal.response.JsonRpcSuccessResponse;
 import org.hyperledger.besu.ethereum.api.jsonrpc.internal.response.RpcErrorType;
 import org.hyperledger.besu.ethereum.api.jsonrpc.internal.results.DebugTraceTransactionResult;
+import org.hyperledger.besu.ethereum.api.jsonrpc.internal.results.tracing.call.CallTracer;
+import org.hyperledger.besu.ethereum.api.jsonrpc.internal.results.tracing.prestate.PrestateTracer;
 import org.hyperledger.besu.ethereum.api.query.BlockchainQueries;
 import org.hyperledger.besu.ethereum.api.query.TransactionWithMetadata;
 import org.hyperledger.besu.ethereum.debug.TraceOptions;
+import org.hyperledger.besu.ethereum.processing.TransactionProcessingResult;
 import org.hyperledger.besu.ethereum.vm.DebugOperationTracer;
+import org.hyperledger.besu.evm.tracing.OperationTracer;
 
 import java.util.Optional;
 
@@ -76,22 +80,32 @@ public class DebugTraceTransaction implements JsonRpcMethod {
             RpcErrorType.INVALID_TRANSACTION_TRACE_PARAMS,
             e);
       }
-      final DebugTraceTransactionResult debugTraceTransactionResult =
-          debugTraceTransactionResult(hash, transactionWithMetadata.get(), traceOptions);
+      final Hash blockHash = transactionWithMetadata.get().getBlockHash().get();
+      final Object result =
+          switch (traceOptions.getTracerType()) {
+            case CALL_TRACER -> {
+              final CallTracer callTracer = new CallTracer();
+              yield traceWithTracer(blockHash, hash, callTracer)
+                  .flatMap(__ -> callTracer.getResult())
+                  .orElse(null);
+            }
+            case PRESTATE_TRACER -> {
+              final PrestateTracer prestateTracer = new PrestateTracer();
+              yield traceWithTracer(blockHash, hash, prestateTracer)
+                  .map(__ -> prestateTracer.getResult())
+                  .orElse(null);
+            }
+            default -> debugTraceTransactionResult(hash, blockHash, traceOptions);
+          };
 
-      return new JsonRpcSuccessResponse(
-          requestContext.getRequest().getId(), debugTraceTransactionResult);
+      return new JsonRpcSuccessResponse(requestContext.getRequest().getId(), result);
     } else {
       return new JsonRpcSuccessResponse(requestContext.getRequest().getId(), null);
     }
   }
 
   private DebugTraceTransactionResult debugTraceTransactionResult(
-      final Hash hash,
-      final TransactionWithMetadata transactionWithMetadata,
-      final TraceOptions traceOptions) {
-    final Hash blockHash = transactionWithMetadata.getBlockHash().get();
-
+      final Hash hash, final Hash blockHash, final TraceOptions traceOptions) {
     final DebugOperationTracer execTracer = new DebugOperationTracer(traceOptions, true);
 
     return Tracer.processTracing(
@@ -103,4 +117,14 @@ public class DebugTraceTransaction implements JsonRpcMethod {
                     .map(DebugTraceTransactionResult::new))
         .orElse(null);
   }
+
+  private Optional<TransactionProcessingResult> traceWithTracer(
+      final Hash blockHash, final Hash hash, final OperationTracer tracer) {
+    return Tracer.processTracing(
+        blockchain,
+        blockHash,
+        mutableWorldState ->
+            transactionTracer.traceTransactionWithTracer(
+                mutableWorldState, blockHash, hash, tracer));
+  }
 }
@@ -14,6 +14,7 @@
  */
 package org.hyperledger.besu.ethereum.api.jsonrpc.internal.methods;
 
+import org.hyperledger.besu.ethereum.api.ApiConfiguration;
 import org.hyperledger.besu.ethereum.api.jsonrpc.RpcMethod;
 import org.hyperledger.besu.ethereum.api.jsonrpc.internal.JsonRpcRequestContext;
 import org.hyperledger.besu.ethereum.api.jsonrpc.internal.parameters.JsonCallParameter;
@@ -28,6 +29,7 @@ import org.hyperledger.besu.ethereum.transaction.CallParameter;
 import org.hyperledger.besu.ethereum.transaction.TransactionSimulator;
 import org.hyperledger.besu.ethereum.transaction.TransactionSimulatorResult;
 import org.hyperledger.besu.evm.tracing.EstimateGasOperationTracer;
+import org.hyperledger.besu.evm.tracing.OperationTracer;
 
 import java.util.Optional;
 
@@ -37,9 +39,27 @@ import org.slf4j.LoggerFactory;
 public class EthEstimateGas extends AbstractEstimateGas {
   private static final Logger LOG = LoggerFactory.getLogger(EthEstimateGas.class);
 
+  private final double tolerance;
+
   public EthEstimateGas(
       final BlockchainQueries blockchainQueries, final TransactionSimulator transactionSimulator) {
+    this(blockchainQueries, transactionSimulator, ApiConfiguration.DEFAULT_ESTIMATE_GAS_TOLERANCE);
+  }
+
+  /**
+   * Creates the method.
+   *
+   * @param blockchainQueries the blockchain queries
+   * @param transactionSimulator the transaction simulator
+   * @param tolerance the ratio of the estimate by which it may exceed the minimum gas needed, 0
+   *     searches the exact minimum
+   */
+  public EthEstimateGas(
+      final BlockchainQueries blockchainQueries,
+      final TransactionSimulator transactionSimulator,
+      final double tolerance) {
     super(blockchainQueries, transactionSimulator);
+    this.tolerance = tolerance;
   }
 
   @Override
@@ -78,37 +98,66 @@ public class EthEstimateGas extends AbstractEstimateGas {
 
     final var result = maybeResult.get();
     long low = result.result().getEstimateGasUsedByTransaction();
-    final var lowResult =
-        transactionSimulator.process(
-            overrideGasLimitAndPrice(callParams, low),
-            transactionValidationParams,
-            operationTracer,
-            blockHeader);
-
-    if (lowResult.isPresent() && lowResult.get().isSuccessful()) {
+    // the following executions only need to know whether the transaction succeeds
+    if (isSuccessful(callParams, low, transactionValidationParams, blockHeader)) {
       return Quantity.create(low);
     }
 
-    long high = processEstimateGas(result, operationTracer);
-    long mid;
-
-    while (low + 1 < high) {
-      mid = (low + high) / 2;
-      var binarySearchResult =
-          transactionSimulator.process(
-              overrideGasLimitAndPrice(callParams, mid),
-              transactionValidationParams,
-              operationTracer,
-              blockHeader);
-
-      if (binarySearchResult.isEmpty() || !binarySearchResult.get().isSuccessful()) {
-        low = mid;
-      } else {
-        high = mid;
+    // the gas limit of the first execution is known to be enough
+    final long gasLimit = modifiedCallParams.getGasLimit();
+    long high = Math.min(processEstimateGas(result, operationTracer), gasLimit);
+    if (high <= low) {
+      return Quantity.create(high);
+    }
+    boolean isHighSuccessful = high == gasLimit;
+
+    while (true) {
+      while (!isWithinTolerance(low, high)) {
+        final long mid = bisect(low, high);
+        if (isSuccessful(callParams, mid, transactionValidationParams, blockHeader)) {
+          high = mid;
+          isHighSuccessful = true;
+        } else {
+          low = mid;
+        }
+      }
+      if (isHighSuccessful
+          || isSuccessful(callParams, high, transactionValidationParams, blockHeader)) {
+        return Quantity.create(high);
       }
+      // the bound derived from the first execution was not enough, e.g. for a gas dependent path
+      LOG.debug("Estimated gas upper bound {} not enough, searching up to {}", high, gasLimit);
+      low = high;
+      high = gasLimit;
+      isHighSuccessful = true;
     }
+  }
+
+  private boolean isSuccessful(
+      final JsonCallParameter callParams,
+      final long gasLimit,
+      final TransactionValidationParams transactionValidationParams,
+      final BlockHeader blockHeader) {
+    final Optional<TransactionSimulatorResult> result =
+        transactionSimulator.process(
+            overrideGasLimitAndPrice(callParams, gasLimit),
+            transactionValidationParams,
+            OperationTracer.NO_TRACING,
+            blockHeader);
+    return result.isPresent() && result.get().isSuccessful();
+  }
+
+  private boolean isWithinTolerance(final long low, final long high) {
+    return low + 1 >= high || high - low <= high * tolerance;
+  }
 
-    return Quantity.create(high);
+  /**
+   * Gets the gas limit to try next, biased towards the failing one since the gas needed is usually
+   * much closer to the gas used than to a large upper bound.
+   */
+  private static long bisect(final long low, final long high) {
+    final long mid = low + (high - low) / 2;
+    return low > 0 && mid > low * 2 ? low * 2 : mid;
   }
 
   private Optional<JsonRpcErrorResponse> validateSimulationResult(
@@ -0,0 +1,67 @@
+/*
+ * Copyright contributors to Hyperledger Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.api.jsonrpc.internal.methods;
+
+import org.hyperledger.besu.ethereum.api.jsonrpc.internal.processor.ParallelTransactionTracer;
+import org.hyperledger.besu.ethereum.api.jsonrpc.internal.processor.TransactionTrace;
+import org.hyperledger.besu.ethereum.vm.DebugOperationTracer;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Executes the transactions of a block like {@link ExecuteTransactionStep}, but traces them
+ * concurrently, each one from its own copy of the state before it. The trace of each transaction is
+ * processed on the executor too, while the state it was traced from can still be read through its
+ * trace frames.
+ *
+ * @param <T> the type of the processed traces
+ */
+public class ParallelExecuteTransactionStep<T>
+    implements Function<TransactionTrace, CompletableFuture<T>> {
+
+  private final ParallelTransactionTracer parallelTracer;
+  private final Supplier<DebugOperationTracer> tracerSupplier;
+  private final Function<TransactionTrace, T> traceProcessor;
+
+  public ParallelExecuteTransactionStep(
+      final ParallelTransactionTracer parallelTracer,
+      final Supplier<DebugOperationTracer> tracerSupplier,
+      final Function<TransactionTrace, T> traceProcessor) {
+    this.parallelTracer = parallelTracer;
+    this.tracerSupplier = tracerSupplier;
+    this.traceProcessor = traceProcessor;
+  }
+
+  @Override
+  public CompletableFuture<T> apply(final TransactionTrace transactionTrace) {
+    // case where transactionTrace is created only to trace a block reward
+    if (transactionTrace.getTransaction() == null) {
+      return CompletableFuture.completedFuture(
+          traceProcessor.apply(new TransactionTrace(transactionTrace.getBlock())));
+    }
+    return parallelTracer.trace(
+        transactionTrace.getTransaction(),
+        tracerSupplier.get(),
+        trace ->
+            traceProcessor.apply(
+                new TransactionTrace(
+                    trace.getTransaction(),
+                    trace.getResult(),
+                    trace.getTraceFrames(),
+                    transactionTrace.getBlock())));
+  }
+}
@@ -22,6 +22,7 @@ import org.hyperledger.besu.ethereum.api.jsonrpc.internal.exception.InvalidJsonR
 import org.hyperledger.besu.ethereum.api.jsonrpc.internal.parameters.BlockParameter;
 import org.hyperledger.besu.ethereum.api.jsonrpc.internal.parameters.FilterParameter;
 import org.hyperledger.besu.ethereum.api.jsonrpc.internal.parameters.JsonRpcParameter.JsonRpcParameterException;
+import org.hyperledger.besu.ethereum.api.jsonrpc.internal.processor.ParallelTransactionTracer;
 import org.hyperledger.besu.ethereum.api.jsonrpc.internal.processor.Tracer;
 import org.hyperledger.besu.ethereum.api.jsonrpc.internal.processor.TransactionTrace;
 import org.hyperledger.besu.ethereum.api.jsonrpc.internal.response.RpcErrorType;
@@ -45,10 +46,12 @@ import org.hyperledger.besu.metrics.prometheus.PrometheusMetricsSystem;
 import org.hyperledger.besu.plugin.services.metrics.Counter;
 import org.hyperledger.besu.plugin.services.metrics.LabelledMetric;
 import org.hyperledger.besu.services.pipeline.Pipeline;
+import org.hyperledger.besu.services.pipeline.PipelineBuilder;
 
 import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.ExecutionException;
+import java.util.function.Function;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
@@ -123,29 +126,51 @@ public class TraceBlock extends AbstractBlockParameterMethod {
                           "Number of transactions processed for each block",
                           "step",
                           "action");
-              DebugOperationTracer debugOperationTracer =
-                  new DebugOperationTracer(new TraceOptions(false, false, true), false);
-              ExecuteTransactionStep executeTransactionStep =
-                  new ExecuteTransactionStep(
-                      chainUpdater,
-                      transactionProcessor,
-                      getBlockchainQueries().getBlockchain(),
-                      debugOperationTracer,
-                      protocolSpec,
-                      block);
+              final Optional<ParallelTransactionTracer> parallelTracer =
+                  getBlockchainQueries()
+                      .getBlockTracingExecutor()
+                      .flatMap(
+                          executor ->
+                              ParallelTransactionTracer.create(
+                                  traceableState,
+                                  header,
+                                  getBlockchainQueries().getBlockchain(),
+                                  protocolSpec,
+                                  executor));
               TraceFlatTransactionStep traceFlatTransactionStep =
                   new TraceFlatTransactionStep(protocolSchedule, block, filterParameter);
               BuildArrayNodeCompleterStep buildArrayNodeStep =
                   new BuildArrayNodeCompleterStep(resultArrayNode);
-              Pipeline<TransactionTrace> traceBlockPipeline =
+              final PipelineBuilder<TransactionTrace, TransactionTrace> transactions =
                   createPipelineFrom(
-                          "getTransactions",
-                          transactionSource,
-                          4,
-                          outputCounter,
-                          false,
-                          "trace_block_transactions")
-                      .thenProcess("executeTransaction", executeTransactionStep)
+                      "getTransactions",
+                      transactionSource,
+                      4,
+                      outputCounter,
+                      false,
+                      "trace_block_transactions");
+              Pipeline<TransactionTrace> traceBlockPipeline =
+                  (parallelTracer.isPresent()
+                          ? transactions.thenProcessAsyncOrdered(
+                              "executeTransaction",
+                              // flat traces do not read the state of the trace frames
+                              new ParallelExecuteTransactionStep<>(
+                                  parallelTracer.get(),
+                                  () ->
+                                      new DebugOperationTracer(
+                                          new TraceOptions(false, false, true), false),
+                                  Function.identity()),
+                              2 * getBlockchainQueries().getBlockTracingThreads())
+                          : transactions.thenProcess(
+                              "executeTransaction",
+                              new ExecuteTransactionStep(
+                                  chainUpdater,
+                                  transactionProcessor,
+                                  getBlockchainQueries().getBlockchain(),
+                                  new DebugOperationTracer(
+                                      new TraceOptions(false, false, true), false),
+                                  protocolSpec,
+                                  block)))
                       .thenProcessAsyncOrdered("traceFlatTransaction", traceFlatTransactionStep, 4)
                       .andFinishWith(
                           "buildArrayNode",
@@ -164,6 +189,8 @@ public class TraceBlock extends AbstractBlockParameterMethod {
                 }
               } catch (InterruptedException | ExecutionException e) {
                 throw new RuntimeException(e);
+              } finally {
+                parallelTracer.ifPresent(ParallelTransactionTracer::close);
               }
 
               resultArrayNode = buildArrayNodeStep.getResultArrayNode();
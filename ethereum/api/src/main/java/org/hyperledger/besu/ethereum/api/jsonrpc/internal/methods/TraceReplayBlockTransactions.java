@@ -23,6 +23,7 @@ import org.hyperledger.besu.ethereum.api.jsonrpc.internal.methods.TraceBlock.Cha
 import org.hyperledger.besu.ethereum.api.jsonrpc.internal.parameters.BlockParameter;
 import org.hyperledger.besu.ethereum.api.jsonrpc.internal.parameters.JsonRpcParameter.JsonRpcParameterException;
 import org.hyperledger.besu.ethereum.api.jsonrpc.internal.parameters.TraceTypeParameter;
+import org.hyperledger.besu.ethereum.api.jsonrpc.internal.processor.ParallelTransactionTracer;
 import org.hyperledger.besu.ethereum.api.jsonrpc.internal.processor.Tracer;
 import org.hyperledger.besu.ethereum.api.jsonrpc.internal.processor.TransactionTrace;
 import org.hyperledger.besu.ethereum.api.jsonrpc.internal.response.RpcErrorType;
@@ -43,6 +44,7 @@ import org.hyperledger.besu.metrics.prometheus.PrometheusMetricsSystem;
 import org.hyperledger.besu.plugin.services.metrics.Counter;
 import org.hyperledger.besu.plugin.services.metrics.LabelledMetric;
 import org.hyperledger.besu.services.pipeline.Pipeline;
+import org.hyperledger.besu.services.pipeline.PipelineBuilder;
 
 import java.util.Optional;
 import java.util.Set;
@@ -139,16 +141,17 @@ public class TraceReplayBlockTransactions extends AbstractBlockParameterMethod {
                           "Number of transactions processed for each block",
                           "step",
                           "action");
-              final DebugOperationTracer debugOperationTracer =
-                  new DebugOperationTracer(new TraceOptions(false, false, true), false);
-              final ExecuteTransactionStep executeTransactionStep =
-                  new ExecuteTransactionStep(
-                      chainUpdater,
-                      transactionProcessor,
-                      getBlockchainQueries().getBlockchain(),
-                      debugOperationTracer,
-                      protocolSpec,
-                      block);
+              final Optional<ParallelTransactionTracer> parallelTracer =
+                  getBlockchainQueries()
+                      .getBlockTracingExecutor()
+                      .flatMap(
+                          executor ->
+                              ParallelTransactionTracer.create(
+                                  traceableState,
+                                  header,
+                                  getBlockchainQueries().getBlockchain(),
+                                  protocolSpec,
+                                  executor));
 
               final Function<TransactionTrace, CompletableFuture<TraceReplayResult>>
                   traceReplayTransactionStep =
@@ -157,17 +160,40 @@ public class TraceReplayBlockTransactions extends AbstractBlockParameterMethod {
               final BuildArrayNodeCompleterStep buildArrayNodeStep =
                   new BuildArrayNodeCompleterStep(resultArrayNode);
 
-              final Pipeline<TransactionTrace> traceBlockPipeline =
+              final PipelineBuilder<TransactionTrace, TransactionTrace> transactions =
                   createPipelineFrom(
-                          "getTransactions",
-                          transactionSource,
-                          4,
-                          outputCounter,
-                          false,
-                          "trace_replay_block_transactions")
-                      .thenProcess("executeTransaction", executeTransactionStep)
-                      .thenProcessAsyncOrdered(
-                          "traceReplayTransaction", traceReplayTransactionStep, 4)
+                      "getTransactions",
+                      transactionSource,
+                      4,
+                      outputCounter,
+                      false,
+                      "trace_replay_block_transactions");
+              // the state diffs read the state of the trace frames, so they are generated on the
+              // executor while the copy of the state of the transaction is not reused
+              final Pipeline<TransactionTrace> traceBlockPipeline =
+                  (parallelTracer.isPresent()
+                          ? transactions.thenProcessAsyncOrdered(
+                              "executeTransaction",
+                              new ParallelExecuteTransactionStep<>(
+                                  parallelTracer.get(),
+                                  () ->
+                                      new DebugOperationTracer(
+                                          new TraceOptions(false, false, true), false),
+                                  trace -> traceReplayTransactionStep.apply(trace).join()),
+                              2 * getBlockchainQueries().getBlockTracingThreads())
+                          : transactions
+                              .thenProcess(
+                                  "executeTransaction",
+                                  new ExecuteTransactionStep(
+                                      chainUpdater,
+                                      transactionProcessor,
+                                      getBlockchainQueries().getBlockchain(),
+                                      new DebugOperationTracer(
+                                          new TraceOptions(false, false, true), false),
+                                      protocolSpec,
+                                      block))
+                              .thenProcessAsyncOrdered(
+                                  "traceReplayTransaction", traceReplayTransactionStep, 4))
                       .andFinishWith("buildArrayNode", buildArrayNodeStep::accept);
               try {
                 if (getBlockchainQueries().getEthScheduler().isPresent()) {
@@ -182,6 +208,8 @@ public class TraceReplayBlockTransactions extends AbstractBlockParameterMethod {
                 }
               } catch (final InterruptedException | ExecutionException e) {
                 throw new RuntimeException(e);
+              } finally {
+                parallelTracer.ifPresent(ParallelTransactionTracer::close);
               }
               resultArrayNode = buildArrayNodeStep.getResultArrayNode();
               return Optional.of(resultArrayNode.getArrayNode());
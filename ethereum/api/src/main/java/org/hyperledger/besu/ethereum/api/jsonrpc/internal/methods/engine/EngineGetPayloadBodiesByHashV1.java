@@ -84,7 +84,9 @@ public class EngineGetPayloadBodiesByHashV1 extends ExecutionEngineJsonRpcMethod
 
     final EngineGetPayloadBodiesResultV1 engineGetPayloadBodiesResultV1 =
         blockResultFactory.payloadBodiesCompleteV1(
-            Arrays.stream(blockHashes).map(blockchain::getBlockBody).collect(Collectors.toList()));
+            Arrays.stream(blockHashes)
+                .map(blockchain::getLazyBlockBody)
+                .collect(Collectors.toList()));
 
     return new JsonRpcSuccessResponse(reqId, engineGetPayloadBodiesResultV1);
   }
@@ -114,7 +114,7 @@ public class EngineGetPayloadBodiesByRangeV1 extends ExecutionEngineJsonRpcMetho
                     blockNumber ->
                         blockchain
                             .getBlockHashByNumber(blockNumber)
-                            .flatMap(blockchain::getBlockBody))
+                            .flatMap(blockchain::getLazyBlockBody))
                 .collect(Collectors.toList()));
 
     return new JsonRpcSuccessResponse(reqId, engineGetPayloadBodiesResultV1);
@@ -14,7 +14,12 @@
  */
 package org.hyperledger.besu.ethereum.api.jsonrpc.internal.parameters;
 
+import org.hyperledger.besu.ethereum.api.jsonrpc.internal.exception.InvalidJsonRpcParameters;
+import org.hyperledger.besu.ethereum.api.jsonrpc.internal.response.RpcErrorType;
 import org.hyperledger.besu.ethereum.debug.TraceOptions;
+import org.hyperledger.besu.ethereum.debug.TraceOptions.TracerType;
+
+import java.util.Optional;
 
 import javax.annotation.Nullable;
 
@@ -52,7 +57,49 @@ public interface TransactionTraceParams {
     return false;
   }
 
+  @JsonProperty(value = "tracer")
+  @Nullable
+  String tracer();
+
+  @Value.Check
+  default void checkTracer() {
+    if (tracer() != null && TracerType.fromName(tracer()).isEmpty()) {
+      throw new IllegalArgumentException("Unsupported tracer " + tracer());
+    }
+  }
+
   default TraceOptions traceOptions() {
-    return new TraceOptions(!disableStorage(), !disableMemory(), !disableStack());
+    return new TraceOptions(
+        !disableStorage(),
+        !disableMemory(),
+        !disableStack(),
+        Optional.ofNullable(tracer())
+            .flatMap(TracerType::fromName)
+            .orElse(TracerType.OPCODE_TRACER));
+  }
+
+  /**
+   * Rejects the native tracers, for the methods which only trace struct logs.
+   *
+   * @throws InvalidJsonRpcParameters if a tracer other than the opcode tracer is requested
+   */
+  default void checkOpcodeTracer() {
+    if (traceOptions().getTracerType() != TracerType.OPCODE_TRACER) {
+      throw new InvalidJsonRpcParameters(
+          "Unsupported tracer " + tracer() + ", only struct logs are traced",
+          RpcErrorType.INVALID_TRANSACTION_TRACE_PARAMS);
+    }
+  }
+
+  /**
+   * The options of a trace of struct logs, for the methods which do not support the native
+   * tracers.
+   *
+   * @return the trace options
+   * @throws InvalidJsonRpcParameters if a tracer other than the opcode tracer is requested
+   */
+  default TraceOptions opcodeTraceOptions() {
+    checkOpcodeTracer();
+    return traceOptions();
   }
 }
@@ -57,14 +57,7 @@ public class BlockReplay {
         block.getHeader(),
         block.getBody(),
         (body, header, blockchain, transactionProcessor, protocolSpec) -> {
-          final Wei blobGasPrice =
-              protocolSpec
-                  .getFeeMarket()
-                  .blobGasPricePerGas(
-                      blockchain
-                          .getBlockHeader(header.getParentHash())
-                          .map(parent -> calculateExcessBlobGasForParent(protocolSpec, parent))
-                          .orElse(BlobGas.ZERO));
+          final Wei blobGasPrice = blobGasPrice(protocolSpec, blockchain, header);
 
           final List<TransactionTrace> transactionTraces =
               body.getTransactions().stream()
@@ -91,14 +84,7 @@ public class BlockReplay {
         blockHash,
         (body, header, blockchain, transactionProcessor, protocolSpec) -> {
           final BlockHashLookup blockHashLookup = new CachingBlockHashLookup(header, blockchain);
-          final Wei blobGasPrice =
-              protocolSpec
-                  .getFeeMarket()
-                  .blobGasPricePerGas(
-                      blockchain
-                          .getBlockHeader(header.getParentHash())
-                          .map(parent -> calculateExcessBlobGasForParent(protocolSpec, parent))
-                          .orElse(BlobGas.ZERO));
+          final Wei blobGasPrice = blobGasPrice(protocolSpec, blockchain, header);
 
           for (final Transaction transaction : body.getTransactions()) {
             if (transaction.getHash().equals(transactionHash)) {
@@ -155,6 +141,21 @@ public class BlockReplay {
         block -> performActionWithBlock(block.getHeader(), block.getBody(), action));
   }
 
+  public <T> Optional<T> performActionWithBlock(final Block block, final BlockAction<T> action) {
+    return performActionWithBlock(block.getHeader(), block.getBody(), action);
+  }
+
+  static Wei blobGasPrice(
+      final ProtocolSpec protocolSpec, final Blockchain blockchain, final BlockHeader header) {
+    return protocolSpec
+        .getFeeMarket()
+        .blobGasPricePerGas(
+            blockchain
+                .getBlockHeader(header.getParentHash())
+                .map(parent -> calculateExcessBlobGasForParent(protocolSpec, parent))
+                .orElse(BlobGas.ZERO));
+  }
+
   private <T> Optional<T> performActionWithBlock(
       final BlockHeader header, final BlockBody body, final BlockAction<T> action) {
     if (header == null) {
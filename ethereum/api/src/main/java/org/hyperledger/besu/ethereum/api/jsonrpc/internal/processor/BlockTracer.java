@@ -17,14 +17,21 @@ package org.hyperledger.besu.ethereum.api.jsonrpc.internal.processor;
 import org.hyperledger.besu.datatypes.Hash;
 import org.hyperledger.besu.ethereum.core.Block;
 import org.hyperledger.besu.ethereum.core.MutableWorldState;
+import org.hyperledger.besu.ethereum.core.Transaction;
 import org.hyperledger.besu.ethereum.debug.TraceFrame;
 import org.hyperledger.besu.ethereum.processing.TransactionProcessingResult;
 import org.hyperledger.besu.ethereum.vm.CachingBlockHashLookup;
 import org.hyperledger.besu.ethereum.vm.DebugOperationTracer;
 import org.hyperledger.besu.evm.worldstate.WorldUpdater;
 
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 /** Used to produce debug traces of blocks */
 public class BlockTracer {
@@ -41,18 +48,86 @@ public class BlockTracer {
       final Tracer.TraceableState mutableWorldState,
       final Hash blockHash,
       final DebugOperationTracer tracer) {
-    return blockReplay.block(blockHash, prepareReplayAction(mutableWorldState, tracer));
+    return blockReplay.block(blockHash, prepareReplayAction(mutableWorldState, tracer, __ -> {}));
   }
 
   public Optional<BlockTrace> trace(
       final Tracer.TraceableState mutableWorldState,
       final Block block,
       final DebugOperationTracer tracer) {
-    return blockReplay.block(block, prepareReplayAction(mutableWorldState, tracer));
+    return blockReplay.block(block, prepareReplayAction(mutableWorldState, tracer, __ -> {}));
+  }
+
+  /**
+   * Traces a block, passing the trace of each transaction to a consumer as soon as the transaction
+   * is executed. When the tracer streams its frames, the frames not yet streamed are flushed before
+   * the trace is passed, so the traces only hold the frames the tracer kept.
+   *
+   * @param mutableWorldState the world state before the block
+   * @param block the block to trace
+   * @param tracer the tracer of the transactions
+   * @param traceConsumer the consumer of the trace of each transaction
+   * @return the trace of the block
+   */
+  public Optional<BlockTrace> trace(
+      final Tracer.TraceableState mutableWorldState,
+      final Block block,
+      final DebugOperationTracer tracer,
+      final Consumer<TransactionTrace> traceConsumer) {
+    return blockReplay.block(block, prepareReplayAction(mutableWorldState, tracer, traceConsumer));
+  }
+
+  /**
+   * Traces a block with its transactions traced concurrently on an executor, each one from its own
+   * copy of the state before it, passing the traces to a consumer in the order of the block. At
+   * most {@code maxPendingTraces} transactions are traced ahead of the consumer, the traces not
+   * being kept once passed and the copies of the state being reused once their transaction is
+   * traced. The transactions are traced one after the other when the world state cannot be copied.
+   *
+   * @param mutableWorldState the world state before the block
+   * @param block the block to trace
+   * @param tracerSupplier the supplier of the tracer of each transaction
+   * @param executor the executor tracing the transactions
+   * @param maxPendingTraces the maximum number of transactions traced ahead of the consumer
+   * @param traceConsumer the consumer of the trace of each transaction
+   */
+  public void traceInParallel(
+      final Tracer.TraceableState mutableWorldState,
+      final Block block,
+      final Supplier<DebugOperationTracer> tracerSupplier,
+      final Executor executor,
+      final int maxPendingTraces,
+      final Consumer<TransactionTrace> traceConsumer) {
+    blockReplay.performActionWithBlock(
+        block,
+        (body, header, blockchain, transactionProcessor, protocolSpec) -> {
+          final Optional<ParallelTransactionTracer> maybeParallelTracer =
+              ParallelTransactionTracer.create(
+                  mutableWorldState, header, blockchain, protocolSpec, executor);
+          if (maybeParallelTracer.isEmpty()) {
+            trace(mutableWorldState, block, tracerSupplier.get(), traceConsumer);
+            return Optional.empty();
+          }
+          try (final ParallelTransactionTracer parallelTracer = maybeParallelTracer.get()) {
+            final Deque<CompletableFuture<TransactionTrace>> pendingTraces = new ArrayDeque<>();
+            for (final Transaction transaction : body.getTransactions()) {
+              if (pendingTraces.size() >= maxPendingTraces) {
+                traceConsumer.accept(pendingTraces.removeFirst().join());
+              }
+              pendingTraces.addLast(parallelTracer.trace(transaction, tracerSupplier.get()));
+            }
+            while (!pendingTraces.isEmpty()) {
+              traceConsumer.accept(pendingTraces.removeFirst().join());
+            }
+          }
+          return Optional.empty();
+        });
   }
 
   private BlockReplay.TransactionAction<TransactionTrace> prepareReplayAction(
-      final MutableWorldState mutableWorldState, final DebugOperationTracer tracer) {
+      final MutableWorldState mutableWorldState,
+      final DebugOperationTracer tracer,
+      final Consumer<TransactionTrace> traceConsumer) {
     return (transaction, header, blockchain, transactionProcessor, blobGasPrice) -> {
       // if we have no prior updater, it must be the first TX, so use the block's initial state
       if (chainedUpdater == null) {
@@ -72,9 +147,13 @@ public class BlockTracer {
               new CachingBlockHashLookup(header, blockchain),
               false,
               blobGasPrice);
+      tracer.flushTraceFrames();
       final List<TraceFrame> traceFrames = tracer.copyTraceFrames();
       tracer.reset();
-      return new TransactionTrace(transaction, result, traceFrames);
+      final TransactionTrace transactionTrace =
+          new TransactionTrace(transaction, result, traceFrames);
+      traceConsumer.accept(transactionTrace);
+      return transactionTrace;
     };
   }
 }
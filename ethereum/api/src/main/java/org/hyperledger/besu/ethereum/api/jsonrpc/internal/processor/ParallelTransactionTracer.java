@@ -0,0 +1,278 @@
+/*
+ * Copyright contributors to Hyperledger Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.api.jsonrpc.internal.processor;
+
+import org.hyperledger.besu.datatypes.Address;
+import org.hyperledger.besu.datatypes.StorageSlotKey;
+import org.hyperledger.besu.datatypes.Wei;
+import org.hyperledger.besu.ethereum.chain.Blockchain;
+import org.hyperledger.besu.ethereum.core.BlockHeader;
+import org.hyperledger.besu.ethereum.core.Transaction;
+import org.hyperledger.besu.ethereum.debug.TraceFrame;
+import org.hyperledger.besu.ethereum.mainnet.MainnetTransactionProcessor;
+import org.hyperledger.besu.ethereum.mainnet.ProtocolSpec;
+import org.hyperledger.besu.ethereum.processing.TransactionProcessingResult;
+import org.hyperledger.besu.ethereum.trie.diffbased.bonsai.cache.NoopBonsaiCachedMerkleTrieLoader;
+import org.hyperledger.besu.ethereum.trie.diffbased.bonsai.worldview.BonsaiWorldState;
+import org.hyperledger.besu.ethereum.trie.diffbased.common.worldview.accumulator.DiffBasedWorldStateUpdateAccumulator;
+import org.hyperledger.besu.ethereum.vm.CachingBlockHashLookup;
+import org.hyperledger.besu.ethereum.vm.DebugOperationTracer;
+import org.hyperledger.besu.evm.account.Account;
+import org.hyperledger.besu.evm.tracing.OperationTracer;
+import org.hyperledger.besu.evm.worldstate.UpdateTrackingAccount;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+
+/**
+ * Traces the transactions of a block concurrently, each one from its own copy of the state left by
+ * the previous ones.
+ *
+ * <p>The transactions are replayed in the order of the block without tracing, each one being then
+ * traced on the executor from a copy of the state left by the replay of the previous ones. The
+ * copies are Bonsai world states sharing the storage of the state before the block, so tracing in
+ * parallel is only possible from a Bonsai world state. A copy is reused once its transaction is
+ * traced, by importing only the accounts and slots changed by the transactions replayed since, so
+ * there are only as many copies as transactions traced at once, and the replay of a transaction
+ * costs the changes it made to each copy rather than the whole changes of the block.
+ */
+@SuppressWarnings({"unchecked", "rawtypes"})
+public class ParallelTransactionTracer implements AutoCloseable {
+
+  private final BonsaiWorldState worldState;
+  private final BonsaiWorldState replayWorldState;
+  private final BlockHeader header;
+  private final Blockchain blockchain;
+  private final MainnetTransactionProcessor transactionProcessor;
+  private final Wei blobGasPrice;
+  private final Executor executor;
+  private final List<TransactionWorldState> transactionWorldStates = new ArrayList<>();
+  private final Queue<TransactionWorldState> idleTransactionWorldStates =
+      new ConcurrentLinkedQueue<>();
+  private final Set<CompletableFuture<?>> pendingTraces = ConcurrentHashMap.newKeySet();
+
+  private ParallelTransactionTracer(
+      final BonsaiWorldState worldState,
+      final BlockHeader header,
+      final Blockchain blockchain,
+      final MainnetTransactionProcessor transactionProcessor,
+      final Wei blobGasPrice,
+      final Executor executor) {
+    this.worldState = worldState;
+    this.replayWorldState = copyOf(worldState);
+    this.header = header;
+    this.blockchain = blockchain;
+    this.transactionProcessor = transactionProcessor;
+    this.blobGasPrice = blobGasPrice;
+    this.executor = executor;
+  }
+
+  /**
+   * Creates a tracer of the transactions of a block.
+   *
+   * @param mutableWorldState the state before the block, which is not modified
+   * @param header the header of the block
+   * @param blockchain the blockchain
+   * @param protocolSpec the protocol spec of the block
+   * @param executor the executor tracing the transactions
+   * @return the tracer, or empty if the state is not a Bonsai world state
+   */
+  public static Optional<ParallelTransactionTracer> create(
+      final Tracer.TraceableState mutableWorldState,
+      final BlockHeader header,
+      final Blockchain blockchain,
+      final ProtocolSpec protocolSpec,
+      final Executor executor) {
+    if (!(mutableWorldState.getWorldState() instanceof BonsaiWorldState bonsaiWorldState)) {
+      return Optional.empty();
+    }
+    return Optional.of(
+        new ParallelTransactionTracer(
+            bonsaiWorldState,
+            header,
+            blockchain,
+            protocolSpec.getTransactionProcessor(),
+            BlockReplay.blobGasPrice(protocolSpec, blockchain, header),
+            executor));
+  }
+
+  /**
+   * Starts tracing the next transaction of the block. The transactions must be passed in the
+   * order of the block, each one being replayed before this method returns.
+   *
+   * <p>The copy of the state the transaction is traced from is reused once traced, so the world
+   * updaters of the trace frames must not be read from the returned trace, which is enough for
+   * struct logs and flat traces. See {@link #trace(Transaction, DebugOperationTracer, Function)}.
+   *
+   * @param transaction the transaction
+   * @param tracer the tracer of the transaction, used by a single transaction
+   * @return the trace of the transaction, once traced
+   */
+  public CompletableFuture<TransactionTrace> trace(
+      final Transaction transaction, final DebugOperationTracer tracer) {
+    return trace(transaction, tracer, Function.identity());
+  }
+
+  /**
+   * Starts tracing the next transaction of the block, processing its trace on the executor before
+   * the copy of the state it is traced from is reused, so that the processing can read the state
+   * through the world updaters of the trace frames, as state diffs do. The transactions must be
+   * passed in the order of the block, each one being replayed before this method returns.
+   *
+   * @param transaction the transaction
+   * @param tracer the tracer of the transaction, used by a single transaction
+   * @param traceProcessor the processing of the trace of the transaction
+   * @param <T> the type of the processed trace
+   * @return the processed trace of the transaction, once traced
+   */
+  public <T> CompletableFuture<T> trace(
+      final Transaction transaction,
+      final DebugOperationTracer tracer,
+      final Function<TransactionTrace, T> traceProcessor) {
+    final TransactionWorldState transactionWorldState = nextTransactionWorldState();
+
+    final DiffBasedWorldStateUpdateAccumulator replayUpdater = replayWorldState.getAccumulator();
+    transactionProcessor.processTransaction(
+        replayUpdater,
+        header,
+        transaction,
+        header.getCoinbase(),
+        OperationTracer.NO_TRACING,
+        new CachingBlockHashLookup(header, blockchain),
+        false,
+        blobGasPrice);
+    transactionWorldStates.forEach(
+        transactionWorldState -> transactionWorldState.recordChanges(replayUpdater));
+    replayUpdater.commit();
+
+    final CompletableFuture<T> trace =
+        CompletableFuture.supplyAsync(
+            () -> {
+              try {
+                final TransactionProcessingResult result =
+                    transactionProcessor.processTransaction(
+                        transactionWorldState.worldState.updater().updater(),
+                        header,
+                        transaction,
+                        header.getCoinbase(),
+                        tracer,
+                        new CachingBlockHashLookup(header, blockchain),
+                        false,
+                        blobGasPrice);
+                tracer.flushTraceFrames();
+                final List<TraceFrame> traceFrames = tracer.copyTraceFrames();
+                tracer.reset();
+                return traceProcessor.apply(new TransactionTrace(transaction, result, traceFrames));
+              } finally {
+                // the accounts tracked by the copy would hide the changes imported in it
+                transactionWorldState.worldState.getAccumulator().revert();
+                idleTransactionWorldStates.add(transactionWorldState);
+              }
+            },
+            executor);
+    pendingTraces.add(trace);
+    trace.whenComplete((__, error) -> pendingTraces.remove(trace));
+    return trace;
+  }
+
+  /** Closes the copies of the state, once the transactions are traced. */
+  @Override
+  public void close() {
+    CompletableFuture.allOf(pendingTraces.toArray(CompletableFuture[]::new))
+        .handle((__, error) -> null)
+        .join();
+    transactionWorldStates.forEach(
+        transactionWorldState -> transactionWorldState.worldState.close());
+    replayWorldState.close();
+  }
+
+  /** Returns an idle copy of the state left by the replay, or a new one if they are all in use. */
+  private TransactionWorldState nextTransactionWorldState() {
+    final TransactionWorldState idle = idleTransactionWorldStates.poll();
+    if (idle != null) {
+      idle.importChanges(replayWorldState.getAccumulator());
+      return idle;
+    }
+    final TransactionWorldState transactionWorldState =
+        new TransactionWorldState(copyOf(replayWorldState));
+    transactionWorldStates.add(transactionWorldState);
+    return transactionWorldState;
+  }
+
+  /** Copies the state before the block, with the changes accumulated on top of it. */
+  private BonsaiWorldState copyOf(final BonsaiWorldState source) {
+    final BonsaiWorldState copy =
+        new BonsaiWorldState(worldState, new NoopBonsaiCachedMerkleTrieLoader());
+    copy.freeze();
+    ((DiffBasedWorldStateUpdateAccumulator) copy.getAccumulator())
+        .importStateChangesFromSource(source.getAccumulator());
+    return copy;
+  }
+
+  /**
+   * A copy of the state the transactions are traced from, with the accounts and slots changed by
+   * the replay since it was last brought up to date. The changes are only accessed by the thread
+   * replaying the transactions.
+   */
+  private static class TransactionWorldState {
+    private final BonsaiWorldState worldState;
+    private final Map<Address, Set<StorageSlotKey>> changedSlots = new HashMap<>();
+    private final Set<Address> clearedAccounts = new HashSet<>();
+
+    private TransactionWorldState(final BonsaiWorldState worldState) {
+      this.worldState = worldState;
+    }
+
+    /** Records the changes of a replayed transaction, before they are committed. */
+    private void recordChanges(final DiffBasedWorldStateUpdateAccumulator replayUpdater) {
+      for (final Account account :
+          (Iterable<? extends Account>) replayUpdater.getTouchedAccounts()) {
+        final UpdateTrackingAccount<?> trackedAccount = (UpdateTrackingAccount<?>) account;
+        final Set<StorageSlotKey> slots =
+            changedSlots.computeIfAbsent(trackedAccount.getAddress(), __ -> new HashSet<>());
+        trackedAccount.getUpdatedStorage().keySet().stream()
+            .map(StorageSlotKey::new)
+            .forEach(slots::add);
+        if (trackedAccount.getStorageWasCleared()) {
+          clearedAccounts.add(trackedAccount.getAddress());
+        }
+      }
+      for (final Address address :
+          (Iterable<Address>) replayUpdater.getDeletedAccountAddresses()) {
+        changedSlots.computeIfAbsent(address, __ -> new HashSet<>());
+        clearedAccounts.add(address);
+      }
+    }
+
+    /** Imports the recorded changes from the state left by the replay. */
+    private void importChanges(final DiffBasedWorldStateUpdateAccumulator replayAccumulator) {
+      ((DiffBasedWorldStateUpdateAccumulator) worldState.getAccumulator())
+          .importStateChangesFromSource(replayAccumulator, changedSlots, clearedAccounts);
+      changedSlots.clear();
+      clearedAccounts.clear();
+    }
+  }
+}
@@ -62,6 +62,10 @@ public class Tracer {
       this.mutableWorldState = mutableWorldState;
     }
 
+    MutableWorldState getWorldState() {
+      return mutableWorldState;
+    }
+
     @Override
     public void persist(final BlockHeader blockHeader) {
       mutableWorldState.persist(blockHeader);
@@ -86,6 +86,35 @@ public class TransactionTracer {
         });
   }
 
+  /**
+   * Traces a transaction with a tracer which builds its own result, like the native tracers.
+   *
+   * @param mutableWorldState the state of the parent block
+   * @param blockHash the hash of the block of the transaction
+   * @param transactionHash the hash of the transaction
+   * @param tracer the tracer
+   * @return the result of the transaction, or empty if the block or the transaction is not found
+   */
+  public Optional<TransactionProcessingResult> traceTransactionWithTracer(
+      final Tracer.TraceableState mutableWorldState,
+      final Hash blockHash,
+      final Hash transactionHash,
+      final OperationTracer tracer) {
+    return blockReplay.beforeTransactionInBlock(
+        mutableWorldState,
+        blockHash,
+        transactionHash,
+        (transaction, header, blockchain, transactionProcessor, blobGasPrice) ->
+            processTransaction(
+                header,
+                blockchain,
+                mutableWorldState.updater(),
+                transaction,
+                transactionProcessor,
+                tracer,
+                blobGasPrice));
+  }
+
   public List<String> traceTransactionToFile(
       final MutableWorldState mutableWorldState,
       final Hash blockHash,
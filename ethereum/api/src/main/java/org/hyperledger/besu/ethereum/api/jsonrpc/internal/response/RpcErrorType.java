@@ -199,6 +199,8 @@ public enum RpcErrorType implements RpcMethodError {
 
   // Worldstate errors
   WORLD_STATE_UNAVAILABLE(-32000, "World state unavailable"),
+  CHECKPOINT_BACKUP_UNSUPPORTED(-32000, "Checkpoint backups are not supported by the storage"),
+  STORAGE_STATS_NOT_ENABLED(-32000, "Storage stats are not enabled"),
 
   // Debug failures
   BLOCK_NOT_FOUND(-32000, "Block not found"),
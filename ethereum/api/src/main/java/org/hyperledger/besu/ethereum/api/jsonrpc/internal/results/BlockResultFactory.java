@@ -24,8 +24,8 @@ import org.hyperledger.besu.ethereum.api.jsonrpc.internal.results.EngineGetPaylo
 import org.hyperledger.besu.ethereum.api.query.BlockWithMetadata;
 import org.hyperledger.besu.ethereum.api.query.TransactionWithMetadata;
 import org.hyperledger.besu.ethereum.core.Block;
-import org.hyperledger.besu.ethereum.core.BlockBody;
 import org.hyperledger.besu.ethereum.core.BlockHeader;
+import org.hyperledger.besu.ethereum.core.LazyBlockBody;
 import org.hyperledger.besu.ethereum.core.encoding.EncodingContext;
 import org.hyperledger.besu.ethereum.core.encoding.TransactionEncoder;
 
@@ -125,7 +125,7 @@ public class BlockResultFactory {
   }
 
   public EngineGetPayloadBodiesResultV1 payloadBodiesCompleteV1(
-      final List<Optional<BlockBody>> blockBodies) {
+      final List<Optional<LazyBlockBody>> blockBodies) {
     final List<PayloadBody> payloadBodies =
         blockBodies.stream()
             .map(maybeBody -> maybeBody.map(PayloadBody::new).orElse(null))
@@ -47,7 +47,7 @@ public class DebugTraceTransactionResult {
     return traces.stream().map(DebugTraceTransactionResult::new).collect(Collectors.toList());
   }
 
-  private static StructLog createStructLog(final TraceFrame frame) {
+  static StructLog createStructLog(final TraceFrame frame) {
     return frame
         .getExceptionalHaltReason()
         .map(__ -> (StructLog) new StructLogWithError(frame))
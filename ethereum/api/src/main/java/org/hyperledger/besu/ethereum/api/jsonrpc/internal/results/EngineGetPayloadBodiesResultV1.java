@@ -15,13 +15,12 @@
 package org.hyperledger.besu.ethereum.api.jsonrpc.internal.results;
 
 import org.hyperledger.besu.ethereum.api.jsonrpc.internal.parameters.WithdrawalParameter;
-import org.hyperledger.besu.ethereum.core.BlockBody;
-import org.hyperledger.besu.ethereum.core.encoding.EncodingContext;
-import org.hyperledger.besu.ethereum.core.encoding.TransactionEncoder;
+import org.hyperledger.besu.ethereum.core.LazyBlockBody;
 
 import java.util.Collections;
 import java.util.List;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import com.fasterxml.jackson.annotation.JsonGetter;
 import com.fasterxml.jackson.annotation.JsonPropertyOrder;
@@ -50,12 +49,11 @@ public class EngineGetPayloadBodiesResultV1 {
     private final List<String> transactions;
     private final List<WithdrawalParameter> withdrawals;
 
-    public PayloadBody(final BlockBody blockBody) {
+    public PayloadBody(final LazyBlockBody blockBody) {
+      // opaque transactions are sliced from the stored body, no decoding nor re-encoding needed
       this.transactions =
-          blockBody.getTransactions().stream()
-              .map(
-                  transaction ->
-                      TransactionEncoder.encodeOpaqueBytes(transaction, EncodingContext.BLOCK_BODY))
+          IntStream.range(0, blockBody.getTransactionCount())
+              .mapToObj(blockBody::getOpaqueTransaction)
               .map(Bytes::toHexString)
               .collect(Collectors.toList());
       this.withdrawals =
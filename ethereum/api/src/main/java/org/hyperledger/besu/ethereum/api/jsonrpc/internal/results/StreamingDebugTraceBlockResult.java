@@ -0,0 +1,186 @@
+/*
+ * Copyright contributors to Hyperledger Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.api.jsonrpc.internal.results;
+
+import org.hyperledger.besu.ethereum.api.jsonrpc.internal.processor.BlockTracer;
+import org.hyperledger.besu.ethereum.api.jsonrpc.internal.processor.Tracer;
+import org.hyperledger.besu.ethereum.api.jsonrpc.internal.processor.TransactionTrace;
+import org.hyperledger.besu.ethereum.api.query.BlockchainQueries;
+import org.hyperledger.besu.ethereum.core.Block;
+import org.hyperledger.besu.ethereum.debug.TraceFrame;
+import org.hyperledger.besu.ethereum.debug.TraceOptions;
+import org.hyperledger.besu.ethereum.vm.DebugOperationTracer;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Supplier;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.type.WritableTypeId;
+import com.fasterxml.jackson.databind.JsonSerializable;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+
+/**
+ * The struct logs of the transactions of a block, traced while the result is serialized so that
+ * each struct log is written as soon as its operation is executed, instead of the trace frames of
+ * the whole block being kept until the response is written.
+ *
+ * <p>The results of the transactions have the fields of {@link DebugTraceTransactionResult}, with
+ * the struct logs written first since the other fields are only known once the transaction is
+ * executed. The result is null when the world state before the block is not available.
+ *
+ * <p>When the transactions of a block are traced concurrently, each transaction keeps its frames
+ * until its struct logs are written, a few transactions being traced ahead of the response.
+ */
+public class StreamingDebugTraceBlockResult implements JsonSerializable {
+
+  private final BlockchainQueries blockchainQueries;
+  private final Supplier<BlockTracer> blockTracerSupplier;
+  private final Block block;
+  private final TraceOptions traceOptions;
+
+  public StreamingDebugTraceBlockResult(
+      final BlockchainQueries blockchainQueries,
+      final Supplier<BlockTracer> blockTracerSupplier,
+      final Block block,
+      final TraceOptions traceOptions) {
+    this.blockchainQueries = blockchainQueries;
+    this.blockTracerSupplier = blockTracerSupplier;
+    this.block = block;
+    this.traceOptions = traceOptions;
+  }
+
+  @Override
+  public void serialize(final JsonGenerator gen, final SerializerProvider serializers)
+      throws IOException {
+    final TransactionResultWriter writer = new TransactionResultWriter(gen, serializers);
+    final Optional<ExecutorService> blockTracingExecutor =
+        blockchainQueries.getBlockTracingExecutor();
+    try {
+      final Optional<Boolean> traced =
+          Tracer.processTracing(
+              blockchainQueries,
+              Optional.of(block.getHeader()),
+              mutableWorldState -> {
+                writer.writeStartArray();
+                if (blockTracingExecutor.isPresent()) {
+                  blockTracerSupplier
+                      .get()
+                      .traceInParallel(
+                          mutableWorldState,
+                          block,
+                          () -> new DebugOperationTracer(traceOptions, true),
+                          blockTracingExecutor.get(),
+                          2 * blockchainQueries.getBlockTracingThreads(),
+                          writer::writeEndOfTransaction);
+                } else {
+                  blockTracerSupplier
+                      .get()
+                      .trace(
+                          mutableWorldState,
+                          block,
+                          new DebugOperationTracer(traceOptions, true, writer::writeStructLog),
+                          writer::writeEndOfTransaction);
+                }
+                writer.writeEndArray();
+                return Optional.of(true);
+              });
+      if (traced.isEmpty()) {
+        gen.writeNull();
+      }
+    } catch (final UncheckedIOException e) {
+      throw e.getCause();
+    }
+  }
+
+  @Override
+  public void serializeWithType(
+      final JsonGenerator gen, final SerializerProvider serializers, final TypeSerializer typeSer)
+      throws IOException {
+    final WritableTypeId typeId =
+        typeSer.writeTypePrefix(gen, typeSer.typeId(this, gen.currentToken()));
+    serialize(gen, serializers);
+    typeSer.writeTypeSuffix(gen, typeId);
+  }
+
+  /** Writes the result of each transaction as its struct logs and its outcome are passed. */
+  private static class TransactionResultWriter {
+    private final JsonGenerator gen;
+    private final SerializerProvider serializers;
+    private boolean transactionStarted;
+
+    TransactionResultWriter(final JsonGenerator gen, final SerializerProvider serializers) {
+      this.gen = gen;
+      this.serializers = serializers;
+    }
+
+    void writeStartArray() {
+      write(gen::writeStartArray);
+    }
+
+    void writeEndArray() {
+      write(gen::writeEndArray);
+    }
+
+    void writeStructLog(final TraceFrame traceFrame) {
+      write(
+          () -> {
+            startTransaction();
+            serializers.defaultSerializeValue(
+                DebugTraceTransactionResult.createStructLog(traceFrame), gen);
+          });
+    }
+
+    void writeEndOfTransaction(final TransactionTrace transactionTrace) {
+      // the frames the tracer kept instead of streaming them
+      transactionTrace.getTraceFrames().forEach(this::writeStructLog);
+      write(
+          () -> {
+            startTransaction();
+            gen.writeEndArray();
+            gen.writeNumberField("gas", transactionTrace.getGas());
+            gen.writeBooleanField("failed", !transactionTrace.getResult().isSuccessful());
+            gen.writeStringField(
+                "returnValue", transactionTrace.getResult().getOutput().toUnprefixedHexString());
+            gen.writeEndObject();
+            transactionStarted = false;
+          });
+    }
+
+    private void startTransaction() throws IOException {
+      if (!transactionStarted) {
+        gen.writeStartObject();
+        gen.writeArrayFieldStart("structLogs");
+        transactionStarted = true;
+      }
+    }
+
+    private void write(final Write write) {
+      try {
+        write.run();
+      } catch (final IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+  }
+
+  @FunctionalInterface
+  private interface Write {
+    void run() throws IOException;
+  }
+}
@@ -0,0 +1,162 @@
+/*
+ * Copyright contributors to Hyperledger Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.api.jsonrpc.internal.results.tracing.call;
+
+import org.hyperledger.besu.datatypes.Address;
+import org.hyperledger.besu.datatypes.Transaction;
+import org.hyperledger.besu.datatypes.Wei;
+import org.hyperledger.besu.ethereum.api.jsonrpc.internal.response.JsonRpcErrorResponse;
+import org.hyperledger.besu.ethereum.api.jsonrpc.internal.results.Quantity;
+import org.hyperledger.besu.evm.account.Account;
+import org.hyperledger.besu.evm.frame.MessageFrame;
+import org.hyperledger.besu.evm.internal.Words;
+import org.hyperledger.besu.evm.log.Log;
+import org.hyperledger.besu.evm.operation.Operation.OperationResult;
+import org.hyperledger.besu.evm.tracing.OperationTracer;
+import org.hyperledger.besu.evm.worldstate.WorldView;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import org.apache.tuweni.bytes.Bytes;
+
+/**
+ * Traces the tree of the calls made by a transaction, in the format of the callTracer of the
+ * debug_trace* methods.
+ *
+ * <p>Unlike the {@link org.hyperledger.besu.ethereum.vm.DebugOperationTracer}, nothing is recorded
+ * for the operations besides the calls, the contract creations and the self destructs.
+ */
+public class CallTracer implements OperationTracer {
+  private static final int SELFDESTRUCT_OPCODE = 0xFF;
+  private static final String ZERO_GAS = Quantity.create(0L);
+
+  private final Deque<Call> calls = new ArrayDeque<>();
+  private CallTracerResult rootCall;
+  private CallTracerResult pendingSelfDestruct;
+
+  private record Call(MessageFrame frame, CallTracerResult result, long gas) {}
+
+  /**
+   * Gets the call of the transaction.
+   *
+   * @return the call made by the transaction, with its nested calls, or empty if the transaction
+   *     was not executed
+   */
+  public Optional<CallTracerResult> getResult() {
+    return Optional.ofNullable(rootCall);
+  }
+
+  @Override
+  public void traceContextEnter(final MessageFrame frame) {
+    final Call parent = calls.peek();
+    final String type;
+    final String from;
+    if (parent == null) {
+      type = frame.getType() == MessageFrame.Type.CONTRACT_CREATION ? "CREATE" : "CALL";
+      from = frame.getSenderAddress().toHexString();
+    } else {
+      type = parent.frame().getCurrentOperation().getName();
+      from = parent.frame().getRecipientAddress().toHexString();
+    }
+    final boolean transfersValue = !type.equals("DELEGATECALL") && !type.equals("STATICCALL");
+    final CallTracerResult call =
+        new CallTracerResult(
+            type,
+            from,
+            frame.getContractAddress().toHexString(),
+            transfersValue ? frame.getValue().toShortHexString() : null,
+            Quantity.create(frame.getRemainingGas()),
+            frame.getType() == MessageFrame.Type.CONTRACT_CREATION
+                ? frame.getCode().getBytes().toHexString()
+                : frame.getInputData().toHexString());
+    if (parent == null) {
+      rootCall = call;
+    } else {
+      parent.result().addCall(call);
+    }
+    calls.push(new Call(frame, call, frame.getRemainingGas()));
+  }
+
+  @Override
+  public void traceContextExit(final MessageFrame frame) {
+    final Call call = calls.pop();
+    final CallTracerResult result = call.result();
+    result.setGasUsed(Quantity.create(call.gas() - frame.getRemainingGas()));
+    if (frame.getState() == MessageFrame.State.COMPLETED_SUCCESS) {
+      result.setOutput(frame.getOutputData().toHexString());
+    } else if (frame.getExceptionalHaltReason().isPresent()) {
+      result.setError(frame.getExceptionalHaltReason().get().getDescription());
+    } else {
+      result.setError("execution reverted");
+      frame
+          .getRevertReason()
+          .ifPresent(
+              revertReason -> {
+                result.setOutput(revertReason.toHexString());
+                JsonRpcErrorResponse.decodeRevertReason(revertReason)
+                    .ifPresent(result::setRevertReason);
+              });
+    }
+  }
+
+  @Override
+  public void tracePreExecution(final MessageFrame frame) {
+    if (frame.getCurrentOperation().getOpcode() == SELFDESTRUCT_OPCODE && frame.stackSize() > 0) {
+      final Address address = frame.getRecipientAddress();
+      final Account account = frame.getWorldUpdater().get(address);
+      pendingSelfDestruct =
+          new CallTracerResult(
+              "SELFDESTRUCT",
+              address.toHexString(),
+              Words.toAddress(frame.getStackItem(0)).toHexString(),
+              (account == null ? Wei.ZERO : account.getBalance()).toShortHexString(),
+              ZERO_GAS,
+              Bytes.EMPTY.toHexString());
+    }
+  }
+
+  @Override
+  public void tracePostExecution(final MessageFrame frame, final OperationResult operationResult) {
+    if (pendingSelfDestruct != null) {
+      // the self destruct only happened if the operation did not halt
+      if (operationResult.getHaltReason() == null) {
+        pendingSelfDestruct.setGasUsed(ZERO_GAS);
+        calls.element().result().addCall(pendingSelfDestruct);
+      }
+      pendingSelfDestruct = null;
+    }
+  }
+
+  @Override
+  public void traceEndTransaction(
+      final WorldView worldView,
+      final Transaction tx,
+      final boolean status,
+      final Bytes output,
+      final List<Log> logs,
+      final long gasUsed,
+      final Set<Address> selfDestructs,
+      final long timeNs) {
+    if (rootCall != null) {
+      // the gas of the transaction, including the intrinsic gas and the refunds
+      rootCall.setGas(Quantity.create(tx.getGasLimit()));
+      rootCall.setGasUsed(Quantity.create(gasUsed));
+    }
+  }
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright contributors to Hyperledger Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.api.jsonrpc.internal.results.tracing.call;
+
+import static com.fasterxml.jackson.annotation.JsonInclude.Include.NON_EMPTY;
+import static com.fasterxml.jackson.annotation.JsonInclude.Include.NON_NULL;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+/** A call of the tree produced by the {@link CallTracer}, with the calls it made. */
+@JsonPropertyOrder({
+  "type",
+  "from",
+  "to",
+  "value",
+  "gas",
+  "gasUsed",
+  "input",
+  "output",
+  "error",
+  "revertReason",
+  "calls"
+})
+public class CallTracerResult {
+  private final String type;
+  private final String from;
+  private final String to;
+  private final String value;
+  private final String input;
+  private final List<CallTracerResult> calls = new ArrayList<>();
+  private String gas;
+  private String gasUsed;
+  private String output;
+  private String error;
+  private String revertReason;
+
+  CallTracerResult(
+      final String type,
+      final String from,
+      final String to,
+      final String value,
+      final String gas,
+      final String input) {
+    this.type = type;
+    this.from = from;
+    this.to = to;
+    this.value = value;
+    this.gas = gas;
+    this.input = input;
+  }
+
+  public String getType() {
+    return type;
+  }
+
+  public String getFrom() {
+    return from;
+  }
+
+  @JsonInclude(NON_NULL)
+  public String getTo() {
+    return to;
+  }
+
+  @JsonInclude(NON_NULL)
+  public String getValue() {
+    return value;
+  }
+
+  public String getGas() {
+    return gas;
+  }
+
+  public String getGasUsed() {
+    return gasUsed;
+  }
+
+  public String getInput() {
+    return input;
+  }
+
+  @JsonInclude(NON_NULL)
+  public String getOutput() {
+    return output;
+  }
+
+  @JsonInclude(NON_NULL)
+  public String getError() {
+    return error;
+  }
+
+  @JsonInclude(NON_NULL)
+  public String getRevertReason() {
+    return revertReason;
+  }
+
+  @JsonInclude(NON_EMPTY)
+  public List<CallTracerResult> getCalls() {
+    return calls;
+  }
+
+  void setGas(final String gas) {
+    this.gas = gas;
+  }
+
+  void setGasUsed(final String gasUsed) {
+    this.gasUsed = gasUsed;
+  }
+
+  void setOutput(final String output) {
+    this.output = output;
+  }
+
+  void setError(final String error) {
+    this.error = error;
+  }
+
+  void setRevertReason(final String revertReason) {
+    this.revertReason = revertReason;
+  }
+
+  void addCall(final CallTracerResult call) {
+    calls.add(call);
+  }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright contributors to Hyperledger Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.api.jsonrpc.internal.results.tracing.prestate;
+
+import static com.fasterxml.jackson.annotation.JsonInclude.Include.NON_EMPTY;
+import static com.fasterxml.jackson.annotation.JsonInclude.Include.NON_NULL;
+
+import org.hyperledger.besu.datatypes.Wei;
+import org.hyperledger.besu.evm.account.Account;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import org.apache.tuweni.units.bigints.UInt256;
+
+/** The state of an account before a transaction, as produced by the {@link PrestateTracer}. */
+@JsonPropertyOrder({"balance", "nonce", "code", "storage"})
+public class PrestateAccount {
+  private final String balance;
+  private final Long nonce;
+  private final String code;
+  private final Map<String, String> storage = new TreeMap<>();
+
+  private PrestateAccount(final String balance, final Long nonce, final String code) {
+    this.balance = balance;
+    this.nonce = nonce;
+    this.code = code;
+  }
+
+  static PrestateAccount of(final Account account) {
+    if (account == null) {
+      return new PrestateAccount(Wei.ZERO.toShortHexString(), null, null);
+    }
+    return new PrestateAccount(
+        account.getBalance().toShortHexString(),
+        account.getNonce() == 0 ? null : account.getNonce(),
+        account.getCode().isEmpty() ? null : account.getCode().toHexString());
+  }
+
+  public String getBalance() {
+    return balance;
+  }
+
+  @JsonInclude(NON_NULL)
+  public Long getNonce() {
+    return nonce;
+  }
+
+  @JsonInclude(NON_NULL)
+  public String getCode() {
+    return code;
+  }
+
+  @JsonInclude(NON_EMPTY)
+  public Map<String, String> getStorage() {
+    return storage;
+  }
+
+  boolean hasStorage(final UInt256 slot) {
+    return storage.containsKey(slot.toHexString());
+  }
+
+  void addStorage(final UInt256 slot, final UInt256 value) {
+    storage.put(slot.toHexString(), value.toHexString());
+  }
+}
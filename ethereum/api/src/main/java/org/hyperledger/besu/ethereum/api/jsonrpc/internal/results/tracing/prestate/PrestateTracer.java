@@ -0,0 +1,112 @@
+/*
+ * Copyright contributors to Hyperledger Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.api.jsonrpc.internal.results.tracing.prestate;
+
+import org.hyperledger.besu.datatypes.Address;
+import org.hyperledger.besu.datatypes.Transaction;
+import org.hyperledger.besu.evm.account.Account;
+import org.hyperledger.besu.evm.frame.MessageFrame;
+import org.hyperledger.besu.evm.internal.Words;
+import org.hyperledger.besu.evm.tracing.OperationTracer;
+import org.hyperledger.besu.evm.worldstate.WorldView;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.apache.tuweni.units.bigints.UInt256;
+
+/**
+ * Traces the state before a transaction of the accounts and storage slots it accessed, in the
+ * format of the prestateTracer of the debug_trace* methods.
+ *
+ * <p>An account is recorded when first accessed. Its state is still the one before the transaction
+ * then, since the transaction can only modify an account after accessing it, except for the sender
+ * which is recorded before the nonce and the upfront gas cost are charged. The storage slots are
+ * recorded with their original value, which is the one before the transaction.
+ */
+public class PrestateTracer implements OperationTracer {
+  private static final int BALANCE_OPCODE = 0x31;
+  private static final int EXTCODESIZE_OPCODE = 0x3B;
+  private static final int EXTCODECOPY_OPCODE = 0x3C;
+  private static final int EXTCODEHASH_OPCODE = 0x3F;
+  private static final int SLOAD_OPCODE = 0x54;
+  private static final int SSTORE_OPCODE = 0x55;
+  private static final int SELFDESTRUCT_OPCODE = 0xFF;
+
+  private final Map<Address, PrestateAccount> accounts = new HashMap<>();
+
+  /**
+   * Gets the state of the accounts accessed by the transaction.
+   *
+   * @return the state before the transaction of the accounts, by address
+   */
+  public Map<String, PrestateAccount> getResult() {
+    final Map<String, PrestateAccount> result = new TreeMap<>();
+    accounts.forEach((address, account) -> result.put(address.toHexString(), account));
+    return result;
+  }
+
+  @Override
+  public void tracePrepareTransaction(final WorldView worldView, final Transaction transaction) {
+    recordAccount(worldView, transaction.getSender());
+    transaction.getTo().ifPresent(to -> recordAccount(worldView, to));
+  }
+
+  @Override
+  public void traceContextEnter(final MessageFrame frame) {
+    if (frame.getDepth() == 0) {
+      recordAccount(frame.getWorldUpdater(), frame.getMiningBeneficiary());
+    }
+    // recorded before the value is transferred and the created contract initialized
+    recordAccount(frame.getWorldUpdater(), frame.getRecipientAddress());
+    recordAccount(frame.getWorldUpdater(), frame.getContractAddress());
+  }
+
+  @Override
+  public void tracePreExecution(final MessageFrame frame) {
+    if (frame.stackSize() == 0) {
+      return;
+    }
+    switch (frame.getCurrentOperation().getOpcode()) {
+      case BALANCE_OPCODE,
+          EXTCODESIZE_OPCODE,
+          EXTCODECOPY_OPCODE,
+          EXTCODEHASH_OPCODE,
+          SELFDESTRUCT_OPCODE ->
+          recordAccount(frame.getWorldUpdater(), Words.toAddress(frame.getStackItem(0)));
+      case SLOAD_OPCODE, SSTORE_OPCODE ->
+          recordStorage(frame, UInt256.fromBytes(frame.getStackItem(0)));
+      default -> {}
+    }
+  }
+
+  private void recordAccount(final WorldView worldView, final Address address) {
+    if (!accounts.containsKey(address)) {
+      accounts.put(address, PrestateAccount.of(worldView.get(address)));
+    }
+  }
+
+  private void recordStorage(final MessageFrame frame, final UInt256 slot) {
+    final Address address = frame.getRecipientAddress();
+    recordAccount(frame.getWorldUpdater(), address);
+    final PrestateAccount prestateAccount = accounts.get(address);
+    if (!prestateAccount.hasStorage(slot)) {
+      final Account account = frame.getWorldUpdater().get(address);
+      prestateAccount.addStorage(
+          slot, account == null ? UInt256.ZERO : account.getOriginalStorageValue(slot));
+    }
+  }
+}
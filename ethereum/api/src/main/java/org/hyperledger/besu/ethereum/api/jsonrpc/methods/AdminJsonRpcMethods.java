@@ -17,6 +17,7 @@ package org.hyperledger.besu.ethereum.api.jsonrpc.methods;
 import org.hyperledger.besu.config.GenesisConfigOptions;
 import org.hyperledger.besu.ethereum.api.jsonrpc.RpcApis;
 import org.hyperledger.besu.ethereum.api.jsonrpc.internal.methods.AdminAddPeer;
+import org.hyperledger.besu.ethereum.api.jsonrpc.internal.methods.AdminBackupCheckpoint;
 import org.hyperledger.besu.ethereum.api.jsonrpc.internal.methods.AdminChangeLogLevel;
 import org.hyperledger.besu.ethereum.api.jsonrpc.internal.methods.AdminGenerateLogBloomCache;
 import org.hyperledger.besu.ethereum.api.jsonrpc.internal.methods.AdminLogsRemoveCache;
@@ -97,6 +98,7 @@ public class AdminJsonRpcMethods extends ApiGroupJsonRpcMethods {
         new AdminGenerateLogBloomCache(blockchainQueries),
         new AdminLogsRepairCache(blockchainQueries),
         new AdminLogsRemoveCache(blockchainQueries),
+        new AdminBackupCheckpoint(clientVersion, blockchainQueries),
         new PluginsReloadConfiguration(namedPlugins));
   }
 }
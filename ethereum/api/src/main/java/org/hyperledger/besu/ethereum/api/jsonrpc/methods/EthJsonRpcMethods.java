@@ -165,7 +165,8 @@ public class EthJsonRpcMethods extends ApiGroupJsonRpcMethods {
                 blockchainQueries.getBlockchain(),
                 blockchainQueries.getWorldStateArchive(),
                 protocolSchedule,
-                apiConfiguration.getGasCap())),
+                apiConfiguration.getGasCap()),
+            apiConfiguration.getEstimateGasTolerance()),
         new EthCreateAccessList(
             blockchainQueries,
             new TransactionSimulator(
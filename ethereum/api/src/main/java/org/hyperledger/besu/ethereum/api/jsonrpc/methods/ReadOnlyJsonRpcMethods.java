@@ -0,0 +1,81 @@
+/*
+ * Copyright contributors to Hyperledger Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.api.jsonrpc.methods;
+
+import org.hyperledger.besu.ethereum.api.jsonrpc.RpcApis;
+import org.hyperledger.besu.ethereum.api.jsonrpc.RpcMethod;
+import org.hyperledger.besu.ethereum.api.jsonrpc.internal.methods.JsonRpcMethod;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Restricts the JSON-RPC methods of a node that only reads the chain of another node, such as a
+ * node opening its database as a secondary instance, to the methods that do not change the chain,
+ * the world state or the transaction pool.
+ */
+public class ReadOnlyJsonRpcMethods {
+
+  private static final List<String> WRITE_API_PREFIXES =
+      Stream.of(RpcApis.ENGINE, RpcApis.MINER, RpcApis.PERM, RpcApis.PRIV, RpcApis.EEA)
+          .map(api -> api.name().toLowerCase(Locale.ROOT) + "_")
+          .toList();
+
+  private static final Set<String> WRITE_METHODS =
+      Stream.of(
+              RpcMethod.ADMIN_ADD_PEER,
+              RpcMethod.ADMIN_REMOVE_PEER,
+              RpcMethod.ADMIN_BACKUP_CHECKPOINT,
+              RpcMethod.CLIQUE_DISCARD,
+              RpcMethod.CLIQUE_PROPOSE,
+              RpcMethod.DEBUG_REPLAY_BLOCK,
+              RpcMethod.DEBUG_RESYNC_WORLDSTATE,
+              RpcMethod.DEBUG_SET_HEAD,
+              RpcMethod.ETH_SEND_RAW_PRIVATE_TRANSACTION,
+              RpcMethod.ETH_SEND_RAW_TRANSACTION,
+              RpcMethod.ETH_SEND_TRANSACTION,
+              RpcMethod.ETH_SUBMIT_HASHRATE,
+              RpcMethod.ETH_SUBMIT_WORK,
+              RpcMethod.IBFT_DISCARD_VALIDATOR_VOTE,
+              RpcMethod.IBFT_PROPOSE_VALIDATOR_VOTE,
+              RpcMethod.QBFT_DISCARD_VALIDATOR_VOTE,
+              RpcMethod.QBFT_PROPOSE_VALIDATOR_VOTE)
+          .map(RpcMethod::getMethodName)
+          .collect(Collectors.toUnmodifiableSet());
+
+  private ReadOnlyJsonRpcMethods() {}
+
+  /**
+   * Removes the methods that change the state of the node.
+   *
+   * @param methods the methods by name
+   * @return the read methods by name
+   */
+  public static Map<String, JsonRpcMethod> filter(final Map<String, JsonRpcMethod> methods) {
+    final Map<String, JsonRpcMethod> readMethods = new HashMap<>(methods);
+    readMethods.keySet().removeIf(ReadOnlyJsonRpcMethods::isWriteMethod);
+    return readMethods;
+  }
+
+  static boolean isWriteMethod(final String methodName) {
+    return WRITE_METHODS.contains(methodName)
+        || WRITE_API_PREFIXES.stream().anyMatch(methodName::startsWith);
+  }
+}
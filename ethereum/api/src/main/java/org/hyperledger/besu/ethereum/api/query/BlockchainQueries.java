@@ -23,12 +23,16 @@ import org.hyperledger.besu.datatypes.Hash;
 import org.hyperledger.besu.datatypes.Wei;
 import org.hyperledger.besu.ethereum.api.ApiConfiguration;
 import org.hyperledger.besu.ethereum.api.ImmutableApiConfiguration;
+import org.hyperledger.besu.ethereum.api.query.cache.BitSlicedLogBloomIndex;
 import org.hyperledger.besu.ethereum.api.query.cache.TransactionLogBloomCacher;
 import org.hyperledger.besu.ethereum.chain.Blockchain;
+import org.hyperledger.besu.ethereum.chain.LogIndex;
 import org.hyperledger.besu.ethereum.chain.TransactionLocation;
 import org.hyperledger.besu.ethereum.core.Block;
 import org.hyperledger.besu.ethereum.core.BlockBody;
 import org.hyperledger.besu.ethereum.core.BlockHeader;
+import org.hyperledger.besu.ethereum.core.LazyBlockBody;
+import org.hyperledger.besu.ethereum.core.LazyTransactionReceipts;
 import org.hyperledger.besu.ethereum.core.LogWithMetadata;
 import org.hyperledger.besu.ethereum.core.MiningParameters;
 import org.hyperledger.besu.ethereum.core.MutableWorldState;
@@ -53,6 +57,12 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
 import java.util.function.Supplier;
@@ -61,6 +71,7 @@ import java.util.stream.IntStream;
 import java.util.stream.LongStream;
 import java.util.stream.Stream;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import org.apache.tuweni.bytes.Bytes;
 import org.apache.tuweni.units.bigints.UInt256;
 import org.apache.tuweni.units.bigints.UInt256s;
@@ -69,12 +80,18 @@ import org.slf4j.LoggerFactory;
 
 public class BlockchainQueries {
   private static final Logger LOG = LoggerFactory.getLogger(BlockchainQueries.class);
+  // blocks of the range of a logs query scanned by a task of the logs scan executor
+  static final int LOGS_SCAN_CHUNK_SIZE = 256;
 
   private final ProtocolSchedule protocolSchedule;
   private final WorldStateArchive worldStateArchive;
   private final Blockchain blockchain;
   private final Optional<Path> cachePath;
   private final Optional<TransactionLogBloomCacher> transactionLogBloomCacher;
+  private final Optional<BitSlicedLogBloomIndex> bitSlicedLogBloomIndex;
+  private final Optional<LogIndex> logIndex;
+  private final Optional<ExecutorService> logsScanExecutor;
+  private final Optional<ExecutorService> blockTracingExecutor;
   private final Optional<EthScheduler> ethScheduler;
   private final ApiConfiguration apiConfig;
   private final MiningParameters miningParameters;
@@ -133,15 +150,46 @@ public class BlockchainQueries {
       final Optional<EthScheduler> scheduler,
       final ApiConfiguration apiConfig,
       final MiningParameters miningParameters) {
+    this(
+        protocolSchedule,
+        blockchain,
+        worldStateArchive,
+        cachePath,
+        scheduler,
+        apiConfig,
+        miningParameters,
+        Optional.empty());
+  }
+
+  public BlockchainQueries(
+      final ProtocolSchedule protocolSchedule,
+      final Blockchain blockchain,
+      final WorldStateArchive worldStateArchive,
+      final Optional<Path> cachePath,
+      final Optional<EthScheduler> scheduler,
+      final ApiConfiguration apiConfig,
+      final MiningParameters miningParameters,
+      final Optional<LogIndex> logIndex) {
     this.protocolSchedule = protocolSchedule;
     this.blockchain = blockchain;
     this.worldStateArchive = worldStateArchive;
     this.cachePath = cachePath;
     this.ethScheduler = scheduler;
+    this.bitSlicedLogBloomIndex = cachePath.map(BitSlicedLogBloomIndex::new);
     this.transactionLogBloomCacher =
         (cachePath.isPresent() && scheduler.isPresent())
             ? Optional.of(
-                new TransactionLogBloomCacher(blockchain, cachePath.get(), scheduler.get()))
+                new TransactionLogBloomCacher(
+                    blockchain, cachePath.get(), scheduler.get(), bitSlicedLogBloomIndex.get()))
+            : Optional.empty();
+    this.logIndex = logIndex;
+    this.logsScanExecutor =
+        apiConfig.getLogsScanThreads() > 1
+            ? Optional.of(createLogsScanExecutor(apiConfig.getLogsScanThreads()))
+            : Optional.empty();
+    this.blockTracingExecutor =
+        apiConfig.getBlockTracingThreads() > 1
+            ? Optional.of(createBlockTracingExecutor(apiConfig.getBlockTracingThreads()))
             : Optional.empty();
     this.apiConfig = apiConfig;
     this.miningParameters = miningParameters;
@@ -303,8 +351,8 @@ public class BlockchainQueries {
    */
   public Integer getTransactionCount(final Hash blockHeaderHash) {
     return blockchain
-        .getBlockBody(blockHeaderHash)
-        .map(body -> body.getTransactions().size())
+        .getLazyBlockBody(blockHeaderHash)
+        .map(LazyBlockBody::getTransactionCount)
         .orElse(-1);
   }
 
@@ -618,13 +666,16 @@ public class BlockchainQueries {
       final BlockHeader header, final int txIndex) {
     final Hash blockHeaderHash = header.getHash();
     // headers should not exist w/o bodies, so not being present is exceptional
-    final BlockBody blockBody = blockchain.getBlockBody(blockHeaderHash).orElseThrow();
-    final List<Transaction> txs = blockBody.getTransactions();
-    if (txIndex >= txs.size()) {
+    final LazyBlockBody blockBody = blockchain.getLazyBlockBody(blockHeaderHash).orElseThrow();
+    if (txIndex >= blockBody.getTransactionCount()) {
       return null;
     }
     return new TransactionWithMetadata(
-        txs.get(txIndex), header.getNumber(), header.getBaseFee(), blockHeaderHash, txIndex);
+        blockBody.getTransaction(txIndex),
+        header.getNumber(),
+        header.getBaseFee(),
+        blockHeaderHash,
+        txIndex);
   }
 
   public Optional<TransactionLocation> transactionLocationByHash(final Hash transactionHash) {
@@ -650,22 +701,22 @@ public class BlockchainQueries {
     final Hash blockhash = location.getBlockHash();
     final int transactionIndex = location.getTransactionIndex();
 
-    final Block block = blockchain.getBlockByHash(blockhash).orElseThrow();
-    final Transaction transaction = block.getBody().getTransactions().get(transactionIndex);
+    // Only the transaction and receipt at the location are decoded, the previous receipts are
+    // only used for their cumulative gas and number of logs that can be read without decoding.
+    final BlockHeader header = blockchain.getBlockHeader(blockhash).orElseThrow();
+    final Transaction transaction =
+        blockchain.getLazyBlockBody(blockhash).orElseThrow().getTransaction(transactionIndex);
 
-    final BlockHeader header = block.getHeader();
-    final List<TransactionReceipt> transactionReceipts =
-        blockchain.getTxReceipts(blockhash).orElseThrow();
+    final LazyTransactionReceipts transactionReceipts =
+        blockchain.getLazyTxReceipts(blockhash).orElseThrow();
     final TransactionReceipt transactionReceipt = transactionReceipts.get(transactionIndex);
 
     long gasUsed = transactionReceipt.getCumulativeGasUsed();
     int logIndexOffset = 0;
     if (transactionIndex > 0) {
-      gasUsed -= transactionReceipts.get(transactionIndex - 1).getCumulativeGasUsed();
+      gasUsed -= transactionReceipts.getCumulativeGasUsed(transactionIndex - 1);
       logIndexOffset =
-          IntStream.range(0, transactionIndex)
-              .map(i -> transactionReceipts.get(i).getLogsList().size())
-              .sum();
+          IntStream.range(0, transactionIndex).map(transactionReceipts::getLogCount).sum();
     }
 
     Optional<Long> maybeBlobGasUsed =
@@ -746,6 +797,11 @@ public class BlockchainQueries {
       final LogsQuery query,
       final Supplier<Boolean> isQueryAlive) {
     try {
+      final Optional<List<LogWithMetadata>> indexedResult =
+          matchingLogsIndexed(fromBlockNumber, toBlockNumber, query, isQueryAlive);
+      if (indexedResult.isPresent()) {
+        return indexedResult.get();
+      }
       final List<LogWithMetadata> result = new ArrayList<>();
       final long startSegment = fromBlockNumber / BLOCKS_PER_BLOOM_CACHE;
       final long endSegment = toBlockNumber / BLOCKS_PER_BLOOM_CACHE;
@@ -762,6 +818,16 @@ public class BlockchainQueries {
                 .map(
                     cacheFile -> {
                       try {
+                        final Optional<List<LogWithMetadata>> slicedResult =
+                            matchingLogsBitSliced(
+                                thisSegment,
+                                thisStep % BLOCKS_PER_BLOOM_CACHE,
+                                Math.min(toBlockNumber, nextStep - 1) % BLOCKS_PER_BLOOM_CACHE,
+                                query,
+                                isQueryAlive);
+                        if (slicedResult.isPresent()) {
+                          return slicedResult.get();
+                        }
                         return matchingLogsCached(
                             thisSegment * BLOCKS_PER_BLOOM_CACHE,
                             thisStep % BLOCKS_PER_BLOOM_CACHE,
@@ -788,22 +854,160 @@ public class BlockchainQueries {
     }
   }
 
+  private static ExecutorService createBlockTracingExecutor(final int threads) {
+    final ThreadPoolExecutor executor =
+        new ThreadPoolExecutor(
+            threads,
+            threads,
+            60L,
+            TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(threads * 16),
+            new ThreadFactoryBuilder().setNameFormat("block-tracing-%d").setDaemon(true).build(),
+            // the thread of the request traces the transaction when the workers are saturated
+            new ThreadPoolExecutor.CallerRunsPolicy());
+    executor.allowCoreThreadTimeOut(true);
+    return executor;
+  }
+
+  private static ExecutorService createLogsScanExecutor(final int threads) {
+    final ThreadPoolExecutor executor =
+        new ThreadPoolExecutor(
+            threads,
+            threads,
+            60L,
+            TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(threads * 16),
+            new ThreadFactoryBuilder().setNameFormat("logs-scan-%d").setDaemon(true).build(),
+            // the thread of the query scans the chunk itself when the workers are saturated
+            new ThreadPoolExecutor.CallerRunsPolicy());
+    executor.allowCoreThreadTimeOut(true);
+    return executor;
+  }
+
   private List<LogWithMetadata> matchingLogsUncached(
       final long fromBlockNumber,
       final long toBlockNumber,
       final LogsQuery query,
       final Supplier<Boolean> isQueryAlive) {
-    // rangeClosed handles the inverted from/to situations automatically with zero results.
-    return LongStream.rangeClosed(fromBlockNumber, toBlockNumber)
-        .mapToObj(blockchain::getBlockHeader)
-        // Use takeWhile instead of clamping on toBlockNumber/headBlockNumber because it may get an
-        // extra block or two for a query that has a toBlockNumber past chain head.  Similarly this
-        // handles the case when fromBlockNumber is past chain head.
-        .takeWhile(Optional::isPresent)
-        .map(Optional::get)
-        .filter(header -> query.couldMatch(header.getLogsBloom()))
-        .flatMap(header -> matchingLogs(header.getHash(), query, isQueryAlive).stream())
-        .collect(Collectors.toList());
+    final long lastBlockNumber = Math.min(toBlockNumber, blockchain.getChainHeadBlockNumber());
+    if (logsScanExecutor.isEmpty() || lastBlockNumber - fromBlockNumber < LOGS_SCAN_CHUNK_SIZE) {
+      return scanLogs(fromBlockNumber, toBlockNumber, query, isQueryAlive).logs();
+    }
+
+    final List<Future<ScannedLogs>> chunks = new ArrayList<>();
+    try {
+      for (long chunkStart = fromBlockNumber;
+          chunkStart <= lastBlockNumber;
+          chunkStart += LOGS_SCAN_CHUNK_SIZE) {
+        final long from = chunkStart;
+        final long to = Math.min(lastBlockNumber, chunkStart + LOGS_SCAN_CHUNK_SIZE - 1);
+        chunks.add(logsScanExecutor.get().submit(() -> scanLogs(from, to, query, isQueryAlive)));
+      }
+      // merged in block order, up to the first missing block as when scanning sequentially
+      final List<LogWithMetadata> result = new ArrayList<>();
+      for (final Future<ScannedLogs> chunk : chunks) {
+        final ScannedLogs scannedLogs = chunk.get();
+        result.addAll(scannedLogs.logs());
+        if (!scannedLogs.complete()) {
+          break;
+        }
+      }
+      return result;
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new RuntimeException(e);
+    } catch (final ExecutionException e) {
+      throw new RuntimeException(e.getCause());
+    } finally {
+      // stops scanning the remaining chunks once the query failed or timed out
+      chunks.forEach(chunk -> chunk.cancel(true));
+    }
+  }
+
+  private record ScannedLogs(List<LogWithMetadata> logs, boolean complete) {}
+
+  private ScannedLogs scanLogs(
+      final long fromBlockNumber,
+      final long toBlockNumber,
+      final LogsQuery query,
+      final Supplier<Boolean> isQueryAlive) {
+    final List<LogWithMetadata> logs = new ArrayList<>();
+    for (long blockNumber = fromBlockNumber; blockNumber <= toBlockNumber; blockNumber++) {
+      // Stop at the first missing header instead of clamping on toBlockNumber/headBlockNumber
+      // because it may get an extra block or two for a query that has a toBlockNumber past chain
+      // head.  Similarly this handles the case when fromBlockNumber is past chain head.
+      final Optional<BlockHeader> header = blockchain.getBlockHeader(blockNumber);
+      if (header.isEmpty()) {
+        return new ScannedLogs(logs, false);
+      }
+      if (query.couldMatch(header.get().getLogsBloom())) {
+        logs.addAll(matchingLogs(header.get().getHash(), query, isQueryAlive));
+      }
+    }
+    return new ScannedLogs(logs, true);
+  }
+
+  private Optional<List<LogWithMetadata>> matchingLogsIndexed(
+      final long fromBlockNumber,
+      final long toBlockNumber,
+      final LogsQuery query,
+      final Supplier<Boolean> isQueryAlive)
+      throws Exception {
+    if (logIndex.isEmpty()) {
+      return Optional.empty();
+    }
+    final long lastBlockNumber = Math.min(toBlockNumber, blockchain.getChainHeadBlockNumber());
+    if (fromBlockNumber > lastBlockNumber) {
+      return Optional.empty();
+    }
+    final Optional<List<Long>> candidates =
+        logIndex
+            .get()
+            .matchingBlockNumbers(
+                fromBlockNumber, lastBlockNumber, query.getAddresses(), query.getTopics());
+    if (candidates.isEmpty()) {
+      return Optional.empty();
+    }
+    final List<LogWithMetadata> results = new ArrayList<>();
+    for (final long candidate : candidates.get()) {
+      BackendQuery.stopIfExpired(isQueryAlive);
+      final Optional<Hash> blockHash = blockchain.getBlockHashByNumber(candidate);
+      if (blockHash.isEmpty()) {
+        break;
+      }
+      results.addAll(matchingLogs(blockHash.get(), query, isQueryAlive));
+    }
+    return Optional.of(results);
+  }
+
+  private Optional<List<LogWithMetadata>> matchingLogsBitSliced(
+      final long segment,
+      final long offset,
+      final long endOffset,
+      final LogsQuery query,
+      final Supplier<Boolean> isQueryAlive)
+      throws Exception {
+    if (bitSlicedLogBloomIndex.isEmpty()) {
+      return Optional.empty();
+    }
+    final Optional<long[]> candidates =
+        bitSlicedLogBloomIndex
+            .get()
+            .candidateBlocks(segment, (int) offset, (int) endOffset, query.getBloomCriteria());
+    if (candidates.isEmpty()) {
+      return Optional.empty();
+    }
+    final long segmentStart = segment * BLOCKS_PER_BLOOM_CACHE;
+    final List<LogWithMetadata> results = new ArrayList<>();
+    for (final long candidate : candidates.get()) {
+      BackendQuery.stopIfExpired(isQueryAlive);
+      final Optional<Hash> blockHash = blockchain.getBlockHashByNumber(segmentStart + candidate);
+      if (blockHash.isEmpty()) {
+        break;
+      }
+      results.addAll(matchingLogs(blockHash.get(), query, isQueryAlive));
+    }
+    return Optional.of(results);
   }
 
   private List<LogWithMetadata> matchingLogsCached(
@@ -847,6 +1051,12 @@ public class BlockchainQueries {
 
   public List<LogWithMetadata> matchingLogs(
       final Hash blockHash, final LogsQuery query, final Supplier<Boolean> isQueryAlive) {
+    final Optional<List<LogWithMetadata>> recentLogs =
+        blockchain.getRecentLogsWithMetadata(blockHash);
+    if (recentLogs.isPresent()) {
+      // logs of a recent canonical block, generated once when it was added
+      return recentLogs.get().stream().filter(query::matches).collect(Collectors.toList());
+    }
     try {
       final Optional<BlockHeader> blockHeader = getBlockHeader(blockHash, isQueryAlive);
       if (blockHeader.isEmpty()) {
@@ -1183,4 +1393,17 @@ public class BlockchainQueries {
   public Optional<EthScheduler> getEthScheduler() {
     return ethScheduler;
   }
+
+  /**
+   * Gets the executor tracing the transactions of a block concurrently.
+   *
+   * @return the executor, or empty if the transactions are traced one after the other
+   */
+  public Optional<ExecutorService> getBlockTracingExecutor() {
+    return blockTracingExecutor;
+  }
+
+  public int getBlockTracingThreads() {
+    return apiConfig.getBlockTracingThreads();
+  }
 }
@@ -0,0 +1,596 @@
+/*
+ * Copyright contributors to Hyperledger Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.api.query;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+
+import org.hyperledger.besu.config.JsonUtil;
+import org.hyperledger.besu.datatypes.Hash;
+import org.hyperledger.besu.ethereum.chain.Blockchain;
+import org.hyperledger.besu.ethereum.core.BlockHeader;
+import org.hyperledger.besu.ethereum.eth.manager.EthScheduler;
+import org.hyperledger.besu.ethereum.trie.diffbased.bonsai.storage.BonsaiWorldStateKeyValueStorage;
+import org.hyperledger.besu.ethereum.trie.diffbased.common.DiffBasedWorldStateProvider;
+import org.hyperledger.besu.ethereum.worldstate.WorldStateArchive;
+import org.hyperledger.besu.plugin.services.storage.CheckpointableKeyValueStorage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+import com.fasterxml.jackson.annotation.JsonGetter;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.bytes.Bytes32;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Backs up the whole database of a running node from a storage checkpoint.
+ *
+ * <p>The checkpoint is a consistent snapshot of all the segments, hard linked next to the database,
+ * so the Bonsai world state it holds always matches the block hash and root hash stored with it.
+ * Its files are then copied in parallel to the backup directory, together with the database
+ * metadata and the files of the chain freezer, if any. The freezer files are copied after the
+ * checkpoint is created, so they hold at least the blocks frozen in the checkpoint; the blocks
+ * frozen meanwhile, possibly partially copied, are dropped or frozen again when the restored
+ * freezer is opened.
+ *
+ * <p>The manifest of the backup records the size and SHA-256 checksum of every file. A file of a
+ * previous backup to the same directory is kept as it is when it matches the file to back up,
+ * according to the manifest of the previous backup, only the other files are copied. The table and
+ * blob files of RocksDB are never modified once written, so they match when their size does,
+ * while the other files match when their checksum does. Only the files listed in the previous
+ * manifest are removed, and a backup directory which is neither empty nor holding a backup is
+ * refused. Restored files are checked against the checksums of the manifest.
+ */
+public class CheckpointBackupService {
+
+  private static final Logger LOG = LoggerFactory.getLogger(CheckpointBackupService.class);
+
+  public static final String MANIFEST_FILE_NAME = "besu-checkpoint-manifest.json";
+  // the files of a backup in progress, which may be partially written
+  static final String PENDING_MANIFEST_FILE_NAME = "besu-checkpoint-manifest.pending.json";
+  public static final int DEFAULT_COPY_THREADS = Runtime.getRuntime().availableProcessors();
+
+  static final String CHECKPOINT_DIRECTORY_NAME = "backup-checkpoint";
+  // the layout of the data directory, the database directory being the storage path
+  static final String DATABASE_DIRECTORY_NAME = "database";
+  static final String FREEZER_DIRECTORY_NAME = "freezer";
+  static final String DATABASE_METADATA_FILE_NAME = "DATABASE_METADATA.json";
+  private static final String TEMPORARY_FILE_SUFFIX = ".tmp";
+  private static final String CHECKSUM_ALGORITHM = "SHA-256";
+  private static final List<String> IMMUTABLE_FILE_SUFFIXES = List.of(".sst", ".blob");
+  private static final ManifestEntry UNKNOWN_ENTRY = new ManifestEntry(-1, "");
+
+  private final String besuVersion;
+  private final CheckpointableKeyValueStorage storage;
+  private final int copyThreads;
+  private final Lock submissionLock = new ReentrantLock();
+  private final BackupStatus backupStatus = new BackupStatus();
+
+  public CheckpointBackupService(
+      final String besuVersion,
+      final CheckpointableKeyValueStorage storage,
+      final int copyThreads) {
+    checkArgument(copyThreads > 0, "At least one copy thread is required");
+    this.besuVersion = besuVersion;
+    this.storage = storage;
+    this.copyThreads = copyThreads;
+  }
+
+  /**
+   * Gets the storage of a world state archive that checkpoints can be created from, which is the
+   * storage of the whole database for Bonsai.
+   *
+   * @param worldStateArchive the world state archive
+   * @return the checkpointable storage, if the world state archive has one
+   */
+  public static Optional<CheckpointableKeyValueStorage> checkpointableStorage(
+      final WorldStateArchive worldStateArchive) {
+    if (worldStateArchive instanceof DiffBasedWorldStateProvider provider
+        && provider.getWorldStateKeyValueStorage().getComposedWorldStateStorage()
+            instanceof CheckpointableKeyValueStorage checkpointable) {
+      return Optional.of(checkpointable);
+    }
+    return Optional.empty();
+  }
+
+  /**
+   * Requests a backup to a directory, which is done on the scheduler unless a backup is already in
+   * progress.
+   *
+   * @param backupDir the backup directory
+   * @param scheduler the scheduler
+   * @return the status of the backup
+   * @throws IllegalArgumentException if the directory is neither empty nor holding a backup
+   */
+  public BackupStatus requestBackup(final Path backupDir, final EthScheduler scheduler) {
+    checkBackupDirectory(backupDir);
+    boolean requestAccepted = false;
+    try {
+      if (submissionLock.tryLock(100, TimeUnit.MILLISECONDS)) {
+        try {
+          if (!backupStatus.isBackingUp()) {
+            requestAccepted = true;
+            backupStatus.reset(backupDir);
+            scheduler.scheduleComputationTask(
+                () -> {
+                  try {
+                    return backup(backupDir);
+                  } catch (final IOException | RuntimeException e) {
+                    LOG.error("Error backing up checkpoint to {}", backupDir, e);
+                    backupStatus.backingUp = false;
+                    return backupStatus;
+                  }
+                });
+          }
+        } finally {
+          submissionLock.unlock();
+        }
+      }
+    } catch (final InterruptedException e) {
+      // ignore
+    }
+    backupStatus.requestAccepted = requestAccepted;
+    return backupStatus;
+  }
+
+  /**
+   * Backs up the database to a directory, reusing the files of a previous backup to the same
+   * directory.
+   *
+   * @param backupDir the backup directory
+   * @return the status of the completed backup
+   * @throws IOException if the files could not be copied
+   * @throws IllegalArgumentException if the directory is neither empty nor holding a backup
+   */
+  public BackupStatus backup(final Path backupDir) throws IOException {
+    final Map<String, ManifestEntry> previousEntries = previousManifest(backupDir);
+    backupStatus.reset(backupDir);
+    final Path dataDir = storage.getStoragePath().getParent();
+    final Path checkpointDir = dataDir.resolve(CHECKPOINT_DIRECTORY_NAME);
+    deleteRecursively(checkpointDir);
+    Files.createDirectories(backupDir);
+    try {
+      storage.createCheckpoint(checkpointDir);
+      final Map<String, Path> files = new TreeMap<>();
+      listFiles(checkpointDir, DATABASE_DIRECTORY_NAME, files);
+      listFiles(dataDir.resolve(FREEZER_DIRECTORY_NAME), FREEZER_DIRECTORY_NAME, files);
+      final Path metadata = dataDir.resolve(DATABASE_METADATA_FILE_NAME);
+      if (Files.isRegularFile(metadata)) {
+        files.put(DATABASE_METADATA_FILE_NAME, metadata);
+      }
+      long totalBytes = 0;
+      for (final Path file : files.values()) {
+        totalBytes += Files.size(file);
+      }
+      backupStatus.fileCount = files.size();
+      backupStatus.totalBytes = totalBytes;
+
+      // an interrupted backup has no manifest, so it can't be mistaken for a complete one, but its
+      // pending manifest lists the files it may have written, for the next backup to remove them
+      final Map<String, ManifestEntry> pendingEntries = new TreeMap<>(previousEntries);
+      files.keySet().forEach(name -> pendingEntries.putIfAbsent(name, UNKNOWN_ENTRY));
+      writeManifest(backupDir, PENDING_MANIFEST_FILE_NAME, pendingEntries);
+      Files.deleteIfExists(backupDir.resolve(MANIFEST_FILE_NAME));
+      final Map<String, ManifestEntry> entries =
+          transferFiles(
+              files.keySet(),
+              name ->
+                  backUpFile(
+                      name,
+                      files.get(name),
+                      backupDir.resolve(name),
+                      previousEntries.getOrDefault(name, UNKNOWN_ENTRY)),
+              copyThreads,
+              backupDir);
+      removeFiles(backupDir, pendingEntries.keySet(), files.keySet());
+      writeManifest(backupDir, MANIFEST_FILE_NAME, entries);
+      Files.deleteIfExists(backupDir.resolve(PENDING_MANIFEST_FILE_NAME));
+      LOG.info(
+          "Checkpoint backup to {} complete, {} bytes copied, {} bytes reused",
+          backupDir,
+          backupStatus.copiedBytes.get(),
+          backupStatus.reusedBytes.get());
+      return backupStatus;
+    } finally {
+      deleteRecursively(checkpointDir);
+      backupStatus.backingUp = false;
+    }
+  }
+
+  /**
+   * Restores a checkpoint backup to a data directory without a database, checking the checksum of
+   * every restored file against the backup manifest.
+   *
+   * @param backupDir the backup directory
+   * @param dataDir the data directory
+   * @param copyThreads the number of files copied in parallel
+   * @return the number of bytes restored
+   * @throws IOException if the files could not be copied
+   */
+  public static long restore(final Path backupDir, final Path dataDir, final int copyThreads)
+      throws IOException {
+    final Map<String, ManifestEntry> manifest = readManifest(backupDir);
+    for (final String directory : List.of(DATABASE_DIRECTORY_NAME, FREEZER_DIRECTORY_NAME)) {
+      final Path path = dataDir.resolve(directory);
+      checkArgument(
+          !Files.exists(path) || isEmptyDirectory(path), "Directory %s is not empty", path);
+    }
+    final Map<String, ManifestEntry> restored =
+        transferFiles(
+            manifest.keySet(),
+            name -> copyFile(backupDir.resolve(name), dataDir.resolve(name)),
+            copyThreads,
+            dataDir);
+    manifest.forEach(
+        (name, entry) ->
+            checkState(
+                entry.equals(restored.get(name)),
+                "Restored file %s does not match the checksum of the backup manifest",
+                name));
+    return restored.values().stream().mapToLong(ManifestEntry::size).sum();
+  }
+
+  /**
+   * Checks that the world state of a restored database is usable: its block is known, the root
+   * hash stored with it is the state root of that block, and the root node is in the trie.
+   *
+   * @param blockchain the restored blockchain
+   * @param worldStateStorage the restored world state storage
+   * @return the header of the block of the world state
+   */
+  public static BlockHeader verifyWorldState(
+      final Blockchain blockchain, final BonsaiWorldStateKeyValueStorage worldStateStorage) {
+    final Hash blockHash =
+        worldStateStorage
+            .getWorldStateBlockHash()
+            .orElseThrow(() -> new IllegalStateException("No world state block hash in database"));
+    final BlockHeader header =
+        blockchain
+            .getBlockHeader(blockHash)
+            .orElseThrow(
+                () -> new IllegalStateException("Unknown world state block " + blockHash));
+    final Bytes rootHash =
+        worldStateStorage
+            .getWorldStateRootHash()
+            .orElseThrow(() -> new IllegalStateException("No world state root hash in database"));
+    checkState(
+        header.getStateRoot().equals(rootHash),
+        "World state root %s does not match state root %s of block %s",
+        rootHash,
+        header.getStateRoot(),
+        header.getNumber());
+    checkState(
+        worldStateStorage.getAccountStateTrieNode(Bytes.EMPTY, Bytes32.wrap(rootHash)).isPresent(),
+        "World state root node %s is missing",
+        rootHash);
+    return header;
+  }
+
+  /**
+   * Checks that a directory can be backed up to: it does not exist, is empty, or holds a complete
+   * or interrupted backup, so that backing up does not remove unrelated files.
+   *
+   * @param backupDir the backup directory
+   * @throws IllegalArgumentException if the directory can't be backed up to
+   */
+  public static void checkBackupDirectory(final Path backupDir) {
+    try {
+      previousManifest(backupDir);
+    } catch (final IOException e) {
+      throw new IllegalArgumentException("Unable to read backup directory " + backupDir, e);
+    }
+  }
+
+  /** Reads the files of the previous backup to a directory, checking that it holds a backup. */
+  private static Map<String, ManifestEntry> previousManifest(final Path backupDir)
+      throws IOException {
+    final Map<String, ManifestEntry> entries = new TreeMap<>();
+    if (!Files.exists(backupDir)) {
+      return entries;
+    }
+    checkArgument(Files.isDirectory(backupDir), "Backup path %s is not a directory", backupDir);
+    final boolean pending = Files.isRegularFile(backupDir.resolve(PENDING_MANIFEST_FILE_NAME));
+    final boolean complete = Files.isRegularFile(backupDir.resolve(MANIFEST_FILE_NAME));
+    checkArgument(
+        pending || complete || isEmptyDirectory(backupDir),
+        "Backup directory %s is neither empty nor holding a checkpoint backup",
+        backupDir);
+    // a backup interrupted once its manifest was written lists the same files in both, the
+    // pending one possibly listing more
+    if (pending) {
+      entries.putAll(readManifest(backupDir, PENDING_MANIFEST_FILE_NAME));
+    }
+    if (complete) {
+      entries.putAll(readManifest(backupDir, MANIFEST_FILE_NAME));
+    }
+    return entries;
+  }
+
+  public static Map<String, ManifestEntry> readManifest(final Path backupDir) throws IOException {
+    return readManifest(backupDir, MANIFEST_FILE_NAME);
+  }
+
+  private static Map<String, ManifestEntry> readManifest(
+      final Path backupDir, final String manifestFileName) throws IOException {
+    final ObjectNode manifest =
+        JsonUtil.objectNodeFromString(Files.readString(backupDir.resolve(manifestFileName)));
+    final Map<String, ManifestEntry> files = new TreeMap<>();
+    manifest
+        .get("files")
+        .fields()
+        .forEachRemaining(
+            file ->
+                files.put(
+                    file.getKey(),
+                    new ManifestEntry(
+                        file.getValue().get("size").asLong(),
+                        file.getValue().get("sha256").asText())));
+    return files;
+  }
+
+  private void writeManifest(
+      final Path backupDir, final String manifestFileName, final Map<String, ManifestEntry> entries)
+      throws IOException {
+    final Map<String, Object> files = new TreeMap<>();
+    entries.forEach(
+        (name, entry) -> files.put(name, Map.of("size", entry.size(), "sha256", entry.sha256())));
+    final Map<String, Object> manifest = new TreeMap<>();
+    manifest.put("clientVersion", besuVersion);
+    manifest.put("files", files);
+    final Path tmp = backupDir.resolve(manifestFileName + TEMPORARY_FILE_SUFFIX);
+    Files.write(tmp, JsonUtil.getJson(manifest).getBytes(StandardCharsets.UTF_8));
+    Files.move(tmp, backupDir.resolve(manifestFileName), REPLACE_EXISTING, ATOMIC_MOVE);
+  }
+
+  /**
+   * Backs up a file, unless the previous backup holds the same file. An immutable file is the same
+   * when its size is, another file when its checksum is too, the file of the previous backup being
+   * trusted to match its manifest entry.
+   */
+  private ManifestEntry backUpFile(
+      final String name, final Path source, final Path target, final ManifestEntry previous)
+      throws IOException {
+    if (previous.size() >= 0
+        && Files.isRegularFile(target)
+        && Files.size(target) == previous.size()
+        && Files.size(source) == previous.size()
+        && (isImmutable(name) || checksum(source).equals(previous))) {
+      backupStatus.reusedBytes.addAndGet(previous.size());
+      return previous;
+    }
+    final ManifestEntry copied = copyFile(source, target);
+    backupStatus.copiedBytes.addAndGet(copied.size());
+    return copied;
+  }
+
+  private static Map<String, ManifestEntry> transferFiles(
+      final Collection<String> names,
+      final FileTransfer transfer,
+      final int copyThreads,
+      final Path targetDir)
+      throws IOException {
+    final ExecutorService executor = Executors.newFixedThreadPool(copyThreads);
+    try {
+      final Map<String, Future<ManifestEntry>> transfers = new TreeMap<>();
+      for (final String name : names) {
+        transfers.put(name, executor.submit(() -> transfer.transfer(name)));
+      }
+      final Map<String, ManifestEntry> entries = new TreeMap<>();
+      for (final Map.Entry<String, Future<ManifestEntry>> file : transfers.entrySet()) {
+        entries.put(file.getKey(), file.getValue().get());
+      }
+      return entries;
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Interrupted while copying files to " + targetDir, e);
+    } catch (final ExecutionException e) {
+      if (e.getCause() instanceof IOException ioException) {
+        throw ioException;
+      }
+      throw new IOException("Unable to copy files to " + targetDir, e.getCause());
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  private static ManifestEntry copyFile(final Path source, final Path target) throws IOException {
+    Files.createDirectories(target.getParent());
+    // copy to a temporary file first, so a file with the final name is always complete
+    final Path tmp = target.resolveSibling(target.getFileName() + TEMPORARY_FILE_SUFFIX);
+    final MessageDigest digest = newDigest();
+    final long size;
+    try (final InputStream in = new DigestInputStream(Files.newInputStream(source), digest)) {
+      size = Files.copy(in, tmp, REPLACE_EXISTING);
+    }
+    Files.move(tmp, target, REPLACE_EXISTING, ATOMIC_MOVE);
+    return new ManifestEntry(size, Bytes.wrap(digest.digest()).toHexString());
+  }
+
+  private static ManifestEntry checksum(final Path file) throws IOException {
+    final MessageDigest digest = newDigest();
+    long size = 0;
+    try (final InputStream in = Files.newInputStream(file)) {
+      final byte[] buffer = new byte[1 << 16];
+      int read;
+      while ((read = in.read(buffer)) >= 0) {
+        digest.update(buffer, 0, read);
+        size += read;
+      }
+    }
+    return new ManifestEntry(size, Bytes.wrap(digest.digest()).toHexString());
+  }
+
+  private static MessageDigest newDigest() {
+    try {
+      return MessageDigest.getInstance(CHECKSUM_ALGORITHM);
+    } catch (final NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private static void listFiles(final Path dir, final String prefix, final Map<String, Path> files)
+      throws IOException {
+    if (!Files.isDirectory(dir)) {
+      return;
+    }
+    try (final Stream<Path> paths = Files.list(dir)) {
+      for (final Path path : paths.filter(Files::isRegularFile).toList()) {
+        files.put(prefix + "/" + path.getFileName(), path);
+      }
+    }
+  }
+
+  private static boolean isImmutable(final String name) {
+    return name.startsWith(DATABASE_DIRECTORY_NAME + "/")
+        && IMMUTABLE_FILE_SUFFIXES.stream().anyMatch(name::endsWith);
+  }
+
+  /** Removes the files of a previous backup which are not part of the new one. */
+  private static void removeFiles(
+      final Path dir, final Set<String> previousNames, final Set<String> names) throws IOException {
+    for (final String name : previousNames) {
+      final Path path = dir.resolve(name).normalize();
+      if (!path.startsWith(dir.normalize())) {
+        continue;
+      }
+      if (!names.contains(name)) {
+        Files.deleteIfExists(path);
+      }
+      Files.deleteIfExists(path.resolveSibling(path.getFileName() + TEMPORARY_FILE_SUFFIX));
+    }
+  }
+
+  private static boolean isEmptyDirectory(final Path dir) throws IOException {
+    try (final Stream<Path> paths = Files.list(dir)) {
+      return paths.findAny().isEmpty();
+    }
+  }
+
+  private static void deleteRecursively(final Path dir) throws IOException {
+    if (!Files.exists(dir)) {
+      return;
+    }
+    try (final Stream<Path> paths = Files.walk(dir)) {
+      for (final Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+        Files.delete(path);
+      }
+    }
+  }
+
+  /**
+   * A file of a backup, as recorded in its manifest.
+   *
+   * @param size the size of the file
+   * @param sha256 the hex encoded SHA-256 checksum of the file
+   */
+  public record ManifestEntry(long size, String sha256) {}
+
+  @FunctionalInterface
+  private interface FileTransfer {
+    ManifestEntry transfer(String name) throws IOException;
+  }
+
+  public static final class BackupStatus {
+    volatile boolean backingUp;
+    volatile Path backupDir;
+    volatile int fileCount;
+    volatile long totalBytes;
+    final AtomicLong copiedBytes = new AtomicLong();
+    final AtomicLong reusedBytes = new AtomicLong();
+    boolean requestAccepted;
+
+    private void reset(final Path backupDir) {
+      this.backingUp = true;
+      this.backupDir = backupDir;
+      this.fileCount = 0;
+      this.totalBytes = 0;
+      copiedBytes.set(0);
+      reusedBytes.set(0);
+    }
+
+    @JsonGetter
+    public boolean isBackingUp() {
+      return backingUp;
+    }
+
+    @JsonGetter
+    public String getBackupDir() {
+      return backupDir == null ? null : backupDir.toString();
+    }
+
+    @JsonGetter
+    public int getFileCount() {
+      return fileCount;
+    }
+
+    @JsonGetter
+    public String getTotalBytes() {
+      return "0x" + Long.toHexString(totalBytes);
+    }
+
+    @JsonGetter
+    public String getCopiedBytes() {
+      return "0x" + Long.toHexString(copiedBytes.get());
+    }
+
+    @JsonGetter
+    public String getReusedBytes() {
+      return "0x" + Long.toHexString(reusedBytes.get());
+    }
+
+    @JsonIgnore
+    public long getCopiedByteCount() {
+      return copiedBytes.get();
+    }
+
+    @JsonIgnore
+    public long getReusedByteCount() {
+      return reusedBytes.get();
+    }
+
+    @JsonGetter
+    public boolean isRequestAccepted() {
+      return requestAccepted;
+    }
+  }
+}
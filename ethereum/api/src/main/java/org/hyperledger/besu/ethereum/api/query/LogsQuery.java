@@ -75,6 +75,14 @@ public class LogsQuery {
             .collect(toUnmodifiableList());
   }
 
+  List<Address> getAddresses() {
+    return addresses;
+  }
+
+  List<List<LogTopic>> getTopics() {
+    return topics;
+  }
+
   public boolean couldMatch(final LogsBloomFilter bloom) {
     return (addressBlooms.isEmpty() || addressBlooms.stream().anyMatch(bloom::couldContain))
         && (topicsBlooms.isEmpty()
@@ -83,6 +91,21 @@ public class LogsQuery {
                     topics -> topics.isEmpty() || topics.stream().anyMatch(bloom::couldContain)));
   }
 
+  /**
+   * Gets the blooms the logs bloom of a block must contain for the block to match, as in {@link
+   * #couldMatch(LogsBloomFilter)}: one bloom of each of the returned lists.
+   *
+   * @return the bloom criteria, empty if every block could match
+   */
+  public List<List<LogsBloomFilter>> getBloomCriteria() {
+    final List<List<LogsBloomFilter>> criteria = new ArrayList<>();
+    if (!addressBlooms.isEmpty()) {
+      criteria.add(addressBlooms);
+    }
+    topicsBlooms.stream().filter(topics -> !topics.isEmpty()).forEach(criteria::add);
+    return criteria;
+  }
+
   public boolean matches(final Log log) {
     return matchesAddresses(log.getLogger()) && matchesTopics(log.getTopics());
   }
@@ -0,0 +1,305 @@
+/*
+ * Copyright contributors to Hyperledger Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.api.query.cache;
+
+import static org.hyperledger.besu.ethereum.api.query.cache.TransactionLogBloomCacher.BLOCKS_PER_BLOOM_CACHE;
+import static org.hyperledger.besu.ethereum.api.query.cache.TransactionLogBloomCacher.BLOOM_BITS_LENGTH;
+
+import org.hyperledger.besu.evm.log.LogsBloomFilter;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A transposed view of the complete log bloom cache segments, memory mapped.
+ *
+ * <p>A segment file of {@link TransactionLogBloomCacher} holds the 2048 bit log bloom of each of
+ * its blocks one after the other. The bit-sliced file of a segment holds, for each of the 2048
+ * bloom bits, a bitmap of the blocks of the segment which have this bit set. The blocks whose bloom
+ * could contain a value are then found by combining the 3 bitmaps of the value with bitwise
+ * operations, 64 blocks at a time, instead of reading the bloom of each block.
+ *
+ * <p>The bit-sliced file of a segment is built in the background by {@link
+ * TransactionLogBloomCacher} once the segment is complete. The cacher invalidates it before and
+ * after any write to the segment file, so a segment is only searched this way while its bit-sliced
+ * file is in sync with it. The header of the bit-sliced file holds the length of the segment file
+ * it was built from.
+ */
+public class BitSlicedLogBloomIndex {
+  private static final Logger LOG = LoggerFactory.getLogger(BitSlicedLogBloomIndex.class);
+
+  private static final int BLOOM_BITS = BLOOM_BITS_LENGTH * Byte.SIZE;
+  private static final int WORDS_PER_SLICE = (BLOCKS_PER_BLOOM_CACHE + Long.SIZE - 1) / Long.SIZE;
+  private static final long SEGMENT_FILE_SIZE = (long) BLOCKS_PER_BLOOM_CACHE * BLOOM_BITS_LENGTH;
+  private static final long SLICES_SIZE = (long) BLOOM_BITS * WORDS_PER_SLICE * Long.BYTES;
+  private static final int HEADER_SIZE = Long.BYTES;
+
+  private final Path cacheDir;
+  private final Map<Long, LongBuffer> mappedSegments = new ConcurrentHashMap<>();
+  // counts the invalidations of each segment, to drop the builds which raced with a write
+  private final Map<Long, Long> invalidations = new ConcurrentHashMap<>();
+  private final Object buildLock = new Object();
+
+  /**
+   * Instantiates a new index over the log bloom cache segments of a directory.
+   *
+   * @param cacheDir the log bloom cache directory
+   */
+  public BitSlicedLogBloomIndex(final Path cacheDir) {
+    this.cacheDir = cacheDir;
+  }
+
+  static Path segmentFile(final Path cacheDir, final long segment) {
+    return cacheDir.resolve("logBloom-" + segment + ".cache");
+  }
+
+  static Path slicesFile(final Path cacheDir, final long segment) {
+    return cacheDir.resolve("logBloom-" + segment + ".slices");
+  }
+
+  /**
+   * Finds the blocks of a segment whose log bloom could match some criteria.
+   *
+   * @param segment the segment number
+   * @param fromOffset the offset in the segment of the first block searched
+   * @param toOffset the offset in the segment of the last block searched, inclusive
+   * @param bloomCriteria the blooms a block bloom must match, one of each list
+   * @return the offsets in the segment of the candidate blocks in increasing order, or empty if the
+   *     bit-sliced file of the segment is not built and the segment can't be searched this way
+   */
+  public Optional<long[]> candidateBlocks(
+      final long segment,
+      final int fromOffset,
+      final int toOffset,
+      final List<List<LogsBloomFilter>> bloomCriteria) {
+    final Optional<LongBuffer> maybeSlices = slices(segment);
+    if (maybeSlices.isEmpty()) {
+      return Optional.empty();
+    }
+    final LongBuffer slices = maybeSlices.get();
+    final int[][][] criteria = toBitIndexes(bloomCriteria);
+
+    final List<Long> candidates = new ArrayList<>();
+    final int fromWord = fromOffset / Long.SIZE;
+    final int toWord = toOffset / Long.SIZE;
+    for (int word = fromWord; word <= toWord; word++) {
+      long matching = -1L;
+      if (word == fromWord) {
+        matching &= -1L << (fromOffset % Long.SIZE);
+      }
+      if (word == toWord) {
+        matching &= -1L >>> (Long.SIZE - 1 - toOffset % Long.SIZE);
+      }
+      for (int criterion = 0; criterion < criteria.length && matching != 0; criterion++) {
+        long anyBloom = 0;
+        for (final int[] bloomBits : criteria[criterion]) {
+          long allBits = matching;
+          for (int i = 0; i < bloomBits.length && allBits != 0; i++) {
+            allBits &= slices.get(bloomBits[i] * WORDS_PER_SLICE + word);
+          }
+          anyBloom |= allBits;
+        }
+        matching &= anyBloom;
+      }
+      while (matching != 0) {
+        candidates.add((long) word * Long.SIZE + Long.numberOfTrailingZeros(matching));
+        matching &= matching - 1;
+      }
+    }
+    return Optional.of(candidates.stream().mapToLong(Long::longValue).toArray());
+  }
+
+  private static int[][][] toBitIndexes(final List<List<LogsBloomFilter>> bloomCriteria) {
+    final int[][][] criteria = new int[bloomCriteria.size()][][];
+    for (int criterion = 0; criterion < criteria.length; criterion++) {
+      final List<LogsBloomFilter> blooms = bloomCriteria.get(criterion);
+      criteria[criterion] = new int[blooms.size()][];
+      for (int bloom = 0; bloom < blooms.size(); bloom++) {
+        criteria[criterion][bloom] = setBits(blooms.get(bloom));
+      }
+    }
+    return criteria;
+  }
+
+  private static int[] setBits(final LogsBloomFilter bloom) {
+    final int[] bits = new int[BLOOM_BITS];
+    int count = 0;
+    for (int i = 0; i < BLOOM_BITS_LENGTH; i++) {
+      int value = bloom.get(i) & 0xff;
+      while (value != 0) {
+        bits[count++] = i * Byte.SIZE + Integer.numberOfTrailingZeros(value);
+        value &= value - 1;
+      }
+    }
+    return Arrays.copyOf(bits, count);
+  }
+
+  private Optional<LongBuffer> slices(final long segment) {
+    final LongBuffer mapped = mappedSegments.get(segment);
+    if (mapped != null) {
+      return Optional.of(mapped);
+    }
+    synchronized (this) {
+      final LongBuffer remapped = mappedSegments.get(segment);
+      if (remapped != null) {
+        return Optional.of(remapped);
+      }
+      final Path slicesFile = slicesFile(cacheDir, segment);
+      try {
+        if (!isBuilt(segmentFile(cacheDir, segment), slicesFile)) {
+          return Optional.empty();
+        }
+        final LongBuffer slices = map(slicesFile);
+        mappedSegments.put(segment, slices);
+        return Optional.of(slices);
+      } catch (final IOException e) {
+        LOG.warn("Unable to use the bit-sliced log bloom index of segment {}", segment, e);
+        return Optional.empty();
+      }
+    }
+  }
+
+  /**
+   * Builds the bit-sliced file of a segment, unless it is already built or the segment is not
+   * complete. The file is discarded if the segment is invalidated while it is built.
+   *
+   * @param segment the segment number
+   */
+  public void build(final long segment) {
+    final Path segmentFile = segmentFile(cacheDir, segment);
+    final Path slicesFile = slicesFile(cacheDir, segment);
+    final Path tmpFile = slicesFile.resolveSibling(slicesFile.getFileName() + ".tmp");
+    // the builds share their temporary files, and are rare enough to run one at a time
+    synchronized (buildLock) {
+      final long invalidationsBefore = invalidations.getOrDefault(segment, 0L);
+      try {
+        if (!Files.isRegularFile(segmentFile)
+            || Files.size(segmentFile) != SEGMENT_FILE_SIZE
+            || isBuilt(segmentFile, slicesFile)) {
+          return;
+        }
+        final long start = System.currentTimeMillis();
+        writeSlices(segmentFile, tmpFile);
+        synchronized (this) {
+          if (invalidations.getOrDefault(segment, 0L) != invalidationsBefore) {
+            Files.deleteIfExists(tmpFile);
+            return;
+          }
+          Files.move(
+              tmpFile,
+              slicesFile,
+              StandardCopyOption.REPLACE_EXISTING,
+              StandardCopyOption.ATOMIC_MOVE);
+        }
+        LOG.debug(
+            "Built bit-sliced log bloom file {} in {} ms",
+            slicesFile.getFileName(),
+            System.currentTimeMillis() - start);
+      } catch (final IOException e) {
+        LOG.warn("Unable to build the bit-sliced log bloom index of segment {}", segment, e);
+      }
+    }
+  }
+
+  /**
+   * Deletes the bit-sliced file of a segment and stops using it, as the segment file is about to
+   * change or was changed.
+   *
+   * @param segment the segment number
+   * @throws IOException if the bit-sliced file can't be deleted
+   */
+  public synchronized void invalidate(final long segment) throws IOException {
+    invalidations.merge(segment, 1L, Long::sum);
+    mappedSegments.remove(segment);
+    Files.deleteIfExists(slicesFile(cacheDir, segment));
+  }
+
+  private static boolean isBuilt(final Path segmentFile, final Path slicesFile) throws IOException {
+    if (!Files.isRegularFile(slicesFile)
+        || Files.size(slicesFile) != HEADER_SIZE + SLICES_SIZE
+        || !Files.isRegularFile(segmentFile)) {
+      return false;
+    }
+    try (final DataInputStream header = new DataInputStream(Files.newInputStream(slicesFile))) {
+      return header.readLong() == Files.size(segmentFile);
+    }
+  }
+
+  private static LongBuffer map(final Path file) throws IOException {
+    try (final FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      // the mapping stays valid once the channel is closed
+      return channel.map(FileChannel.MapMode.READ_ONLY, HEADER_SIZE, SLICES_SIZE).asLongBuffer();
+    }
+  }
+
+  private static void writeSlices(final Path segmentFile, final Path slicesFile)
+      throws IOException {
+    final long[] slices = new long[BLOOM_BITS * WORDS_PER_SLICE];
+    try (final FileChannel channel = FileChannel.open(segmentFile, StandardOpenOption.READ)) {
+      final MappedByteBuffer blooms =
+          channel.map(FileChannel.MapMode.READ_ONLY, 0, SEGMENT_FILE_SIZE);
+      for (int block = 0; block < BLOCKS_PER_BLOOM_CACHE; block++) {
+        final int word = block / Long.SIZE;
+        final long blockBit = 1L << (block % Long.SIZE);
+        final int bloomOffset = block * BLOOM_BITS_LENGTH;
+        for (int i = 0; i < BLOOM_BITS_LENGTH; i++) {
+          int value = blooms.get(bloomOffset + i) & 0xff;
+          while (value != 0) {
+            final int bit = i * Byte.SIZE + Integer.numberOfTrailingZeros(value);
+            slices[bit * WORDS_PER_SLICE + word] |= blockBit;
+            value &= value - 1;
+          }
+        }
+      }
+    }
+
+    try (final FileChannel channel =
+        FileChannel.open(
+            slicesFile,
+            StandardOpenOption.CREATE,
+            StandardOpenOption.WRITE,
+            StandardOpenOption.TRUNCATE_EXISTING)) {
+      final ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).putLong(0, SEGMENT_FILE_SIZE);
+      while (header.hasRemaining()) {
+        channel.write(header);
+      }
+      final ByteBuffer buffer = ByteBuffer.allocate(WORDS_PER_SLICE * Long.BYTES);
+      for (int bit = 0; bit < BLOOM_BITS; bit++) {
+        buffer.clear();
+        buffer.asLongBuffer().put(slices, bit * WORDS_PER_SLICE, WORDS_PER_SLICE);
+        while (buffer.hasRemaining()) {
+          channel.write(buffer);
+        }
+      }
+    }
+  }
+}
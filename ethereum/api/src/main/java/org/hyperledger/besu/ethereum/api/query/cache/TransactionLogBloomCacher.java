@@ -61,14 +61,24 @@ public class TransactionLogBloomCacher {
   private final Blockchain blockchain;
 
   private final Path cacheDir;
+  private final BitSlicedLogBloomIndex bitSlicedLogBloomIndex;
 
   private final CachingStatus cachingStatus = new CachingStatus();
 
   public TransactionLogBloomCacher(
       final Blockchain blockchain, final Path cacheDir, final EthScheduler scheduler) {
+    this(blockchain, cacheDir, scheduler, new BitSlicedLogBloomIndex(cacheDir));
+  }
+
+  public TransactionLogBloomCacher(
+      final Blockchain blockchain,
+      final Path cacheDir,
+      final EthScheduler scheduler,
+      final BitSlicedLogBloomIndex bitSlicedLogBloomIndex) {
     this.blockchain = blockchain;
     this.cacheDir = cacheDir;
     this.scheduler = scheduler;
+    this.bitSlicedLogBloomIndex = bitSlicedLogBloomIndex;
     this.cachedSegments = new TreeMap<>();
   }
 
@@ -106,7 +116,9 @@ public class TransactionLogBloomCacher {
         }
         for (long blockNum = start; blockNum < stop; blockNum += BLOCKS_PER_BLOOM_CACHE) {
           LOG.trace("Caching segment at {}", blockNum);
+          final long segment = blockNum / BLOCKS_PER_BLOOM_CACHE;
           final File cacheFile = calculateCacheFileName(blockNum, cacheDir);
+          bitSlicedLogBloomIndex.invalidate(segment);
           blockchain
               .getBlockHeader(blockNum)
               .ifPresent(
@@ -114,6 +126,8 @@ public class TransactionLogBloomCacher {
                       cacheLogsBloomForBlockHeader(
                           blockHeader, Optional.empty(), Optional.of(cacheFile)));
           fillCacheFile(blockNum, blockNum + BLOCKS_PER_BLOOM_CACHE, cacheFile);
+          bitSlicedLogBloomIndex.invalidate(segment);
+          bitSlicedLogBloomIndex.build(segment);
         }
       } catch (final Exception e) {
         LOG.error("Unhandled caching exception", e);
@@ -161,7 +175,10 @@ public class TransactionLogBloomCacher {
           .setMessage("Caching logs bloom for block {}")
           .addArgument(() -> "0x" + Long.toHexString(blockNumber))
           .log();
+      final long segment = blockNumber / BLOCKS_PER_BLOOM_CACHE;
       final File cacheFile = reusedCacheFile.orElse(calculateCacheFileName(blockNumber, cacheDir));
+      // the bit-sliced file of the segment must not be used while the segment file changes
+      bitSlicedLogBloomIndex.invalidate(segment);
       if (cacheFile.exists()) {
         try {
           final Optional<Long> ancestorBlockNumber =
@@ -185,6 +202,14 @@ public class TransactionLogBloomCacher {
       } else {
         populateLatestSegment(blockNumber);
       }
+      bitSlicedLogBloomIndex.invalidate(segment);
+      if (blockNumber % BLOCKS_PER_BLOOM_CACHE == BLOCKS_PER_BLOOM_CACHE - 1) {
+        scheduler.scheduleComputationTask(
+            () -> {
+              bitSlicedLogBloomIndex.build(segment);
+              return null;
+            });
+      }
     } catch (final IOException e) {
       if (e.getMessage().contains(NO_SPACE_LEFT_ON_DEVICE)) {
         LOG.error(e.getMessage());
@@ -260,6 +285,7 @@ public class TransactionLogBloomCacher {
           final long fromBlock = segmentNumber * BLOCKS_PER_BLOOM_CACHE;
           final File cacheFile = calculateCacheFileName(fromBlock, cacheDir);
           cachedSegments.remove(segmentNumber);
+          bitSlicedLogBloomIndex.invalidate(segmentNumber);
           if (Files.deleteIfExists(cacheFile.toPath())) {
             LOG.info(
                 "Deleted transaction log bloom cache file: {}/{}", cacheDir, cacheFile.getName());
@@ -300,6 +326,7 @@ public class TransactionLogBloomCacher {
                               || cacheFile.length() != EXPECTED_BLOOM_FILE_SIZE) {
                             generateLogBloomCache(startBlock, startBlock + BLOCKS_PER_BLOOM_CACHE);
                           }
+                          bitSlicedLogBloomIndex.build(currentSegment);
                           cachedSegments.put(currentSegment, true);
                         }
                       } finally {
@@ -0,0 +1,233 @@
+/*
+ * Copyright contributors to Hyperledger Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.api.handlers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import org.hyperledger.besu.ethereum.api.jsonrpc.JsonResponseStreamer;
+import org.hyperledger.besu.ethereum.api.jsonrpc.JsonRpcConfiguration;
+import org.hyperledger.besu.ethereum.api.jsonrpc.execution.JsonRpcExecutor;
+import org.hyperledger.besu.ethereum.api.jsonrpc.internal.response.JsonRpcResponse;
+import org.hyperledger.besu.ethereum.api.jsonrpc.internal.response.JsonRpcSuccessResponse;
+import org.hyperledger.besu.ethereum.api.jsonrpc.internal.response.RpcErrorType;
+import org.hyperledger.besu.metrics.noop.NoOpMetricsSystem;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import io.opentelemetry.context.Context;
+import io.opentelemetry.context.ContextKey;
+import io.opentelemetry.context.Scope;
+import io.vertx.core.Future;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpServerResponse;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.web.RoutingContext;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class JsonRpcArrayExecutorTest {
+  private static final ContextKey<String> BATCH_KEY = ContextKey.named("batch");
+
+  private final JsonRpcExecutor jsonRpcExecutor = mock(JsonRpcExecutor.class);
+  private final HttpServerResponse httpResponse = mock(HttpServerResponse.class);
+  private final Buffer responseBody = Buffer.buffer();
+  private final Thread batchThread = Thread.currentThread();
+  private JsonRpcBatchWorkers batchWorkers;
+
+  @BeforeEach
+  public void setUp() {
+    when(httpResponse.write(any(Buffer.class)))
+        .thenAnswer(
+            invocation -> {
+              responseBody.appendBuffer(invocation.getArgument(0));
+              return Future.succeededFuture();
+            });
+    batchWorkers = new JsonRpcBatchWorkers(4, 4, new NoOpMetricsSystem());
+  }
+
+  @Test
+  public void writesTheResponsesInTheOrderOfTheRequests() throws IOException {
+    final CountDownLatch secondRequestExecuted = new CountDownLatch(1);
+    answerRequests(
+        request -> {
+          if (request.getInteger("id") == 0) {
+            // only completes before the timeout if the second request is executed concurrently
+            assertThat(await(secondRequestExecuted)).isTrue();
+          } else {
+            secondRequestExecuted.countDown();
+          }
+          return success(request);
+        });
+
+    final JsonArray responses =
+        executeBatch(
+            Optional.of(batchWorkers),
+            request(0, "eth_call"),
+            request(1, "eth_getBalance"),
+            "not a request");
+
+    assertThat(responses.size()).isEqualTo(3);
+    assertThat(responses.getJsonObject(0).getInteger("id")).isEqualTo(0);
+    assertThat(responses.getJsonObject(0).getString("result")).isEqualTo("eth_call");
+    assertThat(responses.getJsonObject(1).getInteger("id")).isEqualTo(1);
+    assertThat(responses.getJsonObject(2).getJsonObject("error").getInteger("code"))
+        .isEqualTo(RpcErrorType.INVALID_REQUEST.getCode());
+  }
+
+  @Test
+  public void executesTheOtherRequestsOnceTheRequestsBeforeThemCompleted() throws IOException {
+    final Set<Integer> started = ConcurrentHashMap.newKeySet();
+    final Set<Integer> completed = ConcurrentHashMap.newKeySet();
+    answerRequests(
+        request -> {
+          final int id = request.getInteger("id");
+          started.add(id);
+          if (request.getString("method").equals("eth_sendRawTransaction")) {
+            assertThat(Thread.currentThread()).isSameAs(batchThread);
+            assertThat(completed).containsExactlyInAnyOrder(0, 1);
+            assertThat(started).doesNotContain(3);
+          }
+          completed.add(id);
+          return success(request);
+        });
+
+    final JsonArray responses =
+        executeBatch(
+            Optional.of(batchWorkers),
+            request(0, "eth_call"),
+            request(1, "eth_getBalance"),
+            request(2, "eth_sendRawTransaction"),
+            request(3, "eth_call"));
+
+    assertThat(responseIds(responses)).containsExactly(0, 1, 2, 3);
+    assertThat(completed).containsExactlyInAnyOrder(0, 1, 2, 3);
+  }
+
+  @Test
+  public void executesTheRequestsInOrderWithoutWorkers() throws IOException {
+    final Set<Integer> executed = ConcurrentHashMap.newKeySet();
+    answerRequests(
+        request -> {
+          assertThat(Thread.currentThread()).isSameAs(batchThread);
+          final int id = request.getInteger("id");
+          assertThat(executed).hasSize(id);
+          executed.add(id);
+          return success(request);
+        });
+
+    final JsonArray responses =
+        executeBatch(
+            Optional.empty(),
+            request(0, "eth_call"),
+            request(1, "eth_getBalance"),
+            request(2, "eth_call"));
+
+    assertThat(responseIds(responses)).containsExactly(0, 1, 2);
+  }
+
+  @Test
+  public void answersAFailedConcurrentRequestWithAnInternalError() throws IOException {
+    answerRequests(
+        request -> {
+          if (request.getInteger("id") == 1) {
+            throw new IllegalStateException("failed");
+          }
+          return success(request);
+        });
+
+    final JsonArray responses =
+        executeBatch(
+            Optional.of(batchWorkers),
+            request(0, "eth_call"),
+            request(1, "eth_call"),
+            request(2, "eth_call"));
+
+    assertThat(responseIds(responses)).containsExactly(0, 1, 2);
+    assertThat(responses.getJsonObject(1).getJsonObject("error").getInteger("code"))
+        .isEqualTo(RpcErrorType.INTERNAL_ERROR.getCode());
+  }
+
+  @Test
+  public void executesTheConcurrentRequestsInTheContextOfTheBatch() throws IOException {
+    final Set<String> contexts = ConcurrentHashMap.newKeySet();
+    answerRequests(
+        request -> {
+          contexts.add(String.valueOf(Context.current().get(BATCH_KEY)));
+          return success(request);
+        });
+
+    try (Scope ignored = Context.current().with(BATCH_KEY, "batch").makeCurrent()) {
+      executeBatch(Optional.of(batchWorkers), request(0, "eth_call"), request(1, "eth_call"));
+    }
+
+    assertThat(contexts).containsExactly("batch");
+  }
+
+  private void answerRequests(final Function<JsonObject, JsonRpcResponse> answer) {
+    when(jsonRpcExecutor.execute(any(), any(), any(), any(), any(), any()))
+        .thenAnswer(invocation -> answer.apply(invocation.getArgument(4)));
+  }
+
+  private JsonArray executeBatch(
+      final Optional<JsonRpcBatchWorkers> workers, final Object... requests) throws IOException {
+    final JsonRpcArrayExecutor executor =
+        new JsonRpcArrayExecutor(
+            jsonRpcExecutor,
+            null,
+            mock(RoutingContext.class),
+            JsonRpcConfiguration.createDefault(),
+            workers);
+    try (final JsonResponseStreamer streamer = new JsonResponseStreamer(httpResponse, null)) {
+      executor.executeRpcRequestBatch(new JsonArray(List.of(requests)), streamer);
+    }
+    return responseBody.toJsonArray();
+  }
+
+  private static List<Integer> responseIds(final JsonArray responses) {
+    return responses.stream().map(response -> ((JsonObject) response).getInteger("id")).toList();
+  }
+
+  private static JsonObject request(final int id, final String method) {
+    return new JsonObject()
+        .put("jsonrpc", "2.0")
+        .put("id", id)
+        .put("method", method)
+        .put("params", new JsonArray());
+  }
+
+  private static JsonRpcResponse success(final JsonObject request) {
+    return new JsonRpcSuccessResponse(request.getInteger("id"), request.getString("method"));
+  }
+
+  private static boolean await(final CountDownLatch latch) {
+    try {
+      return latch.await(10, TimeUnit.SECONDS);
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return false;
+    }
+  }
+}
@@ -201,6 +201,7 @@ public abstract class AbstractJsonRpcHttpServiceTest {
             mock(EthPeers.class),
             syncVertx,
             mock(ApiConfiguration.class),
+            Optional.empty(),
             Optional.empty());
   }
 
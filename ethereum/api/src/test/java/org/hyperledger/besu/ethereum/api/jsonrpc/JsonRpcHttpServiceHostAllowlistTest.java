@@ -138,6 +138,7 @@ public class JsonRpcHttpServiceHostAllowlistTest {
                 mock(EthPeers.class),
                 vertx,
                 mock(ApiConfiguration.class),
+                Optional.empty(),
                 Optional.empty());
     service = createJsonRpcHttpService();
     service.start().join();
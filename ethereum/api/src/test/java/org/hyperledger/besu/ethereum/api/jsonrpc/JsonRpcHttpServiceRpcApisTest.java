@@ -235,6 +235,7 @@ public class JsonRpcHttpServiceRpcApisTest {
                 mock(EthPeers.class),
                 vertx,
                 mock(ApiConfiguration.class),
+                Optional.empty(),
                 Optional.empty());
     final JsonRpcHttpService jsonRpcHttpService =
         new JsonRpcHttpService(
@@ -346,6 +347,7 @@ public class JsonRpcHttpServiceRpcApisTest {
                 mock(EthPeers.class),
                 vertx,
                 mock(ApiConfiguration.class),
+                Optional.empty(),
                 Optional.empty());
     final JsonRpcHttpService jsonRpcHttpService =
         new JsonRpcHttpService(
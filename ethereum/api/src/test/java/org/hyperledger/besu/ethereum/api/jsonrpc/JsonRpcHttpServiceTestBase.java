@@ -147,6 +147,7 @@ public class JsonRpcHttpServiceTestBase {
                 ethPeersMock,
                 vertx,
                 mock(ApiConfiguration.class),
+                Optional.empty(),
                 Optional.empty());
     disabledRpcMethods = new HashMap<>();
     addedRpcMethods = new HashSet<>();
@@ -140,6 +140,7 @@ class JsonRpcHttpServiceTlsMisconfigurationTest {
                 mock(EthPeers.class),
                 vertx,
                 mock(ApiConfiguration.class),
+                Optional.empty(),
                 Optional.empty());
   }
 
@@ -0,0 +1,197 @@
+/*
+ * Copyright contributors to Hyperledger Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.api.jsonrpc.execution;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.hyperledger.besu.datatypes.Hash;
+import org.hyperledger.besu.ethereum.api.jsonrpc.internal.JsonRpcRequest;
+import org.hyperledger.besu.ethereum.api.jsonrpc.internal.JsonRpcRequestContext;
+import org.hyperledger.besu.ethereum.api.jsonrpc.internal.JsonRpcRequestId;
+import org.hyperledger.besu.ethereum.api.jsonrpc.internal.methods.JsonRpcMethod;
+import org.hyperledger.besu.ethereum.api.jsonrpc.internal.response.JsonRpcResponse;
+import org.hyperledger.besu.ethereum.api.jsonrpc.internal.response.JsonRpcSuccessResponse;
+import org.hyperledger.besu.ethereum.chain.Blockchain;
+import org.hyperledger.besu.ethereum.core.BlockHeader;
+import org.hyperledger.besu.ethereum.core.BlockHeaderTestFixture;
+import org.hyperledger.besu.metrics.noop.NoOpMetricsSystem;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.IntStream;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializable;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+import io.opentelemetry.api.trace.Span;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class CachingJsonRpcProcessorTest {
+  private static final long FINALIZED_BLOCK_NUMBER = 10L;
+  private static final Map<String, Object> RESULT =
+      Map.of("number", "0x5", "hash", Hash.ZERO.toHexString(), "transactions", List.of());
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+  private final Blockchain blockchain = mock(Blockchain.class);
+  private final JsonRpcProcessor delegate = mock(JsonRpcProcessor.class);
+  private final JsonRpcMethod method = mock(JsonRpcMethod.class);
+  private CachingJsonRpcProcessor processor;
+
+  @BeforeEach
+  public void setUp() {
+    for (long number = 0; number <= FINALIZED_BLOCK_NUMBER + 5; number++) {
+      final BlockHeader header = new BlockHeaderTestFixture().number(number).buildHeader();
+      when(blockchain.getBlockHeader(number)).thenReturn(Optional.of(header));
+      when(blockchain.getBlockHeader(header.getHash())).thenReturn(Optional.of(header));
+      when(blockchain.getBlockHashByNumber(number)).thenReturn(Optional.of(header.getHash()));
+      if (number == FINALIZED_BLOCK_NUMBER) {
+        when(blockchain.getFinalized()).thenReturn(Optional.of(header.getHash()));
+      }
+    }
+    when(delegate.process(any(), any(), any(), any()))
+        .thenAnswer(
+            invocation ->
+                new JsonRpcSuccessResponse(
+                    invocation.<JsonRpcRequestId>getArgument(0).getValue(), RESULT));
+    processor =
+        new CachingJsonRpcProcessor(delegate, blockchain, 1024 * 1024, new NoOpMetricsSystem());
+  }
+
+  @Test
+  public void finalizedBlockResponseIsServedFromCache() throws Exception {
+    process(1, "eth_getBlockByNumber", "0x5", false);
+    final JsonRpcResponse cached = process(2, "eth_getBlockByNumber", "0x5", false);
+
+    verify(delegate, times(1)).process(any(), any(), any(), any());
+    assertThat(objectMapper.readTree(objectMapper.writeValueAsString(cached)))
+        .isEqualTo(
+            objectMapper.readTree(
+                objectMapper.writeValueAsString(new JsonRpcSuccessResponse(2, RESULT))));
+  }
+
+  @Test
+  public void otherParametersArePartOfTheKey() {
+    process(1, "eth_getBlockByNumber", "0x5", false);
+    process(2, "eth_getBlockByNumber", "0x5", true);
+
+    verify(delegate, times(2)).process(any(), any(), any(), any());
+  }
+
+  @Test
+  public void blockAboveFinalizedIsNotCached() {
+    process(1, "eth_getBlockByNumber", "0xb", false);
+    process(2, "eth_getBlockByNumber", "0xb", false);
+
+    verify(delegate, times(2)).process(any(), any(), any(), any());
+  }
+
+  @Test
+  public void blockTagIsNotCached() {
+    process(1, "eth_getBlockByNumber", "latest", false);
+    process(2, "eth_getBlockByNumber", "latest", false);
+
+    verify(delegate, times(2)).process(any(), any(), any(), any());
+  }
+
+  @Test
+  public void otherMethodsAreNotCached() {
+    process(1, "eth_getBalance", "0x0000000000000000000000000000000000000000", "0x5");
+    process(2, "eth_getBalance", "0x0000000000000000000000000000000000000000", "0x5");
+
+    verify(delegate, times(2)).process(any(), any(), any(), any());
+  }
+
+  @Test
+  public void streamedResultIsCachedOnceWritten() throws Exception {
+    answerWithStreamedResult(10);
+    final List<Integer> result = IntStream.range(0, 10).boxed().toList();
+
+    final JsonRpcResponse streamed = process(1, "debug_traceBlockByNumber", "0x5");
+    assertThat(objectMapper.readTree(objectMapper.writeValueAsString(streamed)))
+        .isEqualTo(
+            objectMapper.readTree(
+                objectMapper.writeValueAsString(new JsonRpcSuccessResponse(1, result))));
+
+    final JsonRpcResponse cached = process(2, "debug_traceBlockByNumber", "0x5");
+    verify(delegate, times(1)).process(any(), any(), any(), any());
+    assertThat(objectMapper.readTree(objectMapper.writeValueAsString(cached)))
+        .isEqualTo(
+            objectMapper.readTree(
+                objectMapper.writeValueAsString(new JsonRpcSuccessResponse(2, result))));
+  }
+
+  @Test
+  public void streamedResultLargerThanATenthOfTheCacheIsNotCached() throws Exception {
+    answerWithStreamedResult(100_000);
+
+    objectMapper.writeValueAsString(process(1, "debug_traceBlockByNumber", "0x5"));
+    objectMapper.writeValueAsString(process(2, "debug_traceBlockByNumber", "0x5"));
+
+    verify(delegate, times(2)).process(any(), any(), any(), any());
+  }
+
+  private void answerWithStreamedResult(final int length) {
+    when(delegate.process(any(), any(), any(), any()))
+        .thenAnswer(
+            invocation ->
+                new JsonRpcSuccessResponse(
+                    invocation.<JsonRpcRequestId>getArgument(0).getValue(),
+                    new JsonSerializable.Base() {
+                      @Override
+                      public void serialize(
+                          final JsonGenerator gen, final SerializerProvider serializers)
+                          throws IOException {
+                        gen.writeStartArray();
+                        for (int i = 0; i < length; i++) {
+                          gen.writeNumber(i);
+                        }
+                        gen.writeEndArray();
+                      }
+
+                      @Override
+                      public void serializeWithType(
+                          final JsonGenerator gen,
+                          final SerializerProvider serializers,
+                          final TypeSerializer typeSer)
+                          throws IOException {
+                        serialize(gen, serializers);
+                      }
+                    }));
+  }
+
+  private JsonRpcResponse process(final int id, final String methodName, final Object... params) {
+    final JsonRpcRequest request =
+        new JsonObject()
+            .put("jsonrpc", "2.0")
+            .put("id", id)
+            .put("method", methodName)
+            .put("params", new JsonArray(List.of(params)))
+            .mapTo(JsonRpcRequest.class);
+    return processor.process(
+        new JsonRpcRequestId(id), method, Span.getInvalid(), new JsonRpcRequestContext(request));
+  }
+}
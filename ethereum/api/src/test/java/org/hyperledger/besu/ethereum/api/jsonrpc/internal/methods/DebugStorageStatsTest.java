@@ -0,0 +1,79 @@
+/*
+ * Copyright contributors to Hyperledger Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.api.jsonrpc.internal.methods;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.hyperledger.besu.ethereum.api.jsonrpc.internal.JsonRpcRequest;
+import org.hyperledger.besu.ethereum.api.jsonrpc.internal.JsonRpcRequestContext;
+import org.hyperledger.besu.ethereum.api.jsonrpc.internal.response.JsonRpcErrorResponse;
+import org.hyperledger.besu.ethereum.api.jsonrpc.internal.response.JsonRpcResponse;
+import org.hyperledger.besu.ethereum.api.jsonrpc.internal.response.JsonRpcSuccessResponse;
+import org.hyperledger.besu.ethereum.api.jsonrpc.internal.response.RpcErrorType;
+import org.hyperledger.besu.ethereum.storage.keyvalue.KeyValueSegmentIdentifier;
+import org.hyperledger.besu.services.kvstore.SegmentedStorageStats;
+import org.hyperledger.besu.services.kvstore.SegmentedStorageStats.Operation;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+
+public class DebugStorageStatsTest {
+
+  private static final JsonRpcRequestContext REQUEST =
+      new JsonRpcRequestContext(new JsonRpcRequest("2.0", "debug_storageStats", new Object[0]));
+
+  @Test
+  public void shouldHaveCorrectName() {
+    assertThat(new DebugStorageStats(Optional.empty()).getName()).isEqualTo("debug_storageStats");
+  }
+
+  @Test
+  public void shouldFailWhenTheStorageIsNotInstrumented() {
+    final JsonRpcResponse response = new DebugStorageStats(Optional.empty()).response(REQUEST);
+
+    assertThat(response).isInstanceOf(JsonRpcErrorResponse.class);
+    assertThat(((JsonRpcErrorResponse) response).getErrorType())
+        .isEqualTo(RpcErrorType.STORAGE_STATS_NOT_ENABLED);
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void shouldReportTheLatenciesAndHotKeysOfEachSegment() {
+    final SegmentedStorageStats stats = new SegmentedStorageStats(1, 4);
+    stats.recordLatency(KeyValueSegmentIdentifier.BLOCKCHAIN, Operation.GET, 1_000);
+    stats.sampleKey(KeyValueSegmentIdentifier.BLOCKCHAIN, new byte[] {1, 2});
+
+    final JsonRpcResponse response = new DebugStorageStats(Optional.of(stats)).response(REQUEST);
+
+    assertThat(response).isInstanceOf(JsonRpcSuccessResponse.class);
+    final Map<String, Object> segments =
+        (Map<String, Object>) ((JsonRpcSuccessResponse) response).getResult();
+    final Map<String, Object> blockchain =
+        (Map<String, Object>) segments.get(KeyValueSegmentIdentifier.BLOCKCHAIN.getName());
+    final Map<String, Object> latencies = (Map<String, Object>) blockchain.get("latencies");
+    assertThat(latencies).containsOnlyKeys("get");
+    assertThat((Map<String, Object>) latencies.get("get")).containsEntry("count", 1L);
+    assertThat((List<Map<String, Object>>) blockchain.get("hotKeys"))
+        .singleElement()
+        .satisfies(
+            hotKey -> {
+              assertThat(hotKey).containsEntry("key", "0x0102");
+              assertThat(hotKey).containsEntry("estimatedAccesses", 1L);
+            });
+  }
+}
@@ -15,8 +15,8 @@
 package org.hyperledger.besu.ethereum.api.jsonrpc.internal.methods;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
@@ -25,24 +25,30 @@ import org.hyperledger.besu.datatypes.Hash;
 import org.hyperledger.besu.datatypes.Wei;
 import org.hyperledger.besu.ethereum.api.jsonrpc.internal.JsonRpcRequest;
 import org.hyperledger.besu.ethereum.api.jsonrpc.internal.JsonRpcRequestContext;
+import org.hyperledger.besu.ethereum.api.jsonrpc.internal.exception.InvalidJsonRpcParameters;
 import org.hyperledger.besu.ethereum.api.jsonrpc.internal.processor.BlockTrace;
 import org.hyperledger.besu.ethereum.api.jsonrpc.internal.processor.BlockTracer;
 import org.hyperledger.besu.ethereum.api.jsonrpc.internal.processor.Tracer;
 import org.hyperledger.besu.ethereum.api.jsonrpc.internal.processor.TransactionTrace;
 import org.hyperledger.besu.ethereum.api.jsonrpc.internal.response.JsonRpcResponse;
 import org.hyperledger.besu.ethereum.api.jsonrpc.internal.response.JsonRpcSuccessResponse;
+import org.hyperledger.besu.ethereum.api.jsonrpc.internal.response.RpcErrorType;
 import org.hyperledger.besu.ethereum.api.query.BlockchainQueries;
-import org.hyperledger.besu.ethereum.core.BlockHeader;
+import org.hyperledger.besu.ethereum.core.Block;
+import org.hyperledger.besu.ethereum.core.BlockDataGenerator;
 import org.hyperledger.besu.ethereum.core.MutableWorldState;
 import org.hyperledger.besu.ethereum.debug.TraceFrame;
 import org.hyperledger.besu.ethereum.processing.TransactionProcessingResult;
 
 import java.util.Arrays;
-import java.util.Collection;
+import java.util.Map;
 import java.util.Optional;
 import java.util.OptionalLong;
+import java.util.function.Consumer;
 import java.util.function.Function;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.apache.tuweni.bytes.Bytes;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -55,25 +61,23 @@ public class DebugTraceBlockByHashTest {
   private final BlockchainQueries blockchainQueries =
       mock(BlockchainQueries.class, Answers.RETURNS_DEEP_STUBS);
   private final MutableWorldState mutableWorldState = mock(MutableWorldState.class);
-  private final BlockHeader blockHeader = mock(BlockHeader.class, Answers.RETURNS_DEEP_STUBS);
+  private final Block block = new BlockDataGenerator().block();
   private final DebugTraceBlockByHash debugTraceBlockByHash =
       new DebugTraceBlockByHash(() -> blockTracer, () -> blockchainQueries);
 
-  private final Hash blockHash =
-      Hash.fromHexString("aaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaa");
+  private final Hash blockHash = block.getHash();
 
   @BeforeEach
   public void setUp() {
-    doAnswer(
+    when(blockchainQueries.getAndMapWorldState(eq(block.getHeader().getParentHash()), any()))
+        .thenAnswer(
             invocation ->
                 invocation
                     .<Function<MutableWorldState, Optional<? extends JsonRpcResponse>>>getArgument(
                         1)
-                    .apply(mutableWorldState))
-        .when(blockchainQueries)
-        .getAndMapWorldState(any(), any());
-    when(blockchainQueries.getBlockHeaderByHash(any(Hash.class)))
-        .thenReturn(Optional.of(blockHeader));
+                    .apply(mutableWorldState));
+    when(blockchainQueries.getBlockchain().getBlockByHash(blockHash))
+        .thenReturn(Optional.of(block));
   }
 
   @Test
@@ -128,12 +132,44 @@ public class DebugTraceBlockByHashTest {
     when(transaction2Trace.getResult()).thenReturn(transaction2Result);
     when(transaction1Result.getOutput()).thenReturn(Bytes.fromHexString("1234"));
     when(transaction2Result.getOutput()).thenReturn(Bytes.fromHexString("1234"));
-    when(blockTracer.trace(any(Tracer.TraceableState.class), eq(blockHash), any()))
-        .thenReturn(Optional.of(blockTrace));
+    when(blockTracer.trace(any(Tracer.TraceableState.class), eq(block), any(), any()))
+        .thenAnswer(
+            invocation -> {
+              final Consumer<TransactionTrace> traceConsumer = invocation.getArgument(3);
+              blockTrace.getTransactionTraces().forEach(traceConsumer);
+              return Optional.of(blockTrace);
+            });
 
     final JsonRpcSuccessResponse response =
         (JsonRpcSuccessResponse) debugTraceBlockByHash.response(request);
-    final Collection<?> result = (Collection<?>) response.getResult();
+    final JsonNode result = new ObjectMapper().valueToTree(response.getResult());
     assertThat(result).hasSize(2);
+    assertThat(result.get(0).get("structLogs")).hasSize(1);
+    assertThat(result.get(0).get("returnValue").asText()).isEqualTo("1234");
+  }
+
+  @Test
+  public void shouldReturnNullWhenWorldStateNotAvailable() {
+    final Object[] params = new Object[] {blockHash};
+    final JsonRpcRequestContext request =
+        new JsonRpcRequestContext(new JsonRpcRequest("2.0", "debug_traceBlockByHash", params));
+    when(blockchainQueries.getAndMapWorldState(any(), any())).thenReturn(Optional.empty());
+
+    final JsonRpcSuccessResponse response =
+        (JsonRpcSuccessResponse) debugTraceBlockByHash.response(request);
+    final JsonNode result = new ObjectMapper().valueToTree(response.getResult());
+    assertThat(result.isNull()).isTrue();
+  }
+
+  @Test
+  public void shouldRejectNativeTracer() {
+    final Object[] params = new Object[] {blockHash, Map.of("tracer", "callTracer")};
+    final JsonRpcRequestContext request =
+        new JsonRpcRequestContext(new JsonRpcRequest("2.0", "debug_traceBlockByHash", params));
+
+    assertThatThrownBy(() -> debugTraceBlockByHash.response(request))
+        .isInstanceOf(InvalidJsonRpcParameters.class)
+        .hasFieldOrPropertyWithValue(
+            "rpcErrorType", RpcErrorType.INVALID_TRANSACTION_TRACE_PARAMS);
   }
 }
@@ -17,33 +17,40 @@ package org.hyperledger.besu.ethereum.api.jsonrpc.internal.methods;
 import static java.util.Arrays.asList;
 import static java.util.Collections.singletonList;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
-import org.hyperledger.besu.datatypes.Hash;
 import org.hyperledger.besu.datatypes.Wei;
 import org.hyperledger.besu.ethereum.api.jsonrpc.internal.JsonRpcRequest;
 import org.hyperledger.besu.ethereum.api.jsonrpc.internal.JsonRpcRequestContext;
+import org.hyperledger.besu.ethereum.api.jsonrpc.internal.exception.InvalidJsonRpcParameters;
 import org.hyperledger.besu.ethereum.api.jsonrpc.internal.processor.BlockTrace;
 import org.hyperledger.besu.ethereum.api.jsonrpc.internal.processor.BlockTracer;
 import org.hyperledger.besu.ethereum.api.jsonrpc.internal.processor.Tracer;
 import org.hyperledger.besu.ethereum.api.jsonrpc.internal.processor.TransactionTrace;
 import org.hyperledger.besu.ethereum.api.jsonrpc.internal.response.JsonRpcResponse;
 import org.hyperledger.besu.ethereum.api.jsonrpc.internal.response.JsonRpcSuccessResponse;
+import org.hyperledger.besu.ethereum.api.jsonrpc.internal.response.RpcErrorType;
 import org.hyperledger.besu.ethereum.api.jsonrpc.internal.results.DebugTraceTransactionResult;
 import org.hyperledger.besu.ethereum.api.query.BlockchainQueries;
-import org.hyperledger.besu.ethereum.core.BlockHeader;
+import org.hyperledger.besu.ethereum.core.Block;
+import org.hyperledger.besu.ethereum.core.BlockDataGenerator;
 import org.hyperledger.besu.ethereum.core.MutableWorldState;
 import org.hyperledger.besu.ethereum.debug.TraceFrame;
 import org.hyperledger.besu.ethereum.processing.TransactionProcessingResult;
 
-import java.util.Collection;
+import java.util.Map;
 import java.util.Optional;
 import java.util.OptionalLong;
+import java.util.function.Consumer;
 import java.util.function.Function;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.apache.tuweni.bytes.Bytes;
 import org.junit.jupiter.api.Test;
 import org.mockito.Answers;
@@ -58,8 +65,7 @@ public class DebugTraceBlockByNumberTest {
   private final DebugTraceBlockByNumber debugTraceBlockByNumber =
       new DebugTraceBlockByNumber(() -> blockTracer, blockchainQueries);
 
-  private final Hash blockHash =
-      Hash.fromHexString("aaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaa");
+  private final Block block = new BlockDataGenerator().block();
 
   @Test
   public void nameShouldBeDebugTraceBlockByNumber() {
@@ -114,9 +120,10 @@ public class DebugTraceBlockByNumberTest {
     when(transaction2Trace.getResult()).thenReturn(transaction2Result);
     when(transaction1Result.getOutput()).thenReturn(Bytes.fromHexString("1234"));
     when(transaction2Result.getOutput()).thenReturn(Bytes.fromHexString("1234"));
-    when(blockchainQueries.getBlockHashByNumber(blockNumber)).thenReturn(Optional.of(blockHash));
-    when(blockchainQueries.getBlockHeaderByHash(any(Hash.class)))
-        .thenReturn(Optional.of(mock(BlockHeader.class, Answers.RETURNS_DEEP_STUBS)));
+    when(blockchainQueries.getBlockHashByNumber(blockNumber))
+        .thenReturn(Optional.of(block.getHash()));
+    when(blockchainQueries.getBlockchain().getBlockByHash(block.getHash()))
+        .thenReturn(Optional.of(block));
 
     doAnswer(
             invocation ->
@@ -126,19 +133,32 @@ public class DebugTraceBlockByNumberTest {
                     .apply(worldState))
         .when(blockchainQueries)
         .getAndMapWorldState(any(), any());
-    when(blockTracer.trace(any(Tracer.TraceableState.class), any(Hash.class), any()))
-        .thenReturn(Optional.of(blockTrace));
+    when(blockTracer.trace(any(Tracer.TraceableState.class), eq(block), any(), any()))
+        .thenAnswer(
+            invocation -> {
+              final Consumer<TransactionTrace> traceConsumer = invocation.getArgument(3);
+              blockTrace.getTransactionTraces().forEach(traceConsumer);
+              return Optional.of(blockTrace);
+            });
 
     final JsonRpcSuccessResponse response =
         (JsonRpcSuccessResponse) debugTraceBlockByNumber.response(request);
-    final Collection<DebugTraceTransactionResult> result = getResult(response);
+    final ObjectMapper mapper = new ObjectMapper();
+    final JsonNode result = mapper.valueToTree(response.getResult());
     assertThat(result)
-        .usingFieldByFieldElementComparator()
-        .isEqualTo(DebugTraceTransactionResult.of(blockTrace.getTransactionTraces()));
+        .isEqualTo(
+            mapper.valueToTree(DebugTraceTransactionResult.of(blockTrace.getTransactionTraces())));
   }
 
-  @SuppressWarnings("unchecked")
-  private Collection<DebugTraceTransactionResult> getResult(final JsonRpcSuccessResponse response) {
-    return (Collection<DebugTraceTransactionResult>) response.getResult();
+  @Test
+  public void shouldRejectNativeTracer() {
+    final Object[] params = new Object[] {"0x1", Map.of("tracer", "prestateTracer")};
+    final JsonRpcRequestContext request =
+        new JsonRpcRequestContext(new JsonRpcRequest("2.0", "debug_traceBlockByNumber", params));
+
+    assertThatThrownBy(() -> debugTraceBlockByNumber.response(request))
+        .isInstanceOf(InvalidJsonRpcParameters.class)
+        .hasFieldOrPropertyWithValue(
+            "rpcErrorType", RpcErrorType.INVALID_TRANSACTION_TRACE_PARAMS);
   }
 }
@@ -15,16 +15,20 @@
 package org.hyperledger.besu.ethereum.api.jsonrpc.internal.methods;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import org.hyperledger.besu.datatypes.Hash;
 import org.hyperledger.besu.datatypes.Wei;
 import org.hyperledger.besu.ethereum.api.jsonrpc.internal.JsonRpcRequest;
 import org.hyperledger.besu.ethereum.api.jsonrpc.internal.JsonRpcRequestContext;
+import org.hyperledger.besu.ethereum.api.jsonrpc.internal.exception.InvalidJsonRpcParameters;
 import org.hyperledger.besu.ethereum.api.jsonrpc.internal.processor.Tracer;
 import org.hyperledger.besu.ethereum.api.jsonrpc.internal.processor.TransactionTrace;
 import org.hyperledger.besu.ethereum.api.jsonrpc.internal.processor.TransactionTracer;
@@ -32,6 +36,7 @@ import org.hyperledger.besu.ethereum.api.jsonrpc.internal.response.JsonRpcRespon
 import org.hyperledger.besu.ethereum.api.jsonrpc.internal.response.JsonRpcSuccessResponse;
 import org.hyperledger.besu.ethereum.api.jsonrpc.internal.results.DebugTraceTransactionResult;
 import org.hyperledger.besu.ethereum.api.jsonrpc.internal.results.StructLog;
+import org.hyperledger.besu.ethereum.api.jsonrpc.internal.results.tracing.call.CallTracer;
 import org.hyperledger.besu.ethereum.api.query.BlockchainQueries;
 import org.hyperledger.besu.ethereum.api.query.TransactionWithMetadata;
 import org.hyperledger.besu.ethereum.core.BlockHeader;
@@ -225,4 +230,43 @@ public class DebugTraceTransactionTest {
 
     assertThat(response.getResult()).isNull();
   }
+
+  @Test
+  public void shouldTraceTheTransactionWithTheCallTracer() {
+    final TransactionWithMetadata transactionWithMetadata =
+        new TransactionWithMetadata(transaction, 12L, Optional.empty(), blockHash, 2);
+    final Object[] params = new Object[] {transactionHash, Map.of("tracer", "callTracer")};
+    final JsonRpcRequestContext request =
+        new JsonRpcRequestContext(new JsonRpcRequest("2.0", "debug_traceTransaction", params));
+    when(blockchainQueries.transactionByHash(transactionHash))
+        .thenReturn(Optional.of(transactionWithMetadata));
+    when(transactionTracer.traceTransactionWithTracer(
+            any(Tracer.TraceableState.class),
+            eq(blockHash),
+            eq(transactionHash),
+            any(CallTracer.class)))
+        .thenReturn(Optional.of(mock(TransactionProcessingResult.class)));
+
+    final JsonRpcSuccessResponse response =
+        (JsonRpcSuccessResponse) debugTraceTransaction.response(request);
+
+    // the tracer was not driven by an execution, so it has no call
+    assertThat(response.getResult()).isNull();
+    verify(transactionTracer, never()).traceTransaction(any(), any(), any(), any());
+  }
+
+  @Test
+  public void shouldRejectUnknownTracer() {
+    final TransactionWithMetadata transactionWithMetadata =
+        new TransactionWithMetadata(transaction, 12L, Optional.empty(), blockHash, 2);
+    final Object[] params = new Object[] {transactionHash, Map.of("tracer", "fourByteTracer")};
+    final JsonRpcRequestContext request =
+        new JsonRpcRequestContext(new JsonRpcRequest("2.0", "debug_traceTransaction", params));
+    when(blockchainQueries.transactionByHash(transactionHash))
+        .thenReturn(Optional.of(transactionWithMetadata));
+
+    assertThatThrownBy(() -> debugTraceTransaction.response(request))
+        .isInstanceOf(InvalidJsonRpcParameters.class)
+        .hasMessage("Invalid transaction trace parameter (index 1)");
+  }
 }
@@ -17,6 +17,7 @@ package org.hyperledger.besu.ethereum.api.jsonrpc.internal.methods;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atMost;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -45,6 +46,8 @@ import org.hyperledger.besu.ethereum.transaction.TransactionInvalidReason;
 import org.hyperledger.besu.ethereum.transaction.TransactionSimulator;
 import org.hyperledger.besu.ethereum.transaction.TransactionSimulatorResult;
 import org.hyperledger.besu.ethereum.worldstate.WorldStateArchive;
+import org.hyperledger.besu.evm.frame.MessageFrame;
+import org.hyperledger.besu.evm.tracing.EstimateGasOperationTracer;
 import org.hyperledger.besu.evm.tracing.OperationTracer;
 
 import java.util.Optional;
@@ -407,6 +410,82 @@ public class EthEstimateGasTest {
     assertThat(method.response(request)).usingRecursiveComparison().isEqualTo(expectedResponse);
   }
 
+  @Test
+  public void shouldSearchTheMinimumGasBelowTheTracedUpperBound() {
+    final JsonRpcRequestContext request =
+        ethEstimateGasRequest(defaultLegacyTransactionCallParameter(Wei.ZERO));
+    mockGasDependentExecution(50_000L, 2, 51_000L);
+
+    final JsonRpcResponse expectedResponse =
+        new JsonRpcSuccessResponse(null, Quantity.create(51_000L));
+
+    assertThat(method.response(request)).usingRecursiveComparison().isEqualTo(expectedResponse);
+  }
+
+  @Test
+  public void shouldSearchAboveTheTracedUpperBoundWhenNotEnough() {
+    final JsonRpcRequestContext request =
+        ethEstimateGasRequest(defaultLegacyTransactionCallParameter(Wei.ZERO));
+    mockGasDependentExecution(50_000L, 2, 60_000L);
+
+    final JsonRpcResponse expectedResponse =
+        new JsonRpcSuccessResponse(null, Quantity.create(60_000L));
+
+    assertThat(method.response(request)).usingRecursiveComparison().isEqualTo(expectedResponse);
+  }
+
+  @Test
+  public void shouldStopSearchingWithinTolerance() {
+    method = new EthEstimateGas(blockchainQueries, transactionSimulator, 0.02);
+    final JsonRpcRequestContext request =
+        ethEstimateGasRequest(defaultLegacyTransactionCallParameter(Wei.ZERO));
+    mockGasDependentExecution(50_000L, 2, 51_000L);
+
+    final JsonRpcSuccessResponse response = (JsonRpcSuccessResponse) method.response(request);
+
+    final long estimate = Long.decode((String) response.getResult());
+    assertThat(estimate).isBetween(51_000L, (long) (51_000L * 1.02));
+    verify(transactionSimulator, atMost(4))
+        .process(
+            any(CallParameter.class),
+            any(TransactionValidationParams.class),
+            any(OperationTracer.class),
+            eq(latestBlockHeader));
+  }
+
+  /** Mocks a transaction which succeeds with at least the gas needed, at the given call depth. */
+  private void mockGasDependentExecution(
+      final long gasUsed, final int callDepth, final long gasNeeded) {
+    final MessageFrame frame = mock(MessageFrame.class);
+    when(frame.getDepth()).thenReturn(callDepth);
+    final TransactionSimulatorResult successfulResult = simulatorResult(gasUsed, true);
+    final TransactionSimulatorResult failedResult = simulatorResult(gasUsed, false);
+    when(transactionSimulator.process(
+            any(CallParameter.class),
+            any(TransactionValidationParams.class),
+            any(OperationTracer.class),
+            eq(latestBlockHeader)))
+        .thenAnswer(
+            invocation -> {
+              if (invocation.getArgument(2) instanceof EstimateGasOperationTracer tracer) {
+                tracer.tracePostExecution(frame, null);
+              }
+              final CallParameter callParameter = invocation.getArgument(0);
+              return Optional.of(
+                  callParameter.getGasLimit() >= gasNeeded ? successfulResult : failedResult);
+            });
+  }
+
+  private TransactionSimulatorResult simulatorResult(
+      final long gasUsed, final boolean isSuccessful) {
+    final TransactionProcessingResult processingResult = mock(TransactionProcessingResult.class);
+    when(processingResult.getEstimateGasUsedByTransaction()).thenReturn(gasUsed);
+    final TransactionSimulatorResult result = mock(TransactionSimulatorResult.class);
+    when(result.result()).thenReturn(processingResult);
+    when(result.isSuccessful()).thenReturn(isSuccessful);
+    return result;
+  }
+
   private void mockTransientProcessorResultTxInvalidReason(
       final TransactionInvalidReason reason,
       final String validationFailedErrorMessage,
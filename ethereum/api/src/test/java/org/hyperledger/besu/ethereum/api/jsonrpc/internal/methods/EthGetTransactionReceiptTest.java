@@ -37,11 +37,12 @@ import org.hyperledger.besu.ethereum.api.query.BlockchainQueries;
 import org.hyperledger.besu.ethereum.api.query.TransactionReceiptWithMetadata;
 import org.hyperledger.besu.ethereum.chain.Blockchain;
 import org.hyperledger.besu.ethereum.chain.TransactionLocation;
-import org.hyperledger.besu.ethereum.core.Block;
 import org.hyperledger.besu.ethereum.core.BlockBody;
 import org.hyperledger.besu.ethereum.core.BlockDataGenerator;
 import org.hyperledger.besu.ethereum.core.BlockHeader;
 import org.hyperledger.besu.ethereum.core.BlockHeaderTestFixture;
+import org.hyperledger.besu.ethereum.core.LazyBlockBody;
+import org.hyperledger.besu.ethereum.core.LazyTransactionReceipts;
 import org.hyperledger.besu.ethereum.core.MiningParameters;
 import org.hyperledger.besu.ethereum.core.Transaction;
 import org.hyperledger.besu.ethereum.core.TransactionReceipt;
@@ -283,7 +284,8 @@ public class EthGetTransactionReceiptTest {
 
     var hash = Hash.wrap(Bytes32.random());
     mockBlockWithBlobTransaction(hash, 1L);
-    when(blockchain.getTxReceipts(hash)).thenReturn(Optional.of(List.of(statusReceipt)));
+    when(blockchain.getLazyTxReceipts(hash))
+        .thenReturn(Optional.of(LazyTransactionReceipts.of(List.of(statusReceipt))));
     // Call the real method to get the transaction receipt by transaction hash
     when(blockchainQueries.transactionReceiptByTransactionHash(receiptHash, protocolSchedule))
         .thenCallRealMethod();
@@ -301,8 +303,10 @@ public class EthGetTransactionReceiptTest {
   private void mockBlockWithBlobTransaction(final Hash blockHash, final long blockNumber) {
     Hash parentHash = Hash.wrap(Bytes32.random());
     TransactionLocation transactionLocation = mock(TransactionLocation.class);
-    Block block = mock(Block.class);
-    BlockBody body = mock(BlockBody.class);
+    BlockBody body =
+        new BlockBody(
+            List.of(new BlockDataGenerator().transaction(TransactionType.BLOB)),
+            Collections.emptyList());
     BlockHeader header = mock(BlockHeader.class);
     BlockHeader parentHeader = mock(BlockHeader.class);
     when(transactionLocation.getBlockHash()).thenReturn(blockHash);
@@ -311,12 +315,9 @@ public class EthGetTransactionReceiptTest {
     when(header.getBlockHash()).thenReturn(blockHash);
     when(header.getParentHash()).thenReturn(parentHash);
     when(blockchain.getBlockHeader(parentHash)).thenReturn(Optional.of(parentHeader));
-    when(block.getHeader()).thenReturn(header);
-    when(block.getBody()).thenReturn(body);
-    when(body.getTransactions())
-        .thenReturn(List.of(new BlockDataGenerator().transaction(TransactionType.BLOB)));
     when(parentHeader.getExcessBlobGas()).thenReturn(Optional.of(BlobGas.of(1000)));
-    when(blockchain.getBlockByHash(blockHash)).thenReturn(Optional.of(block));
+    when(blockchain.getBlockHeader(blockHash)).thenReturn(Optional.of(header));
+    when(blockchain.getLazyBlockBody(blockHash)).thenReturn(Optional.of(LazyBlockBody.of(body)));
     mockProtocolSpec(header);
     when(blockchain.getTransactionLocation(receiptHash))
         .thenReturn(Optional.of(transactionLocation));
@@ -0,0 +1,102 @@
+/*
+ * Copyright contributors to Hyperledger Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.api.jsonrpc.internal.methods;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import org.hyperledger.besu.ethereum.api.jsonrpc.internal.processor.ParallelTransactionTracer;
+import org.hyperledger.besu.ethereum.api.jsonrpc.internal.processor.TransactionTrace;
+import org.hyperledger.besu.ethereum.core.Block;
+import org.hyperledger.besu.ethereum.core.Transaction;
+import org.hyperledger.besu.ethereum.debug.TraceFrame;
+import org.hyperledger.besu.ethereum.debug.TraceOptions;
+import org.hyperledger.besu.ethereum.processing.TransactionProcessingResult;
+import org.hyperledger.besu.ethereum.vm.DebugOperationTracer;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.Test;
+
+public class ParallelExecuteTransactionStepTest {
+
+  private final ParallelTransactionTracer parallelTracer = mock(ParallelTransactionTracer.class);
+  private final ParallelExecuteTransactionStep<TransactionTrace> step =
+      new ParallelExecuteTransactionStep<>(
+          parallelTracer,
+          () -> new DebugOperationTracer(TraceOptions.DEFAULT, false),
+          Function.identity());
+
+  @Test
+  public void shouldTraceTransactionAndKeepItsBlock() {
+    final Transaction transaction = mock(Transaction.class);
+    final TransactionProcessingResult result = mock(TransactionProcessingResult.class);
+    final List<TraceFrame> traceFrames = List.of(mock(TraceFrame.class));
+    final Optional<Block> block = Optional.of(mock(Block.class));
+    mockTrace(transaction, result, traceFrames);
+
+    final TransactionTrace trace = step.apply(new TransactionTrace(transaction, block)).join();
+
+    assertThat(trace.getTransaction()).isSameAs(transaction);
+    assertThat(trace.getResult()).isSameAs(result);
+    assertThat(trace.getTraceFrames()).isEqualTo(traceFrames);
+    assertThat(trace.getBlock()).isEqualTo(block);
+  }
+
+  @Test
+  public void shouldNotTraceBlockReward() {
+    final Optional<Block> block = Optional.of(mock(Block.class));
+
+    final TransactionTrace trace = step.apply(new TransactionTrace(block)).join();
+
+    assertThat(trace.getTransaction()).isNull();
+    assertThat(trace.getBlock()).isEqualTo(block);
+    verifyNoInteractions(parallelTracer);
+  }
+
+  @Test
+  public void shouldProcessTraceOnTheTracer() {
+    final Transaction transaction = mock(Transaction.class);
+    final TransactionProcessingResult result = mock(TransactionProcessingResult.class);
+    final Optional<Block> block = Optional.of(mock(Block.class));
+    mockTrace(transaction, result, List.of());
+    final ParallelExecuteTransactionStep<Optional<Block>> blockStep =
+        new ParallelExecuteTransactionStep<>(
+            parallelTracer,
+            () -> new DebugOperationTracer(TraceOptions.DEFAULT, false),
+            TransactionTrace::getBlock);
+
+    assertThat(blockStep.apply(new TransactionTrace(transaction, block)).join()).isEqualTo(block);
+  }
+
+  private void mockTrace(
+      final Transaction transaction,
+      final TransactionProcessingResult result,
+      final List<TraceFrame> traceFrames) {
+    when(parallelTracer.trace(any(), any(), any()))
+        .thenAnswer(
+            invocation ->
+                CompletableFuture.completedFuture(
+                    invocation
+                        .<Function<TransactionTrace, Object>>getArgument(2)
+                        .apply(new TransactionTrace(transaction, result, traceFrames))));
+  }
+}
@@ -37,6 +37,7 @@ import org.hyperledger.besu.ethereum.api.jsonrpc.internal.results.BlockResultFac
 import org.hyperledger.besu.ethereum.api.jsonrpc.internal.results.EngineGetPayloadBodiesResultV1;
 import org.hyperledger.besu.ethereum.chain.MutableBlockchain;
 import org.hyperledger.besu.ethereum.core.BlockBody;
+import org.hyperledger.besu.ethereum.core.LazyBlockBody;
 import org.hyperledger.besu.ethereum.core.TransactionTestFixture;
 import org.hyperledger.besu.ethereum.core.Withdrawal;
 import org.hyperledger.besu.plugin.services.rpc.RpcResponseType;
@@ -110,9 +111,12 @@ public class EngineGetPayloadBodiesByHashV1Test {
                 new TransactionTestFixture().createTransaction(sig.generateKeyPair()),
                 new TransactionTestFixture().createTransaction(sig.generateKeyPair())),
             Collections.emptyList());
-    when(blockchain.getBlockBody(blockHash1)).thenReturn(Optional.of(blockBody1));
-    when(blockchain.getBlockBody(blockHash2)).thenReturn(Optional.of(blockBody2));
-    when(blockchain.getBlockBody(blockHash3)).thenReturn(Optional.of(blockBody3));
+    when(blockchain.getLazyBlockBody(blockHash1))
+        .thenReturn(Optional.of(LazyBlockBody.of(blockBody1)));
+    when(blockchain.getLazyBlockBody(blockHash2))
+        .thenReturn(Optional.of(LazyBlockBody.of(blockBody2)));
+    when(blockchain.getLazyBlockBody(blockHash3))
+        .thenReturn(Optional.of(LazyBlockBody.of(blockBody3)));
 
     final var resp = resp(new Hash[] {blockHash1, blockHash2, blockHash3});
     final var result = fromSuccessResp(resp);
@@ -152,8 +156,10 @@ public class EngineGetPayloadBodiesByHashV1Test {
                 new TransactionTestFixture().createTransaction(sig.generateKeyPair()),
                 new TransactionTestFixture().createTransaction(sig.generateKeyPair())),
             Collections.emptyList());
-    when(blockchain.getBlockBody(blockHash1)).thenReturn(Optional.of(blockBody1));
-    when(blockchain.getBlockBody(blockHash3)).thenReturn(Optional.of(blockBody3));
+    when(blockchain.getLazyBlockBody(blockHash1))
+        .thenReturn(Optional.of(LazyBlockBody.of(blockBody1)));
+    when(blockchain.getLazyBlockBody(blockHash3))
+        .thenReturn(Optional.of(LazyBlockBody.of(blockBody3)));
 
     final var resp = resp(new Hash[] {blockHash1, blockHash2, blockHash3});
     final var result = fromSuccessResp(resp);
@@ -182,8 +188,10 @@ public class EngineGetPayloadBodiesByHashV1Test {
             Collections.emptyList(),
             Optional.empty(),
             Optional.empty());
-    when(blockchain.getBlockBody(blockHash1)).thenReturn(Optional.of(preShanghaiBlockBody));
-    when(blockchain.getBlockBody(blockHash2)).thenReturn(Optional.of(preShanghaiBlockBody2));
+    when(blockchain.getLazyBlockBody(blockHash1))
+        .thenReturn(Optional.of(LazyBlockBody.of(preShanghaiBlockBody)));
+    when(blockchain.getLazyBlockBody(blockHash2))
+        .thenReturn(Optional.of(LazyBlockBody.of(preShanghaiBlockBody2)));
 
     final var resp = resp(new Hash[] {blockHash1, blockHash2});
     final var result = fromSuccessResp(resp);
@@ -220,8 +228,10 @@ public class EngineGetPayloadBodiesByHashV1Test {
             Collections.emptyList(),
             Optional.of(List.of(withdrawal2)),
             Optional.empty());
-    when(blockchain.getBlockBody(blockHash1)).thenReturn(Optional.of(shanghaiBlockBody));
-    when(blockchain.getBlockBody(blockHash2)).thenReturn(Optional.of(shanghaiBlockBody2));
+    when(blockchain.getLazyBlockBody(blockHash1))
+        .thenReturn(Optional.of(LazyBlockBody.of(shanghaiBlockBody)));
+    when(blockchain.getLazyBlockBody(blockHash2))
+        .thenReturn(Optional.of(LazyBlockBody.of(shanghaiBlockBody2)));
 
     final var resp = resp(new Hash[] {blockHash1, blockHash2});
     final var result = fromSuccessResp(resp);
@@ -38,6 +38,7 @@ import org.hyperledger.besu.ethereum.api.jsonrpc.internal.results.BlockResultFac
 import org.hyperledger.besu.ethereum.api.jsonrpc.internal.results.EngineGetPayloadBodiesResultV1;
 import org.hyperledger.besu.ethereum.chain.MutableBlockchain;
 import org.hyperledger.besu.ethereum.core.BlockBody;
+import org.hyperledger.besu.ethereum.core.LazyBlockBody;
 import org.hyperledger.besu.ethereum.core.TransactionTestFixture;
 import org.hyperledger.besu.ethereum.core.Withdrawal;
 import org.hyperledger.besu.plugin.services.rpc.RpcResponseType;
@@ -105,9 +106,12 @@ public class EngineGetPayloadBodiesByRangeV1Test {
                 new TransactionTestFixture().createTransaction(sig.generateKeyPair())),
             Collections.emptyList());
     when(blockchain.getChainHeadBlockNumber()).thenReturn(Long.valueOf(130));
-    when(blockchain.getBlockBody(blockHash1)).thenReturn(Optional.of(blockBody1));
-    when(blockchain.getBlockBody(blockHash2)).thenReturn(Optional.of(blockBody2));
-    when(blockchain.getBlockBody(blockHash3)).thenReturn(Optional.of(blockBody3));
+    when(blockchain.getLazyBlockBody(blockHash1))
+        .thenReturn(Optional.of(LazyBlockBody.of(blockBody1)));
+    when(blockchain.getLazyBlockBody(blockHash2))
+        .thenReturn(Optional.of(LazyBlockBody.of(blockBody2)));
+    when(blockchain.getLazyBlockBody(blockHash3))
+        .thenReturn(Optional.of(LazyBlockBody.of(blockBody3)));
     when(blockchain.getBlockHashByNumber(123)).thenReturn(Optional.of(blockHash1));
     when(blockchain.getBlockHashByNumber(124)).thenReturn(Optional.of(blockHash2));
     when(blockchain.getBlockHashByNumber(125)).thenReturn(Optional.of(blockHash3));
@@ -148,8 +152,10 @@ public class EngineGetPayloadBodiesByRangeV1Test {
                 new TransactionTestFixture().createTransaction(sig.generateKeyPair())),
             Collections.emptyList());
     when(blockchain.getChainHeadBlockNumber()).thenReturn(Long.valueOf(130));
-    when(blockchain.getBlockBody(blockHash1)).thenReturn(Optional.of(blockBody1));
-    when(blockchain.getBlockBody(blockHash3)).thenReturn(Optional.of(blockBody3));
+    when(blockchain.getLazyBlockBody(blockHash1))
+        .thenReturn(Optional.of(LazyBlockBody.of(blockBody1)));
+    when(blockchain.getLazyBlockBody(blockHash3))
+        .thenReturn(Optional.of(LazyBlockBody.of(blockBody3)));
     when(blockchain.getBlockHashByNumber(123)).thenReturn(Optional.of(blockHash1));
     when(blockchain.getBlockHashByNumber(125)).thenReturn(Optional.of(blockHash3));
 
@@ -182,8 +188,10 @@ public class EngineGetPayloadBodiesByRangeV1Test {
             Optional.empty(),
             Optional.empty());
     when(blockchain.getChainHeadBlockNumber()).thenReturn(Long.valueOf(130));
-    when(blockchain.getBlockBody(blockHash1)).thenReturn(Optional.of(preShanghaiBlockBody));
-    when(blockchain.getBlockBody(blockHash2)).thenReturn(Optional.of(preShanghaiBlockBody2));
+    when(blockchain.getLazyBlockBody(blockHash1))
+        .thenReturn(Optional.of(LazyBlockBody.of(preShanghaiBlockBody)));
+    when(blockchain.getLazyBlockBody(blockHash2))
+        .thenReturn(Optional.of(LazyBlockBody.of(preShanghaiBlockBody2)));
     when(blockchain.getBlockHashByNumber(123)).thenReturn(Optional.of(blockHash1));
     when(blockchain.getBlockHashByNumber(124)).thenReturn(Optional.of(blockHash2));
 
@@ -224,8 +232,10 @@ public class EngineGetPayloadBodiesByRangeV1Test {
             Optional.of(List.of(withdrawal2)),
             Optional.empty());
     when(blockchain.getChainHeadBlockNumber()).thenReturn(Long.valueOf(130));
-    when(blockchain.getBlockBody(blockHash1)).thenReturn(Optional.of(shanghaiBlockBody));
-    when(blockchain.getBlockBody(blockHash2)).thenReturn(Optional.of(shanghaiBlockBody2));
+    when(blockchain.getLazyBlockBody(blockHash1))
+        .thenReturn(Optional.of(LazyBlockBody.of(shanghaiBlockBody)));
+    when(blockchain.getLazyBlockBody(blockHash2))
+        .thenReturn(Optional.of(LazyBlockBody.of(shanghaiBlockBody2)));
     when(blockchain.getBlockHashByNumber(123)).thenReturn(Optional.of(blockHash1));
     when(blockchain.getBlockHashByNumber(124)).thenReturn(Optional.of(blockHash2));
 
@@ -255,7 +265,8 @@ public class EngineGetPayloadBodiesByRangeV1Test {
             Optional.of(List.of(withdrawal)),
             Optional.empty());
     when(blockchain.getChainHeadBlockNumber()).thenReturn(Long.valueOf(123));
-    when(blockchain.getBlockBody(blockHash1)).thenReturn(Optional.of(shanghaiBlockBody));
+    when(blockchain.getLazyBlockBody(blockHash1))
+        .thenReturn(Optional.of(LazyBlockBody.of(shanghaiBlockBody)));
     when(blockchain.getBlockHashByNumber(123)).thenReturn(Optional.of(blockHash1));
 
     final var resp = resp("0x7b", "0x3");
@@ -291,9 +302,12 @@ public class EngineGetPayloadBodiesByRangeV1Test {
             Optional.of(List.of(withdrawal)),
             Optional.empty());
     when(blockchain.getChainHeadBlockNumber()).thenReturn(Long.valueOf(125));
-    when(blockchain.getBlockBody(blockHash1)).thenReturn(Optional.of(shanghaiBlockBody));
-    when(blockchain.getBlockBody(blockHash2)).thenReturn(Optional.of(shanghaiBlockBody2));
-    when(blockchain.getBlockBody(blockHash3)).thenReturn(Optional.of(shanghaiBlockBody3));
+    when(blockchain.getLazyBlockBody(blockHash1))
+        .thenReturn(Optional.of(LazyBlockBody.of(shanghaiBlockBody)));
+    when(blockchain.getLazyBlockBody(blockHash2))
+        .thenReturn(Optional.of(LazyBlockBody.of(shanghaiBlockBody2)));
+    when(blockchain.getLazyBlockBody(blockHash3))
+        .thenReturn(Optional.of(LazyBlockBody.of(shanghaiBlockBody3)));
     when(blockchain.getBlockHashByNumber(123)).thenReturn(Optional.of(blockHash1));
     when(blockchain.getBlockHashByNumber(124)).thenReturn(Optional.of(blockHash2));
     when(blockchain.getBlockHashByNumber(125)).thenReturn(Optional.of(blockHash3));
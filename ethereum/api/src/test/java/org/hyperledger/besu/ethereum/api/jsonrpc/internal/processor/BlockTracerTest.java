@@ -0,0 +1,195 @@
+/*
+ * Copyright contributors to Hyperledger Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.api.jsonrpc.internal.processor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.hyperledger.besu.ethereum.api.ImmutableApiConfiguration;
+import org.hyperledger.besu.ethereum.api.jsonrpc.internal.JsonRpcRequest;
+import org.hyperledger.besu.ethereum.api.jsonrpc.internal.JsonRpcRequestContext;
+import org.hyperledger.besu.ethereum.api.jsonrpc.internal.methods.JsonRpcMethod;
+import org.hyperledger.besu.ethereum.api.jsonrpc.internal.methods.TraceBlock;
+import org.hyperledger.besu.ethereum.api.jsonrpc.internal.methods.TraceReplayBlockTransactions;
+import org.hyperledger.besu.ethereum.api.jsonrpc.internal.response.JsonRpcResponse;
+import org.hyperledger.besu.ethereum.api.jsonrpc.internal.response.JsonRpcSuccessResponse;
+import org.hyperledger.besu.ethereum.api.jsonrpc.internal.results.DebugTraceTransactionResult;
+import org.hyperledger.besu.ethereum.api.query.BlockchainQueries;
+import org.hyperledger.besu.ethereum.core.Block;
+import org.hyperledger.besu.ethereum.core.BlockchainSetupUtil;
+import org.hyperledger.besu.ethereum.core.MiningParameters;
+import org.hyperledger.besu.ethereum.debug.TraceOptions;
+import org.hyperledger.besu.ethereum.vm.DebugOperationTracer;
+import org.hyperledger.besu.plugin.services.storage.DataStorageFormat;
+import org.hyperledger.besu.testutil.BlockTestUtil.ChainResources;
+
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+public class BlockTracerTest {
+
+  private static final String CHAIN_DATA =
+      "/org/hyperledger/besu/ethereum/api/jsonrpc/trace/chain-data/";
+  private static final ObjectMapper MAPPER = new ObjectMapper();
+
+  private final ExecutorService executorService = Executors.newFixedThreadPool(4);
+  private BlockchainSetupUtil blockchainSetupUtil;
+  private BlockchainQueries blockchainQueries;
+  private BlockchainQueries parallelBlockchainQueries;
+  private BlockReplay blockReplay;
+
+  @BeforeEach
+  public void setUp() {
+    final URL genesisURL = BlockTracerTest.class.getResource(CHAIN_DATA + "genesis.json");
+    final URL blocksURL = BlockTracerTest.class.getResource(CHAIN_DATA + "blocks.bin");
+    blockchainSetupUtil =
+        BlockchainSetupUtil.createForEthashChain(
+            new ChainResources(genesisURL, blocksURL), DataStorageFormat.BONSAI);
+    blockchainSetupUtil.importAllBlocks();
+    blockchainQueries =
+        new BlockchainQueries(
+            blockchainSetupUtil.getProtocolSchedule(),
+            blockchainSetupUtil.getBlockchain(),
+            blockchainSetupUtil.getWorldArchive(),
+            MiningParameters.newDefault());
+    parallelBlockchainQueries =
+        new BlockchainQueries(
+            blockchainSetupUtil.getProtocolSchedule(),
+            blockchainSetupUtil.getBlockchain(),
+            blockchainSetupUtil.getWorldArchive(),
+            Optional.empty(),
+            Optional.empty(),
+            ImmutableApiConfiguration.builder().blockTracingThreads(4).build(),
+            MiningParameters.newDefault());
+    blockReplay =
+        new BlockReplay(
+            blockchainSetupUtil.getProtocolSchedule(),
+            blockchainSetupUtil.getProtocolContext(),
+            blockchainSetupUtil.getBlockchain());
+  }
+
+  @AfterEach
+  public void tearDown() {
+    executorService.shutdownNow();
+  }
+
+  // the blocks whose transactions write the same slots of the same contracts, clear them, or
+  // create and self destruct contracts
+  @ParameterizedTest
+  @ValueSource(longs = {0x4, 0xE, 0x13, 0x15, 0x16})
+  public void tracingInParallelTracesTheSameAsSequentially(final long blockNumber) {
+    final Block block = blockchainSetupUtil.getBlockchain().getBlockByNumber(blockNumber).get();
+    assertThat(block.getBody().getTransactions()).hasSizeGreaterThan(1);
+
+    final List<String> sequentialTraces = new ArrayList<>();
+    Tracer.processTracing(
+        blockchainQueries,
+        Optional.of(block.getHeader()),
+        mutableWorldState ->
+            new BlockTracer(blockReplay)
+                .trace(
+                    mutableWorldState,
+                    block,
+                    new DebugOperationTracer(TraceOptions.DEFAULT, true),
+                    trace -> sequentialTraces.add(toJson(trace))));
+
+    final List<String> parallelTraces = new ArrayList<>();
+    final AtomicInteger tracedOnExecutor = new AtomicInteger();
+    Tracer.processTracing(
+        blockchainQueries,
+        Optional.of(block.getHeader()),
+        mutableWorldState -> {
+          // a window smaller than the block so that the copies of the state are reused
+          new BlockTracer(blockReplay)
+              .traceInParallel(
+                  mutableWorldState,
+                  block,
+                  () -> new DebugOperationTracer(TraceOptions.DEFAULT, true),
+                  task -> {
+                    tracedOnExecutor.incrementAndGet();
+                    executorService.execute(task);
+                  },
+                  2,
+                  trace -> parallelTraces.add(toJson(trace)));
+          return Optional.empty();
+        });
+
+    assertThat(tracedOnExecutor).hasValue(block.getBody().getTransactions().size());
+    assertThat(sequentialTraces).hasSize(block.getBody().getTransactions().size());
+    assertThat(parallelTraces).containsExactlyElementsOf(sequentialTraces);
+  }
+
+  @ParameterizedTest
+  @ValueSource(longs = {0x4, 0xE, 0x13, 0x15, 0x16})
+  public void replayingInParallelReplaysTheSameAsSequentially(final long blockNumber) {
+    final Function<BlockchainQueries, JsonRpcMethod> method =
+        queries ->
+            new TraceReplayBlockTransactions(blockchainSetupUtil.getProtocolSchedule(), queries);
+    final Object[] params = {
+      "0x" + Long.toHexString(blockNumber), new String[] {"trace", "stateDiff", "vmTrace"}
+    };
+
+    assertThat(respond(method, parallelBlockchainQueries, "trace_replayBlockTransactions", params))
+        .isEqualTo(respond(method, blockchainQueries, "trace_replayBlockTransactions", params));
+  }
+
+  @ParameterizedTest
+  @ValueSource(longs = {0x4, 0xE, 0x13, 0x15, 0x16})
+  public void flatTracingInParallelTracesTheSameAsSequentially(final long blockNumber) {
+    final Function<BlockchainQueries, JsonRpcMethod> method =
+        queries -> new TraceBlock(blockchainSetupUtil.getProtocolSchedule(), queries);
+    final Object[] params = {"0x" + Long.toHexString(blockNumber)};
+
+    assertThat(respond(method, parallelBlockchainQueries, "trace_block", params))
+        .isEqualTo(respond(method, blockchainQueries, "trace_block", params));
+  }
+
+  private static String respond(
+      final Function<BlockchainQueries, JsonRpcMethod> method,
+      final BlockchainQueries queries,
+      final String methodName,
+      final Object[] params) {
+    final JsonRpcResponse response =
+        method
+            .apply(queries)
+            .response(new JsonRpcRequestContext(new JsonRpcRequest("2.0", methodName, params)));
+    assertThat(response).isInstanceOf(JsonRpcSuccessResponse.class);
+    try {
+      return MAPPER.writeValueAsString(((JsonRpcSuccessResponse) response).getResult());
+    } catch (final JsonProcessingException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private static String toJson(final TransactionTrace trace) {
+    try {
+      return MAPPER.writeValueAsString(new DebugTraceTransactionResult(trace));
+    } catch (final JsonProcessingException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright contributors to Hyperledger Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.api.jsonrpc.internal.results.tracing.call;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import org.hyperledger.besu.datatypes.Address;
+import org.hyperledger.besu.datatypes.Transaction;
+import org.hyperledger.besu.datatypes.Wei;
+import org.hyperledger.besu.evm.frame.ExceptionalHaltReason;
+import org.hyperledger.besu.evm.frame.MessageFrame;
+import org.hyperledger.besu.evm.operation.Operation;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.junit.jupiter.api.Test;
+
+public class CallTracerTest {
+  private static final Address SENDER = Address.fromHexString("0x01");
+  private static final Address CONTRACT = Address.fromHexString("0x02");
+  private static final Address LIBRARY = Address.fromHexString("0x03");
+  private static final Address CALLEE = Address.fromHexString("0x04");
+
+  private final CallTracer tracer = new CallTracer();
+
+  @Test
+  public void shouldTraceTheTreeOfCalls() {
+    final MessageFrame root =
+        frame(SENDER, CONTRACT, CONTRACT, Wei.of(5), 1_000L, Bytes.fromHexString("0x1234"));
+    tracer.traceContextEnter(root);
+
+    final MessageFrame delegateCall =
+        frame(SENDER, CONTRACT, LIBRARY, Wei.of(5), 600L, Bytes.fromHexString("0xab"));
+    setCurrentOperation(root, "DELEGATECALL");
+    tracer.traceContextEnter(delegateCall);
+    when(delegateCall.getRemainingGas()).thenReturn(500L);
+    when(delegateCall.getState()).thenReturn(MessageFrame.State.COMPLETED_SUCCESS);
+    when(delegateCall.getOutputData()).thenReturn(Bytes.fromHexString("0xcd"));
+    tracer.traceContextExit(delegateCall);
+
+    final MessageFrame call = frame(CONTRACT, CALLEE, CALLEE, Wei.ZERO, 300L, Bytes.EMPTY);
+    setCurrentOperation(root, "CALL");
+    tracer.traceContextEnter(call);
+    when(call.getRemainingGas()).thenReturn(0L);
+    when(call.getState()).thenReturn(MessageFrame.State.COMPLETED_FAILED);
+    when(call.getExceptionalHaltReason())
+        .thenReturn(Optional.of(ExceptionalHaltReason.INSUFFICIENT_GAS));
+    tracer.traceContextExit(call);
+
+    when(root.getRemainingGas()).thenReturn(100L);
+    when(root.getState()).thenReturn(MessageFrame.State.COMPLETED_SUCCESS);
+    when(root.getOutputData()).thenReturn(Bytes.EMPTY);
+    tracer.traceContextExit(root);
+
+    final CallTracerResult result = tracer.getResult().orElseThrow();
+    assertThat(result.getType()).isEqualTo("CALL");
+    assertThat(result.getFrom()).isEqualTo(SENDER.toHexString());
+    assertThat(result.getTo()).isEqualTo(CONTRACT.toHexString());
+    assertThat(result.getValue()).isEqualTo("0x5");
+    assertThat(result.getGas()).isEqualTo("0x3e8");
+    assertThat(result.getGasUsed()).isEqualTo("0x384");
+    assertThat(result.getInput()).isEqualTo("0x1234");
+    assertThat(result.getOutput()).isEqualTo("0x");
+    assertThat(result.getCalls()).hasSize(2);
+
+    final CallTracerResult delegateCallResult = result.getCalls().get(0);
+    assertThat(delegateCallResult.getType()).isEqualTo("DELEGATECALL");
+    assertThat(delegateCallResult.getFrom()).isEqualTo(CONTRACT.toHexString());
+    assertThat(delegateCallResult.getTo()).isEqualTo(LIBRARY.toHexString());
+    assertThat(delegateCallResult.getValue()).isNull();
+    assertThat(delegateCallResult.getGasUsed()).isEqualTo("0x64");
+    assertThat(delegateCallResult.getOutput()).isEqualTo("0xcd");
+    assertThat(delegateCallResult.getError()).isNull();
+
+    final CallTracerResult callResult = result.getCalls().get(1);
+    assertThat(callResult.getType()).isEqualTo("CALL");
+    assertThat(callResult.getFrom()).isEqualTo(CONTRACT.toHexString());
+    assertThat(callResult.getTo()).isEqualTo(CALLEE.toHexString());
+    assertThat(callResult.getValue()).isEqualTo("0x0");
+    assertThat(callResult.getGasUsed()).isEqualTo("0x12c");
+    assertThat(callResult.getOutput()).isNull();
+    assertThat(callResult.getError()).isEqualTo("Out of gas");
+    assertThat(callResult.getCalls()).isEmpty();
+  }
+
+  @Test
+  public void shouldReportTheGasOfTheTransactionForTheRootCall() {
+    final MessageFrame root = frame(SENDER, CONTRACT, CONTRACT, Wei.ZERO, 1_000L, Bytes.EMPTY);
+    tracer.traceContextEnter(root);
+    when(root.getRemainingGas()).thenReturn(400L);
+    when(root.getState()).thenReturn(MessageFrame.State.COMPLETED_FAILED);
+    when(root.getRevertReason()).thenReturn(Optional.of(Bytes.fromHexString("0x0badf00d")));
+    tracer.traceContextExit(root);
+
+    final Transaction transaction = mock(Transaction.class);
+    when(transaction.getGasLimit()).thenReturn(30_000L);
+    tracer.traceEndTransaction(
+        null, transaction, false, Bytes.EMPTY, List.of(), 21_600L, Set.of(), 0L);
+
+    final CallTracerResult result = tracer.getResult().orElseThrow();
+    assertThat(result.getGas()).isEqualTo("0x7530");
+    assertThat(result.getGasUsed()).isEqualTo("0x5460");
+    assertThat(result.getError()).isEqualTo("execution reverted");
+    assertThat(result.getOutput()).isEqualTo("0x0badf00d");
+    assertThat(result.getRevertReason()).isNull();
+  }
+
+  @Test
+  public void shouldNotHaveResultWhenTheTransactionWasNotExecuted() {
+    assertThat(tracer.getResult()).isEmpty();
+  }
+
+  private static MessageFrame frame(
+      final Address sender,
+      final Address recipient,
+      final Address contract,
+      final Wei value,
+      final long gas,
+      final Bytes input) {
+    final MessageFrame frame = mock(MessageFrame.class);
+    when(frame.getType()).thenReturn(MessageFrame.Type.MESSAGE_CALL);
+    when(frame.getSenderAddress()).thenReturn(sender);
+    when(frame.getRecipientAddress()).thenReturn(recipient);
+    when(frame.getContractAddress()).thenReturn(contract);
+    when(frame.getValue()).thenReturn(value);
+    when(frame.getRemainingGas()).thenReturn(gas);
+    when(frame.getInputData()).thenReturn(input);
+    when(frame.getExceptionalHaltReason()).thenReturn(Optional.empty());
+    when(frame.getRevertReason()).thenReturn(Optional.empty());
+    return frame;
+  }
+
+  private static void setCurrentOperation(final MessageFrame frame, final String name) {
+    final Operation operation = mock(Operation.class);
+    when(operation.getName()).thenReturn(name);
+    when(frame.getCurrentOperation()).thenReturn(operation);
+  }
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright contributors to Hyperledger Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.api.jsonrpc.internal.results.tracing.prestate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import org.hyperledger.besu.datatypes.Address;
+import org.hyperledger.besu.datatypes.Transaction;
+import org.hyperledger.besu.datatypes.Wei;
+import org.hyperledger.besu.evm.account.Account;
+import org.hyperledger.besu.evm.frame.MessageFrame;
+import org.hyperledger.besu.evm.operation.Operation;
+import org.hyperledger.besu.evm.worldstate.WorldUpdater;
+
+import java.util.Map;
+import java.util.Optional;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.units.bigints.UInt256;
+import org.junit.jupiter.api.Test;
+
+public class PrestateTracerTest {
+  private static final Address SENDER = Address.fromHexString("0x01");
+  private static final Address CONTRACT = Address.fromHexString("0x02");
+  private static final Address COINBASE = Address.fromHexString("0x03");
+  private static final Address OTHER = Address.fromHexString("0x04");
+
+  private final WorldUpdater worldUpdater = mock(WorldUpdater.class);
+  private final PrestateTracer tracer = new PrestateTracer();
+
+  @Test
+  public void shouldRecordTheAccountsBeforeTheTransaction() {
+    final Account sender = account(SENDER, Wei.of(100), 7, Bytes.EMPTY);
+    account(CONTRACT, Wei.ZERO, 1, Bytes.fromHexString("0x6000"));
+    final Transaction transaction = mock(Transaction.class);
+    when(transaction.getSender()).thenReturn(SENDER);
+    when(transaction.getTo()).thenAnswer(__ -> Optional.of(CONTRACT));
+
+    tracer.tracePrepareTransaction(worldUpdater, transaction);
+    // the nonce and the upfront gas cost are charged after the transaction is prepared
+    when(sender.getBalance()).thenReturn(Wei.of(40));
+    when(sender.getNonce()).thenReturn(8L);
+
+    final MessageFrame frame = frame(0);
+    tracer.traceContextEnter(frame);
+    setCurrentOperation(frame, 0x31);
+    when(frame.stackSize()).thenReturn(1);
+    when(frame.getStackItem(0)).thenReturn(OTHER);
+    tracer.tracePreExecution(frame);
+
+    final Map<String, PrestateAccount> result = tracer.getResult();
+    assertThat(result)
+        .containsOnlyKeys(
+            SENDER.toHexString(),
+            CONTRACT.toHexString(),
+            COINBASE.toHexString(),
+            OTHER.toHexString());
+    assertThat(result.get(SENDER.toHexString()).getBalance()).isEqualTo("0x64");
+    assertThat(result.get(SENDER.toHexString()).getNonce()).isEqualTo(7L);
+    assertThat(result.get(SENDER.toHexString()).getCode()).isNull();
+    assertThat(result.get(CONTRACT.toHexString()).getCode()).isEqualTo("0x6000");
+    assertThat(result.get(COINBASE.toHexString()).getBalance()).isEqualTo("0x0");
+    assertThat(result.get(COINBASE.toHexString()).getNonce()).isNull();
+  }
+
+  @Test
+  public void shouldRecordTheOriginalValueOfTheStorageSlots() {
+    final Account contract = account(CONTRACT, Wei.ZERO, 1, Bytes.fromHexString("0x6000"));
+    when(contract.getOriginalStorageValue(UInt256.ONE)).thenReturn(UInt256.valueOf(42));
+    final MessageFrame frame = frame(1);
+    tracer.traceContextEnter(frame);
+
+    setCurrentOperation(frame, 0x55);
+    when(frame.stackSize()).thenReturn(2);
+    when(frame.getStackItem(0)).thenReturn(UInt256.ONE);
+    tracer.tracePreExecution(frame);
+    when(contract.getOriginalStorageValue(UInt256.ONE)).thenReturn(UInt256.valueOf(43));
+    setCurrentOperation(frame, 0x54);
+    tracer.tracePreExecution(frame);
+
+    assertThat(tracer.getResult().get(CONTRACT.toHexString()).getStorage())
+        .containsExactly(Map.entry(UInt256.ONE.toHexString(), UInt256.valueOf(42).toHexString()));
+  }
+
+  private Account account(
+      final Address address, final Wei balance, final long nonce, final Bytes code) {
+    final Account account = mock(Account.class);
+    when(account.getBalance()).thenReturn(balance);
+    when(account.getNonce()).thenReturn(nonce);
+    when(account.getCode()).thenReturn(code);
+    when(worldUpdater.get(address)).thenReturn(account);
+    return account;
+  }
+
+  private MessageFrame frame(final int depth) {
+    final MessageFrame frame = mock(MessageFrame.class);
+    when(frame.getDepth()).thenReturn(depth);
+    when(frame.getWorldUpdater()).thenReturn(worldUpdater);
+    when(frame.getMiningBeneficiary()).thenReturn(COINBASE);
+    when(frame.getRecipientAddress()).thenReturn(CONTRACT);
+    when(frame.getContractAddress()).thenReturn(CONTRACT);
+    return frame;
+  }
+
+  private static void setCurrentOperation(final MessageFrame frame, final int opcode) {
+    final Operation operation = mock(Operation.class);
+    when(operation.getOpcode()).thenReturn(opcode);
+    when(frame.getCurrentOperation()).thenReturn(operation);
+  }
+}
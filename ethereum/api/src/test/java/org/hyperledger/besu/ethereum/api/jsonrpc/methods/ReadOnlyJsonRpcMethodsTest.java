@@ -0,0 +1,56 @@
+/*
+ * Copyright contributors to Hyperledger Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.api.jsonrpc.methods;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import org.hyperledger.besu.ethereum.api.jsonrpc.internal.methods.JsonRpcMethod;
+
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+
+public class ReadOnlyJsonRpcMethodsTest {
+
+  @Test
+  public void keepsOnlyTheReadMethods() {
+    final Map<String, JsonRpcMethod> methods =
+        Stream.of(
+                "eth_call",
+                "eth_getLogs",
+                "eth_sendRawTransaction",
+                "engine_newPayloadV3",
+                "miner_start",
+                "debug_traceTransaction",
+                "debug_setHead",
+                "admin_nodeInfo",
+                "admin_addPeer",
+                "qbft_getValidatorsByBlockNumber",
+                "qbft_proposeValidatorVote")
+            .collect(Collectors.toMap(Function.identity(), __ -> mock(JsonRpcMethod.class)));
+
+    assertThat(ReadOnlyJsonRpcMethods.filter(methods))
+        .containsOnlyKeys(
+            "eth_call",
+            "eth_getLogs",
+            "debug_traceTransaction",
+            "admin_nodeInfo",
+            "qbft_getValidatorsByBlockNumber");
+  }
+}
@@ -16,12 +16,14 @@ package org.hyperledger.besu.ethereum.api.query;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.hyperledger.besu.ethereum.core.InMemoryKeyValueStorageProvider.createInMemoryBlockchain;
 import static org.hyperledger.besu.ethereum.core.InMemoryKeyValueStorageProvider.createInMemoryWorldStateArchive;
 
 import org.hyperledger.besu.datatypes.Address;
 import org.hyperledger.besu.datatypes.Hash;
 import org.hyperledger.besu.datatypes.Wei;
+import org.hyperledger.besu.ethereum.api.ImmutableApiConfiguration;
 import org.hyperledger.besu.ethereum.chain.MutableBlockchain;
 import org.hyperledger.besu.ethereum.core.Block;
 import org.hyperledger.besu.ethereum.core.BlockDataGenerator;
@@ -43,6 +45,7 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
 import org.apache.tuweni.units.bigints.UInt256;
@@ -366,6 +369,48 @@ public class BlockchainQueriesTest {
     assertThat(logs).allMatch(LogWithMetadata::isRemoved);
   }
 
+  @Test
+  public void matchingLogsOfLargeRangeShouldBeScannedInChunksInBlockOrder() {
+    final int blockCount = BlockchainQueries.LOGS_SCAN_CHUNK_SIZE * 2 + 10;
+    final BlockchainWithData data = setupBlockchain(blockCount);
+    final BlockchainQueries sequentialQueries =
+        new BlockchainQueries(
+            Mockito.mock(ProtocolSchedule.class),
+            data.blockchain,
+            data.worldStateArchive,
+            Optional.empty(),
+            Optional.empty(),
+            ImmutableApiConfiguration.builder().logsScanThreads(1).build(),
+            MiningParameters.newDefault());
+    final LogsQuery query = new LogsQuery.Builder().build();
+
+    // the range goes past the chain head
+    final List<LogWithMetadata> logs =
+        data.blockchainQueries.matchingLogs(0, blockCount + 100, query, () -> true);
+
+    assertThat(logs).isNotEmpty();
+    assertThat(logs)
+        .usingRecursiveFieldByFieldElementComparator()
+        .containsExactlyElementsOf(
+            sequentialQueries.matchingLogs(0, blockCount + 100, query, () -> true));
+  }
+
+  @Test
+  public void matchingLogsOfLargeRangeShouldStopWhenQueryIsNotAlive() {
+    final int blockCount = BlockchainQueries.LOGS_SCAN_CHUNK_SIZE * 2 + 10;
+    final BlockchainWithData data = setupBlockchain(blockCount);
+    final AtomicInteger aliveChecks = new AtomicInteger();
+
+    assertThatThrownBy(
+            () ->
+                data.blockchainQueries.matchingLogs(
+                    0,
+                    blockCount,
+                    new LogsQuery.Builder().build(),
+                    () -> aliveChecks.incrementAndGet() < 100))
+        .isInstanceOf(IllegalStateException.class);
+  }
+
   @Test
   public void matchingLogsShouldReturnAnEmptyListWhenGivenAnInvalidBlockHash() {
     final BlockchainWithData data = setupBlockchain(3);
@@ -0,0 +1,259 @@
+/*
+ * Copyright contributors to Hyperledger Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.api.query;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import org.hyperledger.besu.ethereum.api.query.CheckpointBackupService.ManifestEntry;
+import org.hyperledger.besu.plugin.services.storage.CheckpointableKeyValueStorage;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class CheckpointBackupServiceTest {
+
+  @TempDir private Path tempDir;
+
+  private Path dataDir;
+  private Path databaseDir;
+  private Path backupDir;
+  private Path restoreDir;
+  private CheckpointBackupService backupService;
+
+  @BeforeEach
+  public void setUp() throws IOException {
+    dataDir = tempDir.resolve("data");
+    databaseDir = Files.createDirectories(dataDir.resolve("database"));
+    backupDir = tempDir.resolve("backup");
+    restoreDir = Files.createDirectories(tempDir.resolve("restore"));
+    final CheckpointableKeyValueStorage storage = mock(CheckpointableKeyValueStorage.class);
+    when(storage.getStoragePath()).thenReturn(databaseDir);
+    // a checkpoint is a copy of the database files
+    doAnswer(
+            invocation -> {
+              final Path checkpointDir = invocation.getArgument(0);
+              Files.createDirectory(checkpointDir);
+              try (final Stream<Path> files = Files.list(databaseDir)) {
+                for (final Path file : files.toList()) {
+                  Files.copy(file, checkpointDir.resolve(file.getFileName()));
+                }
+              }
+              return null;
+            })
+        .when(storage)
+        .createCheckpoint(any());
+    backupService = new CheckpointBackupService("test", storage, 2);
+
+    Files.writeString(databaseDir.resolve("000001.sst"), "first table");
+    Files.writeString(databaseDir.resolve("000002.sst"), "second table");
+    Files.writeString(databaseDir.resolve("MANIFEST-000003"), "manifest");
+    Files.writeString(databaseDir.resolve("CURRENT"), "MANIFEST-000003");
+    final Path freezerDir = Files.createDirectories(dataDir.resolve("freezer"));
+    Files.writeString(freezerDir.resolve("headers.idx"), "index");
+    Files.writeString(freezerDir.resolve("headers.0000.dat"), "headers");
+    Files.writeString(dataDir.resolve("DATABASE_METADATA.json"), "{\"version\":2}");
+  }
+
+  @Test
+  public void backupCopiesTheCheckpointFreezerAndMetadataFiles() throws IOException {
+    final CheckpointBackupService.BackupStatus status = backupService.backup(backupDir);
+
+    assertThat(status.isBackingUp()).isFalse();
+    assertThat(status.getFileCount()).isEqualTo(7);
+    assertThat(status.getReusedByteCount()).isZero();
+    assertThat(Files.readString(backupDir.resolve("database/000002.sst")))
+        .isEqualTo("second table");
+    assertThat(Files.readString(backupDir.resolve("freezer/headers.0000.dat")))
+        .isEqualTo("headers");
+    assertThat(Files.readString(backupDir.resolve("DATABASE_METADATA.json")))
+        .isEqualTo("{\"version\":2}");
+    final Map<String, ManifestEntry> manifest = CheckpointBackupService.readManifest(backupDir);
+    assertThat(manifest)
+        .containsOnlyKeys(
+            "database/000001.sst",
+            "database/000002.sst",
+            "database/MANIFEST-000003",
+            "database/CURRENT",
+            "freezer/headers.idx",
+            "freezer/headers.0000.dat",
+            "DATABASE_METADATA.json");
+    assertThat(manifest.get("database/000001.sst").size()).isEqualTo("first table".length());
+    assertThat(manifest.get("database/000001.sst").sha256())
+        .isEqualTo(sha256("first table"))
+        .isNotEqualTo(manifest.get("database/000002.sst").sha256());
+    // the checkpoint is removed once copied
+    assertThat(dataDir.resolve(CheckpointBackupService.CHECKPOINT_DIRECTORY_NAME)).doesNotExist();
+  }
+
+  @Test
+  public void incrementalBackupOnlyCopiesChangedFiles() throws IOException {
+    backupService.backup(backupDir);
+    // compaction replaced the first table by a new one, the manifest changed, and a block was
+    // frozen
+    Files.delete(databaseDir.resolve("000001.sst"));
+    Files.writeString(databaseDir.resolve("000004.sst"), "compacted table");
+    Files.writeString(databaseDir.resolve("MANIFEST-000003"), "manifest updated");
+    Files.writeString(dataDir.resolve("freezer/headers.0000.dat"), "headers appended");
+
+    final CheckpointBackupService.BackupStatus status = backupService.backup(backupDir);
+
+    assertThat(status.getReusedByteCount())
+        .isEqualTo(
+            "second table".length()
+                + "MANIFEST-000003".length()
+                + "index".length()
+                + "{\"version\":2}".length());
+    assertThat(status.getCopiedByteCount())
+        .isEqualTo(
+            "compacted table".length() + "manifest updated".length() + "headers appended".length());
+    assertThat(backupDir.resolve("database/000001.sst")).doesNotExist();
+    assertThat(Files.readString(backupDir.resolve("database/MANIFEST-000003")))
+        .isEqualTo("manifest updated");
+    assertThat(CheckpointBackupService.readManifest(backupDir))
+        .containsOnlyKeys(
+            "database/000002.sst",
+            "database/000004.sst",
+            "database/MANIFEST-000003",
+            "database/CURRENT",
+            "freezer/headers.idx",
+            "freezer/headers.0000.dat",
+            "DATABASE_METADATA.json");
+  }
+
+  @Test
+  public void backupCopiesAgainAMutableFileOfTheSameSizeWithAnotherChecksum() throws IOException {
+    backupService.backup(backupDir);
+    Files.writeString(databaseDir.resolve("CURRENT"), "MANIFEST-000004");
+
+    final CheckpointBackupService.BackupStatus status = backupService.backup(backupDir);
+
+    assertThat(status.getCopiedByteCount()).isEqualTo("MANIFEST-000004".length());
+    assertThat(Files.readString(backupDir.resolve("database/CURRENT")))
+        .isEqualTo("MANIFEST-000004");
+  }
+
+  @Test
+  public void backupRefusesADirectoryWhichIsNotABackup() throws IOException {
+    Files.createDirectories(backupDir);
+    Files.writeString(backupDir.resolve("notes.txt"), "unrelated");
+
+    assertThatThrownBy(() -> backupService.backup(backupDir))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessageContaining("neither empty nor holding a checkpoint backup");
+    assertThat(Files.readString(backupDir.resolve("notes.txt"))).isEqualTo("unrelated");
+  }
+
+  @Test
+  public void backupOnlyRemovesTheFilesOfThePreviousBackup() throws IOException {
+    backupService.backup(backupDir);
+    Files.writeString(backupDir.resolve("notes.txt"), "unrelated");
+    Files.delete(databaseDir.resolve("000001.sst"));
+
+    backupService.backup(backupDir);
+
+    assertThat(backupDir.resolve("database/000001.sst")).doesNotExist();
+    assertThat(Files.readString(backupDir.resolve("notes.txt"))).isEqualTo("unrelated");
+  }
+
+  @Test
+  public void backupResumesAnInterruptedBackup() throws IOException {
+    backupService.backup(backupDir);
+    // interrupted once the files of the previous backup were listed as pending
+    Files.move(
+        backupDir.resolve(CheckpointBackupService.MANIFEST_FILE_NAME),
+        backupDir.resolve(CheckpointBackupService.PENDING_MANIFEST_FILE_NAME));
+    Files.delete(databaseDir.resolve("000001.sst"));
+
+    final CheckpointBackupService.BackupStatus status = backupService.backup(backupDir);
+
+    assertThat(status.getCopiedByteCount()).isZero();
+    assertThat(backupDir.resolve("database/000001.sst")).doesNotExist();
+    assertThat(backupDir.resolve(CheckpointBackupService.PENDING_MANIFEST_FILE_NAME))
+        .doesNotExist();
+    assertThat(CheckpointBackupService.readManifest(backupDir))
+        .doesNotContainKey("database/000001.sst");
+  }
+
+  @Test
+  public void restoreCopiesTheBackupFiles() throws IOException {
+    backupService.backup(backupDir);
+
+    final long restoredBytes = CheckpointBackupService.restore(backupDir, restoreDir, 2);
+
+    assertThat(restoredBytes)
+        .isEqualTo(
+            "first table".length()
+                + "second table".length()
+                + "manifest".length()
+                + "MANIFEST-000003".length()
+                + "index".length()
+                + "headers".length()
+                + "{\"version\":2}".length());
+    try (final Stream<Path> files = Files.list(restoreDir.resolve("database"))) {
+      assertThat(files.map(file -> file.getFileName().toString()))
+          .containsExactlyInAnyOrder("000001.sst", "000002.sst", "MANIFEST-000003", "CURRENT");
+    }
+    assertThat(Files.readString(restoreDir.resolve("freezer/headers.idx"))).isEqualTo("index");
+    assertThat(restoreDir.resolve("DATABASE_METADATA.json")).exists();
+  }
+
+  @Test
+  public void restoreFailsOnCorruptedBackupFile() throws IOException {
+    backupService.backup(backupDir);
+    Files.writeString(backupDir.resolve("database/000002.sst"), "second TABLE");
+
+    assertThatThrownBy(() -> CheckpointBackupService.restore(backupDir, restoreDir, 2))
+        .isInstanceOf(IllegalStateException.class)
+        .hasMessageContaining("database/000002.sst");
+  }
+
+  @Test
+  public void restoreFailsOnNonEmptyDatabase() throws IOException {
+    backupService.backup(backupDir);
+    Files.createDirectories(restoreDir.resolve("database"));
+    Files.writeString(restoreDir.resolve("database/CURRENT"), "MANIFEST-000001");
+
+    assertThatThrownBy(() -> CheckpointBackupService.restore(backupDir, restoreDir, 2))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessageContaining("is not empty");
+  }
+
+  private static String sha256(final String content) {
+    try {
+      return Bytes.wrap(
+              MessageDigest.getInstance("SHA-256")
+                  .digest(content.getBytes(StandardCharsets.UTF_8)))
+          .toHexString();
+    } catch (final NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright contributors to Hyperledger Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.api.query.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hyperledger.besu.ethereum.api.query.cache.TransactionLogBloomCacher.BLOCKS_PER_BLOOM_CACHE;
+import static org.hyperledger.besu.ethereum.api.query.cache.TransactionLogBloomCacher.BLOOM_BITS_LENGTH;
+
+import org.hyperledger.besu.datatypes.Address;
+import org.hyperledger.besu.ethereum.api.query.LogsQuery;
+import org.hyperledger.besu.evm.log.LogTopic;
+import org.hyperledger.besu.evm.log.LogsBloomFilter;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import org.apache.tuweni.bytes.Bytes32;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class BitSlicedLogBloomIndexTest {
+
+  private static final Address ADDRESS = Address.fromHexString("0x123456");
+  private static final Address OTHER_ADDRESS = Address.fromHexString("0x654321");
+  private static final LogTopic TOPIC = LogTopic.wrap(Bytes32.fromHexStringLenient("0x01"));
+
+  @TempDir private Path cacheDir;
+
+  @Test
+  public void findsTheBlocksWhoseBloomCouldMatch() throws IOException {
+    final byte[] blooms = new byte[BLOCKS_PER_BLOOM_CACHE * BLOOM_BITS_LENGTH];
+    setBloom(blooms, 10, LogsBloomFilter.builder().insertBytes(ADDRESS).build());
+    setBloom(
+        blooms, 70, LogsBloomFilter.builder().insertBytes(ADDRESS).insertBytes(TOPIC).build());
+    setBloom(blooms, 99_999, LogsBloomFilter.builder().insertBytes(OTHER_ADDRESS).build());
+    Files.write(BitSlicedLogBloomIndex.segmentFile(cacheDir, 1), blooms);
+    final BitSlicedLogBloomIndex index = new BitSlicedLogBloomIndex(cacheDir);
+    index.build(1);
+
+    assertThat(index.candidateBlocks(1, 0, 99_999, criteria(List.of(ADDRESS), List.of())))
+        .hasValueSatisfying(blocks -> assertThat(blocks).containsExactly(10, 70));
+    assertThat(
+            index.candidateBlocks(
+                1, 0, 99_999, criteria(List.of(ADDRESS, OTHER_ADDRESS), List.of(TOPIC))))
+        .hasValueSatisfying(blocks -> assertThat(blocks).containsExactly(70));
+    assertThat(
+            index.candidateBlocks(
+                1, 11, 99_999, criteria(List.of(ADDRESS, OTHER_ADDRESS), List.of())))
+        .hasValueSatisfying(blocks -> assertThat(blocks).containsExactly(70, 99_999));
+    assertThat(index.candidateBlocks(1, 5, 9, criteria(List.of(ADDRESS), List.of())))
+        .hasValueSatisfying(blocks -> assertThat(blocks).isEmpty());
+    assertThat(index.candidateBlocks(1, 64, 127, List.of()))
+        .hasValueSatisfying(
+            blocks -> assertThat(blocks).containsExactly(LongStream.range(64, 128).toArray()));
+    assertThat(BitSlicedLogBloomIndex.slicesFile(cacheDir, 1)).isRegularFile();
+  }
+
+  @Test
+  public void doesNotSearchIncompleteSegments() throws IOException {
+    Files.write(BitSlicedLogBloomIndex.segmentFile(cacheDir, 0), new byte[10 * BLOOM_BITS_LENGTH]);
+    final BitSlicedLogBloomIndex index = new BitSlicedLogBloomIndex(cacheDir);
+    index.build(0);
+    index.build(1);
+
+    assertThat(BitSlicedLogBloomIndex.slicesFile(cacheDir, 0)).doesNotExist();
+    assertThat(index.candidateBlocks(0, 0, 9, List.of())).isEmpty();
+    assertThat(index.candidateBlocks(1, 0, 9, List.of())).isEmpty();
+  }
+
+  @Test
+  public void doesNotSearchSegmentsBeforeTheirSlicesAreBuilt() throws IOException {
+    Files.write(
+        BitSlicedLogBloomIndex.segmentFile(cacheDir, 0),
+        new byte[BLOCKS_PER_BLOOM_CACHE * BLOOM_BITS_LENGTH]);
+    final BitSlicedLogBloomIndex index = new BitSlicedLogBloomIndex(cacheDir);
+
+    assertThat(index.candidateBlocks(0, 0, 9, List.of())).isEmpty();
+    assertThat(BitSlicedLogBloomIndex.slicesFile(cacheDir, 0)).doesNotExist();
+  }
+
+  @Test
+  public void stopsSearchingAnInvalidatedSegmentUntilItIsRebuilt() throws IOException {
+    final Path segmentFile = BitSlicedLogBloomIndex.segmentFile(cacheDir, 0);
+    final byte[] blooms = new byte[BLOCKS_PER_BLOOM_CACHE * BLOOM_BITS_LENGTH];
+    setBloom(blooms, 1, LogsBloomFilter.builder().insertBytes(ADDRESS).build());
+    Files.write(segmentFile, blooms);
+    final BitSlicedLogBloomIndex index = new BitSlicedLogBloomIndex(cacheDir);
+    index.build(0);
+    assertThat(index.candidateBlocks(0, 0, 99, criteria(List.of(ADDRESS), List.of())))
+        .hasValueSatisfying(blocks -> assertThat(blocks).containsExactly(1));
+
+    index.invalidate(0);
+    setBloom(blooms, 2, LogsBloomFilter.builder().insertBytes(ADDRESS).build());
+    Files.write(segmentFile, blooms);
+
+    assertThat(BitSlicedLogBloomIndex.slicesFile(cacheDir, 0)).doesNotExist();
+    assertThat(index.candidateBlocks(0, 0, 99, criteria(List.of(ADDRESS), List.of()))).isEmpty();
+
+    index.build(0);
+
+    assertThat(index.candidateBlocks(0, 0, 99, criteria(List.of(ADDRESS), List.of())))
+        .hasValueSatisfying(blocks -> assertThat(blocks).containsExactly(1, 2));
+  }
+
+  @Test
+  public void doesNotSearchTheSlicesOfAnotherSegmentFile() throws IOException {
+    final Path segmentFile = BitSlicedLogBloomIndex.segmentFile(cacheDir, 0);
+    Files.write(segmentFile, new byte[BLOCKS_PER_BLOOM_CACHE * BLOOM_BITS_LENGTH]);
+    new BitSlicedLogBloomIndex(cacheDir).build(0);
+    Files.write(segmentFile, new byte[10 * BLOOM_BITS_LENGTH]);
+
+    assertThat(new BitSlicedLogBloomIndex(cacheDir).candidateBlocks(0, 0, 9, List.of())).isEmpty();
+  }
+
+  private static List<List<LogsBloomFilter>> criteria(
+      final List<Address> addresses, final List<LogTopic> topics) {
+    return new LogsQuery(addresses, topics.isEmpty() ? List.of() : List.of(topics))
+        .getBloomCriteria();
+  }
+
+  private static void setBloom(final byte[] blooms, final int block, final LogsBloomFilter bloom) {
+    System.arraycopy(
+        bloom.toArrayUnsafe(), 0, blooms, block * BLOOM_BITS_LENGTH, BLOOM_BITS_LENGTH);
+  }
+}
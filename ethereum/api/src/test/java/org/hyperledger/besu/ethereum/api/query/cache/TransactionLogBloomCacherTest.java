@@ -132,7 +132,21 @@ public class TransactionLogBloomCacherTest {
     when(blockchain.getChainHeadBlockNumber()).thenReturn(200003L);
     assertThat(cacheDir.toFile().list().length).isEqualTo(0);
     transactionLogBloomCacher.cacheAll();
-    assertThat(cacheDir.toFile().list().length).isEqualTo(2);
+    assertThat(cacheDir.toFile().list((dir, name) -> name.endsWith(".cache"))).hasSize(2);
+  }
+
+  @Test
+  public void shouldBuildTheBitSlicedIndexOfCompleteSegments() {
+    when(blockchain.getChainHeadBlockNumber()).thenReturn(200003L);
+    transactionLogBloomCacher.cacheAll();
+
+    assertThat(BitSlicedLogBloomIndex.slicesFile(cacheDir, 0)).isRegularFile();
+    assertThat(BitSlicedLogBloomIndex.slicesFile(cacheDir, 1)).isRegularFile();
+
+    transactionLogBloomCacher.removeSegments(0L, 0L);
+
+    assertThat(BitSlicedLogBloomIndex.slicesFile(cacheDir, 0)).doesNotExist();
+    assertThat(BitSlicedLogBloomIndex.slicesFile(cacheDir, 1)).isRegularFile();
   }
 
   @Test
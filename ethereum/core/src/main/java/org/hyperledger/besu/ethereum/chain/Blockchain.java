@@ -19,6 +19,8 @@ import org.hyperledger.besu.ethereum.core.Block;
 import org.hyperledger.besu.ethereum.core.BlockBody;
 import org.hyperledger.besu.ethereum.core.BlockHeader;
 import org.hyperledger.besu.ethereum.core.Difficulty;
+import org.hyperledger.besu.ethereum.core.LazyBlockBody;
+import org.hyperledger.besu.ethereum.core.LazyTransactionReceipts;
 import org.hyperledger.besu.ethereum.core.LogWithMetadata;
 import org.hyperledger.besu.ethereum.core.Transaction;
 import org.hyperledger.besu.ethereum.core.TransactionReceipt;
@@ -176,6 +178,18 @@ public interface Blockchain {
    */
   Optional<BlockBody> getBlockBodySafe(Hash blockHeaderHash);
 
+  /**
+   * Returns a view of the block body corresponding to the given block header hash that only
+   * decodes the transactions that are asked for, and gives access to the raw encoding of the body.
+   *
+   * @param blockHeaderHash The block header hash identifying the block whose body should be
+   *     returned.
+   * @return The lazily decoded block body corresponding to the target block.
+   */
+  default Optional<LazyBlockBody> getLazyBlockBody(final Hash blockHeaderHash) {
+    return getBlockBody(blockHeaderHash).map(LazyBlockBody::of);
+  }
+
   /**
    * Given a block's hash, returns the list of transaction receipts associated with this block's
    * transactions. Associated block is not necessarily on the canonical chain.
@@ -185,6 +199,28 @@ public interface Blockchain {
    */
   Optional<List<TransactionReceipt>> getTxReceipts(Hash blockHeaderHash);
 
+  /**
+   * Given a block's hash, returns a view of the transaction receipts associated with this block's
+   * transactions that only decodes the receipts that are asked for.
+   *
+   * @param blockHeaderHash The header hash of the block we're querying.
+   * @return The lazily decoded transaction receipts corresponding to block hash.
+   */
+  default Optional<LazyTransactionReceipts> getLazyTxReceipts(final Hash blockHeaderHash) {
+    return getTxReceipts(blockHeaderHash).map(LazyTransactionReceipts::of);
+  }
+
+  /**
+   * Returns the logs of a recent block of the canonical chain when they are kept in memory, so that
+   * log queries about the head of the chain do not have to generate them again from the receipts.
+   *
+   * @param blockHash The hash of the block.
+   * @return The logs of the block, or empty if the block is not kept in memory.
+   */
+  default Optional<List<LogWithMetadata>> getRecentLogsWithMetadata(final Hash blockHash) {
+    return Optional.empty();
+  }
+
   /**
    * Retrieves the header hash of the block at the given height in the canonical chain.
    *
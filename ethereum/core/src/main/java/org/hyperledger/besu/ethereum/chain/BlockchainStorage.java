@@ -18,6 +18,8 @@ import org.hyperledger.besu.datatypes.Hash;
 import org.hyperledger.besu.ethereum.core.BlockBody;
 import org.hyperledger.besu.ethereum.core.BlockHeader;
 import org.hyperledger.besu.ethereum.core.Difficulty;
+import org.hyperledger.besu.ethereum.core.LazyBlockBody;
+import org.hyperledger.besu.ethereum.core.LazyTransactionReceipts;
 import org.hyperledger.besu.ethereum.core.TransactionReceipt;
 
 import java.util.Collection;
@@ -40,6 +42,14 @@ public interface BlockchainStorage {
 
   Optional<List<TransactionReceipt>> getTransactionReceipts(Hash blockHash);
 
+  default Optional<LazyBlockBody> getLazyBlockBody(final Hash blockHash) {
+    return getBlockBody(blockHash).map(LazyBlockBody::of);
+  }
+
+  default Optional<LazyTransactionReceipts> getLazyTransactionReceipts(final Hash blockHash) {
+    return getTransactionReceipts(blockHash).map(LazyTransactionReceipts::of);
+  }
+
   Optional<Hash> getBlockHash(long blockNumber);
 
   Optional<Difficulty> getTotalDifficulty(Hash blockHash);
@@ -0,0 +1,312 @@
+/*
+ * Copyright contributors to Hyperledger Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.chain;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import org.hyperledger.besu.datatypes.Hash;
+import org.hyperledger.besu.ethereum.core.Block;
+import org.hyperledger.besu.ethereum.core.BlockBody;
+import org.hyperledger.besu.ethereum.core.BlockWithReceipts;
+import org.hyperledger.besu.ethereum.core.Difficulty;
+import org.hyperledger.besu.ethereum.core.LazyBlockBody;
+import org.hyperledger.besu.ethereum.core.LazyTransactionReceipts;
+import org.hyperledger.besu.ethereum.core.LogWithMetadata;
+import org.hyperledger.besu.ethereum.core.Transaction;
+import org.hyperledger.besu.ethereum.core.TransactionReceipt;
+import org.hyperledger.besu.evm.log.Log;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Supplier;
+
+import com.google.common.base.Suppliers;
+
+/**
+ * The data of the last canonical blocks, kept together in a ring indexed by block number.
+ *
+ * <p>Every block in the ring is on the canonical chain: the blockchain adds the new chain head
+ * once it is committed, and drops the blocks above the common ancestor on a reorg, so a block and
+ * its receipts, total difficulty, logs and transaction locations are always evicted together.
+ * Updates are serialized by the blockchain, reads are lock free.
+ *
+ * <p>The ring holds consecutive blocks, at most as many as its capacity, and the oldest ones are
+ * evicted earlier when the estimated encoded size of the blocks and their receipts exceeds the
+ * maximum size. The decoded blocks and receipts take a few times their encoded size in memory,
+ * twice more once their lazy views have memoized their encoding.
+ */
+class CanonicalBlockRing {
+
+  // upper bounds of the encoded sizes of the parts of a block estimated without their content
+  private static final long ENCODED_HEADER_SIZE = 700;
+  private static final long ENCODED_WITHDRAWAL_SIZE = 50;
+  private static final long ENCODED_RECEIPT_SIZE = 300;
+  private static final long ENCODED_LOG_SIZE = 30;
+
+  private final AtomicReferenceArray<Entry> slots;
+  private final long maxBytes;
+  private final Map<Hash, Entry> entriesByHash = new ConcurrentHashMap<>();
+  private final Map<Hash, TransactionLocation> transactionLocations = new ConcurrentHashMap<>();
+  private long lowestNumber = 0;
+  private long highestNumber = -1;
+  private long bytes = 0;
+
+  /**
+   * Instantiates a new ring.
+   *
+   * @param capacity the number of blocks kept
+   * @param maxBytes the estimated encoded size of the blocks and receipts kept, beyond which the
+   *     oldest blocks are evicted, the chain head being always kept
+   */
+  CanonicalBlockRing(final int capacity, final long maxBytes) {
+    checkArgument(capacity > 0, "capacity must be positive");
+    checkArgument(maxBytes > 0, "maximum size must be positive");
+    this.slots = new AtomicReferenceArray<>(capacity);
+    this.maxBytes = maxBytes;
+  }
+
+  /**
+   * Adds a block which just became the canonical chain head, replacing the block of the same
+   * number and dropping the blocks above it.
+   *
+   * @param blockWithReceipts the block and its receipts
+   * @param totalDifficulty the total difficulty of the block
+   * @param logsWithMetadata the logs of the block, if they were already generated
+   */
+  synchronized void addChainHead(
+      final BlockWithReceipts blockWithReceipts,
+      final Difficulty totalDifficulty,
+      final Optional<List<LogWithMetadata>> logsWithMetadata) {
+    final long number = blockWithReceipts.getNumber();
+    if (number > highestNumber + 1) {
+      // the chain head moved forward by more than one block, keep the blocks consecutive
+      clear();
+    }
+    truncateAbove(number - 1);
+    if (entriesByHash.isEmpty()) {
+      lowestNumber = number;
+    }
+    final Entry entry = new Entry(blockWithReceipts, totalDifficulty, logsWithMetadata);
+    final Entry evicted = slots.getAndSet(slotOf(number), entry);
+    if (evicted != null) {
+      remove(evicted);
+    }
+    highestNumber = number;
+    lowestNumber = Math.max(lowestNumber, number - slots.length() + 1);
+    entriesByHash.put(entry.getHash(), entry);
+    bytes += entry.getEncodedSize();
+    final List<Transaction> transactions = entry.getBlock().getBody().getTransactions();
+    for (int i = 0; i < transactions.size(); i++) {
+      transactionLocations.put(
+          transactions.get(i).getHash(), new TransactionLocation(entry.getHash(), i));
+    }
+    evictOldestAbove(maxBytes);
+  }
+
+  /** Evicts the oldest blocks until the size is within the limit, keeping the chain head. */
+  private void evictOldestAbove(final long limit) {
+    while (bytes > limit && lowestNumber < highestNumber) {
+      final int slot = slotOf(lowestNumber);
+      final Entry entry = slots.get(slot);
+      if (entry != null && entry.getNumber() == lowestNumber) {
+        slots.set(slot, null);
+        remove(entry);
+      }
+      lowestNumber++;
+    }
+  }
+
+  /**
+   * Drops the blocks above a block number, which are no longer canonical.
+   *
+   * @param number the highest block number kept
+   */
+  synchronized void truncateAbove(final long number) {
+    final long lowestNumber = Math.max(number + 1, highestNumber - slots.length() + 1);
+    for (long current = highestNumber; current >= lowestNumber; current--) {
+      final int slot = slotOf(current);
+      final Entry entry = slots.get(slot);
+      if (entry != null && entry.getNumber() == current) {
+        slots.set(slot, null);
+        remove(entry);
+      }
+    }
+    highestNumber = Math.min(highestNumber, number);
+  }
+
+  /** Drops all the blocks. */
+  synchronized void clear() {
+    truncateAbove(-1);
+  }
+
+  private void remove(final Entry entry) {
+    if (entriesByHash.remove(entry.getHash(), entry)) {
+      bytes -= entry.getEncodedSize();
+    }
+    final List<Transaction> transactions = entry.getBlock().getBody().getTransactions();
+    for (int i = 0; i < transactions.size(); i++) {
+      // a later block may include the same transaction after a reorg
+      transactionLocations.remove(
+          transactions.get(i).getHash(), new TransactionLocation(entry.getHash(), i));
+    }
+  }
+
+  private int slotOf(final long number) {
+    return (int) Long.remainderUnsigned(number, slots.length());
+  }
+
+  /**
+   * Gets a block by hash.
+   *
+   * @param blockHash the block hash
+   * @return the block entry, if the block is in the ring
+   */
+  Optional<Entry> get(final Hash blockHash) {
+    return Optional.ofNullable(entriesByHash.get(blockHash));
+  }
+
+  /**
+   * Gets a block by number.
+   *
+   * @param number the block number
+   * @return the block entry, if the block is in the ring
+   */
+  Optional<Entry> get(final long number) {
+    if (number < 0) {
+      return Optional.empty();
+    }
+    final Entry entry = slots.get(slotOf(number));
+    return entry != null && entry.getNumber() == number ? Optional.of(entry) : Optional.empty();
+  }
+
+  /**
+   * Gets the location of a transaction included in a block of the ring.
+   *
+   * @param transactionHash the transaction hash
+   * @return the transaction location, if its block is in the ring
+   */
+  Optional<TransactionLocation> getTransactionLocation(final Hash transactionHash) {
+    return Optional.ofNullable(transactionLocations.get(transactionHash));
+  }
+
+  /**
+   * Gets the number of blocks in the ring.
+   *
+   * @return the number of blocks
+   */
+  int size() {
+    return entriesByHash.size();
+  }
+
+  /**
+   * Gets the estimated encoded size of the blocks and receipts in the ring.
+   *
+   * @return the estimated size in bytes
+   */
+  synchronized long bytes() {
+    return bytes;
+  }
+
+  /**
+   * The data of a canonical block, with lazy views over its body and receipts which encode them
+   * only once, when their raw encoding is first asked.
+   */
+  static final class Entry {
+    private final Block block;
+    private final List<TransactionReceipt> receipts;
+    private final LazyBlockBody lazyBody;
+    private final LazyTransactionReceipts lazyReceipts;
+    private final Difficulty totalDifficulty;
+    private final Supplier<List<LogWithMetadata>> logsWithMetadata;
+    private final long encodedSize;
+
+    private Entry(
+        final BlockWithReceipts blockWithReceipts,
+        final Difficulty totalDifficulty,
+        final Optional<List<LogWithMetadata>> logsWithMetadata) {
+      this.block = blockWithReceipts.getBlock();
+      this.receipts = blockWithReceipts.getReceipts();
+      this.lazyBody = LazyBlockBody.of(block.getBody());
+      this.lazyReceipts = LazyTransactionReceipts.of(receipts);
+      this.totalDifficulty = totalDifficulty;
+      this.logsWithMetadata =
+          logsWithMetadata
+              .<Supplier<List<LogWithMetadata>>>map(logs -> () -> logs)
+              .orElseGet(
+                  () -> Suppliers.memoize(() -> LogWithMetadata.generate(block, receipts, false)));
+      this.encodedSize = estimateEncodedSize(block, receipts);
+    }
+
+    /**
+     * Estimates the encoded size of a block and its receipts from the sizes of the transactions,
+     * which they already memoize, without encoding anything.
+     */
+    private static long estimateEncodedSize(
+        final Block block, final List<TransactionReceipt> receipts) {
+      final BlockBody body = block.getBody();
+      long size = ENCODED_HEADER_SIZE * (1 + body.getOmmers().size());
+      for (final Transaction transaction : body.getTransactions()) {
+        size += transaction.getSize();
+      }
+      size += ENCODED_WITHDRAWAL_SIZE * body.getWithdrawals().map(List::size).orElse(0);
+      for (final TransactionReceipt receipt : receipts) {
+        size += ENCODED_RECEIPT_SIZE;
+        for (final Log log : receipt.getLogsList()) {
+          size += ENCODED_LOG_SIZE + 33L * log.getTopics().size() + log.getData().size();
+        }
+      }
+      return size;
+    }
+
+    Hash getHash() {
+      return block.getHash();
+    }
+
+    long getNumber() {
+      return block.getHeader().getNumber();
+    }
+
+    Block getBlock() {
+      return block;
+    }
+
+    List<TransactionReceipt> getReceipts() {
+      return receipts;
+    }
+
+    LazyBlockBody getLazyBody() {
+      return lazyBody;
+    }
+
+    LazyTransactionReceipts getLazyReceipts() {
+      return lazyReceipts;
+    }
+
+    Difficulty getTotalDifficulty() {
+      return totalDifficulty;
+    }
+
+    long getEncodedSize() {
+      return encodedSize;
+    }
+
+    List<LogWithMetadata> getLogsWithMetadata() {
+      return logsWithMetadata.get();
+    }
+  }
+}
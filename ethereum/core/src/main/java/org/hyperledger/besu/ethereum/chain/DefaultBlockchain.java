@@ -27,14 +27,16 @@ import org.hyperledger.besu.ethereum.core.BlockBody;
 import org.hyperledger.besu.ethereum.core.BlockHeader;
 import org.hyperledger.besu.ethereum.core.BlockWithReceipts;
 import org.hyperledger.besu.ethereum.core.Difficulty;
+import org.hyperledger.besu.ethereum.core.LazyBlockBody;
+import org.hyperledger.besu.ethereum.core.LazyTransactionReceipts;
 import org.hyperledger.besu.ethereum.core.LogWithMetadata;
 import org.hyperledger.besu.ethereum.core.Transaction;
 import org.hyperledger.besu.ethereum.core.TransactionReceipt;
 import org.hyperledger.besu.metrics.BesuMetricCategory;
 import org.hyperledger.besu.metrics.noop.NoOpMetricsSystem;
-import org.hyperledger.besu.metrics.prometheus.PrometheusMetricsSystem;
 import org.hyperledger.besu.plugin.services.MetricsSystem;
 import org.hyperledger.besu.plugin.services.metrics.Counter;
+import org.hyperledger.besu.plugin.services.metrics.LabelledMetric;
 import org.hyperledger.besu.util.InvalidConfigurationException;
 import org.hyperledger.besu.util.Subscribers;
 
@@ -52,17 +54,20 @@ import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import com.google.common.annotations.VisibleForTesting;
-import com.google.common.cache.Cache;
-import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Streams;
-import io.prometheus.client.guava.cache.CacheMetricsCollector;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 public class DefaultBlockchain implements MutableBlockchain {
   private static final Logger LOG = LoggerFactory.getLogger(DefaultBlockchain.class);
 
+  /**
+   * Estimated encoded size of the recent blocks and receipts kept in memory, whatever the number of
+   * blocks to cache, so that blocks full of call data do not take gigabytes of heap.
+   */
+  static final long CANONICAL_BLOCK_RING_MAX_BYTES = 256L * 1024 * 1024;
+
   private final Comparator<BlockHeader> heaviestChainBlockChoiceRule =
       Comparator.comparing(this::calculateTotalDifficulty);
 
@@ -79,14 +84,12 @@ public class DefaultBlockchain implements MutableBlockchain {
 
   private Comparator<BlockHeader> blockChoiceRule;
 
-  private final int numberOfBlocksToCache;
-  private final Optional<Cache<Hash, BlockHeader>> blockHeadersCache;
-  private final Optional<Cache<Hash, BlockBody>> blockBodiesCache;
-  private final Optional<Cache<Hash, List<TransactionReceipt>>> transactionReceiptsCache;
-  private final Optional<Cache<Hash, Difficulty>> totalDifficultyCache;
+  private final Optional<CanonicalBlockRing> canonicalBlockRing;
 
   private Counter gasUsedCounter = NoOpMetricsSystem.NO_OP_COUNTER;
   private Counter numberOfTransactionsCounter = NoOpMetricsSystem.NO_OP_COUNTER;
+  private Counter canonicalBlockRingHitCounter = NoOpMetricsSystem.NO_OP_COUNTER;
+  private Counter canonicalBlockRingMissCounter = NoOpMetricsSystem.NO_OP_COUNTER;
 
   private DefaultBlockchain(
       final Optional<Block> genesisBlock,
@@ -119,34 +122,11 @@ public class DefaultBlockchain implements MutableBlockchain {
 
     this.reorgLoggingThreshold = reorgLoggingThreshold;
     this.blockChoiceRule = heaviestChainBlockChoiceRule;
-    this.numberOfBlocksToCache = numberOfBlocksToCache;
-
-    if (numberOfBlocksToCache != 0) {
-      blockHeadersCache =
-          Optional.of(
-              CacheBuilder.newBuilder().recordStats().maximumSize(numberOfBlocksToCache).build());
-      blockBodiesCache =
-          Optional.of(
-              CacheBuilder.newBuilder().recordStats().maximumSize(numberOfBlocksToCache).build());
-      transactionReceiptsCache =
-          Optional.of(
-              CacheBuilder.newBuilder().recordStats().maximumSize(numberOfBlocksToCache).build());
-      totalDifficultyCache =
-          Optional.of(
-              CacheBuilder.newBuilder().recordStats().maximumSize(numberOfBlocksToCache).build());
-      CacheMetricsCollector cacheMetrics = new CacheMetricsCollector();
-      cacheMetrics.addCache("blockHeaders", blockHeadersCache.get());
-      cacheMetrics.addCache("blockBodies", blockBodiesCache.get());
-      cacheMetrics.addCache("transactionReceipts", transactionReceiptsCache.get());
-      cacheMetrics.addCache("totalDifficulty", totalDifficultyCache.get());
-      if (metricsSystem instanceof PrometheusMetricsSystem prometheusMetricsSystem)
-        prometheusMetricsSystem.addCollector(BesuMetricCategory.BLOCKCHAIN, () -> cacheMetrics);
-    } else {
-      blockHeadersCache = Optional.empty();
-      blockBodiesCache = Optional.empty();
-      transactionReceiptsCache = Optional.empty();
-      totalDifficultyCache = Optional.empty();
-    }
+    this.canonicalBlockRing =
+        numberOfBlocksToCache != 0
+            ? Optional.of(
+                new CanonicalBlockRing(numberOfBlocksToCache, CANONICAL_BLOCK_RING_MAX_BYTES))
+            : Optional.empty();
 
     createCounters(metricsSystem);
     createGauges(metricsSystem);
@@ -162,6 +142,17 @@ public class DefaultBlockchain implements MutableBlockchain {
             BesuMetricCategory.BLOCKCHAIN,
             "chain_head_transaction_count_counter",
             "Counter for the number of transactions");
+
+    if (canonicalBlockRing.isPresent()) {
+      final LabelledMetric<Counter> canonicalBlockRingLookups =
+          metricsSystem.createLabelledCounter(
+              BesuMetricCategory.BLOCKCHAIN,
+              "recent_blocks_lookups",
+              "Lookups of the recent canonical blocks kept in memory",
+              "result");
+      canonicalBlockRingHitCounter = canonicalBlockRingLookups.labels("hit");
+      canonicalBlockRingMissCounter = canonicalBlockRingLookups.labels("miss");
+    }
   }
 
   private void createGauges(final MetricsSystem metricsSystem) {
@@ -218,6 +209,14 @@ public class DefaultBlockchain implements MutableBlockchain {
         "chain_head_ommer_count",
         "Number of ommers in the current chain head block",
         () -> chainHeadOmmerCount);
+
+    canonicalBlockRing.ifPresent(
+        ring ->
+            metricsSystem.createIntegerGauge(
+                BesuMetricCategory.BLOCKCHAIN,
+                "recent_blocks",
+                "Number of recent canonical blocks kept in memory",
+                ring::size));
   }
 
   public static MutableBlockchain createMutable(
@@ -327,37 +326,32 @@ public class DefaultBlockchain implements MutableBlockchain {
 
   @Override
   public Optional<BlockHeader> getBlockHeader(final long blockNumber) {
-    return blockchainStorage.getBlockHash(blockNumber).flatMap(this::getBlockHeader);
+    return getRecentBlock(blockNumber)
+        .map(entry -> entry.getBlock().getHeader())
+        .or(
+            () ->
+                blockchainStorage
+                    .getBlockHash(blockNumber)
+                    .flatMap(blockchainStorage::getBlockHeader));
   }
 
   @Override
   public Optional<BlockHeader> getBlockHeader(final Hash blockHeaderHash) {
-    return blockHeadersCache
-        .map(
-            cache ->
-                Optional.ofNullable(cache.getIfPresent(blockHeaderHash))
-                    .or(() -> blockchainStorage.getBlockHeader(blockHeaderHash)))
-        .orElseGet(() -> blockchainStorage.getBlockHeader(blockHeaderHash));
+    return getRecentBlock(blockHeaderHash)
+        .map(entry -> entry.getBlock().getHeader())
+        .or(() -> blockchainStorage.getBlockHeader(blockHeaderHash));
   }
 
   @Override
   public synchronized Optional<BlockHeader> getBlockHeaderSafe(final Hash blockHeaderHash) {
-    return blockHeadersCache
-        .map(
-            cache ->
-                Optional.ofNullable(cache.getIfPresent(blockHeaderHash))
-                    .or(() -> blockchainStorage.getBlockHeader(blockHeaderHash)))
-        .orElseGet(() -> blockchainStorage.getBlockHeader(blockHeaderHash));
+    return getBlockHeader(blockHeaderHash);
   }
 
   @Override
   public Optional<BlockBody> getBlockBody(final Hash blockHeaderHash) {
-    return blockBodiesCache
-        .map(
-            cache ->
-                Optional.ofNullable(cache.getIfPresent(blockHeaderHash))
-                    .or(() -> blockchainStorage.getBlockBody(blockHeaderHash)))
-        .orElseGet(() -> blockchainStorage.getBlockBody(blockHeaderHash));
+    return getRecentBlock(blockHeaderHash)
+        .map(entry -> entry.getBlock().getBody())
+        .or(() -> blockchainStorage.getBlockBody(blockHeaderHash));
   }
 
   @Override
@@ -367,43 +361,76 @@ public class DefaultBlockchain implements MutableBlockchain {
 
   @Override
   public Optional<List<TransactionReceipt>> getTxReceipts(final Hash blockHeaderHash) {
-    return transactionReceiptsCache
-        .map(
-            cache ->
-                Optional.ofNullable(cache.getIfPresent(blockHeaderHash))
-                    .or(() -> blockchainStorage.getTransactionReceipts(blockHeaderHash)))
-        .orElseGet(() -> blockchainStorage.getTransactionReceipts(blockHeaderHash));
+    return getRecentBlock(blockHeaderHash)
+        .map(CanonicalBlockRing.Entry::getReceipts)
+        .or(() -> blockchainStorage.getTransactionReceipts(blockHeaderHash));
+  }
+
+  @Override
+  public Optional<LazyBlockBody> getLazyBlockBody(final Hash blockHeaderHash) {
+    return getRecentBlock(blockHeaderHash)
+        .map(CanonicalBlockRing.Entry::getLazyBody)
+        .or(() -> blockchainStorage.getLazyBlockBody(blockHeaderHash));
+  }
+
+  @Override
+  public Optional<LazyTransactionReceipts> getLazyTxReceipts(final Hash blockHeaderHash) {
+    return getRecentBlock(blockHeaderHash)
+        .map(CanonicalBlockRing.Entry::getLazyReceipts)
+        .or(() -> blockchainStorage.getLazyTransactionReceipts(blockHeaderHash));
+  }
+
+  @Override
+  public Optional<List<LogWithMetadata>> getRecentLogsWithMetadata(final Hash blockHash) {
+    return getRecentBlock(blockHash).map(CanonicalBlockRing.Entry::getLogsWithMetadata);
   }
 
   @Override
   public Optional<Hash> getBlockHashByNumber(final long number) {
-    return blockchainStorage.getBlockHash(number);
+    return getRecentBlock(number)
+        .map(CanonicalBlockRing.Entry::getHash)
+        .or(() -> blockchainStorage.getBlockHash(number));
   }
 
   @Override
   public Optional<Difficulty> getTotalDifficultyByHash(final Hash blockHeaderHash) {
-    return totalDifficultyCache
-        .map(
-            cache ->
-                Optional.ofNullable(cache.getIfPresent(blockHeaderHash))
-                    .or(() -> blockchainStorage.getTotalDifficulty(blockHeaderHash)))
-        .orElseGet(() -> blockchainStorage.getTotalDifficulty(blockHeaderHash));
+    return getRecentBlock(blockHeaderHash)
+        .map(CanonicalBlockRing.Entry::getTotalDifficulty)
+        .or(() -> blockchainStorage.getTotalDifficulty(blockHeaderHash));
   }
 
   @Override
   public Optional<Transaction> getTransactionByHash(final Hash transactionHash) {
-    return blockchainStorage
-        .getTransactionLocation(transactionHash)
+    return getTransactionLocation(transactionHash)
         .flatMap(
             l ->
-                blockchainStorage
-                    .getBlockBody(l.getBlockHash())
-                    .map(b -> b.getTransactions().get(l.getTransactionIndex())));
+                getLazyBlockBody(l.getBlockHash())
+                    .map(b -> b.getTransaction(l.getTransactionIndex())));
   }
 
   @Override
   public Optional<TransactionLocation> getTransactionLocation(final Hash transactionHash) {
-    return blockchainStorage.getTransactionLocation(transactionHash);
+    return canonicalBlockRing
+        .flatMap(ring -> ring.getTransactionLocation(transactionHash))
+        .or(() -> blockchainStorage.getTransactionLocation(transactionHash));
+  }
+
+  private Optional<CanonicalBlockRing.Entry> getRecentBlock(final Hash blockHash) {
+    return canonicalBlockRing.flatMap(ring -> countLookup(ring.get(blockHash)));
+  }
+
+  private Optional<CanonicalBlockRing.Entry> getRecentBlock(final long blockNumber) {
+    return canonicalBlockRing.flatMap(ring -> countLookup(ring.get(blockNumber)));
+  }
+
+  private Optional<CanonicalBlockRing.Entry> countLookup(
+      final Optional<CanonicalBlockRing.Entry> entry) {
+    if (entry.isPresent()) {
+      canonicalBlockRingHitCounter.inc();
+    } else {
+      canonicalBlockRingMissCounter.inc();
+    }
+    return entry;
   }
 
   @Override
@@ -418,24 +445,14 @@ public class DefaultBlockchain implements MutableBlockchain {
 
   @Override
   public synchronized void appendBlock(final Block block, final List<TransactionReceipt> receipts) {
-    if (numberOfBlocksToCache != 0) cacheBlockData(block, receipts);
     appendBlockHelper(new BlockWithReceipts(block, receipts), false);
   }
 
   @Override
   public synchronized void storeBlock(final Block block, final List<TransactionReceipt> receipts) {
-    if (numberOfBlocksToCache != 0) cacheBlockData(block, receipts);
     appendBlockHelper(new BlockWithReceipts(block, receipts), true);
   }
 
-  private void cacheBlockData(final Block block, final List<TransactionReceipt> receipts) {
-    blockHeadersCache.ifPresent(cache -> cache.put(block.getHash(), block.getHeader()));
-    blockBodiesCache.ifPresent(cache -> cache.put(block.getHash(), block.getBody()));
-    transactionReceiptsCache.ifPresent(cache -> cache.put(block.getHash(), receipts));
-    totalDifficultyCache.ifPresent(
-        cache -> cache.put(block.getHash(), block.getHeader().getDifficulty()));
-  }
-
   private boolean blockShouldBeProcessed(
       final Block block, final List<TransactionReceipt> receipts) {
     checkArgument(
@@ -478,6 +495,9 @@ public class DefaultBlockchain implements MutableBlockchain {
     }
 
     updater.commit();
+    if (blockAddedEvent.isNewCanonicalHead()) {
+      updateRecentBlocks(blockAddedEvent, blockWithReceipts, td);
+    }
     blockAddedObservers.forEach(observer -> observer.onBlockAdded(blockAddedEvent));
   }
 
@@ -510,6 +530,7 @@ public class DefaultBlockchain implements MutableBlockchain {
     this.totalDifficulty = totalDifficulty;
     updater.setChainHead(blockHeader.getBlockHash());
     updater.commit();
+    canonicalBlockRing.ifPresent(CanonicalBlockRing::clear);
   }
 
   @Override
@@ -728,9 +749,11 @@ public class DefaultBlockchain implements MutableBlockchain {
 
       var reorgEvent = handleChainReorg(updater, blockWithReceipts);
       updater.commit();
+      final Difficulty td = calculateTotalDifficulty(block.getHeader());
+      updateRecentBlocks(reorgEvent, blockWithReceipts, td);
       blockAddedObservers.forEach(o -> o.onBlockAdded(reorgEvent));
 
-      updateCacheForNewCanonicalHead(block, calculateTotalDifficulty(block.getHeader()));
+      updateCacheForNewCanonicalHead(block, td);
       return true;
     } catch (final NoSuchElementException e) {
       // Any Optional.get() calls in this block should be present, missing data means data
@@ -752,9 +775,10 @@ public class DefaultBlockchain implements MutableBlockchain {
       final BlockWithReceipts blockWithReceipts = getBlockWithReceipts(blockHeader).get();
 
       BlockAddedEvent newHeadEvent = handleNewHead(updater, blockWithReceipts);
-      updateCacheForNewCanonicalHead(
-          blockWithReceipts.getBlock(), calculateTotalDifficulty(blockHeader));
+      final Difficulty td = calculateTotalDifficulty(blockHeader);
+      updateCacheForNewCanonicalHead(blockWithReceipts.getBlock(), td);
       updater.commit();
+      updateRecentBlocks(newHeadEvent, blockWithReceipts, td);
       blockAddedObservers.forEach(observer -> observer.onBlockAdded(newHeadEvent));
       return true;
     } catch (final NoSuchElementException e) {
@@ -765,6 +789,99 @@ public class DefaultBlockchain implements MutableBlockchain {
     }
   }
 
+  /**
+   * Reloads the chain head from the storage after another process moved it, and notifies the
+   * observers of the blocks that became canonical since the previous chain head. When the previous
+   * chain head is no longer canonical, only the new chain head is notified.
+   *
+   * @return whether the chain head changed
+   */
+  public synchronized boolean reloadChainHead() {
+    final Optional<Hash> maybeChainHead = blockchainStorage.getChainHead();
+    if (maybeChainHead.isEmpty() || maybeChainHead.get().equals(chainHeader.getHash())) {
+      return false;
+    }
+    final BlockHeader oldChainHeader = chainHeader;
+    final BlockWithReceipts newChainHead =
+        blockchainStorage
+            .getBlockHeader(maybeChainHead.get())
+            .flatMap(this::getBlockWithReceipts)
+            .orElseThrow(
+                () -> new IllegalStateException("Blockchain is missing the new chain head."));
+
+    final List<BlockWithReceipts> newCanonicalBlocks = new ArrayList<>();
+    final boolean headAdvanced =
+        newChainHead.getNumber() > oldChainHeader.getNumber()
+            && blockchainStorage
+                .getBlockHash(oldChainHeader.getNumber())
+                .filter(oldChainHeader.getHash()::equals)
+                .isPresent();
+    if (headAdvanced) {
+      for (long number = oldChainHeader.getNumber() + 1;
+          number < newChainHead.getNumber();
+          number++) {
+        blockchainStorage
+            .getBlockHash(number)
+            .flatMap(blockchainStorage::getBlockHeader)
+            .flatMap(this::getBlockWithReceipts)
+            .ifPresent(newCanonicalBlocks::add);
+      }
+    }
+    newCanonicalBlocks.add(newChainHead);
+
+    if (!headAdvanced) {
+      // the blocks kept in memory may not be canonical anymore
+      canonicalBlockRing.ifPresent(CanonicalBlockRing::clear);
+    }
+    updateCacheForNewCanonicalHead(newChainHead.getBlock(), getStoredTotalDifficulty(newChainHead));
+    for (final BlockWithReceipts blockWithReceipts : newCanonicalBlocks) {
+      final BlockAddedEvent newHeadEvent =
+          BlockAddedEvent.createForHeadAdvancement(
+              blockWithReceipts.getBlock(),
+              LogWithMetadata.generate(
+                  blockWithReceipts.getBlock(), blockWithReceipts.getReceipts(), false),
+              blockWithReceipts.getReceipts());
+      updateRecentBlocks(
+          newHeadEvent, blockWithReceipts, getStoredTotalDifficulty(blockWithReceipts));
+      blockAddedObservers.forEach(observer -> observer.onBlockAdded(newHeadEvent));
+    }
+    return true;
+  }
+
+  private Difficulty getStoredTotalDifficulty(final BlockWithReceipts blockWithReceipts) {
+    return blockchainStorage
+        .getTotalDifficulty(blockWithReceipts.getHash())
+        .orElseGet(() -> calculateTotalDifficulty(blockWithReceipts.getHeader()));
+  }
+
+  /**
+   * Keeps a block which just became the canonical chain head in memory, once its chain data is
+   * committed, dropping the blocks of the old chain on a reorg.
+   */
+  private void updateRecentBlocks(
+      final BlockAddedEvent event,
+      final BlockWithReceipts blockWithReceipts,
+      final Difficulty totalDifficulty) {
+    canonicalBlockRing.ifPresent(
+        ring -> {
+          if (event.getEventType() == BlockAddedEvent.EventType.CHAIN_REORG) {
+            ring.truncateAbove(
+                ring.get(event.getCommonAncestorHash())
+                    .map(CanonicalBlockRing.Entry::getNumber)
+                    .or(
+                        () ->
+                            blockchainStorage
+                                .getBlockHeader(event.getCommonAncestorHash())
+                                .map(BlockHeader::getNumber))
+                    .orElse(-1L));
+            ring.addChainHead(blockWithReceipts, totalDifficulty, Optional.empty());
+          } else {
+            ring.addChainHead(
+                blockWithReceipts, totalDifficulty, Optional.of(event.getLogsWithMetadata()));
+          }
+        });
+  }
+
   @Override
   public void setFinalized(final Hash blockHash) {
     final var updater = blockchainStorage.updater();
@@ -879,6 +996,12 @@ public class DefaultBlockchain implements MutableBlockchain {
   }
 
   private Optional<BlockWithReceipts> getBlockWithReceipts(final BlockHeader blockHeader) {
+    final Optional<CanonicalBlockRing.Entry> recentBlock =
+        canonicalBlockRing.flatMap(ring -> ring.get(blockHeader.getHash()));
+    if (recentBlock.isPresent()) {
+      return recentBlock.map(
+          entry -> new BlockWithReceipts(entry.getBlock(), entry.getReceipts()));
+    }
     return blockchainStorage
         .getBlockBody(blockHeader.getHash())
         .map(body -> new Block(blockHeader, body))
@@ -927,19 +1050,8 @@ public class DefaultBlockchain implements MutableBlockchain {
     blockReorgObservers.forEach(observer -> observer.onBlockAdded(blockWithReceipts, this));
   }
 
-  public Optional<Cache<Hash, BlockHeader>> getBlockHeadersCache() {
-    return blockHeadersCache;
-  }
-
-  public Optional<Cache<Hash, BlockBody>> getBlockBodiesCache() {
-    return blockBodiesCache;
-  }
-
-  public Optional<Cache<Hash, List<TransactionReceipt>>> getTransactionReceiptsCache() {
-    return transactionReceiptsCache;
-  }
-
-  public Optional<Cache<Hash, Difficulty>> getTotalDifficultyCache() {
-    return totalDifficultyCache;
+  @VisibleForTesting
+  Optional<CanonicalBlockRing> getCanonicalBlockRing() {
+    return canonicalBlockRing;
   }
 }
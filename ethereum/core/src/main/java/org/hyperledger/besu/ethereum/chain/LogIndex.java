@@ -0,0 +1,299 @@
+/*
+ * Copyright contributors to Hyperledger Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.chain;
+
+import org.hyperledger.besu.datatypes.Address;
+import org.hyperledger.besu.ethereum.core.BlockHeader;
+import org.hyperledger.besu.ethereum.core.TransactionReceipt;
+import org.hyperledger.besu.evm.log.Log;
+import org.hyperledger.besu.evm.log.LogTopic;
+import org.hyperledger.besu.plugin.services.storage.KeyValueStorageTransaction;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Maintains an exact index of the blocks in which the logs of an address, or with a topic at a
+ * position, were emitted, so that the log queries only read the receipts of the matching blocks
+ * instead of the ones whose logs bloom gives a false positive.
+ *
+ * <p>The canonical blocks are indexed as they are added and the older ones are indexed in the
+ * background, from the chain head down to genesis. The index only answers for the contiguous range
+ * of blocks indexed so far. The entries of blocks removed by a reorg are kept, the logs of the
+ * candidate blocks being matched against the query anyway.
+ */
+public class LogIndex implements BlockAddedObserver {
+  public static final int MAX_INDEXING_THREAD_QUEUE_SIZE = 1024;
+  static final int BATCH_SIZE = 1_000;
+  private static final Logger LOG = LoggerFactory.getLogger(LogIndex.class);
+
+  private final Blockchain blockchain;
+  private final LogIndexStorage indexStorage;
+  private final ExecutorService indexingExecutor;
+  private final AtomicBoolean backfillScheduled = new AtomicBoolean();
+  private volatile boolean backfillStopped;
+  // the indexed blocks, none when the low mark is above the high mark, updated under the lock
+  private final Object marksLock = new Object();
+  private volatile long lowMark;
+  private volatile long highMark;
+  // counts the reorgs which lowered the high mark, so that a batch of replaced blocks is discarded
+  private long rewinds;
+
+  public LogIndex(
+      final Blockchain blockchain,
+      final LogIndexStorage indexStorage,
+      final ExecutorService indexingExecutor) {
+    this.blockchain = blockchain;
+    this.indexStorage = indexStorage;
+    this.indexingExecutor = indexingExecutor;
+    this.highMark = indexStorage.getHighMark().orElse(blockchain.getChainHeadBlockNumber());
+    this.lowMark = indexStorage.getLowMark().orElse(highMark + 1);
+  }
+
+  /** Indexes the blocks added while the node was stopped, then the older blocks. */
+  public void start() {
+    final long chainHead = blockchain.getChainHeadBlockNumber();
+    submit(() -> indexCanonicalBlocks(highMark + 1, chainHead));
+    scheduleBackfill();
+  }
+
+  @Override
+  public void onBlockAdded(final BlockAddedEvent event) {
+    if (!event.isNewCanonicalHead()) {
+      return;
+    }
+    final long blockNumber = event.getBlock().getHeader().getNumber();
+    final long fromBlockNumber =
+        event.getEventType() == BlockAddedEvent.EventType.CHAIN_REORG
+            ? blockchain
+                .getBlockHeader(event.getCommonAncestorHash())
+                .map(header -> header.getNumber() + 1)
+                .orElse(blockNumber)
+            : blockNumber;
+    rewind(fromBlockNumber - 1);
+    submit(() -> indexCanonicalBlocks(fromBlockNumber, blockNumber));
+    scheduleBackfill();
+  }
+
+  /**
+   * Gets the numbers of the blocks which have logs emitted by one of the addresses and with one of
+   * the topics at each position.
+   *
+   * @param fromBlockNumber the first block number, inclusive
+   * @param toBlockNumber the last block number, inclusive
+   * @param addresses the addresses, any address if empty
+   * @param topics the topics by position, any topic at a position without topics or with a null one
+   * @return the block numbers in ascending order, or empty if the range is not indexed or the query
+   *     has no address nor topic to look up
+   */
+  public Optional<List<Long>> matchingBlockNumbers(
+      final long fromBlockNumber,
+      final long toBlockNumber,
+      final List<Address> addresses,
+      final List<List<LogTopic>> topics) {
+    final List<List<Bytes>> criteria = new ArrayList<>();
+    if (!addresses.isEmpty()) {
+      criteria.add(addresses.stream().map(LogIndexStorage::addressTerm).toList());
+    }
+    for (int position = 0; position < topics.size(); position++) {
+      final List<LogTopic> positionTopics = topics.get(position);
+      if (!positionTopics.isEmpty() && positionTopics.stream().allMatch(Objects::nonNull)) {
+        final int topicPosition = position;
+        criteria.add(
+            positionTopics.stream()
+                .map(topic -> LogIndexStorage.topicTerm(topicPosition, topic))
+                .toList());
+      }
+    }
+    if (criteria.isEmpty() || fromBlockNumber < lowMark || toBlockNumber > highMark) {
+      return Optional.empty();
+    }
+
+    // union of the blocks of the terms of a criterion, intersected across the criteria
+    Set<Long> blockNumbers = null;
+    for (final List<Bytes> terms : criteria) {
+      final Set<Long> candidates = blockNumbers;
+      final Set<Long> termsBlockNumbers = new TreeSet<>();
+      for (final Bytes term : terms) {
+        try (final Stream<Long> termBlockNumbers =
+            indexStorage.streamBlocks(term, fromBlockNumber, toBlockNumber)) {
+          termBlockNumbers
+              .filter(number -> candidates == null || candidates.contains(number))
+              .forEach(termsBlockNumbers::add);
+        }
+      }
+      blockNumbers = termsBlockNumbers;
+      if (blockNumbers.isEmpty()) {
+        break;
+      }
+    }
+    return Optional.of(new ArrayList<>(blockNumbers));
+  }
+
+  long getLowMark() {
+    return lowMark;
+  }
+
+  long getHighMark() {
+    return highMark;
+  }
+
+  /**
+   * Lowers the high mark below the blocks replaced by a reorg, which are not indexed until the new
+   * ones are. The batch being indexed, which may have read replaced blocks, is discarded.
+   *
+   * @param ancestorBlockNumber the number of the last block kept by the reorg
+   */
+  private void rewind(final long ancestorBlockNumber) {
+    synchronized (marksLock) {
+      if (ancestorBlockNumber >= highMark) {
+        return;
+      }
+      rewinds++;
+      final KeyValueStorageTransaction transaction = indexStorage.startTransaction();
+      indexStorage.setLowMark(transaction, lowMark);
+      indexStorage.setHighMark(transaction, ancestorBlockNumber);
+      transaction.commit();
+      highMark = ancestorBlockNumber;
+    }
+  }
+
+  private void indexCanonicalBlocks(final long fromBlockNumber, final long toBlockNumber) {
+    long blockNumber = fromBlockNumber;
+    while (true) {
+      final long batchRewinds;
+      synchronized (marksLock) {
+        blockNumber = Math.min(blockNumber, highMark + 1);
+        batchRewinds = rewinds;
+      }
+      if (blockNumber > toBlockNumber) {
+        return;
+      }
+      final long batchEnd = Math.min(toBlockNumber, blockNumber + BATCH_SIZE - 1);
+      final KeyValueStorageTransaction transaction = indexStorage.startTransaction();
+      for (long number = blockNumber; number <= batchEnd; number++) {
+        if (!indexBlock(transaction, number)) {
+          LOG.warn("Unable to index the logs of block {}, receipts not found", number);
+          transaction.rollback();
+          return;
+        }
+      }
+      synchronized (marksLock) {
+        if (rewinds != batchRewinds) {
+          // the batch may hold replaced blocks, the task submitted with the reorg indexes the new
+          // ones, or the task of the next block does from the lowered high mark
+          LOG.debug("Discarding the logs indexed from block {}, reorg in progress", blockNumber);
+          transaction.rollback();
+          return;
+        }
+        final long newLowMark = Math.min(lowMark, blockNumber);
+        indexStorage.setLowMark(transaction, newLowMark);
+        indexStorage.setHighMark(transaction, batchEnd);
+        transaction.commit();
+        lowMark = newLowMark;
+        highMark = batchEnd;
+      }
+      blockNumber = batchEnd + 1;
+    }
+  }
+
+  private void backfill() {
+    backfillScheduled.set(false);
+    final long batchEnd = lowMark - 1;
+    if (batchEnd < BlockHeader.GENESIS_BLOCK_NUMBER) {
+      LOG.info("Log index backfill completed");
+      backfillStopped = true;
+      return;
+    }
+    final long batchStart = Math.max(BlockHeader.GENESIS_BLOCK_NUMBER, batchEnd - BATCH_SIZE + 1);
+    final KeyValueStorageTransaction transaction = indexStorage.startTransaction();
+    long newLowMark = batchEnd + 1;
+    for (long number = batchEnd; number >= batchStart; number--) {
+      if (!indexBlock(transaction, number)) {
+        LOG.info("Stopping the log index backfill at block {}, receipts not found", number);
+        backfillStopped = true;
+        break;
+      }
+      newLowMark = number;
+    }
+    synchronized (marksLock) {
+      indexStorage.setLowMark(transaction, newLowMark);
+      indexStorage.setHighMark(transaction, highMark);
+      transaction.commit();
+      lowMark = newLowMark;
+    }
+    LOG.debug("Logs indexed down to block {}", newLowMark);
+    scheduleBackfill();
+  }
+
+  private boolean indexBlock(final KeyValueStorageTransaction transaction, final long number) {
+    final Optional<List<TransactionReceipt>> receipts =
+        blockchain.getBlockHashByNumber(number).flatMap(blockchain::getTxReceipts);
+    if (receipts.isEmpty()) {
+      return false;
+    }
+    final Set<Bytes> terms = new HashSet<>();
+    for (final TransactionReceipt receipt : receipts.get()) {
+      for (final Log log : receipt.getLogsList()) {
+        terms.add(LogIndexStorage.addressTerm(log.getLogger()));
+        final List<LogTopic> topics = log.getTopics();
+        for (int position = 0; position < topics.size(); position++) {
+          terms.add(LogIndexStorage.topicTerm(position, topics.get(position)));
+        }
+      }
+    }
+    terms.forEach(term -> indexStorage.addBlock(transaction, term, number));
+    return true;
+  }
+
+  private void scheduleBackfill() {
+    if (!backfillStopped && backfillScheduled.compareAndSet(false, true)) {
+      if (!submit(this::backfill)) {
+        backfillScheduled.set(false);
+      }
+    }
+  }
+
+  private boolean submit(final Runnable task) {
+    try {
+      indexingExecutor.execute(
+          () -> {
+            try {
+              task.run();
+            } catch (final RuntimeException e) {
+              LOG.error("Error indexing logs", e);
+            }
+          });
+      return true;
+    } catch (final RejectedExecutionException e) {
+      // the indexing catches up from the high mark with the next block added
+      LOG.debug("Log indexing queue full, task rejected");
+      return false;
+    }
+  }
+}
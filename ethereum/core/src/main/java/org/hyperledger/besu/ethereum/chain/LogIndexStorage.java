@@ -0,0 +1,117 @@
+/*
+ * Copyright contributors to Hyperledger Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.chain;
+
+import org.hyperledger.besu.datatypes.Address;
+import org.hyperledger.besu.evm.log.LogTopic;
+import org.hyperledger.besu.plugin.services.storage.KeyValueStorage;
+import org.hyperledger.besu.plugin.services.storage.KeyValueStorageTransaction;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.units.bigints.UInt256;
+
+/**
+ * Stores the exact log index: one key per address or (topic, position) and block number in which a
+ * log with this address or topic at this position was emitted, with the range of blocks indexed.
+ */
+public class LogIndexStorage {
+  private static final Bytes LOW_MARK_KEY = Bytes.wrap("lowMark".getBytes(StandardCharsets.UTF_8));
+  private static final Bytes HIGH_MARK_KEY =
+      Bytes.wrap("highMark".getBytes(StandardCharsets.UTF_8));
+
+  private static final Bytes VARIABLES_PREFIX = Bytes.of(1);
+  private static final Bytes TERMS_PREFIX = Bytes.of(2);
+
+  private static final byte ADDRESS_KIND = 0;
+  private static final Bytes PRESENT_VALUE = Bytes.of(0);
+
+  private final KeyValueStorage storage;
+
+  public LogIndexStorage(final KeyValueStorage storage) {
+    this.storage = storage;
+  }
+
+  public KeyValueStorageTransaction startTransaction() {
+    return storage.startTransaction();
+  }
+
+  public Optional<Long> getLowMark() {
+    return get(VARIABLES_PREFIX, LOW_MARK_KEY).map(UInt256::fromBytes).map(UInt256::toLong);
+  }
+
+  public Optional<Long> getHighMark() {
+    return get(VARIABLES_PREFIX, HIGH_MARK_KEY).map(UInt256::fromBytes).map(UInt256::toLong);
+  }
+
+  public void setLowMark(final KeyValueStorageTransaction transaction, final long lowMark) {
+    set(transaction, VARIABLES_PREFIX, LOW_MARK_KEY, UInt256.valueOf(lowMark));
+  }
+
+  public void setHighMark(final KeyValueStorageTransaction transaction, final long highMark) {
+    set(transaction, VARIABLES_PREFIX, HIGH_MARK_KEY, UInt256.valueOf(highMark));
+  }
+
+  public static Bytes addressTerm(final Address address) {
+    return Bytes.concatenate(Bytes.of(ADDRESS_KIND), address);
+  }
+
+  public static Bytes topicTerm(final int position, final LogTopic topic) {
+    return Bytes.concatenate(Bytes.of(ADDRESS_KIND + 1 + position), topic);
+  }
+
+  public void addBlock(
+      final KeyValueStorageTransaction transaction, final Bytes term, final long blockNumber) {
+    set(transaction, TERMS_PREFIX, blockKey(term, blockNumber), PRESENT_VALUE);
+  }
+
+  /**
+   * Streams the numbers of the blocks indexed for a term, in ascending order.
+   *
+   * @param term the address or topic term
+   * @param fromBlockNumber the first block number, inclusive
+   * @param toBlockNumber the last block number, inclusive
+   * @return the block numbers
+   */
+  public Stream<Long> streamBlocks(
+      final Bytes term, final long fromBlockNumber, final long toBlockNumber) {
+    final int numberOffset = TERMS_PREFIX.size() + term.size();
+    return storage
+        .streamFromKey(
+            Bytes.concatenate(TERMS_PREFIX, blockKey(term, fromBlockNumber)).toArrayUnsafe(),
+            Bytes.concatenate(TERMS_PREFIX, blockKey(term, toBlockNumber)).toArrayUnsafe())
+        .map(pair -> Bytes.wrap(pair.getKey()).getLong(numberOffset));
+  }
+
+  private static Bytes blockKey(final Bytes term, final long blockNumber) {
+    // big endian, so that the keys of a term are sorted by block number
+    return Bytes.concatenate(term, Bytes.ofUnsignedLong(blockNumber));
+  }
+
+  private Optional<Bytes> get(final Bytes prefix, final Bytes key) {
+    return storage.get(Bytes.concatenate(prefix, key).toArrayUnsafe()).map(Bytes::wrap);
+  }
+
+  private void set(
+      final KeyValueStorageTransaction transaction,
+      final Bytes prefix,
+      final Bytes key,
+      final Bytes value) {
+    transaction.put(Bytes.concatenate(prefix, key).toArrayUnsafe(), value.toArrayUnsafe());
+  }
+}
@@ -0,0 +1,224 @@
+/*
+ * Copyright contributors to Hyperledger Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.core;
+
+import static com.google.common.base.Preconditions.checkElementIndex;
+
+import org.hyperledger.besu.datatypes.Hash;
+import org.hyperledger.besu.ethereum.core.encoding.EncodingContext;
+import org.hyperledger.besu.ethereum.core.encoding.TransactionEncoder;
+import org.hyperledger.besu.ethereum.rlp.RLP;
+import org.hyperledger.besu.ethereum.rlp.RLPInput;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.apache.tuweni.bytes.Bytes;
+
+/**
+ * A view over the wrapped RLP encoding of a {@link BlockBody}, as it is stored and exchanged with
+ * peers, that only decodes what is asked for.
+ *
+ * <p>Creating the view only walks the transactions list to index where every transaction starts.
+ * Transactions are then decoded individually on demand, and the raw encoding can be forwarded as is
+ * without being re-encoded. A view over an already decoded body works the other way around, and
+ * only encodes the body the first time its raw encoding is asked.
+ */
+public class LazyBlockBody {
+
+  private volatile Encoding encoding;
+  private final AtomicReferenceArray<Transaction> transactions;
+  private volatile BlockBody decodedBody;
+
+  /**
+   * The encoding of the body, where transactionOffsets[i] is where the i-th transaction starts in
+   * rlp, and the last element is where the transactions list ends.
+   */
+  private record Encoding(Bytes rlp, int[] transactionOffsets) {}
+
+  private LazyBlockBody(final Encoding encoding) {
+    this.encoding = encoding;
+    this.transactions = new AtomicReferenceArray<>(encoding.transactionOffsets().length - 1);
+  }
+
+  private LazyBlockBody(final BlockBody decodedBody) {
+    this.transactions =
+        new AtomicReferenceArray<>(decodedBody.getTransactions().toArray(new Transaction[0]));
+    this.decodedBody = decodedBody;
+  }
+
+  /**
+   * Creates a view over a wrapped block body encoding, see {@link
+   * BlockBody#writeWrappedBodyTo(org.hyperledger.besu.ethereum.rlp.RLPOutput)}.
+   *
+   * @param wrappedBodyRlp the RLP encoded block body
+   * @return the lazy block body
+   */
+  public static LazyBlockBody wrap(final Bytes wrappedBodyRlp) {
+    return new LazyBlockBody(index(wrappedBodyRlp));
+  }
+
+  private static Encoding index(final Bytes wrappedBodyRlp) {
+    final RLPInput input = RLP.input(wrappedBodyRlp);
+    input.enterList();
+    // Transactions are contiguous, so each one starts where the previous one ends and the first
+    // one starts with the payload of the transactions list.
+    int itemStart = input.nextOffset();
+    final int count = input.enterList();
+    final int[] offsets = new int[count + 1];
+    for (int i = 0; i < count; i++) {
+      offsets[i] = itemStart;
+      itemStart = input.nextOffset() + input.nextSize();
+      input.skipNext();
+    }
+    offsets[count] = itemStart;
+    return new Encoding(wrappedBodyRlp, offsets);
+  }
+
+  /**
+   * Creates a view over an already decoded block body, without encoding it.
+   *
+   * @param blockBody the block body
+   * @return the lazy block body, with all its content already decoded
+   */
+  public static LazyBlockBody of(final BlockBody blockBody) {
+    return new LazyBlockBody(blockBody);
+  }
+
+  private Encoding encoding() {
+    Encoding current = encoding;
+    if (current == null) {
+      current = index(RLP.encode(decodedBody::writeWrappedBodyTo));
+      encoding = current;
+    }
+    return current;
+  }
+
+  /**
+   * Returns the wrapped RLP encoding of the block body, as stored and sent to peers.
+   *
+   * @return the RLP encoded block body
+   */
+  public Bytes getRlp() {
+    return encoding().rlp();
+  }
+
+  /**
+   * Returns the number of transactions in the body, without decoding them.
+   *
+   * @return the number of transactions
+   */
+  public int getTransactionCount() {
+    return transactions.length();
+  }
+
+  /**
+   * Returns the RLP item of a transaction as it appears in the body.
+   *
+   * @param index the transaction index
+   * @return the RLP encoded transaction
+   */
+  public Bytes getEncodedTransaction(final int index) {
+    checkElementIndex(index, getTransactionCount());
+    final Encoding current = encoding;
+    if (current == null) {
+      return RLP.encode(transactions.get(index)::writeTo);
+    }
+    final int[] offsets = current.transactionOffsets();
+    return current.rlp().slice(offsets[index], offsets[index + 1] - offsets[index]);
+  }
+
+  /**
+   * Returns the opaque bytes of a transaction, that is its RLP for legacy transactions and the
+   * transaction type followed by its RLP for typed transactions, as used by the Engine API.
+   *
+   * @param index the transaction index
+   * @return the opaque transaction bytes
+   */
+  public Bytes getOpaqueTransaction(final int index) {
+    checkElementIndex(index, getTransactionCount());
+    if (encoding == null) {
+      return TransactionEncoder.encodeOpaqueBytes(
+          transactions.get(index), EncodingContext.BLOCK_BODY);
+    }
+    final RLPInput input = RLP.input(getEncodedTransaction(index));
+    return input.nextIsList() ? input.raw() : input.readBytes();
+  }
+
+  /**
+   * Returns the hash of a transaction, computed from its raw encoding unless already decoded.
+   *
+   * @param index the transaction index
+   * @return the transaction hash
+   */
+  public Hash getTransactionHash(final int index) {
+    final Transaction transaction = transactions.get(index);
+    if (transaction != null) {
+      return transaction.getHash();
+    }
+    return Hash.hash(getOpaqueTransaction(index));
+  }
+
+  /**
+   * Returns a transaction of the body, decoding only that transaction the first time it is asked.
+   *
+   * @param index the transaction index
+   * @return the decoded transaction
+   */
+  public Transaction getTransaction(final int index) {
+    final Transaction cached = transactions.get(index);
+    if (cached != null) {
+      return cached;
+    }
+    final Transaction decoded = Transaction.readFrom(RLP.input(getEncodedTransaction(index)));
+    return transactions.compareAndSet(index, null, decoded) ? decoded : transactions.get(index);
+  }
+
+  /**
+   * Returns the withdrawals of the body, decoding only them.
+   *
+   * @return the optional list of withdrawals included in the body
+   */
+  public Optional<List<Withdrawal>> getWithdrawals() {
+    final BlockBody body = decodedBody;
+    if (body != null) {
+      return body.getWithdrawals();
+    }
+    final RLPInput input = RLP.input(encoding().rlp());
+    input.enterList();
+    // skip transactions and ommers
+    input.skipNext();
+    input.skipNext();
+    return input.isEndOfCurrentList()
+        ? Optional.empty()
+        : Optional.of(input.readList(Withdrawal::readFrom));
+  }
+
+  /**
+   * Fully decodes the block body.
+   *
+   * @param blockHeaderFunctions the block header functions used to decode ommers
+   * @return the decoded block body
+   */
+  public BlockBody decode(final BlockHeaderFunctions blockHeaderFunctions) {
+    BlockBody body = decodedBody;
+    if (body == null) {
+      body = BlockBody.readWrappedBodyFrom(RLP.input(encoding().rlp()), blockHeaderFunctions);
+      decodedBody = body;
+    }
+    return body;
+  }
+}
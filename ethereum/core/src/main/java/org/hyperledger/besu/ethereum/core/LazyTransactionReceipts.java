@@ -0,0 +1,275 @@
+/*
+ * Copyright contributors to Hyperledger Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.core;
+
+import static com.google.common.base.Preconditions.checkElementIndex;
+
+import org.hyperledger.besu.ethereum.rlp.RLP;
+import org.hyperledger.besu.ethereum.rlp.RLPInput;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.apache.tuweni.bytes.Bytes;
+
+/**
+ * A view over the storage RLP encoding of the receipts of a block that only decodes what is asked
+ * for.
+ *
+ * <p>Creating the view only walks the receipts list to index where every receipt starts. Receipts
+ * are then decoded individually on demand, which matters in particular for compacted receipts whose
+ * bloom filter has to be recomputed from the logs on decoding. The cumulative gas used and the
+ * number of logs of a receipt can be read without decoding it. A view over already decoded
+ * receipts, or over receipts stored in another layout read by a {@link ReceiptDecoder}, only
+ * encodes them the first time their raw encoding is asked.
+ */
+public class LazyTransactionReceipts {
+
+  private volatile Encoding encoding;
+  private final AtomicReferenceArray<TransactionReceipt> receipts;
+  private final ReceiptDecoder decoder;
+
+  /** Reads the receipts of a block stored in a layout other than the storage RLP encoding. */
+  public interface ReceiptDecoder {
+
+    /**
+     * Decodes a receipt.
+     *
+     * @param index the receipt index
+     * @return the decoded receipt
+     */
+    TransactionReceipt decode(int index);
+
+    /**
+     * Reads the cumulative gas used of a receipt without decoding it.
+     *
+     * @param index the receipt index
+     * @return the cumulative gas used in the block after the transaction at that index
+     */
+    long getCumulativeGasUsed(int index);
+
+    /**
+     * Reads the number of logs of a receipt without decoding it.
+     *
+     * @param index the receipt index
+     * @return the number of logs emitted by the transaction at that index
+     */
+    int getLogCount(int index);
+  }
+
+  /**
+   * The encoding of the receipts, where receiptOffsets[i] is where the i-th receipt starts in rlp,
+   * and the last element is where the receipts list ends.
+   */
+  private record Encoding(Bytes rlp, int[] receiptOffsets) {}
+
+  private LazyTransactionReceipts(final Encoding encoding) {
+    this.encoding = encoding;
+    this.receipts = new AtomicReferenceArray<>(encoding.receiptOffsets().length - 1);
+    this.decoder = null;
+  }
+
+  private LazyTransactionReceipts(final List<TransactionReceipt> decodedReceipts) {
+    this.receipts = new AtomicReferenceArray<>(decodedReceipts.toArray(new TransactionReceipt[0]));
+    this.decoder = null;
+  }
+
+  private LazyTransactionReceipts(final int size, final ReceiptDecoder decoder) {
+    this.receipts = new AtomicReferenceArray<>(size);
+    this.decoder = decoder;
+  }
+
+  /**
+   * Creates a view over the storage encoding of a list of receipts, see {@link
+   * TransactionReceipt#writeToForStorage(org.hyperledger.besu.ethereum.rlp.RLPOutput, boolean)}.
+   *
+   * @param receiptsRlp the RLP encoded list of receipts
+   * @return the lazy receipts
+   */
+  public static LazyTransactionReceipts wrap(final Bytes receiptsRlp) {
+    return new LazyTransactionReceipts(index(receiptsRlp));
+  }
+
+  private static Encoding index(final Bytes receiptsRlp) {
+    final RLPInput input = RLP.input(receiptsRlp);
+    // Receipts are contiguous, so each one starts where the previous one ends and the first one
+    // starts with the payload of the list.
+    int itemStart = input.nextOffset();
+    final int count = input.enterList();
+    final int[] offsets = new int[count + 1];
+    for (int i = 0; i < count; i++) {
+      offsets[i] = itemStart;
+      itemStart = input.nextOffset() + input.nextSize();
+      input.skipNext();
+    }
+    offsets[count] = itemStart;
+    return new Encoding(receiptsRlp, offsets);
+  }
+
+  /**
+   * Creates a view over already decoded receipts, without encoding them.
+   *
+   * @param transactionReceipts the receipts
+   * @return the lazy receipts, with all of them already decoded
+   */
+  public static LazyTransactionReceipts of(final List<TransactionReceipt> transactionReceipts) {
+    return new LazyTransactionReceipts(transactionReceipts);
+  }
+
+  /**
+   * Creates a view over receipts read by a decoder, each one being decoded the first time it is
+   * asked.
+   *
+   * @param size the number of receipts
+   * @param decoder the decoder of the receipts
+   * @return the lazy receipts
+   */
+  public static LazyTransactionReceipts decodedBy(final int size, final ReceiptDecoder decoder) {
+    return new LazyTransactionReceipts(size, decoder);
+  }
+
+  private Encoding encoding() {
+    Encoding current = encoding;
+    if (current == null) {
+      final List<TransactionReceipt> decodedReceipts = decodeAll();
+      current =
+          index(
+              RLP.encode(
+                  out ->
+                      out.writeList(
+                          decodedReceipts,
+                          (receipt, receiptOutput) ->
+                              receipt.writeToForStorage(receiptOutput, false))));
+      encoding = current;
+    }
+    return current;
+  }
+
+  /**
+   * Returns the storage RLP encoding of the receipts.
+   *
+   * @return the RLP encoded receipts
+   */
+  public Bytes getRlp() {
+    return encoding().rlp();
+  }
+
+  /**
+   * Returns the number of receipts, without decoding them.
+   *
+   * @return the number of receipts
+   */
+  public int size() {
+    return receipts.length();
+  }
+
+  /**
+   * Returns the RLP item of a receipt as it is stored.
+   *
+   * @param index the receipt index
+   * @return the RLP encoded receipt
+   */
+  public Bytes getEncodedReceipt(final int index) {
+    checkElementIndex(index, size());
+    final Encoding current = encoding();
+    final int[] offsets = current.receiptOffsets();
+    return current.rlp().slice(offsets[index], offsets[index + 1] - offsets[index]);
+  }
+
+  /**
+   * Returns a receipt, decoding only that receipt the first time it is asked.
+   *
+   * @param index the receipt index
+   * @return the decoded receipt
+   */
+  public TransactionReceipt get(final int index) {
+    final TransactionReceipt cached = receipts.get(index);
+    if (cached != null) {
+      return cached;
+    }
+    final TransactionReceipt decoded =
+        decoder != null
+            ? decoder.decode(index)
+            : TransactionReceipt.readFrom(RLP.input(getEncodedReceipt(index)));
+    return receipts.compareAndSet(index, null, decoded) ? decoded : receipts.get(index);
+  }
+
+  /**
+   * Returns the cumulative gas used of a receipt without decoding it.
+   *
+   * @param index the receipt index
+   * @return the cumulative gas used in the block after the transaction at that index
+   */
+  public long getCumulativeGasUsed(final int index) {
+    final TransactionReceipt cached = receipts.get(index);
+    if (cached != null) {
+      return cached.getCumulativeGasUsed();
+    }
+    if (decoder != null) {
+      return decoder.getCumulativeGasUsed(index);
+    }
+    return receiptFields(index).readLongScalar();
+  }
+
+  /**
+   * Returns the number of logs of a receipt without decoding it.
+   *
+   * @param index the receipt index
+   * @return the number of logs emitted by the transaction at that index
+   */
+  public int getLogCount(final int index) {
+    final TransactionReceipt cached = receipts.get(index);
+    if (cached != null) {
+      return cached.getLogsList().size();
+    }
+    if (decoder != null) {
+      return decoder.getLogCount(index);
+    }
+    final RLPInput input = receiptFields(index);
+    // skip the cumulative gas used and, unless the receipt is compacted, the bloom filter
+    input.skipNext();
+    if (!input.nextIsList()) {
+      input.skipNext();
+    }
+    return input.enterList();
+  }
+
+  /**
+   * Fully decodes the receipts.
+   *
+   * @return the decoded receipts
+   */
+  public List<TransactionReceipt> decodeAll() {
+    final List<TransactionReceipt> decoded = new ArrayList<>(size());
+    for (int i = 0; i < size(); i++) {
+      decoded.add(get(i));
+    }
+    return decoded;
+  }
+
+  /** Returns an input positioned on the cumulative gas used field of a receipt. */
+  private RLPInput receiptFields(final int index) {
+    RLPInput input = RLP.input(getEncodedReceipt(index));
+    if (!input.nextIsList()) {
+      // typed receipt: the type byte is followed by the receipt list
+      input = RLP.input(input.readBytes().slice(1));
+    }
+    input.enterList();
+    // skip the status or state root
+    input.skipNext();
+    return input;
+  }
+}
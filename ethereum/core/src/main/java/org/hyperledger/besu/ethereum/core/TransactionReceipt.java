@@ -18,7 +18,6 @@ import org.hyperledger.besu.datatypes.Hash;
 import org.hyperledger.besu.datatypes.TransactionType;
 import org.hyperledger.besu.ethereum.mainnet.TransactionReceiptType;
 import org.hyperledger.besu.ethereum.rlp.BytesValueRLPInput;
-import org.hyperledger.besu.ethereum.rlp.RLP;
 import org.hyperledger.besu.ethereum.rlp.RLPException;
 import org.hyperledger.besu.ethereum.rlp.RLPInput;
 import org.hyperledger.besu.ethereum.rlp.RLPOutput;
@@ -183,8 +182,7 @@ public class TransactionReceipt implements org.hyperledger.besu.plugin.data.Tran
     if (transactionType.equals(TransactionType.FRONTIER)) {
       writeToForReceiptTrie(rlpOutput, withRevertReason, compacted);
     } else {
-      rlpOutput.writeBytes(
-          RLP.encode(out -> writeToForReceiptTrie(out, withRevertReason, compacted)));
+      rlpOutput.writeEncodedBytes(out -> writeToForReceiptTrie(out, withRevertReason, compacted));
     }
   }
 
@@ -348,6 +346,15 @@ public class TransactionReceipt implements org.hyperledger.besu.plugin.data.Tran
     return transactionReceiptType;
   }
 
+  /**
+   * Returns the type of the transaction of this receipt
+   *
+   * @return the type of the transaction of this receipt
+   */
+  public TransactionType getTransactionType() {
+    return transactionType;
+  }
+
   @Override
   public Optional<Bytes> getRevertReason() {
     return revertReason;
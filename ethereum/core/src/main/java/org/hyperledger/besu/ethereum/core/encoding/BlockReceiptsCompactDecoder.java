@@ -0,0 +1,182 @@
+/*
+ * Copyright contributors to Hyperledger Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.core.encoding;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import org.hyperledger.besu.datatypes.Address;
+import org.hyperledger.besu.datatypes.Hash;
+import org.hyperledger.besu.datatypes.TransactionType;
+import org.hyperledger.besu.ethereum.core.LazyTransactionReceipts;
+import org.hyperledger.besu.ethereum.core.TransactionReceipt;
+import org.hyperledger.besu.ethereum.rlp.RLP;
+import org.hyperledger.besu.ethereum.rlp.RLPInput;
+import org.hyperledger.besu.evm.log.Log;
+import org.hyperledger.besu.evm.log.LogTopic;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.bytes.Bytes32;
+
+/**
+ * Decodes the receipts of a block stored in the compact layout of {@link
+ * BlockReceiptsCompactEncoder}, recomputing the cumulative gas used and the bloom filter of every
+ * receipt.
+ *
+ * <p>The recomputed fields are not stored back. The cumulative gas used is cheap to derive, since
+ * indexing the receipts reads the gas used by each of them, whereas the bloom filter is only
+ * recomputed when a receipt is decoded, so {@link #decodeLazily(Bytes)} lets the readers of a few
+ * receipts or of their gas skip it for the others.
+ */
+public class BlockReceiptsCompactDecoder {
+
+  private BlockReceiptsCompactDecoder() {
+    // private constructor
+  }
+
+  /**
+   * Whether stored receipts are in the compact layout, rather than an RLP list of receipts.
+   *
+   * @param storedReceipts the stored receipts of a block
+   * @return true if the receipts are in the compact layout
+   */
+  public static boolean isCompact(final Bytes storedReceipts) {
+    return !storedReceipts.isEmpty()
+        && storedReceipts.get(0) == BlockReceiptsCompactEncoder.FORMAT_VERSION;
+  }
+
+  /**
+   * Decodes the receipts of a block stored in the compact layout.
+   *
+   * @param compactReceipts the compact encoding of the receipts
+   * @return the receipts of the block, in transaction order
+   */
+  public static List<TransactionReceipt> decode(final Bytes compactReceipts) {
+    return decodeLazily(compactReceipts).decodeAll();
+  }
+
+  /**
+   * Creates a view over the receipts of a block stored in the compact layout, which only reads
+   * the dictionaries and the gas used by every receipt up front, and decodes each receipt the first
+   * time it is asked.
+   *
+   * @param compactReceipts the compact encoding of the receipts
+   * @return the lazy receipts of the block, in transaction order
+   */
+  public static LazyTransactionReceipts decodeLazily(final Bytes compactReceipts) {
+    checkArgument(isCompact(compactReceipts), "Receipts are not in the compact layout");
+    final Bytes rlp = compactReceipts.slice(1);
+    final RLPInput input = RLP.input(rlp);
+    input.enterList();
+    final List<Address> addresses = input.readList(in -> Address.wrap(in.readBytes()));
+    final List<LogTopic> topics = input.readList(in -> LogTopic.wrap(in.readBytes32()));
+
+    // receipts are contiguous, so each one starts where the previous one ends and the first one
+    // starts with the payload of the list
+    int itemStart = input.nextOffset();
+    final int receiptCount = input.enterList();
+    final int[] offsets = new int[receiptCount + 1];
+    final long[] cumulativeGasUsed = new long[receiptCount];
+    long gasUsed = 0;
+    for (int i = 0; i < receiptCount; i++) {
+      offsets[i] = itemStart;
+      itemStart = input.nextOffset() + input.nextSize();
+      input.enterList();
+      // skip the type and the status or state root
+      input.skipNext();
+      input.skipNext();
+      gasUsed += input.readLongScalar();
+      cumulativeGasUsed[i] = gasUsed;
+      while (!input.isEndOfCurrentList()) {
+        input.skipNext();
+      }
+      input.leaveList();
+    }
+    offsets[receiptCount] = itemStart;
+    return LazyTransactionReceipts.decodedBy(
+        receiptCount,
+        new CompactReceiptDecoder(rlp, offsets, cumulativeGasUsed, addresses, topics));
+  }
+
+  private record CompactReceiptDecoder(
+      Bytes rlp,
+      int[] offsets,
+      long[] cumulativeGasUsed,
+      List<Address> addresses,
+      List<LogTopic> topics)
+      implements LazyTransactionReceipts.ReceiptDecoder {
+
+    private RLPInput receiptInput(final int index) {
+      final RLPInput input =
+          RLP.input(rlp.slice(offsets[index], offsets[index + 1] - offsets[index]));
+      input.enterList();
+      return input;
+    }
+
+    @Override
+    public TransactionReceipt decode(final int index) {
+      final RLPInput input = receiptInput(index);
+      final int type = input.readIntScalar();
+      final Bytes statusOrStateRoot = input.readBytes();
+      input.skipNext();
+      final List<Log> logs =
+          input.readList(
+              in -> {
+                in.enterList();
+                final Address logger = addresses.get(in.readIntScalar());
+                final List<LogTopic> logTopics =
+                    in.readList(topicIn -> topics.get(topicIn.readIntScalar()));
+                final Bytes data = in.readBytes();
+                in.leaveList();
+                return new Log(logger, data, logTopics);
+              });
+      final Optional<Bytes> revertReason =
+          input.isEndOfCurrentList() ? Optional.empty() : Optional.of(input.readBytes());
+      input.leaveList();
+
+      // the receipt constructors recompute the bloom filter from the logs
+      if (statusOrStateRoot.size() == Bytes32.SIZE) {
+        return new TransactionReceipt(
+            Hash.wrap(Bytes32.wrap(statusOrStateRoot)),
+            cumulativeGasUsed[index],
+            logs,
+            revertReason);
+      }
+      return new TransactionReceipt(
+          type == 0 ? TransactionType.FRONTIER : TransactionType.of(type),
+          statusOrStateRoot.isEmpty() ? 0 : statusOrStateRoot.toInt(),
+          cumulativeGasUsed[index],
+          logs,
+          revertReason);
+    }
+
+    @Override
+    public long getCumulativeGasUsed(final int index) {
+      return cumulativeGasUsed[index];
+    }
+
+    @Override
+    public int getLogCount(final int index) {
+      final RLPInput input = receiptInput(index);
+      // skip the type, the status or state root and the gas used
+      input.skipNext();
+      input.skipNext();
+      input.skipNext();
+      return input.enterList();
+    }
+  }
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright contributors to Hyperledger Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.core.encoding;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import org.hyperledger.besu.datatypes.Address;
+import org.hyperledger.besu.datatypes.TransactionType;
+import org.hyperledger.besu.ethereum.core.TransactionReceipt;
+import org.hyperledger.besu.ethereum.rlp.RLP;
+import org.hyperledger.besu.evm.log.Log;
+import org.hyperledger.besu.evm.log.LogTopic;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.tuweni.bytes.Bytes;
+
+/**
+ * Encodes the receipts of a block in the compact storage layout.
+ *
+ * <p>Compared to the RLP list of receipts, the compact layout drops the bloom filters, stores the
+ * gas used by each transaction instead of the cumulative gas used, and replaces the log addresses
+ * and topics by indexes into dictionaries of the distinct addresses and topics of the block:
+ *
+ * <pre>
+ * compact := FORMAT_VERSION || rlp([[address...], [topic...], [receipt...]])
+ * receipt := [type, status or state root, gas used, [log...], revert reason?]
+ * log := [address index, [topic index...], data]
+ * </pre>
+ *
+ * <p>The fields that are dropped are recomputed by {@link BlockReceiptsCompactDecoder}.
+ */
+public class BlockReceiptsCompactEncoder {
+
+  /**
+   * Prefix of the compact layout. An RLP list of receipts always starts with a byte of at least
+   * 0xc0, so both layouts can be told apart from their first byte.
+   */
+  public static final byte FORMAT_VERSION = 0x01;
+
+  private BlockReceiptsCompactEncoder() {
+    // private constructor
+  }
+
+  /**
+   * Encodes the receipts of a block in the compact layout.
+   *
+   * @param receipts the receipts of the block, in transaction order
+   * @return the compact encoding of the receipts
+   */
+  public static Bytes encode(final List<TransactionReceipt> receipts) {
+    final Map<Address, Integer> addresses = new LinkedHashMap<>();
+    final Map<LogTopic, Integer> topics = new LinkedHashMap<>();
+    for (final TransactionReceipt receipt : receipts) {
+      checkArgument(
+          receipt.getStateRoot() == null
+              || receipt.getTransactionType().equals(TransactionType.FRONTIER),
+          "State root receipts are only supported for frontier transactions");
+      for (final Log log : receipt.getLogsList()) {
+        addresses.putIfAbsent(log.getLogger(), addresses.size());
+        log.getTopics().forEach(topic -> topics.putIfAbsent(topic, topics.size()));
+      }
+    }
+
+    final Bytes rlp =
+        RLP.encode(
+            out -> {
+              out.startList();
+              out.writeList(addresses.keySet(), (address, listOut) -> listOut.writeBytes(address));
+              out.writeList(topics.keySet(), (topic, listOut) -> listOut.writeBytes(topic));
+              out.startList();
+              long previousCumulativeGasUsed = 0;
+              for (final TransactionReceipt receipt : receipts) {
+                out.startList();
+                out.writeIntScalar(receipt.getTransactionType().getEthSerializedType());
+                if (receipt.getStateRoot() != null) {
+                  out.writeBytes(receipt.getStateRoot());
+                } else {
+                  out.writeIntScalar(receipt.getStatus());
+                }
+                out.writeLongScalar(receipt.getCumulativeGasUsed() - previousCumulativeGasUsed);
+                previousCumulativeGasUsed = receipt.getCumulativeGasUsed();
+                out.writeList(
+                    receipt.getLogsList(),
+                    (log, logOut) -> {
+                      logOut.startList();
+                      logOut.writeIntScalar(addresses.get(log.getLogger()));
+                      logOut.writeList(
+                          log.getTopics(),
+                          (topic, topicOut) -> topicOut.writeIntScalar(topics.get(topic)));
+                      logOut.writeBytes(log.getData());
+                      logOut.endList();
+                    });
+                receipt.getRevertReason().ifPresent(out::writeBytes);
+                out.endList();
+              }
+              out.endList();
+              out.endList();
+            });
+    return Bytes.concatenate(Bytes.of(FORMAT_VERSION), rlp);
+  }
+}
@@ -18,8 +18,7 @@ import static com.google.common.base.Preconditions.checkNotNull;
 
 import org.hyperledger.besu.datatypes.TransactionType;
 import org.hyperledger.besu.ethereum.core.Transaction;
-import org.hyperledger.besu.ethereum.rlp.BytesValueRLPOutput;
-import org.hyperledger.besu.ethereum.rlp.RLP;
+import org.hyperledger.besu.ethereum.rlp.PresizedRLPEncoder;
 import org.hyperledger.besu.ethereum.rlp.RLPOutput;
 
 import com.google.common.collect.ImmutableMap;
@@ -58,8 +57,12 @@ public class TransactionEncoder {
       final RLPOutput rlpOutput,
       final EncodingContext encodingContext) {
     final TransactionType transactionType = getTransactionType(transaction);
-    Bytes opaqueBytes = encodeOpaqueBytes(transaction, encodingContext);
-    encodeRLP(transactionType, opaqueBytes, rlpOutput);
+    if (TransactionType.FRONTIER.equals(transactionType)) {
+      // Frontier transactions are written as is, no need to go through their opaque bytes
+      FrontierTransactionEncoder.encode(transaction, rlpOutput);
+    } else {
+      rlpOutput.writeBytes(encodeOpaqueBytes(transaction, encodingContext));
+    }
   }
 
   /**
@@ -90,13 +93,15 @@ public class TransactionEncoder {
       final Transaction transaction, final EncodingContext encodingContext) {
     final TransactionType transactionType = getTransactionType(transaction);
     if (TransactionType.FRONTIER.equals(transactionType)) {
-      return RLP.encode(rlpOutput -> FrontierTransactionEncoder.encode(transaction, rlpOutput));
+      return PresizedRLPEncoder.encode(
+          rlpOutput -> FrontierTransactionEncoder.encode(transaction, rlpOutput));
     } else {
       final Encoder encoder = getEncoder(transactionType, encodingContext);
-      final BytesValueRLPOutput out = new BytesValueRLPOutput();
-      out.writeByte(transaction.getType().getSerializedType());
-      encoder.encode(transaction, out);
-      return out.encoded();
+      return PresizedRLPEncoder.encode(
+          out -> {
+            out.writeByte(transaction.getType().getSerializedType());
+            encoder.encode(transaction, out);
+          });
     }
   }
 
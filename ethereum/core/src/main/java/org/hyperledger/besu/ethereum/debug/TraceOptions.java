@@ -14,19 +14,55 @@
  */
 package org.hyperledger.besu.ethereum.debug;
 
+import java.util.Arrays;
+import java.util.Optional;
+
 public class TraceOptions {
 
+  /** The format of the traces, struct logs unless one of the native tracers is selected. */
+  public enum TracerType {
+    OPCODE_TRACER(null),
+    CALL_TRACER("callTracer"),
+    PRESTATE_TRACER("prestateTracer");
+
+    private final String name;
+
+    TracerType(final String name) {
+      this.name = name;
+    }
+
+    /**
+     * Gets the tracer selected by its name in the tracing requests.
+     *
+     * @param name the name of the tracer
+     * @return the tracer, or empty if no tracer has this name
+     */
+    public static Optional<TracerType> fromName(final String name) {
+      return Arrays.stream(values()).filter(type -> name.equals(type.name)).findFirst();
+    }
+  }
+
   private final boolean traceStorage;
   private final boolean traceMemory;
   private final boolean traceStack;
+  private final TracerType tracerType;
 
   public static final TraceOptions DEFAULT = new TraceOptions(true, true, true);
 
   public TraceOptions(
       final boolean traceStorage, final boolean traceMemory, final boolean traceStack) {
+    this(traceStorage, traceMemory, traceStack, TracerType.OPCODE_TRACER);
+  }
+
+  public TraceOptions(
+      final boolean traceStorage,
+      final boolean traceMemory,
+      final boolean traceStack,
+      final TracerType tracerType) {
     this.traceStorage = traceStorage;
     this.traceMemory = traceMemory;
     this.traceStack = traceStack;
+    this.tracerType = tracerType;
   }
 
   public boolean isStorageEnabled() {
@@ -40,4 +76,8 @@ public class TraceOptions {
   public boolean isStackEnabled() {
     return traceStack;
   }
+
+  public TracerType getTracerType() {
+    return tracerType;
+  }
 }
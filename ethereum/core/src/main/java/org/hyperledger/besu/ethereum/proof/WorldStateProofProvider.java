@@ -68,7 +68,8 @@ public class WorldStateProofProvider {
     } else {
       final Hash accountHash = accountAddress.addressHash();
       final Proof<Bytes> accountProof =
-          newAccountStateTrie(worldStateRoot).getValueWithProof(accountHash);
+          newAccountStateTrie(worldStateRoot, prefetchTrieNodes(Bytes.EMPTY, List.of(accountHash)))
+              .getValueWithProof(accountHash);
 
       return accountProof
           .getValue()
@@ -88,7 +89,10 @@ public class WorldStateProofProvider {
       final StateTrieAccountValue account,
       final List<UInt256> accountStorageKeys) {
     final MerkleTrie<Bytes32, Bytes> storageTrie =
-        newAccountStorageTrie(accountHash, account.getStorageRoot());
+        newAccountStorageTrie(
+            accountHash,
+            account.getStorageRoot(),
+            prefetchTrieNodes(accountHash, accountStorageKeys.stream().map(Hash::hash).toList()));
     final NavigableMap<UInt256, Proof<Bytes>> storageProofs =
         new TreeMap<>(Comparator.comparing(Bytes32::toHexString));
     accountStorageKeys.forEach(
@@ -126,20 +130,52 @@ public class WorldStateProofProvider {
   }
 
   private MerkleTrie<Bytes, Bytes> newAccountStateTrie(final Bytes32 rootHash) {
+    return newAccountStateTrie(rootHash, Map.of());
+  }
+
+  private MerkleTrie<Bytes, Bytes> newAccountStateTrie(
+      final Bytes32 rootHash, final Map<Bytes32, Bytes> prefetchedNodes) {
     return new StoredMerklePatriciaTrie<>(
-        worldStateStorageCoordinator::getAccountStateTrieNode, rootHash, b -> b, b -> b);
+        (location, hash) ->
+            Optional.ofNullable(prefetchedNodes.get(hash))
+                .or(() -> worldStateStorageCoordinator.getAccountStateTrieNode(location, hash)),
+        rootHash,
+        b -> b,
+        b -> b);
   }
 
   private MerkleTrie<Bytes32, Bytes> newAccountStorageTrie(
       final Hash accountHash, final Bytes32 rootHash) {
+    return newAccountStorageTrie(accountHash, rootHash, Map.of());
+  }
+
+  private MerkleTrie<Bytes32, Bytes> newAccountStorageTrie(
+      final Hash accountHash, final Bytes32 rootHash, final Map<Bytes32, Bytes> prefetchedNodes) {
     return new StoredMerklePatriciaTrie<>(
         (location, hash) ->
-            worldStateStorageCoordinator.getAccountStorageTrieNode(accountHash, location, hash),
+            Optional.ofNullable(prefetchedNodes.get(hash))
+                .or(
+                    () ->
+                        worldStateStorageCoordinator.getAccountStorageTrieNode(
+                            accountHash, location, hash)),
         rootHash,
         b -> b,
         b -> b);
   }
 
+  /**
+   * Reads in a single batch the trie nodes on the paths to the given keys, indexed by hash, so that
+   * building the proofs does not read the nodes one at a time.
+   */
+  private Map<Bytes32, Bytes> prefetchTrieNodes(
+      final Bytes accountHash, final List<? extends Bytes32> keyHashes) {
+    final Map<Bytes32, Bytes> nodesByHash = new HashMap<>();
+    worldStateStorageCoordinator
+        .getTrieNodesOnPaths(accountHash, keyHashes)
+        .forEach(node -> nodesByHash.put(Hash.hash(node), node));
+    return nodesByHash;
+  }
+
   /**
    * Checks if a range proof is valid for a given range of keys.
    *
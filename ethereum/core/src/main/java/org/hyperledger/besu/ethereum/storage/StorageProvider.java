@@ -24,9 +24,11 @@ import org.hyperledger.besu.ethereum.worldstate.WorldStateStorageCoordinator;
 import org.hyperledger.besu.plugin.services.storage.KeyValueStorage;
 import org.hyperledger.besu.plugin.services.storage.SegmentIdentifier;
 import org.hyperledger.besu.plugin.services.storage.SegmentedKeyValueStorage;
+import org.hyperledger.besu.services.kvstore.SegmentedStorageStats;
 
 import java.io.Closeable;
 import java.util.List;
+import java.util.Optional;
 
 public interface StorageProvider extends Closeable {
 
@@ -48,4 +50,6 @@ public interface StorageProvider extends Closeable {
   KeyValueStorage getStorageBySegmentIdentifier(SegmentIdentifier segment);
 
   SegmentedKeyValueStorage getStorageBySegmentIdentifiers(List<SegmentIdentifier> segment);
+
+  Optional<SegmentedStorageStats> getStorageStats();
 }
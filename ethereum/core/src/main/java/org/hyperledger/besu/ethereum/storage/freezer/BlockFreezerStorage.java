@@ -0,0 +1,160 @@
+/*
+ * Copyright contributors to Hyperledger Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.storage.freezer;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import org.hyperledger.besu.plugin.services.exception.StorageException;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Optional;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Storage of the data of frozen blocks, the blocks old enough to never change again, in one
+ * {@link FreezerTable} per kind of data indexed by block number.
+ *
+ * <p>Blocks are frozen in order from the genesis block, so all the tables hold the same blocks.
+ */
+public class BlockFreezerStorage implements Closeable {
+  private static final Logger LOG = LoggerFactory.getLogger(BlockFreezerStorage.class);
+
+  /** The size after which the tables start a new data file. */
+  public static final int DEFAULT_MAX_FILE_SIZE = 1 << 30;
+
+  /** The kinds of block data held by the freezer. */
+  public enum Table {
+    /** Block headers. */
+    HEADERS("headers"),
+    /** Block bodies. */
+    BODIES("bodies"),
+    /** Transaction receipts of the blocks. */
+    RECEIPTS("receipts"),
+    /** Total difficulty of the chain at the blocks. */
+    TOTAL_DIFFICULTIES("difficulties");
+
+    private final String fileName;
+
+    Table(final String fileName) {
+      this.fileName = fileName;
+    }
+  }
+
+  private final Map<Table, FreezerTable> tables;
+
+  private BlockFreezerStorage(final Map<Table, FreezerTable> tables) {
+    this.tables = tables;
+  }
+
+  /**
+   * Opens the freezer storage, dropping blocks that were only partially frozen.
+   *
+   * @param directory the directory of the freezer files
+   * @param maxFileSize the size after which the tables start a new data file
+   * @return the freezer storage
+   */
+  public static BlockFreezerStorage open(final Path directory, final int maxFileSize) {
+    try {
+      Files.createDirectories(directory);
+    } catch (final IOException e) {
+      throw new StorageException("Unable to create freezer directory " + directory, e);
+    }
+    final Map<Table, FreezerTable> tables = new EnumMap<>(Table.class);
+    for (final Table table : Table.values()) {
+      tables.put(table, FreezerTable.open(directory, table.fileName, maxFileSize));
+    }
+    final long frozenBlockCount =
+        tables.values().stream().mapToLong(FreezerTable::getItemCount).min().orElse(0);
+    tables.forEach(
+        (table, freezerTable) -> {
+          if (freezerTable.getItemCount() > frozenBlockCount) {
+            LOG.info(
+                "Truncating freezer table {} from {} to {} blocks",
+                table,
+                freezerTable.getItemCount(),
+                frozenBlockCount);
+            freezerTable.truncate(frozenBlockCount);
+          }
+        });
+    return new BlockFreezerStorage(tables);
+  }
+
+  /**
+   * Gets the number of frozen blocks, which is also the number of the next block to freeze.
+   *
+   * @return the frozen block count
+   */
+  public long getFrozenBlockCount() {
+    return tables.get(Table.TOTAL_DIFFICULTIES).getItemCount();
+  }
+
+  /**
+   * Gets the data of a frozen block. The returned bytes are a view over the memory mapped table.
+   *
+   * @param table the kind of data
+   * @param blockNumber the block number
+   * @return the data, or empty if the block is not frozen
+   */
+  public Optional<Bytes> get(final Table table, final long blockNumber) {
+    return tables.get(table).get(blockNumber);
+  }
+
+  /**
+   * Freezes the data of the next block.
+   *
+   * @param blockNumber the block number, which must be the frozen block count
+   * @param header the RLP encoded header
+   * @param body the RLP encoded body
+   * @param receipts the RLP encoded receipts
+   * @param totalDifficulty the total difficulty
+   */
+  public synchronized void appendBlock(
+      final long blockNumber,
+      final Bytes header,
+      final Bytes body,
+      final Bytes receipts,
+      final Bytes totalDifficulty) {
+    checkArgument(
+        blockNumber == getFrozenBlockCount(),
+        "Expected block %s to be frozen next, got %s",
+        getFrozenBlockCount(),
+        blockNumber);
+    // the total difficulty is appended last, as it defines the frozen block count
+    tables.get(Table.HEADERS).append(blockNumber, header);
+    tables.get(Table.BODIES).append(blockNumber, body);
+    tables.get(Table.RECEIPTS).append(blockNumber, receipts);
+    tables.get(Table.TOTAL_DIFFICULTIES).append(blockNumber, totalDifficulty);
+  }
+
+  /** Makes the frozen blocks durable. */
+  public synchronized void sync() {
+    tables.values().forEach(FreezerTable::sync);
+  }
+
+  @Override
+  public synchronized void close() throws IOException {
+    for (final FreezerTable table : tables.values()) {
+      table.close();
+    }
+  }
+}
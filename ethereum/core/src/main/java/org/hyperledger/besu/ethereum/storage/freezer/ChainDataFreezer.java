@@ -0,0 +1,99 @@
+/*
+ * Copyright contributors to Hyperledger Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.storage.freezer;
+
+import org.hyperledger.besu.ethereum.chain.BlockAddedEvent;
+import org.hyperledger.besu.ethereum.chain.BlockAddedObserver;
+import org.hyperledger.besu.ethereum.core.BlockHeader;
+import org.hyperledger.besu.ethereum.storage.keyvalue.FreezerBlockchainStorage;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Periodically moves the blocks that can no longer change to the freezer: the blocks below the
+ * finalized block or, when there is none, far enough from the chain head.
+ */
+public class ChainDataFreezer implements BlockAddedObserver {
+  public static final int MAX_FREEZING_THREAD_QUEUE_SIZE = 1;
+
+  /** Depth after which blocks are considered immutable when no block is finalized. */
+  public static final long IMMUTABILITY_THRESHOLD = 90_000;
+
+  private static final Logger LOG = LoggerFactory.getLogger(ChainDataFreezer.class);
+  private final FreezerBlockchainStorage blockchainStorage;
+  private final long blocksToRetain;
+  private final long freezingFrequency;
+  private final ExecutorService freezingExecutor;
+  private final AtomicBoolean freezing = new AtomicBoolean(false);
+
+  public ChainDataFreezer(
+      final FreezerBlockchainStorage blockchainStorage,
+      final long blocksToRetain,
+      final long freezingFrequency,
+      final ExecutorService freezingExecutor) {
+    this.blockchainStorage = blockchainStorage;
+    this.blocksToRetain = blocksToRetain;
+    this.freezingFrequency = freezingFrequency;
+    this.freezingExecutor = freezingExecutor;
+  }
+
+  @Override
+  public void onBlockAdded(final BlockAddedEvent event) {
+    final long blockNumber = event.getBlock().getHeader().getNumber();
+    if (!event.isNewCanonicalHead() || blockNumber % freezingFrequency != 0) {
+      return;
+    }
+    // a single freezing at a time, the next one catches up with the blocks added meanwhile
+    if (!freezing.compareAndSet(false, true)) {
+      return;
+    }
+    try {
+      freezingExecutor.submit(() -> freeze(blockNumber));
+    } catch (final RejectedExecutionException e) {
+      freezing.set(false);
+    }
+  }
+
+  private void freeze(final long headBlockNumber) {
+    try {
+      final long frozen = blockchainStorage.freezeBlocks(freezingLimit(headBlockNumber));
+      if (frozen > 0) {
+        LOG.debug(
+            "Froze {} blocks, {} blocks frozen in total",
+            frozen,
+            blockchainStorage.getFrozenBlockCount());
+      }
+    } catch (final RuntimeException e) {
+      LOG.warn("Unable to freeze chain data", e);
+    } finally {
+      freezing.set(false);
+    }
+  }
+
+  long freezingLimit(final long headBlockNumber) {
+    final long immutableLimit =
+        blockchainStorage
+            .getFinalized()
+            .flatMap(blockchainStorage::getBlockHeader)
+            .map(BlockHeader::getNumber)
+            .orElse(headBlockNumber - IMMUTABILITY_THRESHOLD);
+    return Math.min(immutableLimit, headBlockNumber - blocksToRetain);
+  }
+}
@@ -0,0 +1,42 @@
+/*
+ * Copyright contributors to Hyperledger Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.storage.freezer;
+
+public class ChainFreezerConfiguration {
+  public static final ChainFreezerConfiguration DEFAULT =
+      new ChainFreezerConfiguration(false, 1024, 1024);
+  private final boolean enabled;
+  private final long blocksRetained;
+  private final long blocksFrequency;
+
+  public ChainFreezerConfiguration(
+      final boolean enabled, final long blocksRetained, final long blocksFrequency) {
+    this.enabled = enabled;
+    this.blocksRetained = blocksRetained;
+    this.blocksFrequency = blocksFrequency;
+  }
+
+  public boolean getChainFreezerEnabled() {
+    return enabled;
+  }
+
+  public long getChainFreezerBlocksRetained() {
+    return blocksRetained;
+  }
+
+  public long getChainFreezerBlocksFrequency() {
+    return blocksFrequency;
+  }
+}
@@ -0,0 +1,276 @@
+/*
+ * Copyright contributors to Hyperledger Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.storage.freezer;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import org.hyperledger.besu.plugin.services.exception.StorageException;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.tuweni.bytes.Bytes;
+
+/**
+ * An append only table of items numbered from 0, stored in flat data files read through memory
+ * mapping.
+ *
+ * <p>Items are appended to the head data file until it reaches its maximum size, then a new data
+ * file is started. The index file holds one entry per item, made of the number of the data file
+ * holding the item and the offset of its end in that file, preceded by a first entry pointing at
+ * the start of the first data file. An item therefore spans from the end of the previous item, or
+ * the start of its data file, to its own end.
+ *
+ * <p>Appends are expected from a single thread while reads can be concurrent. Appended items are
+ * readable right away but only durable after {@link #sync()}. On open, items whose data was not
+ * fully written are dropped.
+ */
+public class FreezerTable implements Closeable {
+
+  private static final int INDEX_ENTRY_SIZE = 2 * Integer.BYTES;
+
+  private final Path directory;
+  private final String name;
+  private final int maxFileSize;
+  private final FileChannel index;
+  private final Map<Integer, MappedByteBuffer> mappedFiles = new ConcurrentHashMap<>();
+
+  private FileChannel head;
+  private int headFileNumber;
+  private int headFileSize;
+  private volatile long itemCount;
+
+  private FreezerTable(final Path directory, final String name, final int maxFileSize)
+      throws IOException {
+    this.directory = directory;
+    this.name = name;
+    this.maxFileSize = maxFileSize;
+    this.index =
+        FileChannel.open(
+            directory.resolve(name + ".idx"),
+            StandardOpenOption.CREATE,
+            StandardOpenOption.READ,
+            StandardOpenOption.WRITE);
+    if (index.size() < INDEX_ENTRY_SIZE) {
+      writeIndexEntry(0, 0, 0);
+    }
+    repair();
+  }
+
+  /**
+   * Opens the table, creating its files if they do not exist yet.
+   *
+   * @param directory the directory of the table files
+   * @param name the name of the table, used as prefix of its files
+   * @param maxFileSize the size after which a new data file is started
+   * @return the table
+   */
+  public static FreezerTable open(final Path directory, final String name, final int maxFileSize) {
+    checkArgument(maxFileSize > 0, "Max file size must be positive");
+    try {
+      return new FreezerTable(directory, name, maxFileSize);
+    } catch (final IOException e) {
+      throw new StorageException("Unable to open freezer table " + name, e);
+    }
+  }
+
+  /**
+   * Gets the number of items of the table, which is also the number of the next item appended.
+   *
+   * @return the item count
+   */
+  public long getItemCount() {
+    return itemCount;
+  }
+
+  /**
+   * Gets an item. The returned bytes are a view over the memory mapped data file.
+   *
+   * @param item the item number
+   * @return the item, or empty if the table does not hold it
+   */
+  public Optional<Bytes> get(final long item) {
+    if (item < 0 || item >= itemCount) {
+      return Optional.empty();
+    }
+    try {
+      final ByteBuffer entries = ByteBuffer.allocate(2 * INDEX_ENTRY_SIZE);
+      readFully(index, entries, item * INDEX_ENTRY_SIZE);
+      final int startFileNumber = entries.getInt(0);
+      final int endFileNumber = entries.getInt(INDEX_ENTRY_SIZE);
+      final int end = entries.getInt(INDEX_ENTRY_SIZE + Integer.BYTES);
+      final int start = startFileNumber == endFileNumber ? entries.getInt(Integer.BYTES) : 0;
+      return Optional.of(Bytes.wrapByteBuffer(mappedFile(endFileNumber, end), start, end - start));
+    } catch (final IOException e) {
+      throw new StorageException("Unable to read item " + item + " of freezer table " + name, e);
+    }
+  }
+
+  /**
+   * Appends an item at the end of the table.
+   *
+   * @param item the number of the item, which must be the current item count
+   * @param value the item
+   */
+  public synchronized void append(final long item, final Bytes value) {
+    checkArgument(
+        item == itemCount, "Expected item %s of freezer table %s, got %s", itemCount, name, item);
+    try {
+      if (headFileSize > 0 && (long) headFileSize + value.size() > maxFileSize) {
+        head.force(false);
+        head.close();
+        headFileNumber++;
+        headFileSize = 0;
+        head = openDataFile(headFileNumber);
+      }
+      final ByteBuffer buffer = ByteBuffer.wrap(value.toArrayUnsafe());
+      long position = headFileSize;
+      while (buffer.hasRemaining()) {
+        position += head.write(buffer, position);
+      }
+      headFileSize += value.size();
+      writeIndexEntry(item + 1, headFileNumber, headFileSize);
+      itemCount = item + 1;
+    } catch (final IOException e) {
+      throw new StorageException("Unable to append item " + item + " to freezer table " + name, e);
+    }
+  }
+
+  /**
+   * Drops the items from the given item number onward.
+   *
+   * @param newItemCount the number of items to keep
+   */
+  public synchronized void truncate(final long newItemCount) {
+    if (newItemCount >= itemCount) {
+      return;
+    }
+    try {
+      itemCount = newItemCount;
+      index.truncate((newItemCount + 1) * INDEX_ENTRY_SIZE);
+      repair();
+    } catch (final IOException e) {
+      throw new StorageException("Unable to truncate freezer table " + name, e);
+    }
+  }
+
+  /** Makes the appended items durable. */
+  public synchronized void sync() {
+    try {
+      head.force(false);
+      index.force(false);
+    } catch (final IOException e) {
+      throw new StorageException("Unable to sync freezer table " + name, e);
+    }
+  }
+
+  @Override
+  public synchronized void close() throws IOException {
+    mappedFiles.clear();
+    head.close();
+    index.close();
+  }
+
+  /**
+   * Drops the index entries pointing past the end of their data file, then makes the data file of
+   * the last entry the head, truncated to the end of that entry.
+   */
+  private void repair() throws IOException {
+    long count = index.size() / INDEX_ENTRY_SIZE - 1;
+    final ByteBuffer entry = ByteBuffer.allocate(INDEX_ENTRY_SIZE);
+    while (true) {
+      readFully(index, entry.clear(), count * INDEX_ENTRY_SIZE);
+      final Path dataFile = dataFile(entry.getInt(0));
+      final long dataFileSize = Files.exists(dataFile) ? Files.size(dataFile) : 0;
+      if (count == 0 || dataFileSize >= entry.getInt(Integer.BYTES)) {
+        break;
+      }
+      count--;
+    }
+    index.truncate((count + 1) * INDEX_ENTRY_SIZE);
+
+    if (head != null) {
+      head.close();
+    }
+    mappedFiles.clear();
+    headFileNumber = entry.getInt(0);
+    headFileSize = entry.getInt(Integer.BYTES);
+    head = openDataFile(headFileNumber);
+    head.truncate(headFileSize);
+    int fileNumber = headFileNumber + 1;
+    while (Files.deleteIfExists(dataFile(fileNumber))) {
+      fileNumber++;
+    }
+    itemCount = count;
+  }
+
+  private MappedByteBuffer mappedFile(final int fileNumber, final int minSize)
+      throws IOException {
+    final MappedByteBuffer mapped = mappedFiles.get(fileNumber);
+    if (mapped != null && mapped.capacity() >= minSize) {
+      return mapped;
+    }
+    // the head file grows as items are appended, map it again to cover the new items
+    try (final FileChannel channel = FileChannel.open(dataFile(fileNumber))) {
+      final MappedByteBuffer remapped =
+          channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+      mappedFiles.put(fileNumber, remapped);
+      return remapped;
+    }
+  }
+
+  private void writeIndexEntry(final long position, final int fileNumber, final int end)
+      throws IOException {
+    final ByteBuffer entry = ByteBuffer.allocate(INDEX_ENTRY_SIZE).putInt(fileNumber).putInt(end);
+    entry.flip();
+    long offset = position * INDEX_ENTRY_SIZE;
+    while (entry.hasRemaining()) {
+      offset += index.write(entry, offset);
+    }
+  }
+
+  private FileChannel openDataFile(final int fileNumber) throws IOException {
+    return FileChannel.open(
+        dataFile(fileNumber),
+        StandardOpenOption.CREATE,
+        StandardOpenOption.READ,
+        StandardOpenOption.WRITE);
+  }
+
+  private Path dataFile(final int fileNumber) {
+    return directory.resolve(String.format("%s.%04d.dat", name, fileNumber));
+  }
+
+  private static void readFully(
+      final FileChannel channel, final ByteBuffer buffer, final long position) throws IOException {
+    long offset = position;
+    while (buffer.hasRemaining()) {
+      final int read = channel.read(buffer, offset);
+      if (read < 0) {
+        throw new IOException("Unexpected end of file");
+      }
+      offset += read;
+    }
+  }
+}
@@ -0,0 +1,176 @@
+/*
+ * Copyright contributors to Hyperledger Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.storage.keyvalue;
+
+import org.hyperledger.besu.datatypes.Hash;
+import org.hyperledger.besu.ethereum.chain.VariablesStorage;
+import org.hyperledger.besu.ethereum.core.BlockHeader;
+import org.hyperledger.besu.ethereum.rlp.RLP;
+import org.hyperledger.besu.ethereum.storage.freezer.BlockFreezerStorage;
+
+import java.util.Map;
+import java.util.Optional;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Blockchain storage that moves the headers, bodies, receipts and total difficulty of old blocks
+ * from the key value storage to a {@link BlockFreezerStorage}.
+ *
+ * <p>The key value storage keeps, for every frozen block, its number by hash, so reads by hash
+ * missing from the key value storage are served from the freezer. Block hashes by number and
+ * transaction locations stay in the key value storage.
+ *
+ * <p>Blocks are first appended to the freezer and synced, then removed from the key value storage
+ * up to a watermark, so a block is always readable from at least one of them.
+ *
+ * <p>Opening the storage records in the variables storage that chain data is frozen, so the
+ * database is not later read without its freezer.
+ */
+public class FreezerBlockchainStorage extends KeyValueStoragePrefixedKeyBlockchainStorage {
+  private static final Logger LOG = LoggerFactory.getLogger(FreezerBlockchainStorage.class);
+
+  private static final int FREEZE_BATCH_SIZE = 1_000;
+
+  private static final Map<Bytes, BlockFreezerStorage.Table> FROZEN_TABLES_BY_PREFIX =
+      Map.of(
+          BLOCK_HEADER_PREFIX, BlockFreezerStorage.Table.HEADERS,
+          BLOCK_BODY_PREFIX, BlockFreezerStorage.Table.BODIES,
+          TRANSACTION_RECEIPTS_PREFIX, BlockFreezerStorage.Table.RECEIPTS,
+          TOTAL_DIFFICULTY_PREFIX, BlockFreezerStorage.Table.TOTAL_DIFFICULTIES);
+
+  private final BlockFreezerStorage freezer;
+
+  /**
+   * Instantiates a new freezer blockchain storage on top of the key value storage of an existing
+   * blockchain storage.
+   *
+   * @param storage the blockchain storage holding the blocks not frozen yet
+   * @param freezer the storage of the frozen blocks
+   */
+  public FreezerBlockchainStorage(
+      final KeyValueStoragePrefixedKeyBlockchainStorage storage,
+      final BlockFreezerStorage freezer) {
+    super(
+        storage.blockchainStorage,
+        storage.variablesStorage,
+        storage.blockHeaderFunctions,
+        storage.receiptCompaction,
+        storage.receiptBlockCompaction,
+        storage.transactionLocationFilter);
+    this.freezer = freezer;
+    if (!variablesStorage.isChainDataFrozen()) {
+      final VariablesStorage.Updater variablesUpdater = variablesStorage.updater();
+      variablesUpdater.setChainDataFrozen();
+      variablesUpdater.commit();
+    }
+    // complete a migration interrupted after the blocks were frozen
+    removeFrozenBlocks(freezer.getFrozenBlockCount());
+  }
+
+  /**
+   * Gets the number of frozen blocks.
+   *
+   * @return the frozen block count
+   */
+  public long getFrozenBlockCount() {
+    return freezer.getFrozenBlockCount();
+  }
+
+  /**
+   * Moves the canonical blocks below the given block number to the freezer, stopping early at
+   * the first block with missing data.
+   *
+   * @param limit the number of the first block not to freeze
+   * @return the number of blocks frozen
+   */
+  public synchronized long freezeBlocks(final long limit) {
+    final long start = freezer.getFrozenBlockCount();
+    long next = start;
+    while (next < limit) {
+      final long batchEnd = Math.min(limit, next + FREEZE_BATCH_SIZE);
+      while (next < batchEnd && appendToFreezer(next)) {
+        next++;
+      }
+      freezer.sync();
+      removeFrozenBlocks(next);
+      if (next < batchEnd) {
+        LOG.debug("Stopped freezing blocks at block {} with missing data", next);
+        break;
+      }
+    }
+    return next - start;
+  }
+
+  @Override
+  Optional<Bytes> get(final Bytes prefix, final Bytes key) {
+    final Optional<Bytes> value = super.get(prefix, key);
+    final BlockFreezerStorage.Table table = FROZEN_TABLES_BY_PREFIX.get(prefix);
+    if (value.isPresent() || table == null) {
+      return value;
+    }
+    return super.get(FROZEN_BLOCK_NUMBER_PREFIX, key)
+        .flatMap(blockNumber -> freezer.get(table, blockNumber.toLong()));
+  }
+
+  private boolean appendToFreezer(final long blockNumber) {
+    final Optional<Hash> maybeHash = getBlockHash(blockNumber);
+    if (maybeHash.isEmpty()) {
+      return false;
+    }
+    final Hash hash = maybeHash.get();
+    final Optional<Bytes> header = super.get(BLOCK_HEADER_PREFIX, hash);
+    final Optional<Bytes> body = super.get(BLOCK_BODY_PREFIX, hash);
+    final Optional<Bytes> receipts = super.get(TRANSACTION_RECEIPTS_PREFIX, hash);
+    final Optional<Bytes> totalDifficulty = super.get(TOTAL_DIFFICULTY_PREFIX, hash);
+    if (header.isEmpty() || body.isEmpty() || receipts.isEmpty() || totalDifficulty.isEmpty()) {
+      return false;
+    }
+    freezer.appendBlock(
+        blockNumber, header.get(), body.get(), receipts.get(), totalDifficulty.get());
+    return true;
+  }
+
+  private void removeFrozenBlocks(final long frozenBlockCount) {
+    final long watermark =
+        super.get(FROZEN_BLOCKS_WATERMARK_PREFIX, Bytes.EMPTY).map(Bytes::toLong).orElse(0L);
+    if (watermark >= frozenBlockCount) {
+      return;
+    }
+    final Updater updater = updater();
+    for (long blockNumber = watermark; blockNumber < frozenBlockCount; blockNumber++) {
+      // the canonical hash of a frozen block may be gone if the chain was rewound below it
+      final Hash hash = frozenBlockHash(blockNumber);
+      updater.set(FROZEN_BLOCK_NUMBER_PREFIX, hash, Bytes.ofUnsignedLong(blockNumber));
+      updater.remove(BLOCK_HEADER_PREFIX, hash);
+      updater.remove(BLOCK_BODY_PREFIX, hash);
+      updater.remove(TRANSACTION_RECEIPTS_PREFIX, hash);
+      updater.remove(TOTAL_DIFFICULTY_PREFIX, hash);
+    }
+    updater.set(
+        FROZEN_BLOCKS_WATERMARK_PREFIX, Bytes.EMPTY, Bytes.ofUnsignedLong(frozenBlockCount));
+    updater.commit();
+  }
+
+  private Hash frozenBlockHash(final long blockNumber) {
+    return freezer
+        .get(BlockFreezerStorage.Table.HEADERS, blockNumber)
+        .map(header -> BlockHeader.readFrom(RLP.input(header), blockHeaderFunctions).getHash())
+        .orElseThrow(
+            () -> new IllegalStateException("Missing header of frozen block " + blockNumber));
+  }
+}
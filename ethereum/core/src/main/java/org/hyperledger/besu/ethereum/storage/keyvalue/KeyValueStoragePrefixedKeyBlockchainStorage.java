@@ -28,7 +28,11 @@ import org.hyperledger.besu.ethereum.core.BlockBody;
 import org.hyperledger.besu.ethereum.core.BlockHeader;
 import org.hyperledger.besu.ethereum.core.BlockHeaderFunctions;
 import org.hyperledger.besu.ethereum.core.Difficulty;
+import org.hyperledger.besu.ethereum.core.LazyBlockBody;
+import org.hyperledger.besu.ethereum.core.LazyTransactionReceipts;
 import org.hyperledger.besu.ethereum.core.TransactionReceipt;
+import org.hyperledger.besu.ethereum.core.encoding.BlockReceiptsCompactDecoder;
+import org.hyperledger.besu.ethereum.core.encoding.BlockReceiptsCompactEncoder;
 import org.hyperledger.besu.ethereum.rlp.RLP;
 import org.hyperledger.besu.plugin.services.storage.KeyValueStorage;
 import org.hyperledger.besu.plugin.services.storage.KeyValueStorageTransaction;
@@ -36,6 +40,7 @@ import org.hyperledger.besu.plugin.services.storage.KeyValueStorageTransaction;
 import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import org.apache.tuweni.bytes.Bytes;
 import org.apache.tuweni.bytes.Bytes32;
@@ -50,27 +55,85 @@ public class KeyValueStoragePrefixedKeyBlockchainStorage implements BlockchainSt
   @Deprecated(since = "23.4.2", forRemoval = true)
   private static final Bytes VARIABLES_PREFIX = Bytes.of(1);
 
-  private static final Bytes BLOCK_HEADER_PREFIX = Bytes.of(2);
-  private static final Bytes BLOCK_BODY_PREFIX = Bytes.of(3);
-  private static final Bytes TRANSACTION_RECEIPTS_PREFIX = Bytes.of(4);
+  static final Bytes BLOCK_HEADER_PREFIX = Bytes.of(2);
+  static final Bytes BLOCK_BODY_PREFIX = Bytes.of(3);
+  static final Bytes TRANSACTION_RECEIPTS_PREFIX = Bytes.of(4);
   private static final Bytes BLOCK_HASH_PREFIX = Bytes.of(5);
-  private static final Bytes TOTAL_DIFFICULTY_PREFIX = Bytes.of(6);
+  static final Bytes TOTAL_DIFFICULTY_PREFIX = Bytes.of(6);
   private static final Bytes TRANSACTION_LOCATION_PREFIX = Bytes.of(7);
+  static final Bytes FROZEN_BLOCK_NUMBER_PREFIX = Bytes.of(8);
+  static final Bytes FROZEN_BLOCKS_WATERMARK_PREFIX = Bytes.of(9);
+  static final Bytes RECEIPTS_COMPACTION_PROGRESS_PREFIX = Bytes.of(10);
   final KeyValueStorage blockchainStorage;
   final VariablesStorage variablesStorage;
   final BlockHeaderFunctions blockHeaderFunctions;
   final boolean receiptCompaction;
+  final boolean receiptBlockCompaction;
+  final Optional<TransactionLocationFilter> transactionLocationFilter;
+  // held by the commits of the updaters, and by background rewrites of stored values so they do
+  // not write back values removed concurrently
+  final Object commitLock = new Object();
 
   public KeyValueStoragePrefixedKeyBlockchainStorage(
       final KeyValueStorage blockchainStorage,
       final VariablesStorage variablesStorage,
       final BlockHeaderFunctions blockHeaderFunctions,
       final boolean receiptCompaction) {
+    this(blockchainStorage, variablesStorage, blockHeaderFunctions, receiptCompaction, false);
+  }
+
+  /**
+   * Instantiates a new blockchain storage.
+   *
+   * @param blockchainStorage the key value storage of the blockchain
+   * @param variablesStorage the variables storage
+   * @param blockHeaderFunctions the block header functions
+   * @param receiptCompaction whether receipts are stored without their bloom filter
+   * @param receiptBlockCompaction whether the receipts of a block are stored in the compact layout
+   *     of {@link BlockReceiptsCompactEncoder}, which older releases cannot read
+   */
+  public KeyValueStoragePrefixedKeyBlockchainStorage(
+      final KeyValueStorage blockchainStorage,
+      final VariablesStorage variablesStorage,
+      final BlockHeaderFunctions blockHeaderFunctions,
+      final boolean receiptCompaction,
+      final boolean receiptBlockCompaction) {
+    this(
+        blockchainStorage,
+        variablesStorage,
+        blockHeaderFunctions,
+        receiptCompaction,
+        receiptBlockCompaction,
+        Optional.empty());
+  }
+
+  /**
+   * Instantiates a new blockchain storage, whose transaction location lookups first check a filter
+   * of the indexed transaction hashes, populated in the background from the storage if needed.
+   *
+   * @param blockchainStorage the key value storage of the blockchain
+   * @param variablesStorage the variables storage
+   * @param blockHeaderFunctions the block header functions
+   * @param receiptCompaction whether receipts are stored without their bloom filter
+   * @param receiptBlockCompaction whether the receipts of a block are stored in the compact layout
+   * @param transactionLocationFilter the filter of the indexed transaction hashes, if enabled
+   */
+  KeyValueStoragePrefixedKeyBlockchainStorage(
+      final KeyValueStorage blockchainStorage,
+      final VariablesStorage variablesStorage,
+      final BlockHeaderFunctions blockHeaderFunctions,
+      final boolean receiptCompaction,
+      final boolean receiptBlockCompaction,
+      final Optional<TransactionLocationFilter> transactionLocationFilter) {
     this.blockchainStorage = blockchainStorage;
     this.variablesStorage = variablesStorage;
     this.blockHeaderFunctions = blockHeaderFunctions;
     this.receiptCompaction = receiptCompaction;
+    this.receiptBlockCompaction = receiptBlockCompaction;
+    this.transactionLocationFilter = transactionLocationFilter;
     migrateVariables();
+    transactionLocationFilter.ifPresent(
+        filter -> filter.populateInBackground(this::streamIndexedTransactionHashes));
   }
 
   @Override
@@ -110,6 +173,21 @@ public class KeyValueStoragePrefixedKeyBlockchainStorage implements BlockchainSt
     return get(TRANSACTION_RECEIPTS_PREFIX, blockHash).map(this::rlpDecodeTransactionReceipts);
   }
 
+  @Override
+  public Optional<LazyBlockBody> getLazyBlockBody(final Hash blockHash) {
+    return get(BLOCK_BODY_PREFIX, blockHash).map(LazyBlockBody::wrap);
+  }
+
+  @Override
+  public Optional<LazyTransactionReceipts> getLazyTransactionReceipts(final Hash blockHash) {
+    return get(TRANSACTION_RECEIPTS_PREFIX, blockHash)
+        .map(
+            bytes ->
+                BlockReceiptsCompactDecoder.isCompact(bytes)
+                    ? BlockReceiptsCompactDecoder.decodeLazily(bytes)
+                    : LazyTransactionReceipts.wrap(bytes));
+  }
+
   @Override
   public Optional<Hash> getBlockHash(final long blockNumber) {
     return get(BLOCK_HASH_PREFIX, UInt256.valueOf(blockNumber)).map(this::bytesToHash);
@@ -122,6 +200,10 @@ public class KeyValueStoragePrefixedKeyBlockchainStorage implements BlockchainSt
 
   @Override
   public Optional<TransactionLocation> getTransactionLocation(final Hash transactionHash) {
+    if (transactionLocationFilter.isPresent()
+        && !transactionLocationFilter.get().mightContain(transactionHash)) {
+      return Optional.empty();
+    }
     return get(TRANSACTION_LOCATION_PREFIX, transactionHash)
         .map(bytes -> TransactionLocation.readFrom(RLP.input(bytes)));
   }
@@ -129,10 +211,28 @@ public class KeyValueStoragePrefixedKeyBlockchainStorage implements BlockchainSt
   @Override
   public Updater updater() {
     return new Updater(
-        blockchainStorage.startTransaction(), variablesStorage.updater(), receiptCompaction);
+        blockchainStorage.startTransaction(),
+        variablesStorage.updater(),
+        receiptCompaction,
+        receiptBlockCompaction,
+        transactionLocationFilter,
+        commitLock);
+  }
+
+  private Stream<Hash> streamIndexedTransactionHashes() {
+    return blockchainStorage
+        .streamFromKey(
+            TRANSACTION_LOCATION_PREFIX.toArrayUnsafe(),
+            Bytes.of(TRANSACTION_LOCATION_PREFIX.get(0) + 1).toArrayUnsafe())
+        .map(pair -> Bytes.wrap(pair.getKey()))
+        .filter(key -> key.size() == TRANSACTION_LOCATION_PREFIX.size() + Bytes32.SIZE)
+        .map(key -> Hash.wrap(Bytes32.wrap(key.slice(TRANSACTION_LOCATION_PREFIX.size()))));
   }
 
   private List<TransactionReceipt> rlpDecodeTransactionReceipts(final Bytes bytes) {
+    if (BlockReceiptsCompactDecoder.isCompact(bytes)) {
+      return BlockReceiptsCompactDecoder.decode(bytes);
+    }
     return RLP.input(bytes).readList(TransactionReceipt::readFrom);
   }
 
@@ -258,14 +358,23 @@ public class KeyValueStoragePrefixedKeyBlockchainStorage implements BlockchainSt
     private final KeyValueStorageTransaction blockchainTransaction;
     private final VariablesStorage.Updater variablesUpdater;
     private final boolean receiptCompaction;
+    private final boolean receiptBlockCompaction;
+    private final Optional<TransactionLocationFilter> transactionLocationFilter;
+    private final Object commitLock;
 
     Updater(
         final KeyValueStorageTransaction blockchainTransaction,
         final VariablesStorage.Updater variablesUpdater,
-        final boolean receiptCompaction) {
+        final boolean receiptCompaction,
+        final boolean receiptBlockCompaction,
+        final Optional<TransactionLocationFilter> transactionLocationFilter,
+        final Object commitLock) {
       this.blockchainTransaction = blockchainTransaction;
       this.variablesUpdater = variablesUpdater;
       this.receiptCompaction = receiptCompaction;
+      this.receiptBlockCompaction = receiptBlockCompaction;
+      this.transactionLocationFilter = transactionLocationFilter;
+      this.commitLock = commitLock;
     }
 
     @Override
@@ -281,6 +390,8 @@ public class KeyValueStoragePrefixedKeyBlockchainStorage implements BlockchainSt
     @Override
     public void putTransactionLocation(
         final Hash transactionHash, final TransactionLocation transactionLocation) {
+      // added before the commit, a rolled back location only costs a storage read
+      transactionLocationFilter.ifPresent(filter -> filter.add(transactionHash));
       set(TRANSACTION_LOCATION_PREFIX, transactionHash, RLP.encode(transactionLocation::writeTo));
     }
 
@@ -352,7 +463,9 @@ public class KeyValueStoragePrefixedKeyBlockchainStorage implements BlockchainSt
 
     @Override
     public void commit() {
-      blockchainTransaction.commit();
+      synchronized (commitLock) {
+        blockchainTransaction.commit();
+      }
       variablesUpdater.commit();
     }
 
@@ -367,11 +480,14 @@ public class KeyValueStoragePrefixedKeyBlockchainStorage implements BlockchainSt
           Bytes.concatenate(prefix, key).toArrayUnsafe(), value.toArrayUnsafe());
     }
 
-    private void remove(final Bytes prefix, final Bytes key) {
+    void remove(final Bytes prefix, final Bytes key) {
       blockchainTransaction.remove(Bytes.concatenate(prefix, key).toArrayUnsafe());
     }
 
     private Bytes rlpEncode(final List<TransactionReceipt> receipts) {
+      if (receiptBlockCompaction) {
+        return BlockReceiptsCompactEncoder.encode(receipts);
+      }
       return RLP.encode(
           o ->
               o.writeList(
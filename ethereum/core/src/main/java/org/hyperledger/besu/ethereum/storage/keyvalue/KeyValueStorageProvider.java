@@ -31,11 +31,13 @@ import org.hyperledger.besu.plugin.services.storage.KeyValueStorage;
 import org.hyperledger.besu.plugin.services.storage.SegmentIdentifier;
 import org.hyperledger.besu.plugin.services.storage.SegmentedKeyValueStorage;
 import org.hyperledger.besu.services.kvstore.SegmentedKeyValueStorageAdapter;
+import org.hyperledger.besu.services.kvstore.SegmentedStorageStats;
 
 import java.io.IOException;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -51,14 +53,24 @@ public class KeyValueStorageProvider implements StorageProvider {
   protected final Map<List<SegmentIdentifier>, SegmentedKeyValueStorage> storageInstances =
       new HashMap<>();
   private final ObservableMetricsSystem metricsSystem;
+  private final Optional<SegmentedStorageStats> storageStats;
 
   public KeyValueStorageProvider(
       final Function<List<SegmentIdentifier>, SegmentedKeyValueStorage> segmentedStorageCreator,
       final KeyValueStorage worldStatePreimageStorage,
       final ObservableMetricsSystem metricsSystem) {
+    this(segmentedStorageCreator, worldStatePreimageStorage, metricsSystem, Optional.empty());
+  }
+
+  public KeyValueStorageProvider(
+      final Function<List<SegmentIdentifier>, SegmentedKeyValueStorage> segmentedStorageCreator,
+      final KeyValueStorage worldStatePreimageStorage,
+      final ObservableMetricsSystem metricsSystem,
+      final Optional<SegmentedStorageStats> storageStats) {
     this.segmentedStorageCreator = segmentedStorageCreator;
     this.worldStatePreimageStorage = worldStatePreimageStorage;
     this.metricsSystem = metricsSystem;
+    this.storageStats = storageStats;
   }
 
   @Override
@@ -76,7 +88,21 @@ public class KeyValueStorageProvider implements StorageProvider {
         getStorageBySegmentIdentifier(KeyValueSegmentIdentifier.BLOCKCHAIN),
         variablesStorage,
         ScheduleBasedBlockHeaderFunctions.create(protocolSchedule),
-        dataStorageConfiguration.getReceiptCompactionEnabled());
+        dataStorageConfiguration.getReceiptCompactionEnabled(),
+        dataStorageConfiguration.getUnstable().getReceiptBlockCompactionEnabled(),
+        createTransactionLocationFilter(dataStorageConfiguration));
+  }
+
+  private static Optional<TransactionLocationFilter> createTransactionLocationFilter(
+      final DataStorageConfiguration dataStorageConfiguration) {
+    final DataStorageConfiguration.Unstable unstable = dataStorageConfiguration.getUnstable();
+    if (unstable.getTransactionLocationFilterCapacity() == 0
+        || unstable.getPrimaryDataPath().isPresent()) {
+      // a secondary database is written by another process, the filter would miss its writes
+      return Optional.empty();
+    }
+    return Optional.of(
+        new TransactionLocationFilter(unstable.getTransactionLocationFilterCapacity()));
   }
 
   @Override
@@ -134,4 +160,9 @@ public class KeyValueStorageProvider implements StorageProvider {
               }
             });
   }
+
+  @Override
+  public Optional<SegmentedStorageStats> getStorageStats() {
+    return storageStats;
+  }
 }
@@ -16,12 +16,21 @@ package org.hyperledger.besu.ethereum.storage.keyvalue;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
+import org.hyperledger.besu.metrics.BesuMetricCategory;
 import org.hyperledger.besu.metrics.ObservableMetricsSystem;
 import org.hyperledger.besu.plugin.services.BesuConfiguration;
 import org.hyperledger.besu.plugin.services.MetricsSystem;
 import org.hyperledger.besu.plugin.services.storage.KeyValueStorage;
 import org.hyperledger.besu.plugin.services.storage.KeyValueStorageFactory;
+import org.hyperledger.besu.plugin.services.storage.SegmentIdentifier;
+import org.hyperledger.besu.plugin.services.storage.SegmentedKeyValueStorage;
+import org.hyperledger.besu.services.kvstore.InstrumentedSegmentedKeyValueStorage;
 import org.hyperledger.besu.services.kvstore.LimitedInMemoryKeyValueStorage;
+import org.hyperledger.besu.services.kvstore.SegmentedStorageStats;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
 
 public class KeyValueStorageProviderBuilder {
 
@@ -30,6 +39,7 @@ public class KeyValueStorageProviderBuilder {
   private KeyValueStorageFactory storageFactory;
   private BesuConfiguration commonConfiguration;
   private MetricsSystem metricsSystem;
+  private boolean storageStatsEnabled;
 
   public KeyValueStorageProviderBuilder withStorageFactory(
       final KeyValueStorageFactory storageFactory) {
@@ -48,6 +58,11 @@ public class KeyValueStorageProviderBuilder {
     return this;
   }
 
+  public KeyValueStorageProviderBuilder withStorageStatsEnabled(final boolean storageStatsEnabled) {
+    this.storageStatsEnabled = storageStatsEnabled;
+    return this;
+  }
+
   public KeyValueStorageProvider build() {
     checkNotNull(storageFactory, "Cannot build a storage provider without a storage factory.");
     checkNotNull(
@@ -58,9 +73,22 @@ public class KeyValueStorageProviderBuilder {
     final KeyValueStorage worldStatePreImageStorage =
         new LimitedInMemoryKeyValueStorage(DEFAULT_WORLD_STATE_PRE_IMAGE_CACHE_SIZE);
 
+    Function<List<SegmentIdentifier>, SegmentedKeyValueStorage> segmentedStorageCreator =
+        segments -> storageFactory.create(segments, commonConfiguration, metricsSystem);
+    Optional<SegmentedStorageStats> storageStats = Optional.empty();
+    if (storageStatsEnabled) {
+      final SegmentedStorageStats stats = new SegmentedStorageStats();
+      stats.registerMetrics(metricsSystem, BesuMetricCategory.KVSTORE_SEGMENT);
+      segmentedStorageCreator =
+          segmentedStorageCreator.andThen(
+              storage -> InstrumentedSegmentedKeyValueStorage.wrap(storage, stats));
+      storageStats = Optional.of(stats);
+    }
+
     return new KeyValueStorageProvider(
-        segments -> storageFactory.create(segments, commonConfiguration, metricsSystem),
+        segmentedStorageCreator,
         worldStatePreImageStorage,
-        (ObservableMetricsSystem) metricsSystem);
+        (ObservableMetricsSystem) metricsSystem,
+        storageStats);
   }
 }
@@ -0,0 +1,169 @@
+/*
+ * Copyright contributors to Hyperledger Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.storage.keyvalue;
+
+import static org.hyperledger.besu.ethereum.storage.keyvalue.KeyValueStoragePrefixedKeyBlockchainStorage.RECEIPTS_COMPACTION_PROGRESS_PREFIX;
+import static org.hyperledger.besu.ethereum.storage.keyvalue.KeyValueStoragePrefixedKeyBlockchainStorage.TRANSACTION_RECEIPTS_PREFIX;
+
+import org.hyperledger.besu.ethereum.core.BlockHeader;
+import org.hyperledger.besu.ethereum.core.TransactionReceipt;
+import org.hyperledger.besu.ethereum.core.encoding.BlockReceiptsCompactDecoder;
+import org.hyperledger.besu.ethereum.core.encoding.BlockReceiptsCompactEncoder;
+import org.hyperledger.besu.ethereum.rlp.RLP;
+import org.hyperledger.besu.plugin.services.storage.KeyValueStorageTransaction;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Rewrites in the background the receipts stored before the compact layout of {@link
+ * BlockReceiptsCompactEncoder} was enabled.
+ *
+ * <p>Canonical blocks are migrated in ascending order by batches up to the chain head at the start
+ * of the migration, later blocks being stored in the compact layout already. Each batch commits the
+ * number of the next block to migrate together with the rewritten receipts, so that the migration
+ * resumes where it stopped after a restart. Block numbers without a canonical block, such as the
+ * blocks removed by the chain pruner or not downloaded by a checkpoint sync, are skipped.
+ *
+ * <p>Receipts are rewritten under the commit lock of the blockchain storage, and only if they are
+ * still stored, so the receipts removed meanwhile by the chain pruner or moved to the freezer are
+ * not written back. Receipts already moved to the freezer are left as they are.
+ */
+public class ReceiptsCompactionMigration implements Closeable {
+  private static final Logger LOG = LoggerFactory.getLogger(ReceiptsCompactionMigration.class);
+
+  static final int BATCH_SIZE = 1_000;
+
+  private final KeyValueStoragePrefixedKeyBlockchainStorage blockchainStorage;
+  private final ExecutorService executor;
+  private final AtomicBoolean stopped = new AtomicBoolean(false);
+
+  /**
+   * Instantiates a new receipts compaction migration.
+   *
+   * @param blockchainStorage the blockchain storage whose receipts are migrated
+   * @param executor the executor running the migration
+   */
+  public ReceiptsCompactionMigration(
+      final KeyValueStoragePrefixedKeyBlockchainStorage blockchainStorage,
+      final ExecutorService executor) {
+    this.blockchainStorage = blockchainStorage;
+    this.executor = executor;
+  }
+
+  /** Starts migrating the receipts in the background. */
+  public void start() {
+    try {
+      executor.submit(this::migrate);
+    } catch (final RejectedExecutionException e) {
+      LOG.debug("Receipts compaction migration not started", e);
+    }
+  }
+
+  private void migrate() {
+    try {
+      final long start = getNextBlockNumber();
+      final long lastBlockNumber =
+          blockchainStorage
+              .getChainHead()
+              .flatMap(blockchainStorage::getBlockHeader)
+              .map(BlockHeader::getNumber)
+              .orElse(-1L);
+      while (!stopped.get() && migrateBatch(lastBlockNumber)) {
+        LOG.debug("Compacted receipts up to block {}", getNextBlockNumber());
+      }
+      if (!stopped.get() && getNextBlockNumber() > start) {
+        LOG.info("Compacted receipts of blocks {} to {}", start, getNextBlockNumber() - 1);
+      }
+    } catch (final RuntimeException e) {
+      LOG.warn("Unable to compact receipts", e);
+    }
+  }
+
+  /**
+   * Migrates the receipts of the next batch of canonical blocks.
+   *
+   * @param lastBlockNumber the number of the last block to migrate
+   * @return true if there are more blocks to migrate
+   */
+  boolean migrateBatch(final long lastBlockNumber) {
+    final long start = getNextBlockNumber();
+    if (start > lastBlockNumber) {
+      return false;
+    }
+    final long end = Math.min(start + BATCH_SIZE, lastBlockNumber + 1);
+    final List<CompactedReceipts> compactedReceipts = new ArrayList<>();
+    for (long blockNumber = start; blockNumber < end; blockNumber++) {
+      blockchainStorage
+          .getBlockHash(blockNumber)
+          .map(hash -> Bytes.concatenate(TRANSACTION_RECEIPTS_PREFIX, hash).toArrayUnsafe())
+          .flatMap(this::compact)
+          .ifPresent(compactedReceipts::add);
+    }
+
+    synchronized (blockchainStorage.commitLock) {
+      final KeyValueStorageTransaction transaction =
+          blockchainStorage.blockchainStorage.startTransaction();
+      for (final CompactedReceipts compacted : compactedReceipts) {
+        if (blockchainStorage.blockchainStorage.containsKey(compacted.key())) {
+          transaction.put(compacted.key(), compacted.value());
+        }
+      }
+      transaction.put(
+          RECEIPTS_COMPACTION_PROGRESS_PREFIX.toArrayUnsafe(), Bytes.ofUnsignedLong(end).toArray());
+      transaction.commit();
+    }
+    return end <= lastBlockNumber;
+  }
+
+  private Optional<CompactedReceipts> compact(final byte[] key) {
+    return blockchainStorage
+        .blockchainStorage
+        .get(key)
+        .map(Bytes::wrap)
+        .filter(receipts -> !BlockReceiptsCompactDecoder.isCompact(receipts))
+        .map(
+            receipts -> {
+              final List<TransactionReceipt> decoded =
+                  RLP.input(receipts).readList(TransactionReceipt::readFrom);
+              return new CompactedReceipts(
+                  key, BlockReceiptsCompactEncoder.encode(decoded).toArrayUnsafe());
+            });
+  }
+
+  long getNextBlockNumber() {
+    return blockchainStorage
+        .get(RECEIPTS_COMPACTION_PROGRESS_PREFIX, Bytes.EMPTY)
+        .map(Bytes::toLong)
+        .orElse(0L);
+  }
+
+  @Override
+  public void close() {
+    stopped.set(true);
+    executor.shutdownNow();
+  }
+
+  private record CompactedReceipts(byte[] key, byte[] value) {}
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright contributors to Hyperledger Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.storage.keyvalue;
+
+import org.hyperledger.besu.ethereum.chain.DefaultBlockchain;
+import org.hyperledger.besu.ethereum.trie.diffbased.common.DiffBasedWorldStateProvider;
+import org.hyperledger.besu.ethereum.trie.diffbased.common.worldview.DiffBasedWorldState;
+import org.hyperledger.besu.ethereum.worldstate.WorldStateArchive;
+import org.hyperledger.besu.plugin.services.storage.SecondaryKeyValueStorage;
+
+import java.io.Closeable;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Follows the chain of the node writing to a database opened as a secondary instance.
+ *
+ * <p>At a fixed interval, the secondary storage catches up with the primary, then the chain head is
+ * reloaded from the variables written by the primary. When it moved, the persisted world state is
+ * reset to the block of the world state persisted by the primary, and the cached world states are
+ * dropped since they were built on top of the previous one.
+ */
+public class SecondaryStorageFollower implements Closeable {
+  private static final Logger LOG = LoggerFactory.getLogger(SecondaryStorageFollower.class);
+
+  private final SecondaryKeyValueStorage storage;
+  private final DefaultBlockchain blockchain;
+  private final WorldStateArchive worldStateArchive;
+  private final ScheduledExecutorService executor;
+  private final long catchUpIntervalMillis;
+
+  /**
+   * Instantiates a new secondary storage follower.
+   *
+   * @param storage the secondary storage
+   * @param blockchain the blockchain read from the secondary storage
+   * @param worldStateArchive the world state archive read from the secondary storage
+   * @param executor the executor running the catch ups
+   * @param catchUpIntervalMillis the interval between two catch ups
+   */
+  public SecondaryStorageFollower(
+      final SecondaryKeyValueStorage storage,
+      final DefaultBlockchain blockchain,
+      final WorldStateArchive worldStateArchive,
+      final ScheduledExecutorService executor,
+      final long catchUpIntervalMillis) {
+    this.storage = storage;
+    this.blockchain = blockchain;
+    this.worldStateArchive = worldStateArchive;
+    this.executor = executor;
+    this.catchUpIntervalMillis = catchUpIntervalMillis;
+  }
+
+  /** Starts catching up with the primary in the background. */
+  public void start() {
+    try {
+      executor.scheduleWithFixedDelay(
+          this::catchUp, catchUpIntervalMillis, catchUpIntervalMillis, TimeUnit.MILLISECONDS);
+    } catch (final RejectedExecutionException e) {
+      LOG.debug("Secondary storage follower not started", e);
+    }
+  }
+
+  /**
+   * Catches up with the primary once.
+   *
+   * @return whether the chain head moved
+   */
+  boolean catchUp() {
+    try {
+      storage.tryCatchUpWithPrimary();
+      if (!blockchain.reloadChainHead()) {
+        return false;
+      }
+      if (worldStateArchive instanceof DiffBasedWorldStateProvider provider) {
+        provider
+            .getWorldStateKeyValueStorage()
+            .getWorldStateBlockHash()
+            .flatMap(blockchain::getBlockHeader)
+            .ifPresent(
+                header -> {
+                  ((DiffBasedWorldState) provider.getMutable()).getAccumulator().reset();
+                  provider.resetArchiveStateTo(header);
+                });
+      }
+      LOG.debug("Followed the primary up to block {}", blockchain.getChainHeadBlockNumber());
+      return true;
+    } catch (final RuntimeException e) {
+      LOG.warn("Unable to catch up with the primary database", e);
+      return false;
+    }
+  }
+
+  @Override
+  public void close() {
+    executor.shutdownNow();
+  }
+}
@@ -0,0 +1,177 @@
+/*
+ * Copyright contributors to Hyperledger Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.storage.keyvalue;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import org.hyperledger.besu.datatypes.Hash;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A blocked Bloom filter of the hashes of the indexed transactions, so that the lookups of unknown
+ * transaction hashes, which are most of the lookups of a node serving JSON-RPC, do not read the
+ * storage.
+ *
+ * <p>Every hash is mapped to a block of 512 bits, a cache line, in which it sets 8 bits. The bits
+ * are taken from the hash itself, which is already uniformly distributed. With 12 bits per
+ * transaction, about 0.5% of the unknown hashes still go to the storage.
+ *
+ * <p>The filter is populated in the background from the transaction locations of the storage, and
+ * answers that every hash might be present until it is. Removed transaction locations stay in the
+ * filter, which only makes their later lookups read the storage.
+ */
+class TransactionLocationFilter {
+  private static final Logger LOG = LoggerFactory.getLogger(TransactionLocationFilter.class);
+
+  static final int BITS_PER_TRANSACTION = 12;
+  private static final int WORDS_PER_BLOCK = 8;
+  private static final int BITS_PER_BLOCK = WORDS_PER_BLOCK * Long.SIZE;
+  private static final int BITS_PER_HASH = 8;
+  private static final int BIT_INDEX_WIDTH = 9;
+  private static final long BIT_INDEX_MASK = (1L << BIT_INDEX_WIDTH) - 1;
+
+  private final AtomicLongArray words;
+  private final int blockCount;
+  private final AtomicBoolean populationStarted = new AtomicBoolean();
+  private volatile boolean populated;
+
+  /**
+   * Instantiates a new empty filter.
+   *
+   * @param capacity the number of transactions the filter is sized for
+   */
+  TransactionLocationFilter(final long capacity) {
+    checkArgument(capacity > 0, "capacity must be positive");
+    final long blocks = Math.max(1, capacity * BITS_PER_TRANSACTION / BITS_PER_BLOCK);
+    checkArgument(
+        blocks <= Integer.MAX_VALUE / WORDS_PER_BLOCK,
+        "capacity %s is too large for a transaction location filter",
+        capacity);
+    this.blockCount = (int) blocks;
+    this.words = new AtomicLongArray(blockCount * WORDS_PER_BLOCK);
+  }
+
+  /**
+   * Adds a transaction hash.
+   *
+   * @param transactionHash the transaction hash
+   */
+  void add(final Hash transactionHash) {
+    final int blockOffset = blockOffset(transactionHash);
+    long bits = transactionHash.getLong(8);
+    for (int i = 0; i < BITS_PER_HASH; i++) {
+      if (i == BITS_PER_HASH / 2) {
+        bits = transactionHash.getLong(16);
+      }
+      final int bitIndex = (int) (bits & BIT_INDEX_MASK);
+      final long mask = 1L << bitIndex;
+      final int word = blockOffset + (bitIndex >>> 6);
+      if ((words.get(word) & mask) == 0) {
+        words.accumulateAndGet(word, mask, (current, added) -> current | added);
+      }
+      bits >>>= BIT_INDEX_WIDTH;
+    }
+  }
+
+  /**
+   * Whether a transaction hash might have been added, false meaning that it was definitely not.
+   *
+   * @param transactionHash the transaction hash
+   * @return false if the transaction hash was not added, true if it might have been or the filter
+   *     is not populated yet
+   */
+  boolean mightContain(final Hash transactionHash) {
+    if (!populated) {
+      return true;
+    }
+    final int blockOffset = blockOffset(transactionHash);
+    long bits = transactionHash.getLong(8);
+    for (int i = 0; i < BITS_PER_HASH; i++) {
+      if (i == BITS_PER_HASH / 2) {
+        bits = transactionHash.getLong(16);
+      }
+      final int bitIndex = (int) (bits & BIT_INDEX_MASK);
+      if ((words.get(blockOffset + (bitIndex >>> 6)) & (1L << bitIndex)) == 0) {
+        return false;
+      }
+      bits >>>= BIT_INDEX_WIDTH;
+    }
+    return true;
+  }
+
+  private int blockOffset(final Hash transactionHash) {
+    return (int) Long.remainderUnsigned(transactionHash.getLong(0), blockCount) * WORDS_PER_BLOCK;
+  }
+
+  /**
+   * Whether the filter holds all the indexed transaction hashes, and so rules out the others.
+   *
+   * @return true once populated
+   */
+  boolean isPopulated() {
+    return populated;
+  }
+
+  /**
+   * Populates the filter from a background thread, once.
+   *
+   * @param indexedTransactionHashes supplier of the stream of the indexed transaction hashes
+   */
+  void populateInBackground(final Supplier<Stream<Hash>> indexedTransactionHashes) {
+    if (!populationStarted.compareAndSet(false, true)) {
+      return;
+    }
+    final Thread thread = new Thread(() -> populate(indexedTransactionHashes));
+    thread.setName("TransactionLocationFilter");
+    thread.setDaemon(true);
+    thread.start();
+  }
+
+  /**
+   * Populates the filter from the calling thread.
+   *
+   * @param indexedTransactionHashes supplier of the stream of the indexed transaction hashes
+   */
+  void populate(final Supplier<Stream<Hash>> indexedTransactionHashes) {
+    final long start = System.currentTimeMillis();
+    long count = 0;
+    try (final Stream<Hash> hashes = indexedTransactionHashes.get()) {
+      for (final Hash hash : (Iterable<Hash>) hashes::iterator) {
+        add(hash);
+        count++;
+      }
+    } catch (final RuntimeException e) {
+      LOG.warn("Failed to build the transaction location filter, it stays disabled", e);
+      return;
+    }
+    populated = true;
+    LOG.info(
+        "Built the transaction location filter of {} transactions in {} ms",
+        count,
+        System.currentTimeMillis() - start);
+    if (count > (long) blockCount * BITS_PER_BLOCK / BITS_PER_TRANSACTION) {
+      LOG.warn(
+          "The transaction location filter holds more transactions than it is sized for,"
+              + " increase --Xtransaction-location-filter-capacity to keep it effective");
+    }
+  }
+}
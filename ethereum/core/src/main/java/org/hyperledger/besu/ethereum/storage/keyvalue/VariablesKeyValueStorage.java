@@ -14,6 +14,7 @@
  */
 package org.hyperledger.besu.ethereum.storage.keyvalue;
 
+import static org.hyperledger.besu.ethereum.chain.VariablesStorage.Keys.CHAIN_DATA_FROZEN;
 import static org.hyperledger.besu.ethereum.chain.VariablesStorage.Keys.CHAIN_HEAD_HASH;
 import static org.hyperledger.besu.ethereum.chain.VariablesStorage.Keys.FINALIZED_BLOCK_HASH;
 import static org.hyperledger.besu.ethereum.chain.VariablesStorage.Keys.FORK_HEADS;
@@ -72,6 +73,11 @@ public class VariablesKeyValueStorage implements VariablesStorage {
     return getVariable(Keys.GENESIS_STATE_HASH).map(this::bytesToHash);
   }
 
+  @Override
+  public boolean isChainDataFrozen() {
+    return getVariable(CHAIN_DATA_FROZEN).isPresent();
+  }
+
   @Override
   public Updater updater() {
     return new Updater(variables.startTransaction());
@@ -125,6 +131,11 @@ public class VariablesKeyValueStorage implements VariablesStorage {
       setVariable(Keys.GENESIS_STATE_HASH, genesisStateHash);
     }
 
+    @Override
+    public void setChainDataFrozen() {
+      setVariable(CHAIN_DATA_FROZEN, Bytes.of(1));
+    }
+
     @Override
     public void removeAll() {
       removeVariable(CHAIN_HEAD_HASH);
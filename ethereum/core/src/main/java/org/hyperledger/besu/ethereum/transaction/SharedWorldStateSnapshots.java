@@ -0,0 +1,256 @@
+/*
+ * Copyright contributors to Hyperledger Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.transaction;
+
+import org.hyperledger.besu.datatypes.Hash;
+import org.hyperledger.besu.ethereum.core.BlockHeader;
+import org.hyperledger.besu.ethereum.core.MutableWorldState;
+import org.hyperledger.besu.ethereum.trie.diffbased.common.DiffBasedWorldStateProvider;
+import org.hyperledger.besu.ethereum.trie.diffbased.common.worldview.DiffBasedWorldState;
+import org.hyperledger.besu.ethereum.trie.diffbased.common.worldview.accumulator.DiffBasedWorldStateUpdateAccumulator;
+import org.hyperledger.besu.ethereum.worldstate.WorldStateArchive;
+import org.hyperledger.besu.evm.worldstate.WorldUpdater;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Suppliers;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Shares the read only world states of the recent blocks between the concurrent simulations.
+ *
+ * <p>A snapshot of the world state of a block is created by the first simulation at this block and
+ * reused by the following ones, so that the accounts and storage they read are cached once in its
+ * accumulator for all of them. Each simulation writes to its own updater on top of the snapshot,
+ * which is never committed to it. A snapshot is closed once it is no longer used and either newer
+ * snapshots replaced it, it is too old or it caches too many accounts and storage slots, so that
+ * its cache does not grow without bound.
+ *
+ * <p>Only the diff based world states are shared. Their accumulator keeps the first account or
+ * storage slot loaded when the simulations read it concurrently, so that they all use the same one.
+ */
+class SharedWorldStateSnapshots {
+  private static final Logger LOG = LoggerFactory.getLogger(SharedWorldStateSnapshots.class);
+
+  static final int MAX_SNAPSHOTS = 4;
+  static final long MAX_SNAPSHOT_AGE_NANOS = TimeUnit.MINUTES.toNanos(1);
+  static final int MAX_CACHED_ENTRIES = 50_000;
+
+  private final WorldStateArchive worldStateArchive;
+  private final LongSupplier nanoTime;
+  private final long maxCachedEntries;
+  // in access order, the eldest snapshot is evicted first
+  private final Map<Hash, Snapshot> snapshots = new LinkedHashMap<>(16, 0.75f, true);
+
+  SharedWorldStateSnapshots(final WorldStateArchive worldStateArchive) {
+    this(worldStateArchive, System::nanoTime, MAX_CACHED_ENTRIES);
+  }
+
+  @VisibleForTesting
+  SharedWorldStateSnapshots(
+      final WorldStateArchive worldStateArchive,
+      final LongSupplier nanoTime,
+      final long maxCachedEntries) {
+    this.worldStateArchive = worldStateArchive;
+    this.nanoTime = nanoTime;
+    this.maxCachedEntries = maxCachedEntries;
+  }
+
+  /**
+   * Whether the world states of the archive can be shared.
+   *
+   * @return true if the world states are diff based
+   */
+  boolean isSupported() {
+    return worldStateArchive instanceof DiffBasedWorldStateProvider;
+  }
+
+  /**
+   * Acquires the snapshot of the world state of a block, until the returned lease is closed.
+   *
+   * @param header the header of the block
+   * @return the lease, or empty if the world state of the block is not available
+   */
+  Optional<Lease> acquire(final BlockHeader header) {
+    final Snapshot snapshot;
+    synchronized (this) {
+      final long now = nanoTime.getAsLong();
+      final Snapshot current = snapshots.get(header.getHash());
+      if (current == null || now - current.createdAt > MAX_SNAPSHOT_AGE_NANOS) {
+        if (current != null) {
+          evict(current);
+        }
+        snapshot = new Snapshot(header, now);
+        snapshots.put(header.getHash(), snapshot);
+        evictEldest();
+      } else {
+        snapshot = current;
+      }
+      snapshot.references++;
+    }
+
+    final Optional<MutableWorldState> worldState;
+    try {
+      // created outside of the lock, the other simulations at this block wait for it
+      worldState = snapshot.worldState.get();
+    } catch (final RuntimeException e) {
+      discard(snapshot);
+      throw e;
+    }
+    if (worldState.isEmpty()) {
+      discard(snapshot);
+      return Optional.empty();
+    }
+    return Optional.of(new Lease(snapshot, worldState.get()));
+  }
+
+  @VisibleForTesting
+  synchronized int size() {
+    return snapshots.size();
+  }
+
+  private void evictEldest() {
+    final Iterator<Snapshot> eldest = snapshots.values().iterator();
+    while (snapshots.size() > MAX_SNAPSHOTS) {
+      final Snapshot snapshot = eldest.next();
+      eldest.remove();
+      snapshot.evicted = true;
+      closeIfUnused(snapshot);
+    }
+  }
+
+  private synchronized void evict(final Snapshot snapshot) {
+    snapshots.remove(snapshot.header.getHash(), snapshot);
+    snapshot.evicted = true;
+    closeIfUnused(snapshot);
+  }
+
+  private synchronized void discard(final Snapshot snapshot) {
+    snapshot.references--;
+    evict(snapshot);
+  }
+
+  private void release(final Snapshot snapshot, final MutableWorldState worldState) {
+    // counted outside of the lock, the following simulations use a new snapshot once it is full
+    final boolean full = cachedEntries(worldState) > maxCachedEntries;
+    synchronized (this) {
+      snapshot.references--;
+      if (full) {
+        evict(snapshot);
+      } else {
+        closeIfUnused(snapshot);
+      }
+    }
+  }
+
+  /** The number of accounts and storage slots cached in the accumulator of a world state. */
+  private static long cachedEntries(final MutableWorldState worldState) {
+    if (!(worldState instanceof DiffBasedWorldState diffBasedWorldState)) {
+      return 0;
+    }
+    final DiffBasedWorldStateUpdateAccumulator<?> accumulator =
+        diffBasedWorldState.getAccumulator();
+    long entries = accumulator.getAccountsToUpdate().size();
+    for (final Map<?, ?> slots : accumulator.getStorageToUpdate().values()) {
+      entries += slots.size();
+    }
+    return entries;
+  }
+
+  private void closeIfUnused(final Snapshot snapshot) {
+    if (snapshot.evicted && snapshot.references == 0) {
+      snapshot.close();
+    }
+  }
+
+  private class Snapshot {
+    private final BlockHeader header;
+    private final long createdAt;
+    private final Supplier<Optional<MutableWorldState>> worldState;
+    private volatile Optional<MutableWorldState> created = Optional.empty();
+    private int references;
+    private boolean evicted;
+
+    private Snapshot(final BlockHeader header, final long createdAt) {
+      this.header = header;
+      this.createdAt = createdAt;
+      this.worldState =
+          Suppliers.memoize(
+              () -> {
+                created = worldStateArchive.getMutable(header, false);
+                return created;
+              });
+    }
+
+    private void close() {
+      // the snapshot is created by its first lease, unless its creation failed
+      created.ifPresent(
+          state -> {
+            try {
+              state.close();
+            } catch (final Exception e) {
+              LOG.debug("Error closing the world state snapshot of {}", header.toLogString(), e);
+            }
+          });
+    }
+  }
+
+  /** The use of a snapshot by a simulation, which releases it when closed. */
+  class Lease implements AutoCloseable {
+    private final Snapshot snapshot;
+    private final MutableWorldState worldState;
+    private final AtomicBoolean released = new AtomicBoolean();
+
+    private Lease(final Snapshot snapshot, final MutableWorldState worldState) {
+      this.snapshot = snapshot;
+      this.worldState = worldState;
+    }
+
+    /**
+     * Gets the shared world state, which must not be modified.
+     *
+     * @return the world state
+     */
+    MutableWorldState getWorldState() {
+      return worldState;
+    }
+
+    /**
+     * Creates an updater of the simulation, whose changes stay out of the shared world state as
+     * long as it is not committed.
+     *
+     * @return a new updater on top of the world state
+     */
+    WorldUpdater updater() {
+      return worldState.updater().updater();
+    }
+
+    @Override
+    public void close() {
+      if (released.compareAndSet(false, true)) {
+        release(snapshot, worldState);
+      }
+    }
+  }
+}
@@ -80,6 +80,7 @@ public class TransactionSimulator {
   private final WorldStateArchive worldStateArchive;
   private final ProtocolSchedule protocolSchedule;
   private final long rpcGasCap;
+  private final SharedWorldStateSnapshots worldStateSnapshots;
 
   public TransactionSimulator(
       final Blockchain blockchain,
@@ -90,6 +91,7 @@ public class TransactionSimulator {
     this.worldStateArchive = worldStateArchive;
     this.protocolSchedule = protocolSchedule;
     this.rpcGasCap = rpcGasCap;
+    this.worldStateSnapshots = new SharedWorldStateSnapshots(worldStateArchive);
   }
 
   public Optional<TransactionSimulatorResult> process(
@@ -156,6 +158,15 @@ public class TransactionSimulator {
       return Optional.empty();
     }
 
+    if (worldStateSnapshots.isSupported()) {
+      return processOnSharedWorldState(
+          callParams,
+          transactionValidationParams,
+          operationTracer,
+          preWorldStateCloseGuard,
+          header);
+    }
+
     try (final MutableWorldState ws = getWorldState(header)) {
 
       WorldUpdater updater = getEffectiveWorldStateUpdater(header, ws);
@@ -176,6 +187,30 @@ public class TransactionSimulator {
     }
   }
 
+  private <U> Optional<U> processOnSharedWorldState(
+      final CallParameter callParams,
+      final TransactionValidationParams transactionValidationParams,
+      final OperationTracer operationTracer,
+      final PreCloseStateHandler<U> preWorldStateCloseGuard,
+      final BlockHeader header) {
+    try (final SharedWorldStateSnapshots.Lease lease =
+        worldStateSnapshots
+            .acquire(header)
+            .orElseThrow(
+                () ->
+                    new IllegalArgumentException(
+                        "Public world state not available for block " + header.toLogString()))) {
+      // the updater always has a parent, as needed to trace the state diff
+      final WorldUpdater updater = lease.updater();
+      return preWorldStateCloseGuard.apply(
+          lease.getWorldState(),
+          processWithWorldUpdater(
+              callParams, transactionValidationParams, operationTracer, header, updater));
+    } catch (final Exception e) {
+      return Optional.empty();
+    }
+  }
+
   public Optional<TransactionSimulatorResult> process(
       final CallParameter callParams, final Hash blockHeaderHash) {
     final BlockHeader header = blockchain.getBlockHeader(blockHeaderHash).orElse(null);
@@ -26,6 +26,7 @@ import org.hyperledger.besu.metrics.BesuMetricCategory;
 import org.hyperledger.besu.metrics.ObservableMetricsSystem;
 import org.hyperledger.besu.metrics.prometheus.PrometheusMetricsSystem;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 import java.util.function.Function;
@@ -70,6 +71,10 @@ public class BonsaiCachedMerkleTrieLoader implements StorageSubscriber {
       final Address account) {
     final long storageSubscriberId = worldStateKeyValueStorage.subscribe(this);
     try {
+      // fetch the whole path in one batch, so that the trie walk below is served by the cache
+      worldStateKeyValueStorage
+          .getTrieNodesOnPaths(Bytes.EMPTY, List.of(account.addressHash()))
+          .forEach(node -> accountNodes.put(Hash.hash(node), node));
       final StoredMerklePatriciaTrie<Bytes, Bytes> accountTrie =
           new StoredMerklePatriciaTrie<>(
               (location, hash) -> {
@@ -105,6 +110,9 @@ public class BonsaiCachedMerkleTrieLoader implements StorageSubscriber {
     final Hash accountHash = account.addressHash();
     final long storageSubscriberId = worldStateKeyValueStorage.subscribe(this);
     try {
+      worldStateKeyValueStorage
+          .getTrieNodesOnPaths(accountHash, List.of(slotKey.getSlotHash()))
+          .forEach(node -> storageNodes.put(Hash.hash(node), node));
       worldStateKeyValueStorage
           .getStateTrieNode(Bytes.concatenate(accountHash, Bytes.EMPTY))
           .ifPresent(
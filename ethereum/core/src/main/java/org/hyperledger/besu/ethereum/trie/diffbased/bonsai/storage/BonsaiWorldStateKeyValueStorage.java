@@ -23,6 +23,7 @@ import org.hyperledger.besu.datatypes.Hash;
 import org.hyperledger.besu.datatypes.StorageSlotKey;
 import org.hyperledger.besu.ethereum.storage.StorageProvider;
 import org.hyperledger.besu.ethereum.storage.keyvalue.KeyValueSegmentIdentifier;
+import org.hyperledger.besu.ethereum.trie.CompactEncoding;
 import org.hyperledger.besu.ethereum.trie.MerkleTrie;
 import org.hyperledger.besu.ethereum.trie.diffbased.common.storage.DiffBasedWorldStateKeyValueStorage;
 import org.hyperledger.besu.ethereum.trie.diffbased.common.storage.flat.FlatDbStrategy;
@@ -39,9 +40,12 @@ import org.hyperledger.besu.plugin.services.storage.KeyValueStorageTransaction;
 import org.hyperledger.besu.plugin.services.storage.SegmentedKeyValueStorage;
 import org.hyperledger.besu.plugin.services.storage.SegmentedKeyValueStorageTransaction;
 
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.NavigableMap;
 import java.util.Optional;
+import java.util.Set;
 import java.util.function.Supplier;
 
 import org.apache.tuweni.bytes.Bytes;
@@ -49,6 +53,15 @@ import org.apache.tuweni.bytes.Bytes32;
 
 public class BonsaiWorldStateKeyValueStorage extends DiffBasedWorldStateKeyValueStorage
     implements WorldStateKeyValueStorage {
+
+  /**
+   * Number of levels of trie nodes read on the path to a key by {@link #getTrieNodesOnPaths(Bytes,
+   * List)}. The keys are hashes, so the leaves of a trie of n keys sit around depth log16(n): below
+   * 8 for the few hundred million accounts of mainnet, and less in storage tries. The locations
+   * deeper than that are almost never populated, and the rare nodes there are read on demand.
+   */
+  public static final int DEFAULT_TRIE_NODES_ON_PATHS_DEPTH = 10;
+
   protected final FlatDbStrategyProvider flatDbStrategyProvider;
 
   public BonsaiWorldStateKeyValueStorage(
@@ -107,10 +120,7 @@ public class BonsaiWorldStateKeyValueStorage extends DiffBasedWorldStateKeyValue
     if (nodeHash.equals(MerkleTrie.EMPTY_TRIE_NODE_HASH)) {
       return Optional.of(MerkleTrie.EMPTY_TRIE_NODE);
     } else {
-      return composedWorldStateStorage
-          .get(TRIE_BRANCH_STORAGE, location.toArrayUnsafe())
-          .map(Bytes::wrap)
-          .filter(b -> Hash.hash(b).equals(nodeHash));
+      return getTrieNodeMatchingHash(location, nodeHash);
     }
   }
 
@@ -119,17 +129,74 @@ public class BonsaiWorldStateKeyValueStorage extends DiffBasedWorldStateKeyValue
     if (nodeHash.equals(MerkleTrie.EMPTY_TRIE_NODE_HASH)) {
       return Optional.of(MerkleTrie.EMPTY_TRIE_NODE);
     } else {
-      return composedWorldStateStorage
-          .get(TRIE_BRANCH_STORAGE, Bytes.concatenate(accountHash, location).toArrayUnsafe())
-          .map(Bytes::wrap)
-          .filter(b -> Hash.hash(b).equals(nodeHash));
+      return getTrieNodeMatchingHash(Bytes.concatenate(accountHash, location), nodeHash);
     }
   }
 
+  private Optional<Bytes> getTrieNodeMatchingHash(final Bytes key, final Bytes32 nodeHash) {
+    // the hash is checked on the stored value, which is only copied when it is the expected node
+    return composedWorldStateStorage.getAndMap(
+        TRIE_BRANCH_STORAGE,
+        key.toArrayUnsafe(),
+        node -> Hash.hash(node).equals(nodeHash) ? node.copy() : null);
+  }
+
   public Optional<Bytes> getTrieNodeUnsafe(final Bytes key) {
     return composedWorldStateStorage.get(TRIE_BRANCH_STORAGE, key.toArrayUnsafe()).map(Bytes::wrap);
   }
 
+  public List<Optional<Bytes>> getTrieNodesUnsafe(final List<Bytes> keys) {
+    final List<byte[]> rawKeys = new ArrayList<>(keys.size());
+    keys.forEach(key -> rawKeys.add(key.toArrayUnsafe()));
+    final List<Optional<Bytes>> nodes = new ArrayList<>(keys.size());
+    composedWorldStateStorage
+        .multiGet(TRIE_BRANCH_STORAGE, rawKeys)
+        .forEach(node -> nodes.add(node.map(Bytes::wrap)));
+    return nodes;
+  }
+
+  /**
+   * Reads in a single batch the trie nodes stored at every location on the paths to some keys, as
+   * opposed to walking down the trie one node at a time. The returned nodes are not checked against
+   * any root hash, so they are only suitable to be put in a cache indexed by node hash. Only the
+   * {@link #DEFAULT_TRIE_NODES_ON_PATHS_DEPTH} top levels are read.
+   *
+   * @param accountHash the account whose storage trie to read, or empty for the account trie
+   * @param keyHashes the hashes of the accounts or slots whose paths to read
+   * @return the distinct trie nodes found on the paths
+   */
+  public List<Bytes> getTrieNodesOnPaths(
+      final Bytes accountHash, final List<? extends Bytes32> keyHashes) {
+    return getTrieNodesOnPaths(accountHash, keyHashes, DEFAULT_TRIE_NODES_ON_PATHS_DEPTH);
+  }
+
+  /**
+   * Reads in a single batch the trie nodes stored at the top locations on the paths to some keys,
+   * see {@link #getTrieNodesOnPaths(Bytes, List)}.
+   *
+   * @param accountHash the account whose storage trie to read, or empty for the account trie
+   * @param keyHashes the hashes of the accounts or slots whose paths to read
+   * @param maxLevels the number of levels read, from the root
+   * @return the distinct trie nodes found on the paths
+   */
+  public List<Bytes> getTrieNodesOnPaths(
+      final Bytes accountHash, final List<? extends Bytes32> keyHashes, final int maxLevels) {
+    // paths share their top nodes, so only read every location once
+    final Set<Bytes> locations = new LinkedHashSet<>();
+    for (final Bytes32 keyHash : keyHashes) {
+      final Bytes path = CompactEncoding.bytesToPath(keyHash);
+      // the last nibble of the path is the leaf terminator, which is never part of a location
+      final int levels = Math.min(maxLevels, path.size());
+      for (int depth = 0; depth < levels; depth++) {
+        locations.add(Bytes.concatenate(accountHash, path.slice(0, depth)));
+      }
+    }
+    final List<Bytes> nodes = new ArrayList<>();
+    getTrieNodesUnsafe(new ArrayList<>(locations))
+        .forEach(node -> node.ifPresent(nodes::add));
+    return nodes;
+  }
+
   public Optional<Bytes> getStorageValueByStorageSlotKey(
       final Hash accountHash, final StorageSlotKey storageSlotKey) {
     return getStorageValueByStorageSlotKey(
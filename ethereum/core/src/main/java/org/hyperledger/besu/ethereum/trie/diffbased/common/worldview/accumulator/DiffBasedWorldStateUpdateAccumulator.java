@@ -46,6 +46,7 @@ import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
 import java.util.function.Function;
 
 import org.apache.tuweni.bytes.Bytes;
@@ -112,51 +113,95 @@ public abstract class DiffBasedWorldStateUpdateAccumulator<ACCOUNT extends DiffB
    */
   public void importStateChangesFromSource(
       final DiffBasedWorldStateUpdateAccumulator<ACCOUNT> source) {
-    source
-        .getAccountsToUpdate()
-        .forEach(
-            (address, diffBasedValue) -> {
-              ACCOUNT copyPrior =
-                  diffBasedValue.getPrior() != null
-                      ? copyAccount(diffBasedValue.getPrior(), this, false)
-                      : null;
-              ACCOUNT copyUpdated =
-                  diffBasedValue.getUpdated() != null
-                      ? copyAccount(diffBasedValue.getUpdated(), this, true)
-                      : null;
-              accountsToUpdate.put(address, new DiffBasedValue<>(copyPrior, copyUpdated));
-            });
-    source
-        .getCodeToUpdate()
-        .forEach(
-            (address, diffBasedValue) -> {
-              codeToUpdate.put(
-                  address,
-                  new DiffBasedValue<>(diffBasedValue.getPrior(), diffBasedValue.getUpdated()));
-            });
+    source.getAccountsToUpdate().forEach(this::importAccountFromSource);
+    source.getCodeToUpdate().forEach(this::importCodeFromSource);
     source
         .getStorageToUpdate()
-        .forEach(
-            (address, slots) -> {
-              StorageConsumingMap<StorageSlotKey, DiffBasedValue<UInt256>> storageConsumingMap =
-                  storageToUpdate.computeIfAbsent(
-                      address,
-                      k ->
-                          new StorageConsumingMap<>(
-                              address, new ConcurrentHashMap<>(), storagePreloader));
-              slots.forEach(
-                  (storageSlotKey, uInt256DiffBasedValue) -> {
-                    storageConsumingMap.put(
-                        storageSlotKey,
-                        new DiffBasedValue<>(
-                            uInt256DiffBasedValue.getPrior(), uInt256DiffBasedValue.getUpdated()));
-                  });
-            });
+        .forEach((address, slots) -> slots.forEach(importSlotFromSource(address)));
     storageToClear.addAll(source.storageToClear);
 
     this.isAccumulatorStateChanged = true;
   }
 
+  /**
+   * Integrates the state changes of an external source to some accounts into the current state,
+   * which must already hold the changes of the source to the other accounts. This allows to bring
+   * the current state up to date with a source it was copied from by only importing what the source
+   * changed since. The storage of the cleared accounts is imported as a whole, the other slots of
+   * the current state being discarded.
+   *
+   * @param source The source accumulator
+   * @param changedSlots The changed slots of each changed account, which may be none
+   * @param clearedAccounts The changed accounts whose storage was cleared
+   */
+  public void importStateChangesFromSource(
+      final DiffBasedWorldStateUpdateAccumulator<ACCOUNT> source,
+      final Map<Address, Set<StorageSlotKey>> changedSlots,
+      final Set<Address> clearedAccounts) {
+    changedSlots.forEach(
+        (address, slots) -> {
+          Optional.ofNullable(source.getAccountsToUpdate().get(address))
+              .ifPresentOrElse(
+                  value -> importAccountFromSource(address, value),
+                  () -> accountsToUpdate.remove(address));
+          Optional.ofNullable(source.getCodeToUpdate().get(address))
+              .ifPresentOrElse(
+                  value -> importCodeFromSource(address, value),
+                  () -> codeToUpdate.remove(address));
+          final Map<StorageSlotKey, DiffBasedValue<UInt256>> sourceSlots =
+              source.getStorageToUpdate().getOrDefault(address, Collections.emptyMap());
+          if (clearedAccounts.contains(address)) {
+            storageToUpdate.remove(address);
+            if (!sourceSlots.isEmpty()) {
+              sourceSlots.forEach(importSlotFromSource(address));
+            }
+            if (source.storageToClear.contains(address)) {
+              storageToClear.add(address);
+            }
+          } else if (!slots.isEmpty()) {
+            final BiConsumer<StorageSlotKey, DiffBasedValue<UInt256>> slotImporter =
+                importSlotFromSource(address);
+            slots.stream()
+                .filter(sourceSlots::containsKey)
+                .forEach(slot -> slotImporter.accept(slot, sourceSlots.get(slot)));
+          }
+        });
+
+    this.isAccumulatorStateChanged = true;
+  }
+
+  private void importAccountFromSource(
+      final Address address, final DiffBasedValue<ACCOUNT> diffBasedValue) {
+    ACCOUNT copyPrior =
+        diffBasedValue.getPrior() != null
+            ? copyAccount(diffBasedValue.getPrior(), this, false)
+            : null;
+    ACCOUNT copyUpdated =
+        diffBasedValue.getUpdated() != null
+            ? copyAccount(diffBasedValue.getUpdated(), this, true)
+            : null;
+    accountsToUpdate.put(address, new DiffBasedValue<>(copyPrior, copyUpdated));
+  }
+
+  private void importCodeFromSource(
+      final Address address, final DiffBasedValue<Bytes> diffBasedValue) {
+    codeToUpdate.put(
+        address, new DiffBasedValue<>(diffBasedValue.getPrior(), diffBasedValue.getUpdated()));
+  }
+
+  private BiConsumer<StorageSlotKey, DiffBasedValue<UInt256>> importSlotFromSource(
+      final Address address) {
+    final StorageConsumingMap<StorageSlotKey, DiffBasedValue<UInt256>> storageConsumingMap =
+        storageToUpdate.computeIfAbsent(
+            address,
+            k -> new StorageConsumingMap<>(address, new ConcurrentHashMap<>(), storagePreloader));
+    return (storageSlotKey, uInt256DiffBasedValue) ->
+        storageConsumingMap.put(
+            storageSlotKey,
+            new DiffBasedValue<>(
+                uInt256DiffBasedValue.getPrior(), uInt256DiffBasedValue.getUpdated()));
+  }
+
   /**
    * Imports unchanged state data from an external source into the current state. This method
    * focuses on integrating state data from the specified source that has been read but not
@@ -308,15 +353,19 @@ public abstract class DiffBasedWorldStateUpdateAccumulator<ACCOUNT extends DiffB
         } else {
           account = wrappedWorldView().get(address);
         }
+        // the account may be loaded concurrently by the readers of a shared world state, the
+        // first one loaded is kept so that they all use the same account
         if (account instanceof DiffBasedAccount diffBasedAccount) {
           ACCOUNT mutableAccount = copyAccount((ACCOUNT) diffBasedAccount, this, true);
-          accountsToUpdate.put(
-              address, new DiffBasedValue<>((ACCOUNT) diffBasedAccount, mutableAccount));
-          return mutableAccount;
+          final DiffBasedValue<ACCOUNT> loaded =
+              accountsToUpdate.putIfAbsent(
+                  address, new DiffBasedValue<>((ACCOUNT) diffBasedAccount, mutableAccount));
+          return loaded == null ? mutableAccount : accountFunction.apply(loaded);
         } else {
           // add the empty read in accountsToUpdate
-          accountsToUpdate.put(address, new DiffBasedValue<>(null, null));
-          return null;
+          final DiffBasedValue<ACCOUNT> loaded =
+              accountsToUpdate.putIfAbsent(address, new DiffBasedValue<>(null, null));
+          return loaded == null ? null : accountFunction.apply(loaded);
         }
       } else {
         return accountFunction.apply(diffBasedValue);
@@ -544,14 +593,18 @@ public abstract class DiffBasedWorldStateUpdateAccumulator<ACCOUNT extends DiffB
           (wrappedWorldView() instanceof DiffBasedWorldState worldState)
               ? worldState.getStorageValueByStorageSlotKey(address, storageSlotKey)
               : wrappedWorldView().getStorageValueByStorageSlotKey(address, storageSlotKey);
-      storageToUpdate
-          .computeIfAbsent(
-              address,
-              key ->
-                  new StorageConsumingMap<>(address, new ConcurrentHashMap<>(), storagePreloader))
-          .put(
-              storageSlotKey, new DiffBasedValue<>(valueUInt.orElse(null), valueUInt.orElse(null)));
-      return valueUInt;
+      final DiffBasedValue<UInt256> loaded =
+          storageToUpdate
+              .computeIfAbsent(
+                  address,
+                  key ->
+                      new StorageConsumingMap<>(
+                          address, new ConcurrentHashMap<>(), storagePreloader))
+              .putIfAbsent(
+                  storageSlotKey,
+                  new DiffBasedValue<>(valueUInt.orElse(null), valueUInt.orElse(null)));
+      // the slot may be loaded concurrently by the readers of a shared world state
+      return loaded == null ? valueUInt : Optional.ofNullable(loaded.getUpdated());
     } catch (MerkleTrieException e) {
       // need to throw to trigger the heal
       throw new MerkleTrieException(
@@ -38,6 +38,15 @@ public class AccountConsumingMap<T> extends ForwardingMap<Address, T> {
     return accounts.put(address, value);
   }
 
+  @Override
+  public T putIfAbsent(@Nonnull final Address address, @Nonnull final T value) {
+    final T existing = accounts.putIfAbsent(address, value);
+    if (existing == null) {
+      consumer.process(address, value);
+    }
+    return existing;
+  }
+
   public Consumer<T> getConsumer() {
     return consumer;
   }
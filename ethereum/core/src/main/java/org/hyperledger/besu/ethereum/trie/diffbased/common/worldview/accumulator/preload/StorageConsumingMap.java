@@ -42,6 +42,15 @@ public class StorageConsumingMap<K, T> extends ForwardingMap<K, T> {
     return storages.put(slotKey, value);
   }
 
+  @Override
+  public T putIfAbsent(@Nonnull final K slotKey, @Nonnull final T value) {
+    final T existing = storages.putIfAbsent(slotKey, value);
+    if (existing == null) {
+      consumer.process(address, slotKey);
+    }
+    return existing;
+  }
+
   public Consumer<K> getConsumer() {
     return consumer;
   }
@@ -0,0 +1,84 @@
+/*
+ * Copyright contributors to Hyperledger Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.util.era1;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static org.hyperledger.besu.crypto.Hash.sha256;
+
+import org.hyperledger.besu.datatypes.Hash;
+import org.hyperledger.besu.ethereum.core.Difficulty;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.bytes.Bytes32;
+
+/**
+ * Computes the accumulator root of an era1 file, that is the SSZ hash tree root of the list of
+ * (block hash, total difficulty) header records of the file, with a list limit of {@link
+ * Era1Writer#MAX_BLOCKS_PER_FILE}.
+ */
+public final class Era1Accumulator {
+  private static final int DEPTH = Integer.numberOfTrailingZeros(Era1Writer.MAX_BLOCKS_PER_FILE);
+
+  private Era1Accumulator() {}
+
+  /**
+   * Computes the accumulator root of the given header records.
+   *
+   * @param blockHashes the hashes of the blocks of the file, in order
+   * @param totalDifficulties the total difficulties of the blocks of the file, in order
+   * @return the accumulator root
+   */
+  public static Bytes32 root(
+      final List<Hash> blockHashes, final List<Difficulty> totalDifficulties) {
+    checkArgument(
+        blockHashes.size() == totalDifficulties.size(),
+        "Expected one total difficulty per block hash");
+    checkArgument(
+        blockHashes.size() <= Era1Writer.MAX_BLOCKS_PER_FILE,
+        "Too many header records for an era1 file");
+
+    List<Bytes32> layer = new ArrayList<>(blockHashes.size());
+    for (int i = 0; i < blockHashes.size(); i++) {
+      layer.add(
+          sha256(
+              Bytes.concatenate(
+                  blockHashes.get(i), Era1Format.encodeTotalDifficulty(totalDifficulties.get(i)))));
+    }
+
+    Bytes32 zeroHash = Bytes32.ZERO;
+    for (int depth = 0; depth < DEPTH; depth++) {
+      final List<Bytes32> parents = new ArrayList<>((layer.size() + 1) / 2);
+      for (int i = 0; i < layer.size(); i += 2) {
+        final Bytes32 right = i + 1 < layer.size() ? layer.get(i + 1) : zeroHash;
+        parents.add(sha256(Bytes.concatenate(layer.get(i), right)));
+      }
+      zeroHash = sha256(Bytes.concatenate(zeroHash, zeroHash));
+      layer = parents;
+    }
+    final Bytes32 treeRoot = layer.isEmpty() ? zeroHash : layer.get(0);
+
+    // mix in the length of the list as a little endian uint256
+    final ByteBuffer length =
+        ByteBuffer.allocate(Bytes32.SIZE)
+            .order(ByteOrder.LITTLE_ENDIAN)
+            .putLong(0, blockHashes.size());
+    return sha256(Bytes.concatenate(treeRoot, Bytes.wrap(length.array())));
+  }
+}
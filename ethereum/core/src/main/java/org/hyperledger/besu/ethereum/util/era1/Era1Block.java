@@ -0,0 +1,31 @@
+/*
+ * Copyright contributors to Hyperledger Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.util.era1;
+
+import org.hyperledger.besu.ethereum.core.Block;
+import org.hyperledger.besu.ethereum.core.Difficulty;
+import org.hyperledger.besu.ethereum.core.TransactionReceipt;
+
+import java.util.List;
+
+/**
+ * A block read from an era1 file, along with its receipts and total difficulty.
+ *
+ * @param block the block
+ * @param receipts the receipts of the block transactions
+ * @param totalDifficulty the total difficulty of the chain at this block
+ */
+public record Era1Block(
+    Block block, List<TransactionReceipt> receipts, Difficulty totalDifficulty) {}
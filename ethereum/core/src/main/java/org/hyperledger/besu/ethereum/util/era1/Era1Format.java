@@ -0,0 +1,90 @@
+/*
+ * Copyright contributors to Hyperledger Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.util.era1;
+
+import org.hyperledger.besu.ethereum.core.Difficulty;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.bytes.Bytes32;
+import org.xerial.snappy.SnappyFramedInputStream;
+import org.xerial.snappy.SnappyFramedOutputStream;
+
+/**
+ * Constants and encoding helpers of the era1 archive format.
+ *
+ * <p>An era1 file is an e2store file, that is a sequence of entries made of an 8 bytes header (a
+ * 2 bytes little endian type, a 4 bytes little endian length and 2 reserved bytes) followed by
+ * the entry data:
+ *
+ * <pre>
+ * era1 := Version | block-tuple* | Accumulator | BlockIndex
+ * block-tuple := CompressedHeader | CompressedBody | CompressedReceipts | TotalDifficulty
+ * </pre>
+ */
+final class Era1Format {
+  static final int ENTRY_HEADER_SIZE = 8;
+
+  static final int VERSION = 0x3265;
+  static final int COMPRESSED_HEADER = 0x03;
+  static final int COMPRESSED_BODY = 0x04;
+  static final int COMPRESSED_RECEIPTS = 0x05;
+  static final int TOTAL_DIFFICULTY = 0x06;
+  static final int ACCUMULATOR = 0x07;
+  static final int BLOCK_INDEX = 0x3266;
+
+  private Era1Format() {}
+
+  static Bytes compress(final Bytes data) {
+    final ByteArrayOutputStream compressed = new ByteArrayOutputStream(data.size() / 2 + 32);
+    try (final SnappyFramedOutputStream out = new SnappyFramedOutputStream(compressed)) {
+      out.write(data.toArrayUnsafe());
+    } catch (final IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return Bytes.wrap(compressed.toByteArray());
+  }
+
+  static Bytes decompress(final byte[] data) {
+    try (final SnappyFramedInputStream in =
+        new SnappyFramedInputStream(new ByteArrayInputStream(data))) {
+      return Bytes.wrap(in.readAllBytes());
+    } catch (final IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /** Total difficulties are stored as 32 bytes little endian integers. */
+  static Bytes32 encodeTotalDifficulty(final Difficulty totalDifficulty) {
+    return Bytes32.wrap(reverse(totalDifficulty.toBytes().toArray()));
+  }
+
+  static Difficulty decodeTotalDifficulty(final byte[] data) {
+    return Difficulty.wrap(Bytes32.wrap(reverse(data.clone())));
+  }
+
+  private static byte[] reverse(final byte[] bytes) {
+    for (int i = 0, j = bytes.length - 1; i < j; i++, j--) {
+      final byte b = bytes[i];
+      bytes[i] = bytes[j];
+      bytes[j] = b;
+    }
+    return bytes;
+  }
+}
@@ -0,0 +1,207 @@
+/*
+ * Copyright contributors to Hyperledger Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.util.era1;
+
+import static com.google.common.base.Preconditions.checkElementIndex;
+
+import org.hyperledger.besu.ethereum.core.Block;
+import org.hyperledger.besu.ethereum.core.BlockBody;
+import org.hyperledger.besu.ethereum.core.BlockHeader;
+import org.hyperledger.besu.ethereum.core.BlockHeaderFunctions;
+import org.hyperledger.besu.ethereum.core.Difficulty;
+import org.hyperledger.besu.ethereum.core.TransactionReceipt;
+import org.hyperledger.besu.ethereum.rlp.RLP;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.apache.tuweni.bytes.Bytes32;
+
+/**
+ * Reads blocks from an era1 file.
+ *
+ * <p>The file is memory mapped and only read through absolute accesses, so that blocks can be read
+ * and decoded concurrently from several threads.
+ */
+public final class Era1Reader implements Closeable {
+  private final Path file;
+  private final FileChannel fileChannel;
+  private final ByteBuffer buffer;
+  private final long startingBlockNumber;
+  private final int[] blockOffsets;
+  private final Bytes32 accumulatorRoot;
+
+  private Era1Reader(final Path file, final FileChannel fileChannel, final ByteBuffer buffer) {
+    this.file = file;
+    this.fileChannel = fileChannel;
+    this.buffer = buffer;
+
+    checkEntryType(0, Era1Format.VERSION);
+    final int size = buffer.capacity();
+    if (size < 2 * Era1Format.ENTRY_HEADER_SIZE + 2 * Long.BYTES) {
+      throw invalid("file is too small");
+    }
+    final long blockCount = buffer.getLong(size - Long.BYTES);
+    if (blockCount <= 0 || blockCount > Era1Writer.MAX_BLOCKS_PER_FILE) {
+      throw invalid("unexpected block count " + blockCount);
+    }
+    final int indexPosition =
+        size - Era1Format.ENTRY_HEADER_SIZE - Long.BYTES * ((int) blockCount + 2);
+    final int accumulatorPosition = indexPosition - Era1Format.ENTRY_HEADER_SIZE - Bytes32.SIZE;
+    if (accumulatorPosition < Era1Format.ENTRY_HEADER_SIZE) {
+      throw invalid("file is too small for " + blockCount + " blocks");
+    }
+    checkEntryType(indexPosition, Era1Format.BLOCK_INDEX);
+    checkEntryType(accumulatorPosition, Era1Format.ACCUMULATOR);
+    this.accumulatorRoot = Bytes32.wrap(readEntry(accumulatorPosition, Era1Format.ACCUMULATOR));
+
+    final int indexData = indexPosition + Era1Format.ENTRY_HEADER_SIZE;
+    this.startingBlockNumber = buffer.getLong(indexData);
+    this.blockOffsets = new int[(int) blockCount];
+    for (int i = 0; i < blockOffsets.length; i++) {
+      final long offset = indexPosition + buffer.getLong(indexData + Long.BYTES * (i + 1));
+      if (offset < Era1Format.ENTRY_HEADER_SIZE || offset >= accumulatorPosition) {
+        throw invalid("block index entry " + i + " is out of bounds");
+      }
+      blockOffsets[i] = (int) offset;
+    }
+  }
+
+  /**
+   * Opens an era1 file.
+   *
+   * @param file the file to read
+   * @return the reader of the file
+   * @throws IOException if the file can't be read
+   * @throws IllegalArgumentException if the file is not a valid era1 file
+   */
+  public static Era1Reader open(final Path file) throws IOException {
+    final FileChannel fileChannel = FileChannel.open(file);
+    try {
+      if (fileChannel.size() > Integer.MAX_VALUE) {
+        throw new IllegalArgumentException("Era1 file " + file + " is too large");
+      }
+      final ByteBuffer buffer =
+          fileChannel
+              .map(FileChannel.MapMode.READ_ONLY, 0, fileChannel.size())
+              .order(ByteOrder.LITTLE_ENDIAN);
+      return new Era1Reader(file, fileChannel, buffer);
+    } catch (final IOException | RuntimeException e) {
+      fileChannel.close();
+      throw e;
+    }
+  }
+
+  /**
+   * Gets the number of the first block of the file.
+   *
+   * @return the number of the first block of the file
+   */
+  public long getStartingBlockNumber() {
+    return startingBlockNumber;
+  }
+
+  /**
+   * Gets the number of blocks of the file.
+   *
+   * @return the number of blocks of the file
+   */
+  public int getBlockCount() {
+    return blockOffsets.length;
+  }
+
+  /**
+   * Gets the accumulator root stored in the file.
+   *
+   * @return the accumulator root stored in the file
+   */
+  public Bytes32 getAccumulatorRoot() {
+    return accumulatorRoot;
+  }
+
+  /**
+   * Reads and decodes a block of the file. This method can be called concurrently.
+   *
+   * @param index the index of the block in the file, starting at 0
+   * @param blockHeaderFunctions the functions used to decode block headers
+   * @return the block, its receipts and total difficulty
+   */
+  public Era1Block readBlock(final int index, final BlockHeaderFunctions blockHeaderFunctions) {
+    checkElementIndex(index, blockOffsets.length);
+    int position = blockOffsets[index];
+
+    final byte[] compressedHeader = readEntry(position, Era1Format.COMPRESSED_HEADER);
+    position += Era1Format.ENTRY_HEADER_SIZE + compressedHeader.length;
+    final byte[] compressedBody = readEntry(position, Era1Format.COMPRESSED_BODY);
+    position += Era1Format.ENTRY_HEADER_SIZE + compressedBody.length;
+    final byte[] compressedReceipts = readEntry(position, Era1Format.COMPRESSED_RECEIPTS);
+    position += Era1Format.ENTRY_HEADER_SIZE + compressedReceipts.length;
+    final byte[] totalDifficulty = readEntry(position, Era1Format.TOTAL_DIFFICULTY);
+    if (totalDifficulty.length != Bytes32.SIZE) {
+      throw invalid("unexpected total difficulty size at block index " + index);
+    }
+
+    final BlockHeader header =
+        BlockHeader.readFrom(
+            RLP.input(Era1Format.decompress(compressedHeader)), blockHeaderFunctions);
+    final BlockBody body =
+        BlockBody.readWrappedBodyFrom(
+            RLP.input(Era1Format.decompress(compressedBody)), blockHeaderFunctions);
+    final List<TransactionReceipt> receipts =
+        RLP.input(Era1Format.decompress(compressedReceipts))
+            .readList(rlpInput -> TransactionReceipt.readFrom(rlpInput, false));
+    final Difficulty difficulty = Era1Format.decodeTotalDifficulty(totalDifficulty);
+    return new Era1Block(new Block(header, body), receipts, difficulty);
+  }
+
+  @Override
+  public void close() throws IOException {
+    fileChannel.close();
+  }
+
+  private void checkEntryType(final int position, final int expectedType) {
+    if (position + Era1Format.ENTRY_HEADER_SIZE > buffer.capacity()) {
+      throw invalid("truncated entry at offset " + position);
+    }
+    final int type = Short.toUnsignedInt(buffer.getShort(position));
+    if (type != expectedType) {
+      throw invalid(
+          String.format(
+              "expected entry type 0x%04x but got 0x%04x at offset %d",
+              expectedType, type, position));
+    }
+  }
+
+  private byte[] readEntry(final int position, final int expectedType) {
+    checkEntryType(position, expectedType);
+    final long length = Integer.toUnsignedLong(buffer.getInt(position + 2));
+    final int dataPosition = position + Era1Format.ENTRY_HEADER_SIZE;
+    if (dataPosition + length > buffer.capacity()) {
+      throw invalid("truncated entry at offset " + position);
+    }
+    final byte[] data = new byte[(int) length];
+    buffer.get(dataPosition, data);
+    return data;
+  }
+
+  private IllegalArgumentException invalid(final String reason) {
+    return new IllegalArgumentException("Invalid era1 file " + file + ": " + reason);
+  }
+}
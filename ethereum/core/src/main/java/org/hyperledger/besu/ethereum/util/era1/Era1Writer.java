@@ -0,0 +1,147 @@
+/*
+ * Copyright contributors to Hyperledger Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.util.era1;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+
+import org.hyperledger.besu.datatypes.Hash;
+import org.hyperledger.besu.ethereum.core.Block;
+import org.hyperledger.besu.ethereum.core.Difficulty;
+import org.hyperledger.besu.ethereum.core.TransactionReceipt;
+import org.hyperledger.besu.ethereum.rlp.RLP;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.bytes.Bytes32;
+
+/** Writes consecutive blocks to an era1 file. */
+public final class Era1Writer implements Closeable {
+  /** The maximum number of blocks of an era1 file, which is also the size of an epoch. */
+  public static final int MAX_BLOCKS_PER_FILE = 8192;
+
+  private final OutputStream out;
+  private long position;
+  private final List<Long> blockOffsets = new ArrayList<>();
+  private final List<Hash> blockHashes = new ArrayList<>();
+  private final List<Difficulty> totalDifficulties = new ArrayList<>();
+  private long startingBlockNumber;
+  private boolean finished;
+
+  /**
+   * Creates an era1 file, replacing any existing file.
+   *
+   * @param file the file to write to
+   * @throws IOException if the file can't be created
+   */
+  public Era1Writer(final Path file) throws IOException {
+    this.out = new BufferedOutputStream(Files.newOutputStream(file), 1 << 20);
+    writeEntry(Era1Format.VERSION, Bytes.EMPTY);
+  }
+
+  /**
+   * Appends a block to the file. Blocks must be added in order, without gaps.
+   *
+   * @param block the block
+   * @param receipts the receipts of the block transactions
+   * @param totalDifficulty the total difficulty of the chain at this block
+   * @throws IOException if the block can't be written
+   */
+  public void add(
+      final Block block, final List<TransactionReceipt> receipts, final Difficulty totalDifficulty)
+      throws IOException {
+    checkState(!finished, "Era1 file is already finished");
+    checkArgument(blockOffsets.size() < MAX_BLOCKS_PER_FILE, "Era1 file is full");
+    final long blockNumber = block.getHeader().getNumber();
+    if (blockOffsets.isEmpty()) {
+      startingBlockNumber = blockNumber;
+    } else {
+      checkArgument(
+          blockNumber == startingBlockNumber + blockOffsets.size(),
+          "Expected block %s but got block %s",
+          startingBlockNumber + blockOffsets.size(),
+          blockNumber);
+    }
+
+    blockOffsets.add(position);
+    blockHashes.add(block.getHash());
+    totalDifficulties.add(totalDifficulty);
+    writeEntry(
+        Era1Format.COMPRESSED_HEADER, Era1Format.compress(RLP.encode(block.getHeader()::writeTo)));
+    writeEntry(
+        Era1Format.COMPRESSED_BODY,
+        Era1Format.compress(RLP.encode(block.getBody()::writeWrappedBodyTo)));
+    writeEntry(
+        Era1Format.COMPRESSED_RECEIPTS,
+        Era1Format.compress(
+            RLP.encode(
+                rlpOutput ->
+                    rlpOutput.writeList(receipts, TransactionReceipt::writeToForNetwork))));
+    writeEntry(Era1Format.TOTAL_DIFFICULTY, Era1Format.encodeTotalDifficulty(totalDifficulty));
+  }
+
+  /**
+   * Writes the accumulator and the block index of the file. No block can be added afterwards.
+   *
+   * @return the accumulator root of the file
+   * @throws IOException if the entries can't be written
+   */
+  public Bytes32 finish() throws IOException {
+    checkState(!finished, "Era1 file is already finished");
+    checkState(!blockOffsets.isEmpty(), "Era1 file has no blocks");
+    finished = true;
+
+    final Bytes32 accumulatorRoot = Era1Accumulator.root(blockHashes, totalDifficulties);
+    writeEntry(Era1Format.ACCUMULATOR, accumulatorRoot);
+
+    // block offsets are relative to the start of the index entry
+    final long indexPosition = position;
+    final ByteBuffer index =
+        ByteBuffer.allocate(Long.BYTES * (blockOffsets.size() + 2)).order(ByteOrder.LITTLE_ENDIAN);
+    index.putLong(startingBlockNumber);
+    for (final long offset : blockOffsets) {
+      index.putLong(offset - indexPosition);
+    }
+    index.putLong(blockOffsets.size());
+    writeEntry(Era1Format.BLOCK_INDEX, Bytes.wrap(index.array()));
+    out.flush();
+    return accumulatorRoot;
+  }
+
+  @Override
+  public void close() throws IOException {
+    out.close();
+  }
+
+  private void writeEntry(final int type, final Bytes data) throws IOException {
+    final ByteBuffer header =
+        ByteBuffer.allocate(Era1Format.ENTRY_HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+    header.putShort((short) type);
+    header.putInt(data.size());
+    out.write(header.array());
+    out.write(data.toArrayUnsafe());
+    position += Era1Format.ENTRY_HEADER_SIZE + data.size();
+  }
+}
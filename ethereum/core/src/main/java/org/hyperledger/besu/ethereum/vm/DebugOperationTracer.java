@@ -33,6 +33,7 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.OptionalLong;
 import java.util.TreeMap;
+import java.util.function.Consumer;
 
 import org.apache.tuweni.bytes.Bytes;
 import org.apache.tuweni.units.bigints.UInt256;
@@ -48,6 +49,12 @@ public class DebugOperationTracer implements OperationTracer {
    */
   private final boolean recordChildCallGas;
 
+  /**
+   * Receives the trace frames as soon as they can no longer be amended, instead of them being kept
+   * until the end of the transaction, or null to keep all the frames
+   */
+  private final Consumer<TraceFrame> traceFrameConsumer;
+
   private List<TraceFrame> traceFrames = new ArrayList<>();
   private TraceFrame lastFrame;
 
@@ -65,8 +72,27 @@ public class DebugOperationTracer implements OperationTracer {
    *     (false) gas amounts for call operations
    */
   public DebugOperationTracer(final TraceOptions options, final boolean recordChildCallGas) {
+    this(options, recordChildCallGas, null);
+  }
+
+  /**
+   * Creates an operation tracer streaming the trace frames to a consumer. A frame is passed to the
+   * consumer once the following operation which is not a RETURN is traced, the frames which may
+   * still be amended being the only ones kept. The remaining frames are passed by {@link
+   * #flushTraceFrames()} at the end of a transaction.
+   *
+   * @param options The options, as passed in through the RPC
+   * @param recordChildCallGas A flag on whether to produce geth style (true) or parity style
+   *     (false) gas amounts for call operations
+   * @param traceFrameConsumer The consumer of the trace frames
+   */
+  public DebugOperationTracer(
+      final TraceOptions options,
+      final boolean recordChildCallGas,
+      final Consumer<TraceFrame> traceFrameConsumer) {
     this.options = options;
     this.recordChildCallGas = recordChildCallGas;
+    this.traceFrameConsumer = traceFrameConsumer;
   }
 
   @Override
@@ -127,6 +153,10 @@ public class DebugOperationTracer implements OperationTracer {
             currentOperation.isVirtualOperation(),
             frame.getMaybeUpdatedMemory(),
             frame.getMaybeUpdatedStorage());
+    // the frames before the last one which is not a RETURN are final
+    if (traceFrameConsumer != null && !"RETURN".equals(opcode)) {
+      flushTraceFrames();
+    }
     traceFrames.add(lastFrame);
     frame.reset();
   }
@@ -252,6 +282,14 @@ public class DebugOperationTracer implements OperationTracer {
     return Optional.of(stackContents);
   }
 
+  /** Passes the trace frames kept so far to the consumer, if the frames are streamed. */
+  public void flushTraceFrames() {
+    if (traceFrameConsumer != null) {
+      traceFrames.forEach(traceFrameConsumer);
+      traceFrames.clear();
+    }
+  }
+
   public List<TraceFrame> getTraceFrames() {
     return traceFrames;
   }
@@ -16,6 +16,9 @@ package org.hyperledger.besu.ethereum.worldstate;
 
 import org.hyperledger.besu.plugin.services.storage.DataStorageFormat;
 
+import java.nio.file.Path;
+import java.util.Optional;
+
 import org.immutables.value.Value;
 
 @Value.Immutable
@@ -87,6 +90,16 @@ public interface DataStorageConfiguration {
 
     boolean DEFAULT_PARALLEL_TRX_ENABLED = false;
 
+    boolean DEFAULT_RECEIPT_BLOCK_COMPACTION_ENABLED = false;
+
+    long DEFAULT_SECONDARY_CATCH_UP_INTERVAL_MILLIS = 1_000L;
+
+    boolean DEFAULT_STORAGE_STATS_ENABLED = false;
+
+    long DEFAULT_TRANSACTION_LOCATION_FILTER_CAPACITY = 0L;
+
+    boolean DEFAULT_LOG_INDEX_ENABLED = false;
+
     DataStorageConfiguration.Unstable DEFAULT =
         ImmutableDataStorageConfiguration.Unstable.builder().build();
 
@@ -107,5 +120,32 @@ public interface DataStorageConfiguration {
     default boolean isParallelTxProcessingEnabled() {
       return DEFAULT_PARALLEL_TRX_ENABLED;
     }
+
+    @Value.Default
+    default boolean getReceiptBlockCompactionEnabled() {
+      return DEFAULT_RECEIPT_BLOCK_COMPACTION_ENABLED;
+    }
+
+    Optional<Path> getPrimaryDataPath();
+
+    @Value.Default
+    default long getSecondaryCatchUpIntervalMillis() {
+      return DEFAULT_SECONDARY_CATCH_UP_INTERVAL_MILLIS;
+    }
+
+    @Value.Default
+    default boolean getStorageStatsEnabled() {
+      return DEFAULT_STORAGE_STATS_ENABLED;
+    }
+
+    @Value.Default
+    default long getTransactionLocationFilterCapacity() {
+      return DEFAULT_TRANSACTION_LOCATION_FILTER_CAPACITY;
+    }
+
+    @Value.Default
+    default boolean getLogIndexEnabled() {
+      return DEFAULT_LOG_INDEX_ENABLED;
+    }
   }
 }
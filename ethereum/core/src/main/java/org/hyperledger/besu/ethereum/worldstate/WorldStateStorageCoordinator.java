@@ -19,6 +19,7 @@ import org.hyperledger.besu.ethereum.trie.diffbased.bonsai.storage.BonsaiWorldSt
 import org.hyperledger.besu.ethereum.trie.forest.storage.ForestWorldStateKeyValueStorage;
 import org.hyperledger.besu.plugin.services.storage.DataStorageFormat;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.function.Consumer;
 import java.util.function.Function;
@@ -62,6 +63,14 @@ public class WorldStateStorageCoordinator {
         forest -> forest.getAccountStorageTrieNode(nodeHash));
   }
 
+  public List<Bytes> getTrieNodesOnPaths(
+      final Bytes accountHash, final List<? extends Bytes32> keyHashes) {
+    return applyForStrategy(
+        bonsai -> bonsai.getTrieNodesOnPaths(accountHash, keyHashes),
+        // forest nodes are stored by hash, so they cannot be read before their parent
+        forest -> List.of());
+  }
+
   public Optional<Bytes> getCode(final Hash codeHash, final Hash accountHash) {
     return applyForStrategy(
         bonsai -> bonsai.getCode(codeHash, accountHash), forest -> forest.getCode(codeHash));
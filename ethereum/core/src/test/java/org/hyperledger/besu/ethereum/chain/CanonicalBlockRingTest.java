@@ -0,0 +1,99 @@
+/*
+ * Copyright contributors to Hyperledger Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.chain;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.hyperledger.besu.ethereum.core.Block;
+import org.hyperledger.besu.ethereum.core.BlockDataGenerator;
+import org.hyperledger.besu.ethereum.core.BlockWithReceipts;
+import org.hyperledger.besu.ethereum.core.Difficulty;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+
+public class CanonicalBlockRingTest {
+
+  private final BlockDataGenerator gen = new BlockDataGenerator(1);
+  private final List<Block> chain = gen.blockSequence(8);
+  private final List<BlockWithReceipts> chainWithReceipts =
+      chain.stream().map(block -> new BlockWithReceipts(block, gen.receipts(block))).toList();
+
+  private void addChainHead(final CanonicalBlockRing ring, final int number) {
+    ring.addChainHead(chainWithReceipts.get(number), Difficulty.ONE, Optional.empty());
+  }
+
+  @Test
+  public void evictsTheOldestBlocksBeyondTheMaximumSize() {
+    final CanonicalBlockRing unbounded = new CanonicalBlockRing(8, Long.MAX_VALUE);
+    for (int i = 0; i < 8; i++) {
+      addChainHead(unbounded, i);
+    }
+    final long lastThreeBlocksBytes =
+        unbounded.get(5L).orElseThrow().getEncodedSize()
+            + unbounded.get(6L).orElseThrow().getEncodedSize()
+            + unbounded.get(7L).orElseThrow().getEncodedSize();
+
+    final CanonicalBlockRing ring = new CanonicalBlockRing(8, lastThreeBlocksBytes);
+    for (int i = 0; i < 8; i++) {
+      addChainHead(ring, i);
+    }
+
+    assertThat(ring.size()).isEqualTo(3);
+    assertThat(ring.bytes()).isEqualTo(lastThreeBlocksBytes);
+    assertThat(ring.get(4L)).isEmpty();
+    assertThat(ring.get(chain.get(4).getHash())).isEmpty();
+    assertThat(ring.get(5L)).isPresent();
+    assertThat(ring.get(7L)).isPresent();
+  }
+
+  @Test
+  public void keepsTheChainHeadLargerThanTheMaximumSize() {
+    final CanonicalBlockRing ring = new CanonicalBlockRing(8, 1);
+    addChainHead(ring, 0);
+    addChainHead(ring, 1);
+
+    assertThat(ring.size()).isEqualTo(1);
+    assertThat(ring.get(1L)).isPresent();
+  }
+
+  @Test
+  public void releasesTheSizeOfTruncatedBlocks() {
+    final CanonicalBlockRing ring = new CanonicalBlockRing(8, Long.MAX_VALUE);
+    addChainHead(ring, 0);
+    final long genesisBytes = ring.bytes();
+    addChainHead(ring, 1);
+    addChainHead(ring, 2);
+
+    ring.truncateAbove(0);
+
+    assertThat(ring.size()).isEqualTo(1);
+    assertThat(ring.bytes()).isEqualTo(genesisBytes);
+  }
+
+  @Test
+  public void dropsTheBlocksBelowAGap() {
+    final CanonicalBlockRing ring = new CanonicalBlockRing(8, Long.MAX_VALUE);
+    addChainHead(ring, 0);
+    addChainHead(ring, 1);
+    addChainHead(ring, 4);
+
+    assertThat(ring.size()).isEqualTo(1);
+    assertThat(ring.get(1L)).isEmpty();
+    assertThat(ring.get(4L)).isPresent();
+  }
+}
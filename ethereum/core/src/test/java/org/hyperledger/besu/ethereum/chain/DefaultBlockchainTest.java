@@ -240,6 +240,44 @@ public class DefaultBlockchainTest {
     assertThat(blockchain.getForks()).isEmpty();
   }
 
+  @Test
+  public void reloadChainHeadFollowsBlocksAppendedThroughAnotherInstance() {
+    final BlockDataGenerator gen = new BlockDataGenerator();
+
+    final KeyValueStorage kvStore = new InMemoryKeyValueStorage();
+    final KeyValueStorage kvStoreVariables = new InMemoryKeyValueStorage();
+    final Block genesisBlock = gen.genesisBlock();
+    final DefaultBlockchain primary =
+        createMutableBlockchain(kvStore, kvStoreVariables, genesisBlock);
+    final DefaultBlockchain follower =
+        createMutableBlockchain(kvStore, kvStoreVariables, genesisBlock);
+    final List<Hash> notifiedBlocks = new ArrayList<>();
+    follower.observeBlockAdded(event -> notifiedBlocks.add(event.getBlock().getHash()));
+
+    final List<Block> chain = new ArrayList<>();
+    Block parent = genesisBlock;
+    for (long number = 1; number <= 3; number++) {
+      final Block block =
+          gen.block(
+              new BlockOptions()
+                  .setBlockNumber(number)
+                  .setParentHash(parent.getHash())
+                  .addTransaction(gen.transactions(2)));
+      primary.appendBlock(block, gen.receipts(block));
+      chain.add(block);
+      parent = block;
+    }
+
+    assertBlockIsHead(follower, genesisBlock);
+    assertThat(follower.reloadChainHead()).isTrue();
+
+    assertBlockIsHead(follower, parent);
+    assertTotalDifficultiesAreConsistent(follower, parent);
+    assertThat(notifiedBlocks)
+        .containsExactlyElementsOf(chain.stream().map(Block::getHash).toList());
+    assertThat(follower.reloadChainHead()).isFalse();
+  }
+
   @Test
   public void appendUnconnectedBlock() {
     final BlockDataGenerator gen = new BlockDataGenerator();
@@ -962,10 +1000,7 @@ public class DefaultBlockchainTest {
     final DefaultBlockchain blockchain =
         createMutableBlockchain(kvStore, kvStoreVariables, genesisBlock);
 
-    assertThat(blockchain.getBlockHeadersCache()).isEmpty();
-    assertThat(blockchain.getBlockBodiesCache()).isEmpty();
-    assertThat(blockchain.getTransactionReceiptsCache()).isEmpty();
-    assertThat(blockchain.getTotalDifficultyCache()).isEmpty();
+    assertThat(blockchain.getCanonicalBlockRing()).isEmpty();
   }
 
   @Test
@@ -984,33 +1019,109 @@ public class DefaultBlockchainTest {
     final Block newBlock = gen.block(options);
     final List<TransactionReceipt> receipts = gen.receipts(newBlock);
 
-    assertThat(blockchain.getBlockHeadersCache()).isNotEmpty();
-    assertThat(blockchain.getBlockBodiesCache()).isNotEmpty();
-    assertThat(blockchain.getTransactionReceiptsCache()).isNotEmpty();
-    assertThat(blockchain.getTotalDifficultyCache()).isNotEmpty();
-
-    assertThat(blockchain.getBlockHeadersCache().get().size()).isEqualTo(0);
-    assertThat(blockchain.getBlockBodiesCache().get().size()).isEqualTo(0);
-    assertThat(blockchain.getTransactionReceiptsCache().get().size()).isEqualTo(0);
-    assertThat(blockchain.getTotalDifficultyCache().get().size()).isEqualTo(0);
+    assertThat(blockchain.getCanonicalBlockRing()).isNotEmpty();
+    final CanonicalBlockRing ring = blockchain.getCanonicalBlockRing().get();
+    assertThat(ring.size()).isEqualTo(0);
 
     blockchain.appendBlock(newBlock, receipts);
 
-    assertThat(blockchain.getBlockHeadersCache().get().size()).isEqualTo(1);
-    assertThat(blockchain.getBlockHeadersCache().get().getIfPresent(newBlock.getHash()))
-        .isEqualTo(newBlock.getHeader());
+    assertThat(ring.size()).isEqualTo(1);
+    final CanonicalBlockRing.Entry entry = ring.get(newBlock.getHash()).orElseThrow();
+    assertThat(ring.get(1L)).contains(entry);
+    assertThat(entry.getBlock()).isEqualTo(newBlock);
+    assertThat(entry.getReceipts()).isEqualTo(receipts);
+    assertThat(entry.getTotalDifficulty())
+        .isEqualTo(blockchain.calculateTotalDifficulty(newBlock.getHeader()));
+    assertThat(entry.getLogsWithMetadata())
+        .isEqualTo(LogWithMetadata.generate(newBlock, receipts, false));
+    assertThat(blockchain.getRecentLogsWithMetadata(newBlock.getHash()))
+        .contains(entry.getLogsWithMetadata());
+    // the lazy views are kept with the block rather than encoded again on every lookup
+    assertThat(blockchain.getLazyBlockBody(newBlock.getHash())).containsSame(entry.getLazyBody());
+    assertThat(blockchain.getLazyTxReceipts(newBlock.getHash()))
+        .containsSame(entry.getLazyReceipts());
+    for (int i = 0; i < newBlock.getBody().getTransactions().size(); i++) {
+      assertThat(
+              ring.getTransactionLocation(newBlock.getBody().getTransactions().get(i).getHash()))
+          .contains(new TransactionLocation(newBlock.getHash(), i));
+    }
+    assertBlockDataIsStored(blockchain, newBlock, receipts);
+  }
 
-    assertThat(blockchain.getBlockBodiesCache().get().size()).isEqualTo(1);
-    assertThat(blockchain.getBlockBodiesCache().get().getIfPresent(newBlock.getHash()))
-        .isEqualTo(newBlock.getBody());
+  @Test
+  public void recentBlocksOnlyKeepTheLastCanonicalBlocks() {
+    final BlockDataGenerator gen = new BlockDataGenerator(3);
+    final List<Block> chain = gen.blockSequence(6);
+    final KeyValueStorage kvStore = new InMemoryKeyValueStorage();
+    final KeyValueStorage kvStoreVariables = new InMemoryKeyValueStorage();
+    final DefaultBlockchain blockchain =
+        createMutableBlockchain(kvStore, kvStoreVariables, chain.get(0), "/data/test", 3);
+    for (int i = 1; i < chain.size(); i++) {
+      blockchain.appendBlock(chain.get(i), gen.receipts(chain.get(i)));
+    }
+
+    final CanonicalBlockRing ring = blockchain.getCanonicalBlockRing().get();
+    assertThat(ring.size()).isEqualTo(3);
+    assertThat(ring.get(chain.get(2).getHash())).isEmpty();
+    assertThat(ring.get(2L)).isEmpty();
+    for (final Transaction tx : chain.get(2).getBody().getTransactions()) {
+      assertThat(ring.getTransactionLocation(tx.getHash())).isEmpty();
+    }
+    for (int i = 3; i < chain.size(); i++) {
+      assertThat(ring.get(chain.get(i).getHash())).isPresent();
+      assertThat(ring.get(i).map(CanonicalBlockRing.Entry::getHash))
+          .contains(chain.get(i).getHash());
+    }
+    assertThat(blockchain.getBlockHeader(2L)).contains(chain.get(2).getHeader());
+  }
+
+  @Test
+  public void recentBlocksDropTheOldChainOnReorg() {
+    final BlockDataGenerator gen = new BlockDataGenerator(4);
+    final List<Block> chain = gen.blockSequence(4);
+    final List<List<TransactionReceipt>> blockReceipts =
+        chain.stream().map(gen::receipts).collect(Collectors.toList());
+    final KeyValueStorage kvStore = new InMemoryKeyValueStorage();
+    final KeyValueStorage kvStoreVariables = new InMemoryKeyValueStorage();
+    final DefaultBlockchain blockchain =
+        createMutableBlockchain(kvStore, kvStoreVariables, chain.get(0), "/data/test", 128);
+    for (int i = 1; i < chain.size(); i++) {
+      blockchain.appendBlock(chain.get(i), blockReceipts.get(i));
+    }
 
-    assertThat(blockchain.getTransactionReceiptsCache().get().size()).isEqualTo(1);
-    assertThat(blockchain.getTransactionReceiptsCache().get().getIfPresent(newBlock.getHash()))
-        .isEqualTo(receipts);
+    // fork from block 1 with a heavier block 2
+    final Block fork =
+        gen.block(
+            new BlockDataGenerator.BlockOptions()
+                .setParentHash(chain.get(1).getHash())
+                .setBlockNumber(2)
+                .setDifficulty(blockchain.getChainHead().getTotalDifficulty()));
+    final List<TransactionReceipt> forkReceipts = gen.receipts(fork);
+    blockchain.appendBlock(fork, forkReceipts);
 
-    assertThat(blockchain.getTotalDifficultyCache().get().size()).isEqualTo(1);
-    assertThat(blockchain.getTotalDifficultyCache().get().getIfPresent(newBlock.getHash()))
-        .isEqualTo(newBlock.getHeader().getDifficulty());
+    final CanonicalBlockRing ring = blockchain.getCanonicalBlockRing().get();
+    assertBlockIsHead(blockchain, fork);
+    assertThat(ring.get(1L).map(CanonicalBlockRing.Entry::getHash))
+        .contains(chain.get(1).getHash());
+    assertThat(ring.get(2L).map(CanonicalBlockRing.Entry::getHash)).contains(fork.getHash());
+    assertThat(ring.get(3L)).isEmpty();
+    for (int i = 2; i < chain.size(); i++) {
+      assertThat(ring.get(chain.get(i).getHash())).isEmpty();
+      assertThat(blockchain.getRecentLogsWithMetadata(chain.get(i).getHash())).isEmpty();
+      for (final Transaction tx : chain.get(i).getBody().getTransactions()) {
+        assertThat(ring.getTransactionLocation(tx.getHash())).isEmpty();
+        assertThat(blockchain.getTransactionLocation(tx.getHash())).isEmpty();
+      }
+    }
+    assertThat(blockchain.getBlockHashByNumber(3L)).isEmpty();
+    assertBlockDataIsStored(blockchain, fork, forkReceipts);
+
+    // rewinding drops the blocks above the new chain head
+    blockchain.rewindToBlock(1L);
+    assertThat(ring.get(fork.getHash())).isEmpty();
+    assertThat(ring.get(1L).map(CanonicalBlockRing.Entry::getHash))
+        .contains(chain.get(1).getHash());
+    assertThat(ring.size()).isEqualTo(1);
   }
 
   /*
@@ -0,0 +1,237 @@
+/*
+ * Copyright contributors to Hyperledger Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.chain;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+
+import org.hyperledger.besu.datatypes.Address;
+import org.hyperledger.besu.ethereum.core.Block;
+import org.hyperledger.besu.ethereum.core.BlockDataGenerator;
+import org.hyperledger.besu.ethereum.core.TransactionReceipt;
+import org.hyperledger.besu.ethereum.mainnet.MainnetBlockHeaderFunctions;
+import org.hyperledger.besu.ethereum.storage.keyvalue.KeyValueStoragePrefixedKeyBlockchainStorage;
+import org.hyperledger.besu.ethereum.storage.keyvalue.VariablesKeyValueStorage;
+import org.hyperledger.besu.evm.log.Log;
+import org.hyperledger.besu.evm.log.LogTopic;
+import org.hyperledger.besu.metrics.noop.NoOpMetricsSystem;
+import org.hyperledger.besu.services.kvstore.InMemoryKeyValueStorage;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Predicate;
+
+import com.google.common.util.concurrent.MoreExecutors;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class LogIndexTest {
+  private static final Address ADDRESS =
+      Address.fromHexString("0xdac17f958d2ee523a2206206994597c13d831ec7");
+  private static final LogTopic TOPIC = LogTopic.fromHexString("0x" + "ab".repeat(32));
+
+  private final BlockDataGenerator gen = new BlockDataGenerator();
+  private final InMemoryKeyValueStorage indexKeyValueStorage = new InMemoryKeyValueStorage();
+  private final TreeMap<Long, List<Log>> logsByBlockNumber = new TreeMap<>();
+  private MutableBlockchain blockchain;
+  private Block chainHead;
+
+  @BeforeEach
+  public void setUp() {
+    final Block genesisBlock = gen.genesisBlock();
+    blockchain =
+        DefaultBlockchain.createMutable(
+            genesisBlock,
+            new KeyValueStoragePrefixedKeyBlockchainStorage(
+                new InMemoryKeyValueStorage(),
+                new VariablesKeyValueStorage(new InMemoryKeyValueStorage()),
+                new MainnetBlockHeaderFunctions(),
+                false),
+            new NoOpMetricsSystem(),
+            0);
+    logsByBlockNumber.put(0L, Collections.emptyList());
+    chainHead = genesisBlock;
+    appendBlocks(30);
+  }
+
+  @Test
+  public void indexesExistingBlocksInBackground() {
+    final LogIndex logIndex = createLogIndex();
+    assertThat(logIndex.matchingBlockNumbers(0, 30, List.of(ADDRESS), List.of())).isEmpty();
+
+    logIndex.start();
+
+    assertThat(logIndex.getLowMark()).isZero();
+    assertThat(logIndex.getHighMark()).isEqualTo(30);
+    assertMatchingBlocks(logIndex, 0, 30);
+    assertMatchingBlocks(logIndex, 7, 19);
+  }
+
+  @Test
+  public void indexesAddedBlocks() {
+    final LogIndex logIndex = createLogIndex();
+    logIndex.start();
+    blockchain.observeBlockAdded(logIndex);
+
+    appendBlocks(10);
+
+    assertThat(logIndex.getHighMark()).isEqualTo(40);
+    assertMatchingBlocks(logIndex, 0, 40);
+    assertMatchingBlocks(logIndex, 31, 40);
+  }
+
+  @Test
+  public void resumesFromStoredMarks() {
+    createLogIndex().start();
+
+    appendBlocks(5);
+    final LogIndex logIndex = createLogIndex();
+    assertThat(logIndex.matchingBlockNumbers(0, 35, List.of(ADDRESS), List.of())).isEmpty();
+    logIndex.start();
+
+    assertThat(logIndex.getHighMark()).isEqualTo(35);
+    assertMatchingBlocks(logIndex, 0, 35);
+  }
+
+  @Test
+  public void doesNotAnswerWithoutAddressOrTopic() {
+    final LogIndex logIndex = createLogIndex();
+    logIndex.start();
+
+    assertThat(logIndex.matchingBlockNumbers(0, 30, List.of(), List.of())).isEmpty();
+    final List<LogTopic> anyTopic = new ArrayList<>();
+    anyTopic.add(null);
+    assertThat(logIndex.matchingBlockNumbers(0, 30, List.of(), List.of(anyTopic))).isEmpty();
+  }
+
+  @Test
+  public void reorgDuringABatchDiscardsTheBatch() {
+    blockchain = spy(blockchain);
+    final List<Runnable> tasks = new ArrayList<>();
+    final ExecutorService executor = mock(ExecutorService.class);
+    doAnswer(invocation -> tasks.add(invocation.getArgument(0))).when(executor).execute(any());
+    final LogIndex logIndex =
+        new LogIndex(blockchain, new LogIndexStorage(indexKeyValueStorage), executor);
+    logIndex.start();
+    while (!tasks.isEmpty()) {
+      tasks.remove(0).run();
+    }
+    blockchain.observeBlockAdded(logIndex);
+
+    // a reorg back to block 29 happens while block 31 is being indexed
+    final AtomicBoolean reorged = new AtomicBoolean();
+    doAnswer(
+            invocation -> {
+              if (reorged.compareAndSet(false, true)) {
+                logIndex.onBlockAdded(
+                    BlockAddedEvent.createForChainReorg(
+                        blockchain.getBlockByNumber(30).orElseThrow(),
+                        List.of(),
+                        List.of(),
+                        List.of(),
+                        List.of(),
+                        blockchain.getBlockHashByNumber(29).orElseThrow()));
+              }
+              return invocation.callRealMethod();
+            })
+        .when(blockchain)
+        .getBlockHashByNumber(31L);
+    appendBlocks(1);
+    tasks.remove(0).run();
+
+    assertThat(logIndex.getHighMark()).isEqualTo(29);
+    assertThat(new LogIndexStorage(indexKeyValueStorage).getHighMark()).contains(29L);
+
+    while (!tasks.isEmpty()) {
+      tasks.remove(0).run();
+    }
+    assertThat(logIndex.getHighMark()).isEqualTo(30);
+    assertMatchingBlocks(logIndex, 0, 30);
+  }
+
+  private LogIndex createLogIndex() {
+    return new LogIndex(
+        blockchain,
+        new LogIndexStorage(indexKeyValueStorage),
+        MoreExecutors.newDirectExecutorService());
+  }
+
+  private void assertMatchingBlocks(final LogIndex logIndex, final long from, final long to) {
+    assertThat(logIndex.matchingBlockNumbers(from, to, List.of(ADDRESS), List.of()))
+        .contains(expectedBlocks(from, to, LogIndexTest::anyHasAddress));
+    assertThat(logIndex.matchingBlockNumbers(from, to, List.of(), List.of(List.of(TOPIC))))
+        .contains(expectedBlocks(from, to, logs -> anyHasTopic(logs, 0)));
+    assertThat(
+            logIndex.matchingBlockNumbers(
+                from, to, List.of(), List.of(List.of(), List.of(TOPIC))))
+        .contains(expectedBlocks(from, to, logs -> anyHasTopic(logs, 1)));
+    assertThat(
+            logIndex.matchingBlockNumbers(from, to, List.of(ADDRESS), List.of(List.of(TOPIC))))
+        .contains(expectedBlocks(from, to, logs -> anyHasAddress(logs) && anyHasTopic(logs, 0)));
+  }
+
+  private List<Long> expectedBlocks(
+      final long from, final long to, final Predicate<List<Log>> blockPredicate) {
+    final List<Long> blockNumbers = new ArrayList<>();
+    logsByBlockNumber
+        .subMap(from, true, to, true)
+        .forEach(
+            (number, logs) -> {
+              if (blockPredicate.test(logs)) {
+                blockNumbers.add(number);
+              }
+            });
+    return blockNumbers;
+  }
+
+  private static boolean anyHasAddress(final List<Log> logs) {
+    return logs.stream().anyMatch(log -> log.getLogger().equals(ADDRESS));
+  }
+
+  private static boolean anyHasTopic(final List<Log> logs, final int position) {
+    return logs.stream()
+        .anyMatch(
+            log ->
+                log.getTopics().size() > position && log.getTopics().get(position).equals(TOPIC));
+  }
+
+  private void appendBlocks(final int count) {
+    for (final Block block : gen.blockSequence(chainHead, count)) {
+      final long number = block.getHeader().getNumber();
+      final List<Log> blockLogs = new ArrayList<>();
+      final List<TransactionReceipt> receipts = new ArrayList<>();
+      for (int i = 0; i < block.getBody().getTransactions().size(); i++) {
+        final Address address = (number + i) % 3 == 0 ? ADDRESS : gen.address();
+        final List<LogTopic> topics =
+            (number + i) % 4 == 0
+                ? List.of(TOPIC, LogTopic.wrap(gen.bytes32()))
+                : (number + i) % 5 == 0 ? List.of(LogTopic.wrap(gen.bytes32()), TOPIC) : List.of();
+        final List<Log> logs = List.of(new Log(address, gen.bytesValue(4), topics));
+        blockLogs.addAll(logs);
+        receipts.add(gen.receipt(logs));
+      }
+      blockchain.appendBlock(block, receipts);
+      logsByBlockNumber.put(number, blockLogs);
+      chainHead = block;
+    }
+  }
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright contributors to Hyperledger Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.hyperledger.besu.datatypes.Address;
+import org.hyperledger.besu.datatypes.GWei;
+import org.hyperledger.besu.ethereum.core.encoding.EncodingContext;
+import org.hyperledger.besu.ethereum.core.encoding.TransactionEncoder;
+import org.hyperledger.besu.ethereum.mainnet.MainnetBlockHeaderFunctions;
+import org.hyperledger.besu.ethereum.rlp.RLP;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.units.bigints.UInt64;
+import org.junit.jupiter.api.Test;
+
+public class LazyBlockBodyTest {
+
+  private final BlockDataGenerator gen = new BlockDataGenerator();
+
+  @Test
+  public void readsTransactionsWithoutDecodingTheBody() {
+    final BlockBody body =
+        gen.body(
+            BlockDataGenerator.BlockOptions.create()
+                .addTransaction(new ArrayList<>(gen.transactionsWithAllTypes())));
+    final Bytes rlp = RLP.encode(body::writeWrappedBodyTo);
+    final LazyBlockBody lazyBody = LazyBlockBody.wrap(rlp);
+
+    assertThat(lazyBody.getRlp()).isEqualTo(rlp);
+    assertThat(lazyBody.getTransactionCount()).isEqualTo(body.getTransactions().size());
+    for (int i = 0; i < body.getTransactions().size(); i++) {
+      final Transaction transaction = body.getTransactions().get(i);
+      assertThat(lazyBody.getTransactionHash(i)).isEqualTo(transaction.getHash());
+      assertThat(lazyBody.getEncodedTransaction(i)).isEqualTo(RLP.encode(transaction::writeTo));
+      assertThat(lazyBody.getOpaqueTransaction(i))
+          .isEqualTo(TransactionEncoder.encodeOpaqueBytes(transaction, EncodingContext.BLOCK_BODY));
+      assertThat(lazyBody.getTransaction(i)).isEqualTo(transaction);
+    }
+    assertThat(lazyBody.decode(new MainnetBlockHeaderFunctions())).isEqualTo(body);
+  }
+
+  @Test
+  public void readsWithdrawals() {
+    final List<Withdrawal> withdrawals =
+        List.of(
+            new Withdrawal(
+                UInt64.ONE, UInt64.valueOf(2), Address.fromHexString("0x01"), GWei.of(3)));
+    final BlockBody body =
+        gen.body(BlockDataGenerator.BlockOptions.create().setWithdrawals(Optional.of(withdrawals)));
+
+    assertThat(LazyBlockBody.wrap(RLP.encode(body::writeWrappedBodyTo)).getWithdrawals())
+        .contains(withdrawals);
+    assertThat(LazyBlockBody.of(body).getWithdrawals()).contains(withdrawals);
+  }
+
+  @Test
+  public void preWithdrawalsBodyHasNoWithdrawals() {
+    final BlockBody body = gen.body(BlockDataGenerator.BlockOptions.create());
+
+    assertThat(LazyBlockBody.wrap(RLP.encode(body::writeWrappedBodyTo)).getWithdrawals())
+        .isEmpty();
+  }
+
+  @Test
+  public void ofEncodesTheTransactionsOnDemand() {
+    final BlockBody body =
+        gen.body(
+            BlockDataGenerator.BlockOptions.create()
+                .addTransaction(new ArrayList<>(gen.transactionsWithAllTypes())));
+    final LazyBlockBody lazyBody = LazyBlockBody.of(body);
+
+    for (int i = 0; i < body.getTransactions().size(); i++) {
+      final Transaction transaction = body.getTransactions().get(i);
+      assertThat(lazyBody.getTransaction(i)).isSameAs(transaction);
+      assertThat(lazyBody.getEncodedTransaction(i)).isEqualTo(RLP.encode(transaction::writeTo));
+      assertThat(lazyBody.getOpaqueTransaction(i))
+          .isEqualTo(TransactionEncoder.encodeOpaqueBytes(transaction, EncodingContext.BLOCK_BODY));
+    }
+    assertThat(lazyBody.getRlp()).isEqualTo(RLP.encode(body::writeWrappedBodyTo));
+    assertThat(lazyBody.getEncodedTransaction(0))
+        .isEqualTo(RLP.encode(body.getTransactions().get(0)::writeTo));
+  }
+
+  @Test
+  public void ofEncodesTheBody() {
+    final BlockBody body = gen.body();
+    final LazyBlockBody lazyBody = LazyBlockBody.of(body);
+
+    assertThat(lazyBody.getRlp()).isEqualTo(RLP.encode(body::writeWrappedBodyTo));
+    assertThat(lazyBody.decode(new MainnetBlockHeaderFunctions())).isSameAs(body);
+  }
+
+  @Test
+  public void rejectsOutOfBoundsIndex() {
+    final LazyBlockBody lazyBody = LazyBlockBody.of(BlockBody.empty());
+
+    assertThat(lazyBody.getTransactionCount()).isZero();
+    assertThatThrownBy(() -> lazyBody.getEncodedTransaction(0))
+        .isInstanceOf(IndexOutOfBoundsException.class);
+  }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright contributors to Hyperledger Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.hyperledger.besu.ethereum.rlp.RLP;
+
+import java.util.List;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.junit.jupiter.api.Test;
+
+public class LazyTransactionReceiptsTest {
+
+  private final BlockDataGenerator gen = new BlockDataGenerator();
+
+  @Test
+  public void readsReceiptsFromStorageEncoding() {
+    assertReceiptsRead(false);
+  }
+
+  @Test
+  public void readsReceiptsFromCompactedStorageEncoding() {
+    assertReceiptsRead(true);
+  }
+
+  @Test
+  public void ofKeepsDecodedReceipts() {
+    final List<TransactionReceipt> receipts = gen.receipts(gen.block());
+    final LazyTransactionReceipts lazyReceipts = LazyTransactionReceipts.of(receipts);
+
+    assertThat(lazyReceipts.size()).isEqualTo(receipts.size());
+    for (int i = 0; i < receipts.size(); i++) {
+      assertThat(lazyReceipts.get(i)).isSameAs(receipts.get(i));
+    }
+  }
+
+  @Test
+  public void ofEncodesTheReceiptsOnDemand() {
+    final List<TransactionReceipt> receipts = gen.receipts(gen.block());
+    final LazyTransactionReceipts lazyReceipts = LazyTransactionReceipts.of(receipts);
+    final LazyTransactionReceipts wrappedReceipts =
+        LazyTransactionReceipts.wrap(
+            RLP.encode(
+                out ->
+                    out.writeList(
+                        receipts,
+                        (receipt, receiptOutput) ->
+                            receipt.writeToForStorage(receiptOutput, false))));
+
+    assertThat(lazyReceipts.getRlp()).isEqualTo(wrappedReceipts.getRlp());
+    for (int i = 0; i < receipts.size(); i++) {
+      assertThat(lazyReceipts.getEncodedReceipt(i)).isEqualTo(wrappedReceipts.getEncodedReceipt(i));
+    }
+  }
+
+  private void assertReceiptsRead(final boolean compacted) {
+    final List<TransactionReceipt> receipts =
+        List.of(
+            gen.receipt(),
+            gen.receipt(Bytes.fromHexString("0x1122334455667788")),
+            gen.receipt(List.of()));
+    final Bytes rlp =
+        RLP.encode(
+            out ->
+                out.writeList(
+                    receipts, (receipt, output) -> receipt.writeToForStorage(output, compacted)));
+    final LazyTransactionReceipts lazyReceipts = LazyTransactionReceipts.wrap(rlp);
+
+    assertThat(lazyReceipts.getRlp()).isEqualTo(rlp);
+    assertThat(lazyReceipts.size()).isEqualTo(receipts.size());
+    for (int i = 0; i < receipts.size(); i++) {
+      final TransactionReceipt receipt = receipts.get(i);
+      assertThat(lazyReceipts.getCumulativeGasUsed(i)).isEqualTo(receipt.getCumulativeGasUsed());
+      assertThat(lazyReceipts.getLogCount(i)).isEqualTo(receipt.getLogsList().size());
+    }
+    assertThat(lazyReceipts.decodeAll()).isEqualTo(receipts);
+  }
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright contributors to Hyperledger Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.core.encoding;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.hyperledger.besu.datatypes.Hash;
+import org.hyperledger.besu.datatypes.TransactionType;
+import org.hyperledger.besu.ethereum.core.BlockDataGenerator;
+import org.hyperledger.besu.ethereum.core.LazyTransactionReceipts;
+import org.hyperledger.besu.ethereum.core.TransactionReceipt;
+import org.hyperledger.besu.ethereum.rlp.RLP;
+import org.hyperledger.besu.evm.log.Log;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.junit.jupiter.api.Test;
+
+class BlockReceiptsCompactDecoderTest {
+  private final BlockDataGenerator gen = new BlockDataGenerator();
+
+  @Test
+  void shouldRoundTripReceipts() {
+    final Log sharedLog = gen.log(2);
+    final List<TransactionReceipt> receipts =
+        List.of(
+            new TransactionReceipt(Hash.EMPTY_TRIE_HASH, 21_000, List.of(), Optional.empty()),
+            new TransactionReceipt(
+                TransactionType.FRONTIER, 1, 50_000, List.of(sharedLog), Optional.empty()),
+            new TransactionReceipt(
+                TransactionType.EIP1559,
+                0,
+                90_000,
+                List.of(sharedLog, gen.log(3)),
+                Optional.of(Bytes.fromHexString("0xdeadbeef"))),
+            new TransactionReceipt(
+                TransactionType.BLOB, 1, 120_000, List.of(gen.log(0)), Optional.empty()));
+
+    final Bytes compact = BlockReceiptsCompactEncoder.encode(receipts);
+
+    assertThat(BlockReceiptsCompactDecoder.isCompact(compact)).isTrue();
+    final List<TransactionReceipt> decoded = BlockReceiptsCompactDecoder.decode(compact);
+    assertThat(decoded).isEqualTo(receipts);
+    assertThat(decoded)
+        .extracting(TransactionReceipt::getBloomFilter)
+        .isEqualTo(receipts.stream().map(TransactionReceipt::getBloomFilter).toList());
+  }
+
+  @Test
+  void shouldReadGasAndLogCountsWithoutDecodingReceipts() {
+    final Log sharedLog = gen.log(2);
+    final List<TransactionReceipt> receipts =
+        List.of(
+            receipt(30_000, List.of(sharedLog, gen.log(1))),
+            new TransactionReceipt(Hash.EMPTY_TRIE_HASH, 50_000, List.of(), Optional.empty()),
+            receipt(90_000, List.of(sharedLog)));
+
+    final LazyTransactionReceipts lazyReceipts =
+        BlockReceiptsCompactDecoder.decodeLazily(BlockReceiptsCompactEncoder.encode(receipts));
+
+    assertThat(lazyReceipts.size()).isEqualTo(receipts.size());
+    for (int i = 0; i < receipts.size(); i++) {
+      assertThat(lazyReceipts.getCumulativeGasUsed(i))
+          .isEqualTo(receipts.get(i).getCumulativeGasUsed());
+      assertThat(lazyReceipts.getLogCount(i)).isEqualTo(receipts.get(i).getLogsList().size());
+    }
+    assertThat(lazyReceipts.get(2)).isEqualTo(receipts.get(2));
+    assertThat(lazyReceipts.decodeAll()).isEqualTo(receipts);
+    assertThat(lazyReceipts.getRlp())
+        .isEqualTo(
+            RLP.encode(
+                out ->
+                    out.writeList(
+                        receipts,
+                        (receipt, receiptOut) -> receipt.writeToForStorage(receiptOut, false))));
+  }
+
+  @Test
+  void shouldRoundTripEmptyReceipts() {
+    final Bytes compact = BlockReceiptsCompactEncoder.encode(List.of());
+
+    assertThat(BlockReceiptsCompactDecoder.decode(compact)).isEmpty();
+  }
+
+  @Test
+  void shouldBeSmallerThanStorageEncoding() {
+    final Log sharedLog = gen.log(3);
+    final List<TransactionReceipt> receipts =
+        List.of(
+            receipt(30_000, List.of(sharedLog, sharedLog)),
+            receipt(60_000, List.of(sharedLog)),
+            receipt(90_000, List.of(sharedLog, gen.log(1))));
+    final Bytes storage =
+        RLP.encode(
+            out ->
+                out.writeList(
+                    receipts,
+                    (receipt, receiptOut) -> receipt.writeToForStorage(receiptOut, true)));
+
+    assertThat(BlockReceiptsCompactEncoder.encode(receipts).size()).isLessThan(storage.size());
+  }
+
+  @Test
+  void shouldNotDetectStorageEncodingAsCompact() {
+    final Bytes storage =
+        RLP.encode(
+            out ->
+                out.writeList(
+                    List.of(gen.receipt()),
+                    (receipt, receiptOut) -> receipt.writeToForStorage(receiptOut, false)));
+
+    assertThat(BlockReceiptsCompactDecoder.isCompact(storage)).isFalse();
+  }
+
+  private static TransactionReceipt receipt(final long cumulativeGasUsed, final List<Log> logs) {
+    return new TransactionReceipt(
+        TransactionType.EIP1559, 1, cumulativeGasUsed, logs, Optional.empty());
+  }
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright contributors to Hyperledger Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.storage.freezer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class FreezerTableTest {
+
+  @TempDir private Path directory;
+
+  @Test
+  public void itemsAreReadBackAcrossDataFiles() throws IOException {
+    try (final FreezerTable table = FreezerTable.open(directory, "test", 10)) {
+      for (int i = 0; i < 10; i++) {
+        table.append(i, item(i));
+      }
+
+      assertThat(table.getItemCount()).isEqualTo(10);
+      for (int i = 0; i < 10; i++) {
+        assertThat(table.get(i)).contains(item(i));
+      }
+      assertThat(table.get(10)).isEmpty();
+      assertThat(table.get(-1)).isEmpty();
+      assertThat(Files.exists(directory.resolve("test.0001.dat"))).isTrue();
+    }
+  }
+
+  @Test
+  public void itemsAreReadableBeforeAndAfterReopening() throws IOException {
+    try (final FreezerTable table = FreezerTable.open(directory, "test", 1024)) {
+      table.append(0, item(0));
+      assertThat(table.get(0)).contains(item(0));
+      table.append(1, Bytes.EMPTY);
+      table.append(2, item(2));
+      table.sync();
+    }
+
+    try (final FreezerTable table = FreezerTable.open(directory, "test", 1024)) {
+      assertThat(table.getItemCount()).isEqualTo(3);
+      assertThat(table.get(1)).contains(Bytes.EMPTY);
+      assertThat(table.get(2)).contains(item(2));
+      table.append(3, item(3));
+      assertThat(table.get(3)).contains(item(3));
+    }
+  }
+
+  @Test
+  public void itemsNotFullyWrittenAreDroppedOnOpen() throws IOException {
+    try (final FreezerTable table = FreezerTable.open(directory, "test", 1024)) {
+      table.append(0, item(0));
+      table.append(1, item(1));
+    }
+    try (final FileChannel data =
+        FileChannel.open(directory.resolve("test.0000.dat"), StandardOpenOption.WRITE)) {
+      data.truncate(item(0).size() + 1);
+    }
+
+    try (final FreezerTable table = FreezerTable.open(directory, "test", 1024)) {
+      assertThat(table.getItemCount()).isEqualTo(1);
+      assertThat(table.get(0)).contains(item(0));
+      table.append(1, item(5));
+      assertThat(table.get(1)).contains(item(5));
+    }
+  }
+
+  @Test
+  public void truncateDropsItemsAndDataFiles() throws IOException {
+    try (final FreezerTable table = FreezerTable.open(directory, "test", 10)) {
+      for (int i = 0; i < 6; i++) {
+        table.append(i, item(i));
+      }
+
+      table.truncate(2);
+
+      assertThat(table.getItemCount()).isEqualTo(2);
+      assertThat(table.get(1)).contains(item(1));
+      assertThat(table.get(2)).isEmpty();
+      assertThat(Files.exists(directory.resolve("test.0002.dat"))).isFalse();
+      table.append(2, item(7));
+      assertThat(table.get(2)).contains(item(7));
+    }
+  }
+
+  @Test
+  public void itemsMustBeAppendedInOrder() throws IOException {
+    try (final FreezerTable table = FreezerTable.open(directory, "test", 10)) {
+      assertThatThrownBy(() -> table.append(1, item(1)))
+          .isInstanceOf(IllegalArgumentException.class);
+    }
+  }
+
+  private static Bytes item(final int i) {
+    return Bytes.repeat((byte) i, 4 + i % 3);
+  }
+}
@@ -0,0 +1,183 @@
+/*
+ * Copyright contributors to Hyperledger Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.storage.keyvalue;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hyperledger.besu.ethereum.storage.keyvalue.KeyValueStoragePrefixedKeyBlockchainStorage.FROZEN_BLOCKS_WATERMARK_PREFIX;
+
+import org.hyperledger.besu.ethereum.chain.DefaultBlockchain;
+import org.hyperledger.besu.ethereum.chain.MutableBlockchain;
+import org.hyperledger.besu.ethereum.core.Block;
+import org.hyperledger.besu.ethereum.core.BlockDataGenerator;
+import org.hyperledger.besu.ethereum.core.TransactionReceipt;
+import org.hyperledger.besu.ethereum.mainnet.MainnetBlockHeaderFunctions;
+import org.hyperledger.besu.ethereum.storage.freezer.BlockFreezerStorage;
+import org.hyperledger.besu.metrics.noop.NoOpMetricsSystem;
+import org.hyperledger.besu.plugin.services.storage.KeyValueStorage;
+import org.hyperledger.besu.plugin.services.storage.KeyValueStorageTransaction;
+import org.hyperledger.besu.services.kvstore.InMemoryKeyValueStorage;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class FreezerBlockchainStorageTest {
+  private final BlockDataGenerator gen = new BlockDataGenerator();
+  private final KeyValueStorage kvBlockchain = new InMemoryKeyValueStorage();
+  private final VariablesKeyValueStorage variablesStorage =
+      new VariablesKeyValueStorage(new InMemoryKeyValueStorage());
+  private final List<Block> blocks = new ArrayList<>();
+  private final List<List<TransactionReceipt>> receipts = new ArrayList<>();
+
+  @TempDir private Path freezerDirectory;
+
+  @BeforeEach
+  public void setup() throws IOException {
+    final Block genesis = gen.genesisBlock();
+    blocks.add(genesis);
+    receipts.add(List.of());
+    try (final BlockFreezerStorage freezer = openFreezer()) {
+      final MutableBlockchain blockchain =
+          DefaultBlockchain.createMutable(
+              genesis,
+              new FreezerBlockchainStorage(kvStorage(), freezer),
+              new NoOpMetricsSystem(),
+              0);
+      gen.blockSequence(genesis, 20)
+          .forEach(
+              block -> {
+                final List<TransactionReceipt> blockReceipts = gen.receipts(block);
+                blockchain.appendBlock(block, blockReceipts);
+                blocks.add(block);
+                receipts.add(blockReceipts);
+              });
+    }
+  }
+
+  @Test
+  public void frozenBlocksAreReadFromTheFreezer() throws IOException {
+    try (final BlockFreezerStorage freezer = openFreezer()) {
+      final FreezerBlockchainStorage storage = new FreezerBlockchainStorage(kvStorage(), freezer);
+
+      assertThat(storage.freezeBlocks(10)).isEqualTo(10);
+
+      assertThat(storage.getFrozenBlockCount()).isEqualTo(10);
+      assertBlocksReadable(storage);
+      // the data of the frozen blocks is no longer in the key value storage
+      final KeyValueStoragePrefixedKeyBlockchainStorage kvOnly = kvStorage();
+      assertThat(kvOnly.getBlockHeader(blocks.get(9).getHash())).isEmpty();
+      assertThat(kvOnly.getBlockBody(blocks.get(9).getHash())).isEmpty();
+      assertThat(kvOnly.getBlockHeader(blocks.get(10).getHash())).isPresent();
+      assertThat(kvOnly.getBlockHash(9)).contains(blocks.get(9).getHash());
+    }
+
+    try (final BlockFreezerStorage freezer = openFreezer()) {
+      final FreezerBlockchainStorage storage = new FreezerBlockchainStorage(kvStorage(), freezer);
+
+      assertThat(storage.getFrozenBlockCount()).isEqualTo(10);
+      assertBlocksReadable(storage);
+      assertThat(storage.freezeBlocks(10)).isZero();
+      assertThat(storage.freezeBlocks(15)).isEqualTo(5);
+      assertBlocksReadable(storage);
+    }
+  }
+
+  @Test
+  public void freezingStopsAtTheFirstBlockWithMissingData() throws IOException {
+    final KeyValueStoragePrefixedKeyBlockchainStorage.Updater updater = kvStorage().updater();
+    updater.removeTransactionReceipts(blocks.get(5).getHash());
+    updater.commit();
+
+    try (final BlockFreezerStorage freezer = openFreezer()) {
+      final FreezerBlockchainStorage storage = new FreezerBlockchainStorage(kvStorage(), freezer);
+
+      assertThat(storage.freezeBlocks(10)).isEqualTo(5);
+      assertThat(storage.getBlockHeader(blocks.get(4).getHash()))
+          .contains(blocks.get(4).getHeader());
+      assertThat(storage.getBlockHeader(blocks.get(5).getHash()))
+          .contains(blocks.get(5).getHeader());
+    }
+  }
+
+  @Test
+  public void interruptedRemovalCompletesAfterTheChainWasRewound() throws IOException {
+    try (final BlockFreezerStorage freezer = openFreezer()) {
+      assertThat(new FreezerBlockchainStorage(kvStorage(), freezer).freezeBlocks(10)).isEqualTo(10);
+    }
+    // as if the blocks were frozen but not yet removed, and the chain then rewound below them
+    final KeyValueStorageTransaction transaction = kvBlockchain.startTransaction();
+    transaction.remove(FROZEN_BLOCKS_WATERMARK_PREFIX.toArrayUnsafe());
+    transaction.commit();
+    final KeyValueStoragePrefixedKeyBlockchainStorage.Updater updater = kvStorage().updater();
+    for (int i = 5; i < blocks.size(); i++) {
+      updater.removeBlockHash(i);
+    }
+    updater.commit();
+
+    try (final BlockFreezerStorage freezer = openFreezer()) {
+      final FreezerBlockchainStorage storage = new FreezerBlockchainStorage(kvStorage(), freezer);
+
+      assertThat(storage.getFrozenBlockCount()).isEqualTo(10);
+      assertThat(storage.getBlockHeader(blocks.get(7).getHash()))
+          .contains(blocks.get(7).getHeader());
+    }
+  }
+
+  @Test
+  public void openingTheStorageRecordsThatChainDataIsFrozen() throws IOException {
+    final VariablesKeyValueStorage otherVariables =
+        new VariablesKeyValueStorage(new InMemoryKeyValueStorage());
+    assertThat(otherVariables.isChainDataFrozen()).isFalse();
+
+    try (final BlockFreezerStorage freezer = openFreezer()) {
+      new FreezerBlockchainStorage(
+          new KeyValueStoragePrefixedKeyBlockchainStorage(
+              kvBlockchain, otherVariables, new MainnetBlockHeaderFunctions(), false),
+          freezer);
+    }
+
+    assertThat(otherVariables.isChainDataFrozen()).isTrue();
+    assertThat(variablesStorage.isChainDataFrozen()).isTrue();
+  }
+
+  private void assertBlocksReadable(final FreezerBlockchainStorage storage) {
+    for (int i = 0; i < blocks.size(); i++) {
+      final Block block = blocks.get(i);
+      assertThat(storage.getBlockHeader(block.getHash())).contains(block.getHeader());
+      assertThat(storage.getBlockBody(block.getHash())).contains(block.getBody());
+      assertThat(storage.getTransactionReceipts(block.getHash())).contains(receipts.get(i));
+      assertThat(storage.getLazyBlockBody(block.getHash()))
+          .hasValueSatisfying(
+              body ->
+                  assertThat(body.getTransactionCount())
+                      .isEqualTo(block.getBody().getTransactions().size()));
+      assertThat(storage.getTotalDifficulty(block.getHash())).isPresent();
+    }
+  }
+
+  private KeyValueStoragePrefixedKeyBlockchainStorage kvStorage() {
+    return new KeyValueStoragePrefixedKeyBlockchainStorage(
+        kvBlockchain, variablesStorage, new MainnetBlockHeaderFunctions(), false);
+  }
+
+  private BlockFreezerStorage openFreezer() {
+    return BlockFreezerStorage.open(freezerDirectory, 4096);
+  }
+}
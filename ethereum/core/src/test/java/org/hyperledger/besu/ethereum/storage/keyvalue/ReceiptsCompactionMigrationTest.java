@@ -0,0 +1,161 @@
+/*
+ * Copyright contributors to Hyperledger Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.storage.keyvalue;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hyperledger.besu.ethereum.storage.keyvalue.KeyValueStoragePrefixedKeyBlockchainStorage.TRANSACTION_RECEIPTS_PREFIX;
+import static org.mockito.Mockito.mock;
+
+import org.hyperledger.besu.datatypes.Hash;
+import org.hyperledger.besu.ethereum.chain.DefaultBlockchain;
+import org.hyperledger.besu.ethereum.chain.MutableBlockchain;
+import org.hyperledger.besu.ethereum.core.Block;
+import org.hyperledger.besu.ethereum.core.BlockDataGenerator;
+import org.hyperledger.besu.ethereum.core.TransactionReceipt;
+import org.hyperledger.besu.ethereum.core.encoding.BlockReceiptsCompactDecoder;
+import org.hyperledger.besu.ethereum.mainnet.MainnetBlockHeaderFunctions;
+import org.hyperledger.besu.metrics.noop.NoOpMetricsSystem;
+import org.hyperledger.besu.plugin.services.storage.KeyValueStorage;
+import org.hyperledger.besu.services.kvstore.InMemoryKeyValueStorage;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class ReceiptsCompactionMigrationTest {
+  private final BlockDataGenerator gen = new BlockDataGenerator();
+  private final KeyValueStorage kvBlockchain = new InMemoryKeyValueStorage();
+  private final VariablesKeyValueStorage variablesStorage =
+      new VariablesKeyValueStorage(new InMemoryKeyValueStorage());
+  private final List<Block> blocks = new ArrayList<>();
+  private final List<List<TransactionReceipt>> receipts = new ArrayList<>();
+
+  @BeforeEach
+  public void setup() {
+    final Block genesis = gen.genesisBlock();
+    blocks.add(genesis);
+    receipts.add(List.of());
+    final MutableBlockchain blockchain =
+        DefaultBlockchain.createMutable(genesis, storage(false), new NoOpMetricsSystem(), 0);
+    gen.blockSequence(genesis, ReceiptsCompactionMigration.BATCH_SIZE + 10)
+        .forEach(
+            block -> {
+              final List<TransactionReceipt> blockReceipts = gen.receipts(block);
+              blockchain.appendBlock(block, blockReceipts);
+              blocks.add(block);
+              receipts.add(blockReceipts);
+            });
+  }
+
+  @Test
+  public void migratesReceiptsByBatches() {
+    final KeyValueStoragePrefixedKeyBlockchainStorage storage = storage(true);
+    final ReceiptsCompactionMigration migration =
+        new ReceiptsCompactionMigration(storage, mock(ExecutorService.class));
+
+    assertThat(migration.migrateBatch(lastBlockNumber())).isTrue();
+    assertThat(migration.getNextBlockNumber()).isEqualTo(ReceiptsCompactionMigration.BATCH_SIZE);
+    assertThat(isStoredCompact(blocks.get(ReceiptsCompactionMigration.BATCH_SIZE - 1))).isTrue();
+    assertThat(isStoredCompact(blocks.get(ReceiptsCompactionMigration.BATCH_SIZE))).isFalse();
+
+    assertThat(migration.migrateBatch(lastBlockNumber())).isFalse();
+    assertThat(migration.getNextBlockNumber()).isEqualTo(blocks.size());
+    assertThat(migration.migrateBatch(lastBlockNumber())).isFalse();
+
+    for (int i = 0; i < blocks.size(); i++) {
+      final Hash hash = blocks.get(i).getHash();
+      final List<TransactionReceipt> blockReceipts = receipts.get(i);
+      assertThat(isStoredCompact(blocks.get(i))).isTrue();
+      assertThat(storage.getTransactionReceipts(hash)).contains(blockReceipts);
+      assertThat(storage.getLazyTransactionReceipts(hash))
+          .hasValueSatisfying(lazy -> assertThat(lazy.decodeAll()).isEqualTo(blockReceipts));
+    }
+  }
+
+  @Test
+  public void resumesFromStoredProgress() {
+    new ReceiptsCompactionMigration(storage(true), mock(ExecutorService.class))
+        .migrateBatch(lastBlockNumber());
+
+    final ReceiptsCompactionMigration migration =
+        new ReceiptsCompactionMigration(storage(true), mock(ExecutorService.class));
+
+    assertThat(migration.getNextBlockNumber()).isEqualTo(ReceiptsCompactionMigration.BATCH_SIZE);
+  }
+
+  @Test
+  public void skipsBlocksWithoutCanonicalHash() {
+    final KeyValueStoragePrefixedKeyBlockchainStorage storage = storage(true);
+    // the first blocks were removed by the chain pruner
+    final KeyValueStoragePrefixedKeyBlockchainStorage.Updater updater = storage.updater();
+    for (int i = 0; i < 10; i++) {
+      updater.removeBlockHash(i);
+      updater.removeTransactionReceipts(blocks.get(i).getHash());
+    }
+    updater.commit();
+    final ReceiptsCompactionMigration migration =
+        new ReceiptsCompactionMigration(storage, mock(ExecutorService.class));
+
+    while (migration.migrateBatch(lastBlockNumber())) {
+      // migrate all the blocks
+    }
+
+    assertThat(migration.getNextBlockNumber()).isEqualTo(blocks.size());
+    for (int i = 0; i < blocks.size(); i++) {
+      final Hash hash = blocks.get(i).getHash();
+      if (i < 10) {
+        // the receipts of the removed blocks are not written back
+        assertThat(storage.getTransactionReceipts(hash)).isEmpty();
+      } else {
+        assertThat(isStoredCompact(blocks.get(i))).isTrue();
+        assertThat(storage.getTransactionReceipts(hash)).contains(receipts.get(i));
+      }
+    }
+  }
+
+  @Test
+  public void stopsAtTheLastBlock() {
+    final ReceiptsCompactionMigration migration =
+        new ReceiptsCompactionMigration(storage(true), mock(ExecutorService.class));
+
+    assertThat(migration.migrateBatch(10)).isFalse();
+
+    assertThat(migration.getNextBlockNumber()).isEqualTo(11);
+    assertThat(isStoredCompact(blocks.get(10))).isTrue();
+    assertThat(isStoredCompact(blocks.get(11))).isFalse();
+  }
+
+  private long lastBlockNumber() {
+    return blocks.size() - 1;
+  }
+
+  private boolean isStoredCompact(final Block block) {
+    final Hash hash = block.getHash();
+    return kvBlockchain
+        .get(Bytes.concatenate(TRANSACTION_RECEIPTS_PREFIX, hash).toArrayUnsafe())
+        .map(Bytes::wrap)
+        .map(BlockReceiptsCompactDecoder::isCompact)
+        .orElse(false);
+  }
+
+  private KeyValueStoragePrefixedKeyBlockchainStorage storage(final boolean compact) {
+    return new KeyValueStoragePrefixedKeyBlockchainStorage(
+        kvBlockchain, variablesStorage, new MainnetBlockHeaderFunctions(), false, compact);
+  }
+}
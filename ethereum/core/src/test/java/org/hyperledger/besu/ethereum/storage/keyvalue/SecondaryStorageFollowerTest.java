@@ -0,0 +1,96 @@
+/*
+ * Copyright contributors to Hyperledger Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.storage.keyvalue;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.hyperledger.besu.ethereum.chain.DefaultBlockchain;
+import org.hyperledger.besu.ethereum.core.BlockDataGenerator;
+import org.hyperledger.besu.ethereum.core.BlockHeader;
+import org.hyperledger.besu.ethereum.trie.diffbased.bonsai.BonsaiWorldStateProvider;
+import org.hyperledger.besu.ethereum.trie.diffbased.bonsai.storage.BonsaiWorldStateKeyValueStorage;
+import org.hyperledger.besu.ethereum.trie.diffbased.bonsai.worldview.BonsaiWorldState;
+import org.hyperledger.besu.ethereum.trie.diffbased.common.worldview.accumulator.DiffBasedWorldStateUpdateAccumulator;
+import org.hyperledger.besu.plugin.services.exception.StorageException;
+import org.hyperledger.besu.plugin.services.storage.SecondaryKeyValueStorage;
+
+import java.util.Optional;
+import java.util.concurrent.ScheduledExecutorService;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class SecondaryStorageFollowerTest {
+  private final SecondaryKeyValueStorage storage = mock(SecondaryKeyValueStorage.class);
+  private final DefaultBlockchain blockchain = mock(DefaultBlockchain.class);
+  private final BonsaiWorldStateProvider worldStateArchive = mock(BonsaiWorldStateProvider.class);
+  private final BonsaiWorldState persistedState = mock(BonsaiWorldState.class);
+  private final DiffBasedWorldStateUpdateAccumulator<?> accumulator =
+      mock(DiffBasedWorldStateUpdateAccumulator.class);
+  private final BlockHeader worldStateHeader = new BlockDataGenerator().header(10);
+
+  private SecondaryStorageFollower follower;
+
+  @BeforeEach
+  public void setUp() {
+    final BonsaiWorldStateKeyValueStorage worldStateStorage =
+        mock(BonsaiWorldStateKeyValueStorage.class);
+    when(worldStateArchive.getWorldStateKeyValueStorage()).thenReturn(worldStateStorage);
+    when(worldStateStorage.getWorldStateBlockHash())
+        .thenReturn(Optional.of(worldStateHeader.getHash()));
+    when(blockchain.getBlockHeader(worldStateHeader.getHash()))
+        .thenReturn(Optional.of(worldStateHeader));
+    when(worldStateArchive.getMutable()).thenReturn(persistedState);
+    when(persistedState.getAccumulator()).thenAnswer(__ -> accumulator);
+    follower =
+        new SecondaryStorageFollower(
+            storage, blockchain, worldStateArchive, mock(ScheduledExecutorService.class), 100);
+  }
+
+  @Test
+  public void resetsTheWorldStateWhenTheChainHeadMoved() {
+    when(blockchain.reloadChainHead()).thenReturn(true);
+
+    assertThat(follower.catchUp()).isTrue();
+
+    verify(storage).tryCatchUpWithPrimary();
+    verify(accumulator).reset();
+    verify(worldStateArchive).resetArchiveStateTo(worldStateHeader);
+  }
+
+  @Test
+  public void keepsTheWorldStateWhenTheChainHeadDidNotMove() {
+    when(blockchain.reloadChainHead()).thenReturn(false);
+
+    assertThat(follower.catchUp()).isFalse();
+
+    verify(storage).tryCatchUpWithPrimary();
+    verify(worldStateArchive, never()).resetArchiveStateTo(worldStateHeader);
+  }
+
+  @Test
+  public void keepsFollowingWhenCatchingUpFails() {
+    doThrow(new StorageException("primary unavailable")).when(storage).tryCatchUpWithPrimary();
+
+    assertThat(follower.catchUp()).isFalse();
+
+    verify(blockchain, never()).reloadChainHead();
+  }
+}
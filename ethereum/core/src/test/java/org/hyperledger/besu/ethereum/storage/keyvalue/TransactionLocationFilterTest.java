@@ -0,0 +1,114 @@
+/*
+ * Copyright contributors to Hyperledger Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.storage.keyvalue;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.Mockito.mock;
+
+import org.hyperledger.besu.datatypes.Hash;
+import org.hyperledger.besu.ethereum.chain.TransactionLocation;
+import org.hyperledger.besu.ethereum.core.BlockHeaderFunctions;
+import org.hyperledger.besu.services.kvstore.InMemoryKeyValueStorage;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import org.apache.tuweni.bytes.Bytes32;
+import org.junit.jupiter.api.Test;
+
+public class TransactionLocationFilterTest {
+
+  @Test
+  public void mightContainEveryHashUntilPopulated() {
+    final TransactionLocationFilter filter = new TransactionLocationFilter(1_000);
+
+    assertThat(filter.isPopulated()).isFalse();
+    assertThat(filter.mightContain(Hash.hash(Bytes32.random()))).isTrue();
+
+    filter.populate(Stream::empty);
+
+    assertThat(filter.isPopulated()).isTrue();
+    assertThat(filter.mightContain(Hash.hash(Bytes32.random()))).isFalse();
+  }
+
+  @Test
+  public void containsAddedAndPopulatedHashes() {
+    final TransactionLocationFilter filter = new TransactionLocationFilter(10_000);
+    final List<Hash> populated = randomHashes(5_000);
+    final List<Hash> added = randomHashes(5_000);
+
+    filter.populate(populated::stream);
+    added.forEach(filter::add);
+
+    assertThat(populated).allMatch(filter::mightContain);
+    assertThat(added).allMatch(filter::mightContain);
+  }
+
+  @Test
+  public void rulesOutMostUnknownHashes() {
+    final TransactionLocationFilter filter = new TransactionLocationFilter(10_000);
+    filter.populate(() -> randomHashes(10_000).stream());
+
+    final long falsePositives = randomHashes(100_000).stream().filter(filter::mightContain).count();
+
+    assertThat(falsePositives).isLessThan(2_000);
+  }
+
+  @Test
+  public void blockchainStorageSkipsLookupsOfUnknownHashes() {
+    final InMemoryKeyValueStorage kvBlockchain = new InMemoryKeyValueStorage();
+    final VariablesKeyValueStorage variablesStorage =
+        new VariablesKeyValueStorage(new InMemoryKeyValueStorage());
+    final BlockHeaderFunctions blockHeaderFunctions = mock(BlockHeaderFunctions.class);
+    final Hash blockHash = Hash.hash(Bytes32.random());
+    final Hash storedTransaction = Hash.hash(Bytes32.random());
+    final var updater =
+        new KeyValueStoragePrefixedKeyBlockchainStorage(
+                kvBlockchain, variablesStorage, blockHeaderFunctions, false)
+            .updater();
+    updater.putTransactionLocation(storedTransaction, new TransactionLocation(blockHash, 0));
+    updater.commit();
+
+    final TransactionLocationFilter filter = new TransactionLocationFilter(1_000);
+    final KeyValueStoragePrefixedKeyBlockchainStorage blockchainStorage =
+        new KeyValueStoragePrefixedKeyBlockchainStorage(
+            kvBlockchain,
+            variablesStorage,
+            blockHeaderFunctions,
+            false,
+            false,
+            Optional.of(filter));
+    await().until(filter::isPopulated);
+
+    final Hash addedTransaction = Hash.hash(Bytes32.random());
+    final var blockUpdater = blockchainStorage.updater();
+    blockUpdater.putTransactionLocation(addedTransaction, new TransactionLocation(blockHash, 1));
+    blockUpdater.commit();
+
+    assertThat(filter.mightContain(storedTransaction)).isTrue();
+    assertThat(blockchainStorage.getTransactionLocation(storedTransaction))
+        .contains(new TransactionLocation(blockHash, 0));
+    assertThat(blockchainStorage.getTransactionLocation(addedTransaction))
+        .contains(new TransactionLocation(blockHash, 1));
+    assertThat(blockchainStorage.getTransactionLocation(Hash.hash(Bytes32.random()))).isEmpty();
+  }
+
+  private static List<Hash> randomHashes(final int count) {
+    return IntStream.range(0, count).mapToObj(__ -> Hash.hash(Bytes32.random())).toList();
+  }
+}
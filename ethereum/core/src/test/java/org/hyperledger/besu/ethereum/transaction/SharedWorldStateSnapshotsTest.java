@@ -0,0 +1,261 @@
+/*
+ * Copyright contributors to Hyperledger Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.transaction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.hyperledger.besu.datatypes.Address;
+import org.hyperledger.besu.datatypes.Wei;
+import org.hyperledger.besu.ethereum.chain.Blockchain;
+import org.hyperledger.besu.ethereum.core.BlockHeader;
+import org.hyperledger.besu.ethereum.core.BlockHeaderTestFixture;
+import org.hyperledger.besu.ethereum.core.InMemoryKeyValueStorageProvider;
+import org.hyperledger.besu.ethereum.core.MutableWorldState;
+import org.hyperledger.besu.ethereum.trie.diffbased.bonsai.storage.BonsaiWorldStateKeyValueStorage;
+import org.hyperledger.besu.ethereum.trie.diffbased.bonsai.worldview.BonsaiWorldState;
+import org.hyperledger.besu.ethereum.trie.diffbased.bonsai.worldview.BonsaiWorldStateUpdateAccumulator;
+import org.hyperledger.besu.ethereum.trie.diffbased.common.worldview.DiffBasedWorldStateConfig;
+import org.hyperledger.besu.ethereum.worldstate.DataStorageConfiguration;
+import org.hyperledger.besu.ethereum.worldstate.WorldStateArchive;
+import org.hyperledger.besu.evm.account.Account;
+import org.hyperledger.besu.evm.account.MutableAccount;
+import org.hyperledger.besu.evm.internal.EvmConfiguration;
+import org.hyperledger.besu.evm.worldstate.WorldUpdater;
+import org.hyperledger.besu.metrics.noop.NoOpMetricsSystem;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.tuweni.units.bigints.UInt256;
+
+import org.junit.jupiter.api.Test;
+
+public class SharedWorldStateSnapshotsTest {
+  private final WorldStateArchive worldStateArchive = mock(WorldStateArchive.class);
+  private final AtomicLong nanoTime = new AtomicLong();
+  private final SharedWorldStateSnapshots snapshots =
+      new SharedWorldStateSnapshots(
+          worldStateArchive, nanoTime::get, SharedWorldStateSnapshots.MAX_CACHED_ENTRIES);
+
+  @Test
+  public void concurrentSimulationsShareTheSnapshotOfABlock() throws Exception {
+    final BlockHeader header = header(1);
+    final MutableWorldState worldState = worldState(header);
+
+    try (final SharedWorldStateSnapshots.Lease first = snapshots.acquire(header).orElseThrow();
+        final SharedWorldStateSnapshots.Lease second = snapshots.acquire(header).orElseThrow()) {
+      assertThat(first.getWorldState()).isSameAs(worldState);
+      assertThat(second.getWorldState()).isSameAs(worldState);
+    }
+
+    verify(worldStateArchive, times(1)).getMutable(header, false);
+    verify(worldState, never()).close();
+  }
+
+  @Test
+  public void eldestSnapshotIsClosedWhenReplaced() throws Exception {
+    final List<MutableWorldState> worldStates = new ArrayList<>();
+    for (int number = 0; number <= SharedWorldStateSnapshots.MAX_SNAPSHOTS; number++) {
+      final BlockHeader header = header(number);
+      worldStates.add(worldState(header));
+      snapshots.acquire(header).orElseThrow().close();
+    }
+
+    assertThat(snapshots.size()).isEqualTo(SharedWorldStateSnapshots.MAX_SNAPSHOTS);
+    verify(worldStates.get(0)).close();
+    verify(worldStates.get(1), never()).close();
+  }
+
+  @Test
+  public void evictedSnapshotIsClosedOnceReleased() throws Exception {
+    final BlockHeader header = header(0);
+    final MutableWorldState worldState = worldState(header);
+    final SharedWorldStateSnapshots.Lease lease = snapshots.acquire(header).orElseThrow();
+
+    for (int number = 1; number <= SharedWorldStateSnapshots.MAX_SNAPSHOTS; number++) {
+      final BlockHeader otherHeader = header(number);
+      worldState(otherHeader);
+      snapshots.acquire(otherHeader).orElseThrow().close();
+    }
+    verify(worldState, never()).close();
+
+    lease.close();
+    lease.close();
+    verify(worldState, times(1)).close();
+  }
+
+  @Test
+  public void oldSnapshotIsReplaced() throws Exception {
+    final BlockHeader header = header(1);
+    final MutableWorldState oldWorldState = mock(MutableWorldState.class);
+    final MutableWorldState newWorldState = mock(MutableWorldState.class);
+    when(worldStateArchive.getMutable(header, false))
+        .thenReturn(Optional.of(oldWorldState), Optional.of(newWorldState));
+
+    snapshots.acquire(header).orElseThrow().close();
+    nanoTime.addAndGet(SharedWorldStateSnapshots.MAX_SNAPSHOT_AGE_NANOS + 1);
+
+    try (final SharedWorldStateSnapshots.Lease lease = snapshots.acquire(header).orElseThrow()) {
+      assertThat(lease.getWorldState()).isSameAs(newWorldState);
+    }
+    verify(oldWorldState).close();
+    assertThat(snapshots.size()).isEqualTo(1);
+  }
+
+  @Test
+  public void unavailableWorldStateIsNotKept() {
+    final BlockHeader header = header(1);
+    when(worldStateArchive.getMutable(header, false)).thenReturn(Optional.empty());
+
+    assertThat(snapshots.acquire(header)).isEmpty();
+    assertThat(snapshots.size()).isZero();
+  }
+
+  @Test
+  public void snapshotCachingTooManyEntriesIsReplaced() throws Exception {
+    final SharedWorldStateSnapshots boundedSnapshots =
+        new SharedWorldStateSnapshots(worldStateArchive, nanoTime::get, 10);
+    final BlockHeader header = header(1);
+    final BonsaiWorldState fullWorldState = mock(BonsaiWorldState.class);
+    final BonsaiWorldStateUpdateAccumulator accumulator =
+        mock(BonsaiWorldStateUpdateAccumulator.class);
+    final Map<Address, Object> accounts = new HashMap<>();
+    for (int i = 0; i <= 10; i++) {
+      accounts.put(Address.fromHexString(Integer.toHexString(i)), new Object());
+    }
+    doReturn(accumulator).when(fullWorldState).getAccumulator();
+    doReturn(accounts).when(accumulator).getAccountsToUpdate();
+    doReturn(Map.of()).when(accumulator).getStorageToUpdate();
+    final MutableWorldState newWorldState = mock(MutableWorldState.class);
+    when(worldStateArchive.getMutable(header, false))
+        .thenReturn(Optional.of(fullWorldState), Optional.of(newWorldState));
+
+    boundedSnapshots.acquire(header).orElseThrow().close();
+
+    verify(fullWorldState).close();
+    assertThat(boundedSnapshots.size()).isZero();
+    try (final SharedWorldStateSnapshots.Lease lease =
+        boundedSnapshots.acquire(header).orElseThrow()) {
+      assertThat(lease.getWorldState()).isSameAs(newWorldState);
+    }
+  }
+
+  @Test
+  public void concurrentSimulationsReadTheSameAccountsAndSlots() throws Exception {
+    final int accountCount = 50;
+    final int slotCount = 20;
+    final int simulationCount = 8;
+    final BonsaiWorldState worldState =
+        new BonsaiWorldState(
+            InMemoryKeyValueStorageProvider.createBonsaiInMemoryWorldStateArchive(
+                mock(Blockchain.class)),
+            new BonsaiWorldStateKeyValueStorage(
+                new InMemoryKeyValueStorageProvider(),
+                new NoOpMetricsSystem(),
+                DataStorageConfiguration.DEFAULT_BONSAI_CONFIG),
+            EvmConfiguration.DEFAULT,
+            new DiffBasedWorldStateConfig());
+    final WorldUpdater setup = worldState.updater();
+    for (int i = 0; i < accountCount; i++) {
+      final MutableAccount account = setup.createAccount(address(i), i, Wei.of(i));
+      for (int slot = 0; slot < slotCount; slot++) {
+        account.setStorageValue(UInt256.valueOf(slot), UInt256.valueOf(i * 1000L + slot + 1));
+      }
+    }
+    setup.commit();
+    worldState.persist(null);
+    final BlockHeader header = header(1);
+    when(worldStateArchive.getMutable(header, false)).thenReturn(Optional.of(worldState));
+
+    final Map<Address, Account> sharedAccounts = new ConcurrentHashMap<>();
+    final CountDownLatch start = new CountDownLatch(1);
+    final ExecutorService executor = Executors.newFixedThreadPool(simulationCount);
+    try {
+      final List<Future<?>> simulations = new ArrayList<>();
+      for (int s = 0; s < simulationCount; s++) {
+        final int simulation = s;
+        simulations.add(
+            executor.submit(
+                () -> {
+                  start.await();
+                  try (final SharedWorldStateSnapshots.Lease lease =
+                      snapshots.acquire(header).orElseThrow()) {
+                    final WorldUpdater updater = lease.updater();
+                    for (int n = 0; n < accountCount; n++) {
+                      final int i = (n + simulation * 7) % accountCount;
+                      final MutableAccount account = updater.getAccount(address(i));
+                      assertThat(account.getBalance()).isEqualTo(Wei.of(i));
+                      for (int slot = 0; slot < slotCount; slot++) {
+                        assertThat(account.getStorageValue(UInt256.valueOf(slot)))
+                            .isEqualTo(UInt256.valueOf(i * 1000L + slot + 1));
+                      }
+                      // the writes of a simulation stay in its own updater
+                      account.setStorageValue(UInt256.ZERO, UInt256.valueOf(simulation));
+                      assertThat(account.getStorageValue(UInt256.ZERO))
+                          .isEqualTo(UInt256.valueOf(simulation));
+
+                      final Account shared = lease.getWorldState().updater().get(address(i));
+                      assertThat(sharedAccounts.computeIfAbsent(address(i), a -> shared))
+                          .isSameAs(shared);
+                    }
+                  }
+                  return null;
+                }));
+      }
+      start.countDown();
+      for (final Future<?> simulation : simulations) {
+        simulation.get();
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+
+    try (final SharedWorldStateSnapshots.Lease lease = snapshots.acquire(header).orElseThrow()) {
+      for (int i = 0; i < accountCount; i++) {
+        assertThat(lease.updater().getAccount(address(i)).getStorageValue(UInt256.ZERO))
+            .isEqualTo(UInt256.valueOf(i * 1000L + 1));
+      }
+    }
+  }
+
+  private static Address address(final int index) {
+    return Address.fromHexString(Integer.toHexString(index + 1));
+  }
+
+  private BlockHeader header(final long number) {
+    return new BlockHeaderTestFixture().number(number).buildHeader();
+  }
+
+  private MutableWorldState worldState(final BlockHeader header) {
+    final MutableWorldState worldState = mock(MutableWorldState.class);
+    when(worldStateArchive.getMutable(header, false)).thenReturn(Optional.of(worldState));
+    return worldState;
+  }
+}
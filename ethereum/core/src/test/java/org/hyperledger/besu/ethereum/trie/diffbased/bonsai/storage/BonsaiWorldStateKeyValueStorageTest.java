@@ -34,6 +34,7 @@ import org.hyperledger.besu.ethereum.core.TrieGenerator;
 import org.hyperledger.besu.ethereum.rlp.RLP;
 import org.hyperledger.besu.ethereum.storage.StorageProvider;
 import org.hyperledger.besu.ethereum.storage.keyvalue.KeyValueSegmentIdentifier;
+import org.hyperledger.besu.ethereum.trie.CompactEncoding;
 import org.hyperledger.besu.ethereum.trie.MerkleTrie;
 import org.hyperledger.besu.ethereum.trie.StorageEntriesCollector;
 import org.hyperledger.besu.ethereum.trie.patricia.StoredMerklePatriciaTrie;
@@ -48,6 +49,7 @@ import org.hyperledger.besu.plugin.services.storage.KeyValueStorage;
 
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.TreeMap;
 
@@ -480,6 +482,27 @@ public class BonsaiWorldStateKeyValueStorageTest {
             .build());
   }
 
+  @Test
+  void getTrieNodesOnPaths_onlyReadsTheTopLevels() {
+    setUp(FlatDbMode.FULL);
+    final Bytes32 keyHash = Hash.hash(Bytes.of(1));
+    final Bytes path = CompactEncoding.bytesToPath(keyHash);
+    final BonsaiWorldStateKeyValueStorage.Updater updater = storage.updater();
+    final int depth = BonsaiWorldStateKeyValueStorage.DEFAULT_TRIE_NODES_ON_PATHS_DEPTH + 2;
+    for (int i = 0; i < depth; i++) {
+      final Bytes node = Bytes.of(i);
+      updater.putAccountStateTrieNode(path.slice(0, i), Hash.hash(node), node);
+    }
+    updater.commit();
+
+    assertThat(storage.getTrieNodesOnPaths(Bytes.EMPTY, List.of(keyHash)))
+        .hasSize(BonsaiWorldStateKeyValueStorage.DEFAULT_TRIE_NODES_ON_PATHS_DEPTH)
+        .doesNotContain(Bytes.of(depth - 1));
+    assertThat(storage.getTrieNodesOnPaths(Bytes.EMPTY, List.of(keyHash), 3))
+        .containsExactly(Bytes.of(0), Bytes.of(1), Bytes.of(2));
+    assertThat(storage.getTrieNodesOnPaths(Bytes.EMPTY, List.of(keyHash), 65)).hasSize(depth);
+  }
+
   @Test
   void successfulPruneReturnsTrue() {
     final KeyValueStorage mockTrieLogStorage = mock(KeyValueStorage.class);
@@ -0,0 +1,122 @@
+/*
+ * Copyright contributors to Hyperledger Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.util.era1;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.hyperledger.besu.datatypes.Hash;
+import org.hyperledger.besu.ethereum.core.Block;
+import org.hyperledger.besu.ethereum.core.BlockDataGenerator;
+import org.hyperledger.besu.ethereum.core.Difficulty;
+import org.hyperledger.besu.ethereum.core.TransactionReceipt;
+import org.hyperledger.besu.ethereum.mainnet.MainnetBlockHeaderFunctions;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.tuweni.bytes.Bytes32;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class Era1ReaderTest {
+
+  @TempDir private Path tmp;
+  private final BlockDataGenerator gen = new BlockDataGenerator(1);
+  private List<Block> blocks;
+  private List<List<TransactionReceipt>> receipts;
+  private List<Difficulty> totalDifficulties;
+
+  @BeforeEach
+  public void setup() {
+    blocks = gen.blockSequence(10);
+    receipts = blocks.stream().map(gen::receipts).toList();
+    totalDifficulties = new ArrayList<>();
+    Difficulty totalDifficulty = Difficulty.ZERO;
+    for (final Block block : blocks) {
+      totalDifficulty = totalDifficulty.add(block.getHeader().getDifficulty());
+      totalDifficulties.add(totalDifficulty);
+    }
+  }
+
+  @Test
+  public void readsBlocksWrittenByWriter() throws IOException {
+    final Path file = tmp.resolve("test.era1");
+    final Bytes32 accumulatorRoot = write(file, blocks.size());
+
+    try (final Era1Reader reader = Era1Reader.open(file)) {
+      assertThat(reader.getStartingBlockNumber()).isEqualTo(0L);
+      assertThat(reader.getBlockCount()).isEqualTo(blocks.size());
+      assertThat(reader.getAccumulatorRoot()).isEqualTo(accumulatorRoot);
+
+      // read out of order, as the importer does from several threads
+      for (int i = blocks.size() - 1; i >= 0; i--) {
+        final Era1Block era1Block = reader.readBlock(i, new MainnetBlockHeaderFunctions());
+        assertThat(era1Block.block()).isEqualTo(blocks.get(i));
+        assertThat(era1Block.receipts()).isEqualTo(receipts.get(i));
+        assertThat(era1Block.totalDifficulty()).isEqualTo(totalDifficulties.get(i));
+      }
+    }
+  }
+
+  @Test
+  public void accumulatorDependsOnEveryHeaderRecord() {
+    final List<Hash> hashes = blocks.stream().map(Block::getHash).toList();
+    final List<Difficulty> otherTotalDifficulties = new ArrayList<>(totalDifficulties);
+    otherTotalDifficulties.set(5, otherTotalDifficulties.get(5).add(Difficulty.ONE));
+
+    assertThat(Era1Accumulator.root(hashes, totalDifficulties))
+        .isEqualTo(Era1Accumulator.root(hashes, totalDifficulties))
+        .isNotEqualTo(Era1Accumulator.root(hashes, otherTotalDifficulties))
+        .isNotEqualTo(
+            Era1Accumulator.root(hashes.subList(0, 9), totalDifficulties.subList(0, 9)));
+  }
+
+  @Test
+  public void writerRejectsNonConsecutiveBlocks() throws IOException {
+    try (final Era1Writer writer = new Era1Writer(tmp.resolve("gap.era1"))) {
+      writer.add(blocks.get(0), receipts.get(0), totalDifficulties.get(0));
+      assertThatThrownBy(() -> writer.add(blocks.get(2), receipts.get(2), totalDifficulties.get(2)))
+          .isInstanceOf(IllegalArgumentException.class)
+          .hasMessage("Expected block 1 but got block 2");
+    }
+  }
+
+  @Test
+  public void rejectsTruncatedFile() throws IOException {
+    final Path file = tmp.resolve("truncated.era1");
+    write(file, blocks.size());
+    final byte[] content = Files.readAllBytes(file);
+    Files.write(file, Arrays.copyOf(content, content.length - 1));
+
+    assertThatThrownBy(() -> Era1Reader.open(file))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessageStartingWith("Invalid era1 file");
+  }
+
+  private Bytes32 write(final Path file, final int count) throws IOException {
+    try (final Era1Writer writer = new Era1Writer(file)) {
+      for (int i = 0; i < count; i++) {
+        writer.add(blocks.get(i), receipts.get(i), totalDifficulties.get(i));
+      }
+      return writer.finish();
+    }
+  }
+}
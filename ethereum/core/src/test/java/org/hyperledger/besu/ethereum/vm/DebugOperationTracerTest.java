@@ -36,6 +36,8 @@ import org.hyperledger.besu.evm.operation.Operation;
 import org.hyperledger.besu.evm.operation.Operation.OperationResult;
 import org.hyperledger.besu.evm.worldstate.WorldUpdater;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.OptionalLong;
 import java.util.TreeMap;
@@ -202,6 +204,31 @@ class DebugOperationTracerTest {
     assertThat(traceFrame.getStorage()).contains(updatedStorage);
   }
 
+  @Test
+  void shouldStreamFramesOnceTheFollowingOperationIsTraced() {
+    final List<TraceFrame> streamedFrames = new ArrayList<>();
+    final DebugOperationTracer tracer =
+        new DebugOperationTracer(new TraceOptions(false, false, false), false, streamedFrames::add);
+    final MessageFrame frame = validMessageFrame();
+
+    tracer.tracePreExecution(frame);
+    tracer.tracePostExecution(frame, anOperation.execute(frame, null));
+    assertThat(streamedFrames).isEmpty();
+
+    frame.decrementRemainingGas(20L);
+    frame.setPC(11);
+    tracer.tracePreExecution(frame);
+    tracer.tracePostExecution(frame, anOperation.execute(frame, null));
+    assertThat(streamedFrames).hasSize(1);
+    assertThat(streamedFrames.get(0).getPc()).isEqualTo(10);
+    assertThat(streamedFrames.get(0).getGasRemainingPostExecution()).isEqualTo(INITIAL_GAS - 20L);
+    assertThat(tracer.getTraceFrames()).hasSize(1);
+
+    tracer.flushTraceFrames();
+    assertThat(streamedFrames).extracting(TraceFrame::getPc).containsExactly(10, 11);
+    assertThat(tracer.getTraceFrames()).isEmpty();
+  }
+
   private TraceFrame traceFrame(final MessageFrame frame) {
     return traceFrame(frame, new TraceOptions(false, false, false), false);
   }
@@ -16,8 +16,8 @@ package org.hyperledger.besu.ethereum.eth.manager;
 
 import org.hyperledger.besu.datatypes.Hash;
 import org.hyperledger.besu.ethereum.chain.Blockchain;
-import org.hyperledger.besu.ethereum.core.BlockBody;
 import org.hyperledger.besu.ethereum.core.BlockHeader;
+import org.hyperledger.besu.ethereum.core.LazyBlockBody;
 import org.hyperledger.besu.ethereum.core.Transaction;
 import org.hyperledger.besu.ethereum.core.TransactionReceipt;
 import org.hyperledger.besu.ethereum.core.encoding.EncodingContext;
@@ -39,9 +39,11 @@ import org.hyperledger.besu.ethereum.eth.messages.ReceiptsMessage;
 import org.hyperledger.besu.ethereum.eth.transactions.TransactionPool;
 import org.hyperledger.besu.ethereum.p2p.rlpx.wire.MessageData;
 import org.hyperledger.besu.ethereum.rlp.BytesValueRLPOutput;
+import org.hyperledger.besu.ethereum.rlp.PresizedRLPEncoder;
 import org.hyperledger.besu.ethereum.rlp.RLP;
 import org.hyperledger.besu.ethereum.worldstate.WorldStateArchive;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
@@ -184,31 +186,30 @@ class EthServer {
     final Iterable<Hash> hashes = getBlockBodiesMessage.hashes();
 
     int responseSizeEstimate = RLP.MAX_PREFIX_SIZE;
-    final BytesValueRLPOutput rlp = new BytesValueRLPOutput();
-    rlp.startList();
+    final List<Bytes> encodedBodies = new ArrayList<>();
     int count = 0;
     for (final Hash hash : hashes) {
       if (count >= requestLimit) {
         break;
       }
       count++;
-      final Optional<BlockBody> maybeBody = blockchain.getBlockBody(hash);
+      // Bodies are stored in their network encoding, so they are forwarded without being decoded
+      final Optional<LazyBlockBody> maybeBody = blockchain.getLazyBlockBody(hash);
       if (maybeBody.isEmpty()) {
         continue;
       }
 
-      final BlockBody body = maybeBody.get();
-      final BytesValueRLPOutput bodyOutput = new BytesValueRLPOutput();
-      body.writeWrappedBodyTo(bodyOutput);
-      final int encodedSize = bodyOutput.encodedSize();
+      final Bytes encodedBody = maybeBody.get().getRlp();
+      final int encodedSize = encodedBody.size();
       if (responseSizeEstimate + encodedSize > maxMessageSize) {
         break;
       }
       responseSizeEstimate += encodedSize;
-      rlp.writeRaw(bodyOutput.encoded());
+      encodedBodies.add(encodedBody);
     }
-    rlp.endList();
-    return BlockBodiesMessage.createUnsafe(rlp.encoded());
+    return BlockBodiesMessage.createUnsafe(
+        PresizedRLPEncoder.encode(
+            rlp -> rlp.writeList(encodedBodies, (body, out) -> out.writeRaw(body))));
   }
 
   static MessageData constructGetReceiptsResponse(
@@ -220,8 +221,8 @@ class EthServer {
     final Iterable<Hash> hashes = getReceipts.hashes();
 
     int responseSizeEstimate = RLP.MAX_PREFIX_SIZE;
-    final BytesValueRLPOutput rlp = new BytesValueRLPOutput();
-    rlp.startList();
+    // the receipts of each block are sized once, to check the limit and then to write them
+    final List<PresizedRLPEncoder> blocksReceipts = new ArrayList<>();
     int count = 0;
     for (final Hash hash : hashes) {
       if (count >= requestLimit) {
@@ -232,21 +233,20 @@ class EthServer {
       if (maybeReceipts.isEmpty()) {
         continue;
       }
-      final BytesValueRLPOutput encodedReceipts = new BytesValueRLPOutput();
-      encodedReceipts.startList();
-      maybeReceipts.get().forEach(r -> r.writeToForNetwork(encodedReceipts));
-      encodedReceipts.endList();
-      final int encodedSize = encodedReceipts.encodedSize();
+      final List<TransactionReceipt> receipts = maybeReceipts.get();
+      final PresizedRLPEncoder blockReceipts =
+          PresizedRLPEncoder.of(
+              rlp -> rlp.writeList(receipts, TransactionReceipt::writeToForNetwork));
+      final int encodedSize = blockReceipts.encodedSize();
       if (responseSizeEstimate + encodedSize > maxMessageSize) {
         break;
       }
 
       responseSizeEstimate += encodedSize;
-      rlp.writeRaw(encodedReceipts.encoded());
+      blocksReceipts.add(blockReceipts);
     }
-    rlp.endList();
 
-    return ReceiptsMessage.createUnsafe(rlp.encoded());
+    return ReceiptsMessage.createUnsafe(PresizedRLPEncoder.encodeList(blocksReceipts));
   }
 
   static MessageData constructGetPooledTransactionsResponse(
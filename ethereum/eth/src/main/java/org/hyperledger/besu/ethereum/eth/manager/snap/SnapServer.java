@@ -45,6 +45,7 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.NavigableMap;
 import java.util.Optional;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -72,6 +73,8 @@ class SnapServer implements BesuEvents.InitialSyncCompletionListener {
   private static final int MAX_RESPONSE_SIZE = 2 * 1024 * 1024;
   private static final int MAX_CODE_LOOKUPS_PER_REQUEST = 1024;
   private static final int MAX_TRIE_LOOKUPS_PER_REQUEST = 1024;
+  // trie nodes read in one batch, at most this many are read past the response limits
+  private static final int TRIE_NODES_READ_BATCH_SIZE = 64;
   private static final AccountRangeMessage EMPTY_ACCOUNT_RANGE =
       AccountRangeMessage.create(new HashMap<>(), new ArrayDeque<>());
   private static final StorageRangeMessage EMPTY_STORAGE_RANGE =
@@ -518,12 +521,18 @@ class SnapServer implements BesuEvents.InitialSyncCompletionListener {
                     triePaths.paths().size() < MAX_TRIE_LOOKUPS_PER_REQUEST
                         ? triePaths.paths()
                         : triePaths.paths().subList(0, MAX_TRIE_LOOKUPS_PER_REQUEST);
-                for (var triePath : triePathList) {
+                Map<Bytes, Optional<Bytes>> readNodes = Map.of();
+                for (int pathIndex = 0; pathIndex < triePathList.size(); pathIndex++) {
+                  final List<Bytes> triePath = triePathList.get(pathIndex);
                   // first element in paths is account
                   if (triePath.size() == 1) {
                     // if there is only one path, presume it should be compact encoded account path
                     final Bytes location = CompactEncoding.decode(triePath.get(0));
-                    var optStorage = storage.getTrieNodeUnsafe(location);
+                    if (!readNodes.containsKey(location)) {
+                      readNodes =
+                          readTrieNodes(storage, accountLocations(triePathList, pathIndex));
+                    }
+                    var optStorage = readNodes.get(location);
                     if (optStorage.isEmpty() && location.isEmpty()) {
                       optStorage = Optional.of(MerkleTrie.EMPTY_TRIE_NODE);
                     }
@@ -552,10 +561,18 @@ class SnapServer implements BesuEvents.InitialSyncCompletionListener {
                     }
 
                     List<Bytes> storagePaths = triePath.subList(1, triePath.size());
-                    for (var path : storagePaths) {
-                      final Bytes location = CompactEncoding.decode(path);
-                      var optStorage =
-                          storage.getTrieNodeUnsafe(Bytes.concatenate(accountPrefix, location));
+                    for (int storageIndex = 0;
+                        storageIndex < storagePaths.size();
+                        storageIndex++) {
+                      final Bytes location = CompactEncoding.decode(storagePaths.get(storageIndex));
+                      final Bytes key = Bytes.concatenate(accountPrefix, location);
+                      if (!readNodes.containsKey(key)) {
+                        readNodes =
+                            readTrieNodes(
+                                storage,
+                                storageLocations(accountPrefix, storagePaths, storageIndex));
+                      }
+                      var optStorage = readNodes.get(key);
                       if (optStorage.isEmpty() && location.isEmpty()) {
                         optStorage = Optional.of(MerkleTrie.EMPTY_TRIE_NODE);
                       }
@@ -691,6 +708,48 @@ class SnapServer implements BesuEvents.InitialSyncCompletionListener {
         .orElse(Hash.EMPTY_TRIE_HASH);
   }
 
+  /**
+   * Gets the locations of the next batch of account trie nodes, from the account path at the index
+   * up to the first storage paths.
+   */
+  private static List<Bytes> accountLocations(
+      final List<List<Bytes>> triePathList, final int fromIndex) {
+    final List<Bytes> locations = new ArrayList<>();
+    for (int i = fromIndex;
+        i < triePathList.size()
+            && triePathList.get(i).size() == 1
+            && locations.size() < TRIE_NODES_READ_BATCH_SIZE;
+        i++) {
+      locations.add(CompactEncoding.decode(triePathList.get(i).get(0)));
+    }
+    return locations;
+  }
+
+  /** Gets the locations of the next batch of storage trie nodes of an account. */
+  private static List<Bytes> storageLocations(
+      final Bytes32 accountPrefix, final List<Bytes> storagePaths, final int fromIndex) {
+    return storagePaths
+        .subList(fromIndex, Math.min(storagePaths.size(), fromIndex + TRIE_NODES_READ_BATCH_SIZE))
+        .stream()
+        .map(path -> Bytes.concatenate(accountPrefix, CompactEncoding.decode(path)))
+        .toList();
+  }
+
+  /**
+   * Reads a batch of trie nodes in one go, keyed by their location in the trie branch storage. The
+   * nodes are read batch by batch as the response is built, so that a request only reads the nodes
+   * that fit in the response limits.
+   */
+  private static Map<Bytes, Optional<Bytes>> readTrieNodes(
+      final BonsaiWorldStateKeyValueStorage storage, final List<Bytes> keys) {
+    final List<Optional<Bytes>> nodes = storage.getTrieNodesUnsafe(keys);
+    final Map<Bytes, Optional<Bytes>> nodesByKey = new HashMap<>(keys.size());
+    for (int i = 0; i < keys.size(); i++) {
+      nodesByKey.put(keys.get(i), nodes.get(i));
+    }
+    return nodesByKey;
+  }
+
   private static int sumListBytes(final List<Bytes> listOfBytes) {
     // TODO: remove hack, 10% is a fudge factor to account for the overhead of rlp encoding
     return listOfBytes.stream().map(Bytes::size).reduce((a, b) -> a + b).orElse(0) * 11 / 10;
@@ -19,6 +19,7 @@ import static org.hyperledger.besu.ethereum.eth.manager.snap.SnapServer.HASH_LAS
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
 import org.hyperledger.besu.datatypes.Hash;
@@ -52,6 +53,7 @@ import org.hyperledger.besu.services.kvstore.InMemoryKeyValueStorage;
 import org.hyperledger.besu.services.kvstore.SegmentedInMemoryKeyValueStorage;
 
 import java.math.BigInteger;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.NavigableMap;
@@ -539,6 +541,39 @@ public class SnapServerTest {
     assertThat(trieNodes.size()).isEqualTo(1);
   }
 
+  @Test
+  public void assertAccountTrieLimitRequest_readsOnlyOneBatch() {
+    insertTestAccounts(acct1, acct2, acct3, acct4);
+    final BonsaiWorldStateKeyValueStorage spyStorage = spy(inMemoryStorage);
+    final SnapServer server =
+        new SnapServer(new EthMessages(), storageCoordinator, __ -> Optional.of(spyStorage))
+            .start();
+
+    final BytesValueRLPOutput tmp = new BytesValueRLPOutput();
+    tmp.startList();
+    tmp.writeBigIntegerScalar(BigInteger.ONE);
+    tmp.writeBytes(storageTrie.getRootHash());
+    // a path to a node of the account trie, followed by many distinct paths
+    final List<List<Bytes>> paths = new ArrayList<>();
+    paths.add(List.of(Bytes.fromHexString("0x01")));
+    IntStream.range(0, 1_000)
+        .forEach(i -> paths.add(List.of(Bytes.of(0x00, (i >> 8) & 0xff, i & 0xff))));
+    tmp.writeList(
+        paths,
+        (path, rlpOutput) ->
+            rlpOutput.writeList(path, (b, subRlpOutput) -> subRlpOutput.writeBytes(b)));
+    tmp.writeBigIntegerScalar(BigInteger.ZERO);
+    tmp.endList();
+
+    var trieNodeRequest =
+        (TrieNodesMessage)
+            server.constructGetTrieNodesResponse(new GetTrieNodesMessage(tmp.encoded()));
+
+    assertThat(trieNodeRequest.nodes(false).size()).isEqualTo(1);
+    // the response limit is reached on the first node, only its batch is read
+    verify(spyStorage, times(1)).getTrieNodesUnsafe(any());
+  }
+
   @Test
   public void assertStorageTriePathRequest() {
     insertTestAccounts(acct1, acct2, acct3, acct4);
@@ -73,6 +73,12 @@ public class RLPBench {
     return RLPTestUtil.encode(toEncode);
   }
 
+  @Benchmark
+  public Bytes getBenchmarkPresizedEncoding() {
+    final Object value = toEncode;
+    return PresizedRLPEncoder.encode(out -> RLPTestUtil.encode(value, out));
+  }
+
   @Benchmark
   public Object getBenchmarkDecoding() {
     return RLPTestUtil.decode(toDecode);
@@ -0,0 +1,325 @@
+/*
+ * Copyright contributors to Hyperledger Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.rlp;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.bytes.MutableBytes;
+
+/**
+ * A two-pass RLP encoder that writes directly into a caller supplied destination.
+ *
+ * <p>Unlike {@link BytesValueRLPOutput}, which accumulates every written value in a list before
+ * copying them into the final result, this encoder runs the provided writer twice:
+ *
+ * <ol>
+ *   <li>a first time against an output that only computes the exact encoded size of every list
+ *       (recorded in the order lists are started) and of the whole encoding;
+ *   <li>a second time against an output that writes every value straight to its final position in
+ *       the destination, using the sizes computed during the first pass for the list prefixes.
+ * </ol>
+ *
+ * <p>The destination can be a {@code byte[]}, a {@link ByteBuffer} or a {@link MutableBytes}. A
+ * Netty {@code ByteBuf} can be targeted through {@code buf.nioBuffer(buf.writerIndex(), size)}
+ * after ensuring it is writable.
+ *
+ * <p>Because the writer is invoked twice, it must be deterministic: it has to write exactly the
+ * same values during both passes. This holds for all the {@code writeTo(RLPOutput)} methods of our
+ * domain objects.
+ */
+public final class PresizedRLPEncoder {
+
+  private final Consumer<RLPOutput> writer;
+  private final int[] listPayloadSizes;
+  private final int listsCount;
+  private final int encodedSize;
+
+  private PresizedRLPEncoder(final Consumer<RLPOutput> writer) {
+    this.writer = writer;
+    final SizingRLPOutput sizing = new SizingRLPOutput();
+    writer.accept(sizing);
+    checkState(
+        sizing.depth == 0, "A list has been entered (startList()) but not left (endList())");
+    this.listPayloadSizes = sizing.payloadSizes;
+    this.listsCount = sizing.listsCount;
+    this.encodedSize = sizing.totalSize;
+  }
+
+  /**
+   * Runs the sizing pass of the provided writer.
+   *
+   * @param writer A method that given an {@link RLPOutput}, writes some data to it.
+   * @return an encoder that knows the exact encoded size of {@code writer} output and can write it
+   *     to a destination.
+   */
+  public static PresizedRLPEncoder of(final Consumer<RLPOutput> writer) {
+    return new PresizedRLPEncoder(writer);
+  }
+
+  /**
+   * Encodes the data written by the provided writer into an exactly sized value.
+   *
+   * <p>This is equivalent to {@link RLP#encode(Consumer)} but does not keep intermediate copies of
+   * the written values.
+   *
+   * @param writer A method that given an {@link RLPOutput}, writes some data to it.
+   * @return The RLP encoding of the data written by {@code writer}.
+   */
+  public static Bytes encode(final Consumer<RLPOutput> writer) {
+    return of(writer).encoded();
+  }
+
+  /**
+   * Encodes a list of already sized elements, without running their sizing pass again.
+   *
+   * @param elements the encoders of the elements of the list.
+   * @return The RLP encoding of the list.
+   */
+  public static Bytes encodeList(final List<PresizedRLPEncoder> elements) {
+    int payloadSize = 0;
+    for (final PresizedRLPEncoder element : elements) {
+      payloadSize += element.encodedSize;
+    }
+    final MutableBytes dest = MutableBytes.wrap(new byte[RLPEncodingHelpers.listSize(payloadSize)]);
+    int offset = RLPEncodingHelpers.writeListHeader(payloadSize, dest, 0);
+    for (final PresizedRLPEncoder element : elements) {
+      offset = element.writeTo(dest, offset);
+    }
+    return dest;
+  }
+
+  /**
+   * The exact size of the encoding.
+   *
+   * @return the number of bytes that {@code writeTo} methods will write.
+   */
+  public int encodedSize() {
+    return encodedSize;
+  }
+
+  /**
+   * Encodes into a newly allocated value of the exact encoded size.
+   *
+   * @return The RLP encoding.
+   */
+  public Bytes encoded() {
+    if (encodedSize == 0) {
+      return Bytes.EMPTY;
+    }
+    final byte[] dest = new byte[encodedSize];
+    writeTo(dest, 0);
+    return Bytes.wrap(dest);
+  }
+
+  /**
+   * Writes the encoding to the provided array.
+   *
+   * @param dest the array to write to.
+   * @param destOffset the offset in {@code dest} at which to start writing.
+   * @return the offset in {@code dest} right after the last written byte.
+   */
+  public int writeTo(final byte[] dest, final int destOffset) {
+    checkArgument(
+        destOffset >= 0 && dest.length - destOffset >= encodedSize,
+        "Destination too small, %s bytes required but only %s available",
+        encodedSize,
+        dest.length - destOffset);
+    if (encodedSize == 0) {
+      return destOffset;
+    }
+    write(MutableBytes.wrap(dest, destOffset, encodedSize));
+    return destOffset + encodedSize;
+  }
+
+  /**
+   * Writes the encoding to the provided buffer, starting at its current position and advancing it
+   * by {@link #encodedSize()}.
+   *
+   * @param dest the buffer to write to.
+   */
+  public void writeTo(final ByteBuffer dest) {
+    checkArgument(
+        dest.remaining() >= encodedSize,
+        "Destination too small, %s bytes required but only %s available",
+        encodedSize,
+        dest.remaining());
+    if (encodedSize == 0) {
+      return;
+    }
+    final int position = dest.position();
+    if (dest.hasArray()) {
+      writeTo(dest.array(), dest.arrayOffset() + position);
+    } else {
+      write(MutableBytes.wrapByteBuffer(dest, position, encodedSize));
+    }
+    dest.position(position + encodedSize);
+  }
+
+  /**
+   * Writes the encoding to the provided value.
+   *
+   * @param dest the value to write to.
+   * @param destOffset the offset in {@code dest} at which to start writing.
+   * @return the offset in {@code dest} right after the last written byte.
+   */
+  public int writeTo(final MutableBytes dest, final int destOffset) {
+    checkArgument(
+        destOffset >= 0 && dest.size() - destOffset >= encodedSize,
+        "Destination too small, %s bytes required but only %s available",
+        encodedSize,
+        dest.size() - destOffset);
+    if (encodedSize == 0) {
+      return destOffset;
+    }
+    write(dest.mutableSlice(destOffset, encodedSize));
+    return destOffset + encodedSize;
+  }
+
+  private void write(final MutableBytes dest) {
+    final WritingRLPOutput output = new WritingRLPOutput(dest);
+    writer.accept(output);
+    checkState(
+        output.offset == encodedSize && output.listIndex == listsCount,
+        "Non deterministic RLP writer: sized %s bytes in %s lists, wrote %s bytes in %s lists",
+        encodedSize,
+        listsCount,
+        output.offset,
+        output.listIndex);
+  }
+
+  /** First pass: computes the payload size of every list, in the order they are started. */
+  private static final class SizingRLPOutput implements RLPOutput {
+    private int[] payloadSizes = new int[8];
+    private int listsCount;
+
+    // Indexes in payloadSizes of the currently open lists.
+    private int[] openLists = new int[4];
+    private int depth;
+
+    private int totalSize;
+
+    private void addSize(final int size) {
+      if (depth == 0) {
+        totalSize += size;
+      } else {
+        payloadSizes[openLists[depth - 1]] += size;
+      }
+    }
+
+    @Override
+    public void writeBytes(final Bytes v) {
+      addSize(RLPEncodingHelpers.elementSize(v));
+    }
+
+    @Override
+    public void writeRaw(final Bytes v) {
+      addSize(v.size());
+    }
+
+    @Override
+    public void startList() {
+      if (listsCount == payloadSizes.length) {
+        payloadSizes = Arrays.copyOf(payloadSizes, (payloadSizes.length * 3) / 2);
+      }
+      if (depth == openLists.length) {
+        openLists = Arrays.copyOf(openLists, (openLists.length * 3) / 2);
+      }
+      openLists[depth++] = listsCount++;
+    }
+
+    @Override
+    public void endList() {
+      checkState(depth > 0, "LeaveList() called with no prior matching startList()");
+      final int finishedListSize = RLPEncodingHelpers.listSize(payloadSizes[openLists[--depth]]);
+      addSize(finishedListSize);
+    }
+
+    @Override
+    public void writeEncodedBytes(final Consumer<RLPOutput> writer) {
+      // the size of the encoding is recorded like the payload size of a list, for the header
+      startList();
+      writer.accept(this);
+      final int size = payloadSizes[openLists[--depth]];
+      addSize(
+          size == 1
+              ? RLPEncodingHelpers.elementSize(RLP.encode(writer))
+              : RLPEncodingHelpers.elementSize(size));
+    }
+  }
+
+  /** Second pass: writes every value at its final position. */
+  private final class WritingRLPOutput implements RLPOutput {
+    private final MutableBytes dest;
+    private int offset;
+    private int listIndex;
+
+    private WritingRLPOutput(final MutableBytes dest) {
+      this.dest = dest;
+    }
+
+    @Override
+    public void writeBytes(final Bytes v) {
+      offset = RLPEncodingHelpers.writeElement(v, dest, offset);
+    }
+
+    @Override
+    public void writeRaw(final Bytes v) {
+      v.copyTo(dest, offset);
+      offset += v.size();
+    }
+
+    @Override
+    public void startList() {
+      checkState(
+          listIndex < listsCount,
+          "RLP writer is not deterministic: more lists started than during sizing");
+      offset = RLPEncodingHelpers.writeListHeader(listPayloadSizes[listIndex++], dest, offset);
+    }
+
+    @Override
+    public void endList() {
+      // Nothing to do, the list prefix has already been written with its final size.
+    }
+
+    @Override
+    public void writeEncodedBytes(final Consumer<RLPOutput> writer) {
+      checkState(
+          listIndex < listsCount,
+          "RLP writer is not deterministic: more lists started than during sizing");
+      final int size = listPayloadSizes[listIndex++];
+      if (size == 1) {
+        // a single byte is its own encoding unless it is at least 0x80
+        final int start = offset;
+        writer.accept(this);
+        final byte value = dest.get(start);
+        if (value < 0) {
+          dest.set(start, (byte) 0x81);
+          dest.set(start + 1, value);
+          offset = start + 2;
+        }
+      } else {
+        offset = RLPEncodingHelpers.writeElementHeader(size, dest, offset);
+        writer.accept(this);
+      }
+    }
+  }
+}
@@ -45,6 +45,13 @@ class RLPEncodingHelpers {
     return 1 + sizeLength(value.size()) + value.size();
   }
 
+  /** The encoded size of a value of the provided size, other than a single byte value. */
+  static int elementSize(final int size) {
+    if (size <= 55) return 1 + size;
+
+    return 1 + sizeLength(size) + size;
+  }
+
   /** The encoded size of a list given the encoded size of its payload. */
   static int listSize(final int payloadSize) {
     int size = 1 + payloadSize;
@@ -74,6 +81,19 @@ class RLPEncodingHelpers {
     return offset + size;
   }
 
+  /**
+   * Writes the encoded header of a value of the provided size, other than a single byte value, to
+   * the provided destination (which must be big enough).
+   */
+  static int writeElementHeader(final int size, final MutableBytes dest, final int destOffset) {
+    if (size <= 55) {
+      dest.set(destOffset, (byte) (0x80 + size));
+      return destOffset + 1;
+    }
+
+    return writeLongMetadata(0xb7, size, dest, destOffset);
+  }
+
   /**
    * Writes the encoded header of a list provided its encoded payload size to the provided
    * destination (which must be big enough).
@@ -291,6 +291,18 @@ public interface RLPOutput {
     writeRaw(rlpEncodedValue);
   }
 
+  /**
+   * Writes, as a single bytes value, the RLP encoding of the data written by the provided writer.
+   *
+   * <p>This is equivalent to {@code writeBytes(RLP.encode(writer))}, but outputs which know the
+   * size of the encoding in advance write it in place, without the intermediate value.
+   *
+   * @param writer A method that given an {@link RLPOutput}, writes some data to it.
+   */
+  default void writeEncodedBytes(final Consumer<RLPOutput> writer) {
+    writeBytes(RLP.encode(writer));
+  }
+
   /**
    * Writes an already RLP encoded item to the output.
    *
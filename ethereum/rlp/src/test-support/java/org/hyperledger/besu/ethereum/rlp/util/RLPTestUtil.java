@@ -72,7 +72,13 @@ public class RLPTestUtil {
     return out.encoded();
   }
 
-  private static void encode(final Object obj, final RLPOutput out) {
+  /**
+   * Write an object to the provided output.
+   *
+   * @param obj An object to encode, either a {@link Bytes} or a (possibly nested) list of them.
+   * @param out The output to write to.
+   */
+  public static void encode(final Object obj, final RLPOutput out) {
     if (obj instanceof Bytes) {
       out.writeBytes((Bytes) obj);
     } else if (obj instanceof List) {
@@ -0,0 +1,216 @@
+/*
+ * Copyright contributors to Hyperledger Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.rlp;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.hyperledger.besu.ethereum.rlp.util.RLPTestUtil;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.bytes.MutableBytes;
+import org.junit.jupiter.api.Test;
+
+public class PresizedRLPEncoderTest {
+
+  @Test
+  public void empty() {
+    final PresizedRLPEncoder encoder = PresizedRLPEncoder.of(out -> {});
+    assertThat(encoder.encodedSize()).isZero();
+    assertThat(encoder.encoded()).isEqualTo(Bytes.EMPTY);
+  }
+
+  @Test
+  public void singleElement() {
+    assertThat(PresizedRLPEncoder.encode(out -> out.writeByte((byte) 1)))
+        .isEqualTo(Bytes.fromHexString("0x01"));
+    assertThat(PresizedRLPEncoder.encode(RLPOutput::writeNull)).isEqualTo(RLP.NULL);
+  }
+
+  @Test
+  public void emptyList() {
+    assertThat(PresizedRLPEncoder.encode(RLPOutput::writeEmptyList)).isEqualTo(RLP.EMPTY_LIST);
+  }
+
+  @Test
+  public void matchesBytesValueRLPOutput_fuzz() {
+    final Random random = new Random(1);
+    for (int i = 0; i < 1000; ++i) {
+      final Bytes expected = RLPTestUtil.randomRLPValue(random.nextInt()).encoded();
+      final Object decoded = RLPTestUtil.decode(expected);
+
+      final PresizedRLPEncoder encoder =
+          PresizedRLPEncoder.of(out -> RLPTestUtil.encode(decoded, out));
+      assertThat(encoder.encodedSize()).isEqualTo(expected.size());
+      assertThat(encoder.encoded()).isEqualTo(expected);
+    }
+  }
+
+  @Test
+  public void longNestedLists() {
+    final Bytes longValue = Bytes.wrap(new byte[300]);
+    final BytesValueRLPOutput expected = new BytesValueRLPOutput();
+    expected.startList();
+    expected.writeBytes(longValue);
+    expected.startList();
+    expected.writeLongScalar(1234567L);
+    expected.writeRaw(RLP.encodeOne(longValue));
+    expected.endList();
+    expected.writeEmptyList();
+    expected.endList();
+
+    final Bytes encoded =
+        PresizedRLPEncoder.encode(
+            out -> {
+              out.startList();
+              out.writeBytes(longValue);
+              out.startList();
+              out.writeLongScalar(1234567L);
+              out.writeRaw(RLP.encodeOne(longValue));
+              out.endList();
+              out.writeEmptyList();
+              out.endList();
+            });
+    assertThat(encoded).isEqualTo(expected.encoded());
+  }
+
+  @Test
+  public void writeToArrayAtOffset() {
+    final Bytes value = Bytes.fromHexString("0x0102030405");
+    final PresizedRLPEncoder encoder =
+        PresizedRLPEncoder.of(
+            out -> out.writeList(List.of(value, value), (v, o) -> o.writeBytes(v)));
+
+    final byte[] dest = new byte[encoder.encodedSize() + 4];
+    final int end = encoder.writeTo(dest, 2);
+
+    assertThat(end).isEqualTo(2 + encoder.encodedSize());
+    assertThat(Bytes.wrap(dest, 2, encoder.encodedSize())).isEqualTo(encoder.encoded());
+    assertThat(dest[0]).isZero();
+    assertThat(dest[dest.length - 1]).isZero();
+  }
+
+  @Test
+  public void writeToByteBuffers() {
+    final Bytes value = Bytes.fromHexString("0x0102030405");
+    final PresizedRLPEncoder encoder =
+        PresizedRLPEncoder.of(
+            out -> {
+              out.startList();
+              out.writeBytes(value);
+              out.endList();
+            });
+
+    for (final ByteBuffer buffer :
+        new ByteBuffer[] {ByteBuffer.allocate(16), ByteBuffer.allocateDirect(16)}) {
+      buffer.position(3);
+      encoder.writeTo(buffer);
+      assertThat(buffer.position()).isEqualTo(3 + encoder.encodedSize());
+      assertThat(Bytes.wrapByteBuffer(buffer, 3, encoder.encodedSize()))
+          .isEqualTo(encoder.encoded());
+    }
+  }
+
+  @Test
+  public void writeToMutableBytes() {
+    final PresizedRLPEncoder encoder = PresizedRLPEncoder.of(out -> out.writeLongScalar(300L));
+    final MutableBytes dest = MutableBytes.create(encoder.encodedSize() + 1);
+
+    assertThat(encoder.writeTo(dest, 1)).isEqualTo(dest.size());
+    assertThat(dest.slice(1)).isEqualTo(encoder.encoded());
+  }
+
+  @Test
+  public void destinationTooSmall() {
+    final PresizedRLPEncoder encoder = PresizedRLPEncoder.of(out -> out.writeLongScalar(300L));
+
+    assertThatThrownBy(() -> encoder.writeTo(new byte[2], 0))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> encoder.writeTo(ByteBuffer.allocate(2)))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  public void unclosedList() {
+    assertThatThrownBy(() -> PresizedRLPEncoder.of(RLPOutput::startList))
+        .isInstanceOf(IllegalStateException.class);
+  }
+
+  @Test
+  public void nonDeterministicWriter() {
+    final AtomicInteger calls = new AtomicInteger();
+    final PresizedRLPEncoder encoder =
+        PresizedRLPEncoder.of(
+            out -> {
+              out.startList();
+              if (calls.getAndIncrement() == 0) {
+                out.writeByte((byte) 1);
+              }
+              out.endList();
+            });
+
+    assertThatThrownBy(encoder::encoded).isInstanceOf(IllegalStateException.class);
+  }
+
+  @Test
+  public void encodedBytesMatchEncodingThenWritingBytes() {
+    final Bytes longValue = Bytes.wrap(new byte[100]);
+    final List<Consumer<RLPOutput>> writers =
+        List.of(
+            out -> {},
+            out -> out.writeByte((byte) 0x01),
+            out -> out.writeByte((byte) 0x90),
+            RLPOutput::writeEmptyList,
+            out -> {
+              out.writeByte((byte) 0x02);
+              out.writeList(List.of(longValue, Bytes.of(1)), (value, o) -> o.writeBytes(value));
+            });
+    for (final Consumer<RLPOutput> writer : writers) {
+      final Consumer<RLPOutput> outer =
+          out -> {
+            out.startList();
+            out.writeEncodedBytes(writer);
+            out.writeLongScalar(7L);
+            out.endList();
+          };
+      assertThat(PresizedRLPEncoder.encode(outer)).isEqualTo(RLP.encode(outer));
+    }
+  }
+
+  @Test
+  public void encodeListOfSizedElements() {
+    final List<PresizedRLPEncoder> elements =
+        List.of(
+            PresizedRLPEncoder.of(out -> out.writeLongScalar(300L)),
+            PresizedRLPEncoder.of(out -> {}),
+            PresizedRLPEncoder.of(out -> out.writeBytes(Bytes.wrap(new byte[60]))));
+
+    assertThat(PresizedRLPEncoder.encodeList(elements))
+        .isEqualTo(
+            RLP.encode(
+                out -> {
+                  out.startList();
+                  out.writeLongScalar(300L);
+                  out.writeBytes(Bytes.wrap(new byte[60]));
+                  out.endList();
+                }));
+  }
+}
@@ -16,7 +16,7 @@ package org.hyperledger.besu.ethereum.trie.patricia;
 
 import static org.hyperledger.besu.crypto.Hash.keccak256;
 
-import org.hyperledger.besu.ethereum.rlp.BytesValueRLPOutput;
+import org.hyperledger.besu.ethereum.rlp.PresizedRLPEncoder;
 import org.hyperledger.besu.ethereum.rlp.RLP;
 import org.hyperledger.besu.ethereum.trie.LocationNodeVisitor;
 import org.hyperledger.besu.ethereum.trie.Node;
@@ -127,18 +127,22 @@ public class BranchNode<V> implements Node<V> {
         return encoded;
       }
     }
-    final BytesValueRLPOutput out = new BytesValueRLPOutput();
-    out.startList();
-    for (int i = 0; i < maxChild(); ++i) {
-      out.writeRaw(children.get(i).getEncodedBytesRef());
-    }
-    if (value.isPresent()) {
-      out.writeBytes(valueSerializer.apply(value.get()));
-    } else {
-      out.writeNull();
+    // Resolve children references once as the encoder walks them twice (sizing, then writing)
+    final Bytes[] childrenRefs = new Bytes[maxChild()];
+    for (int i = 0; i < childrenRefs.length; ++i) {
+      childrenRefs[i] = children.get(i).getEncodedBytesRef();
     }
-    out.endList();
-    final Bytes encoded = out.encoded();
+    final Bytes encodedValue = value.map(valueSerializer).orElse(Bytes.EMPTY);
+    final Bytes encoded =
+        PresizedRLPEncoder.encode(
+            out -> {
+              out.startList();
+              for (final Bytes childRef : childrenRefs) {
+                out.writeRaw(childRef);
+              }
+              out.writeBytes(encodedValue);
+              out.endList();
+            });
     encodedBytes = new WeakReference<>(encoded);
     return encoded;
   }
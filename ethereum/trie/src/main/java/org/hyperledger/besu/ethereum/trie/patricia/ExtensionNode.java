@@ -16,7 +16,7 @@ package org.hyperledger.besu.ethereum.trie.patricia;
 
 import static org.hyperledger.besu.crypto.Hash.keccak256;
 
-import org.hyperledger.besu.ethereum.rlp.BytesValueRLPOutput;
+import org.hyperledger.besu.ethereum.rlp.PresizedRLPEncoder;
 import org.hyperledger.besu.ethereum.rlp.RLP;
 import org.hyperledger.besu.ethereum.trie.CompactEncoding;
 import org.hyperledger.besu.ethereum.trie.LocationNodeVisitor;
@@ -116,12 +116,16 @@ public class ExtensionNode<V> implements Node<V> {
         return encoded;
       }
     }
-    final BytesValueRLPOutput out = new BytesValueRLPOutput();
-    out.startList();
-    out.writeBytes(CompactEncoding.encode(path));
-    out.writeRaw(child.getEncodedBytesRef());
-    out.endList();
-    final Bytes encoded = out.encoded();
+    final Bytes encodedPath = CompactEncoding.encode(path);
+    final Bytes childRef = child.getEncodedBytesRef();
+    final Bytes encoded =
+        PresizedRLPEncoder.encode(
+            out -> {
+              out.startList();
+              out.writeBytes(encodedPath);
+              out.writeRaw(childRef);
+              out.endList();
+            });
     rlp = new WeakReference<>(encoded);
     return encoded;
   }
@@ -44,6 +44,8 @@ public enum BesuMetricCategory implements MetricCategory {
   KVSTORE_ROCKSDB_STATS("rocksdb", false),
   /** Kvstore private rocksdb stats besu metric category. */
   KVSTORE_PRIVATE_ROCKSDB_STATS("private_rocksdb", false),
+  /** Kvstore segment besu metric category, for the instrumented storage segments. */
+  KVSTORE_SEGMENT("kvstore_segment"),
   /** Pruner besu metric category. */
   PRUNER("pruner"),
   /** Rpc besu metric category. */
@@ -0,0 +1,40 @@
+/*
+ * Copyright contributors to Hyperledger Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.plugin.services.storage;
+
+import org.hyperledger.besu.plugin.services.exception.StorageException;
+
+import java.nio.file.Path;
+
+/** A segmented key value storage able to create point in time checkpoints of all its segments. */
+public interface CheckpointableKeyValueStorage extends SegmentedKeyValueStorage {
+
+  /**
+   * Creates a consistent checkpoint of all the segments in a new directory, which can be opened
+   * as a storage on its own. Immutable storage files are hard linked rather than copied when the
+   * directory is on the same file system as the storage.
+   *
+   * @param checkpointDirectory the directory to create, which must not exist.
+   * @throws StorageException the storage exception
+   */
+  void createCheckpoint(Path checkpointDirectory) throws StorageException;
+
+  /**
+   * Gets the directory holding the files of the storage.
+   *
+   * @return the storage directory
+   */
+  Path getStoragePath();
+}
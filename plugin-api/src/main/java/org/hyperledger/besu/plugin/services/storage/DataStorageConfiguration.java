@@ -16,6 +16,9 @@ package org.hyperledger.besu.plugin.services.storage;
 
 import org.hyperledger.besu.plugin.Unstable;
 
+import java.nio.file.Path;
+import java.util.Optional;
+
 /** Data storage configuration */
 @Unstable
 public interface DataStorageConfiguration {
@@ -36,4 +39,15 @@ public interface DataStorageConfiguration {
    */
   @Unstable
   boolean getReceiptCompactionEnabled();
+
+  /**
+   * The data directory of the primary node whose database is followed, when the database is opened
+   * as a read only secondary instance.
+   *
+   * @return the data directory of the primary node, empty when the database is opened for writing
+   */
+  @Unstable
+  default Optional<Path> getPrimaryDataPath() {
+    return Optional.empty();
+  }
 }
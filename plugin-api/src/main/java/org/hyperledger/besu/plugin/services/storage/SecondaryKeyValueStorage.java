@@ -0,0 +1,32 @@
+/*
+ * Copyright contributors to Hyperledger Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.plugin.services.storage;
+
+import org.hyperledger.besu.plugin.services.exception.StorageException;
+
+/**
+ * A read only segmented key value storage following the storage of another process, which is the
+ * only one writing to it.
+ */
+public interface SecondaryKeyValueStorage extends SegmentedKeyValueStorage {
+
+  /**
+   * Makes the data written by the primary process since the last call visible to the readers of
+   * this storage.
+   *
+   * @throws StorageException the storage exception
+   */
+  void tryCatchUpWithPrimary() throws StorageException;
+}
@@ -17,8 +17,12 @@ package org.hyperledger.besu.plugin.services.storage;
 import org.hyperledger.besu.plugin.services.exception.StorageException;
 
 import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.stream.Stream;
 
@@ -38,6 +42,67 @@ public interface SegmentedKeyValueStorage extends Closeable {
    */
   Optional<byte[]> get(SegmentIdentifier segment, byte[] key) throws StorageException;
 
+  /**
+   * Get the value from the associated segment and key, and map it without keeping it.
+   *
+   * <p>Implementations may pass to {@code mapper} a view over a buffer that they own and reuse,
+   * which is only valid for the duration of the call. The mapper must therefore copy any part of
+   * the value it needs to keep. This allows callers that only need to inspect or decode the value
+   * to do so without allocating a copy of it.
+   *
+   * @param segment the segment
+   * @param key Index into persistent data repository.
+   * @param mapper the function to apply to the value, returning null maps to an empty result.
+   * @param <T> the type of the mapped value
+   * @return The mapped value persisted at the key index.
+   * @throws StorageException the storage exception
+   */
+  default <T> Optional<T> getAndMap(
+      final SegmentIdentifier segment, final byte[] key, final Function<Bytes, T> mapper)
+      throws StorageException {
+    return get(segment, key).map(value -> mapper.apply(Bytes.wrap(value)));
+  }
+
+  /**
+   * Get the values associated with several keys of the same segment in a single operation.
+   *
+   * <p>Implementations backed by a storage supporting batched reads should override {@link
+   * #multiGet(List, List)} so that lookups are not issued one by one.
+   *
+   * @param segment the segment
+   * @param keys the keys to look up.
+   * @return the values persisted at the keys, in the same order as the keys.
+   * @throws StorageException the storage exception
+   */
+  default List<Optional<byte[]>> multiGet(final SegmentIdentifier segment, final List<byte[]> keys)
+      throws StorageException {
+    return multiGet(Collections.nCopies(keys.size(), segment), keys);
+  }
+
+  /**
+   * Get the values associated with several keys, each one in its own segment, in a single
+   * operation.
+   *
+   * <p>The default implementation looks up the keys one by one.
+   *
+   * @param segments the segment of every key.
+   * @param keys the keys to look up.
+   * @return the values persisted at the keys, in the same order as the keys.
+   * @throws StorageException the storage exception
+   */
+  default List<Optional<byte[]>> multiGet(
+      final List<SegmentIdentifier> segments, final List<byte[]> keys) throws StorageException {
+    if (segments.size() != keys.size()) {
+      throw new IllegalArgumentException(
+          "Expected one segment per key, got " + segments.size() + " for " + keys.size());
+    }
+    final List<Optional<byte[]>> values = new ArrayList<>(keys.size());
+    for (int i = 0; i < keys.size(); i++) {
+      values.add(get(segments.get(i), keys.get(i)));
+    }
+    return values;
+  }
+
   /**
    * Finds the key and corresponding value that is "nearest before" the specified key. "Nearest
    * before" is defined as the closest key that is either exactly matching the supplied key or
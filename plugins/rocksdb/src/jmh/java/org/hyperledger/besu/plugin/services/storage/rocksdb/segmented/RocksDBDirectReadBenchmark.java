@@ -0,0 +1,129 @@
+/*
+ * Copyright contributors to Hyperledger Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.plugin.services.storage.rocksdb.segmented;
+
+import static org.hyperledger.besu.ethereum.storage.keyvalue.KeyValueSegmentIdentifier.ACCOUNT_INFO_STATE;
+import static org.hyperledger.besu.ethereum.storage.keyvalue.KeyValueSegmentIdentifier.DEFAULT;
+
+import org.hyperledger.besu.datatypes.Hash;
+import org.hyperledger.besu.datatypes.Wei;
+import org.hyperledger.besu.ethereum.rlp.RLP;
+import org.hyperledger.besu.ethereum.worldstate.StateTrieAccountValue;
+import org.hyperledger.besu.metrics.noop.NoOpMetricsSystem;
+import org.hyperledger.besu.plugin.services.storage.SegmentedKeyValueStorage;
+import org.hyperledger.besu.plugin.services.storage.SegmentedKeyValueStorageTransaction;
+import org.hyperledger.besu.plugin.services.storage.rocksdb.RocksDBMetricsFactory;
+import org.hyperledger.besu.plugin.services.storage.rocksdb.configuration.RocksDBConfigurationBuilder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.bytes.Bytes32;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Compares reading flat accounts through newly allocated arrays with reading them through reused
+ * direct buffers. Allocation rates are best compared with the GC profiler, e.g. {@code -prof gc}
+ * and its {@code gc.alloc.rate.norm} metric.
+ */
+@State(Scope.Thread)
+public class RocksDBDirectReadBenchmark {
+
+  private static final int ACCOUNT_COUNT = 100_000;
+
+  @Param({"false", "true"})
+  public boolean directReads;
+
+  private Path databaseDir;
+  private SegmentedKeyValueStorage storage;
+  private byte[][] accountKeys;
+  private int nextAccount;
+
+  @Setup(Level.Trial)
+  public void prepare() throws IOException {
+    databaseDir = Files.createTempDirectory("directReadBenchmark");
+    storage =
+        new OptimisticRocksDBColumnarKeyValueStorage(
+            new RocksDBConfigurationBuilder()
+                .databaseDir(databaseDir)
+                .isDirectReadsEnabled(directReads)
+                .build(),
+            List.of(DEFAULT, ACCOUNT_INFO_STATE),
+            List.of(),
+            new NoOpMetricsSystem(),
+            RocksDBMetricsFactory.PUBLIC_ROCKS_DB_METRICS);
+
+    final Random random = new Random(42);
+    accountKeys = new byte[ACCOUNT_COUNT][];
+    final SegmentedKeyValueStorageTransaction tx = storage.startTransaction();
+    for (int i = 0; i < ACCOUNT_COUNT; i++) {
+      accountKeys[i] = Bytes32.random(random).toArrayUnsafe();
+      final StateTrieAccountValue account =
+          new StateTrieAccountValue(
+              random.nextInt(1000),
+              Wei.of(random.nextLong() & Long.MAX_VALUE),
+              Hash.wrap(Bytes32.random(random)),
+              Hash.wrap(Bytes32.random(random)));
+      tx.put(ACCOUNT_INFO_STATE, accountKeys[i], RLP.encode(account::writeTo).toArrayUnsafe());
+    }
+    tx.commit();
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws IOException {
+    storage.close();
+    try (var paths = Files.walk(databaseDir)) {
+      paths.sorted((a, b) -> b.compareTo(a)).forEach(path -> path.toFile().delete());
+    }
+  }
+
+  private byte[] nextAccountKey() {
+    nextAccount = (nextAccount + 1) % ACCOUNT_COUNT;
+    return accountKeys[nextAccount];
+  }
+
+  /** Baseline: the value is copied to a new array, wrapped and then decoded. */
+  @Benchmark
+  public Optional<Long> readAccountNonce() {
+    return storage
+        .get(ACCOUNT_INFO_STATE, nextAccountKey())
+        .map(value -> StateTrieAccountValue.readFrom(RLP.input(Bytes.wrap(value))).getNonce());
+  }
+
+  /** The value is decoded from a view over the storage buffer when direct reads are enabled. */
+  @Benchmark
+  public Optional<Long> readAccountNonceInPlace() {
+    return storage.getAndMap(
+        ACCOUNT_INFO_STATE,
+        nextAccountKey(),
+        value -> StateTrieAccountValue.readFrom(RLP.input(value)).getNonce());
+  }
+
+  @Benchmark
+  public boolean containsAccount() {
+    return storage.containsKey(ACCOUNT_INFO_STATE, nextAccountKey());
+  }
+}
@@ -34,6 +34,7 @@ import org.hyperledger.besu.plugin.services.storage.rocksdb.configuration.RocksD
 import org.hyperledger.besu.plugin.services.storage.rocksdb.configuration.VersionedStorageFormat;
 import org.hyperledger.besu.plugin.services.storage.rocksdb.segmented.OptimisticRocksDBColumnarKeyValueStorage;
 import org.hyperledger.besu.plugin.services.storage.rocksdb.segmented.RocksDBColumnarKeyValueStorage;
+import org.hyperledger.besu.plugin.services.storage.rocksdb.segmented.SecondaryRocksDBColumnarKeyValueStorage;
 import org.hyperledger.besu.plugin.services.storage.rocksdb.segmented.TransactionDBRocksDBColumnarKeyValueStorage;
 import org.hyperledger.besu.services.kvstore.SegmentedKeyValueStorageAdapter;
 
@@ -145,6 +146,21 @@ public class RocksDBKeyValueStorageFactory implements KeyValueStorageFactory {
                           databaseMetadata.getVersionedStorageFormat().getFormat()))
               .toList();
 
+      if (commonConfiguration.getDataStorageConfiguration().getPrimaryDataPath().isPresent()) {
+        LOG.info(
+            "Opening the database at {} as a read only secondary instance.",
+            rocksDBConfiguration.getDatabaseDir());
+        segmentedStorage =
+            new SecondaryRocksDBColumnarKeyValueStorage(
+                rocksDBConfiguration,
+                storagePath(commonConfiguration),
+                segmentsForFormat,
+                ignorableSegments,
+                metricsSystem,
+                rocksDBMetricsFactory);
+        return segmentedStorage;
+      }
+
       // It's probably a good idea for the creation logic to be entirely dependent on the database
       // version. Introducing intermediate booleans that represent database properties and
       // dispatching
@@ -186,8 +202,13 @@ public class RocksDBKeyValueStorageFactory implements KeyValueStorageFactory {
   }
 
   private void init(final BesuConfiguration commonConfiguration) {
+    final Optional<Path> primaryDataPath =
+        commonConfiguration.getDataStorageConfiguration().getPrimaryDataPath();
     try {
-      databaseMetadata = readDatabaseMetadata(commonConfiguration);
+      databaseMetadata =
+          primaryDataPath.isPresent()
+              ? readPrimaryDatabaseMetadata(commonConfiguration, primaryDataPath.get())
+              : readDatabaseMetadata(commonConfiguration);
     } catch (final IOException e) {
       final String message =
           "Failed to retrieve the RocksDB database meta version: "
@@ -197,10 +218,27 @@ public class RocksDBKeyValueStorageFactory implements KeyValueStorageFactory {
     }
     rocksDBConfiguration =
         RocksDBConfigurationBuilder.from(configuration.get())
-            .databaseDir(storagePath(commonConfiguration))
+            .databaseDir(
+                primaryDataPath
+                    .map(path -> primaryStoragePath(commonConfiguration, path))
+                    .orElseGet(() -> storagePath(commonConfiguration)))
             .build();
   }
 
+  /**
+   * The storage path of the primary node, laid out under its data directory like the storage path
+   * of this node is under its own.
+   *
+   * @param commonConfiguration the common configuration
+   * @param primaryDataPath the data directory of the primary node
+   * @return the path
+   */
+  private Path primaryStoragePath(
+      final BesuConfiguration commonConfiguration, final Path primaryDataPath) {
+    return primaryDataPath.resolve(
+        commonConfiguration.getDataPath().relativize(storagePath(commonConfiguration)));
+  }
+
   private boolean requiresInit() {
     return segmentedStorage == null;
   }
@@ -268,6 +306,30 @@ public class RocksDBKeyValueStorageFactory implements KeyValueStorageFactory {
     return metadata;
   }
 
+  private DatabaseMetadata readPrimaryDatabaseMetadata(
+      final BesuConfiguration commonConfiguration, final Path primaryDataPath) throws IOException {
+    if (!DatabaseMetadata.isPresent(primaryDataPath)) {
+      throw new StorageException(
+          "Database metadata file not found in the primary data directory " + primaryDataPath);
+    }
+    // the metadata belongs to the primary, so it is never upgraded or downgraded from here
+    final DatabaseMetadata metadata = DatabaseMetadata.lookUpFrom(primaryDataPath);
+    if (!metadata
+        .getVersionedStorageFormat()
+        .getFormat()
+        .equals(commonConfiguration.getDataStorageConfiguration().getDatabaseFormat())) {
+      handleFormatMismatch(commonConfiguration, primaryDataPath, metadata);
+    }
+    if (!isSupportedVersionedFormat(metadata.getVersionedStorageFormat())) {
+      final String message = "Unsupported RocksDB metadata: " + metadata;
+      LOG.error(message);
+      throw new StorageException(message);
+    }
+    Files.createDirectories(storagePath(commonConfiguration));
+    LOG.info("Existing primary database at {}. Metadata {}.", primaryDataPath, metadata);
+    return metadata;
+  }
+
   private static void handleFormatMismatch(
       final BesuConfiguration commonConfiguration,
       final Path dataDir,
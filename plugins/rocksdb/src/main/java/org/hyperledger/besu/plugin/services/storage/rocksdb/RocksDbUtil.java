@@ -16,6 +16,10 @@ package org.hyperledger.besu.plugin.services.storage.rocksdb;
 
 import org.hyperledger.besu.util.InvalidConfigurationException;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
 import org.rocksdb.RocksDB;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -40,4 +44,18 @@ public class RocksDbUtil {
       }
     }
   }
+
+  /**
+   * Wraps the values returned by a RocksDB multiGet, where missing keys are null, in optionals.
+   *
+   * @param values the values returned by RocksDB
+   * @return the optional values, in the same order
+   */
+  public static List<Optional<byte[]>> wrapMultiGetResults(final List<byte[]> values) {
+    final List<Optional<byte[]>> result = new ArrayList<>(values.size());
+    for (final byte[] value : values) {
+      result.add(Optional.ofNullable(value));
+    }
+    return result;
+  }
 }
@@ -14,6 +14,9 @@
  */
 package org.hyperledger.besu.plugin.services.storage.rocksdb.configuration;
 
+import java.util.HashMap;
+import java.util.Map;
+
 import com.google.common.base.MoreObjects;
 import picocli.CommandLine;
 
@@ -32,6 +35,24 @@ public class RocksDBCLIOptions {
   /** The constant DEFAULT_IS_HIGH_SPEC. */
   public static final boolean DEFAULT_IS_HIGH_SPEC = false;
 
+  /** The constant DEFAULT_IS_DIRECT_READS_ENABLED. */
+  public static final boolean DEFAULT_IS_DIRECT_READS_ENABLED = false;
+
+  /** The constant DEFAULT_IS_SEGMENT_PROFILES_ENABLED. */
+  public static final boolean DEFAULT_IS_SEGMENT_PROFILES_ENABLED = false;
+
+  /** The constant DEFAULT_IS_GROUP_COMMIT_ENABLED. */
+  public static final boolean DEFAULT_IS_GROUP_COMMIT_ENABLED = false;
+
+  /** The constant DEFAULT_WRITE_DURABILITY. */
+  public static final RocksDBWriteDurability DEFAULT_WRITE_DURABILITY = RocksDBWriteDurability.WAL;
+
+  /** The constant DEFAULT_SEGMENT_PROFILES, the profiles of the segments used by Besu. */
+  public static final String DEFAULT_SEGMENT_PROFILES =
+      "WORLD_STATE=TRIE,TRIE_BRANCH_STORAGE=TRIE,ACCOUNT_INFO_STATE=FLAT_ACCOUNT,"
+          + "ACCOUNT_STORAGE_STORAGE=FLAT_STORAGE,CODE_STORAGE=CODE,"
+          + "BLOCKCHAIN=CHAIN_DATA,TRIE_LOG_STORAGE=BLOCK_DATA";
+
   /** The constant MAX_OPEN_FILES_FLAG. */
   public static final String MAX_OPEN_FILES_FLAG = "--Xplugin-rocksdb-max-open-files";
 
@@ -45,6 +66,25 @@ public class RocksDBCLIOptions {
   /** The constant IS_HIGH_SPEC. */
   public static final String IS_HIGH_SPEC = "--Xplugin-rocksdb-high-spec-enabled";
 
+  /** The constant DIRECT_READS_ENABLED_FLAG. */
+  public static final String DIRECT_READS_ENABLED_FLAG = "--Xplugin-rocksdb-direct-reads-enabled";
+
+  /** The constant SEGMENT_PROFILES_ENABLED_FLAG. */
+  public static final String SEGMENT_PROFILES_ENABLED_FLAG =
+      "--Xplugin-rocksdb-segment-profiles-enabled";
+
+  /** The constant SEGMENT_PROFILES_FLAG. */
+  public static final String SEGMENT_PROFILES_FLAG = "--Xplugin-rocksdb-segment-profiles";
+
+  /** The constant BLOCK_CACHE_SHARES_FLAG. */
+  public static final String BLOCK_CACHE_SHARES_FLAG = "--Xplugin-rocksdb-block-cache-shares";
+
+  /** The constant GROUP_COMMIT_ENABLED_FLAG. */
+  public static final String GROUP_COMMIT_ENABLED_FLAG = "--Xplugin-rocksdb-group-commit-enabled";
+
+  /** The constant WRITE_DURABILITY_FLAG. */
+  public static final String WRITE_DURABILITY_FLAG = "--Xplugin-rocksdb-write-durability";
+
   /** The Max open files. */
   @CommandLine.Option(
       names = {MAX_OPEN_FILES_FLAG},
@@ -81,6 +121,63 @@ public class RocksDBCLIOptions {
           "Use this flag to boost Besu performance if you have a 16 GiB RAM hardware or more (default: ${DEFAULT-VALUE})")
   boolean isHighSpec;
 
+  /** Whether values are read through direct buffers. */
+  @CommandLine.Option(
+      names = {DIRECT_READS_ENABLED_FLAG},
+      hidden = true,
+      paramLabel = "<BOOLEAN>",
+      description =
+          "Read values from RocksDB into reusable direct buffers instead of newly allocated arrays (default: ${DEFAULT-VALUE})")
+  boolean isDirectReadsEnabled = DEFAULT_IS_DIRECT_READS_ENABLED;
+
+  /** Whether segments are tuned with profiles sharing a partitioned block cache. */
+  @CommandLine.Option(
+      names = {SEGMENT_PROFILES_ENABLED_FLAG},
+      hidden = true,
+      paramLabel = "<BOOLEAN>",
+      description =
+          "Tune each column family with its profile, and split the cache capacity between the profiles instead of giving it to every column family (default: ${DEFAULT-VALUE})")
+  boolean isSegmentProfilesEnabled = DEFAULT_IS_SEGMENT_PROFILES_ENABLED;
+
+  /** The profile of the segments. */
+  @CommandLine.Option(
+      names = {SEGMENT_PROFILES_FLAG},
+      hidden = true,
+      split = ",",
+      defaultValue = DEFAULT_SEGMENT_PROFILES,
+      paramLabel = "<SEGMENT=PROFILE>",
+      description =
+          "Tuning profile of the segments, segments not listed use the DEFAULT profile. Valid profiles: ${COMPLETION-CANDIDATES} (default: ${DEFAULT-VALUE})")
+  Map<String, RocksDBSegmentProfile> segmentProfiles = new HashMap<>();
+
+  /** The share of the block cache of the profiles. */
+  @CommandLine.Option(
+      names = {BLOCK_CACHE_SHARES_FLAG},
+      hidden = true,
+      split = ",",
+      paramLabel = "<PROFILE=SHARE>",
+      description =
+          "Share of the block cache capacity given to the profiles, relative to the other profiles in use. Profiles not listed use their default share")
+  Map<RocksDBSegmentProfile, Integer> blockCacheShares = new HashMap<>();
+
+  /** Whether commits are written in groups by a background thread. */
+  @CommandLine.Option(
+      names = {GROUP_COMMIT_ENABLED_FLAG},
+      hidden = true,
+      paramLabel = "<BOOLEAN>",
+      description =
+          "Write committed transactions to RocksDB from a background thread, coalescing consecutive commits into a single write batch. Committed data stays readable while it is being written (default: ${DEFAULT-VALUE})")
+  boolean isGroupCommitEnabled = DEFAULT_IS_GROUP_COMMIT_ENABLED;
+
+  /** The durability of the writes. */
+  @CommandLine.Option(
+      names = {WRITE_DURABILITY_FLAG},
+      hidden = true,
+      paramLabel = "<DURABILITY>",
+      description =
+          "Durability of the writes, WAL only appends them to the write ahead log while SYNC also syncs it. Possible values are ${COMPLETION-CANDIDATES} (default: ${DEFAULT-VALUE})")
+  RocksDBWriteDurability writeDurability = DEFAULT_WRITE_DURABILITY;
+
   private RocksDBCLIOptions() {}
 
   /**
@@ -104,6 +201,12 @@ public class RocksDBCLIOptions {
     options.cacheCapacity = config.getCacheCapacity();
     options.backgroundThreadCount = config.getBackgroundThreadCount();
     options.isHighSpec = config.isHighSpec();
+    options.isDirectReadsEnabled = config.isDirectReadsEnabled();
+    options.isSegmentProfilesEnabled = config.getSegmentTuning().isEnabled();
+    options.segmentProfiles = new HashMap<>(config.getSegmentTuning().getProfilesBySegmentName());
+    options.blockCacheShares = new HashMap<>(config.getSegmentTuning().getCacheShares());
+    options.isGroupCommitEnabled = config.isGroupCommitEnabled();
+    options.writeDurability = config.getWriteDurability();
     return options;
   }
 
@@ -114,7 +217,14 @@ public class RocksDBCLIOptions {
    */
   public RocksDBFactoryConfiguration toDomainObject() {
     return new RocksDBFactoryConfiguration(
-        maxOpenFiles, backgroundThreadCount, cacheCapacity, isHighSpec);
+        maxOpenFiles,
+        backgroundThreadCount,
+        cacheCapacity,
+        isHighSpec,
+        isDirectReadsEnabled,
+        new RocksDBSegmentTuning(isSegmentProfilesEnabled, segmentProfiles, blockCacheShares),
+        isGroupCommitEnabled,
+        writeDurability);
   }
 
   /**
@@ -133,6 +243,12 @@ public class RocksDBCLIOptions {
         .add("cacheCapacity", cacheCapacity)
         .add("backgroundThreadCount", backgroundThreadCount)
         .add("isHighSpec", isHighSpec)
+        .add("isDirectReadsEnabled", isDirectReadsEnabled)
+        .add("isSegmentProfilesEnabled", isSegmentProfilesEnabled)
+        .add("segmentProfiles", segmentProfiles)
+        .add("blockCacheShares", blockCacheShares)
+        .add("isGroupCommitEnabled", isGroupCommitEnabled)
+        .add("writeDurability", writeDurability)
         .toString();
   }
 }
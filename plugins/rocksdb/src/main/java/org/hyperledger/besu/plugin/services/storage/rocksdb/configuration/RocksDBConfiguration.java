@@ -25,6 +25,10 @@ public class RocksDBConfiguration {
   private final int backgroundThreadCount;
   private final long cacheCapacity;
   private final boolean isHighSpec;
+  private final boolean isDirectReadsEnabled;
+  private final RocksDBSegmentTuning segmentTuning;
+  private final boolean isGroupCommitEnabled;
+  private final RocksDBWriteDurability writeDurability;
 
   /**
    * Instantiates a new RocksDb configuration.
@@ -35,6 +39,10 @@ public class RocksDBConfiguration {
    * @param cacheCapacity the cache capacity
    * @param label the label
    * @param isHighSpec the is high spec
+   * @param isDirectReadsEnabled whether values are read through direct buffers
+   * @param segmentTuning the tuning profiles of the segments
+   * @param isGroupCommitEnabled whether commits are written in groups by a background thread
+   * @param writeDurability the durability of the writes
    */
   public RocksDBConfiguration(
       final Path databaseDir,
@@ -42,13 +50,21 @@ public class RocksDBConfiguration {
       final int backgroundThreadCount,
       final long cacheCapacity,
       final String label,
-      final boolean isHighSpec) {
+      final boolean isHighSpec,
+      final boolean isDirectReadsEnabled,
+      final RocksDBSegmentTuning segmentTuning,
+      final boolean isGroupCommitEnabled,
+      final RocksDBWriteDurability writeDurability) {
     this.backgroundThreadCount = backgroundThreadCount;
     this.databaseDir = databaseDir;
     this.maxOpenFiles = maxOpenFiles;
     this.cacheCapacity = cacheCapacity;
     this.label = label;
     this.isHighSpec = isHighSpec;
+    this.isDirectReadsEnabled = isDirectReadsEnabled;
+    this.segmentTuning = segmentTuning;
+    this.isGroupCommitEnabled = isGroupCommitEnabled;
+    this.writeDurability = writeDurability;
   }
 
   /**
@@ -104,4 +120,40 @@ public class RocksDBConfiguration {
   public boolean isHighSpec() {
     return isHighSpec;
   }
+
+  /**
+   * Is direct reads enabled.
+   *
+   * @return the boolean
+   */
+  public boolean isDirectReadsEnabled() {
+    return isDirectReadsEnabled;
+  }
+
+  /**
+   * Gets the tuning profiles of the segments.
+   *
+   * @return the segment tuning
+   */
+  public RocksDBSegmentTuning getSegmentTuning() {
+    return segmentTuning;
+  }
+
+  /**
+   * Is group commit enabled.
+   *
+   * @return the boolean
+   */
+  public boolean isGroupCommitEnabled() {
+    return isGroupCommitEnabled;
+  }
+
+  /**
+   * Gets the durability of the writes.
+   *
+   * @return the write durability
+   */
+  public RocksDBWriteDurability getWriteDurability() {
+    return writeDurability;
+  }
 }
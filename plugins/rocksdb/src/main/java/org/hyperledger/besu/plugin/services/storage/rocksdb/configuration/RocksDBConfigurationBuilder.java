@@ -16,8 +16,11 @@ package org.hyperledger.besu.plugin.services.storage.rocksdb.configuration;
 
 import static org.hyperledger.besu.plugin.services.storage.rocksdb.configuration.RocksDBCLIOptions.DEFAULT_BACKGROUND_THREAD_COUNT;
 import static org.hyperledger.besu.plugin.services.storage.rocksdb.configuration.RocksDBCLIOptions.DEFAULT_CACHE_CAPACITY;
+import static org.hyperledger.besu.plugin.services.storage.rocksdb.configuration.RocksDBCLIOptions.DEFAULT_IS_DIRECT_READS_ENABLED;
+import static org.hyperledger.besu.plugin.services.storage.rocksdb.configuration.RocksDBCLIOptions.DEFAULT_IS_GROUP_COMMIT_ENABLED;
 import static org.hyperledger.besu.plugin.services.storage.rocksdb.configuration.RocksDBCLIOptions.DEFAULT_IS_HIGH_SPEC;
 import static org.hyperledger.besu.plugin.services.storage.rocksdb.configuration.RocksDBCLIOptions.DEFAULT_MAX_OPEN_FILES;
+import static org.hyperledger.besu.plugin.services.storage.rocksdb.configuration.RocksDBCLIOptions.DEFAULT_WRITE_DURABILITY;
 
 import java.nio.file.Path;
 
@@ -30,6 +33,10 @@ public class RocksDBConfigurationBuilder {
   private long cacheCapacity = DEFAULT_CACHE_CAPACITY;
   private int backgroundThreadCount = DEFAULT_BACKGROUND_THREAD_COUNT;
   private boolean isHighSpec = DEFAULT_IS_HIGH_SPEC;
+  private boolean isDirectReadsEnabled = DEFAULT_IS_DIRECT_READS_ENABLED;
+  private RocksDBSegmentTuning segmentTuning = RocksDBSegmentTuning.DISABLED;
+  private boolean isGroupCommitEnabled = DEFAULT_IS_GROUP_COMMIT_ENABLED;
+  private RocksDBWriteDurability writeDurability = DEFAULT_WRITE_DURABILITY;
 
   /** Instantiates a new Rocks db configuration builder. */
   public RocksDBConfigurationBuilder() {}
@@ -100,6 +107,50 @@ public class RocksDBConfigurationBuilder {
     return this;
   }
 
+  /**
+   * Is direct reads enabled.
+   *
+   * @param isDirectReadsEnabled whether values are read through direct buffers
+   * @return the rocks db configuration builder
+   */
+  public RocksDBConfigurationBuilder isDirectReadsEnabled(final boolean isDirectReadsEnabled) {
+    this.isDirectReadsEnabled = isDirectReadsEnabled;
+    return this;
+  }
+
+  /**
+   * Segment tuning.
+   *
+   * @param segmentTuning the tuning profiles of the segments
+   * @return the rocks db configuration builder
+   */
+  public RocksDBConfigurationBuilder segmentTuning(final RocksDBSegmentTuning segmentTuning) {
+    this.segmentTuning = segmentTuning;
+    return this;
+  }
+
+  /**
+   * Is group commit enabled.
+   *
+   * @param isGroupCommitEnabled whether commits are written in groups by a background thread
+   * @return the rocks db configuration builder
+   */
+  public RocksDBConfigurationBuilder isGroupCommitEnabled(final boolean isGroupCommitEnabled) {
+    this.isGroupCommitEnabled = isGroupCommitEnabled;
+    return this;
+  }
+
+  /**
+   * Write durability.
+   *
+   * @param writeDurability the durability of the writes
+   * @return the rocks db configuration builder
+   */
+  public RocksDBConfigurationBuilder writeDurability(final RocksDBWriteDurability writeDurability) {
+    this.writeDurability = writeDurability;
+    return this;
+  }
+
   /**
    * From.
    *
@@ -111,7 +162,11 @@ public class RocksDBConfigurationBuilder {
         .backgroundThreadCount(configuration.getBackgroundThreadCount())
         .cacheCapacity(configuration.getCacheCapacity())
         .maxOpenFiles(configuration.getMaxOpenFiles())
-        .isHighSpec(configuration.isHighSpec());
+        .isHighSpec(configuration.isHighSpec())
+        .isDirectReadsEnabled(configuration.isDirectReadsEnabled())
+        .segmentTuning(configuration.getSegmentTuning())
+        .isGroupCommitEnabled(configuration.isGroupCommitEnabled())
+        .writeDurability(configuration.getWriteDurability());
   }
 
   /**
@@ -121,6 +176,15 @@ public class RocksDBConfigurationBuilder {
    */
   public RocksDBConfiguration build() {
     return new RocksDBConfiguration(
-        databaseDir, maxOpenFiles, backgroundThreadCount, cacheCapacity, label, isHighSpec);
+        databaseDir,
+        maxOpenFiles,
+        backgroundThreadCount,
+        cacheCapacity,
+        label,
+        isHighSpec,
+        isDirectReadsEnabled,
+        segmentTuning,
+        isGroupCommitEnabled,
+        writeDurability);
   }
 }
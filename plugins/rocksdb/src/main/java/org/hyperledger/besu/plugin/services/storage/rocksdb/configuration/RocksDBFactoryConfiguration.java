@@ -21,6 +21,10 @@ public class RocksDBFactoryConfiguration {
   private final int backgroundThreadCount;
   private final long cacheCapacity;
   private final boolean isHighSpec;
+  private final boolean isDirectReadsEnabled;
+  private final RocksDBSegmentTuning segmentTuning;
+  private final boolean isGroupCommitEnabled;
+  private final RocksDBWriteDurability writeDurability;
 
   /**
    * Instantiates a new RocksDb factory configuration.
@@ -35,10 +39,46 @@ public class RocksDBFactoryConfiguration {
       final int backgroundThreadCount,
       final long cacheCapacity,
       final boolean isHighSpec) {
+    this(
+        maxOpenFiles,
+        backgroundThreadCount,
+        cacheCapacity,
+        isHighSpec,
+        RocksDBCLIOptions.DEFAULT_IS_DIRECT_READS_ENABLED,
+        RocksDBSegmentTuning.DISABLED,
+        RocksDBCLIOptions.DEFAULT_IS_GROUP_COMMIT_ENABLED,
+        RocksDBCLIOptions.DEFAULT_WRITE_DURABILITY);
+  }
+
+  /**
+   * Instantiates a new RocksDb factory configuration.
+   *
+   * @param maxOpenFiles the max open files
+   * @param backgroundThreadCount the background thread count
+   * @param cacheCapacity the cache capacity
+   * @param isHighSpec the is high spec
+   * @param isDirectReadsEnabled whether values are read through direct buffers
+   * @param segmentTuning the tuning profiles of the segments
+   * @param isGroupCommitEnabled whether commits are written in groups by a background thread
+   * @param writeDurability the durability of the writes
+   */
+  public RocksDBFactoryConfiguration(
+      final int maxOpenFiles,
+      final int backgroundThreadCount,
+      final long cacheCapacity,
+      final boolean isHighSpec,
+      final boolean isDirectReadsEnabled,
+      final RocksDBSegmentTuning segmentTuning,
+      final boolean isGroupCommitEnabled,
+      final RocksDBWriteDurability writeDurability) {
     this.backgroundThreadCount = backgroundThreadCount;
     this.maxOpenFiles = maxOpenFiles;
     this.cacheCapacity = cacheCapacity;
     this.isHighSpec = isHighSpec;
+    this.isDirectReadsEnabled = isDirectReadsEnabled;
+    this.segmentTuning = segmentTuning;
+    this.isGroupCommitEnabled = isGroupCommitEnabled;
+    this.writeDurability = writeDurability;
   }
 
   /**
@@ -76,4 +116,40 @@ public class RocksDBFactoryConfiguration {
   public boolean isHighSpec() {
     return isHighSpec;
   }
+
+  /**
+   * Is direct reads enabled.
+   *
+   * @return the boolean
+   */
+  public boolean isDirectReadsEnabled() {
+    return isDirectReadsEnabled;
+  }
+
+  /**
+   * Gets the tuning profiles of the segments.
+   *
+   * @return the segment tuning
+   */
+  public RocksDBSegmentTuning getSegmentTuning() {
+    return segmentTuning;
+  }
+
+  /**
+   * Is group commit enabled.
+   *
+   * @return the boolean
+   */
+  public boolean isGroupCommitEnabled() {
+    return isGroupCommitEnabled;
+  }
+
+  /**
+   * Gets the durability of the writes.
+   *
+   * @return the write durability
+   */
+  public RocksDBWriteDurability getWriteDurability() {
+    return writeDurability;
+  }
 }
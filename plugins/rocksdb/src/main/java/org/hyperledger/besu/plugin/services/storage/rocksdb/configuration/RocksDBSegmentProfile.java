@@ -0,0 +1,254 @@
+/*
+ * Copyright contributors to Hyperledger Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.plugin.services.storage.rocksdb.configuration;
+
+import java.util.List;
+
+import org.rocksdb.CompressionType;
+
+/**
+ * Named tuning profiles for the column families, each one suited to the access pattern of the
+ * segments it is applied to.
+ */
+public enum RocksDBSegmentProfile {
+  /** The options applied to every column family when no profile is configured. */
+  DEFAULT(
+      32_768,
+      10,
+      0,
+      CompressionType.LZ4_COMPRESSION,
+      CompressionType.LZ4_COMPRESSION,
+      false,
+      true,
+      false,
+      10),
+
+  /**
+   * Trie nodes, read by location while walking the trie. Nodes are small and read randomly, so
+   * blocks are smaller and index and filter blocks are always kept in memory.
+   */
+  TRIE(
+      16_384,
+      10,
+      0,
+      CompressionType.LZ4_COMPRESSION,
+      CompressionType.LZ4_COMPRESSION,
+      false,
+      true,
+      false,
+      40),
+
+  /**
+   * Flat accounts, a point lookup for every account accessed, which often misses. Small
+   * uncompressed blocks in the upper levels keep lookups cheap.
+   */
+  FLAT_ACCOUNT(
+      4_096,
+      10,
+      0,
+      CompressionType.NO_COMPRESSION,
+      CompressionType.LZ4_COMPRESSION,
+      false,
+      true,
+      false,
+      20),
+
+  /**
+   * Flat storage slots, keyed by account hash then slot hash. On top of the flat account options,
+   * a prefix extractor on the account hash lets range reads within an account skip the data of
+   * other accounts.
+   */
+  FLAT_STORAGE(
+      4_096,
+      10,
+      32,
+      CompressionType.NO_COMPRESSION,
+      CompressionType.LZ4_COMPRESSION,
+      false,
+      true,
+      false,
+      20),
+
+  /** Contract code, written once and read whole. Large values are stored in blob files. */
+  CODE(
+      32_768,
+      10,
+      0,
+      CompressionType.LZ4_COMPRESSION,
+      CompressionType.LZ4_COMPRESSION,
+      true,
+      false,
+      true,
+      5),
+
+  /**
+   * The chain, block headers, bodies and receipts next to the chain indexes such as the canonical
+   * hashes and the transaction locations. Values are large and old data is rarely read, as for
+   * block data, but lookups of unknown transactions and blocks miss, so filters are kept on every
+   * level.
+   */
+  CHAIN_DATA(
+      65_536,
+      10,
+      0,
+      CompressionType.LZ4_COMPRESSION,
+      CompressionType.ZSTD_COMPRESSION,
+      true,
+      false,
+      false,
+      5),
+
+  /**
+   * Append only block data, such as trie logs. Lookups almost always hit, values are large and old
+   * data is rarely read, so blocks are large, values go to blob files and the bottommost level is
+   * compressed harder.
+   */
+  BLOCK_DATA(
+      65_536,
+      10,
+      0,
+      CompressionType.LZ4_COMPRESSION,
+      CompressionType.ZSTD_COMPRESSION,
+      true,
+      false,
+      true,
+      5);
+
+  private static final int NUMBER_OF_LEVELS = 7;
+  private static final int UNCOMPRESSED_LEVELS = 2;
+
+  /** Minimum size of the values stored in blob files. */
+  public static final long MIN_BLOB_SIZE = 100;
+
+  private final long blockSize;
+  private final int bloomBitsPerKey;
+  private final int prefixLength;
+  private final CompressionType upperLevelsCompression;
+  private final CompressionType bottommostCompression;
+  private final boolean blobFilesEnabled;
+  private final boolean pinIndexAndFilterBlocks;
+  private final boolean optimizeFiltersForHits;
+  private final int defaultCacheShare;
+
+  RocksDBSegmentProfile(
+      final long blockSize,
+      final int bloomBitsPerKey,
+      final int prefixLength,
+      final CompressionType upperLevelsCompression,
+      final CompressionType bottommostCompression,
+      final boolean blobFilesEnabled,
+      final boolean pinIndexAndFilterBlocks,
+      final boolean optimizeFiltersForHits,
+      final int defaultCacheShare) {
+    this.blockSize = blockSize;
+    this.bloomBitsPerKey = bloomBitsPerKey;
+    this.prefixLength = prefixLength;
+    this.upperLevelsCompression = upperLevelsCompression;
+    this.bottommostCompression = bottommostCompression;
+    this.blobFilesEnabled = blobFilesEnabled;
+    this.pinIndexAndFilterBlocks = pinIndexAndFilterBlocks;
+    this.optimizeFiltersForHits = optimizeFiltersForHits;
+    this.defaultCacheShare = defaultCacheShare;
+  }
+
+  /**
+   * Gets the size of the data blocks.
+   *
+   * @return the block size in bytes
+   */
+  public long getBlockSize() {
+    return blockSize;
+  }
+
+  /**
+   * Gets the number of bits per key of the bloom filter.
+   *
+   * @return the bits per key
+   */
+  public int getBloomBitsPerKey() {
+    return bloomBitsPerKey;
+  }
+
+  /**
+   * Gets the length of the fixed prefix extractor, 0 when no prefix extractor is used.
+   *
+   * @return the prefix length
+   */
+  public int getPrefixLength() {
+    return prefixLength;
+  }
+
+  /**
+   * Gets the compression of every level, from level 0 to the bottommost level.
+   *
+   * @return the compression per level
+   */
+  public List<CompressionType> getCompressionPerLevel() {
+    final CompressionType[] compressionPerLevel = new CompressionType[NUMBER_OF_LEVELS];
+    for (int level = 0; level < NUMBER_OF_LEVELS; level++) {
+      compressionPerLevel[level] =
+          upperLevelsCompression == CompressionType.NO_COMPRESSION && level >= UNCOMPRESSED_LEVELS
+              ? CompressionType.LZ4_COMPRESSION
+              : upperLevelsCompression;
+    }
+    return List.of(compressionPerLevel);
+  }
+
+  /**
+   * Gets the compression of the bottommost level.
+   *
+   * @return the bottommost compression
+   */
+  public CompressionType getBottommostCompression() {
+    return bottommostCompression;
+  }
+
+  /**
+   * Whether large values are stored in blob files.
+   *
+   * @return true if blob files are enabled
+   */
+  public boolean isBlobFilesEnabled() {
+    return blobFilesEnabled;
+  }
+
+  /**
+   * Whether index and filter blocks are always kept in memory. Otherwise they are loaded in the
+   * block cache, with a higher priority than data blocks.
+   *
+   * @return true if index and filter blocks are always kept in memory
+   */
+  public boolean isPinIndexAndFilterBlocks() {
+    return pinIndexAndFilterBlocks;
+  }
+
+  /**
+   * Whether filters are skipped for the bottommost level, as lookups are expected to hit.
+   *
+   * @return true if filters are optimized for hits
+   */
+  public boolean isOptimizeFiltersForHits() {
+    return optimizeFiltersForHits;
+  }
+
+  /**
+   * Gets the default share of the block cache budget given to the profile.
+   *
+   * @return the default cache share
+   */
+  public int getDefaultCacheShare() {
+    return defaultCacheShare;
+  }
+}
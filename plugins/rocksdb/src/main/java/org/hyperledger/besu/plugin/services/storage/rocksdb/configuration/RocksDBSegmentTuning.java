@@ -0,0 +1,135 @@
+/*
+ * Copyright contributors to Hyperledger Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.plugin.services.storage.rocksdb.configuration;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import org.hyperledger.besu.plugin.services.storage.SegmentIdentifier;
+
+import java.util.Collection;
+import java.util.Map;
+
+import com.google.common.base.MoreObjects;
+
+/**
+ * Assignment of the tuning profiles to the segments, and split of the block cache budget between
+ * the profiles.
+ */
+public class RocksDBSegmentTuning {
+
+  /** Tuning where every segment uses the default profile with its own block cache. */
+  public static final RocksDBSegmentTuning DISABLED =
+      new RocksDBSegmentTuning(false, Map.of(), Map.of());
+
+  private final boolean enabled;
+  private final Map<String, RocksDBSegmentProfile> profilesBySegmentName;
+  private final Map<RocksDBSegmentProfile, Integer> cacheShares;
+
+  /**
+   * Instantiates a new segment tuning.
+   *
+   * @param enabled whether profiles and the shared block cache partitions are used
+   * @param profilesBySegmentName the profile of the segments, by segment name
+   * @param cacheShares the share of the block cache budget of the profiles, defaulting to {@link
+   *     RocksDBSegmentProfile#getDefaultCacheShare()}
+   */
+  public RocksDBSegmentTuning(
+      final boolean enabled,
+      final Map<String, RocksDBSegmentProfile> profilesBySegmentName,
+      final Map<RocksDBSegmentProfile, Integer> cacheShares) {
+    cacheShares.forEach(
+        (profile, share) ->
+            checkArgument(share > 0, "Cache share of profile %s must be positive", profile));
+    this.enabled = enabled;
+    this.profilesBySegmentName = Map.copyOf(profilesBySegmentName);
+    this.cacheShares = Map.copyOf(cacheShares);
+  }
+
+  /**
+   * Whether profiles and the shared block cache partitions are used.
+   *
+   * @return the boolean
+   */
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Gets the profile of the segments, by segment name.
+   *
+   * @return the profiles by segment name
+   */
+  public Map<String, RocksDBSegmentProfile> getProfilesBySegmentName() {
+    return profilesBySegmentName;
+  }
+
+  /**
+   * Gets the configured shares of the block cache budget.
+   *
+   * @return the cache shares by profile
+   */
+  public Map<RocksDBSegmentProfile, Integer> getCacheShares() {
+    return cacheShares;
+  }
+
+  /**
+   * Gets the profile to apply to a segment.
+   *
+   * @param segment the segment
+   * @return the profile of the segment, or the default profile if none is configured
+   */
+  public RocksDBSegmentProfile profileFor(final SegmentIdentifier segment) {
+    if (!enabled) {
+      return RocksDBSegmentProfile.DEFAULT;
+    }
+    return profilesBySegmentName.getOrDefault(segment.getName(), RocksDBSegmentProfile.DEFAULT);
+  }
+
+  /**
+   * Gets the share of the block cache budget of a profile.
+   *
+   * @param profile the profile
+   * @return the cache share
+   */
+  public int cacheShareOf(final RocksDBSegmentProfile profile) {
+    return cacheShares.getOrDefault(profile, profile.getDefaultCacheShare());
+  }
+
+  /**
+   * Computes the capacity of the block cache partition of a profile, the budget being split
+   * between the profiles in use in proportion to their share.
+   *
+   * @param profile the profile
+   * @param profilesInUse the profiles used by at least one segment
+   * @param budget the total block cache budget in bytes
+   * @return the capacity of the partition in bytes
+   */
+  public long cacheCapacityOf(
+      final RocksDBSegmentProfile profile,
+      final Collection<RocksDBSegmentProfile> profilesInUse,
+      final long budget) {
+    final long totalShares = profilesInUse.stream().mapToLong(this::cacheShareOf).sum();
+    return (long) (budget * ((double) cacheShareOf(profile) / totalShares));
+  }
+
+  @Override
+  public String toString() {
+    return MoreObjects.toStringHelper(this)
+        .add("enabled", enabled)
+        .add("profilesBySegmentName", profilesBySegmentName)
+        .add("cacheShares", cacheShares)
+        .toString();
+  }
+}
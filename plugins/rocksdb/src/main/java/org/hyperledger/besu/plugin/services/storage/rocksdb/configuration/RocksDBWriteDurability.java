@@ -0,0 +1,30 @@
+/*
+ * Copyright contributors to Hyperledger Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.plugin.services.storage.rocksdb.configuration;
+
+/** How durable the writes to RocksDB are once they have been committed. */
+public enum RocksDBWriteDurability {
+  /**
+   * Writes are appended to the write ahead log without syncing it, they survive a crash of the
+   * process but not a crash of the operating system.
+   */
+  WAL,
+
+  /**
+   * The write ahead log is synced before a write completes, so writes survive a crash of the
+   * operating system. With group commit enabled, a single sync covers all the writes of a group.
+   */
+  SYNC
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright contributors to Hyperledger Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.plugin.services.storage.rocksdb.segmented;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Per thread direct buffers that RocksDB reads keys from and writes values to, so that values can
+ * be read without being copied to a newly allocated array on the heap.
+ *
+ * <p>A thread only owns one set of buffers. While they are in use, any nested read from the same
+ * thread cannot acquire them and has to fall back to a regular read.
+ */
+final class DirectReadBuffers {
+
+  private static final int INITIAL_KEY_CAPACITY = 64;
+  private static final int INITIAL_VALUE_CAPACITY = 1024;
+
+  private static final ThreadLocal<DirectReadBuffers> BUFFERS =
+      ThreadLocal.withInitial(DirectReadBuffers::new);
+
+  private ByteBuffer keyBuffer = ByteBuffer.allocateDirect(INITIAL_KEY_CAPACITY);
+  private ByteBuffer valueBuffer = ByteBuffer.allocateDirect(INITIAL_VALUE_CAPACITY);
+  private boolean inUse;
+
+  private DirectReadBuffers() {}
+
+  /**
+   * Acquires the buffers of the current thread.
+   *
+   * @return the buffers, or null if they are already in use by the current thread
+   */
+  static DirectReadBuffers acquire() {
+    final DirectReadBuffers buffers = BUFFERS.get();
+    if (buffers.inUse) {
+      return null;
+    }
+    buffers.inUse = true;
+    return buffers;
+  }
+
+  /** Releases the buffers so that the next read from the current thread can use them. */
+  void release() {
+    inUse = false;
+  }
+
+  /**
+   * Returns the key buffer filled with the given key, ready to be read.
+   *
+   * @param key the key
+   * @return the key buffer
+   */
+  ByteBuffer key(final byte[] key) {
+    if (keyBuffer.capacity() < key.length) {
+      keyBuffer = ByteBuffer.allocateDirect(key.length);
+    }
+    keyBuffer.clear();
+    keyBuffer.put(key).flip();
+    return keyBuffer;
+  }
+
+  /**
+   * Returns the value buffer, cleared and with at least the given capacity.
+   *
+   * @param minCapacity the minimum capacity
+   * @return the value buffer
+   */
+  ByteBuffer value(final int minCapacity) {
+    if (valueBuffer.capacity() < minCapacity) {
+      valueBuffer = ByteBuffer.allocateDirect(Math.max(minCapacity, valueBuffer.capacity() * 2));
+    }
+    return valueBuffer.clear();
+  }
+}
@@ -61,6 +61,7 @@ public class OptimisticRocksDBColumnarKeyValueStorage extends RocksDBColumnarKey
               options, configuration.getDatabaseDir().toString(), columnDescriptors, columnHandles);
       initMetrics();
       initColumnHandles();
+      initGroupCommitter();
 
     } catch (final RocksDBException e) {
       throw parseRocksDBException(e, segments, ignorableSegments);
@@ -81,8 +82,11 @@ public class OptimisticRocksDBColumnarKeyValueStorage extends RocksDBColumnarKey
   @Override
   public SegmentedKeyValueStorageTransaction startTransaction() throws StorageException {
     throwIfClosed();
-    final WriteOptions writeOptions = new WriteOptions();
-    writeOptions.setIgnoreMissingColumnFamilies(true);
+    if (groupCommitter != null) {
+      return new SegmentedKeyValueStorageTransactionValidatorDecorator(
+          groupCommitter.startTransaction(), this.closed::get);
+    }
+    final WriteOptions writeOptions = newWriteOptions();
     return new SegmentedKeyValueStorageTransactionValidatorDecorator(
         new RocksDBTransaction(
             this::safeColumnHandle, db.beginTransaction(writeOptions), writeOptions, this.metrics),
@@ -98,6 +102,7 @@ public class OptimisticRocksDBColumnarKeyValueStorage extends RocksDBColumnarKey
   @Override
   public RocksDBColumnarKeyValueSnapshot takeSnapshot() throws StorageException {
     throwIfClosed();
+    flushGroupCommit();
     return new RocksDBColumnarKeyValueSnapshot(db, this::safeColumnHandle, metrics);
   }
 }
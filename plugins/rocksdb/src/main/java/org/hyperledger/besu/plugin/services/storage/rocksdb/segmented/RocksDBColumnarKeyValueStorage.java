@@ -14,28 +14,37 @@
  */
 package org.hyperledger.besu.plugin.services.storage.rocksdb.segmented;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static java.util.stream.Collectors.toUnmodifiableSet;
 
 import org.hyperledger.besu.plugin.services.MetricsSystem;
 import org.hyperledger.besu.plugin.services.exception.StorageException;
 import org.hyperledger.besu.plugin.services.metrics.OperationTimer;
+import org.hyperledger.besu.plugin.services.storage.CheckpointableKeyValueStorage;
 import org.hyperledger.besu.plugin.services.storage.SegmentIdentifier;
-import org.hyperledger.besu.plugin.services.storage.SegmentedKeyValueStorage;
 import org.hyperledger.besu.plugin.services.storage.rocksdb.RocksDBMetrics;
 import org.hyperledger.besu.plugin.services.storage.rocksdb.RocksDBMetricsFactory;
 import org.hyperledger.besu.plugin.services.storage.rocksdb.RocksDbIterator;
 import org.hyperledger.besu.plugin.services.storage.rocksdb.RocksDbSegmentIdentifier;
 import org.hyperledger.besu.plugin.services.storage.rocksdb.RocksDbUtil;
 import org.hyperledger.besu.plugin.services.storage.rocksdb.configuration.RocksDBConfiguration;
+import org.hyperledger.besu.plugin.services.storage.rocksdb.configuration.RocksDBSegmentProfile;
+import org.hyperledger.besu.plugin.services.storage.rocksdb.configuration.RocksDBSegmentTuning;
+import org.hyperledger.besu.plugin.services.storage.rocksdb.configuration.RocksDBWriteDurability;
 
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -47,6 +56,7 @@ import org.apache.tuweni.bytes.Bytes;
 import org.rocksdb.AbstractRocksIterator;
 import org.rocksdb.BlockBasedTableConfig;
 import org.rocksdb.BloomFilter;
+import org.rocksdb.Checkpoint;
 import org.rocksdb.ColumnFamilyDescriptor;
 import org.rocksdb.ColumnFamilyHandle;
 import org.rocksdb.ColumnFamilyOptions;
@@ -67,7 +77,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /** The RocksDb columnar key value storage. */
-public abstract class RocksDBColumnarKeyValueStorage implements SegmentedKeyValueStorage {
+public abstract class RocksDBColumnarKeyValueStorage implements CheckpointableKeyValueStorage {
 
   private static final Logger LOG = LoggerFactory.getLogger(RocksDBColumnarKeyValueStorage.class);
   private static final int ROCKSDB_FORMAT_VERSION = 5;
@@ -85,6 +95,9 @@ public abstract class RocksDBColumnarKeyValueStorage implements SegmentedKeyValu
   /** Expected size of a single WAL file, to determine how many WAL files to keep around */
   protected static final long EXPECTED_WAL_FILE_SIZE = 67_108_864L;
 
+  /** Ratio of the block cache partitions reserved to index and filter blocks */
+  private static final double ROCKSDB_BLOCKCACHE_HIGH_PRIORITY_POOL_RATIO = 0.1;
+
   /** RocksDb number of log files to keep on disk */
   private static final long NUMBER_OF_LOG_FILES_TO_KEEP = 7;
 
@@ -101,6 +114,9 @@ public abstract class RocksDBColumnarKeyValueStorage implements SegmentedKeyValu
   private final WriteOptions tryDeleteOptions =
       new WriteOptions().setNoSlowdown(true).setIgnoreMissingColumnFamilies(true);
   private final ReadOptions readOptions = new ReadOptions().setVerifyChecksums(false);
+  private final ReadOptions iteratorReadOptions = new ReadOptions().setTotalOrderSeek(true);
+  private final ReadOptions prefixIteratorReadOptions =
+      new ReadOptions().setPrefixSameAsStart(true);
   private final MetricsSystem metricsSystem;
   private final RocksDBMetricsFactory rocksDBMetricsFactory;
   private final RocksDBConfiguration configuration;
@@ -129,6 +145,13 @@ public abstract class RocksDBColumnarKeyValueStorage implements SegmentedKeyValu
   /** Trimmed segments */
   protected List<SegmentIdentifier> trimmedSegments;
 
+  /** Writer of the committed transactions, null when group commit is disabled */
+  RocksDBGroupCommitter groupCommitter;
+
+  /** Block cache partitions shared by the segments of a profile, when segment tuning is enabled */
+  private Map<RocksDBSegmentProfile, LRUCache> blockCachePartitions =
+      new EnumMap<>(RocksDBSegmentProfile.class);
+
   /**
    * Instantiates a new Rocks db columnar key value storage.
    *
@@ -162,6 +185,9 @@ public abstract class RocksDBColumnarKeyValueStorage implements SegmentedKeyValu
                   existingColumnFamilies.stream()
                       .noneMatch(existed -> Arrays.equals(existed, ignorableSegment.getId())))
           .forEach(trimmedSegments::remove);
+      if (configuration.getSegmentTuning().isEnabled()) {
+        blockCachePartitions = createBlockCachePartitions(trimmedSegments, configuration);
+      }
       columnDescriptors =
           trimmedSegments.stream()
               .map(segment -> createColumnDescriptor(segment, configuration))
@@ -187,7 +213,9 @@ public abstract class RocksDBColumnarKeyValueStorage implements SegmentedKeyValu
   private ColumnFamilyDescriptor createColumnDescriptor(
       final SegmentIdentifier segment, final RocksDBConfiguration configuration) {
 
-    BlockBasedTableConfig basedTableConfig = createBlockBasedTableConfig(segment, configuration);
+    final RocksDBSegmentProfile profile = configuration.getSegmentTuning().profileFor(segment);
+    BlockBasedTableConfig basedTableConfig =
+        createBlockBasedTableConfig(segment, profile, configuration);
 
     final var options =
         new ColumnFamilyOptions()
@@ -195,11 +223,21 @@ public abstract class RocksDBColumnarKeyValueStorage implements SegmentedKeyValu
             .setCompressionType(CompressionType.LZ4_COMPRESSION)
             .setTableFormatConfig(basedTableConfig);
 
-    if (segment.containsStaticData()) {
+    if (profile != RocksDBSegmentProfile.DEFAULT) {
+      options
+          .setCompressionPerLevel(profile.getCompressionPerLevel())
+          .setBottommostCompressionType(profile.getBottommostCompression())
+          .setOptimizeFiltersForHits(profile.isOptimizeFiltersForHits());
+      if (profile.getPrefixLength() > 0) {
+        options.useFixedLengthPrefixExtractor(profile.getPrefixLength());
+      }
+    }
+
+    if (segment.containsStaticData() || profile.isBlobFilesEnabled()) {
       options
           .setEnableBlobFiles(true)
           .setEnableBlobGarbageCollection(segment.isStaticDataGarbageCollectionEnabled())
-          .setMinBlobSize(100)
+          .setMinBlobSize(RocksDBSegmentProfile.MIN_BLOB_SIZE)
           .setBlobCompressionType(CompressionType.LZ4_COMPRESSION);
     }
 
@@ -211,23 +249,75 @@ public abstract class RocksDBColumnarKeyValueStorage implements SegmentedKeyValu
    * and the segment itself
    *
    * @param segment The segment related to the column family
+   * @param profile The tuning profile of the segment
    * @param config RocksDB configuration
    * @return Block Base Table configuration
    */
   private BlockBasedTableConfig createBlockBasedTableConfig(
-      final SegmentIdentifier segment, final RocksDBConfiguration config) {
-    final LRUCache cache =
-        new LRUCache(
-            config.isHighSpec() && segment.isEligibleToHighSpecFlag()
-                ? ROCKSDB_BLOCKCACHE_SIZE_HIGH_SPEC
-                : config.getCacheCapacity());
+      final SegmentIdentifier segment,
+      final RocksDBSegmentProfile profile,
+      final RocksDBConfiguration config) {
+    if (!config.getSegmentTuning().isEnabled()) {
+      final LRUCache cache =
+          new LRUCache(
+              config.isHighSpec() && segment.isEligibleToHighSpecFlag()
+                  ? ROCKSDB_BLOCKCACHE_SIZE_HIGH_SPEC
+                  : config.getCacheCapacity());
+      return new BlockBasedTableConfig()
+          .setFormatVersion(ROCKSDB_FORMAT_VERSION)
+          .setBlockCache(cache)
+          .setFilterPolicy(new BloomFilter(10, false))
+          .setPartitionFilters(true)
+          .setCacheIndexAndFilterBlocks(false)
+          .setBlockSize(ROCKSDB_BLOCK_SIZE);
+    }
+
+    final boolean cacheIndexAndFilterBlocks = !profile.isPinIndexAndFilterBlocks();
     return new BlockBasedTableConfig()
         .setFormatVersion(ROCKSDB_FORMAT_VERSION)
-        .setBlockCache(cache)
-        .setFilterPolicy(new BloomFilter(10, false))
+        .setBlockCache(blockCachePartitions.get(profile))
+        .setFilterPolicy(new BloomFilter(profile.getBloomBitsPerKey(), false))
+        .setWholeKeyFiltering(true)
         .setPartitionFilters(true)
-        .setCacheIndexAndFilterBlocks(false)
-        .setBlockSize(ROCKSDB_BLOCK_SIZE);
+        .setCacheIndexAndFilterBlocks(cacheIndexAndFilterBlocks)
+        .setCacheIndexAndFilterBlocksWithHighPriority(cacheIndexAndFilterBlocks)
+        .setPinTopLevelIndexAndFilter(cacheIndexAndFilterBlocks)
+        .setBlockSize(profile.getBlockSize());
+  }
+
+  /***
+   * Create one block cache per profile in use, splitting the cache budget between them. With the
+   * high spec flag, the budget grows by the size of the dedicated cache each eligible segment
+   * would otherwise get.
+   *
+   * @param segments The segments to open
+   * @param config RocksDB configuration
+   * @return the block cache of every profile in use
+   */
+  private static Map<RocksDBSegmentProfile, LRUCache> createBlockCachePartitions(
+      final List<SegmentIdentifier> segments, final RocksDBConfiguration config) {
+    final RocksDBSegmentTuning tuning = config.getSegmentTuning();
+    final Set<RocksDBSegmentProfile> profilesInUse =
+        segments.stream()
+            .map(tuning::profileFor)
+            .collect(Collectors.toCollection(() -> EnumSet.noneOf(RocksDBSegmentProfile.class)));
+    final long highSpecBudget =
+        config.isHighSpec()
+            ? segments.stream().filter(SegmentIdentifier::isEligibleToHighSpecFlag).count()
+                * ROCKSDB_BLOCKCACHE_SIZE_HIGH_SPEC
+            : 0;
+    final long budget = config.getCacheCapacity() + highSpecBudget;
+
+    final Map<RocksDBSegmentProfile, LRUCache> partitions =
+        new EnumMap<>(RocksDBSegmentProfile.class);
+    for (final RocksDBSegmentProfile profile : profilesInUse) {
+      final long capacity = tuning.cacheCapacityOf(profile, profilesInUse, budget);
+      LOG.debug("Block cache partition of profile {}: {} bytes", profile, capacity);
+      partitions.put(
+          profile,
+          new LRUCache(capacity, -1, false, ROCKSDB_BLOCKCACHE_HIGH_PRIORITY_POOL_RATIO));
+    }
+    return partitions;
   }
 
   /***
@@ -299,6 +389,35 @@ public abstract class RocksDBColumnarKeyValueStorage implements SegmentedKeyValu
     metrics = rocksDBMetricsFactory.create(metricsSystem, configuration, getDB(), stats);
   }
 
+  void initGroupCommitter() {
+    if (configuration.isGroupCommitEnabled()) {
+      groupCommitter =
+          new RocksDBGroupCommitter(getDB(), this::safeColumnHandle, newWriteOptions(), metrics);
+    }
+  }
+
+  /**
+   * Creates the options of the writes, which are synced when the configured durability requires
+   * it.
+   *
+   * @return the write options
+   */
+  protected WriteOptions newWriteOptions() {
+    return new WriteOptions()
+        .setIgnoreMissingColumnFamilies(true)
+        .setSync(configuration.getWriteDurability() == RocksDBWriteDurability.SYNC);
+  }
+
+  /**
+   * Waits until the transactions committed so far are written, so that RocksDB iterators,
+   * snapshots and checkpoints include them.
+   */
+  protected void flushGroupCommit() {
+    if (groupCommitter != null) {
+      groupCommitter.flush();
+    }
+  }
+
   void initColumnHandles() throws RocksDBException {
     // will not include the DEFAULT columnHandle, we do not use it:
     columnHandlesBySegmentIdentifier =
@@ -345,6 +464,12 @@ public abstract class RocksDBColumnarKeyValueStorage implements SegmentedKeyValu
   public Optional<byte[]> get(final SegmentIdentifier segment, final byte[] key)
       throws StorageException {
     throwIfClosed();
+    if (groupCommitter != null) {
+      final RocksDBGroupCommitter.PendingValue pending = groupCommitter.getPending(segment, key);
+      if (pending != null) {
+        return pending.value();
+      }
+    }
 
     try (final OperationTimer.TimingContext ignored = metrics.getReadLatency().startTimer()) {
       return Optional.ofNullable(getDB().get(safeColumnHandle(segment), readOptions, key));
@@ -353,12 +478,106 @@ public abstract class RocksDBColumnarKeyValueStorage implements SegmentedKeyValu
     }
   }
 
+  /**
+   * When direct reads are enabled, the value is read into a reused thread local direct buffer, and
+   * the mapper gets a view over it rather than a copy.
+   */
+  @Override
+  public <T> Optional<T> getAndMap(
+      final SegmentIdentifier segment, final byte[] key, final Function<Bytes, T> mapper)
+      throws StorageException {
+    if (!configuration.isDirectReadsEnabled()
+        || (groupCommitter != null && groupCommitter.getPending(segment, key) != null)) {
+      return CheckpointableKeyValueStorage.super.getAndMap(segment, key, mapper);
+    }
+    throwIfClosed();
+    final DirectReadBuffers buffers = DirectReadBuffers.acquire();
+    if (buffers == null) {
+      // nested read from a mapper, the buffers of this thread are still in use
+      return CheckpointableKeyValueStorage.super.getAndMap(segment, key, mapper);
+    }
+
+    try (final OperationTimer.TimingContext ignored = metrics.getReadLatency().startTimer()) {
+      final ColumnFamilyHandle columnHandle = safeColumnHandle(segment);
+      ByteBuffer value = buffers.value(0);
+      int size = getDB().get(columnHandle, readOptions, buffers.key(key), value);
+      // the value did not fit, RocksDB returned its actual size so read it again
+      while (size > value.capacity()) {
+        value = buffers.value(size);
+        size = getDB().get(columnHandle, readOptions, buffers.key(key), value);
+      }
+      if (size == RocksDB.NOT_FOUND) {
+        return Optional.empty();
+      }
+      return Optional.ofNullable(mapper.apply(Bytes.wrapByteBuffer(value, 0, size)));
+    } catch (final RocksDBException e) {
+      throw new StorageException(e);
+    } finally {
+      buffers.release();
+    }
+  }
+
+  @Override
+  public boolean containsKey(final SegmentIdentifier segment, final byte[] key)
+      throws StorageException {
+    return getAndMap(segment, key, value -> Boolean.TRUE).isPresent();
+  }
+
+  @Override
+  public List<Optional<byte[]>> multiGet(
+      final List<SegmentIdentifier> segments, final List<byte[]> keys) throws StorageException {
+    throwIfClosed();
+    checkArgument(
+        segments.size() == keys.size(),
+        "Expected one segment per key, got %s for %s",
+        segments.size(),
+        keys.size());
+    if (groupCommitter == null) {
+      return multiGetFromDB(segments, keys);
+    }
+
+    // the keys being written are read from the pending writes, over the values of RocksDB
+    while (true) {
+      final RocksDBGroupCommitter.PendingWrites beforeRead = groupCommitter.pendingWrites();
+      final List<Optional<byte[]>> values = multiGetFromDB(segments, keys);
+      final Optional<RocksDBGroupCommitter.PendingWrites> pendingWrites =
+          groupCommitter.pendingWritesSince(beforeRead);
+      if (pendingWrites.isPresent()) {
+        return pendingWrites.get().applyTo(segments, keys, values);
+      }
+    }
+  }
+
+  private List<Optional<byte[]>> multiGetFromDB(
+      final List<SegmentIdentifier> segments, final List<byte[]> keys) throws StorageException {
+    try (final OperationTimer.TimingContext ignored = metrics.getReadLatency().startTimer()) {
+      return RocksDbUtil.wrapMultiGetResults(
+          getDB().multiGetAsList(readOptions, columnHandles(segments), keys));
+    } catch (final RocksDBException e) {
+      throw new StorageException(e);
+    }
+  }
+
+  /**
+   * Maps every segment identifier to its column handle.
+   *
+   * @param segments segment identifiers
+   * @return column handles, in the same order as the segments
+   */
+  protected List<ColumnFamilyHandle> columnHandles(final List<SegmentIdentifier> segments) {
+    final List<ColumnFamilyHandle> handles = new ArrayList<>(segments.size());
+    for (final SegmentIdentifier segment : segments) {
+      handles.add(safeColumnHandle(segment));
+    }
+    return handles;
+  }
+
   @Override
   public Optional<NearestKeyValue> getNearestBefore(
       final SegmentIdentifier segmentIdentifier, final Bytes key) throws StorageException {
-
+    flushGroupCommit();
     try (final RocksIterator rocksIterator =
-        getDB().newIterator(safeColumnHandle(segmentIdentifier))) {
+        getDB().newIterator(safeColumnHandle(segmentIdentifier), iteratorReadOptions)) {
       rocksIterator.seekForPrev(key.toArrayUnsafe());
       return Optional.of(rocksIterator)
           .filter(AbstractRocksIterator::isValid)
@@ -369,9 +588,9 @@ public abstract class RocksDBColumnarKeyValueStorage implements SegmentedKeyValu
   @Override
   public Optional<NearestKeyValue> getNearestAfter(
       final SegmentIdentifier segmentIdentifier, final Bytes key) throws StorageException {
-
+    flushGroupCommit();
     try (final RocksIterator rocksIterator =
-        getDB().newIterator(safeColumnHandle(segmentIdentifier))) {
+        getDB().newIterator(safeColumnHandle(segmentIdentifier), iteratorReadOptions)) {
       rocksIterator.seek(key.toArrayUnsafe());
       return Optional.of(rocksIterator)
           .filter(AbstractRocksIterator::isValid)
@@ -381,7 +600,9 @@ public abstract class RocksDBColumnarKeyValueStorage implements SegmentedKeyValu
 
   @Override
   public Stream<Pair<byte[], byte[]>> stream(final SegmentIdentifier segmentIdentifier) {
-    final RocksIterator rocksIterator = getDB().newIterator(safeColumnHandle(segmentIdentifier));
+    flushGroupCommit();
+    final RocksIterator rocksIterator =
+        getDB().newIterator(safeColumnHandle(segmentIdentifier), iteratorReadOptions);
     rocksIterator.seekToFirst();
     return RocksDbIterator.create(rocksIterator).toStream();
   }
@@ -389,7 +610,9 @@ public abstract class RocksDBColumnarKeyValueStorage implements SegmentedKeyValu
   @Override
   public Stream<Pair<byte[], byte[]>> streamFromKey(
       final SegmentIdentifier segmentIdentifier, final byte[] startKey) {
-    final RocksIterator rocksIterator = getDB().newIterator(safeColumnHandle(segmentIdentifier));
+    flushGroupCommit();
+    final RocksIterator rocksIterator =
+        getDB().newIterator(safeColumnHandle(segmentIdentifier), iteratorReadOptions);
     rocksIterator.seek(startKey);
     return RocksDbIterator.create(rocksIterator).toStream();
   }
@@ -397,8 +620,21 @@ public abstract class RocksDBColumnarKeyValueStorage implements SegmentedKeyValu
   @Override
   public Stream<Pair<byte[], byte[]>> streamFromKey(
       final SegmentIdentifier segmentIdentifier, final byte[] startKey, final byte[] endKey) {
+    flushGroupCommit();
     final Bytes endKeyBytes = Bytes.wrap(endKey);
-    final RocksIterator rocksIterator = getDB().newIterator(safeColumnHandle(segmentIdentifier));
+    // when both keys share the segment prefix, the prefix bloom filters can skip other prefixes
+    final int prefixLength =
+        configuration.getSegmentTuning().profileFor(segmentIdentifier).getPrefixLength();
+    final boolean samePrefix =
+        prefixLength > 0
+            && startKey.length >= prefixLength
+            && endKey.length >= prefixLength
+            && Arrays.equals(startKey, 0, prefixLength, endKey, 0, prefixLength);
+    final RocksIterator rocksIterator =
+        getDB()
+            .newIterator(
+                safeColumnHandle(segmentIdentifier),
+                samePrefix ? prefixIteratorReadOptions : iteratorReadOptions);
     rocksIterator.seek(startKey);
     return RocksDbIterator.create(rocksIterator)
         .toStream()
@@ -407,13 +643,19 @@ public abstract class RocksDBColumnarKeyValueStorage implements SegmentedKeyValu
 
   @Override
   public Stream<byte[]> streamKeys(final SegmentIdentifier segmentIdentifier) {
-    final RocksIterator rocksIterator = getDB().newIterator(safeColumnHandle(segmentIdentifier));
+    flushGroupCommit();
+    final RocksIterator rocksIterator =
+        getDB().newIterator(safeColumnHandle(segmentIdentifier), iteratorReadOptions);
     rocksIterator.seekToFirst();
     return RocksDbIterator.create(rocksIterator).toStreamKeys();
   }
 
   @Override
   public boolean tryDelete(final SegmentIdentifier segmentIdentifier, final byte[] key) {
+    if (groupCommitter != null && groupCommitter.getPending(segmentIdentifier, key) != null) {
+      // deleting now would be overwritten by the pending write of the same key
+      return false;
+    }
     try {
       getDB().delete(safeColumnHandle(segmentIdentifier), tryDeleteOptions, key);
       return true;
@@ -446,6 +688,7 @@ public abstract class RocksDBColumnarKeyValueStorage implements SegmentedKeyValu
 
   @Override
   public void clear(final SegmentIdentifier segmentIdentifier) {
+    flushGroupCommit();
     Optional.ofNullable(columnHandlesBySegmentIdentifier.get(segmentIdentifier))
         .ifPresent(RocksDbSegmentIdentifier::reset);
   }
@@ -453,13 +696,19 @@ public abstract class RocksDBColumnarKeyValueStorage implements SegmentedKeyValu
   @Override
   public void close() {
     if (closed.compareAndSet(false, true)) {
+      if (groupCommitter != null) {
+        groupCommitter.close();
+      }
       txOptions.close();
       options.close();
       tryDeleteOptions.close();
+      iteratorReadOptions.close();
+      prefixIteratorReadOptions.close();
       columnHandlesBySegmentIdentifier.values().stream()
           .map(RocksDbSegmentIdentifier::get)
           .forEach(ColumnFamilyHandle::close);
       getDB().close();
+      blockCachePartitions.values().forEach(LRUCache::close);
     }
   }
 
@@ -468,6 +717,22 @@ public abstract class RocksDBColumnarKeyValueStorage implements SegmentedKeyValu
     return closed.get();
   }
 
+  @Override
+  public void createCheckpoint(final Path checkpointDirectory) throws StorageException {
+    throwIfClosed();
+    flushGroupCommit();
+    try (final Checkpoint checkpoint = Checkpoint.create(getDB())) {
+      checkpoint.createCheckpoint(checkpointDirectory.toString());
+    } catch (final RocksDBException e) {
+      throw new StorageException(e);
+    }
+  }
+
+  @Override
+  public Path getStoragePath() {
+    return configuration.getDatabaseDir();
+  }
+
   void throwIfClosed() {
     if (closed.get()) {
       LOG.error("Attempting to use a closed RocksDbKeyValueStorage");
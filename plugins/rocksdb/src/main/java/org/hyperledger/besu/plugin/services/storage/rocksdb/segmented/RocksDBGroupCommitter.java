@@ -0,0 +1,498 @@
+/*
+ * Copyright contributors to Hyperledger Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.plugin.services.storage.rocksdb.segmented;
+
+import org.hyperledger.besu.plugin.services.exception.StorageException;
+import org.hyperledger.besu.plugin.services.metrics.OperationTimer;
+import org.hyperledger.besu.plugin.services.storage.SegmentIdentifier;
+import org.hyperledger.besu.plugin.services.storage.SegmentedKeyValueStorageTransaction;
+import org.hyperledger.besu.plugin.services.storage.rocksdb.RocksDBMetrics;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.apache.tuweni.bytes.Bytes;
+import org.rocksdb.ColumnFamilyHandle;
+import org.rocksdb.RocksDB;
+import org.rocksdb.RocksDBException;
+import org.rocksdb.WriteBatch;
+import org.rocksdb.WriteOptions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Writes the committed transactions to RocksDB from a background thread.
+ *
+ * <p>A commit only queues the writes of its transaction and makes them visible to the reads of the
+ * storage, so that the caller can move on while they are written. The writes of a transaction are
+ * published at once, as an immutable overlay added to the snapshot of the {@link PendingWrites}.
+ * The writer drains the queue and writes the consecutive transactions it finds in a single write
+ * batch, in commit order, before removing their overlays. Commits block when too many transactions
+ * are queued.
+ *
+ * <p>When a write fails, the following ones are dropped to keep the writes in order, and every
+ * later commit or flush fails, as they do once the writer stopped.
+ */
+class RocksDBGroupCommitter implements AutoCloseable {
+  private static final Logger LOG = LoggerFactory.getLogger(RocksDBGroupCommitter.class);
+  private static final String NO_SPACE_LEFT_ON_DEVICE = "No space left on device";
+
+  /** Queued transactions beyond which commits block until the writer catches up. */
+  static final int MAX_QUEUED_TRANSACTIONS = 64;
+
+  /** Transactions written together at most, to bound the size of a write batch. */
+  static final int MAX_TRANSACTIONS_PER_BATCH = 32;
+
+  private final RocksDB db;
+  private final Function<SegmentIdentifier, ColumnFamilyHandle> columnFamilyMapper;
+  private final WriteOptions writeOptions;
+  private final RocksDBMetrics metrics;
+
+  private final AtomicReference<PendingWrites> pendingWrites =
+      new AtomicReference<>(PendingWrites.NONE);
+  private final BlockingQueue<PendingTransaction> queue =
+      new LinkedBlockingQueue<>(MAX_QUEUED_TRANSACTIONS);
+  private final Object commitLock = new Object();
+  private long committedSequence;
+  private final Object writtenMonitor = new Object();
+  private volatile long writtenSequence;
+  private volatile StorageException failure;
+  private volatile boolean running = true;
+  private volatile boolean writerStopped;
+  private final ExecutorService writer;
+
+  /**
+   * Instantiates a new group committer and starts its writer.
+   *
+   * @param db the database to write to
+   * @param columnFamilyMapper mapper from segment identifier to column family handle
+   * @param writeOptions the options of the writes, owned by the committer from now on
+   * @param metrics the metrics
+   */
+  RocksDBGroupCommitter(
+      final RocksDB db,
+      final Function<SegmentIdentifier, ColumnFamilyHandle> columnFamilyMapper,
+      final WriteOptions writeOptions,
+      final RocksDBMetrics metrics) {
+    this.db = db;
+    this.columnFamilyMapper = columnFamilyMapper;
+    this.writeOptions = writeOptions;
+    this.metrics = metrics;
+    this.writer =
+        Executors.newSingleThreadExecutor(
+            new ThreadFactoryBuilder()
+                .setNameFormat("rocksdb-group-commit-%d")
+                .setDaemon(true)
+                .build());
+    writer.execute(this::writeQueuedTransactions);
+  }
+
+  /** A value waiting to be written. */
+  static final class PendingValue {
+    private final byte[] value;
+
+    private PendingValue(final byte[] value) {
+      this.value = value;
+    }
+
+    /**
+     * Gets the value being written.
+     *
+     * @return the value, or empty when the key is being removed
+     */
+    Optional<byte[]> value() {
+      return Optional.ofNullable(value);
+    }
+  }
+
+  private record PendingWrite(SegmentIdentifier segment, Bytes key, PendingValue value) {}
+
+  /**
+   * A committed transaction, with the last value of each of the keys it writes, which is never
+   * modified once the transaction is published.
+   */
+  private record PendingTransaction(
+      long sequence,
+      List<PendingWrite> writes,
+      Map<SegmentIdentifier, Map<Bytes, PendingValue>> values) {
+
+    PendingValue get(final SegmentIdentifier segment, final Bytes key) {
+      final Map<Bytes, PendingValue> segmentValues = values.get(segment);
+      return segmentValues == null ? null : segmentValues.get(key);
+    }
+  }
+
+  /**
+   * An immutable snapshot of the committed transactions which are not written yet, in commit order.
+   */
+  static final class PendingWrites {
+    private static final PendingWrites NONE = new PendingWrites(List.of(), 0);
+
+    private final List<PendingTransaction> transactions;
+    private final long lastCommittedSequence;
+
+    private PendingWrites(
+        final List<PendingTransaction> transactions, final long lastCommittedSequence) {
+      this.transactions = transactions;
+      this.lastCommittedSequence = lastCommittedSequence;
+    }
+
+    private PendingWrites with(final PendingTransaction transaction) {
+      final List<PendingTransaction> newTransactions = new ArrayList<>(transactions.size() + 1);
+      newTransactions.addAll(transactions);
+      newTransactions.add(transaction);
+      return new PendingWrites(newTransactions, transaction.sequence());
+    }
+
+    private PendingWrites withoutWrittenUpTo(final long sequence) {
+      int written = 0;
+      while (written < transactions.size() && transactions.get(written).sequence() <= sequence) {
+        written++;
+      }
+      return written == 0
+          ? this
+          : new PendingWrites(
+              List.copyOf(transactions.subList(written, transactions.size())),
+              lastCommittedSequence);
+    }
+
+    /** The sequence of the first transaction which is still pending. */
+    private long firstPendingSequence() {
+      return transactions.isEmpty() ? lastCommittedSequence + 1 : transactions.get(0).sequence();
+    }
+
+    /**
+     * Gets the value of a key written by the last pending transaction writing it.
+     *
+     * @param segment the segment
+     * @param key the key
+     * @return the pending value, or null when no write of the key is pending
+     */
+    PendingValue get(final SegmentIdentifier segment, final byte[] key) {
+      if (transactions.isEmpty()) {
+        return null;
+      }
+      final Bytes wrappedKey = Bytes.wrap(key);
+      for (int i = transactions.size() - 1; i >= 0; i--) {
+        final PendingValue value = transactions.get(i).get(segment, wrappedKey);
+        if (value != null) {
+          return value;
+        }
+      }
+      return null;
+    }
+
+    /**
+     * Replaces the values read from RocksDB by the pending values of the same keys.
+     *
+     * @param segments the segments of the keys
+     * @param keys the keys
+     * @param values the values read from RocksDB, replaced in place
+     * @return the values
+     */
+    List<Optional<byte[]>> applyTo(
+        final List<SegmentIdentifier> segments,
+        final List<byte[]> keys,
+        final List<Optional<byte[]>> values) {
+      if (transactions.isEmpty()) {
+        return values;
+      }
+      for (int i = 0; i < keys.size(); i++) {
+        final PendingValue pending = get(segments.get(i), keys.get(i));
+        if (pending != null) {
+          values.set(i, pending.value());
+        }
+      }
+      return values;
+    }
+  }
+
+  /**
+   * Starts a transaction whose writes are queued when it is committed.
+   *
+   * @return the transaction
+   */
+  SegmentedKeyValueStorageTransaction startTransaction() {
+    return new GroupCommitTransaction();
+  }
+
+  /**
+   * Gets the value of a key which is waiting to be written.
+   *
+   * @param segment the segment
+   * @param key the key
+   * @return the pending value, or null when no write of the key is pending
+   */
+  PendingValue getPending(final SegmentIdentifier segment, final byte[] key) {
+    return pendingWrites.get().get(segment, key);
+  }
+
+  /**
+   * Gets a snapshot of the writes which are waiting to be written, to be passed to {@link
+   * #pendingWritesSince(PendingWrites)} once RocksDB has been read.
+   *
+   * @return the pending writes
+   */
+  PendingWrites pendingWrites() {
+    return pendingWrites.get();
+  }
+
+  /**
+   * Gets the pending writes to apply over several values read from RocksDB, so that every
+   * transaction is either entirely visible or not at all. RocksDB contains every transaction
+   * removed from the pending writes before the read and may contain some of the later ones, so
+   * the pending writes before the read are applied, followed by the ones committed since.
+   *
+   * @param beforeRead the pending writes taken before reading RocksDB
+   * @return the pending writes to apply, or empty when transactions committed after {@code
+   *     beforeRead} were written and removed meanwhile, in which case RocksDB has to be read again
+   */
+  Optional<PendingWrites> pendingWritesSince(final PendingWrites beforeRead) {
+    final PendingWrites afterRead = pendingWrites.get();
+    if (afterRead == beforeRead) {
+      return Optional.of(afterRead);
+    }
+    final long firstPendingSequence = afterRead.firstPendingSequence();
+    if (firstPendingSequence > beforeRead.lastCommittedSequence + 1) {
+      return Optional.empty();
+    }
+    final List<PendingTransaction> transactions =
+        new ArrayList<>(beforeRead.transactions.size() + afterRead.transactions.size());
+    for (final PendingTransaction transaction : beforeRead.transactions) {
+      if (transaction.sequence() < firstPendingSequence) {
+        transactions.add(transaction);
+      }
+    }
+    transactions.addAll(afterRead.transactions);
+    return Optional.of(new PendingWrites(transactions, afterRead.lastCommittedSequence));
+  }
+
+  /**
+   * Waits until all the transactions committed so far are written.
+   *
+   * @throws StorageException if a write failed, the writer stopped or the wait was interrupted
+   */
+  void flush() throws StorageException {
+    final long target = pendingWrites.get().lastCommittedSequence;
+    synchronized (writtenMonitor) {
+      while (writtenSequence < target && failure == null && !writerStopped) {
+        try {
+          writtenMonitor.wait();
+        } catch (final InterruptedException e) {
+          Thread.currentThread().interrupt();
+          throw new StorageException("Interrupted while waiting for pending writes", e);
+        }
+      }
+    }
+    throwIfFailed();
+    if (writtenSequence < target) {
+      throw new StorageException(
+          "The RocksDB group commit writer stopped before writing the committed transactions");
+    }
+  }
+
+  private void commit(final List<PendingWrite> writes) throws StorageException {
+    throwIfFailed();
+    throwIfWriterStopped();
+    if (writes.isEmpty()) {
+      return;
+    }
+    final Map<SegmentIdentifier, Map<Bytes, PendingValue>> values = new HashMap<>();
+    for (final PendingWrite write : writes) {
+      values
+          .computeIfAbsent(write.segment(), __ -> new HashMap<>())
+          .put(write.key(), write.value());
+    }
+    synchronized (commitLock) {
+      final PendingTransaction transaction =
+          new PendingTransaction(++committedSequence, writes, values);
+      // all the writes of the transaction become visible at once
+      pendingWrites.updateAndGet(pending -> pending.with(transaction));
+      // the writes are visible already, so they have to be queued even if interrupted
+      queueUninterruptibly(transaction);
+    }
+  }
+
+  private void queueUninterruptibly(final PendingTransaction transaction) {
+    boolean interrupted = false;
+    try {
+      while (true) {
+        try {
+          if (queue.offer(transaction, 100, TimeUnit.MILLISECONDS)) {
+            return;
+          }
+        } catch (final InterruptedException e) {
+          interrupted = true;
+        }
+        // nothing drains the queue anymore
+        throwIfWriterStopped();
+      }
+    } finally {
+      if (interrupted) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+
+  private void writeQueuedTransactions() {
+    try {
+      writeQueuedTransactionsUntilClosed();
+    } finally {
+      synchronized (writtenMonitor) {
+        writerStopped = true;
+        writtenMonitor.notifyAll();
+      }
+    }
+  }
+
+  private void writeQueuedTransactionsUntilClosed() {
+    final List<PendingTransaction> batch = new ArrayList<>(MAX_TRANSACTIONS_PER_BATCH);
+    while (running || !queue.isEmpty()) {
+      try {
+        final PendingTransaction first = queue.poll(100, TimeUnit.MILLISECONDS);
+        if (first == null) {
+          continue;
+        }
+        batch.add(first);
+        queue.drainTo(batch, MAX_TRANSACTIONS_PER_BATCH - 1);
+        write(batch);
+      } catch (final InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      } catch (final RuntimeException e) {
+        LOG.error("Unexpected error in the RocksDB group commit writer", e);
+        failure = new StorageException(e);
+        if (!batch.isEmpty()) {
+          notifyWritten(batch.get(batch.size() - 1).sequence());
+        }
+      } finally {
+        batch.clear();
+      }
+    }
+  }
+
+  private void write(final List<PendingTransaction> batch) {
+    final long lastSequence = batch.get(batch.size() - 1).sequence();
+    if (failure != null) {
+      // a previous batch could not be written, writing the later ones would break the ordering
+      notifyWritten(lastSequence);
+      return;
+    }
+    try (final WriteBatch writeBatch = new WriteBatch();
+        final OperationTimer.TimingContext ignored = metrics.getCommitLatency().startTimer()) {
+      for (final PendingTransaction transaction : batch) {
+        for (final PendingWrite write : transaction.writes()) {
+          final ColumnFamilyHandle columnFamily = columnFamilyMapper.apply(write.segment());
+          if (write.value().value == null) {
+            writeBatch.delete(columnFamily, write.key().toArrayUnsafe());
+          } else {
+            writeBatch.put(columnFamily, write.key().toArrayUnsafe(), write.value().value);
+          }
+        }
+      }
+      db.write(writeOptions, writeBatch);
+    } catch (final RocksDBException e) {
+      if (e.getMessage() != null && e.getMessage().contains(NO_SPACE_LEFT_ON_DEVICE)) {
+        LOG.error(e.getMessage());
+        System.exit(0);
+      }
+      LOG.error("Failed to write committed transactions to RocksDB", e);
+      failure = new StorageException(e);
+      notifyWritten(lastSequence);
+      return;
+    }
+
+    pendingWrites.updateAndGet(pending -> pending.withoutWrittenUpTo(lastSequence));
+    notifyWritten(lastSequence);
+  }
+
+  private void notifyWritten(final long sequence) {
+    synchronized (writtenMonitor) {
+      writtenSequence = sequence;
+      writtenMonitor.notifyAll();
+    }
+  }
+
+  private void throwIfFailed() {
+    final StorageException currentFailure = failure;
+    if (currentFailure != null) {
+      throw new StorageException(
+          "Earlier committed transactions could not be written", currentFailure);
+    }
+  }
+
+  private void throwIfWriterStopped() {
+    if (writerStopped) {
+      throw new StorageException("The RocksDB group commit writer is stopped");
+    }
+  }
+
+  /** Writes the queued transactions and stops the writer. */
+  @Override
+  public void close() {
+    running = false;
+    writer.shutdown();
+    try {
+      if (!writer.awaitTermination(1, TimeUnit.MINUTES)) {
+        LOG.error("Timed out writing the transactions committed before closing RocksDB");
+        writer.shutdownNow();
+      }
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      writer.shutdownNow();
+    }
+    writeOptions.close();
+  }
+
+  private class GroupCommitTransaction implements SegmentedKeyValueStorageTransaction {
+    private final List<PendingWrite> writes = new ArrayList<>();
+
+    // the arrays are copied since the caller may reuse them once they are handed over, as it can
+    // with the RocksDB transactions which copy them right away
+
+    @Override
+    public void put(final SegmentIdentifier segmentId, final byte[] key, final byte[] value) {
+      writes.add(
+          new PendingWrite(segmentId, Bytes.wrap(key.clone()), new PendingValue(value.clone())));
+    }
+
+    @Override
+    public void remove(final SegmentIdentifier segmentId, final byte[] key) {
+      writes.add(new PendingWrite(segmentId, Bytes.wrap(key.clone()), new PendingValue(null)));
+    }
+
+    @Override
+    public void commit() throws StorageException {
+      RocksDBGroupCommitter.this.commit(writes);
+    }
+
+    @Override
+    public void rollback() {
+      writes.clear();
+      metrics.getRollbackCount().inc();
+    }
+  }
+}
@@ -14,13 +14,18 @@
  */
 package org.hyperledger.besu.plugin.services.storage.rocksdb.segmented;
 
+import static com.google.common.base.Preconditions.checkArgument;
+
 import org.hyperledger.besu.plugin.services.exception.StorageException;
 import org.hyperledger.besu.plugin.services.metrics.OperationTimer;
 import org.hyperledger.besu.plugin.services.storage.SegmentIdentifier;
 import org.hyperledger.besu.plugin.services.storage.SegmentedKeyValueStorageTransaction;
 import org.hyperledger.besu.plugin.services.storage.rocksdb.RocksDBMetrics;
 import org.hyperledger.besu.plugin.services.storage.rocksdb.RocksDbIterator;
+import org.hyperledger.besu.plugin.services.storage.rocksdb.RocksDbUtil;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Function;
@@ -69,8 +74,12 @@ public class RocksDBSnapshotTransaction
     this.snapshot = new RocksDBSnapshot(db);
     this.writeOptions = new WriteOptions();
     this.snapTx = db.beginTransaction(writeOptions);
+    // total order seek keeps iterators correct on column families with a prefix extractor
     this.readOptions =
-        new ReadOptions().setVerifyChecksums(false).setSnapshot(snapshot.markAndUseSnapshot());
+        new ReadOptions()
+            .setVerifyChecksums(false)
+            .setTotalOrderSeek(true)
+            .setSnapshot(snapshot.markAndUseSnapshot());
   }
 
   private RocksDBSnapshotTransaction(
@@ -106,6 +115,34 @@ public class RocksDBSnapshotTransaction
     }
   }
 
+  /**
+   * Get data against several keys in a single batched read.
+   *
+   * @param segmentIds the segment id of every key
+   * @param keys the keys
+   * @return the optional data, in the same order as the keys
+   */
+  public List<Optional<byte[]>> multiGet(
+      final List<SegmentIdentifier> segmentIds, final List<byte[]> keys) {
+    throwIfClosed();
+    checkArgument(
+        segmentIds.size() == keys.size(),
+        "Expected one segment per key, got %s for %s",
+        segmentIds.size(),
+        keys.size());
+
+    final List<ColumnFamilyHandle> handles = new ArrayList<>(segmentIds.size());
+    for (final SegmentIdentifier segmentId : segmentIds) {
+      handles.add(columnFamilyMapper.apply(segmentId));
+    }
+    try (final OperationTimer.TimingContext ignored = metrics.getReadLatency().startTimer()) {
+      return RocksDbUtil.wrapMultiGetResults(
+          snapTx.multiGetAsList(readOptions, handles, keys.toArray(new byte[0][])));
+    } catch (final RocksDBException e) {
+      throw new StorageException(e);
+    }
+  }
+
   @Override
   public void put(final SegmentIdentifier segmentId, final byte[] key, final byte[] value) {
     throwIfClosed();
@@ -253,7 +290,8 @@ public class RocksDBSnapshotTransaction
   public RocksDBSnapshotTransaction copy() {
     throwIfClosed();
     try {
-      var copyReadOptions = new ReadOptions().setSnapshot(snapshot.markAndUseSnapshot());
+      var copyReadOptions =
+          new ReadOptions().setTotalOrderSeek(true).setSnapshot(snapshot.markAndUseSnapshot());
       var copySnapTx = db.beginTransaction(writeOptions);
       copySnapTx.rebuildFromWriteBatch(snapTx.getWriteBatch().getWriteBatch());
       return new RocksDBSnapshotTransaction(
@@ -0,0 +1,162 @@
+/*
+ * Copyright contributors to Hyperledger Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.plugin.services.storage.rocksdb.segmented;
+
+import org.hyperledger.besu.plugin.services.MetricsSystem;
+import org.hyperledger.besu.plugin.services.exception.StorageException;
+import org.hyperledger.besu.plugin.services.storage.SecondaryKeyValueStorage;
+import org.hyperledger.besu.plugin.services.storage.SegmentIdentifier;
+import org.hyperledger.besu.plugin.services.storage.SegmentedKeyValueStorageTransaction;
+import org.hyperledger.besu.plugin.services.storage.SnappableKeyValueStorage;
+import org.hyperledger.besu.plugin.services.storage.SnappedKeyValueStorage;
+import org.hyperledger.besu.plugin.services.storage.rocksdb.RocksDBMetricsFactory;
+import org.hyperledger.besu.plugin.services.storage.rocksdb.configuration.RocksDBConfiguration;
+import org.hyperledger.besu.services.kvstore.LayeredKeyValueStorage;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import org.rocksdb.RocksDB;
+import org.rocksdb.RocksDBException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * RocksDB Columnar key value storage opening the database of another process as a secondary
+ * instance. The storage is read only, the writes of the transactions it starts are discarded, and
+ * it only sees the data the primary process wrote up to the last call to {@link
+ * #tryCatchUpWithPrimary()}.
+ */
+public class SecondaryRocksDBColumnarKeyValueStorage extends RocksDBColumnarKeyValueStorage
+    implements SecondaryKeyValueStorage, SnappableKeyValueStorage {
+
+  private static final Logger LOG =
+      LoggerFactory.getLogger(SecondaryRocksDBColumnarKeyValueStorage.class);
+
+  private final RocksDB db;
+
+  /**
+   * Instantiates a new secondary RocksDB columnar key value storage.
+   *
+   * @param configuration the configuration, whose database directory is the one of the primary
+   * @param secondaryPath the directory where the secondary instance keeps its own info logs
+   * @param segments the segments
+   * @param ignorableSegments the ignorable segments
+   * @param metricsSystem the metrics system
+   * @param rocksDBMetricsFactory the rocks db metrics factory
+   * @throws StorageException the storage exception
+   */
+  public SecondaryRocksDBColumnarKeyValueStorage(
+      final RocksDBConfiguration configuration,
+      final Path secondaryPath,
+      final List<SegmentIdentifier> segments,
+      final List<SegmentIdentifier> ignorableSegments,
+      final MetricsSystem metricsSystem,
+      final RocksDBMetricsFactory rocksDBMetricsFactory)
+      throws StorageException {
+    super(configuration, segments, ignorableSegments, metricsSystem, rocksDBMetricsFactory);
+    try {
+      // a secondary instance must keep all the files open to not miss the ones the primary deletes
+      options.setMaxOpenFiles(-1);
+      db =
+          RocksDB.openAsSecondary(
+              options,
+              configuration.getDatabaseDir().toString(),
+              secondaryPath.toString(),
+              columnDescriptors,
+              columnHandles);
+      initMetrics();
+      initColumnHandles();
+
+    } catch (final RocksDBException e) {
+      throw parseRocksDBException(e, segments, ignorableSegments);
+    }
+  }
+
+  @Override
+  RocksDB getDB() {
+    return db;
+  }
+
+  @Override
+  public void tryCatchUpWithPrimary() throws StorageException {
+    throwIfClosed();
+    try {
+      db.tryCatchUpWithPrimary();
+    } catch (final RocksDBException e) {
+      throw new StorageException(e);
+    }
+  }
+
+  /**
+   * Start a transaction whose writes are discarded, as only the primary can write to the database.
+   *
+   * @return the new transaction started
+   * @throws StorageException the storage exception
+   */
+  @Override
+  public SegmentedKeyValueStorageTransaction startTransaction() throws StorageException {
+    throwIfClosed();
+    return new DiscardingTransaction();
+  }
+
+  /**
+   * Take a snapshot keeping its own writes in memory on top of the storage.
+   *
+   * @return the snapshot
+   * @throws StorageException the storage exception
+   */
+  @Override
+  public SnappedKeyValueStorage takeSnapshot() throws StorageException {
+    throwIfClosed();
+    return new LayeredKeyValueStorage(this);
+  }
+
+  @Override
+  public boolean tryDelete(final SegmentIdentifier segmentIdentifier, final byte[] key) {
+    return false;
+  }
+
+  @Override
+  public void clear(final SegmentIdentifier segmentIdentifier) {
+    throw new StorageException(
+        "Cannot clear segment " + segmentIdentifier.getName() + " of a secondary database");
+  }
+
+  private static class DiscardingTransaction implements SegmentedKeyValueStorageTransaction {
+    private boolean hasWrites;
+
+    @Override
+    public void put(
+        final SegmentIdentifier segmentIdentifier, final byte[] key, final byte[] value) {
+      hasWrites = true;
+    }
+
+    @Override
+    public void remove(final SegmentIdentifier segmentIdentifier, final byte[] key) {
+      hasWrites = true;
+    }
+
+    @Override
+    public void commit() throws StorageException {
+      if (hasWrites) {
+        LOG.debug("Discarding the writes of a transaction on a secondary database");
+      }
+    }
+
+    @Override
+    public void rollback() {}
+  }
+}
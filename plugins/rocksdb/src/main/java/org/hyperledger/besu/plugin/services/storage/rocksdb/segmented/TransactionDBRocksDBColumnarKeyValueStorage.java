@@ -64,6 +64,7 @@ public class TransactionDBRocksDBColumnarKeyValueStorage extends RocksDBColumnar
               columnHandles);
       initMetrics();
       initColumnHandles();
+      initGroupCommitter();
 
     } catch (final RocksDBException e) {
       throw parseRocksDBException(e, segments, ignorableSegments);
@@ -84,8 +85,11 @@ public class TransactionDBRocksDBColumnarKeyValueStorage extends RocksDBColumnar
   @Override
   public SegmentedKeyValueStorageTransaction startTransaction() throws StorageException {
     throwIfClosed();
-    final WriteOptions writeOptions = new WriteOptions();
-    writeOptions.setIgnoreMissingColumnFamilies(true);
+    if (groupCommitter != null) {
+      return new SegmentedKeyValueStorageTransactionValidatorDecorator(
+          groupCommitter.startTransaction(), this.closed::get);
+    }
+    final WriteOptions writeOptions = newWriteOptions();
     return new SegmentedKeyValueStorageTransactionValidatorDecorator(
         new RocksDBTransaction(
             this::safeColumnHandle, db.beginTransaction(writeOptions), writeOptions, metrics),
@@ -15,6 +15,7 @@
 package org.hyperledger.besu.plugin.services.storage.rocksdb;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
 import static org.hyperledger.besu.plugin.services.storage.rocksdb.configuration.RocksDBCLIOptions.CACHE_CAPACITY_FLAG;
 import static org.hyperledger.besu.plugin.services.storage.rocksdb.configuration.RocksDBCLIOptions.DEFAULT_BACKGROUND_THREAD_COUNT;
 import static org.hyperledger.besu.plugin.services.storage.rocksdb.configuration.RocksDBCLIOptions.DEFAULT_CACHE_CAPACITY;
@@ -25,6 +26,12 @@ import static org.hyperledger.besu.plugin.services.storage.rocksdb.configuration
 
 import org.hyperledger.besu.plugin.services.storage.rocksdb.configuration.RocksDBCLIOptions;
 import org.hyperledger.besu.plugin.services.storage.rocksdb.configuration.RocksDBFactoryConfiguration;
+import org.hyperledger.besu.plugin.services.storage.rocksdb.configuration.RocksDBSegmentProfile;
+import org.hyperledger.besu.plugin.services.storage.rocksdb.configuration.RocksDBSegmentTuning;
+import org.hyperledger.besu.plugin.services.storage.rocksdb.configuration.RocksDBWriteDurability;
+import org.hyperledger.besu.plugin.services.storage.rocksdb.segmented.RocksDBColumnarKeyValueStorageTest.TestSegment;
+
+import java.util.List;
 
 import org.junit.jupiter.api.Test;
 import picocli.CommandLine;
@@ -104,4 +111,94 @@ public class RocksDBCLIOptionsTest {
     assertThat(configuration.getCacheCapacity()).isEqualTo(DEFAULT_CACHE_CAPACITY);
     assertThat(configuration.isHighSpec()).isEqualTo(Boolean.TRUE);
   }
+
+  @Test
+  public void customIsDirectReadsEnabled() {
+    final RocksDBCLIOptions options = RocksDBCLIOptions.create();
+
+    new CommandLine(options).parseArgs(RocksDBCLIOptions.DIRECT_READS_ENABLED_FLAG);
+
+    final RocksDBFactoryConfiguration configuration = options.toDomainObject();
+    assertThat(configuration).isNotNull();
+    assertThat(configuration.isHighSpec()).isEqualTo(DEFAULT_IS_HIGH_SPEC);
+    assertThat(configuration.isDirectReadsEnabled()).isTrue();
+  }
+
+  @Test
+  public void customGroupCommitAndWriteDurability() {
+    final RocksDBCLIOptions options = RocksDBCLIOptions.create();
+
+    new CommandLine(options)
+        .parseArgs(
+            RocksDBCLIOptions.GROUP_COMMIT_ENABLED_FLAG,
+            RocksDBCLIOptions.WRITE_DURABILITY_FLAG,
+            "SYNC");
+
+    final RocksDBFactoryConfiguration configuration = options.toDomainObject();
+    assertThat(configuration.isGroupCommitEnabled()).isTrue();
+    assertThat(configuration.getWriteDurability()).isEqualTo(RocksDBWriteDurability.SYNC);
+  }
+
+  @Test
+  public void groupCommitIsDisabledByDefault() {
+    final RocksDBCLIOptions options = RocksDBCLIOptions.create();
+
+    new CommandLine(options).parseArgs();
+
+    final RocksDBFactoryConfiguration configuration = options.toDomainObject();
+    assertThat(configuration.isGroupCommitEnabled()).isFalse();
+    assertThat(configuration.getWriteDurability()).isEqualTo(RocksDBWriteDurability.WAL);
+  }
+
+  @Test
+  public void segmentProfilesUseDefaultsWhenOnlyEnabled() {
+    final RocksDBCLIOptions options = RocksDBCLIOptions.create();
+
+    new CommandLine(options).parseArgs(RocksDBCLIOptions.SEGMENT_PROFILES_ENABLED_FLAG);
+
+    final RocksDBSegmentTuning tuning = options.toDomainObject().getSegmentTuning();
+    assertThat(tuning.isEnabled()).isTrue();
+    assertThat(tuning.getProfilesBySegmentName())
+        .containsEntry("TRIE_BRANCH_STORAGE", RocksDBSegmentProfile.TRIE)
+        .containsEntry("ACCOUNT_STORAGE_STORAGE", RocksDBSegmentProfile.FLAT_STORAGE)
+        .containsEntry("BLOCKCHAIN", RocksDBSegmentProfile.CHAIN_DATA)
+        .containsEntry("TRIE_LOG_STORAGE", RocksDBSegmentProfile.BLOCK_DATA);
+    assertThat(tuning.getCacheShares()).isEmpty();
+  }
+
+  @Test
+  public void customSegmentProfilesAndCacheShares() {
+    final RocksDBCLIOptions options = RocksDBCLIOptions.create();
+
+    new CommandLine(options)
+        .parseArgs(
+            RocksDBCLIOptions.SEGMENT_PROFILES_ENABLED_FLAG,
+            RocksDBCLIOptions.SEGMENT_PROFILES_FLAG,
+            "CODE_STORAGE=BLOCK_DATA,VARIABLES=FLAT_ACCOUNT",
+            RocksDBCLIOptions.BLOCK_CACHE_SHARES_FLAG,
+            "BLOCK_DATA=1,FLAT_ACCOUNT=3");
+
+    final RocksDBSegmentTuning tuning = options.toDomainObject().getSegmentTuning();
+    assertThat(tuning.getProfilesBySegmentName())
+        .containsOnly(
+            entry("CODE_STORAGE", RocksDBSegmentProfile.BLOCK_DATA),
+            entry("VARIABLES", RocksDBSegmentProfile.FLAT_ACCOUNT));
+    assertThat(
+            tuning.cacheCapacityOf(
+                RocksDBSegmentProfile.FLAT_ACCOUNT,
+                List.of(RocksDBSegmentProfile.BLOCK_DATA, RocksDBSegmentProfile.FLAT_ACCOUNT),
+                400))
+        .isEqualTo(300);
+  }
+
+  @Test
+  public void segmentProfilesAreDisabledByDefault() {
+    final RocksDBCLIOptions options = RocksDBCLIOptions.create();
+
+    new CommandLine(options).parseArgs();
+
+    final RocksDBSegmentTuning tuning = options.toDomainObject().getSegmentTuning();
+    assertThat(tuning.isEnabled()).isFalse();
+    assertThat(tuning.profileFor(TestSegment.FOO)).isEqualTo(RocksDBSegmentProfile.DEFAULT);
+  }
 }
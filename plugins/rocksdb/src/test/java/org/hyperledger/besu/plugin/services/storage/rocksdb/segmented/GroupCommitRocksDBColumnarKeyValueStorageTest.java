@@ -0,0 +1,189 @@
+/*
+ * Copyright contributors to Hyperledger Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.plugin.services.storage.rocksdb.segmented;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.hyperledger.besu.metrics.noop.NoOpMetricsSystem;
+import org.hyperledger.besu.plugin.services.MetricsSystem;
+import org.hyperledger.besu.plugin.services.storage.SegmentIdentifier;
+import org.hyperledger.besu.plugin.services.storage.SegmentedKeyValueStorage;
+import org.hyperledger.besu.plugin.services.storage.SegmentedKeyValueStorageTransaction;
+import org.hyperledger.besu.plugin.services.storage.rocksdb.RocksDBMetricsFactory;
+import org.hyperledger.besu.plugin.services.storage.rocksdb.configuration.RocksDBConfigurationBuilder;
+import org.hyperledger.besu.plugin.services.storage.rocksdb.configuration.RocksDBWriteDurability;
+
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+public class GroupCommitRocksDBColumnarKeyValueStorageTest
+    extends RocksDBColumnarKeyValueStorageTest {
+
+  private static final List<SegmentIdentifier> SEGMENTS =
+      Arrays.asList(TestSegment.DEFAULT, TestSegment.FOO, TestSegment.BAR);
+
+  @Override
+  protected SegmentedKeyValueStorage createSegmentedStore() throws Exception {
+    return createGroupCommitStore(getTempSubFolder(folder), RocksDBWriteDurability.WAL);
+  }
+
+  @Override
+  protected SegmentedKeyValueStorage createSegmentedStore(
+      final Path path,
+      final List<SegmentIdentifier> segments,
+      final List<SegmentIdentifier> ignorableSegments) {
+    return new TransactionDBRocksDBColumnarKeyValueStorage(
+        new RocksDBConfigurationBuilder().databaseDir(folder).isGroupCommitEnabled(true).build(),
+        segments,
+        ignorableSegments,
+        new NoOpMetricsSystem(),
+        RocksDBMetricsFactory.PUBLIC_ROCKS_DB_METRICS);
+  }
+
+  @Override
+  protected SegmentedKeyValueStorage createSegmentedStore(
+      final Path path,
+      final MetricsSystem metricsSystem,
+      final List<SegmentIdentifier> segments,
+      final List<SegmentIdentifier> ignorableSegments) {
+    return new TransactionDBRocksDBColumnarKeyValueStorage(
+        new RocksDBConfigurationBuilder().databaseDir(path).isGroupCommitEnabled(true).build(),
+        segments,
+        ignorableSegments,
+        metricsSystem,
+        RocksDBMetricsFactory.PUBLIC_ROCKS_DB_METRICS);
+  }
+
+  private SegmentedKeyValueStorage createGroupCommitStore(
+      final Path path, final RocksDBWriteDurability durability) {
+    return new TransactionDBRocksDBColumnarKeyValueStorage(
+        new RocksDBConfigurationBuilder()
+            .databaseDir(path)
+            .isGroupCommitEnabled(true)
+            .writeDurability(durability)
+            .build(),
+        SEGMENTS,
+        List.of(),
+        new NoOpMetricsSystem(),
+        RocksDBMetricsFactory.PUBLIC_ROCKS_DB_METRICS);
+  }
+
+  @Test
+  public void committedWritesAreVisibleBeforeBeingWritten() throws Exception {
+    final SegmentedKeyValueStorage store = createSegmentedStore();
+
+    for (int i = 0; i < 100; i++) {
+      final SegmentedKeyValueStorageTransaction tx = store.startTransaction();
+      tx.put(TestSegment.FOO, bytesOf(i), bytesOf(i, i));
+      if (i > 0) {
+        tx.remove(TestSegment.FOO, bytesOf(i - 1));
+      }
+      tx.commit();
+
+      assertThat(store.get(TestSegment.FOO, bytesOf(i))).contains(bytesOf(i, i));
+      if (i > 0) {
+        assertThat(store.containsKey(TestSegment.FOO, bytesOf(i - 1))).isFalse();
+      }
+    }
+    assertThat(store.streamKeys(TestSegment.FOO).collect(Collectors.toList()))
+        .containsExactly(bytesOf(99));
+
+    store.close();
+  }
+
+  @Test
+  public void committedWritesAreVisibleToMultiGet() throws Exception {
+    final SegmentedKeyValueStorage store = createSegmentedStore();
+
+    for (int i = 0; i < 100; i++) {
+      final SegmentedKeyValueStorageTransaction tx = store.startTransaction();
+      tx.put(TestSegment.FOO, bytesOf(i), bytesOf(i, i));
+      tx.put(TestSegment.BAR, bytesOf(i), bytesOf(i, i));
+      if (i > 0) {
+        tx.remove(TestSegment.FOO, bytesOf(i - 1));
+      }
+      tx.commit();
+
+      final List<Optional<byte[]>> values =
+          store.multiGet(
+              List.of(TestSegment.FOO, TestSegment.BAR, TestSegment.FOO, TestSegment.BAR),
+              List.of(bytesOf(i), bytesOf(i), bytesOf(Math.max(i - 1, 0)), bytesOf(0)));
+      assertThat(values.get(0)).contains(bytesOf(i, i));
+      assertThat(values.get(1)).contains(bytesOf(i, i));
+      if (i > 0) {
+        assertThat(values.get(2)).isEmpty();
+      }
+      assertThat(values.get(3)).contains(bytesOf(0, 0));
+    }
+
+    store.close();
+  }
+
+  @Test
+  public void committedWritesArePersistedOnClose() throws Exception {
+    final Path path = getTempSubFolder(folder);
+    final SegmentedKeyValueStorage store = createGroupCommitStore(path, RocksDBWriteDurability.WAL);
+    for (int i = 0; i < 50; i++) {
+      final SegmentedKeyValueStorageTransaction tx = store.startTransaction();
+      tx.put(TestSegment.BAR, bytesOf(i), bytesOf(i));
+      tx.commit();
+    }
+    store.close();
+
+    final SegmentedKeyValueStorage reopened =
+        createGroupCommitStore(path, RocksDBWriteDurability.WAL);
+    for (int i = 0; i < 50; i++) {
+      assertThat(reopened.get(TestSegment.BAR, bytesOf(i))).contains(bytesOf(i));
+    }
+    reopened.close();
+  }
+
+  @Test
+  public void syncDurabilityWritesCommittedTransactions() throws Exception {
+    final Path path = getTempSubFolder(folder);
+    final SegmentedKeyValueStorage store =
+        createGroupCommitStore(path, RocksDBWriteDurability.SYNC);
+    final SegmentedKeyValueStorageTransaction tx = store.startTransaction();
+    tx.put(TestSegment.DEFAULT, bytesOf(1), bytesOf(2));
+    tx.commit();
+    assertThat(store.stream(TestSegment.DEFAULT).count()).isEqualTo(1);
+    store.close();
+
+    final SegmentedKeyValueStorage reopened =
+        createGroupCommitStore(path, RocksDBWriteDurability.SYNC);
+    assertThat(reopened.get(TestSegment.DEFAULT, bytesOf(1))).contains(bytesOf(2));
+    reopened.close();
+  }
+
+  @Test
+  public void rolledBackTransactionsAreNotWritten() throws Exception {
+    final SegmentedKeyValueStorage store = createSegmentedStore();
+    final SegmentedKeyValueStorageTransaction tx = store.startTransaction();
+    tx.put(TestSegment.FOO, bytesOf(1), bytesOf(1));
+    tx.rollback();
+
+    assertThat(store.get(TestSegment.FOO, bytesOf(1))).isEmpty();
+    assertThat(store.stream(TestSegment.FOO).count()).isZero();
+    store.close();
+  }
+}
@@ -18,6 +18,7 @@ import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import org.hyperledger.besu.plugin.services.storage.SegmentIdentifier;
@@ -104,6 +105,31 @@ public class LayeredKeyValueStorageTest {
     assertArrayEquals(value1, resultList.get(0).getValue());
   }
 
+  @Test
+  void multiGetShouldOnlyReadKeysMissingFromLayerInParent() {
+    byte[] key1 = {1};
+    byte[] value1 = {10};
+    byte[] key2 = {2};
+    byte[] value2 = {20};
+    byte[] key3 = {3};
+
+    var hashValueStore = createSegmentMap();
+    hashValueStore.get(segmentId).put(Bytes.wrap(key2), Optional.of(value2));
+    hashValueStore.get(segmentId).put(Bytes.wrap(key3), Optional.empty());
+    layeredKeyValueStorage = new LayeredKeyValueStorage(hashValueStore, parentStorage);
+    when(parentStorage.multiGet(List.of(segmentId), List.of(key1)))
+        .thenReturn(List.of(Optional.of(value1)));
+
+    List<Optional<byte[]>> result =
+        layeredKeyValueStorage.multiGet(segmentId, List.of(key3, key1, key2));
+
+    assertEquals(3, result.size());
+    assertTrue(result.get(0).isEmpty());
+    assertArrayEquals(value1, result.get(1).orElseThrow());
+    assertArrayEquals(value2, result.get(2).orElseThrow());
+    verify(parentStorage).multiGet(List.of(segmentId), List.of(key1));
+  }
+
   @Test
   void shouldMergeParentAndLayerData() {
     byte[] key1 = {1};
@@ -14,18 +14,28 @@
  */
 package org.hyperledger.besu.plugin.services.storage.rocksdb.segmented;
 
+import static org.assertj.core.api.Assertions.assertThat;
+
 import org.hyperledger.besu.metrics.noop.NoOpMetricsSystem;
 import org.hyperledger.besu.plugin.services.MetricsSystem;
 import org.hyperledger.besu.plugin.services.storage.SegmentIdentifier;
 import org.hyperledger.besu.plugin.services.storage.SegmentedKeyValueStorage;
+import org.hyperledger.besu.plugin.services.storage.SegmentedKeyValueStorageTransaction;
 import org.hyperledger.besu.plugin.services.storage.rocksdb.RocksDBMetricsFactory;
 import org.hyperledger.besu.plugin.services.storage.rocksdb.configuration.RocksDBConfigurationBuilder;
+import org.hyperledger.besu.plugin.services.storage.rocksdb.configuration.RocksDBSegmentProfile;
+import org.hyperledger.besu.plugin.services.storage.rocksdb.configuration.RocksDBSegmentTuning;
 
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 
+import org.apache.commons.lang3.tuple.Pair;
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.bytes.Bytes32;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.junit.jupiter.MockitoExtension;
 
@@ -45,6 +55,98 @@ public class OptimisticTransactionDBRocksDBColumnarKeyValueStorageTest
         RocksDBMetricsFactory.PUBLIC_ROCKS_DB_METRICS);
   }
 
+  @Test
+  public void getAndMapWithDirectReads() throws Exception {
+    final SegmentedKeyValueStorage store =
+        new OptimisticRocksDBColumnarKeyValueStorage(
+            new RocksDBConfigurationBuilder()
+                .databaseDir(Files.createTempDirectory("segmentedStore"))
+                .isDirectReadsEnabled(true)
+                .build(),
+            Arrays.asList(TestSegment.DEFAULT, TestSegment.FOO, TestSegment.BAR),
+            List.of(),
+            new NoOpMetricsSystem(),
+            RocksDBMetricsFactory.PUBLIC_ROCKS_DB_METRICS);
+    final byte[] largeValue = new byte[10_000];
+    Arrays.fill(largeValue, (byte) 7);
+
+    final SegmentedKeyValueStorageTransaction tx = store.startTransaction();
+    tx.put(TestSegment.FOO, bytesOf(1), bytesOf(10));
+    tx.put(TestSegment.FOO, bytesOf(2), largeValue);
+    tx.commit();
+
+    assertThat(store.getAndMap(TestSegment.FOO, bytesOf(1), Bytes::copy))
+        .contains(Bytes.of(10));
+    assertThat(store.getAndMap(TestSegment.FOO, bytesOf(2), Bytes::copy))
+        .contains(Bytes.wrap(largeValue));
+    assertThat(store.getAndMap(TestSegment.FOO, bytesOf(3), Bytes::copy)).isEmpty();
+    assertThat(store.getAndMap(TestSegment.FOO, bytesOf(1), value -> null)).isEmpty();
+    assertThat(store.containsKey(TestSegment.FOO, bytesOf(2))).isTrue();
+    assertThat(store.containsKey(TestSegment.BAR, bytesOf(2))).isFalse();
+    // a read from within a mapper must not clobber the value being mapped
+    assertThat(
+            store.getAndMap(
+                TestSegment.FOO,
+                bytesOf(1),
+                value -> {
+                  store.getAndMap(TestSegment.FOO, bytesOf(2), Bytes::size);
+                  return value.copy();
+                }))
+        .contains(Bytes.of(10));
+
+    store.close();
+  }
+
+  @Test
+  public void segmentProfilesKeepIteratorsInTotalOrder() throws Exception {
+    final SegmentedKeyValueStorage store =
+        new OptimisticRocksDBColumnarKeyValueStorage(
+            new RocksDBConfigurationBuilder()
+                .databaseDir(Files.createTempDirectory("segmentedStore"))
+                .segmentTuning(
+                    new RocksDBSegmentTuning(
+                        true,
+                        Map.of(
+                            TestSegment.FOO.getName(), RocksDBSegmentProfile.FLAT_STORAGE,
+                            TestSegment.BAR.getName(), RocksDBSegmentProfile.BLOCK_DATA),
+                        Map.of(RocksDBSegmentProfile.FLAT_STORAGE, 3)))
+                .build(),
+            Arrays.asList(TestSegment.DEFAULT, TestSegment.FOO, TestSegment.BAR),
+            List.of(),
+            new NoOpMetricsSystem(),
+            RocksDBMetricsFactory.PUBLIC_ROCKS_DB_METRICS);
+    final Bytes firstAccount = Bytes32.fromHexStringLenient("0x01");
+    final Bytes secondAccount = Bytes32.fromHexStringLenient("0x02");
+    final byte[] firstSlot = Bytes.concatenate(firstAccount, Bytes32.ZERO).toArrayUnsafe();
+    final byte[] secondSlot =
+        Bytes.concatenate(firstAccount, Bytes32.fromHexStringLenient("0x01")).toArrayUnsafe();
+    final byte[] otherAccountSlot = Bytes.concatenate(secondAccount, Bytes32.ZERO).toArrayUnsafe();
+
+    final SegmentedKeyValueStorageTransaction tx = store.startTransaction();
+    tx.put(TestSegment.FOO, firstSlot, bytesOf(1));
+    tx.put(TestSegment.FOO, secondSlot, bytesOf(2));
+    tx.put(TestSegment.FOO, otherAccountSlot, bytesOf(3));
+    tx.put(TestSegment.BAR, bytesOf(1), new byte[1_000]);
+    tx.commit();
+
+    assertThat(store.stream(TestSegment.FOO).map(Pair::getKey))
+        .containsExactly(firstSlot, secondSlot, otherAccountSlot);
+    assertThat(store.streamFromKey(TestSegment.FOO, firstSlot, secondSlot).map(Pair::getKey))
+        .containsExactly(firstSlot, secondSlot);
+    assertThat(store.streamFromKey(TestSegment.FOO, secondSlot, otherAccountSlot).map(Pair::getKey))
+        .containsExactly(secondSlot, otherAccountSlot);
+    assertThat(
+            store.getNearestAfter(
+                TestSegment.FOO,
+                Bytes.concatenate(firstAccount, Bytes32.fromHexStringLenient("0x02"))))
+        .hasValueSatisfying(
+            nearest -> assertThat(nearest.key()).isEqualTo(Bytes.wrap(otherAccountSlot)));
+    assertThat(store.get(TestSegment.BAR, bytesOf(1)))
+        .hasValueSatisfying(value -> assertThat(value).hasSize(1_000));
+
+    store.close();
+  }
+
   @Override
   protected SegmentedKeyValueStorage createSegmentedStore(
       final Path path,
@@ -187,6 +187,35 @@ public abstract class RocksDBColumnarKeyValueStorageTest extends AbstractKeyValu
     store.close();
   }
 
+  @Test
+  public void multiGetReturnsValuesInKeysOrder() throws Exception {
+    final SegmentedKeyValueStorage store = createSegmentedStore();
+
+    final SegmentedKeyValueStorageTransaction tx = store.startTransaction();
+    tx.put(TestSegment.FOO, bytesOf(1), bytesOf(10));
+    tx.put(TestSegment.FOO, bytesOf(2), bytesOf(20));
+    tx.put(TestSegment.BAR, bytesOf(3), bytesOf(30));
+    tx.commit();
+
+    final List<Optional<byte[]>> fromFoo =
+        store.multiGet(TestSegment.FOO, List.of(bytesOf(2), bytesOf(3), bytesOf(1)));
+    assertThat(fromFoo).hasSize(3);
+    assertThat(fromFoo.get(0)).contains(bytesOf(20));
+    assertThat(fromFoo.get(1)).isEmpty();
+    assertThat(fromFoo.get(2)).contains(bytesOf(10));
+
+    final List<Optional<byte[]>> fromBoth =
+        store.multiGet(
+            List.of(TestSegment.BAR, TestSegment.FOO, TestSegment.BAR),
+            List.of(bytesOf(3), bytesOf(3), bytesOf(1)));
+    assertThat(fromBoth).hasSize(3);
+    assertThat(fromBoth.get(0)).contains(bytesOf(30));
+    assertThat(fromBoth.get(1)).isEmpty();
+    assertThat(fromBoth.get(2)).isEmpty();
+
+    store.close();
+  }
+
   @Test
   public void dbShouldIgnoreExperimentalSegmentsIfNotExisted(@TempDir final Path testPath)
       throws Exception {
@@ -0,0 +1,147 @@
+/*
+ * Copyright contributors to Hyperledger Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.plugin.services.storage.rocksdb.segmented;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import org.hyperledger.besu.plugin.services.exception.StorageException;
+import org.hyperledger.besu.plugin.services.metrics.OperationTimer;
+import org.hyperledger.besu.plugin.services.storage.SegmentIdentifier;
+import org.hyperledger.besu.plugin.services.storage.SegmentedKeyValueStorageTransaction;
+import org.hyperledger.besu.plugin.services.storage.rocksdb.RocksDBMetrics;
+import org.hyperledger.besu.plugin.services.storage.rocksdb.segmented.RocksDBColumnarKeyValueStorageTest.TestSegment;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.rocksdb.ColumnFamilyHandle;
+import org.rocksdb.RocksDB;
+import org.rocksdb.WriteBatch;
+import org.rocksdb.WriteOptions;
+
+public class RocksDBGroupCommitterTest {
+
+  private final RocksDB db = mock(RocksDB.class);
+  private final RocksDBMetrics metrics = mock(RocksDBMetrics.class);
+  private final CountDownLatch writesAllowed = new CountDownLatch(1);
+  private RocksDBGroupCommitter groupCommitter;
+
+  @BeforeAll
+  public static void loadLibrary() {
+    RocksDB.loadLibrary();
+  }
+
+  @AfterEach
+  public void tearDown() {
+    writesAllowed.countDown();
+    if (groupCommitter != null) {
+      groupCommitter.close();
+    }
+  }
+
+  private void startGroupCommitter(
+      final Function<SegmentIdentifier, ColumnFamilyHandle> columnFamilyMapper) throws Exception {
+    when(metrics.getCommitLatency()).thenReturn(mock(OperationTimer.class));
+    doAnswer(
+            invocation -> {
+              writesAllowed.await();
+              return null;
+            })
+        .when(db)
+        .write(any(WriteOptions.class), any(WriteBatch.class));
+    groupCommitter =
+        new RocksDBGroupCommitter(db, columnFamilyMapper, mock(WriteOptions.class), metrics);
+  }
+
+  private void commit(final int key, final int value) {
+    final SegmentedKeyValueStorageTransaction tx = groupCommitter.startTransaction();
+    tx.put(TestSegment.FOO, new byte[] {(byte) key}, new byte[] {(byte) value});
+    tx.put(TestSegment.BAR, new byte[] {(byte) key}, new byte[] {(byte) value});
+    tx.commit();
+  }
+
+  private List<Optional<byte[]>> applyTo(
+      final RocksDBGroupCommitter.PendingWrites pendingWrites, final int key) {
+    return pendingWrites.applyTo(
+        List.of(TestSegment.FOO, TestSegment.BAR),
+        List.of(new byte[] {(byte) key}, new byte[] {(byte) key}),
+        new ArrayList<>(List.of(Optional.empty(), Optional.empty())));
+  }
+
+  @Test
+  public void transactionsWrittenDuringAReadStayVisibleToIt() throws Exception {
+    startGroupCommitter(segment -> mock(ColumnFamilyHandle.class));
+    commit(1, 1);
+    final RocksDBGroupCommitter.PendingWrites beforeRead = groupCommitter.pendingWrites();
+
+    writesAllowed.countDown();
+    groupCommitter.flush();
+
+    assertThat(groupCommitter.getPending(TestSegment.FOO, new byte[] {1})).isNull();
+    final Optional<RocksDBGroupCommitter.PendingWrites> pendingWrites =
+        groupCommitter.pendingWritesSince(beforeRead);
+    assertThat(pendingWrites).isPresent();
+    assertThat(applyTo(pendingWrites.get(), 1))
+        .allSatisfy(value -> assertThat(value).contains(new byte[] {1}));
+  }
+
+  @Test
+  public void readIsRetriedWhenTransactionsCommittedDuringItAreWritten() throws Exception {
+    startGroupCommitter(segment -> mock(ColumnFamilyHandle.class));
+    writesAllowed.countDown();
+    final RocksDBGroupCommitter.PendingWrites beforeRead = groupCommitter.pendingWrites();
+
+    commit(1, 1);
+    commit(1, 2);
+    groupCommitter.flush();
+
+    assertThat(groupCommitter.pendingWritesSince(beforeRead)).isEmpty();
+  }
+
+  @Test
+  public void pendingWritesOfTheLastTransactionWin() throws Exception {
+    startGroupCommitter(segment -> mock(ColumnFamilyHandle.class));
+    commit(1, 1);
+    commit(1, 2);
+
+    assertThat(applyTo(groupCommitter.pendingWrites(), 1))
+        .allSatisfy(value -> assertThat(value).contains(new byte[] {2}));
+  }
+
+  @Test
+  @Timeout(10)
+  public void flushFailsWhenTheWriterStopped() throws Exception {
+    startGroupCommitter(
+        segment -> {
+          throw new Error("writer stopped");
+        });
+    commit(1, 1);
+
+    assertThatThrownBy(groupCommitter::flush).isInstanceOf(StorageException.class);
+    assertThatThrownBy(() -> commit(2, 2)).isInstanceOf(StorageException.class);
+  }
+}
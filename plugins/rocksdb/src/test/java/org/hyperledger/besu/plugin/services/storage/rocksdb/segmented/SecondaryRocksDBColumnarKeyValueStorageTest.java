@@ -0,0 +1,128 @@
+/*
+ * Copyright contributors to Hyperledger Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.plugin.services.storage.rocksdb.segmented;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.hyperledger.besu.metrics.noop.NoOpMetricsSystem;
+import org.hyperledger.besu.plugin.services.storage.SegmentIdentifier;
+import org.hyperledger.besu.plugin.services.storage.SegmentedKeyValueStorageTransaction;
+import org.hyperledger.besu.plugin.services.storage.SnappedKeyValueStorage;
+import org.hyperledger.besu.plugin.services.storage.rocksdb.RocksDBMetricsFactory;
+import org.hyperledger.besu.plugin.services.storage.rocksdb.configuration.RocksDBConfiguration;
+import org.hyperledger.besu.plugin.services.storage.rocksdb.configuration.RocksDBConfigurationBuilder;
+import org.hyperledger.besu.plugin.services.storage.rocksdb.segmented.RocksDBColumnarKeyValueStorageTest.TestSegment;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class SecondaryRocksDBColumnarKeyValueStorageTest {
+
+  private static final List<SegmentIdentifier> SEGMENTS =
+      List.of(TestSegment.DEFAULT, TestSegment.FOO, TestSegment.BAR);
+
+  @TempDir private Path folder;
+
+  private OptimisticRocksDBColumnarKeyValueStorage primary;
+  private SecondaryRocksDBColumnarKeyValueStorage secondary;
+
+  @BeforeEach
+  public void setUp() throws Exception {
+    final RocksDBConfiguration configuration =
+        new RocksDBConfigurationBuilder().databaseDir(folder.resolve("primary")).build();
+    primary =
+        new OptimisticRocksDBColumnarKeyValueStorage(
+            configuration,
+            SEGMENTS,
+            List.of(),
+            new NoOpMetricsSystem(),
+            RocksDBMetricsFactory.PUBLIC_ROCKS_DB_METRICS);
+    put(TestSegment.FOO, 1, 10);
+
+    secondary =
+        new SecondaryRocksDBColumnarKeyValueStorage(
+            configuration,
+            Files.createDirectories(folder.resolve("secondary")),
+            SEGMENTS,
+            List.of(),
+            new NoOpMetricsSystem(),
+            RocksDBMetricsFactory.PUBLIC_ROCKS_DB_METRICS);
+  }
+
+  @AfterEach
+  public void tearDown() {
+    secondary.close();
+    primary.close();
+  }
+
+  @Test
+  public void readsTheDataOfThePrimary() {
+    assertThat(secondary.get(TestSegment.FOO, bytes(1))).contains(bytes(10));
+    assertThat(secondary.get(TestSegment.BAR, bytes(1))).isEmpty();
+  }
+
+  @Test
+  public void seesNewWritesOfThePrimaryOnlyAfterCatchingUp() {
+    put(TestSegment.FOO, 2, 20);
+    put(TestSegment.BAR, 1, 30);
+    assertThat(secondary.get(TestSegment.FOO, bytes(2))).isEmpty();
+
+    secondary.tryCatchUpWithPrimary();
+
+    assertThat(secondary.get(TestSegment.FOO, bytes(2))).contains(bytes(20));
+    assertThat(secondary.get(TestSegment.BAR, bytes(1))).contains(bytes(30));
+  }
+
+  @Test
+  public void discardsItsOwnWrites() {
+    final SegmentedKeyValueStorageTransaction tx = secondary.startTransaction();
+    tx.put(TestSegment.FOO, bytes(3), bytes(30));
+    tx.remove(TestSegment.FOO, bytes(1));
+    tx.commit();
+
+    assertThat(secondary.get(TestSegment.FOO, bytes(3))).isEmpty();
+    assertThat(secondary.get(TestSegment.FOO, bytes(1))).contains(bytes(10));
+    assertThat(secondary.tryDelete(TestSegment.FOO, bytes(1))).isFalse();
+    assertThat(primary.get(TestSegment.FOO, bytes(3))).isEmpty();
+  }
+
+  @Test
+  public void snapshotKeepsItsWritesInMemory() {
+    final SnappedKeyValueStorage snapshot = secondary.takeSnapshot();
+    final SegmentedKeyValueStorageTransaction tx = snapshot.getSnapshotTransaction();
+    tx.put(TestSegment.FOO, bytes(3), bytes(30));
+    tx.commit();
+
+    assertThat(snapshot.get(TestSegment.FOO, bytes(1))).contains(bytes(10));
+    assertThat(snapshot.get(TestSegment.FOO, bytes(3))).contains(bytes(30));
+    assertThat(secondary.get(TestSegment.FOO, bytes(3))).isEmpty();
+  }
+
+  private void put(final SegmentIdentifier segment, final int key, final int value) {
+    final SegmentedKeyValueStorageTransaction tx = primary.startTransaction();
+    tx.put(segment, bytes(key), bytes(value));
+    tx.commit();
+  }
+
+  private static byte[] bytes(final int value) {
+    return new byte[] {(byte) value};
+  }
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright contributors to Hyperledger Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.services.kvstore;
+
+import static org.hyperledger.besu.services.kvstore.InMemoryKeyValueStorage.SEGMENT_IDENTIFIER;
+
+import org.hyperledger.besu.plugin.services.storage.SegmentedKeyValueStorageTransaction;
+import org.hyperledger.besu.plugin.services.storage.SnappableKeyValueStorage;
+import org.hyperledger.besu.plugin.services.storage.SnappedKeyValueStorage;
+
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Compares the lock based in memory storage with the concurrent one. The {@code readWrite} group
+ * measures point reads running alongside a committing writer, as happens while importing blocks
+ * and serving RPC requests at the same time; thread counts of the other benchmarks can be set with
+ * {@code -t}.
+ */
+@State(Scope.Benchmark)
+public class InMemoryKeyValueStorageBenchmark {
+
+  private static final int KEY_COUNT = 100_000;
+  private static final int KEYS_PER_COMMIT = 16;
+
+  @Param({"locking", "concurrent"})
+  public String storageType;
+
+  private SnappableKeyValueStorage storage;
+  private byte[][] keys;
+
+  @Setup(Level.Trial)
+  public void prepare() {
+    storage =
+        switch (storageType) {
+          case "locking" -> new SegmentedInMemoryKeyValueStorage();
+          case "concurrent" -> new ConcurrentSegmentedInMemoryKeyValueStorage();
+          default -> throw new IllegalArgumentException("Unknown storage type " + storageType);
+        };
+
+    final Random random = new Random(42);
+    keys = new byte[KEY_COUNT][];
+    final SegmentedKeyValueStorageTransaction tx = storage.startTransaction();
+    for (int i = 0; i < KEY_COUNT; i++) {
+      keys[i] = new byte[32];
+      random.nextBytes(keys[i]);
+      final byte[] value = new byte[80];
+      random.nextBytes(value);
+      tx.put(SEGMENT_IDENTIFIER, keys[i], value);
+    }
+    tx.commit();
+  }
+
+  private byte[] randomKey() {
+    return keys[ThreadLocalRandom.current().nextInt(KEY_COUNT)];
+  }
+
+  @Benchmark
+  public Optional<byte[]> get() {
+    return storage.get(SEGMENT_IDENTIFIER, randomKey());
+  }
+
+  @Benchmark
+  public void commit() {
+    final SegmentedKeyValueStorageTransaction tx = storage.startTransaction();
+    for (int i = 0; i < KEYS_PER_COMMIT; i++) {
+      tx.put(SEGMENT_IDENTIFIER, randomKey(), randomKey());
+    }
+    tx.commit();
+  }
+
+  @Benchmark
+  @Group("readWrite")
+  @GroupThreads(3)
+  public Optional<byte[]> readWhileCommitting() {
+    return get();
+  }
+
+  @Benchmark
+  @Group("readWrite")
+  @GroupThreads(1)
+  public void commitWhileReading() {
+    commit();
+  }
+
+  /** Streams the first keys of the segment, as iterating the flat database does. */
+  @Benchmark
+  public long streamFromKey() {
+    return storage.streamFromKey(SEGMENT_IDENTIFIER, randomKey()).limit(1_000).count();
+  }
+
+  /** Takes a snapshot, reads and writes a few keys through it and drops it. */
+  @Benchmark
+  public Optional<byte[]> snapshot() throws Exception {
+    try (final SnappedKeyValueStorage snapshot = storage.takeSnapshot()) {
+      final SegmentedKeyValueStorageTransaction tx = snapshot.getSnapshotTransaction();
+      tx.put(SEGMENT_IDENTIFIER, randomKey(), randomKey());
+      tx.commit();
+      return snapshot.get(SEGMENT_IDENTIFIER, randomKey());
+    }
+  }
+}
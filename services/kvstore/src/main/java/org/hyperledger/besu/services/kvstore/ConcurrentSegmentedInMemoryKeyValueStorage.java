@@ -0,0 +1,617 @@
+/*
+ * Copyright contributors to Hyperledger Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.services.kvstore;
+
+import static java.util.stream.Collectors.toUnmodifiableSet;
+
+import org.hyperledger.besu.plugin.services.exception.StorageException;
+import org.hyperledger.besu.plugin.services.storage.SegmentIdentifier;
+import org.hyperledger.besu.plugin.services.storage.SegmentedKeyValueStorage;
+import org.hyperledger.besu.plugin.services.storage.SegmentedKeyValueStorageTransaction;
+import org.hyperledger.besu.plugin.services.storage.SnappableKeyValueStorage;
+import org.hyperledger.besu.plugin.services.storage.SnappedKeyValueStorage;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongFunction;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import org.apache.commons.lang3.tuple.Pair;
+import org.apache.tuweni.bytes.Bytes;
+
+/**
+ * Segmented in memory key value storage whose reads never block.
+ *
+ * <p>Every segment is a {@link ConcurrentSkipListMap} ordered like RocksDB orders its keys, which
+ * maps each key to the chain of its committed versions. A commit appends a new version to the keys
+ * it writes and then publishes its version number, so readers always observe whole commits without
+ * taking any lock, and streams iterate the segment in order without copying it. Commits are
+ * serialized with each other.
+ *
+ * <p>A snapshot pins the version of the storage it is taken from and reads that version until it
+ * is closed, while the storage keeps moving on. Writes to a snapshot go to a layer of its own, on
+ * top of the pinned version, which is built the same way and can be snapshotted in turn. Versions
+ * that are no longer visible to any open snapshot are dropped by the next commit writing the same
+ * key, so snapshots should be closed once they are not used anymore.
+ *
+ * <p>Reads of the storage itself are not pinned, so a commit may drop the versions a concurrent
+ * read is walking. Commits publish the oldest version they keep visible before dropping any, and a
+ * read whose version is older than that once it is done is retried at the new committed version.
+ *
+ * <p>Streams of a storage that is written to concurrently are weakly consistent, like the iterators
+ * of the concurrent collections: they reflect the version that was committed when they were created
+ * but may miss keys that are updated more than once while they are being consumed. Snapshots should
+ * be used when a consistent view is needed.
+ */
+public class ConcurrentSegmentedInMemoryKeyValueStorage
+    implements SnappedKeyValueStorage, SnappableKeyValueStorage, SegmentedKeyValueStorage {
+
+  private static final Comparator<byte[]> KEY_ORDER = Arrays::compareUnsigned;
+  private static final int STREAM_CHARACTERISTICS =
+      Spliterator.ORDERED | Spliterator.DISTINCT | Spliterator.NONNULL;
+
+  private final ConcurrentMap<SegmentIdentifier, ConcurrentSkipListMap<byte[], Version>> segments =
+      new ConcurrentHashMap<>();
+  private final ReentrantLock commitLock = new ReentrantLock();
+  // count of open snapshots by pinned version, only accessed while holding the commit lock
+  private final NavigableMap<Long, Integer> pinnedVersions = new TreeMap<>();
+  // keys removed from a storage without parent, only accessed while holding the commit lock
+  private final Queue<Removal> pendingRemovals = new ArrayDeque<>();
+  private volatile long committedVersion;
+  // versions older than the one visible at this version may have been dropped, it never decreases
+  private volatile long oldestVisibleVersion;
+
+  private final ConcurrentSegmentedInMemoryKeyValueStorage parent;
+  private final long parentVersion;
+  private final List<Pin> pins;
+  private final AtomicBoolean closed = new AtomicBoolean();
+
+  /** Instantiates a new empty concurrent in memory key value storage. */
+  public ConcurrentSegmentedInMemoryKeyValueStorage() {
+    this.parent = null;
+    this.parentVersion = 0;
+    this.pins = Collections.emptyList();
+  }
+
+  private ConcurrentSegmentedInMemoryKeyValueStorage(
+      final ConcurrentSegmentedInMemoryKeyValueStorage parent) {
+    this.parent = parent;
+    final List<Pin> snapshotPins = new ArrayList<>(parent.pins.size() + 1);
+    // the ancestors must keep the versions the parent reads for as long as this snapshot is open,
+    // even if the parent is closed first
+    parent.pins.forEach(pin -> snapshotPins.add(pin.storage().pin(pin.version())));
+    final Pin parentPin = parent.pinCommittedVersion();
+    snapshotPins.add(parentPin);
+    this.parentVersion = parentPin.version();
+    this.pins = snapshotPins;
+  }
+
+  /** A committed value of a key, the value is null when the key was removed. */
+  private record Version(long number, byte[] value, Version previous) {}
+
+  private record Removal(SegmentIdentifier segmentIdentifier, byte[] key, long version) {}
+
+  private record Pin(ConcurrentSegmentedInMemoryKeyValueStorage storage, long version) {}
+
+  @Override
+  public Optional<byte[]> get(final SegmentIdentifier segmentIdentifier, final byte[] key)
+      throws StorageException {
+    throwIfClosed();
+    return readCommitted(version -> get(segmentIdentifier, key, version));
+  }
+
+  /**
+   * Reads the committed version, reading again at the new committed version when versions the read
+   * may have needed were dropped by a concurrent commit.
+   */
+  private <T> T readCommitted(final LongFunction<T> read) {
+    while (true) {
+      final long version = committedVersion;
+      final T result = read.apply(version);
+      if (version >= oldestVisibleVersion) {
+        return result;
+      }
+    }
+  }
+
+  private Optional<byte[]> get(
+      final SegmentIdentifier segmentIdentifier, final byte[] key, final long version) {
+    final ConcurrentSkipListMap<byte[], Version> entries = segments.get(segmentIdentifier);
+    final Version visible = entries == null ? null : visibleAt(entries.get(key), version);
+    if (visible != null) {
+      return Optional.ofNullable(visible.value());
+    }
+    return parent == null ? Optional.empty() : parent.get(segmentIdentifier, key, parentVersion);
+  }
+
+  @Override
+  public boolean containsKey(final SegmentIdentifier segmentIdentifier, final byte[] key)
+      throws StorageException {
+    return get(segmentIdentifier, key).isPresent();
+  }
+
+  @Override
+  public Optional<NearestKeyValue> getNearestBefore(
+      final SegmentIdentifier segmentIdentifier, final Bytes key) throws StorageException {
+    throwIfClosed();
+    return readCommitted(
+        version ->
+            toNearest(iterator(segmentIdentifier, version, null, key.toArrayUnsafe(), true)));
+  }
+
+  @Override
+  public Optional<NearestKeyValue> getNearestAfter(
+      final SegmentIdentifier segmentIdentifier, final Bytes key) throws StorageException {
+    throwIfClosed();
+    return readCommitted(
+        version ->
+            toNearest(iterator(segmentIdentifier, version, key.toArrayUnsafe(), null, false)));
+  }
+
+  private static Optional<NearestKeyValue> toNearest(final Iterator<Pair<byte[], byte[]>> entries) {
+    if (!entries.hasNext()) {
+      return Optional.empty();
+    }
+    final Pair<byte[], byte[]> nearest = entries.next();
+    return Optional.of(
+        new NearestKeyValue(Bytes.wrap(nearest.getKey()), Optional.of(nearest.getValue())));
+  }
+
+  @Override
+  public Stream<Pair<byte[], byte[]>> stream(final SegmentIdentifier segmentIdentifier) {
+    return stream(segmentIdentifier, null, null);
+  }
+
+  @Override
+  public Stream<Pair<byte[], byte[]>> streamFromKey(
+      final SegmentIdentifier segmentIdentifier, final byte[] startKey) {
+    return stream(segmentIdentifier, startKey, null);
+  }
+
+  @Override
+  public Stream<Pair<byte[], byte[]>> streamFromKey(
+      final SegmentIdentifier segmentIdentifier, final byte[] startKey, final byte[] endKey) {
+    if (KEY_ORDER.compare(startKey, endKey) > 0) {
+      return Stream.empty();
+    }
+    return stream(segmentIdentifier, startKey, endKey);
+  }
+
+  @Override
+  public Stream<byte[]> streamKeys(final SegmentIdentifier segmentIdentifier) {
+    return stream(segmentIdentifier).map(Pair::getKey);
+  }
+
+  private Stream<Pair<byte[], byte[]>> stream(
+      final SegmentIdentifier segmentIdentifier, final byte[] from, final byte[] to) {
+    throwIfClosed();
+    return StreamSupport.stream(
+        Spliterators.spliteratorUnknownSize(
+            iterator(segmentIdentifier, committedVersion, from, to, false),
+            STREAM_CHARACTERISTICS),
+        false);
+  }
+
+  /**
+   * Iterates the entries visible at the given version between the given inclusive bounds, in key
+   * order or in reverse key order. Removed keys are skipped.
+   */
+  private Iterator<Pair<byte[], byte[]>> iterator(
+      final SegmentIdentifier segmentIdentifier,
+      final long version,
+      final byte[] from,
+      final byte[] to,
+      final boolean descending) {
+    final Iterator<Pair<byte[], byte[]>> ours =
+        layerIterator(segmentIdentifier, version, from, to, descending);
+    if (parent == null) {
+      return new RemovedKeysSkippingIterator(ours);
+    }
+    return new RemovedKeysSkippingIterator(
+        new LayeredIterator(
+            ours,
+            parent.iterator(segmentIdentifier, parentVersion, from, to, descending),
+            descending ? KEY_ORDER.reversed() : KEY_ORDER));
+  }
+
+  /** Iterates the entries of this layer only, including the removed keys with a null value. */
+  private Iterator<Pair<byte[], byte[]>> layerIterator(
+      final SegmentIdentifier segmentIdentifier,
+      final long version,
+      final byte[] from,
+      final byte[] to,
+      final boolean descending) {
+    final ConcurrentSkipListMap<byte[], Version> entries = segments.get(segmentIdentifier);
+    if (entries == null) {
+      return Collections.emptyIterator();
+    }
+    final NavigableMap<byte[], Version> range;
+    if (from != null && to != null) {
+      range = entries.subMap(from, true, to, true);
+    } else if (from != null) {
+      range = entries.tailMap(from, true);
+    } else if (to != null) {
+      range = entries.headMap(to, true);
+    } else {
+      range = entries;
+    }
+    return (descending ? range.descendingMap() : range)
+        .entrySet().stream()
+            .map(
+                entry -> {
+                  final Version visible = visibleAt(entry.getValue(), version);
+                  return visible == null ? null : Pair.of(entry.getKey(), visible.value());
+                })
+            .filter(Objects::nonNull)
+            .iterator();
+  }
+
+  private static Version visibleAt(final Version head, final long version) {
+    Version visible = head;
+    while (visible != null && visible.number() > version) {
+      visible = visible.previous();
+    }
+    return visible;
+  }
+
+  @Override
+  public Set<byte[]> getAllKeysThat(
+      final SegmentIdentifier segmentIdentifier, final Predicate<byte[]> returnCondition) {
+    return stream(segmentIdentifier)
+        .filter(pair -> returnCondition.test(pair.getKey()))
+        .map(Pair::getKey)
+        .collect(toUnmodifiableSet());
+  }
+
+  @Override
+  public Set<byte[]> getAllValuesFromKeysThat(
+      final SegmentIdentifier segmentIdentifier, final Predicate<byte[]> returnCondition) {
+    return stream(segmentIdentifier)
+        .filter(pair -> returnCondition.test(pair.getKey()))
+        .map(Pair::getValue)
+        .collect(toUnmodifiableSet());
+  }
+
+  @Override
+  public boolean tryDelete(final SegmentIdentifier segmentIdentifier, final byte[] key) {
+    throwIfClosed();
+    if (commitLock.tryLock()) {
+      try {
+        final NavigableMap<byte[], Optional<byte[]>> removal = new TreeMap<>(KEY_ORDER);
+        removal.put(key, Optional.empty());
+        commit(Map.of(segmentIdentifier, removal));
+      } finally {
+        commitLock.unlock();
+      }
+      return true;
+    }
+    return false;
+  }
+
+  /** Clears the segment by removing all its keys, the open snapshots still see them. */
+  @Override
+  public void clear(final SegmentIdentifier segmentIdentifier) {
+    throwIfClosed();
+    commitLock.lock();
+    try {
+      final NavigableMap<byte[], Optional<byte[]>> removals = new TreeMap<>(KEY_ORDER);
+      stream(segmentIdentifier).forEach(entry -> removals.put(entry.getKey(), Optional.empty()));
+      commit(Map.of(segmentIdentifier, removals));
+    } finally {
+      commitLock.unlock();
+    }
+  }
+
+  @Override
+  public SegmentedKeyValueStorageTransaction startTransaction() throws StorageException {
+    throwIfClosed();
+    return new SegmentedKeyValueStorageTransactionValidatorDecorator(
+        new ConcurrentInMemoryTransaction(), this::isClosed);
+  }
+
+  @Override
+  public SegmentedKeyValueStorageTransaction getSnapshotTransaction() {
+    return startTransaction();
+  }
+
+  @Override
+  public ConcurrentSegmentedInMemoryKeyValueStorage takeSnapshot() {
+    throwIfClosed();
+    return new ConcurrentSegmentedInMemoryKeyValueStorage(this);
+  }
+
+  private void commit(
+      final Map<SegmentIdentifier, NavigableMap<byte[], Optional<byte[]>>> updates) {
+    commitLock.lock();
+    try {
+      final long version = committedVersion + 1;
+      final long oldestVisible = publishOldestVisibleVersion();
+      updates.forEach(
+          (segmentIdentifier, values) -> {
+            final ConcurrentSkipListMap<byte[], Version> entries = segment(segmentIdentifier);
+            values.forEach(
+                (key, value) ->
+                    entries.put(
+                        key,
+                        new Version(
+                            version,
+                            value.orElse(null),
+                            retain(entries.get(key), oldestVisible))));
+          });
+      committedVersion = version;
+
+      // without a parent to hide, removed keys can go once no snapshot reads an older version
+      if (parent == null) {
+        updates.forEach(
+            (segmentIdentifier, values) ->
+                values.forEach(
+                    (key, value) -> {
+                      if (value.isEmpty()) {
+                        pendingRemovals.add(new Removal(segmentIdentifier, key, version));
+                      }
+                    }));
+        dropRemovedKeys(publishOldestVisibleVersion());
+      }
+    } finally {
+      commitLock.unlock();
+    }
+  }
+
+  /**
+   * Publishes the oldest version visible to the open snapshots and to the reads of the committed
+   * version, before versions older than the one visible at it are dropped.
+   */
+  private long publishOldestVisibleVersion() {
+    final long oldestVisible =
+        pinnedVersions.isEmpty()
+            ? committedVersion
+            : Math.min(pinnedVersions.firstKey(), committedVersion);
+    if (oldestVisible > oldestVisibleVersion) {
+      oldestVisibleVersion = oldestVisible;
+    }
+    return oldestVisible;
+  }
+
+  private void dropRemovedKeys(final long oldestVisible) {
+    while (!pendingRemovals.isEmpty() && oldestVisible >= pendingRemovals.peek().version()) {
+      final Removal removal = pendingRemovals.poll();
+      segment(removal.segmentIdentifier())
+          .computeIfPresent(
+              removal.key(), (__, head) -> head.number() == removal.version() ? null : head);
+    }
+  }
+
+  /**
+   * Drops the versions of a key that are older than the one visible at the oldest visible version,
+   * copying the versions that are kept only when some are dropped.
+   */
+  private static Version retain(final Version version, final long oldestVisibleVersion) {
+    if (version == null) {
+      return null;
+    }
+    if (version.number() <= oldestVisibleVersion) {
+      return version.previous() == null
+          ? version
+          : new Version(version.number(), version.value(), null);
+    }
+    final Version previous = retain(version.previous(), oldestVisibleVersion);
+    return previous == version.previous()
+        ? version
+        : new Version(version.number(), version.value(), previous);
+  }
+
+  private ConcurrentSkipListMap<byte[], Version> segment(
+      final SegmentIdentifier segmentIdentifier) {
+    return segments.computeIfAbsent(
+        segmentIdentifier, __ -> new ConcurrentSkipListMap<>(KEY_ORDER));
+  }
+
+  private Pin pinCommittedVersion() {
+    commitLock.lock();
+    try {
+      return pin(committedVersion);
+    } finally {
+      commitLock.unlock();
+    }
+  }
+
+  private Pin pin(final long version) {
+    commitLock.lock();
+    try {
+      pinnedVersions.merge(version, 1, Integer::sum);
+      return new Pin(this, version);
+    } finally {
+      commitLock.unlock();
+    }
+  }
+
+  private void unpin(final long version) {
+    commitLock.lock();
+    try {
+      pinnedVersions.computeIfPresent(version, (__, count) -> count == 1 ? null : count - 1);
+    } finally {
+      commitLock.unlock();
+    }
+  }
+
+  /**
+   * Closes a snapshot and releases the versions it pins, the snapshots taken from it stay open.
+   * Closing a storage which is not a snapshot does nothing, since the in memory storages may be
+   * reopened with their content.
+   */
+  @Override
+  public void close() {
+    if (parent != null && closed.compareAndSet(false, true)) {
+      pins.forEach(pin -> pin.storage().unpin(pin.version()));
+    }
+  }
+
+  @Override
+  public boolean isClosed() {
+    return closed.get();
+  }
+
+  private void throwIfClosed() {
+    if (isClosed()) {
+      throw new StorageException("Storage has been closed");
+    }
+  }
+
+  /** Merges the entries of a layer with the ones of its parent, the layer taking precedence. */
+  private static class LayeredIterator implements Iterator<Pair<byte[], byte[]>> {
+    private final PeekingIterator ours;
+    private final PeekingIterator parents;
+    private final Comparator<byte[]> order;
+
+    LayeredIterator(
+        final Iterator<Pair<byte[], byte[]>> ours,
+        final Iterator<Pair<byte[], byte[]>> parents,
+        final Comparator<byte[]> order) {
+      this.ours = new PeekingIterator(ours);
+      this.parents = new PeekingIterator(parents);
+      this.order = order;
+    }
+
+    @Override
+    public boolean hasNext() {
+      return ours.hasNext() || parents.hasNext();
+    }
+
+    @Override
+    public Pair<byte[], byte[]> next() {
+      if (!ours.hasNext() || !parents.hasNext()) {
+        return ours.hasNext() ? ours.next() : parents.next();
+      }
+      final int comparison = order.compare(ours.peek().getKey(), parents.peek().getKey());
+      if (comparison > 0) {
+        return parents.next();
+      }
+      if (comparison == 0) {
+        parents.next();
+      }
+      return ours.next();
+    }
+  }
+
+  /** Skips the keys removed in a layer, which are iterated with a null value. */
+  private static class RemovedKeysSkippingIterator implements Iterator<Pair<byte[], byte[]>> {
+    private final PeekingIterator entries;
+
+    RemovedKeysSkippingIterator(final Iterator<Pair<byte[], byte[]>> entries) {
+      this.entries = new PeekingIterator(entries);
+    }
+
+    @Override
+    public boolean hasNext() {
+      while (entries.hasNext() && entries.peek().getValue() == null) {
+        entries.next();
+      }
+      return entries.hasNext();
+    }
+
+    @Override
+    public Pair<byte[], byte[]> next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      return entries.next();
+    }
+  }
+
+  private static class PeekingIterator implements Iterator<Pair<byte[], byte[]>> {
+    private final Iterator<Pair<byte[], byte[]>> iterator;
+    private Pair<byte[], byte[]> next;
+
+    PeekingIterator(final Iterator<Pair<byte[], byte[]>> iterator) {
+      this.iterator = iterator;
+      this.next = iterator.hasNext() ? iterator.next() : null;
+    }
+
+    Pair<byte[], byte[]> peek() {
+      return next;
+    }
+
+    @Override
+    public boolean hasNext() {
+      return next != null;
+    }
+
+    @Override
+    public Pair<byte[], byte[]> next() {
+      if (next == null) {
+        throw new NoSuchElementException();
+      }
+      final Pair<byte[], byte[]> current = next;
+      next = iterator.hasNext() ? iterator.next() : null;
+      return current;
+    }
+  }
+
+  /** Transaction buffering its updates until they are committed as a single version. */
+  private class ConcurrentInMemoryTransaction implements SegmentedKeyValueStorageTransaction {
+
+    private final Map<SegmentIdentifier, NavigableMap<byte[], Optional<byte[]>>> updates =
+        new HashMap<>();
+
+    @Override
+    public void put(
+        final SegmentIdentifier segmentIdentifier, final byte[] key, final byte[] value) {
+      updates
+          .computeIfAbsent(segmentIdentifier, __ -> new TreeMap<>(KEY_ORDER))
+          .put(key, Optional.of(value));
+    }
+
+    @Override
+    public void remove(final SegmentIdentifier segmentIdentifier, final byte[] key) {
+      updates
+          .computeIfAbsent(segmentIdentifier, __ -> new TreeMap<>(KEY_ORDER))
+          .put(key, Optional.empty());
+    }
+
+    @Override
+    public void commit() throws StorageException {
+      ConcurrentSegmentedInMemoryKeyValueStorage.this.commit(updates);
+      updates.clear();
+    }
+
+    @Override
+    public void rollback() {
+      updates.clear();
+    }
+  }
+}
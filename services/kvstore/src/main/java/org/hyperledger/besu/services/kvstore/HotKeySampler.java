@@ -0,0 +1,135 @@
+/*
+ * Copyright contributors to Hyperledger Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.services.kvstore;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import org.apache.tuweni.bytes.Bytes;
+
+/**
+ * Finds the most accessed keys of a segment from a sample of its accesses.
+ *
+ * <p>Sampled keys are counted in a count-min sketch, which never underestimates their frequency and
+ * only needs a fixed amount of memory. The keys with the highest estimates are kept as the hot
+ * keys. Counts are halved regularly so that the hot keys follow the current workload.
+ */
+public class HotKeySampler {
+  private static final int DEPTH = 4;
+  private static final int WIDTH = 2048;
+  private static final int[] SEEDS = {0x9E3779B9, 0x85EBCA6B, 0xC2B2AE35, 0x27D4EB2F};
+
+  /** Sampled accesses after which the counts are halved. */
+  static final int DECAY_INTERVAL = 1 << 16;
+
+  private final int sampleRate;
+  private final int maxHotKeys;
+  private final AtomicIntegerArray sketch = new AtomicIntegerArray(DEPTH * WIDTH);
+  private final Map<Bytes, Integer> hotKeys = new HashMap<>();
+  private int sampled;
+
+  /**
+   * Instantiates a new hot key sampler.
+   *
+   * @param sampleRate one access out of sampleRate is sampled
+   * @param maxHotKeys the number of hot keys kept
+   */
+  public HotKeySampler(final int sampleRate, final int maxHotKeys) {
+    checkArgument(sampleRate > 0, "sample rate must be positive");
+    checkArgument(maxHotKeys > 0, "max hot keys must be positive");
+    this.sampleRate = sampleRate;
+    this.maxHotKeys = maxHotKeys;
+  }
+
+  /**
+   * Records an access to a key, when it is sampled.
+   *
+   * @param key the accessed key, which is copied if kept
+   */
+  public void sample(final byte[] key) {
+    if (sampleRate > 1 && ThreadLocalRandom.current().nextInt(sampleRate) != 0) {
+      return;
+    }
+    final Bytes wrapped = Bytes.wrap(key);
+    final int hash = wrapped.hashCode();
+    int estimate = Integer.MAX_VALUE;
+    for (int row = 0; row < DEPTH; row++) {
+      estimate = Math.min(estimate, sketch.incrementAndGet(indexOf(row, hash)));
+    }
+    offer(wrapped, estimate);
+  }
+
+  private synchronized void offer(final Bytes key, final int estimate) {
+    if (++sampled >= DECAY_INTERVAL) {
+      decay();
+    }
+    if (hotKeys.containsKey(key)) {
+      hotKeys.put(key, estimate);
+      return;
+    }
+    if (hotKeys.size() < maxHotKeys) {
+      hotKeys.put(key.copy(), estimate);
+      return;
+    }
+    final Map.Entry<Bytes, Integer> coldest =
+        hotKeys.entrySet().stream().min(Map.Entry.comparingByValue()).orElseThrow();
+    if (estimate > coldest.getValue()) {
+      hotKeys.remove(coldest.getKey());
+      hotKeys.put(key.copy(), estimate);
+    }
+  }
+
+  private void decay() {
+    sampled = 0;
+    for (int i = 0; i < sketch.length(); i++) {
+      // concurrent increments may be halved too, which only makes the estimate lower
+      sketch.set(i, sketch.get(i) >>> 1);
+    }
+    hotKeys.replaceAll((key, count) -> count >>> 1);
+  }
+
+  private static int indexOf(final int row, final int hash) {
+    int h = hash * SEEDS[row];
+    h ^= h >>> 16;
+    return row * WIDTH + (h & (WIDTH - 1));
+  }
+
+  /**
+   * Gets the hot keys, hottest first.
+   *
+   * @return the hot keys with their estimated number of accesses
+   */
+  public synchronized List<HotKey> getHotKeys() {
+    final List<HotKey> result = new ArrayList<>(hotKeys.size());
+    hotKeys.forEach((key, count) -> result.add(new HotKey(key, (long) count * sampleRate)));
+    result.sort(Comparator.comparingLong(HotKey::estimatedAccesses).reversed());
+    return result;
+  }
+
+  /**
+   * A frequently accessed key.
+   *
+   * @param key the key
+   * @param estimatedAccesses the estimated number of recent accesses
+   */
+  public record HotKey(Bytes key, long estimatedAccesses) {}
+}
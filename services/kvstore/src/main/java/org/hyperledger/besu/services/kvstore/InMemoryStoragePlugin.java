@@ -97,8 +97,8 @@ public class InMemoryStoragePlugin implements BesuPlugin {
   public static class InMemoryKeyValueStorageFactory implements KeyValueStorageFactory {
 
     private final String name;
-    private final Map<List<SegmentIdentifier>, SegmentedInMemoryKeyValueStorage> storageMap =
-        new HashMap<>();
+    private final Map<List<SegmentIdentifier>, ConcurrentSegmentedInMemoryKeyValueStorage>
+        storageMap = new HashMap<>();
 
     /**
      * Instantiates a new Memory key value storage factory.
@@ -122,7 +122,7 @@ public class InMemoryStoragePlugin implements BesuPlugin {
         throws StorageException {
       var kvStorage =
           storageMap.computeIfAbsent(
-              List.of(segment), seg -> new SegmentedInMemoryKeyValueStorage(seg));
+              List.of(segment), __ -> new ConcurrentSegmentedInMemoryKeyValueStorage());
       return new SegmentedKeyValueStorageAdapter(segment, kvStorage);
     }
 
@@ -133,7 +133,8 @@ public class InMemoryStoragePlugin implements BesuPlugin {
         final MetricsSystem metricsSystem)
         throws StorageException {
       var kvStorage =
-          storageMap.computeIfAbsent(segments, __ -> new SegmentedInMemoryKeyValueStorage());
+          storageMap.computeIfAbsent(
+              segments, __ -> new ConcurrentSegmentedInMemoryKeyValueStorage());
       return kvStorage;
     }
 
@@ -0,0 +1,47 @@
+/*
+ * Copyright contributors to Hyperledger Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.services.kvstore;
+
+import org.hyperledger.besu.plugin.services.exception.StorageException;
+import org.hyperledger.besu.plugin.services.storage.CheckpointableKeyValueStorage;
+import org.hyperledger.besu.plugin.services.storage.SegmentedKeyValueStorage;
+
+import java.nio.file.Path;
+
+/** An instrumented storage which can create checkpoints of the decorated storage. */
+public class InstrumentedCheckpointableKeyValueStorage extends InstrumentedSegmentedKeyValueStorage
+    implements CheckpointableKeyValueStorage {
+
+  /**
+   * Instantiates a new instrumented checkpointable storage.
+   *
+   * @param storage the storage to decorate, which must be checkpointable
+   * @param stats the stats to record the operations in
+   */
+  InstrumentedCheckpointableKeyValueStorage(
+      final SegmentedKeyValueStorage storage, final SegmentedStorageStats stats) {
+    super(storage, stats);
+  }
+
+  @Override
+  public void createCheckpoint(final Path checkpointDirectory) throws StorageException {
+    ((CheckpointableKeyValueStorage) storage).createCheckpoint(checkpointDirectory);
+  }
+
+  @Override
+  public Path getStoragePath() {
+    return ((CheckpointableKeyValueStorage) storage).getStoragePath();
+  }
+}
@@ -0,0 +1,255 @@
+/*
+ * Copyright contributors to Hyperledger Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.services.kvstore;
+
+import org.hyperledger.besu.plugin.services.exception.StorageException;
+import org.hyperledger.besu.plugin.services.storage.CheckpointableKeyValueStorage;
+import org.hyperledger.besu.plugin.services.storage.SecondaryKeyValueStorage;
+import org.hyperledger.besu.plugin.services.storage.SegmentIdentifier;
+import org.hyperledger.besu.plugin.services.storage.SegmentedKeyValueStorage;
+import org.hyperledger.besu.plugin.services.storage.SegmentedKeyValueStorageTransaction;
+import org.hyperledger.besu.plugin.services.storage.SnappableKeyValueStorage;
+import org.hyperledger.besu.services.kvstore.SegmentedStorageStats.Operation;
+
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+import org.apache.commons.lang3.tuple.Pair;
+import org.apache.tuweni.bytes.Bytes;
+
+/**
+ * Decorates a segmented storage to record the latency of its operations and sample the accessed
+ * keys, per segment.
+ *
+ * <p>Use {@link #wrap} to keep the snapshot and checkpoint capabilities of the decorated storage.
+ */
+public class InstrumentedSegmentedKeyValueStorage implements SegmentedKeyValueStorage {
+
+  /** The decorated storage. */
+  protected final SegmentedKeyValueStorage storage;
+
+  /** The stats the operations are recorded in. */
+  protected final SegmentedStorageStats stats;
+
+  /**
+   * Instantiates a new instrumented storage.
+   *
+   * @param storage the storage to decorate
+   * @param stats the stats to record the operations in
+   */
+  public InstrumentedSegmentedKeyValueStorage(
+      final SegmentedKeyValueStorage storage, final SegmentedStorageStats stats) {
+    this.storage = storage;
+    this.stats = stats;
+  }
+
+  /**
+   * Decorates a storage with an instrumented storage implementing the same storage interfaces.
+   *
+   * @param storage the storage to decorate
+   * @param stats the stats to record the operations in
+   * @return the instrumented storage, or the storage itself when its interfaces can't be preserved
+   */
+  public static SegmentedKeyValueStorage wrap(
+      final SegmentedKeyValueStorage storage, final SegmentedStorageStats stats) {
+    final boolean snappable = storage instanceof SnappableKeyValueStorage;
+    final boolean checkpointable = storage instanceof CheckpointableKeyValueStorage;
+    if (storage instanceof SecondaryKeyValueStorage) {
+      return snappable && checkpointable
+          ? new InstrumentedSecondaryKeyValueStorage(storage, stats)
+          : storage;
+    } else if (snappable && checkpointable) {
+      return new InstrumentedSnappableKeyValueStorage(storage, stats);
+    } else if (checkpointable) {
+      return new InstrumentedCheckpointableKeyValueStorage(storage, stats);
+    } else if (snappable) {
+      return storage;
+    }
+    return new InstrumentedSegmentedKeyValueStorage(storage, stats);
+  }
+
+  /**
+   * Gets the stats the operations are recorded in.
+   *
+   * @return the stats
+   */
+  public SegmentedStorageStats getStats() {
+    return stats;
+  }
+
+  @Override
+  public Optional<byte[]> get(final SegmentIdentifier segment, final byte[] key)
+      throws StorageException {
+    stats.sampleKey(segment, key);
+    final long start = System.nanoTime();
+    try {
+      return storage.get(segment, key);
+    } finally {
+      stats.recordLatency(segment, Operation.GET, System.nanoTime() - start);
+    }
+  }
+
+  @Override
+  public <T> Optional<T> getAndMap(
+      final SegmentIdentifier segment, final byte[] key, final Function<Bytes, T> mapper)
+      throws StorageException {
+    stats.sampleKey(segment, key);
+    final long start = System.nanoTime();
+    try {
+      return storage.getAndMap(segment, key, mapper);
+    } finally {
+      stats.recordLatency(segment, Operation.GET, System.nanoTime() - start);
+    }
+  }
+
+  @Override
+  public List<Optional<byte[]>> multiGet(final SegmentIdentifier segment, final List<byte[]> keys)
+      throws StorageException {
+    keys.forEach(key -> stats.sampleKey(segment, key));
+    final long start = System.nanoTime();
+    try {
+      return storage.multiGet(segment, keys);
+    } finally {
+      stats.recordLatency(segment, Operation.MULTI_GET, System.nanoTime() - start);
+    }
+  }
+
+  @Override
+  public List<Optional<byte[]>> multiGet(
+      final List<SegmentIdentifier> segments, final List<byte[]> keys) throws StorageException {
+    for (int i = 0; i < Math.min(segments.size(), keys.size()); i++) {
+      stats.sampleKey(segments.get(i), keys.get(i));
+    }
+    final long start = System.nanoTime();
+    try {
+      return storage.multiGet(segments, keys);
+    } finally {
+      final long latency = System.nanoTime() - start;
+      new HashSet<>(segments)
+          .forEach(segment -> stats.recordLatency(segment, Operation.MULTI_GET, latency));
+    }
+  }
+
+  @Override
+  public Optional<NearestKeyValue> getNearestBefore(
+      final SegmentIdentifier segmentIdentifier, final Bytes key) throws StorageException {
+    final long start = System.nanoTime();
+    try {
+      return storage.getNearestBefore(segmentIdentifier, key);
+    } finally {
+      stats.recordLatency(segmentIdentifier, Operation.SEEK, System.nanoTime() - start);
+    }
+  }
+
+  @Override
+  public Optional<NearestKeyValue> getNearestAfter(
+      final SegmentIdentifier segmentIdentifier, final Bytes key) throws StorageException {
+    final long start = System.nanoTime();
+    try {
+      return storage.getNearestAfter(segmentIdentifier, key);
+    } finally {
+      stats.recordLatency(segmentIdentifier, Operation.SEEK, System.nanoTime() - start);
+    }
+  }
+
+  @Override
+  public boolean containsKey(final SegmentIdentifier segment, final byte[] key)
+      throws StorageException {
+    stats.sampleKey(segment, key);
+    final long start = System.nanoTime();
+    try {
+      return storage.containsKey(segment, key);
+    } finally {
+      stats.recordLatency(segment, Operation.GET, System.nanoTime() - start);
+    }
+  }
+
+  @Override
+  public SegmentedKeyValueStorageTransaction startTransaction() throws StorageException {
+    return new InstrumentedSegmentedKeyValueStorageTransaction(storage.startTransaction(), stats);
+  }
+
+  @Override
+  public Stream<Pair<byte[], byte[]>> stream(final SegmentIdentifier segmentIdentifier) {
+    return storage.stream(segmentIdentifier);
+  }
+
+  @Override
+  public Stream<Pair<byte[], byte[]>> streamFromKey(
+      final SegmentIdentifier segmentIdentifier, final byte[] startKey) {
+    // only the positioning of the iterator is timed, the stream is consumed lazily
+    final long start = System.nanoTime();
+    try {
+      return storage.streamFromKey(segmentIdentifier, startKey);
+    } finally {
+      stats.recordLatency(segmentIdentifier, Operation.SEEK, System.nanoTime() - start);
+    }
+  }
+
+  @Override
+  public Stream<Pair<byte[], byte[]>> streamFromKey(
+      final SegmentIdentifier segmentIdentifier, final byte[] startKey, final byte[] endKey) {
+    final long start = System.nanoTime();
+    try {
+      return storage.streamFromKey(segmentIdentifier, startKey, endKey);
+    } finally {
+      stats.recordLatency(segmentIdentifier, Operation.SEEK, System.nanoTime() - start);
+    }
+  }
+
+  @Override
+  public Stream<byte[]> streamKeys(final SegmentIdentifier segmentIdentifier) {
+    return storage.streamKeys(segmentIdentifier);
+  }
+
+  @Override
+  public boolean tryDelete(final SegmentIdentifier segmentIdentifier, final byte[] key)
+      throws StorageException {
+    return storage.tryDelete(segmentIdentifier, key);
+  }
+
+  @Override
+  public Set<byte[]> getAllKeysThat(
+      final SegmentIdentifier segmentIdentifier, final Predicate<byte[]> returnCondition) {
+    return storage.getAllKeysThat(segmentIdentifier, returnCondition);
+  }
+
+  @Override
+  public Set<byte[]> getAllValuesFromKeysThat(
+      final SegmentIdentifier segmentIdentifier, final Predicate<byte[]> returnCondition) {
+    return storage.getAllValuesFromKeysThat(segmentIdentifier, returnCondition);
+  }
+
+  @Override
+  public void clear(final SegmentIdentifier segmentIdentifier) {
+    storage.clear(segmentIdentifier);
+  }
+
+  @Override
+  public boolean isClosed() {
+    return storage.isClosed();
+  }
+
+  @Override
+  public void close() throws IOException {
+    storage.close();
+  }
+}
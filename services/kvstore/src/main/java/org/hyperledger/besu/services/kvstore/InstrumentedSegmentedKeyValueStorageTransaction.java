@@ -0,0 +1,87 @@
+/*
+ * Copyright contributors to Hyperledger Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.services.kvstore;
+
+import org.hyperledger.besu.plugin.services.exception.StorageException;
+import org.hyperledger.besu.plugin.services.storage.SegmentIdentifier;
+import org.hyperledger.besu.plugin.services.storage.SegmentedKeyValueStorageTransaction;
+import org.hyperledger.besu.services.kvstore.SegmentedStorageStats.Operation;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Decorates a transaction to record the latency of its operations per segment. The commit latency
+ * is recorded for every segment written by the transaction.
+ */
+public class InstrumentedSegmentedKeyValueStorageTransaction
+    implements SegmentedKeyValueStorageTransaction {
+
+  private final SegmentedKeyValueStorageTransaction transaction;
+  private final SegmentedStorageStats stats;
+  private final Set<SegmentIdentifier> writtenSegments = new HashSet<>();
+
+  /**
+   * Instantiates a new instrumented transaction.
+   *
+   * @param transaction the transaction to decorate
+   * @param stats the stats to record the operations in
+   */
+  public InstrumentedSegmentedKeyValueStorageTransaction(
+      final SegmentedKeyValueStorageTransaction transaction, final SegmentedStorageStats stats) {
+    this.transaction = transaction;
+    this.stats = stats;
+  }
+
+  @Override
+  public void put(final SegmentIdentifier segmentIdentifier, final byte[] key, final byte[] value) {
+    writtenSegments.add(segmentIdentifier);
+    stats.sampleKey(segmentIdentifier, key);
+    final long start = System.nanoTime();
+    try {
+      transaction.put(segmentIdentifier, key, value);
+    } finally {
+      stats.recordLatency(segmentIdentifier, Operation.PUT, System.nanoTime() - start);
+    }
+  }
+
+  @Override
+  public void remove(final SegmentIdentifier segmentIdentifier, final byte[] key) {
+    writtenSegments.add(segmentIdentifier);
+    stats.sampleKey(segmentIdentifier, key);
+    final long start = System.nanoTime();
+    try {
+      transaction.remove(segmentIdentifier, key);
+    } finally {
+      stats.recordLatency(segmentIdentifier, Operation.REMOVE, System.nanoTime() - start);
+    }
+  }
+
+  @Override
+  public void commit() throws StorageException {
+    final long start = System.nanoTime();
+    try {
+      transaction.commit();
+    } finally {
+      final long latency = System.nanoTime() - start;
+      writtenSegments.forEach(segment -> stats.recordLatency(segment, Operation.COMMIT, latency));
+    }
+  }
+
+  @Override
+  public void rollback() {
+    transaction.rollback();
+  }
+}
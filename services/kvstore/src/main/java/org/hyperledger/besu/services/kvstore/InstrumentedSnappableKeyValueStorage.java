@@ -0,0 +1,43 @@
+/*
+ * Copyright contributors to Hyperledger Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.services.kvstore;
+
+import org.hyperledger.besu.plugin.services.storage.SegmentedKeyValueStorage;
+import org.hyperledger.besu.plugin.services.storage.SnappableKeyValueStorage;
+import org.hyperledger.besu.plugin.services.storage.SnappedKeyValueStorage;
+
+/**
+ * An instrumented storage which can take snapshots and create checkpoints of the decorated
+ * storage. The snapshots are not instrumented.
+ */
+public class InstrumentedSnappableKeyValueStorage extends InstrumentedCheckpointableKeyValueStorage
+    implements SnappableKeyValueStorage {
+
+  /**
+   * Instantiates a new instrumented snappable storage.
+   *
+   * @param storage the storage to decorate, which must be snappable and checkpointable
+   * @param stats the stats to record the operations in
+   */
+  InstrumentedSnappableKeyValueStorage(
+      final SegmentedKeyValueStorage storage, final SegmentedStorageStats stats) {
+    super(storage, stats);
+  }
+
+  @Override
+  public SnappedKeyValueStorage takeSnapshot() {
+    return ((SnappableKeyValueStorage) storage).takeSnapshot();
+  }
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright contributors to Hyperledger Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.services.kvstore;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A lock free histogram of latencies in nanoseconds, cheap enough to record every storage
+ * operation.
+ *
+ * <p>Each power of two range of latencies is split in four buckets, so that the recorded
+ * percentiles are within 25% of the real ones. Percentiles are reported as the upper bound of their
+ * bucket.
+ */
+public class LatencyHistogram {
+  private static final int SUB_BUCKET_BITS = 2;
+  private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+  private static final int BUCKETS = Long.SIZE * SUB_BUCKETS;
+
+  private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+  private final LongAdder count = new LongAdder();
+  private final LongAdder totalNanos = new LongAdder();
+
+  /** Default constructor. */
+  public LatencyHistogram() {}
+
+  /**
+   * Records a latency.
+   *
+   * @param nanos the latency in nanoseconds, negative values are recorded as zero
+   */
+  public void record(final long nanos) {
+    final long latency = Math.max(0, nanos);
+    buckets.incrementAndGet(bucketOf(latency));
+    count.increment();
+    totalNanos.add(latency);
+  }
+
+  /**
+   * Gets the number of recorded latencies.
+   *
+   * @return the count
+   */
+  public long getCount() {
+    return count.sum();
+  }
+
+  /**
+   * Summarizes the recorded latencies. The summary is not atomic, latencies recorded meanwhile may
+   * be partially included.
+   *
+   * @return the summary
+   */
+  public Summary summary() {
+    final long[] counts = new long[BUCKETS];
+    long total = 0;
+    for (int i = 0; i < BUCKETS; i++) {
+      counts[i] = buckets.get(i);
+      total += counts[i];
+    }
+    return new Summary(
+        total,
+        total == 0 ? 0 : totalNanos.sum() / total,
+        percentile(counts, total, 0.5),
+        percentile(counts, total, 0.9),
+        percentile(counts, total, 0.99),
+        percentile(counts, total, 1.0));
+  }
+
+  private static long percentile(final long[] counts, final long total, final double quantile) {
+    if (total == 0) {
+      return 0;
+    }
+    final long rank = Math.max(1, (long) Math.ceil(total * quantile));
+    long seen = 0;
+    for (int i = 0; i < counts.length; i++) {
+      seen += counts[i];
+      if (seen >= rank) {
+        return upperBoundOf(i);
+      }
+    }
+    return upperBoundOf(counts.length - 1);
+  }
+
+  static int bucketOf(final long nanos) {
+    if (nanos < SUB_BUCKETS) {
+      return (int) nanos;
+    }
+    final int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(nanos);
+    final int subBucket = (int) (nanos >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+    return exponent * SUB_BUCKETS + subBucket;
+  }
+
+  static long upperBoundOf(final int bucket) {
+    if (bucket < SUB_BUCKETS) {
+      return bucket;
+    }
+    final int exponent = bucket / SUB_BUCKETS;
+    final long subBucket = bucket % SUB_BUCKETS;
+    final long upperBound = ((SUB_BUCKETS + subBucket + 1) << (exponent - SUB_BUCKET_BITS)) - 1;
+    // the last bucket would overflow
+    return upperBound < 0 ? Long.MAX_VALUE : upperBound;
+  }
+
+  /**
+   * The summary of the recorded latencies, in nanoseconds.
+   *
+   * @param count the number of recorded latencies
+   * @param meanNanos the mean latency
+   * @param p50Nanos the median latency
+   * @param p90Nanos the 90th percentile
+   * @param p99Nanos the 99th percentile
+   * @param maxNanos the maximum latency
+   */
+  public record Summary(
+      long count, long meanNanos, long p50Nanos, long p90Nanos, long p99Nanos, long maxNanos) {}
+}
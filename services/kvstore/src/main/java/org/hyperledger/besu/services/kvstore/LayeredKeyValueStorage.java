@@ -14,6 +14,7 @@
  */
 package org.hyperledger.besu.services.kvstore;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static java.util.Spliterator.DISTINCT;
 import static java.util.Spliterator.ORDERED;
 import static java.util.Spliterator.SORTED;
@@ -24,8 +25,10 @@ import org.hyperledger.besu.plugin.services.storage.SegmentedKeyValueStorage;
 import org.hyperledger.besu.plugin.services.storage.SegmentedKeyValueStorageTransaction;
 import org.hyperledger.besu.plugin.services.storage.SnappedKeyValueStorage;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.NavigableMap;
 import java.util.Optional;
@@ -101,6 +104,51 @@ public class LayeredKeyValueStorage extends SegmentedInMemoryKeyValueStorage
     }
   }
 
+  /**
+   * Looks up the keys in this layer first, then fetches all the keys missing from this layer from
+   * the parent storage in a single batch.
+   */
+  @Override
+  public List<Optional<byte[]>> multiGet(
+      final List<SegmentIdentifier> segmentIds, final List<byte[]> keys) throws StorageException {
+    throwIfClosed();
+    checkArgument(
+        segmentIds.size() == keys.size(),
+        "Expected one segment per key, got %s for %s",
+        segmentIds.size(),
+        keys.size());
+
+    final Lock lock = rwLock.readLock();
+    lock.lock();
+    try {
+      final List<Optional<byte[]>> values = new ArrayList<>(keys.size());
+      final List<Integer> missingIndexes = new ArrayList<>();
+      final List<SegmentIdentifier> missingSegments = new ArrayList<>();
+      final List<byte[]> missingKeys = new ArrayList<>();
+      for (int i = 0; i < keys.size(); i++) {
+        final Optional<byte[]> foundKey =
+            hashValueStore
+                .computeIfAbsent(segmentIds.get(i), __ -> newSegmentMap())
+                .get(Bytes.wrap(keys.get(i)));
+        values.add(foundKey);
+        if (foundKey == null) {
+          missingIndexes.add(i);
+          missingSegments.add(segmentIds.get(i));
+          missingKeys.add(keys.get(i));
+        }
+      }
+      if (!missingKeys.isEmpty()) {
+        final List<Optional<byte[]>> parentValues = parent.multiGet(missingSegments, missingKeys);
+        for (int i = 0; i < missingIndexes.size(); i++) {
+          values.set(missingIndexes.get(i), parentValues.get(i));
+        }
+      }
+      return values;
+    } finally {
+      lock.unlock();
+    }
+  }
+
   @Override
   public Optional<NearestKeyValue> getNearestBefore(
       final SegmentIdentifier segmentIdentifier, final Bytes key) throws StorageException {
@@ -14,6 +14,7 @@
  */
 package org.hyperledger.besu.services.kvstore;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static java.util.stream.Collectors.toUnmodifiableSet;
 import static org.hyperledger.besu.services.kvstore.KeyComparator.compareKeyLeftToRight;
 
@@ -25,6 +26,7 @@ import org.hyperledger.besu.plugin.services.storage.SnappableKeyValueStorage;
 import org.hyperledger.besu.plugin.services.storage.SnappedKeyValueStorage;
 
 import java.io.PrintStream;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
@@ -144,6 +146,31 @@ public class SegmentedInMemoryKeyValueStorage
     }
   }
 
+  @Override
+  public List<Optional<byte[]>> multiGet(
+      final List<SegmentIdentifier> segmentIdentifiers, final List<byte[]> keys)
+      throws StorageException {
+    checkArgument(
+        segmentIdentifiers.size() == keys.size(),
+        "Expected one segment per key, got %s for %s",
+        segmentIdentifiers.size(),
+        keys.size());
+    final Lock lock = rwLock.readLock();
+    lock.lock();
+    try {
+      final List<Optional<byte[]>> values = new ArrayList<>(keys.size());
+      for (int i = 0; i < keys.size(); i++) {
+        values.add(
+            hashValueStore
+                .computeIfAbsent(segmentIdentifiers.get(i), s -> newSegmentMap())
+                .getOrDefault(Bytes.wrap(keys.get(i)), Optional.empty()));
+      }
+      return values;
+    } finally {
+      lock.unlock();
+    }
+  }
+
   @Override
   public Optional<NearestKeyValue> getNearestBefore(
       final SegmentIdentifier segmentIdentifier, final Bytes key) throws StorageException {
@@ -0,0 +1,208 @@
+/*
+ * Copyright contributors to Hyperledger Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.services.kvstore;
+
+import org.hyperledger.besu.plugin.services.MetricsSystem;
+import org.hyperledger.besu.plugin.services.metrics.LabelledGauge;
+import org.hyperledger.besu.plugin.services.metrics.MetricCategory;
+import org.hyperledger.besu.plugin.services.storage.SegmentIdentifier;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The latency histograms and hot keys of the segments of instrumented storages, by segment name.
+ *
+ * @see InstrumentedSegmentedKeyValueStorage
+ */
+public class SegmentedStorageStats {
+
+  /** One access out of this many is sampled to find the hot keys. */
+  public static final int DEFAULT_HOT_KEY_SAMPLE_RATE = 64;
+
+  /** Number of hot keys kept per segment. */
+  public static final int DEFAULT_MAX_HOT_KEYS = 16;
+
+  private static final double NANOS_PER_SECOND = 1_000_000_000d;
+
+  /** The instrumented storage operations. */
+  public enum Operation {
+    /** Read of a single key, or a check of its presence. */
+    GET,
+    /** Read of several keys at once. */
+    MULTI_GET,
+    /** Positioning of an iterator, to read the nearest key or a range of keys. */
+    SEEK,
+    /** Put in a transaction. */
+    PUT,
+    /** Remove in a transaction. */
+    REMOVE,
+    /** Commit of a transaction, recorded for each segment it writes to. */
+    COMMIT
+  }
+
+  private final int hotKeySampleRate;
+  private final int maxHotKeys;
+  private final Map<String, SegmentStats> segments = new ConcurrentHashMap<>();
+  private volatile Optional<Gauges> gauges = Optional.empty();
+
+  /** Instantiates new storage stats with the default hot key sampling. */
+  public SegmentedStorageStats() {
+    this(DEFAULT_HOT_KEY_SAMPLE_RATE, DEFAULT_MAX_HOT_KEYS);
+  }
+
+  /**
+   * Instantiates new storage stats.
+   *
+   * @param hotKeySampleRate one access out of hotKeySampleRate is sampled to find the hot keys
+   * @param maxHotKeys the number of hot keys kept per segment
+   */
+  public SegmentedStorageStats(final int hotKeySampleRate, final int maxHotKeys) {
+    this.hotKeySampleRate = hotKeySampleRate;
+    this.maxHotKeys = maxHotKeys;
+  }
+
+  /**
+   * Exposes the latencies of the segments as gauges, labelled by segment and operation.
+   *
+   * @param metricsSystem the metrics system
+   * @param category the category of the gauges
+   */
+  public synchronized void registerMetrics(
+      final MetricsSystem metricsSystem, final MetricCategory category) {
+    final Gauges registered =
+        new Gauges(
+            metricsSystem.createLabelledGauge(
+                category,
+                "segment_operations",
+                "Number of operations on a storage segment",
+                "segment",
+                "operation"),
+            metricsSystem.createLabelledGauge(
+                category,
+                "segment_latency_seconds",
+                "Latency of the operations on a storage segment",
+                "segment",
+                "operation",
+                "quantile"));
+    segments.values().forEach(registered::register);
+    gauges = Optional.of(registered);
+  }
+
+  /**
+   * Records the latency of an operation on a segment.
+   *
+   * @param segment the segment
+   * @param operation the operation
+   * @param nanos the latency in nanoseconds
+   */
+  public void recordLatency(
+      final SegmentIdentifier segment, final Operation operation, final long nanos) {
+    statsOf(segment).latencies.get(operation).record(nanos);
+  }
+
+  /**
+   * Records an access to a key of a segment, to find the hot keys.
+   *
+   * @param segment the segment
+   * @param key the accessed key
+   */
+  public void sampleKey(final SegmentIdentifier segment, final byte[] key) {
+    statsOf(segment).hotKeys.sample(key);
+  }
+
+  private SegmentStats statsOf(final SegmentIdentifier segment) {
+    final SegmentStats stats = segments.get(segment.getName());
+    return stats != null ? stats : segments.computeIfAbsent(segment.getName(), this::newStats);
+  }
+
+  private synchronized SegmentStats newStats(final String segmentName) {
+    final SegmentStats stats =
+        new SegmentStats(segmentName, new HotKeySampler(hotKeySampleRate, maxHotKeys));
+    gauges.ifPresent(registered -> registered.register(stats));
+    return stats;
+  }
+
+  /**
+   * Summarizes the stats of the segments accessed so far.
+   *
+   * @return the summary of each segment, by segment name
+   */
+  public Map<String, SegmentSummary> summary() {
+    final Map<String, SegmentSummary> summary = new TreeMap<>();
+    segments.forEach(
+        (name, stats) -> {
+          final Map<Operation, LatencyHistogram.Summary> latencies =
+              new EnumMap<>(Operation.class);
+          stats.latencies.forEach(
+              (operation, histogram) -> {
+                if (histogram.getCount() > 0) {
+                  latencies.put(operation, histogram.summary());
+                }
+              });
+          summary.put(name, new SegmentSummary(latencies, stats.hotKeys.getHotKeys()));
+        });
+    return summary;
+  }
+
+  /**
+   * The stats of a segment.
+   *
+   * @param latencies the latencies of the operations performed on the segment
+   * @param hotKeys the hot keys of the segment, hottest first
+   */
+  public record SegmentSummary(
+      Map<Operation, LatencyHistogram.Summary> latencies, List<HotKeySampler.HotKey> hotKeys) {}
+
+  private static final class SegmentStats {
+    private final String name;
+    private final Map<Operation, LatencyHistogram> latencies = new EnumMap<>(Operation.class);
+    private final HotKeySampler hotKeys;
+
+    private SegmentStats(final String name, final HotKeySampler hotKeys) {
+      this.name = name;
+      this.hotKeys = hotKeys;
+      for (final Operation operation : Operation.values()) {
+        latencies.put(operation, new LatencyHistogram());
+      }
+    }
+  }
+
+  private record Gauges(LabelledGauge operations, LabelledGauge latencies) {
+
+    private void register(final SegmentStats stats) {
+      stats.latencies.forEach(
+          (operation, histogram) -> {
+            final String operationName = operation.name().toLowerCase(Locale.ROOT);
+            operations.labels(histogram::getCount, stats.name, operationName);
+            latencies.labels(
+                () -> histogram.summary().p50Nanos() / NANOS_PER_SECOND,
+                stats.name,
+                operationName,
+                "0.5");
+            latencies.labels(
+                () -> histogram.summary().p99Nanos() / NANOS_PER_SECOND,
+                stats.name,
+                operationName,
+                "0.99");
+          });
+    }
+  }
+}
@@ -0,0 +1,217 @@
+/*
+ * Copyright contributors to Hyperledger Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.services.kvstore;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hyperledger.besu.services.kvstore.InMemoryKeyValueStorage.SEGMENT_IDENTIFIER;
+
+import org.hyperledger.besu.kvstore.AbstractKeyValueStorageTest;
+import org.hyperledger.besu.plugin.services.storage.KeyValueStorage;
+import org.hyperledger.besu.plugin.services.storage.SegmentedKeyValueStorage;
+import org.hyperledger.besu.plugin.services.storage.SegmentedKeyValueStorage.NearestKeyValue;
+import org.hyperledger.besu.plugin.services.storage.SegmentedKeyValueStorageTransaction;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.IntStream;
+
+import org.apache.commons.lang3.tuple.Pair;
+import org.apache.tuweni.bytes.Bytes;
+import org.junit.jupiter.api.Test;
+
+public class ConcurrentSegmentedInMemoryKeyValueStorageTest extends AbstractKeyValueStorageTest {
+
+  @Override
+  protected KeyValueStorage createStore() {
+    return new SegmentedKeyValueStorageAdapter(
+        SEGMENT_IDENTIFIER, new ConcurrentSegmentedInMemoryKeyValueStorage());
+  }
+
+  @Test
+  public void streamsKeysInLexicographicOrder() {
+    final ConcurrentSegmentedInMemoryKeyValueStorage storage =
+        new ConcurrentSegmentedInMemoryKeyValueStorage();
+    put(storage, bytesOf(2), bytesOf(20));
+    put(storage, bytesOf(1, 1), bytesOf(11));
+    put(storage, bytesOf(0, 1), bytesOf(1));
+    put(storage, bytesOf(1), bytesOf(10));
+
+    assertThat(storage.streamKeys(SEGMENT_IDENTIFIER))
+        .containsExactly(bytesOf(0, 1), bytesOf(1), bytesOf(1, 1), bytesOf(2));
+    assertThat(storage.streamFromKey(SEGMENT_IDENTIFIER, bytesOf(1), bytesOf(1, 1)))
+        .map(Pair::getKey)
+        .containsExactly(bytesOf(1), bytesOf(1, 1));
+  }
+
+  @Test
+  public void getNearestReturnsTheClosestKeys() {
+    final ConcurrentSegmentedInMemoryKeyValueStorage storage =
+        new ConcurrentSegmentedInMemoryKeyValueStorage();
+    put(storage, bytesOf(1), bytesOf(10));
+    put(storage, bytesOf(1, 1), bytesOf(11));
+    put(storage, bytesOf(2), bytesOf(20));
+
+    assertThat(storage.getNearestBefore(SEGMENT_IDENTIFIER, Bytes.of(1, 2)))
+        .map(NearestKeyValue::key)
+        .contains(Bytes.of(1, 1));
+    assertThat(storage.getNearestAfter(SEGMENT_IDENTIFIER, Bytes.of(1, 2)))
+        .map(NearestKeyValue::key)
+        .contains(Bytes.of(2));
+    assertThat(storage.getNearestAfter(SEGMENT_IDENTIFIER, Bytes.of(3))).isEmpty();
+  }
+
+  @Test
+  public void snapshotIsIsolatedFromLaterCommits() throws Exception {
+    final ConcurrentSegmentedInMemoryKeyValueStorage storage =
+        new ConcurrentSegmentedInMemoryKeyValueStorage();
+    put(storage, bytesOf(1), bytesOf(10));
+    put(storage, bytesOf(2), bytesOf(20));
+
+    try (final ConcurrentSegmentedInMemoryKeyValueStorage snapshot = storage.takeSnapshot()) {
+      put(storage, bytesOf(1), bytesOf(11));
+      remove(storage, bytesOf(2));
+      put(storage, bytesOf(3), bytesOf(30));
+
+      assertThat(snapshot.get(SEGMENT_IDENTIFIER, bytesOf(1))).contains(bytesOf(10));
+      assertThat(snapshot.get(SEGMENT_IDENTIFIER, bytesOf(2))).contains(bytesOf(20));
+      assertThat(snapshot.get(SEGMENT_IDENTIFIER, bytesOf(3))).isEmpty();
+      assertThat(snapshot.streamKeys(SEGMENT_IDENTIFIER)).containsExactly(bytesOf(1), bytesOf(2));
+      assertThat(storage.streamKeys(SEGMENT_IDENTIFIER)).containsExactly(bytesOf(1), bytesOf(3));
+    }
+  }
+
+  @Test
+  public void snapshotWritesAreNotVisibleInTheStorage() throws Exception {
+    final ConcurrentSegmentedInMemoryKeyValueStorage storage =
+        new ConcurrentSegmentedInMemoryKeyValueStorage();
+    put(storage, bytesOf(1), bytesOf(10));
+    put(storage, bytesOf(2), bytesOf(20));
+
+    try (final ConcurrentSegmentedInMemoryKeyValueStorage snapshot = storage.takeSnapshot()) {
+      final SegmentedKeyValueStorageTransaction tx = snapshot.getSnapshotTransaction();
+      tx.put(SEGMENT_IDENTIFIER, bytesOf(1), bytesOf(11));
+      tx.remove(SEGMENT_IDENTIFIER, bytesOf(2));
+      tx.put(SEGMENT_IDENTIFIER, bytesOf(3), bytesOf(30));
+      tx.commit();
+
+      assertThat(snapshot.stream(SEGMENT_IDENTIFIER))
+          .map(Pair::getValue)
+          .containsExactly(bytesOf(11), bytesOf(30));
+      assertThat(storage.stream(SEGMENT_IDENTIFIER))
+          .map(Pair::getValue)
+          .containsExactly(bytesOf(10), bytesOf(20));
+    }
+  }
+
+  @Test
+  public void nestedSnapshotOutlivesItsParent() throws Exception {
+    final ConcurrentSegmentedInMemoryKeyValueStorage storage =
+        new ConcurrentSegmentedInMemoryKeyValueStorage();
+    put(storage, bytesOf(1), bytesOf(10));
+    final ConcurrentSegmentedInMemoryKeyValueStorage snapshot = storage.takeSnapshot();
+    put(snapshot, bytesOf(2), bytesOf(20));
+
+    try (final ConcurrentSegmentedInMemoryKeyValueStorage nested = snapshot.takeSnapshot()) {
+      snapshot.close();
+      put(storage, bytesOf(1), bytesOf(11));
+      put(storage, bytesOf(1), bytesOf(12));
+
+      assertThat(snapshot.isClosed()).isTrue();
+      assertThat(nested.isClosed()).isFalse();
+      assertThat(nested.get(SEGMENT_IDENTIFIER, bytesOf(1))).contains(bytesOf(10));
+      assertThat(nested.get(SEGMENT_IDENTIFIER, bytesOf(2))).contains(bytesOf(20));
+    }
+  }
+
+  @Test
+  public void snapshotsAreConsistentUnderConcurrentCommits() throws Exception {
+    final ConcurrentSegmentedInMemoryKeyValueStorage storage =
+        new ConcurrentSegmentedInMemoryKeyValueStorage();
+    final ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      final List<CompletableFuture<Void>> writers = new ArrayList<>();
+      for (int writer = 0; writer < 4; writer++) {
+        final int id = writer;
+        writers.add(
+            CompletableFuture.runAsync(
+                () ->
+                    IntStream.range(0, 1_000)
+                        .forEach(
+                            i -> {
+                              // each commit writes two keys which must always be seen together
+                              final SegmentedKeyValueStorageTransaction tx =
+                                  storage.startTransaction();
+                              tx.put(SEGMENT_IDENTIFIER, bytesOf(id, 0), bytesOf(i >> 8, i));
+                              tx.put(SEGMENT_IDENTIFIER, bytesOf(id, 1), bytesOf(i >> 8, i));
+                              tx.commit();
+                            }),
+                executor));
+      }
+
+      while (!CompletableFuture.allOf(writers.toArray(CompletableFuture[]::new)).isDone()) {
+        try (final SegmentedKeyValueStorage snapshot = storage.takeSnapshot()) {
+          for (int id = 0; id < 4; id++) {
+            assertThat(snapshot.get(SEGMENT_IDENTIFIER, bytesOf(id, 0)))
+                .isEqualTo(snapshot.get(SEGMENT_IDENTIFIER, bytesOf(id, 1)));
+          }
+        }
+      }
+      CompletableFuture.allOf(writers.toArray(CompletableFuture[]::new)).get();
+    } finally {
+      executor.shutdownNow();
+    }
+
+    assertThat(storage.stream(SEGMENT_IDENTIFIER)).hasSize(8);
+  }
+
+  @Test
+  public void readsNeverMissAKeyRewrittenByConcurrentCommits() throws Exception {
+    final ConcurrentSegmentedInMemoryKeyValueStorage storage =
+        new ConcurrentSegmentedInMemoryKeyValueStorage();
+    put(storage, bytesOf(1), bytesOf(0));
+    final ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      // each commit drops the versions older than the previous one, as no snapshot is open
+      final CompletableFuture<Void> writer =
+          CompletableFuture.runAsync(
+              () -> IntStream.range(0, 20_000).forEach(i -> put(storage, bytesOf(1), bytesOf(i))),
+              executor);
+
+      while (!writer.isDone()) {
+        assertThat(storage.get(SEGMENT_IDENTIFIER, bytesOf(1))).isPresent();
+        assertThat(storage.getNearestAfter(SEGMENT_IDENTIFIER, Bytes.of(0))).isPresent();
+      }
+      writer.get();
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  private static void put(
+      final SegmentedKeyValueStorage storage, final byte[] key, final byte[] value) {
+    final SegmentedKeyValueStorageTransaction tx = storage.startTransaction();
+    tx.put(SEGMENT_IDENTIFIER, key, value);
+    tx.commit();
+  }
+
+  private static void remove(final SegmentedKeyValueStorage storage, final byte[] key) {
+    final SegmentedKeyValueStorageTransaction tx = storage.startTransaction();
+    tx.remove(SEGMENT_IDENTIFIER, key);
+    tx.commit();
+  }
+}
@@ -0,0 +1,148 @@
+/*
+ * Copyright contributors to Hyperledger Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.services.kvstore;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hyperledger.besu.services.kvstore.InMemoryKeyValueStorage.SEGMENT_IDENTIFIER;
+
+import org.hyperledger.besu.kvstore.AbstractKeyValueStorageTest;
+import org.hyperledger.besu.plugin.services.storage.CheckpointableKeyValueStorage;
+import org.hyperledger.besu.plugin.services.storage.KeyValueStorage;
+import org.hyperledger.besu.plugin.services.storage.SecondaryKeyValueStorage;
+import org.hyperledger.besu.plugin.services.storage.SegmentedKeyValueStorage;
+import org.hyperledger.besu.plugin.services.storage.SegmentedKeyValueStorageTransaction;
+import org.hyperledger.besu.plugin.services.storage.SnappableKeyValueStorage;
+import org.hyperledger.besu.services.kvstore.SegmentedStorageStats.Operation;
+import org.hyperledger.besu.services.kvstore.SegmentedStorageStats.SegmentSummary;
+
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.junit.jupiter.api.Test;
+
+public class InstrumentedSegmentedKeyValueStorageTest extends AbstractKeyValueStorageTest {
+
+  @Override
+  protected KeyValueStorage createStore() {
+    return new SegmentedKeyValueStorageAdapter(
+        SEGMENT_IDENTIFIER,
+        new InstrumentedSegmentedKeyValueStorage(
+            new ConcurrentSegmentedInMemoryKeyValueStorage(), new SegmentedStorageStats()));
+  }
+
+  @Test
+  public void recordsTheLatencyOfEachOperationPerSegment() {
+    final SegmentedStorageStats stats = new SegmentedStorageStats();
+    final SegmentedKeyValueStorage storage =
+        new InstrumentedSegmentedKeyValueStorage(
+            new ConcurrentSegmentedInMemoryKeyValueStorage(), stats);
+
+    final SegmentedKeyValueStorageTransaction tx = storage.startTransaction();
+    tx.put(SEGMENT_IDENTIFIER, bytesOf(1), bytesOf(10));
+    tx.put(SEGMENT_IDENTIFIER, bytesOf(2), bytesOf(20));
+    tx.remove(SEGMENT_IDENTIFIER, bytesOf(3));
+    tx.commit();
+    storage.get(SEGMENT_IDENTIFIER, bytesOf(1));
+    storage.containsKey(SEGMENT_IDENTIFIER, bytesOf(2));
+    storage.getNearestAfter(SEGMENT_IDENTIFIER, Bytes.of(1));
+
+    final SegmentSummary summary = stats.summary().get(SEGMENT_IDENTIFIER.getName());
+    assertThat(summary.latencies())
+        .containsOnlyKeys(
+            Operation.PUT, Operation.REMOVE, Operation.COMMIT, Operation.GET, Operation.SEEK);
+    assertThat(summary.latencies().get(Operation.PUT).count()).isEqualTo(2);
+    assertThat(summary.latencies().get(Operation.REMOVE).count()).isEqualTo(1);
+    assertThat(summary.latencies().get(Operation.COMMIT).count()).isEqualTo(1);
+    assertThat(summary.latencies().get(Operation.GET).count()).isEqualTo(2);
+    assertThat(summary.latencies().get(Operation.SEEK).count()).isEqualTo(1);
+  }
+
+  @Test
+  public void findsTheHotKeys() {
+    final SegmentedStorageStats stats = new SegmentedStorageStats(1, 2);
+    final SegmentedKeyValueStorage storage =
+        new InstrumentedSegmentedKeyValueStorage(
+            new ConcurrentSegmentedInMemoryKeyValueStorage(), stats);
+
+    for (int key = 0; key < 10; key++) {
+      for (int access = 0; access < key * 10; access++) {
+        storage.get(SEGMENT_IDENTIFIER, bytesOf(key));
+      }
+    }
+
+    assertThat(stats.summary().get(SEGMENT_IDENTIFIER.getName()).hotKeys())
+        .extracting(HotKeySampler.HotKey::key)
+        .containsExactly(Bytes.of(9), Bytes.of(8));
+  }
+
+  @Test
+  public void histogramPercentilesAreWithinTheirBucket() {
+    final LatencyHistogram histogram = new LatencyHistogram();
+    for (long latency = 1; latency <= 1000; latency++) {
+      histogram.record(latency * 1000);
+    }
+
+    final LatencyHistogram.Summary summary = histogram.summary();
+    assertThat(summary.count()).isEqualTo(1000);
+    assertThat(summary.meanNanos()).isEqualTo(500_500);
+    assertThat(summary.p50Nanos()).isBetween(500_000L, 625_000L);
+    assertThat(summary.p99Nanos()).isBetween(990_000L, 1_237_500L);
+    assertThat(summary.maxNanos()).isBetween(1_000_000L, 1_250_000L);
+  }
+
+  @Test
+  public void wrapKeepsTheSnapshotsOfSnappableOnlyStorages() {
+    final SegmentedKeyValueStorage storage = new ConcurrentSegmentedInMemoryKeyValueStorage();
+
+    assertThat(InstrumentedSegmentedKeyValueStorage.wrap(storage, new SegmentedStorageStats()))
+        .isSameAs(storage);
+  }
+
+  @Test
+  public void wrapKeepsTheCatchUpOfSecondaryStorages() {
+    final SecondaryInMemoryKeyValueStorage storage = new SecondaryInMemoryKeyValueStorage();
+
+    final SegmentedKeyValueStorage instrumented =
+        InstrumentedSegmentedKeyValueStorage.wrap(storage, new SegmentedStorageStats());
+
+    assertThat(instrumented)
+        .isInstanceOf(InstrumentedSegmentedKeyValueStorage.class)
+        .isInstanceOf(SnappableKeyValueStorage.class)
+        .isInstanceOf(CheckpointableKeyValueStorage.class)
+        .isInstanceOf(SecondaryKeyValueStorage.class);
+    ((SecondaryKeyValueStorage) instrumented).tryCatchUpWithPrimary();
+    assertThat(storage.catchUps.get()).isEqualTo(1);
+  }
+
+  private static class SecondaryInMemoryKeyValueStorage
+      extends ConcurrentSegmentedInMemoryKeyValueStorage
+      implements SecondaryKeyValueStorage, CheckpointableKeyValueStorage {
+    private final AtomicInteger catchUps = new AtomicInteger();
+
+    @Override
+    public void tryCatchUpWithPrimary() {
+      catchUps.incrementAndGet();
+    }
+
+    @Override
+    public void createCheckpoint(final Path checkpointDirectory) {}
+
+    @Override
+    public Path getStoragePath() {
+      return Path.of("secondary");
+    }
+  }
+}